@@ -0,0 +1,158 @@
+package org.apache.commons.jcs4.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.Properties;
+
+/**
+ * Builds the cache configurations shared by the benchmarks.
+ */
+final class BenchmarkConfigurations
+{
+    /** The disk caches that can be benchmarked */
+    enum DiskType
+    {
+        /** IndexedDiskCache */
+        INDEXED,
+
+        /** BlockDiskCache */
+        BLOCK,
+
+        /** JDBCDiskCache on an embedded HSQLDB file database */
+        JDBC
+    }
+
+    /** jcs.auxiliary. */
+    private static final String AUXILIARY_PREFIX = "jcs.auxiliary.";
+
+    /**
+     * Creates a configuration for the default region without auxiliaries.
+     *
+     * @param maxObjects the maximum number of objects in memory
+     * @return the properties
+     */
+    static Properties defaultRegion( final int maxObjects )
+    {
+        final Properties props = new Properties();
+        props.setProperty( "jcs.default", "" );
+        props.setProperty( "jcs.default.cacheattributes.MaxObjects", String.valueOf( maxObjects ) );
+        props.setProperty( "jcs.default.cacheattributes.UseMemoryShrinker", "false" );
+        props.setProperty( "jcs.default.elementattributes.IsEternal", "true" );
+        return props;
+    }
+
+    /**
+     * Adds a disk cache auxiliary.
+     *
+     * @param props the configuration
+     * @param auxName the name of the auxiliary
+     * @param type the disk cache implementation
+     * @param root the directory below which the files are created
+     */
+    static void addDiskCache( final Properties props, final String auxName, final DiskType type, final File root )
+    {
+        final String prefix = AUXILIARY_PREFIX + auxName;
+        final File dir = new File( root, auxName );
+        switch ( type )
+        {
+            case INDEXED:
+                props.setProperty( prefix, "org.apache.commons.jcs4.auxiliary.disk.indexed.IndexedDiskCacheFactory" );
+                props.setProperty( prefix + ".attributes.DiskPath", dir.getAbsolutePath() );
+                props.setProperty( prefix + ".attributes.MaxKeySize", "-1" );
+                break;
+            case BLOCK:
+                props.setProperty( prefix, "org.apache.commons.jcs4.auxiliary.disk.block.BlockDiskCacheFactory" );
+                props.setProperty( prefix + ".attributes.DiskPath", dir.getAbsolutePath() );
+                props.setProperty( prefix + ".attributes.MaxKeySize", "-1" );
+                break;
+            case JDBC:
+                props.setProperty( prefix, "org.apache.commons.jcs4.auxiliary.disk.jdbc.hsql.HSQLDiskCacheFactory" );
+                props.setProperty( prefix + ".attributes.url", "jdbc:hsqldb:" + new File( dir, "jcs" ).getAbsolutePath() );
+                props.setProperty( prefix + ".attributes.driverClassName", "org.hsqldb.jdbcDriver" );
+                props.setProperty( prefix + ".attributes.userName", "sa" );
+                props.setProperty( prefix + ".attributes.password", "" );
+                props.setProperty( prefix + ".attributes.tableName", "JCS_STORE" );
+                props.setProperty( prefix + ".attributes.testBeforeInsert", "false" );
+                props.setProperty( prefix + ".attributes.UseDiskShrinker", "false" );
+                break;
+            default:
+                throw new IllegalArgumentException( "Unknown disk type " + type );
+        }
+        props.setProperty( prefix + ".attributes.MaxPurgatorySize", "10000000" );
+    }
+
+    /**
+     * @param name the name of the benchmark
+     * @return a directory for the files of the benchmark, emptied
+     */
+    static File createDirectory( final String name )
+    {
+        final File dir = new File( System.getProperty( "java.io.tmpdir" ), "jcs-benchmarks/" + name );
+        delete( dir );
+        if ( !dir.mkdirs() )
+        {
+            throw new UncheckedIOException( new IOException( "Could not create " + dir ) );
+        }
+        return dir;
+    }
+
+    /**
+     * Deletes a file or directory tree.
+     *
+     * @param file the file
+     */
+    static void delete( final File file )
+    {
+        final File[] children = file.listFiles();
+        if ( children != null )
+        {
+            for ( final File child : children )
+            {
+                delete( child );
+            }
+        }
+        file.delete();
+    }
+
+    /**
+     * @return a free port on the loopback interface
+     */
+    static int freePort()
+    {
+        try ( ServerSocket socket = new ServerSocket( 0, 1, InetAddress.getLoopbackAddress() ) )
+        {
+            return socket.getLocalPort();
+        }
+        catch ( final IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /** No instances */
+    private BenchmarkConfigurations()
+    {
+    }
+}
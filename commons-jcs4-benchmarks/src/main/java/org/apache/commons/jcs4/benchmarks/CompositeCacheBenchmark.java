@@ -0,0 +1,188 @@
+package org.apache.commons.jcs4.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jcs4.JCS;
+import org.apache.commons.jcs4.access.CacheAccess;
+import org.apache.commons.jcs4.benchmarks.BenchmarkConfigurations.DiskType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a region through the composite cache with several auxiliary layouts. The memory cache
+ * holds a tenth of the keys, the rest is spooled to the auxiliaries.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class CompositeCacheBenchmark
+{
+    /** The auxiliary layouts */
+    public enum Layout
+    {
+        /** Memory only */
+        MEMORY,
+
+        /** Memory and the indexed disk cache */
+        MEMORY_INDEXED,
+
+        /** Memory and the block disk cache */
+        MEMORY_BLOCK,
+
+        /** Memory and both disk caches */
+        MEMORY_INDEXED_BLOCK
+    }
+
+    /** The region used by the benchmark */
+    private static final String REGION = "composite";
+
+    /** The layout */
+    @Param( { "MEMORY", "MEMORY_INDEXED", "MEMORY_BLOCK", "MEMORY_INDEXED_BLOCK" } )
+    public Layout layout;
+
+    /** The number of keys */
+    @Param( "10000" )
+    public int keyCount;
+
+    /** The size of the values in bytes */
+    @Param( "512" )
+    public int valueSize;
+
+    /** The cache */
+    private CacheAccess<Integer, String> cache;
+
+    /** The value put into the cache */
+    private String value;
+
+    /** The directory of the disk caches */
+    private File dir;
+
+    /**
+     * Configures the region with the layout and fills it.
+     */
+    @Setup( Level.Trial )
+    public void setUp()
+    {
+        dir = BenchmarkConfigurations.createDirectory( "composite-" + layout );
+        final Properties props = BenchmarkConfigurations.defaultRegion( keyCount / 10 );
+        switch ( layout )
+        {
+            case MEMORY:
+                break;
+            case MEMORY_INDEXED:
+                props.setProperty( "jcs.default", "IDC" );
+                BenchmarkConfigurations.addDiskCache( props, "IDC", DiskType.INDEXED, dir );
+                break;
+            case MEMORY_BLOCK:
+                props.setProperty( "jcs.default", "BDC" );
+                BenchmarkConfigurations.addDiskCache( props, "BDC", DiskType.BLOCK, dir );
+                break;
+            case MEMORY_INDEXED_BLOCK:
+                props.setProperty( "jcs.default", "IDC,BDC" );
+                BenchmarkConfigurations.addDiskCache( props, "IDC", DiskType.INDEXED, dir );
+                BenchmarkConfigurations.addDiskCache( props, "BDC", DiskType.BLOCK, dir );
+                break;
+            default:
+                throw new IllegalArgumentException( "Unknown layout " + layout );
+        }
+        JCS.setConfigProperties( props );
+
+        cache = JCS.getInstance( REGION );
+        value = "x".repeat( valueSize );
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            cache.put( Integer.valueOf( i ), value );
+        }
+    }
+
+    /**
+     * Shuts the cache manager down and removes the files.
+     */
+    @TearDown( Level.Trial )
+    public void tearDown()
+    {
+        JCS.shutdown();
+        BenchmarkConfigurations.delete( dir );
+    }
+
+    /**
+     * @return a random key
+     */
+    private Integer nextKey()
+    {
+        return Integer.valueOf( ThreadLocalRandom.current().nextInt( keyCount ) );
+    }
+
+    /**
+     * Readers of a mixed workload.
+     *
+     * @return the value, may be null
+     */
+    @Benchmark
+    @Group( "readWrite" )
+    @GroupThreads( 3 )
+    public String readWrite_get()
+    {
+        return cache.get( nextKey() );
+    }
+
+    /**
+     * The writer of a mixed workload.
+     */
+    @Benchmark
+    @Group( "readWrite" )
+    @GroupThreads( 1 )
+    public void readWrite_put()
+    {
+        cache.put( nextKey(), value );
+    }
+
+    /**
+     * Reads only, from a single thread.
+     *
+     * @return the value, may be null
+     */
+    @Benchmark
+    public String get()
+    {
+        return cache.get( nextKey() );
+    }
+}
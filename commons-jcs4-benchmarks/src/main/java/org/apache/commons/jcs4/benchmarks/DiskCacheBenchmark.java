@@ -0,0 +1,141 @@
+package org.apache.commons.jcs4.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jcs4.JCS;
+import org.apache.commons.jcs4.access.CacheAccess;
+import org.apache.commons.jcs4.benchmarks.BenchmarkConfigurations.DiskType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures each disk cache behind a region that keeps nothing in memory, so every get goes to the
+ * disk cache. Puts are written by the event queue of the disk cache; the put benchmark measures
+ * the caller side, which includes the purgatory.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class DiskCacheBenchmark
+{
+    /** The region used by the benchmark */
+    private static final String REGION = "disk";
+
+    /** The disk cache implementation */
+    @Param( { "INDEXED", "BLOCK", "JDBC" } )
+    public DiskType diskType;
+
+    /** The number of keys */
+    @Param( "10000" )
+    public int keyCount;
+
+    /** The size of the values in bytes */
+    @Param( { "128", "4096" } )
+    public int valueSize;
+
+    /** The cache */
+    private CacheAccess<Integer, String> cache;
+
+    /** The value put into the cache */
+    private String value;
+
+    /** The directory of the disk cache */
+    private File dir;
+
+    /**
+     * Configures a region with the disk cache and fills it.
+     */
+    @Setup( Level.Trial )
+    public void setUp()
+    {
+        dir = BenchmarkConfigurations.createDirectory( "disk-" + diskType );
+        final Properties props = BenchmarkConfigurations.defaultRegion( 0 );
+        props.setProperty( "jcs.default", "DC" );
+        BenchmarkConfigurations.addDiskCache( props, "DC", diskType, dir );
+        JCS.setConfigProperties( props );
+
+        cache = JCS.getInstance( REGION );
+        value = "x".repeat( valueSize );
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            cache.put( Integer.valueOf( i ), value );
+        }
+    }
+
+    /**
+     * Shuts the cache manager down and removes the files.
+     */
+    @TearDown( Level.Trial )
+    public void tearDown()
+    {
+        JCS.shutdown();
+        BenchmarkConfigurations.delete( dir );
+    }
+
+    /**
+     * @return a random key
+     */
+    private Integer nextKey()
+    {
+        return Integer.valueOf( ThreadLocalRandom.current().nextInt( keyCount ) );
+    }
+
+    /**
+     * Reads from the disk cache.
+     *
+     * @return the value
+     */
+    @Benchmark
+    @Threads( 4 )
+    public String get()
+    {
+        return cache.get( nextKey() );
+    }
+
+    /**
+     * Overwrites existing keys.
+     */
+    @Benchmark
+    @Threads( 4 )
+    public void put()
+    {
+        cache.put( nextKey(), value );
+    }
+}
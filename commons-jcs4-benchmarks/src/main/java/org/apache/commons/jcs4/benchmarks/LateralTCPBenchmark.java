@@ -0,0 +1,164 @@
+package org.apache.commons.jcs4.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jcs4.JCS;
+import org.apache.commons.jcs4.access.CacheAccess;
+import org.apache.commons.jcs4.access.exception.CacheException;
+import org.apache.commons.jcs4.auxiliary.lateral.socket.tcp.LateralTCPCacheAttributes;
+import org.apache.commons.jcs4.auxiliary.lateral.socket.tcp.LateralTCPListener;
+import org.apache.commons.jcs4.auxiliary.lateral.socket.tcp.LateralTCPService;
+import org.apache.commons.jcs4.engine.CacheElement;
+import org.apache.commons.jcs4.engine.behavior.ICacheElement;
+import org.apache.commons.jcs4.engine.behavior.IElementSerializer;
+import org.apache.commons.jcs4.engine.control.CompositeCacheManager;
+import org.apache.commons.jcs4.utils.serialization.BinarySerializer;
+import org.apache.commons.jcs4.utils.serialization.StandardSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the lateral TCP transport over loopback. A listener serves a filled memory region and a
+ * service in the same JVM talks to it. A get is a full round trip, an update is sent one way.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class LateralTCPBenchmark
+{
+    /** The region used by the benchmark */
+    private static final String REGION = "lateral";
+
+    /** The serializer used on both ends */
+    @Param( { "STANDARD", "BINARY" } )
+    public String serializerName;
+
+    /** The number of keys */
+    @Param( "1000" )
+    public int keyCount;
+
+    /** The size of the values in bytes */
+    @Param( { "128", "4096" } )
+    public int valueSize;
+
+    /** The receiving side */
+    private LateralTCPListener<Integer, String> listener;
+
+    /** The sending side */
+    private LateralTCPService<Integer, String> service;
+
+    /** The value put into the cache */
+    private String value;
+
+    /**
+     * Fills the region and starts the listener and the service.
+     *
+     * @throws CacheException if the cache manager cannot be configured
+     * @throws IOException if the service cannot connect
+     */
+    @Setup( Level.Trial )
+    public void setUp()
+        throws CacheException, IOException
+    {
+        JCS.setConfigProperties( BenchmarkConfigurations.defaultRegion( keyCount ) );
+        final CacheAccess<Integer, String> cache = JCS.getInstance( REGION );
+        value = "x".repeat( valueSize );
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            cache.put( Integer.valueOf( i ), value );
+        }
+
+        final int port = BenchmarkConfigurations.freePort();
+        final IElementSerializer serializer = "BINARY".equals( serializerName )
+            ? new BinarySerializer() : new StandardSerializer();
+
+        final LateralTCPCacheAttributes listenerAttributes = new LateralTCPCacheAttributes();
+        listenerAttributes.setTcpListenerHost( "127.0.0.1" );
+        listenerAttributes.setTcpListenerPort( port );
+        listener = LateralTCPListener.getInstance( listenerAttributes, CompositeCacheManager.getInstance(), serializer );
+        // requests carrying the id of the listener are ignored
+        listener.setListenerId( 1 );
+
+        final LateralTCPCacheAttributes serviceAttributes = new LateralTCPCacheAttributes();
+        serviceAttributes.setTcpServer( "127.0.0.1:" + port );
+        service = new LateralTCPService<>( serviceAttributes, serializer );
+    }
+
+    /**
+     * Stops both sides and shuts the cache manager down.
+     *
+     * @throws IOException if the connection cannot be closed
+     */
+    @TearDown( Level.Trial )
+    public void tearDown()
+        throws IOException
+    {
+        service.dispose( REGION );
+        listener.shutdown();
+        JCS.shutdown();
+    }
+
+    /**
+     * @return a random key
+     */
+    private Integer nextKey()
+    {
+        return Integer.valueOf( ThreadLocalRandom.current().nextInt( keyCount ) );
+    }
+
+    /**
+     * @return the element read from the listener
+     * @throws IOException
+     */
+    @Benchmark
+    public ICacheElement<Integer, String> get()
+        throws IOException
+    {
+        return service.get( REGION, nextKey() );
+    }
+
+    /**
+     * @throws IOException
+     */
+    @Benchmark
+    public void update()
+        throws IOException
+    {
+        service.update( new CacheElement<>( REGION, nextKey(), value ) );
+    }
+}
@@ -0,0 +1,139 @@
+package org.apache.commons.jcs4.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.jcs4.auxiliary.remote.http.server.RemoteHttpCacheServlet;
+import org.apache.commons.jcs4.auxiliary.remote.util.RemoteCacheFraming;
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheRequest;
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheResponse;
+import org.apache.commons.jcs4.engine.behavior.ICompositeCacheManager;
+import org.apache.commons.jcs4.utils.serialization.StandardSerializer;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves the remote HTTP cache protocol on the loopback interface with the HTTP server of the JDK,
+ * so the benchmarks don't need a servlet container. Requests are processed by the code of the
+ * servlet. Like the servlet, it answers framed requests with framed responses.
+ */
+final class LoopbackRemoteHttpCacheServer
+    extends RemoteHttpCacheServlet
+    implements HttpHandler
+{
+    /** Don't change. */
+    private static final long serialVersionUID = 1L;
+
+    /** The context path of the service */
+    private static final String PATH = "/jcs";
+
+    /** The serializer, the same as the one of the servlet */
+    private final StandardSerializer serializer = new StandardSerializer();
+
+    /** The server */
+    private transient HttpServer server;
+
+    /** The threads of the server */
+    private transient ExecutorService executor;
+
+    /**
+     * Starts the server on a free port.
+     *
+     * @param cacheManager the cache manager to serve
+     * @return the URL of the service
+     * @throws IOException if the server cannot be started
+     */
+    String start( final ICompositeCacheManager cacheManager )
+        throws IOException
+    {
+        setRemoteCacheService( createRemoteHttpCacheService( cacheManager ) );
+
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create( new InetSocketAddress( InetAddress.getLoopbackAddress(), 0 ), 0 );
+        server.createContext( PATH, this );
+        server.setExecutor( executor );
+        server.start();
+
+        return "http://127.0.0.1:" + server.getAddress().getPort() + PATH;
+    }
+
+    /**
+     * Stops the server. The cache manager is left alone.
+     */
+    void stop()
+    {
+        server.stop( 0 );
+        executor.shutdownNow();
+    }
+
+    /**
+     * Reads the request, calls the processor, writes the response.
+     *
+     * @param exchange the HTTP exchange
+     * @throws IOException
+     */
+    @Override
+    public void handle( final HttpExchange exchange )
+        throws IOException
+    {
+        try ( exchange )
+        {
+            final String contentType = exchange.getRequestHeaders().getFirst( "Content-Type" );
+            final boolean framed = contentType != null && contentType.startsWith( RemoteCacheFraming.CONTENT_TYPE );
+
+            final RemoteCacheRequest<Serializable, Serializable> request;
+            try ( InputStream in = exchange.getRequestBody() )
+            {
+                request = readRequestFromStream(
+                        framed ? new ByteArrayInputStream( RemoteCacheFraming.readFrame( in ) ) : in );
+            }
+            catch ( final ClassNotFoundException e )
+            {
+                throw new IOException( e );
+            }
+
+            final RemoteCacheResponse<Object> response = processRequest( request );
+            byte[] body = serializer.serialize( response );
+            if ( framed )
+            {
+                body = RemoteCacheFraming.frame( body );
+            }
+
+            exchange.getResponseHeaders().set( "Content-Type",
+                    framed ? RemoteCacheFraming.CONTENT_TYPE : "application/octet-stream" );
+            exchange.sendResponseHeaders( 200, body.length );
+            try ( OutputStream out = exchange.getResponseBody() )
+            {
+                out.write( body );
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.apache.commons.jcs4.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jcs4.JCS;
+import org.apache.commons.jcs4.access.CacheAccess;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures each memory cache implementation under contention. The keys are drawn from a range
+ * twice as large as the maximum number of objects, so the caches both hit and evict.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class MemoryCacheBenchmark
+{
+    /** The region used by the benchmark */
+    private static final String REGION = "memory";
+
+    /** The memory cache implementation */
+    @Param( {
+        "org.apache.commons.jcs4.engine.memory.lru.LRUMemoryCache",
+        "org.apache.commons.jcs4.engine.memory.lru.LHMLRUMemoryCache",
+        "org.apache.commons.jcs4.engine.memory.mru.MRUMemoryCache",
+        "org.apache.commons.jcs4.engine.memory.fifo.FIFOMemoryCache",
+        "org.apache.commons.jcs4.engine.memory.soft.SoftReferenceMemoryCache" } )
+    public String memoryCacheName;
+
+    /** The maximum number of objects in memory */
+    @Param( "10000" )
+    public int maxObjects;
+
+    /** The size of the values in bytes */
+    @Param( "128" )
+    public int valueSize;
+
+    /** The cache */
+    private CacheAccess<Integer, String> cache;
+
+    /** The value put into the cache */
+    private String value;
+
+    /**
+     * Configures a memory only region and fills it.
+     */
+    @Setup( Level.Trial )
+    public void setUp()
+    {
+        final Properties props = BenchmarkConfigurations.defaultRegion( maxObjects );
+        props.setProperty( "jcs.default.cacheattributes.MemoryCacheName", memoryCacheName );
+        JCS.setConfigProperties( props );
+
+        cache = JCS.getInstance( REGION );
+        value = "x".repeat( valueSize );
+        for ( int i = 0; i < maxObjects; i++ )
+        {
+            cache.put( Integer.valueOf( i ), value );
+        }
+    }
+
+    /**
+     * Shuts the cache manager down.
+     */
+    @TearDown( Level.Trial )
+    public void tearDown()
+    {
+        JCS.shutdown();
+    }
+
+    /**
+     * @return a random key, hitting the cache about half of the time
+     */
+    private Integer nextKey()
+    {
+        return Integer.valueOf( ThreadLocalRandom.current().nextInt( 2 * maxObjects ) );
+    }
+
+    /**
+     * Readers of a mixed workload.
+     *
+     * @return the value, may be null
+     */
+    @Benchmark
+    @Group( "readWrite" )
+    @GroupThreads( 3 )
+    public String readWrite_get()
+    {
+        return cache.get( nextKey() );
+    }
+
+    /**
+     * The writer of a mixed workload.
+     */
+    @Benchmark
+    @Group( "readWrite" )
+    @GroupThreads( 1 )
+    public void readWrite_put()
+    {
+        cache.put( nextKey(), value );
+    }
+
+    /**
+     * Reads only, all threads competing for the same region.
+     *
+     * @return the value, may be null
+     */
+    @Benchmark
+    @Threads( 4 )
+    public String get()
+    {
+        return cache.get( nextKey() );
+    }
+
+    /**
+     * Writes only, all threads competing for the same region.
+     */
+    @Benchmark
+    @Threads( 4 )
+    public void put()
+    {
+        cache.put( nextKey(), value );
+    }
+}
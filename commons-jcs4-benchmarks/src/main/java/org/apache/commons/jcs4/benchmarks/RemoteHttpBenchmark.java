@@ -0,0 +1,169 @@
+package org.apache.commons.jcs4.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jcs4.JCS;
+import org.apache.commons.jcs4.access.CacheAccess;
+import org.apache.commons.jcs4.access.exception.CacheException;
+import org.apache.commons.jcs4.auxiliary.remote.http.client.RemoteHttpCacheAttributes;
+import org.apache.commons.jcs4.auxiliary.remote.http.client.RemoteHttpCacheClient;
+import org.apache.commons.jcs4.engine.CacheElement;
+import org.apache.commons.jcs4.engine.behavior.ICacheElement;
+import org.apache.commons.jcs4.engine.control.CompositeCacheManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures round trips of the remote HTTP cache client over loopback, with both dispatchers. The
+ * server is a {@link LoopbackRemoteHttpCacheServer} in the same JVM.
+ * <p>
+ * The HTTP server of the JDK only speaks HTTP/1.1, so with httpVersion 2 the HTTP/2 dispatcher is
+ * measured on its HTTP/1.1 fallback: the JDK client offers an h2c upgrade that the server ignores.
+ * The results compare the two clients and the framing, not HTTP/2 multiplexing. Measuring that
+ * needs a servlet container with h2c or TLS and HTTP/2 enabled in front of the servlet.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class RemoteHttpBenchmark
+{
+    /** The region used by the benchmark */
+    private static final String REGION = "remoteHttp";
+
+    /** The HTTP version, selects the dispatcher */
+    @Param( { "1.1", "2" } )
+    public String httpVersion;
+
+    /** The number of keys */
+    @Param( "1000" )
+    public int keyCount;
+
+    /** The size of the values in bytes */
+    @Param( { "128", "4096" } )
+    public int valueSize;
+
+    /** The server */
+    private LoopbackRemoteHttpCacheServer server;
+
+    /** The client */
+    private RemoteHttpCacheClient<Integer, String> client;
+
+    /** The value put into the cache */
+    private String value;
+
+    /**
+     * Fills the region and starts the server and the client.
+     *
+     * @throws CacheException if the cache manager cannot be configured
+     * @throws IOException if the server cannot be started
+     */
+    @Setup( Level.Trial )
+    public void setUp()
+        throws CacheException, IOException
+    {
+        JCS.setConfigProperties( BenchmarkConfigurations.defaultRegion( keyCount ) );
+        final CacheAccess<Integer, String> cache = JCS.getInstance( REGION );
+        value = "x".repeat( valueSize );
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            cache.put( Integer.valueOf( i ), value );
+        }
+
+        server = new LoopbackRemoteHttpCacheServer();
+        final String url = server.start( CompositeCacheManager.getInstance() );
+
+        final RemoteHttpCacheAttributes attributes = new RemoteHttpCacheAttributes();
+        attributes.setUrl( url );
+        attributes.setHttpVersion( httpVersion );
+        client = new RemoteHttpCacheClient<>( attributes );
+    }
+
+    /**
+     * Stops the server and shuts the cache manager down.
+     */
+    @TearDown( Level.Trial )
+    public void tearDown()
+    {
+        server.stop();
+        JCS.shutdown();
+    }
+
+    /**
+     * @return a random key
+     */
+    private Integer nextKey()
+    {
+        return Integer.valueOf( ThreadLocalRandom.current().nextInt( keyCount ) );
+    }
+
+    /**
+     * @return the element read from the server
+     * @throws IOException
+     */
+    @Benchmark
+    public ICacheElement<Integer, String> get()
+        throws IOException
+    {
+        return client.get( REGION, nextKey() );
+    }
+
+    /**
+     * Concurrent reads through the shared client.
+     *
+     * @return the element read from the server
+     * @throws IOException
+     */
+    @Benchmark
+    @Threads( 8 )
+    public ICacheElement<Integer, String> getConcurrent()
+        throws IOException
+    {
+        return client.get( REGION, nextKey() );
+    }
+
+    /**
+     * @throws IOException
+     */
+    @Benchmark
+    public void update()
+        throws IOException
+    {
+        client.update( new CacheElement<>( REGION, nextKey(), value ) );
+    }
+}
@@ -0,0 +1,218 @@
+package org.apache.commons.jcs4.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jcs4.engine.behavior.IElementSerializer;
+import org.apache.commons.jcs4.utils.serialization.BinarySerializer;
+import org.apache.commons.jcs4.utils.serialization.CompressingSerializer;
+import org.apache.commons.jcs4.utils.serialization.EncryptingSerializer;
+import org.apache.commons.jcs4.utils.serialization.JSONSerializer;
+import org.apache.commons.jcs4.utils.serialization.StandardSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures each serializer on a few kinds of values. The output size is not measured by JMH, it is
+ * printed once per trial.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class SerializerBenchmark
+{
+    /** The serializers */
+    public enum SerializerType
+    {
+        /** Java serialization */
+        STANDARD,
+
+        /** Java serialization, compressed */
+        COMPRESSING,
+
+        /** Java serialization, encrypted */
+        ENCRYPTING,
+
+        /** The binary format with type codecs */
+        BINARY,
+
+        /** JSON */
+        JSON
+    }
+
+    /** The values */
+    public enum PayloadType
+    {
+        /** A string of random letters */
+        STRING,
+
+        /** A random byte array */
+        BYTES,
+
+        /** A map of strings */
+        MAP
+    }
+
+    /** The serializer */
+    @Param( { "STANDARD", "COMPRESSING", "ENCRYPTING", "BINARY", "JSON" } )
+    public SerializerType serializerType;
+
+    /** The value */
+    @Param( { "STRING", "BYTES", "MAP" } )
+    public PayloadType payloadType;
+
+    /** The approximate size of the value in bytes */
+    @Param( { "128", "16384" } )
+    public int payloadSize;
+
+    /** The serializer */
+    private IElementSerializer serializer;
+
+    /** The value */
+    private Serializable payload;
+
+    /** The serialized value */
+    private byte[] serialized;
+
+    /**
+     * Creates the serializer and the value.
+     *
+     * @throws IOException if the value cannot be serialized
+     */
+    @Setup( Level.Trial )
+    public void setUp()
+        throws IOException
+    {
+        serializer = createSerializer( serializerType );
+        payload = createPayload( payloadType, payloadSize );
+        serialized = serializer.serialize( payload );
+        System.out.println( serializerType + " " + payloadType + " " + payloadSize
+                + ": " + serialized.length + " bytes serialized" );
+    }
+
+    /**
+     * @param type the serializer type
+     * @return the serializer
+     */
+    private static IElementSerializer createSerializer( final SerializerType type )
+    {
+        switch ( type )
+        {
+            case STANDARD:
+                return new StandardSerializer();
+            case COMPRESSING:
+                return new CompressingSerializer();
+            case ENCRYPTING:
+                final EncryptingSerializer encrypting = new EncryptingSerializer();
+                encrypting.setPreSharedKey( "jcs-benchmark" );
+                return encrypting;
+            case BINARY:
+                return new BinarySerializer();
+            case JSON:
+                return new JSONSerializer();
+            default:
+                throw new IllegalArgumentException( "Unknown serializer " + type );
+        }
+    }
+
+    /**
+     * @param type the payload type
+     * @param size the approximate size in bytes
+     * @return the value
+     */
+    private static Serializable createPayload( final PayloadType type, final int size )
+    {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch ( type )
+        {
+            case STRING:
+                return randomString( random, size );
+            case BYTES:
+                final byte[] bytes = new byte[size];
+                random.nextBytes( bytes );
+                return bytes;
+            case MAP:
+                final HashMap<String, String> map = new HashMap<>();
+                for ( int i = 0; i < Math.max( 1, size / 32 ); i++ )
+                {
+                    map.put( "key" + i, randomString( random, 24 ) );
+                }
+                return map;
+            default:
+                throw new IllegalArgumentException( "Unknown payload " + type );
+        }
+    }
+
+    /**
+     * @param random the random source
+     * @param length the length
+     * @return a string of lower case letters
+     */
+    private static String randomString( final ThreadLocalRandom random, final int length )
+    {
+        final StringBuilder buf = new StringBuilder( length );
+        for ( int i = 0; i < length; i++ )
+        {
+            buf.append( (char) ( 'a' + random.nextInt( 26 ) ) );
+        }
+        return buf.toString();
+    }
+
+    /**
+     * @return the serialized value
+     * @throws IOException
+     */
+    @Benchmark
+    public byte[] serialize()
+        throws IOException
+    {
+        return serializer.serialize( payload );
+    }
+
+    /**
+     * @return the value
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    @Benchmark
+    public Object deSerialize()
+        throws IOException, ClassNotFoundException
+    {
+        return serializer.deSerialize( serialized, null );
+    }
+}
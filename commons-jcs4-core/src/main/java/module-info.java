@@ -46,6 +46,8 @@ module org.apache.commons.jcs4.core {
     exports org.apache.commons.jcs4.engine.memory.behavior;
     exports org.apache.commons.jcs4.engine.stats;
     exports org.apache.commons.jcs4.engine.stats.behavior;
+    exports org.apache.commons.jcs4.engine.trace;
+    exports org.apache.commons.jcs4.engine.trace.behavior;
 
     // Auxiliary cache exports
     exports org.apache.commons.jcs4.auxiliary;
@@ -68,9 +70,11 @@ module org.apache.commons.jcs4.core {
     exports org.apache.commons.jcs4.auxiliary.remote.http.client.behavior;
 
     // Utility exports
+    exports org.apache.commons.jcs4.io;
     exports org.apache.commons.jcs4.utils.access;
     exports org.apache.commons.jcs4.utils.discovery.behavior;
     exports org.apache.commons.jcs4.utils.serialization;
+    exports org.apache.commons.jcs4.utils.zip;
 
     // Internal/optional exports (for subclasses and extensions)
     exports org.apache.commons.jcs4.engine;
@@ -95,6 +99,7 @@ module org.apache.commons.jcs4.core {
     requires java.base;
     requires java.management;
     requires java.desktop;
+    requires java.net.http;
     requires transitive java.rmi;
     requires transitive java.sql;
     requires transitive java.naming;
@@ -116,4 +121,5 @@ module org.apache.commons.jcs4.core {
 
     // Uses and provides clauses
     uses org.apache.commons.jcs4.auxiliary.AuxiliaryCacheFactory;
+    uses org.apache.commons.jcs4.engine.stats.behavior.ICacheMetricsReporter;
 }
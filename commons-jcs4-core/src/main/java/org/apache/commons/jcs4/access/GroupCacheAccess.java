@@ -48,6 +48,7 @@ public class GroupCacheAccess<K, V>
     public GroupCacheAccess( final CompositeCache<GroupAttrName<K>, V> cacheControl )
     {
         super(cacheControl);
+        cacheControl.useGroupIndex();
     }
 
     /**
@@ -90,9 +91,8 @@ public class GroupCacheAccess<K, V>
     {
         final GroupId groupId = new GroupId( getCacheControl().getCacheName(), group );
 
-        return getCacheControl().getKeySet()
+        return getCacheControl().getGroupMembers(groupId)
                 .stream()
-                .filter(gan -> gan.groupId().equals(groupId))
                 .map(gan -> gan.attrName())
                 .collect(Collectors.toSet());
     }
@@ -104,9 +104,9 @@ public class GroupCacheAccess<K, V>
      */
     public Set<String> getGroupNames()
     {
-        return getCacheControl().getKeySet()
+        return getCacheControl().getGroupIds()
                 .stream()
-                .map(gan -> gan.groupId().groupName())
+                .map(GroupId::groupName)
                 .collect(Collectors.toSet());
     }
 
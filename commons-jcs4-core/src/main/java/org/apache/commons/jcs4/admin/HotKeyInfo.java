@@ -0,0 +1,57 @@
+package org.apache.commons.jcs4.admin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Stores info on a hot or large key of a region. The numbers are estimates from sampling.
+ */
+public record HotKeyInfo(
+    /** Element key */
+    String key,
+
+    /** Estimated requests since the counting started */
+    long requests,
+
+    /** Estimated requests per second */
+    double requestsPerSecond,
+
+    /** How much the requests may be overestimated */
+    long requestsError,
+
+    /** Size in bytes when last sampled, -1 if unknown */
+    long bytes
+)
+{
+    /**
+     * @return string info on the key
+     */
+    @Override
+    public String toString()
+    {
+        final StringBuilder buf = new StringBuilder();
+        buf.append( "\nHotKeyInfo " );
+        buf.append( "\n Key [" ).append( key() ).append( "]" );
+        buf.append( "\n Requests [" ).append( requests() ).append( "]" );
+        buf.append( "\n RequestsPerSecond [" ).append( requestsPerSecond() ).append( "]" );
+        buf.append( "\n Bytes [" ).append( bytes() ).append( "]" );
+
+        return buf.toString();
+    }
+}
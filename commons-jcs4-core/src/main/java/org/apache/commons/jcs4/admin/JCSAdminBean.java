@@ -20,10 +20,10 @@ package org.apache.commons.jcs4.admin;
  */
 
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -35,12 +35,11 @@ import java.util.stream.Collectors;
 import org.apache.commons.jcs4.access.exception.CacheException;
 import org.apache.commons.jcs4.auxiliary.remote.server.RemoteCacheServer;
 import org.apache.commons.jcs4.auxiliary.remote.server.RemoteCacheServerFactory;
-import org.apache.commons.jcs4.engine.CacheElementSerialized;
 import org.apache.commons.jcs4.engine.behavior.ICacheElement;
 import org.apache.commons.jcs4.engine.behavior.IElementAttributes;
 import org.apache.commons.jcs4.engine.control.CompositeCache;
 import org.apache.commons.jcs4.engine.control.CompositeCacheManager;
-import org.apache.commons.jcs4.engine.memory.behavior.IMemoryCache;
+import org.apache.commons.jcs4.engine.stats.HotKeys;
 
 /**
  * A servlet which provides HTTP access to JCS. Allows a summary of regions to be viewed, and
@@ -223,8 +222,8 @@ public class JCSAdminBean implements JCSJMXBean
     }
 
     /**
-     * Tries to estimate how much data is in a region. This is expensive. If there are any non serializable objects in
-     * the region or an error occurs, suppresses exceptions and returns 0.
+     * Gets the estimated size of the data in the memory cache of a region. The memory cache keeps
+     * the count up to date on each put and removal, so this doesn't touch the elements.
      * <p>
      *
      * @return int The size of the region in bytes.
@@ -236,55 +235,12 @@ public class JCSAdminBean implements JCSJMXBean
             throw new IllegalArgumentException("The cache object specified was null.");
         }
 
-        long size = 0;
-        final IMemoryCache<K, V> memCache = cache.getMemoryCache();
-
-        for (final K key : memCache.getKeySet())
-        {
-            ICacheElement<K, V> ice = null;
-			try
-			{
-				ice = memCache.get(key);
-			}
-			catch (final IOException e)
-			{
-                throw new IllegalStateException("IOException while trying to get a cached element", e);
-			}
-
-			if (ice == null)
-			{
-				continue;
-			}
-
-			if (ice instanceof CacheElementSerialized serialized)
-            {
-                size += serialized.serializedValue().length;
-            }
-            else
-            {
-                //CountingOnlyOutputStream: Keeps track of the number of bytes written to it, but doesn't write them anywhere.
-                try (CountingOnlyOutputStream counter = new CountingOnlyOutputStream();
-                     ObjectOutputStream out = new ObjectOutputStream(counter))
-                {
-                    out.writeObject(ice.value());
-                    out.flush();
-
-                    // 4 bytes lost for the serialization header
-                    size += counter.getCount() - 4;
-                }
-                catch (final IOException e)
-                {
-                    throw new IllegalStateException("IOException while trying to measure the size of the cached element", e);
-                }
-            }
-        }
-
-        return size;
+        return cache.getMemoryCache().getByteCount();
     }
 
     /**
-     * Tries to estimate how much data is in a region. This is expensive. If there are any non serializable objects in
-     * the region or an error occurs, suppresses exceptions and returns 0.
+     * Gets the estimated size of the data in the memory cache of a region. This is cheap, the
+     * elements are measured when they are put.
      * <p>
      *
      * @return int The size of the region in bytes.
@@ -295,6 +251,81 @@ public class JCSAdminBean implements JCSJMXBean
 		return getByteCount(cacheHub.getCache(cacheName));
 	}
 
+    /**
+     * Gets the most requested keys of a region, tracked by sampling the gets and puts.
+     *
+     * @param cacheName
+     * @param count the number of keys
+     * @return the keys, most requested first, none if the region does not track them
+     */
+    @Override
+    public List<HotKeyInfo> getHotKeys(final String cacheName, final int count)
+    {
+        final HotKeys<Object> hotKeys = cacheHub.getCache(cacheName).getHotKeys();
+        if (hotKeys == null)
+        {
+            return Collections.emptyList();
+        }
+        return toHotKeyInfo(hotKeys, hotKeys.getMostRequested(count));
+    }
+
+    /**
+     * Gets the largest keys of a region, as accounted by the memory cache on sampled puts.
+     *
+     * @param cacheName
+     * @param count the number of keys
+     * @return the keys, largest first, none if the region does not track them
+     */
+    @Override
+    public List<HotKeyInfo> getLargestKeys(final String cacheName, final int count)
+    {
+        final HotKeys<Object> hotKeys = cacheHub.getCache(cacheName).getHotKeys();
+        if (hotKeys == null)
+        {
+            return Collections.emptyList();
+        }
+        return toHotKeyInfo(hotKeys, hotKeys.getLargest(count));
+    }
+
+    /**
+     * Joins the requests and the sizes of the keys.
+     *
+     * @param hotKeys the tracker
+     * @param entries the keys to describe
+     * @return one info per entry, in the same order
+     */
+    private static List<HotKeyInfo> toHotKeyInfo(final HotKeys<Object> hotKeys, final List<HotKeys.Entry<Object>> entries)
+    {
+        final Map<Object, HotKeys.Entry<Object>> requests = hotKeys.getMostRequested(Integer.MAX_VALUE).stream()
+                .collect(Collectors.toMap(HotKeys.Entry::key, e -> e));
+        final Map<Object, Long> sizes = hotKeys.getLargest(Integer.MAX_VALUE).stream()
+                .collect(Collectors.toMap(HotKeys.Entry::key, HotKeys.Entry::value));
+        final double seconds = Math.max(hotKeys.getElapsed().toMillis(), 1) / 1000.0;
+
+        return entries.stream()
+                .map(entry -> {
+                    final HotKeys.Entry<Object> request = requests.get(entry.key());
+                    final long count = request == null ? 0 : request.value();
+                    return new HotKeyInfo(String.valueOf(entry.key()), count, count / seconds,
+                            request == null ? 0 : request.error(),
+                            sizes.getOrDefault(entry.key(), Long.valueOf(-1)).longValue());
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the latencies in nanoseconds and the counters of a region, if jcs.metrics.enabled is
+     * true.
+     *
+     * @param cacheName
+     * @return metric name to value, empty if metrics are disabled
+     */
+    @Override
+    public Map<String, Long> getMetrics(final String cacheName)
+    {
+        return cacheHub.getCache(cacheName).getMetrics();
+    }
+
     /**
      * Removes a particular item from a particular region.
      * <p>
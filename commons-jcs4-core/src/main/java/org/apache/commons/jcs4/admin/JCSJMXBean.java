@@ -2,6 +2,7 @@ package org.apache.commons.jcs4.admin;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 /*
  * Licensed to the Apache Software Foundation (ASF) under one
@@ -67,14 +68,42 @@ public interface JCSJMXBean
     void clearRegion(String cacheName) throws IOException;
 
     /**
-     * Tries to estimate how much data is in a region. This is expensive. If there are any non serializable objects in
-     * the region or an error occurs, suppresses exceptions and returns 0.
+     * Gets the estimated size of the data in the memory cache of a region. This is cheap, the
+     * elements are measured when they are put. Non serializable objects count as 0.
      * <p>
      *
      * @return long The size of the region in bytes.
      */
     long getByteCount(String cacheName);
 
+    /**
+     * Gets the most requested keys of a region. This is cheap, the keys are tracked by sampling
+     * the gets and puts.
+     *
+     * @param cacheName
+     * @param count the number of keys
+     * @return the keys, most requested first
+     */
+    List<HotKeyInfo> getHotKeys(String cacheName, int count);
+
+    /**
+     * Gets the largest keys of a region, as measured on sampled puts.
+     *
+     * @param cacheName
+     * @param count the number of keys
+     * @return the keys, largest first
+     */
+    List<HotKeyInfo> getLargestKeys(String cacheName, int count);
+
+    /**
+     * Gets the latencies in nanoseconds and the counters of a region, if jcs.metrics.enabled is
+     * true. This is cheap, unlike the byte count.
+     *
+     * @param cacheName
+     * @return metric name to value, empty if metrics are disabled
+     */
+    Map<String, Long> getMetrics(String cacheName);
+
     /**
      * Removes a particular item from a particular region.
      * <p>
@@ -1,5 +1,7 @@
 package org.apache.commons.jcs4.auxiliary;
 
+import java.time.Duration;
+
 import org.apache.commons.jcs4.engine.behavior.ICacheEventQueue;
 
 /*
@@ -42,6 +44,15 @@ public abstract class AbstractAuxiliaryCacheAttributes
     /** Named when pooled */
     private String eventQueuePoolName;
 
+    /** Maximum number of waiting events, 0 means unbounded */
+    private int eventQueueMaxSize = DEFAULT_EVENT_QUEUE_MAX_SIZE;
+
+    /** What to do when the event queue is full */
+    private ICacheEventQueue.OverflowPolicy eventQueueOverflowPolicy = DEFAULT_EVENT_QUEUE_OVERFLOW_POLICY;
+
+    /** How long the BLOCK policy waits for room */
+    private Duration eventQueueBlockTimeout = DEFAULT_EVENT_QUEUE_BLOCK_TIMEOUT;
+
     /**
      * @see Object#clone()
      */
@@ -82,7 +93,34 @@ public abstract class AbstractAuxiliaryCacheAttributes
     }
 
     /**
-     * @return SINGLE or POOLED
+     * @return how long the BLOCK policy waits for room
+     */
+    @Override
+    public Duration getEventQueueBlockTimeout()
+    {
+        return eventQueueBlockTimeout;
+    }
+
+    /**
+     * @return the maximum number of waiting events, 0 means unbounded
+     */
+    @Override
+    public int getEventQueueMaxSize()
+    {
+        return eventQueueMaxSize;
+    }
+
+    /**
+     * @return what to do when the event queue is full
+     */
+    @Override
+    public ICacheEventQueue.OverflowPolicy getEventQueueOverflowPolicy()
+    {
+        return eventQueueOverflowPolicy;
+    }
+
+    /**
+     * @return SINGLE, POOLED or RING
      */
     @Override
     public ICacheEventQueue.QueueType getEventQueueType()
@@ -111,8 +149,36 @@ public abstract class AbstractAuxiliaryCacheAttributes
     }
 
     /**
-     * If you choose a POOLED event queue type, the value of EventQueuePoolName will be used. This
-     * is ignored if the pool type is SINGLE
+     * @param eventQueueBlockTimeout how long the BLOCK policy waits for room before dropping the
+     *        new event
+     */
+    public void setEventQueueBlockTimeout( final Duration eventQueueBlockTimeout )
+    {
+        this.eventQueueBlockTimeout = eventQueueBlockTimeout;
+    }
+
+    /**
+     * Bounds the event queue. If the auxiliary cannot keep up, the overflow policy decides what
+     * happens with further events instead of letting them pile up in memory.
+     *
+     * @param eventQueueMaxSize the maximum number of waiting events, 0 means unbounded
+     */
+    public void setEventQueueMaxSize( final int eventQueueMaxSize )
+    {
+        this.eventQueueMaxSize = eventQueueMaxSize;
+    }
+
+    /**
+     * @param eventQueueOverflowPolicy DROP_OLDEST, COALESCE, BLOCK or FAIL
+     */
+    public void setEventQueueOverflowPolicy( final ICacheEventQueue.OverflowPolicy eventQueueOverflowPolicy )
+    {
+        this.eventQueueOverflowPolicy = eventQueueOverflowPolicy;
+    }
+
+    /**
+     * If you choose a POOLED or RING event queue type, the value of EventQueuePoolName will be
+     * used. This is ignored if the pool type is SINGLE
      *
      * @param s SINGLE or POOLED
      */
@@ -122,9 +188,9 @@ public abstract class AbstractAuxiliaryCacheAttributes
     }
 
     /**
-     * SINGLE is the default. If you choose POOLED, the value of EventQueuePoolName will be used
+     * SINGLE is the default. If you choose POOLED or RING, the value of EventQueuePoolName will be used
      *
-     * @param queueType SINGLE or POOLED
+     * @param queueType SINGLE, POOLED or RING
      */
     public void setEventQueueType( final ICacheEventQueue.QueueType queueType )
     {
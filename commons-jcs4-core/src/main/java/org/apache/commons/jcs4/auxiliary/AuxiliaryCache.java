@@ -41,6 +41,17 @@ public interface AuxiliaryCache<K, V>
      */
     AuxiliaryCacheAttributes getAuxiliaryCacheAttributes();
 
+    /**
+     * Gets the number of events waiting to be processed asynchronously, a gauge for the metrics.
+     *
+     * @return the queue depth, 0 for auxiliaries without a queue
+     * @since 4.0
+     */
+    default int getEventQueueSize()
+    {
+        return 0;
+    }
+
     /**
      * Gets a set of the keys for all elements in the auxiliary cache.
      *
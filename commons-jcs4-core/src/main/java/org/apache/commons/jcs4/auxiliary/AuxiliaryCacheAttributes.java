@@ -20,6 +20,7 @@ package org.apache.commons.jcs4.auxiliary;
  */
 
 import java.io.Serializable;
+import java.time.Duration;
 
 import org.apache.commons.jcs4.engine.behavior.ICacheEventQueue;
 
@@ -30,6 +31,15 @@ import org.apache.commons.jcs4.engine.behavior.ICacheEventQueue;
 public interface AuxiliaryCacheAttributes
     extends Serializable, Cloneable
 {
+    /** Event queues are unbounded by default */
+    int DEFAULT_EVENT_QUEUE_MAX_SIZE = 0;
+
+    /** Default overflow policy of bounded event queues */
+    ICacheEventQueue.OverflowPolicy DEFAULT_EVENT_QUEUE_OVERFLOW_POLICY = ICacheEventQueue.OverflowPolicy.DROP_OLDEST;
+
+    /** Default wait for room with the BLOCK policy */
+    Duration DEFAULT_EVENT_QUEUE_BLOCK_TIMEOUT = Duration.ofSeconds( 1 );
+
     /**
      * Clone object
      */
@@ -51,7 +61,22 @@ public interface AuxiliaryCacheAttributes
     String getEventQueuePoolName();
 
     /**
-     * @return SINGLE or POOLED
+     * @return how long the BLOCK overflow policy waits for room
+     */
+    Duration getEventQueueBlockTimeout();
+
+    /**
+     * @return the maximum number of waiting events, 0 means unbounded
+     */
+    int getEventQueueMaxSize();
+
+    /**
+     * @return what a bounded event queue does when it is full
+     */
+    ICacheEventQueue.OverflowPolicy getEventQueueOverflowPolicy();
+
+    /**
+     * @return SINGLE, POOLED or RING
      */
     ICacheEventQueue.QueueType getEventQueueType();
 
@@ -315,6 +315,36 @@ public abstract class AbstractDiskCache<K, V>
             return null;
         }
 
+        final ICacheElement<K, V> ce = getFromPurgatory( key );
+        if ( ce != null )
+        {
+            return ce;
+        }
+
+        // If we reach this point, element was not found in purgatory, so get
+        // it from the cache.
+        try
+        {
+            return getWithEventLogging( key );
+        }
+        catch (final IOException e)
+        {
+            log.error( e );
+            cacheEventQueue.destroy();
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets an element that is waiting in purgatory to be written. Subclasses that override
+     * processGetMultiple have to look here first, like get does.
+     *
+     * @param key
+     * @return the element in purgatory, or null
+     */
+    protected ICacheElement<K, V> getFromPurgatory( final K key )
+    {
         final PurgatoryElement<K, V> pe = purgatory.get( key );
 
         // If the element was found in purgatory
@@ -346,18 +376,6 @@ public abstract class AbstractDiskCache<K, V>
             return pe.cacheElement();
         }
 
-        // If we reach this point, element was not found in purgatory, so get
-        // it from the cache.
-        try
-        {
-            return getWithEventLogging( key );
-        }
-        catch (final IOException e)
-        {
-            log.error( e );
-            cacheEventQueue.destroy();
-        }
-
         return null;
     }
 
@@ -382,6 +400,15 @@ public abstract class AbstractDiskCache<K, V>
         return (IDiskCacheAttributes) super.getAuxiliaryCacheAttributes();
     }
 
+    /**
+     * @return the number of events waiting to be written to disk
+     */
+    @Override
+    public int getEventQueueSize()
+    {
+        return cacheEventQueue.size();
+    }
+
     /**
      * The keys in the cache.
      *
@@ -441,6 +468,11 @@ public abstract class AbstractDiskCache<K, V>
         final IStats eqStats = this.cacheEventQueue.getStatistics();
         stats.addStatElements(eqStats.getStatElements());
 
+        if (getElementSerializer() != null)
+        {
+            stats.addStatElements(getElementSerializer().getStatistics().getStatElements());
+        }
+
         return stats;
     }
 
@@ -21,14 +21,21 @@ package org.apache.commons.jcs4.auxiliary.disk.block;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.jcs4.engine.behavior.IElementSerializer;
+import org.apache.commons.jcs4.io.BoundedChannelInputStream;
+import org.apache.commons.jcs4.io.PooledByteBufferOutputStream;
 import org.apache.commons.jcs4.log.Log;
 
 /**
@@ -140,8 +147,17 @@ public class BlockDisk implements AutoCloseable
      */
     protected int calculateTheNumberOfBlocksNeeded(final byte[] data)
     {
-        final int dataLength = data.length;
+        return calculateTheNumberOfBlocksNeeded(data.length);
+    }
 
+    /**
+     * Calculates how many blocks are needed for data of the given length.
+     *
+     * @param dataLength the length of the serialized data
+     * @return the number of blocks needed.
+     */
+    protected int calculateTheNumberOfBlocksNeeded(final int dataLength)
+    {
         final int oneBlock = blockSizeBytes - HEADER_SIZE_BYTES;
 
         // takes care of 0 = HEADER_SIZE_BYTES + blockSizeBytes
@@ -297,41 +313,40 @@ public class BlockDisk implements AutoCloseable
     protected <T> T read(final int[] blockNumbers)
         throws IOException, ClassNotFoundException
     {
-        final ByteBuffer data;
-
-        if (blockNumbers.length == 1)
+        final List<InputStream> blocks = new ArrayList<>(blockNumbers.length);
+        try
         {
-            data = readBlock(blockNumbers[0]);
+            for (final int blockNumber : blockNumbers)
+            {
+                blocks.add(openBlock(blockNumber));
+            }
+
+            log.debug("read, blocks = {0}", blockNumbers.length);
+
+            // decode while reading, the blocks are never combined into one array
+            return elementSerializer.deSerializeStream(
+                    new SequenceInputStream(Collections.enumeration(blocks)), null);
         }
-        else
+        finally
         {
-            data = ByteBuffer.allocate(blockNumbers.length * getBlockSizeBytes());
-            // get all the blocks into data
-            for (short i = 0; i < blockNumbers.length; i++)
+            for (final InputStream block : blocks)
             {
-                final ByteBuffer chunk = readBlock(blockNumbers[i]);
-                data.put(chunk);
+                block.close();
             }
-
-            data.flip();
         }
-
-        log.debug("read, total post combination data.length = {0}", () -> data.limit());
-
-        return elementSerializer.deSerialize(data.array(), null);
     }
 
     /**
-     * This reads the occupied data in a block.
+     * This opens the occupied data in a block.
      * <p>
-     * The first four bytes of the record should tell us how long it is. The data is read into a
-     * byte array and then an object is constructed from the byte array.
+     * The first four bytes of the record should tell us how long it is. The data is read from
+     * the file as the returned stream is consumed.
      *
-     * @return byte[]
+     * @return the data of the block
      * @param block
      * @throws IOException
      */
-    private ByteBuffer readBlock(final int block)
+    private InputStream openBlock(final int block)
         throws IOException
     {
         int datalen = 0;
@@ -352,7 +367,7 @@ public class BlockDisk implements AutoCloseable
             fc.read(datalength, position);
             datalength.flip();
             datalen = datalength.getInt();
-            if (position + datalen > fileLength)
+            if (datalen < 0 || position + datalen > fileLength)
             {
                 corrupted = true;
                 message = "Record " + position + " exceeds file length.";
@@ -365,11 +380,7 @@ public class BlockDisk implements AutoCloseable
             throw new IOException("The File Is Corrupt, need to reset");
         }
 
-        final ByteBuffer data = ByteBuffer.allocate(datalen);
-        fc.read(data, position + HEADER_SIZE_BYTES);
-        data.flip();
-
-        return data;
+        return new BoundedChannelInputStream(fc, position + HEADER_SIZE_BYTES, datalen);
     }
 
     /**
@@ -435,50 +446,60 @@ public class BlockDisk implements AutoCloseable
         throws IOException
     {
         // serialize the object
-        final byte[] data = elementSerializer.serialize(object);
-
-        log.debug("write, total pre-chunking data.length = {0}", data.length);
-
-        this.putBytes.addAndGet(data.length);
-        this.putCount.incrementAndGet();
+        final PooledByteBufferOutputStream data = new PooledByteBufferOutputStream();
+        try
+        {
+            elementSerializer.serializeInto(object, data);
 
-        // figure out how many blocks we need.
-        final int numBlocksNeeded = calculateTheNumberOfBlocksNeeded(data);
+            log.debug("write, total pre-chunking data.length = {0}", data::size);
 
-        log.debug("numBlocksNeeded = {0}", numBlocksNeeded);
+            this.putBytes.addAndGet(data.size());
+            this.putCount.incrementAndGet();
 
-        // allocate blocks
-        final int[] blocks = allocateBlocks(numBlocksNeeded);
+            // figure out how many blocks we need.
+            final int numBlocksNeeded = calculateTheNumberOfBlocksNeeded(data.size());
 
-        int offset = 0;
-        final int maxChunkSize = blockSizeBytes - HEADER_SIZE_BYTES;
-        final ByteBuffer headerBuffer = ByteBuffer.allocate(HEADER_SIZE_BYTES);
-        final ByteBuffer dataBuffer = ByteBuffer.wrap(data);
+            log.debug("numBlocksNeeded = {0}", numBlocksNeeded);
 
-        for (int i = 0; i < numBlocksNeeded; i++)
-        {
-            headerBuffer.clear();
-            final int length = Math.min(maxChunkSize, data.length - offset);
-            headerBuffer.putInt(length);
-            headerBuffer.flip();
+            // allocate blocks
+            final int[] blocks = allocateBlocks(numBlocksNeeded);
 
-            dataBuffer.position(offset).limit(offset + length);
-            final ByteBuffer slice = dataBuffer.slice();
+            int offset = 0;
+            final int maxChunkSize = blockSizeBytes - HEADER_SIZE_BYTES;
+            final ByteBuffer headerBuffer = ByteBuffer.allocate(HEADER_SIZE_BYTES);
 
-            final long position = calculateByteOffsetForBlockAsLong(blocks[i]);
-            // write the header
-            int written = fc.write(headerBuffer, position);
-            assert written == HEADER_SIZE_BYTES;
+            for (int i = 0; i < numBlocksNeeded; i++)
+            {
+                headerBuffer.clear();
+                final int length = Math.min(maxChunkSize, data.size() - offset);
+                headerBuffer.putInt(length);
+                headerBuffer.flip();
+
+                final long position = calculateByteOffsetForBlockAsLong(blocks[i]);
+                // write the header
+                final int written = fc.write(headerBuffer, position);
+                assert written == HEADER_SIZE_BYTES;
+
+                //write the data, straight from the pooled chunks
+                long dataPosition = position + HEADER_SIZE_BYTES;
+                for (final ByteBuffer slice : data.getBuffers(offset, length))
+                {
+                    while (slice.hasRemaining())
+                    {
+                        dataPosition += fc.write(slice, dataPosition);
+                    }
+                }
+
+                offset += length;
+            }
 
-            //write the data
-            written = fc.write(slice, position + HEADER_SIZE_BYTES);
-            assert written == length;
+            //fc.force(false);
 
-            offset += length;
+            return blocks;
+        }
+        finally
+        {
+            data.release();
         }
-
-        //fc.force(false);
-
-        return blocks;
     }
 }
@@ -26,6 +26,8 @@ import java.nio.channels.FileChannel;
 import java.nio.file.StandardOpenOption;
 
 import org.apache.commons.jcs4.engine.behavior.IElementSerializer;
+import org.apache.commons.jcs4.io.BoundedChannelInputStream;
+import org.apache.commons.jcs4.io.PooledByteBufferOutputStream;
 import org.apache.commons.jcs4.log.Log;
 
 /** Provides thread safe access to the underlying random access file. */
@@ -159,8 +161,8 @@ public class IndexedDisk implements AutoCloseable
     /**
      * This reads an object from the given starting position on the file.
      * <p>
-     * The first four bytes of the record should tell us how long it is. The data is read into a byte
-     * array and then an object is constructed from the byte array.
+     * The first four bytes of the record should tell us how long it is. The object is decoded
+     * while the data is read from the file.
      *
      * @return Serializable
      * @param ded
@@ -202,11 +204,12 @@ public class IndexedDisk implements AutoCloseable
             throw new IOException("The File Is Corrupt, need to reset");
         }
 
-        final ByteBuffer data = ByteBuffer.allocate(ded.len());
-        fc.read(data, ded.pos() + HEADER_SIZE_BYTES);
-        data.flip();
-
-        return elementSerializer.deSerialize(data.array(), null);
+        // decode while reading, large records never need one contiguous array
+        try (BoundedChannelInputStream data =
+                new BoundedChannelInputStream(fc, ded.pos() + HEADER_SIZE_BYTES, ded.len()))
+        {
+            return elementSerializer.deSerializeStream(data, null);
+        }
     }
 
     /**
@@ -271,6 +274,33 @@ public class IndexedDisk implements AutoCloseable
         return written == data.length;
     }
 
+    /**
+     * Writes the serialized data to the Disk at the specified position, chunk by chunk.
+     *
+     * @param ded
+     * @param data the serialized object
+     * @return true if we wrote successfully
+     * @throws IOException
+     */
+    protected boolean write(final IndexedDiskElementDescriptor ded, final PooledByteBufferOutputStream data)
+        throws IOException
+    {
+        log.trace("write> pos={0}, length={1}", ded::pos, data::size);
+
+        if (data.size() != ded.len())
+        {
+            throw new IOException("Mismatched descriptor and data lengths");
+        }
+
+        final ByteBuffer headerBuffer = ByteBuffer.allocate(HEADER_SIZE_BYTES);
+        headerBuffer.putInt(data.size());
+        headerBuffer.flip();
+        final int written = fc.write(headerBuffer, ded.pos());
+        assert written == HEADER_SIZE_BYTES;
+
+        return data.writeTo(fc, ded.pos() + HEADER_SIZE_BYTES) == data.size();
+    }
+
     /**
      * Serializes the object and write it out to the given position.
      * <p>
@@ -281,7 +311,15 @@ public class IndexedDisk implements AutoCloseable
     protected <T> void writeObject(final T obj, final long pos)
         throws IOException
     {
-        final byte[] data = elementSerializer.serialize(obj);
-        write(new IndexedDiskElementDescriptor(pos, data.length), data);
+        final PooledByteBufferOutputStream data = new PooledByteBufferOutputStream();
+        try
+        {
+            elementSerializer.serializeInto(obj, data);
+            write(new IndexedDiskElementDescriptor(pos, data.size()), data);
+        }
+        finally
+        {
+            data.release();
+        }
     }
 }
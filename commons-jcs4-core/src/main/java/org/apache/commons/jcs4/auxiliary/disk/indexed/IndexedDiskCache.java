@@ -51,6 +51,7 @@ import org.apache.commons.jcs4.engine.logging.behavior.ICacheEvent;
 import org.apache.commons.jcs4.engine.logging.behavior.ICacheEventLogger.CacheEventType;
 import org.apache.commons.jcs4.engine.stats.Stats;
 import org.apache.commons.jcs4.engine.stats.behavior.IStats;
+import org.apache.commons.jcs4.io.PooledByteBufferOutputStream;
 import org.apache.commons.jcs4.log.Log;
 import org.apache.commons.jcs4.utils.serialization.StandardSerializer;
 import org.apache.commons.jcs4.utils.struct.AbstractLRUMap;
@@ -1422,10 +1423,11 @@ public class IndexedDiskCache<K, V> extends AbstractDiskCache<K, V>
         // old element with same key
         IndexedDiskElementDescriptor old = null;
 
+        final PooledByteBufferOutputStream data = new PooledByteBufferOutputStream();
         try
         {
             IndexedDiskElementDescriptor ded = null;
-            final byte[] data = getElementSerializer().serialize(ce);
+            getElementSerializer().serializeInto(ce, data);
 
             // make sure this only locks for one particular cache region
             storageLock.writeLock().lock();
@@ -1435,14 +1437,14 @@ public class IndexedDiskCache<K, V> extends AbstractDiskCache<K, V>
 
                 // Item with the same key already exists in file.
                 // Try to reuse the location if possible.
-                if (old != null && data.length <= old.len())
+                if (old != null && data.size() <= old.len())
                 {
-                    ded = new IndexedDiskElementDescriptor(old.pos(), data.length);
+                    ded = new IndexedDiskElementDescriptor(old.pos(), data.size());
                 }
                 else
                 {
                     // we need this to compare in the recycle bin
-                    ded = new IndexedDiskElementDescriptor(dataFile.length(), data.length);
+                    ded = new IndexedDiskElementDescriptor(dataFile.length(), data.size());
 
                     if (doRecycle.get())
                     {
@@ -1451,7 +1453,7 @@ public class IndexedDiskCache<K, V> extends AbstractDiskCache<K, V>
                         {
                             // remove element from recycle bin
                             recycle.remove(rep);
-                            ded = new IndexedDiskElementDescriptor(rep.pos(), data.length);
+                            ded = new IndexedDiskElementDescriptor(rep.pos(), data.size());
                             recycleCnt++;
                             this.adjustBytesFree(ded, false);
                             log.debug("{0}: using recycled ded {1} rep.len = {2} ded.len = {3}",
@@ -1490,6 +1492,10 @@ public class IndexedDiskCache<K, V> extends AbstractDiskCache<K, V>
             log.error("{0}: Failure updating element, key: {1} old: {2}",
                     logCacheName, ce.key(), old, e);
         }
+        finally
+        {
+            data.release();
+        }
     }
 
     /**
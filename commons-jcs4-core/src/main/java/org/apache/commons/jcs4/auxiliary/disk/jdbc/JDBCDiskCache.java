@@ -26,10 +26,21 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.sql.DataSource;
 
@@ -42,6 +53,7 @@ import org.apache.commons.jcs4.engine.logging.behavior.ICacheEvent;
 import org.apache.commons.jcs4.engine.logging.behavior.ICacheEventLogger.CacheEventType;
 import org.apache.commons.jcs4.engine.stats.behavior.IStats;
 import org.apache.commons.jcs4.log.Log;
+import org.apache.commons.jcs4.utils.threadpool.ThreadPoolManager;
 
 /**
  * This is the jdbc disk cache plugin.
@@ -77,6 +89,9 @@ public class JDBCDiskCache<K, V>
     /** The local logger. */
     private static final Log log = Log.getLog( JDBCDiskCache.class );
 
+    /** Rows deserialized by one task of the deserialization pool */
+    private static final int ROWS_PER_DESERIALIZATION_TASK = 32;
+
     /** Configuration */
     private JDBCDiskCacheAttributes jdbcDiskCacheAttributes;
 
@@ -89,12 +104,33 @@ public class JDBCDiskCache<K, V>
     /** # of times getMatching was called */
     private final AtomicInteger getMatchingCount = new AtomicInteger();
 
+    /** # of times getMultiple was called */
+    private final AtomicInteger getMultipleCount = new AtomicInteger();
+
     /** Db connection pool */
     private final DataSourceFactory dsFactory;
 
     /** Tracks optimization */
     private TableState tableState;
 
+    /** The SQL templates formatted with the table name, so they are formatted only once */
+    private final ConcurrentMap<String, String> formattedSql = new ConcurrentHashMap<>();
+
+    /** Updates waiting for the next batch. A newer update of a key replaces the older one. */
+    private final ConcurrentMap<K, ICacheElement<K, V>> pendingWrites = new ConcurrentHashMap<>();
+
+    /** Held while batches are written. Removals take it so a batch cannot write a removed key back. */
+    private final ReentrantLock batchLock = new ReentrantLock();
+
+    /** # of batches written */
+    private final AtomicInteger batchCount = new AtomicInteger();
+
+    /** The upsert dialect of the batches, resolved by the first batch */
+    private volatile UpsertDialect upsertDialect;
+
+    /** Writes the pending updates every batchFlushInterval */
+    private ScheduledFuture<?> batchFlushTask;
+
     /** SQL prepared statements */
     private static final String SQL_DELETE_EXPIRED =
         "delete from %s where IS_ETERNAL = ? and REGION = ? and ? > SYSTEM_EXPIRE_TIME_SECONDS";
@@ -105,6 +141,7 @@ public class JDBCDiskCache<K, V>
     private static final String SQL_REMOVE_SINGLE = "delete from %s where REGION = ? and CACHE_KEY = ?";
     private static final String SQL_GET_ELEMENT_MATCHING = "select ELEMENT from %s where REGION = ? and CACHE_KEY like ?";
     private static final String SQL_GET_ELEMENT = "select ELEMENT from %s where REGION = ? and CACHE_KEY = ?";
+    private static final String SQL_GET_ELEMENTS = "select ELEMENT from %s where REGION = ? and CACHE_KEY in (";
     private static final String SQL_INSERT_ROW = """
         insert into %s\
          (CACHE_KEY, REGION, ELEMENT, MAX_LIFE_SECONDS, IS_ETERNAL, CREATE_TIME, UPDATE_TIME_SECONDS,\
@@ -155,6 +192,118 @@ public class JDBCDiskCache<K, V>
         return likePattern;
     }
 
+    /**
+     * Deserializes the rows of a getMultiple query. Large results are split into tasks for the
+     * deserialization thread pool if one is configured; the calling thread takes the first task.
+     *
+     * @param rows the serialized elements
+     * @return the elements that could be deserialized
+     */
+    private List<ICacheElement<K, V>> deserializeRows( final List<byte[]> rows )
+    {
+        final String poolName = getJdbcDiskCacheAttributes().getDeserializationThreadPoolName();
+        if ( poolName == null || rows.size() <= ROWS_PER_DESERIALIZATION_TASK )
+        {
+            return deserializeRows( rows, 0, rows.size() );
+        }
+
+        final ExecutorService pool = ThreadPoolManager.getInstance().getExecutorService( poolName );
+        final List<CompletableFuture<List<ICacheElement<K, V>>>> tasks = new ArrayList<>();
+        for ( int from = ROWS_PER_DESERIALIZATION_TASK; from < rows.size(); from += ROWS_PER_DESERIALIZATION_TASK )
+        {
+            final int start = from;
+            final int end = Math.min( from + ROWS_PER_DESERIALIZATION_TASK, rows.size() );
+            try
+            {
+                tasks.add( CompletableFuture.supplyAsync( () -> deserializeRows( rows, start, end ), pool ) );
+            }
+            catch ( final RejectedExecutionException e )
+            {
+                // the pool is saturated, do it here
+                tasks.add( CompletableFuture.completedFuture( deserializeRows( rows, start, end ) ) );
+            }
+        }
+
+        final List<ICacheElement<K, V>> elements = deserializeRows( rows, 0, ROWS_PER_DESERIALIZATION_TASK );
+        tasks.forEach( task -> elements.addAll( task.join() ) );
+        return elements;
+    }
+
+    /**
+     * @param rows the serialized elements
+     * @param from index of the first row
+     * @param to index after the last row
+     * @return the elements that could be deserialized
+     */
+    private List<ICacheElement<K, V>> deserializeRows( final List<byte[]> rows, final int from, final int to )
+    {
+        final List<ICacheElement<K, V>> elements = new ArrayList<>( to - from );
+        for ( int i = from; i < to; i++ )
+        {
+            try
+            {
+                // USE THE SERIALIZER
+                elements.add( getElementSerializer().deSerialize( rows.get( i ), null ) );
+            }
+            catch ( final IOException | ClassNotFoundException e )
+            {
+                log.error( "Problem getting item of a getMultiple query", e );
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Writes the pending updates in batches. It returns when no update is pending, or when a batch
+     * could not be written.
+     * <p>
+     * The rows of a batch are written with one upsert statement per batch, see
+     * {@link UpsertDialect}. If the batch fails, its rows are written one by one with an update or
+     * an insert, and a row that fails on its own is logged and dropped, like a failed single
+     * update. If the database cannot be reached, the rows stay pending until the next flush.
+     * </p>
+     */
+    public void flushPendingWrites()
+    {
+        if ( pendingWrites.isEmpty() )
+        {
+            return;
+        }
+
+        batchLock.lock();
+        try
+        {
+            final int batchSize = Math.max( 1, getJdbcDiskCacheAttributes().getBatchSize() );
+            while ( !pendingWrites.isEmpty() )
+            {
+                final List<ICacheElement<K, V>> batch = new ArrayList<>( batchSize );
+                for ( final ICacheElement<K, V> ce : pendingWrites.values() )
+                {
+                    batch.add( ce );
+                    if ( batch.size() == batchSize )
+                    {
+                        break;
+                    }
+                }
+
+                if ( !writeBatch( batch ) )
+                {
+                    break;
+                }
+
+                // a newer update of the same key stays pending
+                for ( final ICacheElement<K, V> ce : batch )
+                {
+                    pendingWrites.remove( ce.key(), ce );
+                }
+            }
+        }
+        finally
+        {
+            batchLock.unlock();
+        }
+    }
+
     /**
      * Get a connection from the data source and prepare it for use
      *
@@ -187,7 +336,7 @@ public class JDBCDiskCache<K, V>
                 getTableState().setState( TableStateType.DELETE_RUNNING );
                 final Instant now = Instant.now();
 
-                final String sql = String.format(SQL_DELETE_EXPIRED, getTableName());
+                final String sql = sql(SQL_DELETE_EXPIRED);
 
                 try (PreparedStatement psDelete = con.prepareStatement( sql ))
                 {
@@ -240,7 +389,7 @@ public class JDBCDiskCache<K, V>
     {
         boolean exists = false;
         // don't select the element, since we want this to be fast.
-        final String sqlS = String.format(SQL_DOES_ELEMENT_EXIST, getTableName());
+        final String sqlS = sql(SQL_DOES_ELEMENT_EXIST);
 
         try (PreparedStatement psSelect = con.prepareStatement( sqlS ))
         {
@@ -314,7 +463,7 @@ public class JDBCDiskCache<K, V>
         int size = 0;
 
         // region, key
-        final String selectString = String.format(SQL_GET_SIZE, getTableName());
+        final String selectString = sql(SQL_GET_SIZE);
 
         try (JDBCConnection con = getConnection())
         {
@@ -353,7 +502,14 @@ public class JDBCDiskCache<K, V>
         stats.addStatElement("Update Count", updateCount);
         stats.addStatElement("Get Count", getCount);
         stats.addStatElement("Get Matching Count", getMatchingCount);
+        stats.addStatElement("Get Multiple Count", getMultipleCount);
         stats.addStatElement("DB URL", getEventLoggingExtraInfo());
+        if ( isBatching() )
+        {
+            stats.addStatElement("Pending Writes", Integer.valueOf(pendingWrites.size()));
+            stats.addStatElement("Batch Count", batchCount);
+            stats.addStatElement("Upsert Dialect", upsertDialect);
+        }
 
         return stats;
     }
@@ -377,6 +533,14 @@ public class JDBCDiskCache<K, V>
         return tableState;
     }
 
+    /**
+     * @return true if updates are collected and written in batches
+     */
+    protected boolean isBatching()
+    {
+        return getJdbcDiskCacheAttributes().getBatchSize() > 1;
+    }
+
     /**
      * If test before insert it true, we check to see if the element exists. If the element exists
      * we will update. Otherwise, we try inserting.  If this fails because the item exists, we will
@@ -420,25 +584,11 @@ public class JDBCDiskCache<K, V>
     private boolean insertRow( final ICacheElement<K, V> ce, final JDBCConnection con, final byte[] element )
     {
         boolean exists = false;
-        final String sqlI = String.format(SQL_INSERT_ROW, getTableName());
+        final String sqlI = sql(SQL_INSERT_ROW);
 
         try (PreparedStatement psInsert = con.prepareStatement( sqlI ))
         {
-            psInsert.setString( 1, ce.key().toString() );
-            psInsert.setString( 2, getCacheName() );
-            psInsert.setBytes( 3, element );
-            psInsert.setLong( 4, ce.elementAttributes().MaxLife().toSeconds() );
-            psInsert.setString( 5, ce.elementAttributes().IsEternal() ? "T" : "F" );
-
-            final Timestamp createTime = Timestamp.from(ce.elementAttributes().createTime());
-            psInsert.setTimestamp( 6, createTime );
-
-            final Instant now = Instant.now();
-            psInsert.setLong( 7, now.getEpochSecond() );
-
-            final Instant expireTime = now.plus(ce.elementAttributes().MaxLife());
-            psInsert.setLong( 8, expireTime.getEpochSecond() );
-
+            UpsertDialect.bindRow( psInsert, 1, toRow( ce, element, Instant.now() ) );
             psInsert.execute();
         }
         catch ( final SQLException e )
@@ -471,7 +621,7 @@ public class JDBCDiskCache<K, V>
      */
     private void updateRow( final ICacheElement<K, V> ce, final JDBCConnection con, final byte[] element )
     {
-        final String sqlU = String.format(SQL_UPDATE_ROW, getTableName());
+        final String sqlU = sql(SQL_UPDATE_ROW);
 
         try (PreparedStatement psUpdate = con.prepareStatement( sqlU ))
         {
@@ -507,6 +657,11 @@ public class JDBCDiskCache<K, V>
 
         try
         {
+            if ( batchFlushTask != null )
+            {
+                batchFlushTask.cancel( false );
+            }
+            flushPendingWrites();
         	dsFactory.close();
         }
         catch ( final SQLException e )
@@ -538,10 +693,16 @@ public class JDBCDiskCache<K, V>
             return null;
         }
 
+        final ICacheElement<K, V> pending = pendingWrites.get( key );
+        if ( pending != null )
+        {
+            return pending;
+        }
+
         ICacheElement<K, V> obj = null;
 
         // region, key
-        final String selectString = String.format(SQL_GET_ELEMENT, getTableName());
+        final String selectString = sql(SQL_GET_ELEMENT);
 
         try (JDBCConnection con = getConnection())
         {
@@ -604,10 +765,13 @@ public class JDBCDiskCache<K, V>
             return null;
         }
 
+        // the query has to see the pending updates
+        flushPendingWrites();
+
         final Map<K, ICacheElement<K, V>> results = new HashMap<>();
 
         // region, key
-        final String selectString = String.format(SQL_GET_ELEMENT_MATCHING, getTableName());
+        final String selectString = sql(SQL_GET_ELEMENT_MATCHING);
 
         try (JDBCConnection con = getConnection())
         {
@@ -649,6 +813,76 @@ public class JDBCDiskCache<K, V>
         return results;
     }
 
+    /**
+     * Gets the elements with one query per chunk of keys instead of one query per key. A chunk
+     * has at most getMultipleChunkSize keys.
+     *
+     * @param keys
+     * @return a map of K key to ICacheElement&lt;K, V&gt; element
+     */
+    @Override
+    protected Map<K, ICacheElement<K, V>> processGetMultiple( final Set<K> keys )
+    {
+        getMultipleCount.incrementAndGet();
+
+        final Map<K, ICacheElement<K, V>> results = new HashMap<>();
+        if ( keys == null || keys.isEmpty() || !isAlive() )
+        {
+            return results;
+        }
+
+        // look where get looks before going to the table
+        final List<String> diskKeys = new ArrayList<>( keys.size() );
+        for ( final K key : keys )
+        {
+            ICacheElement<K, V> ce = getFromPurgatory( key );
+            if ( ce == null )
+            {
+                ce = pendingWrites.get( key );
+            }
+
+            if ( ce != null )
+            {
+                results.put( key, ce );
+            }
+            else
+            {
+                diskKeys.add( key.toString() );
+            }
+        }
+
+        if ( diskKeys.isEmpty() )
+        {
+            return results;
+        }
+
+        log.debug( "Getting {0} keys from disk", diskKeys::size );
+
+        final int chunkSize = Math.max( 1, getJdbcDiskCacheAttributes().getGetMultipleChunkSize() );
+        final List<byte[]> rows = new ArrayList<>( diskKeys.size() );
+
+        try (JDBCConnection con = getConnection())
+        {
+            for ( int from = 0; from < diskKeys.size(); from += chunkSize )
+            {
+                selectChunk( con, diskKeys.subList( from, Math.min( from + chunkSize, diskKeys.size() ) ), chunkSize, rows );
+            }
+
+            con.commit();
+        }
+        catch ( final SQLException sqle )
+        {
+            log.error( "Caught a SQL exception trying to get {0} items", diskKeys.size(), sqle );
+        }
+
+        for ( final ICacheElement<K, V> ce : deserializeRows( rows ) )
+        {
+            results.put( ce.key(), ce );
+        }
+
+        return results;
+    }
+
     /**
      * Returns true if the removal was successful; or false if there is nothing to remove. Current
      * implementation always results in a disk orphan.
@@ -659,43 +893,54 @@ public class JDBCDiskCache<K, V>
     @Override
     protected boolean processRemove( final K key )
     {
-        // remove single item.
-        final String sqlSingle = String.format(SQL_REMOVE_SINGLE, getTableName());
-        // remove all keys of the same name group.
-        final String sqlPartial = String.format(SQL_REMOVE_PARTIAL, getTableName());
-
-        try (JDBCConnection con = getConnection())
+        // a batch that is being written could otherwise write the key back
+        batchLock.lock();
+        try
         {
-            final boolean partial = key.toString().endsWith(ICache.NAME_COMPONENT_DELIMITER);
-            final String sql = partial ? sqlPartial : sqlSingle;
+            removePendingWrites( key );
 
-            try (PreparedStatement psSelect = con.prepareStatement(sql))
+            // remove single item.
+            final String sqlSingle = sql(SQL_REMOVE_SINGLE);
+            // remove all keys of the same name group.
+            final String sqlPartial = sql(SQL_REMOVE_PARTIAL);
+
+            try (JDBCConnection con = getConnection())
             {
-                psSelect.setString( 1, getCacheName() );
-                if ( partial )
+                final boolean partial = key.toString().endsWith(ICache.NAME_COMPONENT_DELIMITER);
+                final String sql = partial ? sqlPartial : sqlSingle;
+
+                try (PreparedStatement psSelect = con.prepareStatement(sql))
                 {
-                    psSelect.setString( 2, key.toString() + "%" );
+                    psSelect.setString( 1, getCacheName() );
+                    if ( partial )
+                    {
+                        psSelect.setString( 2, key.toString() + "%" );
+                    }
+                    else
+                    {
+                        psSelect.setString( 2, key.toString() );
+                    }
+
+                    psSelect.executeUpdate();
+
+                    setAlive(true);
+                    con.commit();
                 }
-                else
+                catch ( final SQLException e )
                 {
-                    psSelect.setString( 2, key.toString() );
+                    log.error( "Problem creating statement. sql [{0}]", sql, e );
+                    setAlive(false);
                 }
-
-                psSelect.executeUpdate();
-
-                setAlive(true);
-                con.commit();
             }
             catch ( final SQLException e )
             {
-                log.error( "Problem creating statement. sql [{0}]", sql, e );
-                setAlive(false);
+                log.error( "Problem updating cache.", e );
+                reset();
             }
         }
-        catch ( final SQLException e )
+        finally
         {
-            log.error( "Problem updating cache.", e );
-            reset();
+            batchLock.unlock();
         }
         return false;
     }
@@ -710,28 +955,38 @@ public class JDBCDiskCache<K, V>
         // it should never get here from the abstract disk cache.
         if ( this.jdbcDiskCacheAttributes.isAllowRemoveAll() )
         {
-            final String sql = String.format(SQL_REMOVE_ALL, getTableName());
-
-            try (JDBCConnection con = getConnection())
+            batchLock.lock();
+            try
             {
-                try (PreparedStatement psDelete = con.prepareStatement( sql ))
+                pendingWrites.clear();
+
+                final String sql = sql(SQL_REMOVE_ALL);
+
+                try (JDBCConnection con = getConnection())
                 {
-                    psDelete.setString( 1, getCacheName() );
-                    setAlive(true);
-                    psDelete.executeUpdate();
+                    try (PreparedStatement psDelete = con.prepareStatement( sql ))
+                    {
+                        psDelete.setString( 1, getCacheName() );
+                        setAlive(true);
+                        psDelete.executeUpdate();
+                    }
+                    catch ( final SQLException e )
+                    {
+                        log.error( "Problem creating statement.", e );
+                        setAlive(false);
+                    }
+
+                    con.commit();
                 }
                 catch ( final SQLException e )
                 {
-                    log.error( "Problem creating statement.", e );
-                    setAlive(false);
+                    log.error( "Problem removing all.", e );
+                    reset();
                 }
-
-                con.commit();
             }
-            catch ( final SQLException e )
+            finally
             {
-                log.error( "Problem removing all.", e );
-                reset();
+                batchLock.unlock();
             }
         }
         else
@@ -755,6 +1010,16 @@ public class JDBCDiskCache<K, V>
 
         log.debug( "updating, ce = {0}", ce );
 
+        if ( isBatching() )
+        {
+            pendingWrites.put( ce.key(), ce );
+            if ( pendingWrites.size() >= getJdbcDiskCacheAttributes().getBatchSize() )
+            {
+                flushPendingWrites();
+            }
+            return;
+        }
+
         try (JDBCConnection con = getConnection())
         {
             log.debug( "Putting [{0}] on disk.", ce::key);
@@ -785,6 +1050,304 @@ public class JDBCDiskCache<K, V>
         // nothing
     }
 
+    /**
+     * Drops the pending updates of a key, or of a group of keys if the key ends with the name
+     * component delimiter.
+     *
+     * @param key the removed key
+     */
+    private void removePendingWrites( final K key )
+    {
+        if ( pendingWrites.isEmpty() )
+        {
+            return;
+        }
+
+        final String name = key.toString();
+        if ( name.endsWith( ICache.NAME_COMPONENT_DELIMITER ) )
+        {
+            pendingWrites.keySet().removeIf( k -> k.toString().startsWith( name ) );
+        }
+        else
+        {
+            pendingWrites.remove( key );
+        }
+    }
+
+    /**
+     * Resolves the upsert dialect on the first batch.
+     *
+     * @param con the connection of the batch
+     * @return the dialect
+     * @throws SQLException if the database metadata cannot be read
+     */
+    private UpsertDialect resolveUpsertDialect( final JDBCConnection con ) throws SQLException
+    {
+        if ( upsertDialect == null )
+        {
+            final UpsertDialect configured = getJdbcDiskCacheAttributes().getUpsertDialect();
+            if ( configured == null || configured == UpsertDialect.AUTO )
+            {
+                final DatabaseMetaData metaData = con.getMetaData();
+                upsertDialect = UpsertDialect.forDatabase( metaData.getDatabaseProductName(),
+                        metaData.getDatabaseMajorVersion() );
+            }
+            else
+            {
+                upsertDialect = configured;
+            }
+            log.info( "Writing batches to table [{0}] with upsert dialect {1}", getTableName(), upsertDialect );
+        }
+        return upsertDialect;
+    }
+
+    /**
+     * Selects the rows of one chunk of keys. The IN list is padded to the next power of two by
+     * repeating the last key, so only a few different statements are prepared. The padding never
+     * exceeds the chunk size, which may be a limit of the database.
+     *
+     * @param con the connection
+     * @param keys the keys of the chunk
+     * @param chunkSize the maximum number of keys
+     * @param rows receives the serialized elements
+     * @throws SQLException
+     */
+    private void selectChunk( final JDBCConnection con, final List<String> keys, final int chunkSize,
+            final List<byte[]> rows )
+        throws SQLException
+    {
+        final int parameters = keys.size() == 1 ? 1
+            : Math.min( chunkSize, Integer.highestOneBit( keys.size() - 1 ) << 1 );
+        final String selectString = sql( SQL_GET_ELEMENTS + "?, ".repeat( parameters - 1 ) + "?)" );
+
+        try (PreparedStatement psSelect = con.prepareStatement( selectString ))
+        {
+            psSelect.setString( 1, getCacheName() );
+            for ( int i = 0; i < parameters; i++ )
+            {
+                psSelect.setString( i + 2, keys.get( Math.min( i, keys.size() - 1 ) ) );
+            }
+
+            try (ResultSet rs = psSelect.executeQuery())
+            {
+                while ( rs.next() )
+                {
+                    final byte[] data = rs.getBytes( 1 );
+                    if ( data != null )
+                    {
+                        rows.add( data );
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param template one of the SQL templates
+     * @return the template formatted with the table name
+     */
+    private String sql( final String template )
+    {
+        return formattedSql.computeIfAbsent( template, t -> String.format( t, getTableName() ) );
+    }
+
+    /**
+     * Writes the pending updates every batchFlushInterval, if batching is enabled. The updates
+     * are written anyway as soon as batchSize of them are pending.
+     *
+     * @param scheduler the scheduler of the factory
+     */
+    public void startBatchFlush( final ScheduledExecutorService scheduler )
+    {
+        if ( isBatching() && scheduler != null && batchFlushTask == null )
+        {
+            final long intervalMillis = Math.max( 10, getJdbcDiskCacheAttributes().getBatchFlushInterval().toMillis() );
+            batchFlushTask = scheduler.scheduleWithFixedDelay( () -> {
+                try
+                {
+                    flushPendingWrites();
+                }
+                catch ( final RuntimeException e )
+                {
+                    // an exception would cancel the task
+                    log.error( "Problem flushing pending writes.", e );
+                }
+            }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS );
+        }
+    }
+
+    /**
+     * @param ce the element
+     * @param element the serialized element
+     * @param now the update time
+     * @return the column values of the element
+     */
+    private UpsertDialect.Row toRow( final ICacheElement<K, V> ce, final byte[] element, final Instant now )
+    {
+        return new UpsertDialect.Row(
+                ce.key().toString(),
+                getCacheName(),
+                element,
+                ce.elementAttributes().MaxLife().toSeconds(),
+                ce.elementAttributes().IsEternal() ? "T" : "F",
+                Timestamp.from( ce.elementAttributes().createTime() ),
+                now.getEpochSecond(),
+                now.plus( ce.elementAttributes().MaxLife() ).getEpochSecond() );
+    }
+
+    /**
+     * Writes the rows without an upsert statement: a batched update, then a batched insert of the
+     * rows that were not updated.
+     *
+     * @param con the connection of the batch
+     * @param rows the rows
+     * @throws SQLException if a batch fails
+     */
+    private void updateThenInsert( final JDBCConnection con, final List<UpsertDialect.Row> rows )
+        throws SQLException
+    {
+        final int[] updated;
+        try (PreparedStatement psUpdate = con.prepareStatement( sql( SQL_UPDATE_ROW ) ))
+        {
+            for ( final UpsertDialect.Row row : rows )
+            {
+                psUpdate.setBytes( 1, row.element() );
+                psUpdate.setTimestamp( 2, row.createTime() );
+                psUpdate.setLong( 3, row.updateTimeSeconds() );
+                psUpdate.setLong( 4, row.expireTimeSeconds() );
+                psUpdate.setString( 5, row.key() );
+                psUpdate.setString( 6, row.region() );
+                psUpdate.addBatch();
+            }
+            updated = psUpdate.executeBatch();
+        }
+
+        try (PreparedStatement psInsert = con.prepareStatement( sql( SQL_INSERT_ROW ) );
+             PreparedStatement psSelect = con.prepareStatement( sql( SQL_DOES_ELEMENT_EXIST ) ))
+        {
+            int inserts = 0;
+            for ( int i = 0; i < rows.size(); i++ )
+            {
+                final UpsertDialect.Row row = rows.get( i );
+                boolean missing = updated[i] == 0;
+                if ( updated[i] == PreparedStatement.SUCCESS_NO_INFO )
+                {
+                    // the driver does not tell, ask the table
+                    psSelect.setString( 1, row.region() );
+                    psSelect.setString( 2, row.key() );
+                    try (ResultSet rs = psSelect.executeQuery())
+                    {
+                        missing = !rs.next();
+                    }
+                }
+                if ( missing )
+                {
+                    UpsertDialect.bindRow( psInsert, 1, row );
+                    psInsert.addBatch();
+                    inserts++;
+                }
+            }
+            if ( inserts > 0 )
+            {
+                psInsert.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Writes one batch in one transaction. If the batch fails, the rows are written one by one
+     * without the upsert statement.
+     *
+     * @param batch the elements
+     * @return false if the database could not be reached, the elements are kept for the next flush
+     */
+    private boolean writeBatch( final List<ICacheElement<K, V>> batch )
+    {
+        final Instant now = Instant.now();
+        final List<UpsertDialect.Row> rows = new ArrayList<>( batch.size() );
+        for ( final ICacheElement<K, V> ce : batch )
+        {
+            try
+            {
+                rows.add( toRow( ce, getElementSerializer().serialize( ce ), now ) );
+            }
+            catch ( final IOException e )
+            {
+                log.error( "Could not serialize element", e );
+            }
+        }
+        if ( rows.isEmpty() )
+        {
+            return true;
+        }
+
+        try (JDBCConnection con = getConnection())
+        {
+            final UpsertDialect.Statement upsert = resolveUpsertDialect( con ).statement();
+            try
+            {
+                writeRows( con, upsert, rows );
+                con.commit();
+                batchCount.incrementAndGet();
+                log.debug( "Wrote a batch of {0} elements", rows::size );
+            }
+            catch ( final SQLException e )
+            {
+                log.warn( "Problem writing a batch of {0} elements, writing them one by one.", rows.size(), e );
+                con.rollback();
+                for ( final UpsertDialect.Row row : rows )
+                {
+                    try
+                    {
+                        updateThenInsert( con, List.of( row ) );
+                        con.commit();
+                    }
+                    catch ( final SQLException e1 )
+                    {
+                        log.error( "Could not write element [{0}]", row.key(), e1 );
+                        con.rollback();
+                    }
+                }
+            }
+            return true;
+        }
+        catch ( final SQLException e )
+        {
+            log.error( "Problem writing a batch of {0} elements, keeping them pending.", rows.size(), e );
+            return false;
+        }
+    }
+
+    /**
+     * Writes the rows with the upsert statement, or with an update followed by an insert if the
+     * dialect has none.
+     *
+     * @param con the connection
+     * @param upsert the upsert statement, null if there is none
+     * @param rows the rows
+     * @throws SQLException if the batch fails
+     */
+    private void writeRows( final JDBCConnection con, final UpsertDialect.Statement upsert,
+            final List<UpsertDialect.Row> rows )
+        throws SQLException
+    {
+        if ( upsert == null )
+        {
+            updateThenInsert( con, rows );
+            return;
+        }
+
+        try (PreparedStatement psUpsert = con.prepareStatement( upsert.sql( getTableName() ) ))
+        {
+            for ( final UpsertDialect.Row row : rows )
+            {
+                upsert.bind( psUpsert, row );
+                psUpsert.addBatch();
+            }
+            psUpsert.executeBatch();
+        }
+    }
+
     /**
      * For debugging.
      *
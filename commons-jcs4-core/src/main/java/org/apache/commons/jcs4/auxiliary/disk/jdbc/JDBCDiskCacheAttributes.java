@@ -38,9 +38,18 @@ public class JDBCDiskCacheAttributes
     /** This is the default limit on the maximum number of active connections. */
     public static final int DEFAULT_MAX_TOTAL = 10;
 
+    /** This is the default limit on the prepared statements kept open per connection. */
+    public static final int DEFAULT_MAX_PREPARED_STATEMENTS = 32;
+
     /** This is the default setting for the cleanup routine. */
     public static final Duration DEFAULT_SHRINKER_INTERVAL = Duration.ofSeconds(300);
 
+    /** This is the default interval for writing pending batched updates. */
+    public static final Duration DEFAULT_BATCH_FLUSH_INTERVAL = Duration.ofSeconds(1);
+
+    /** This is the default number of keys in one query of getMultiple. */
+    public static final int DEFAULT_GET_MULTIPLE_CHUNK_SIZE = 100;
+
     /** The default Pool Name to which the connection pool will be keyed. */
     public static final String DEFAULT_POOL_NAME = "jcs";
 
@@ -71,12 +80,30 @@ public class JDBCDiskCacheAttributes
     /** Max connections allowed */
     private int maxTotal = DEFAULT_MAX_TOTAL;
 
+    /** Prepared statements kept open per pooled connection. 0 closes them after use. */
+    private int maxPreparedStatements = DEFAULT_MAX_PREPARED_STATEMENTS;
+
     /** How often should we remove expired. */
     private Duration shrinkerInterval = DEFAULT_SHRINKER_INTERVAL;
 
     /** Should we remove expired in the background. */
     private boolean useDiskShrinker = true;
 
+    /** Number of updates written in one JDBC batch. 1 or less writes each update on its own. */
+    private int batchSize;
+
+    /** How often pending updates are written when a batch does not fill up. */
+    private Duration batchFlushInterval = DEFAULT_BATCH_FLUSH_INTERVAL;
+
+    /** The upsert statement used for batches, AUTO detects it from the database. */
+    private UpsertDialect upsertDialect = UpsertDialect.AUTO;
+
+    /** Maximum number of keys in the IN list of one getMultiple query. */
+    private int getMultipleChunkSize = DEFAULT_GET_MULTIPLE_CHUNK_SIZE;
+
+    /** Thread pool that deserializes the rows of large getMultiple results. Null uses the calling thread. */
+    private String deserializationThreadPoolName;
+
     /**
      * If a pool name is supplied, the factory will attempt to load it. It should be configured in a
      * separate section as follows. Assuming the name is "MyPool":
@@ -91,6 +118,22 @@ public class JDBCDiskCacheAttributes
      */
     private String connectionPoolName;
 
+    /**
+     * @return The batchFlushInterval.
+     */
+    public Duration getBatchFlushInterval()
+    {
+        return batchFlushInterval;
+    }
+
+    /**
+     * @return The batchSize.
+     */
+    public int getBatchSize()
+    {
+        return batchSize;
+    }
+
     /**
      * @return The connectionPoolName
      */
@@ -99,6 +142,14 @@ public class JDBCDiskCacheAttributes
         return connectionPoolName;
     }
 
+    /**
+     * @return The deserializationThreadPoolName.
+     */
+    public String getDeserializationThreadPoolName()
+    {
+        return deserializationThreadPoolName;
+    }
+
     /**
      * @return The driverClassName.
      */
@@ -107,6 +158,14 @@ public class JDBCDiskCacheAttributes
         return driverClassName;
     }
 
+    /**
+     * @return The getMultipleChunkSize.
+     */
+    public int getGetMultipleChunkSize()
+    {
+        return getMultipleChunkSize;
+    }
+
     /**
 	 * @return The jndiPath
 	 */
@@ -123,6 +182,14 @@ public class JDBCDiskCacheAttributes
 		return jndiTTL;
 	}
 
+    /**
+     * @return The maxPreparedStatements.
+     */
+    public int getMaxPreparedStatements()
+    {
+        return maxPreparedStatements;
+    }
+
     /**
      * @return The maxTotal.
      */
@@ -155,6 +222,14 @@ public class JDBCDiskCacheAttributes
         return tableName;
     }
 
+    /**
+     * @return The upsertDialect.
+     */
+    public UpsertDialect getUpsertDialect()
+    {
+        return upsertDialect;
+    }
+
     /**
      * @return The url.
      */
@@ -187,6 +262,22 @@ public class JDBCDiskCacheAttributes
         return useDiskShrinker;
     }
 
+    /**
+     * @param batchFlushInterval The batchFlushInterval to set.
+     */
+    public void setBatchFlushInterval( final Duration batchFlushInterval )
+    {
+        this.batchFlushInterval = batchFlushInterval;
+    }
+
+    /**
+     * @param batchSize The batchSize to set.
+     */
+    public void setBatchSize( final int batchSize )
+    {
+        this.batchSize = batchSize;
+    }
+
 	/**
      * @param connectionPoolName The connectionPoolName to set
      */
@@ -195,6 +286,14 @@ public class JDBCDiskCacheAttributes
         this.connectionPoolName = connectionPoolName;
     }
 
+    /**
+     * @param deserializationThreadPoolName The deserializationThreadPoolName to set.
+     */
+    public void setDeserializationThreadPoolName( final String deserializationThreadPoolName )
+    {
+        this.deserializationThreadPoolName = deserializationThreadPoolName;
+    }
+
     /**
      * @param driverClassName The driverClassName to set.
      */
@@ -203,6 +302,14 @@ public class JDBCDiskCacheAttributes
         this.driverClassName = driverClassName;
     }
 
+    /**
+     * @param getMultipleChunkSize The getMultipleChunkSize to set.
+     */
+    public void setGetMultipleChunkSize( final int getMultipleChunkSize )
+    {
+        this.getMultipleChunkSize = getMultipleChunkSize;
+    }
+
     /**
 	 * @param jndiPath The jndiPath to set
 	 */
@@ -219,6 +326,14 @@ public class JDBCDiskCacheAttributes
 		this.jndiTTL = jndiTTL;
 	}
 
+    /**
+     * @param maxPreparedStatements The maxPreparedStatements to set.
+     */
+    public void setMaxPreparedStatements( final int maxPreparedStatements )
+    {
+        this.maxPreparedStatements = maxPreparedStatements;
+    }
+
     /**
      * @param maxTotal The maxTotal to set.
      */
@@ -262,6 +377,14 @@ public class JDBCDiskCacheAttributes
         this.testBeforeInsert = testBeforeInsert;
     }
 
+    /**
+     * @param upsertDialect The upsertDialect to set.
+     */
+    public void setUpsertDialect( final UpsertDialect upsertDialect )
+    {
+        this.upsertDialect = upsertDialect;
+    }
+
     /**
      * @param url The url to set.
      */
@@ -302,9 +425,15 @@ public class JDBCDiskCacheAttributes
         buf.append( "\n TableName [" + getTableName() + "]" );
         buf.append( "\n TestBeforeInsert [" + isTestBeforeInsert() + "]" );
         buf.append( "\n MaxTotal [" + getMaxTotal() + "]" );
+        buf.append( "\n MaxPreparedStatements [" + getMaxPreparedStatements() + "]" );
         buf.append( "\n AllowRemoveAll [" + isAllowRemoveAll() + "]" );
         buf.append( "\n ShrinkerInterval [" + getShrinkerInterval() + "]" );
         buf.append( "\n UseDiskShrinker [" + isUseDiskShrinker() + "]" );
+        buf.append( "\n BatchSize [" + getBatchSize() + "]" );
+        buf.append( "\n BatchFlushInterval [" + getBatchFlushInterval() + "]" );
+        buf.append( "\n UpsertDialect [" + getUpsertDialect() + "]" );
+        buf.append( "\n GetMultipleChunkSize [" + getGetMultipleChunkSize() + "]" );
+        buf.append( "\n DeserializationThreadPoolName [" + getDeserializationThreadPoolName() + "]" );
         return buf.toString();
     }
 }
@@ -101,6 +101,7 @@ public class JDBCDiskCacheFactory
 
         // create a shrinker if we need it.
         createShrinkerWhenNeeded( cattr, cache );
+        cache.startBatchFlush( getScheduledExecutorService() );
 
         return cache;
     }
@@ -0,0 +1,217 @@
+package org.apache.commons.jcs4.auxiliary.disk.jdbc;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Locale;
+
+/**
+ * The SQL used by the JDBC disk cache to insert or update a row in one statement. This is what
+ * makes batched writes possible, the insert-then-update fallback needs the result of the insert.
+ */
+public enum UpsertDialect
+{
+    /** Chooses the dialect from the database product and version */
+    AUTO( null ),
+
+    /** SQL:2003 MERGE, for HSQLDB 2 and H2 2 */
+    MERGE( new Statement()
+    {
+        @Override
+        public String sql( final String tableName )
+        {
+            return "merge into " + tableName + " t using (values (1)) as v (x)"
+                + " on t.CACHE_KEY = ? and t.REGION = ?"
+                + " when matched then update set ELEMENT = ?, MAX_LIFE_SECONDS = ?, IS_ETERNAL = ?,"
+                + " CREATE_TIME = ?, UPDATE_TIME_SECONDS = ?, SYSTEM_EXPIRE_TIME_SECONDS = ?"
+                + " when not matched then insert " + COLUMNS + " values " + PARAMETERS;
+        }
+
+        @Override
+        public void bind( final PreparedStatement ps, final Row row ) throws SQLException
+        {
+            ps.setString( 1, row.key() );
+            ps.setString( 2, row.region() );
+            bindValues( ps, 3, row );
+            bindRow( ps, 9, row );
+        }
+    } ),
+
+    /** INSERT ... ON CONFLICT DO UPDATE, for PostgreSQL and SQLite */
+    ON_CONFLICT( new Statement()
+    {
+        @Override
+        public String sql( final String tableName )
+        {
+            return "insert into " + tableName + " " + COLUMNS + " values " + PARAMETERS
+                + " on conflict (CACHE_KEY, REGION) do update set ELEMENT = excluded.ELEMENT,"
+                + " MAX_LIFE_SECONDS = excluded.MAX_LIFE_SECONDS, IS_ETERNAL = excluded.IS_ETERNAL,"
+                + " CREATE_TIME = excluded.CREATE_TIME, UPDATE_TIME_SECONDS = excluded.UPDATE_TIME_SECONDS,"
+                + " SYSTEM_EXPIRE_TIME_SECONDS = excluded.SYSTEM_EXPIRE_TIME_SECONDS";
+        }
+
+        @Override
+        public void bind( final PreparedStatement ps, final Row row ) throws SQLException
+        {
+            bindRow( ps, 1, row );
+        }
+    } ),
+
+    /** INSERT ... ON DUPLICATE KEY UPDATE, for MySQL and MariaDB */
+    ON_DUPLICATE_KEY( new Statement()
+    {
+        @Override
+        public String sql( final String tableName )
+        {
+            return "insert into " + tableName + " " + COLUMNS + " values " + PARAMETERS
+                + " on duplicate key update ELEMENT = values(ELEMENT),"
+                + " MAX_LIFE_SECONDS = values(MAX_LIFE_SECONDS), IS_ETERNAL = values(IS_ETERNAL),"
+                + " CREATE_TIME = values(CREATE_TIME), UPDATE_TIME_SECONDS = values(UPDATE_TIME_SECONDS),"
+                + " SYSTEM_EXPIRE_TIME_SECONDS = values(SYSTEM_EXPIRE_TIME_SECONDS)";
+        }
+
+        @Override
+        public void bind( final PreparedStatement ps, final Row row ) throws SQLException
+        {
+            bindRow( ps, 1, row );
+        }
+    } ),
+
+    /**
+     * No upsert statement. The rows are written with a batched update, followed by a batched
+     * insert of the rows the update did not find.
+     */
+    NONE( null );
+
+    /** An upsert statement */
+    interface Statement
+    {
+        /**
+         * @param tableName the table
+         * @return the upsert statement
+         */
+        String sql( String tableName );
+
+        /**
+         * Binds the parameters of the statement returned by {@link #sql(String)}.
+         *
+         * @param ps the statement
+         * @param row the values
+         * @throws SQLException on binding errors
+         */
+        void bind( PreparedStatement ps, Row row ) throws SQLException;
+    }
+
+    /** The values of one row, in the order of the table columns */
+    record Row( String key, String region, byte[] element, long maxLifeSeconds, String eternal,
+            Timestamp createTime, long updateTimeSeconds, long expireTimeSeconds )
+    {
+    }
+
+    /** The columns written by an insert */
+    private static final String COLUMNS = "(CACHE_KEY, REGION, ELEMENT, MAX_LIFE_SECONDS, IS_ETERNAL,"
+        + " CREATE_TIME, UPDATE_TIME_SECONDS, SYSTEM_EXPIRE_TIME_SECONDS)";
+
+    /** One parameter per column */
+    private static final String PARAMETERS = "(?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Sets all columns of the row, starting with the key. This is also the parameter order of a
+     * plain insert.
+     *
+     * @param ps the statement
+     * @param index index of the first parameter
+     * @param row the values
+     * @throws SQLException on binding errors
+     */
+    static void bindRow( final PreparedStatement ps, final int index, final Row row )
+        throws SQLException
+    {
+        ps.setString( index, row.key() );
+        ps.setString( index + 1, row.region() );
+        bindValues( ps, index + 2, row );
+    }
+
+    /**
+     * Sets the columns that change on an update.
+     *
+     * @param ps the statement
+     * @param index index of the first parameter
+     * @param row the values
+     * @throws SQLException on binding errors
+     */
+    private static void bindValues( final PreparedStatement ps, final int index, final Row row )
+        throws SQLException
+    {
+        ps.setBytes( index, row.element() );
+        ps.setLong( index + 1, row.maxLifeSeconds() );
+        ps.setString( index + 2, row.eternal() );
+        ps.setTimestamp( index + 3, row.createTime() );
+        ps.setLong( index + 4, row.updateTimeSeconds() );
+        ps.setLong( index + 5, row.expireTimeSeconds() );
+    }
+
+    /**
+     * Chooses the dialect for a database. HSQLDB 1.8 and H2 1.x have no standard MERGE, they get
+     * NONE.
+     *
+     * @param productName as returned by DatabaseMetaData.getDatabaseProductName()
+     * @param majorVersion as returned by DatabaseMetaData.getDatabaseMajorVersion()
+     * @return the matching dialect, NONE if the database is unknown
+     */
+    public static UpsertDialect forDatabase( final String productName, final int majorVersion )
+    {
+        final String name = productName == null ? "" : productName.toLowerCase( Locale.ROOT );
+        if ( name.contains( "hsql" ) || name.equals( "h2" ) )
+        {
+            return majorVersion >= 2 ? MERGE : NONE;
+        }
+        if ( name.contains( "postgresql" ) || name.contains( "sqlite" ) )
+        {
+            return ON_CONFLICT;
+        }
+        if ( name.contains( "mysql" ) || name.contains( "mariadb" ) )
+        {
+            return ON_DUPLICATE_KEY;
+        }
+        return NONE;
+    }
+
+    /** The upsert statement, null for AUTO and NONE */
+    private final Statement statement;
+
+    /**
+     * @param statement the upsert statement, null if there is none
+     */
+    UpsertDialect( final Statement statement )
+    {
+        this.statement = statement;
+    }
+
+    /**
+     * @return the upsert statement, null if the dialect has none. AUTO has to be resolved first.
+     */
+    Statement statement()
+    {
+        return statement;
+    }
+}
@@ -67,6 +67,13 @@ public class SharedPoolDataSourceFactory implements DataSourceFactory
         cpds.setUser(config.getUserName());
         cpds.setPassword(config.getPassword());
 
+        // the batch and getMultiple statements are prepared again and again on each connection
+        if (config.getMaxPreparedStatements() > 0)
+        {
+            cpds.setPoolPreparedStatements(true);
+            cpds.setMaxPreparedStatements(config.getMaxPreparedStatements());
+        }
+
         return cpds;
     }
 
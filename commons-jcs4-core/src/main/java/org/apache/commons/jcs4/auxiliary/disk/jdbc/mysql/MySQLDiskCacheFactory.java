@@ -90,6 +90,7 @@ public class MySQLDiskCacheFactory
 
         // create a shrinker if we need it.
         createShrinkerWhenNeeded( cattr, cache );
+        cache.startBatchFlush( getScheduledExecutorService() );
         scheduleOptimizations( cattr, tableState, cache.getDataSource() );
 
         return cache;
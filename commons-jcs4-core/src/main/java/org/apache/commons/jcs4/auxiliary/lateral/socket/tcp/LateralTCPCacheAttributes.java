@@ -86,6 +86,12 @@ public class LateralTCPCacheAttributes
     /** Discovery switch */
     private boolean udpDiscoveryEnabled = DEFAULT_UDP_DISCOVERY_ENABLED;
 
+    /** Gossip discovery port, 0 disables gossip discovery */
+    private int gossipDiscoveryPort;
+
+    /** Gossip discovery seeds */
+    private String gossipDiscoverySeeds = "";
+
     /** Udp datagram TTL */
     private int udpTTL;
 
@@ -182,6 +188,29 @@ public class LateralTCPCacheAttributes
         return this.tcpServers;
     }
 
+    /**
+     * The port of the gossip discovery socket. If it is set, gossip discovery is used instead of
+     * UDP multicast discovery.
+     *
+     * @return The gossipDiscoveryPort, 0 if gossip discovery is disabled
+     */
+    @Override
+    public int getGossipDiscoveryPort()
+    {
+        return this.gossipDiscoveryPort;
+    }
+
+    /**
+     * The gossip sockets of other members to join, used if gossip discovery is enabled.
+     *
+     * @return comma separated list of host:port
+     */
+    @Override
+    public String getGossipDiscoverySeeds()
+    {
+        return this.gossipDiscoverySeeds;
+    }
+
     /**
      * The address to broadcast to if UDPDiscovery is enabled.
      *
@@ -393,6 +422,27 @@ public class LateralTCPCacheAttributes
         this.tcpServers = val;
     }
 
+    /**
+     * Sets the port of the gossip discovery socket. Gossip discovery works without multicast, it
+     * only needs the address of at least one other member, see setGossipDiscoverySeeds.
+     *
+     * @param gossipDiscoveryPort The port to set, 0 disables gossip discovery
+     */
+    public void setGossipDiscoveryPort( final int gossipDiscoveryPort )
+    {
+        this.gossipDiscoveryPort = gossipDiscoveryPort;
+    }
+
+    /**
+     * Sets the gossip sockets of other members to join.
+     *
+     * @param gossipDiscoverySeeds comma separated list of host:port
+     */
+    public void setGossipDiscoverySeeds( final String gossipDiscoverySeeds )
+    {
+        this.gossipDiscoverySeeds = gossipDiscoverySeeds;
+    }
+
     /**
      * Sets the address to broadcast to if UDPDiscovery is enabled.
      *
@@ -39,9 +39,11 @@ import org.apache.commons.jcs4.engine.control.CompositeCacheManager;
 import org.apache.commons.jcs4.engine.logging.behavior.ICacheEventLogger;
 import org.apache.commons.jcs4.engine.match.behavior.IKeyMatcher;
 import org.apache.commons.jcs4.log.Log;
+import org.apache.commons.jcs4.utils.discovery.GossipDiscoveryAttributes;
+import org.apache.commons.jcs4.utils.discovery.GossipDiscoveryManager;
 import org.apache.commons.jcs4.utils.discovery.UDPDiscoveryAttributes;
 import org.apache.commons.jcs4.utils.discovery.UDPDiscoveryManager;
-import org.apache.commons.jcs4.utils.discovery.UDPDiscoveryService;
+import org.apache.commons.jcs4.utils.discovery.behavior.IDiscoveryService;
 
 /**
  * Constructs a LateralTCPCacheNoWaitFacade for the given configuration. Each lateral service / local
@@ -252,8 +254,8 @@ public class LateralTCPCacheFactory
             final LateralTCPCacheNoWaitFacade<K, V> lcnwf,
             final ICompositeCacheManager cacheMgr)
     {
-        // create the UDP discovery for the TCP lateral
-        if ( lac.isUdpDiscoveryEnabled() )
+        // create the gossip or UDP discovery for the TCP lateral
+        if ( lac.getGossipDiscoveryPort() > 0 || lac.isUdpDiscoveryEnabled() )
         {
             // One can be used for all regions
             final LateralTCPDiscoveryListener discoveryListener =
@@ -264,16 +266,23 @@ public class LateralTCPCacheFactory
 
             // need a factory for this so it doesn't
             // get dereferenced, also we don't want one for every region.
-            final UDPDiscoveryAttributes udpAttributes = new UDPDiscoveryAttributes(lac);
-
-            UDPDiscoveryService discovery = UDPDiscoveryManager.getInstance().getService(
-                    udpAttributes, cacheMgr, lcnwf.getElementSerializer());
+            final IDiscoveryService discovery;
+            if ( lac.getGossipDiscoveryPort() > 0 )
+            {
+                discovery = GossipDiscoveryManager.getInstance().getService(
+                        new GossipDiscoveryAttributes(lac), cacheMgr, lcnwf.getElementSerializer());
+            }
+            else
+            {
+                discovery = UDPDiscoveryManager.getInstance().getService(
+                        new UDPDiscoveryAttributes(lac), cacheMgr, lcnwf.getElementSerializer());
+            }
 
             discovery.addParticipatingCacheName( lac.getCacheName() );
             discovery.addDiscoveryListener( discoveryListener );
 
-            log.info( "Registered TCP lateral cache [{0}] with UDPDiscoveryService.",
-                    lac::getCacheName);
+            log.info( "Registered TCP lateral cache [{0}] with {1}.",
+                    lac::getCacheName, () -> discovery.getClass().getSimpleName());
         }
     }
 
@@ -34,6 +34,7 @@ import org.apache.commons.jcs4.engine.CacheAdaptor;
 import org.apache.commons.jcs4.engine.CacheEventQueueFactory;
 import org.apache.commons.jcs4.engine.CacheInfo;
 import org.apache.commons.jcs4.engine.CacheStatus;
+import org.apache.commons.jcs4.engine.EventQueueFullException;
 import org.apache.commons.jcs4.engine.behavior.ICacheElement;
 import org.apache.commons.jcs4.engine.behavior.ICacheEventQueue;
 import org.apache.commons.jcs4.engine.behavior.ICacheServiceNonLocal;
@@ -85,11 +86,7 @@ public class LateralTCPCacheNoWait<K, V>
 
         log.debug( "Constructing LateralTCPCacheNoWait, LateralTCPCache = [{0}]", cache );
 
-        this.eventQueue = CacheEventQueueFactory.createCacheEventQueue(
-                new CacheAdaptor<>( cache ),
-                CacheInfo.INSTANCE.listenerId(), cache.getCacheName(),
-                getAuxiliaryCacheAttributes().getEventQueuePoolName(),
-                getAuxiliaryCacheAttributes().getEventQueueType() );
+        this.eventQueue = createEventQueue();
 
         // need each no wait to handle each of its real updates and removes,
         // since there may
@@ -103,6 +100,23 @@ public class LateralTCPCacheNoWait<K, V>
         }
     }
 
+    /**
+     * Create a cache event queue from the attributes of the lateral cache
+     */
+    private ICacheEventQueue<K, V> createEventQueue()
+    {
+        final ILateralTCPCacheAttributes attributes = getAuxiliaryCacheAttributes();
+        return CacheEventQueueFactory.createCacheEventQueue(
+                new CacheAdaptor<>( cache ),
+                CacheInfo.INSTANCE.listenerId(), cache.getCacheName(),
+                attributes.getEventQueuePoolName(),
+                attributes.getEventQueueType(),
+                1,
+                attributes.getEventQueueMaxSize(),
+                attributes.getEventQueueOverflowPolicy(),
+                attributes.getEventQueueBlockTimeout() );
+    }
+
     /** Adds a dispose request to the lateral cache. */
     @Override
     public void dispose()
@@ -198,6 +212,15 @@ public class LateralTCPCacheNoWait<K, V>
         return cache.getCacheType();
     }
 
+    /**
+     * @return the number of events waiting to be sent laterally
+     */
+    @Override
+    public int getEventQueueSize()
+    {
+        return eventQueue.size();
+    }
+
     /**
      * The identifying key to this no wait
      *
@@ -348,6 +371,11 @@ public class LateralTCPCacheNoWait<K, V>
         {
             eventQueue.addRemoveEvent( key );
         }
+        catch ( final EventQueueFullException ex )
+        {
+            // the queue keeps working, only this event is lost
+            log.warn( ex.getMessage() );
+        }
         catch ( final IOException ex )
         {
             log.error( ex );
@@ -364,6 +392,11 @@ public class LateralTCPCacheNoWait<K, V>
         {
             eventQueue.addRemoveAllEvent();
         }
+        catch ( final EventQueueFullException ex )
+        {
+            // the queue keeps working, only this event is lost
+            log.warn( ex.getMessage() );
+        }
         catch ( final IOException ex )
         {
             log.error( ex );
@@ -381,11 +414,7 @@ public class LateralTCPCacheNoWait<K, V>
             eventQueue.destroy();
         }
 
-        this.eventQueue = CacheEventQueueFactory.createCacheEventQueue(
-                new CacheAdaptor<>( cache ),
-                CacheInfo.INSTANCE.listenerId(), cache.getCacheName(),
-                getAuxiliaryCacheAttributes().getEventQueuePoolName(),
-                getAuxiliaryCacheAttributes().getEventQueueType() );
+        this.eventQueue = createEventQueue();
     }
 
     /**
@@ -425,6 +454,11 @@ public class LateralTCPCacheNoWait<K, V>
         {
             eventQueue.addPutEvent( ce );
         }
+        catch ( final EventQueueFullException ex )
+        {
+            // the queue keeps working, only this event is lost
+            log.warn( ex.getMessage() );
+        }
         catch ( final IOException ex )
         {
             log.error( ex );
@@ -174,6 +174,15 @@ public class LateralTCPCacheNoWaitFacade<K, V>
         return CacheType.LATERAL_CACHE;
     }
 
+    /**
+     * @return the number of events waiting in the queues of all the no waits
+     */
+    @Override
+    public int getEventQueueSize()
+    {
+        return noWaitMap.values().stream().mapToInt(LateralTCPCacheNoWait::getEventQueueSize).sum();
+    }
+
     /**
      * Return the keys in this cache.
      *
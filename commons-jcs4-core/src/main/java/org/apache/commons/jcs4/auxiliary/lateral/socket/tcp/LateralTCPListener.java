@@ -554,6 +554,8 @@ public class LateralTCPListener<K, V>
                             log.info("Connected to client at {0}", client.getRemoteAddress());
 
                             client.configureBlocking(false);
+                            // a peer that stops in the middle of a message must not stall the listener
+                            client.socket().setSoTimeout((int) tcpLateralCacheAttributes.getSocketTimeOut().toMillis());
                             client.register(selector, SelectionKey.OP_READ);
                         }
 
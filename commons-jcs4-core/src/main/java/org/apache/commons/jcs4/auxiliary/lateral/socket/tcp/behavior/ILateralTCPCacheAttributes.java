@@ -75,6 +75,21 @@ public interface ILateralTCPCacheAttributes
      */
     String getTcpServers();
 
+    /**
+     * The port of the gossip discovery socket. If it is set, gossip discovery is used instead of
+     * UDP multicast discovery.
+     *
+     * @return The gossipDiscoveryPort, 0 if gossip discovery is disabled
+     */
+    int getGossipDiscoveryPort();
+
+    /**
+     * The gossip sockets of other members to join, used if gossip discovery is enabled.
+     *
+     * @return comma separated list of host:port
+     */
+    String getGossipDiscoverySeeds();
+
     /**
      * The address to broadcast to if UDPDiscovery is enabled.
      *
@@ -21,7 +21,9 @@ package org.apache.commons.jcs4.auxiliary.remote;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -461,6 +463,50 @@ public abstract class AbstractRemoteAuxiliaryCache<K, V>
         return results;
     }
 
+    /**
+     * Calls get multiple on the server in one request rather than looping through the keys. Each
+     * entry in the result is unwrapped.
+     *
+     * @param keys
+     * @return Map
+     * @throws IOException
+     */
+    @Override
+    protected Map<K, ICacheElement<K, V>> processGetMultiple( final Set<K> keys )
+        throws IOException
+    {
+        final Map<K, ICacheElement<K, V>> results = new HashMap<>();
+        try
+        {
+            final Map<K, ICacheElement<K, V>> rawResults = getRemoteCacheService().getMultiple( getCacheName(), keys, getListenerId() );
+
+            if ( rawResults != null )
+            {
+                for (final Map.Entry<K, ICacheElement<K, V>> entry : rawResults.entrySet())
+                {
+                    ICacheElement<K, V> unwrappedResult = entry.getValue();
+                    // Never try to deserialize if you are a cluster client.
+                    if ( unwrappedResult instanceof ICacheElementSerialized<K, V> serialized &&
+                            this.getAuxiliaryCacheAttributes().getRemoteType() != RemoteType.CLUSTER )
+                    {
+                        unwrappedResult = SerializationConversionUtil
+                            .getDeSerializedCacheElement(serialized, super.getElementSerializer() );
+                    }
+                    if ( unwrappedResult != null )
+                    {
+                        results.put( entry.getKey(), unwrappedResult );
+                    }
+                }
+            }
+        }
+        catch ( final IOException | ClassNotFoundException ex )
+        {
+            handleException( ex, "Failed to getMultiple [" + keys + "] from [" + getCacheName() + "]",
+                    CacheEventType.GET_EVENT );
+        }
+        return results;
+    }
+
     /**
      * Synchronously remove from the remote cache; if failed, replace the remote handle with a
      * zombie.
@@ -489,6 +535,32 @@ public abstract class AbstractRemoteAuxiliaryCache<K, V>
         return false;
     }
 
+    /**
+     * Synchronously remove several keys from the remote cache in one request; if failed, replace
+     * the remote handle with a zombie.
+     *
+     * @param keys
+     * @throws IOException
+     */
+    @Override
+    public void removeMultiple( final Set<K> keys )
+        throws IOException
+    {
+        if ( !this.getAuxiliaryCacheAttributes().getGetOnly() && !keys.isEmpty() )
+        {
+            log.debug( "removeMultiple> keys={0}", keys );
+            try
+            {
+                getRemoteCacheService().removeMultiple( getCacheName(), keys, getListenerId() );
+            }
+            catch ( final IOException ex )
+            {
+                handleException( ex, "Failed to remove " + keys.size() + " keys from " + getCacheName(),
+                        CacheEventType.REMOVEMULTIPLE_EVENT );
+            }
+        }
+    }
+
     /**
      * Synchronously removeAll from the remote cache; if failed, replace the remote handle with a
      * zombie.
@@ -549,6 +621,46 @@ public abstract class AbstractRemoteAuxiliaryCache<K, V>
         }
     }
 
+    /**
+     * Serializes the elements and sends them to the remote server in one request.
+     *
+     * @param elements all elements must belong to this region
+     * @throws IOException
+     */
+    @Override
+    public void updateMultiple( final List<ICacheElement<K, V>> elements )
+        throws IOException
+    {
+        if ( getAuxiliaryCacheAttributes().getGetOnly() )
+        {
+            log.debug( "get only mode, not sending to remote server" );
+            return;
+        }
+        if ( elements.isEmpty() )
+        {
+            return;
+        }
+
+        try
+        {
+            log.debug( "sending {0} items to remote server", elements::size );
+
+            final List<ICacheElement<K, V>> serialized = new ArrayList<>( elements.size() );
+            for (final ICacheElement<K, V> ce : elements)
+            {
+                serialized.add( SerializationConversionUtil.getSerializedCacheElement( ce, super.getElementSerializer() ) );
+            }
+
+            remoteCacheService.updateMultiple( serialized, getListenerId() );
+        }
+        catch ( final IOException ex )
+        {
+            // event queue will wait and retry
+            handleException( ex, "Failed to put " + elements.size() + " items to " + getCacheName(),
+                    CacheEventType.UPDATEMULTIPLE_EVENT );
+        }
+    }
+
     /**
      * let the remote cache set a listener_id. Since there is only one listener for all the regions
      * and every region gets registered? the id shouldn't be set if it isn't zero. If it is we
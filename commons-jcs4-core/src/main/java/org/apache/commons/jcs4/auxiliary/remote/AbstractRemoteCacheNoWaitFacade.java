@@ -122,6 +122,15 @@ public abstract class AbstractRemoteCacheNoWaitFacade<K, V>
         return CacheType.REMOTE_CACHE;
     }
 
+    /**
+     * @return the number of events waiting in the queues of all the no waits
+     */
+    @Override
+    public int getEventQueueSize()
+    {
+        return noWaits.stream().mapToInt(RemoteCacheNoWait::getEventQueueSize).sum();
+    }
+
     /**
      * Return the keys in this cache.
      *
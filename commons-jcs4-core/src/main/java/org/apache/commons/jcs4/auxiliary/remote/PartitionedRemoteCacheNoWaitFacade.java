@@ -0,0 +1,372 @@
+package org.apache.commons.jcs4.auxiliary.remote;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.jcs4.auxiliary.remote.behavior.IRemoteCacheAttributes;
+import org.apache.commons.jcs4.engine.CacheStatus;
+import org.apache.commons.jcs4.engine.behavior.ICache;
+import org.apache.commons.jcs4.engine.behavior.ICacheElement;
+import org.apache.commons.jcs4.engine.behavior.IElementSerializer;
+import org.apache.commons.jcs4.engine.control.group.GroupAttrName;
+import org.apache.commons.jcs4.engine.logging.behavior.ICacheEventLogger;
+import org.apache.commons.jcs4.engine.logging.behavior.ICacheEventLogger.CacheEventType;
+import org.apache.commons.jcs4.engine.stats.behavior.IStats;
+import org.apache.commons.jcs4.log.Log;
+import org.apache.commons.jcs4.utils.struct.ConsistentHashRing;
+import org.apache.commons.jcs4.utils.threadpool.ThreadPoolManager;
+
+/**
+ * A no wait facade that spreads the keys of a region over several remote servers.
+ * <p>
+ * Unlike the {@link RemoteCacheNoWaitFacade}, which talks to one server at a time and uses the
+ * others as failovers, this facade places every server on a consistent hash ring. Each key is
+ * stored on exactly one server. getMultiple requests are split per server and run in parallel on
+ * the thread pool configured for the region. Removals of a hierarchy of keys or of a group are
+ * sent to every server, since their members are spread over all of them.
+ * <p>
+ * If a server is in error, its keys are routed to the next live server on the ring until the
+ * monitor restores the connection. Adding or removing a server only moves the keys of the ring
+ * segments owned by that server.
+ * <p>
+ * There is no discovery for partition servers. The ring starts with the servers listed in
+ * PartitionServers and only changes when the application calls {@link #addServer} or
+ * {@link #removeServer}, which it must do when a server joins or leaves the partition for good.
+ * Temporary outages need no call, they are handled by the routing described above.
+ */
+public class PartitionedRemoteCacheNoWaitFacade<K, V>
+    extends AbstractRemoteCacheNoWaitFacade<K, V>
+{
+    /** Log instance */
+    private static final Log log = Log.getLog( PartitionedRemoteCacheNoWaitFacade.class );
+
+    /** The ring mapping keys to servers */
+    private final ConsistentHashRing<RemoteCacheNoWait<K, V>> ring;
+
+    /** Pool for the parallel parts of getMultiple */
+    private final ExecutorService pool;
+
+    /**
+     * Constructs with the given remote caches, one per partition server.
+     *
+     * @param noWaits
+     * @param rca
+     * @param cacheEventLogger
+     * @param elementSerializer
+     */
+    public PartitionedRemoteCacheNoWaitFacade( final List<RemoteCacheNoWait<K,V>> noWaits,
+                                               final IRemoteCacheAttributes rca,
+                                               final ICacheEventLogger cacheEventLogger,
+                                               final IElementSerializer elementSerializer )
+    {
+        super( noWaits, rca, cacheEventLogger, elementSerializer );
+        // servers may come and go while requests are running
+        this.noWaits = new CopyOnWriteArrayList<>( this.noWaits );
+        this.ring = new ConsistentHashRing<>( rca.getVirtualNodes() );
+        this.noWaits.forEach( nw -> ring.addNode( nw, getServerName( nw ) ) );
+        this.pool = ThreadPoolManager.getInstance().getExecutorService( rca.getThreadPoolName() );
+    }
+
+    /**
+     * Adds a server to the ring. Only the keys of the ring segments now owned by the new server
+     * move to it.
+     * <p>
+     * This is not called by the cache itself. The application calls it when a server joins the
+     * partition.
+     *
+     * @param rcnw The no wait of the new server
+     */
+    public void addServer( final RemoteCacheNoWait<K, V> rcnw )
+    {
+        ((RemoteCache<K, V>) rcnw.getRemoteCache()).setFacade( this );
+        noWaits.add( rcnw );
+        ring.addNode( rcnw, getServerName( rcnw ) );
+        log.info( "Added partition server [{0}] to [{1}]", () -> getServerName( rcnw ), this::getCacheName );
+    }
+
+    /**
+     * Partitioned remote caches do not failover, so this only logs the error. The server stays on
+     * the ring: {@link #getServer} skips it as long as its status is not ALIVE, which routes its
+     * keys to the next live server, and the RemoteCacheMonitor restores the connection. A server
+     * that is gone for good has to be taken off the ring with {@link #removeServer}.
+     *
+     * @param rcnw The no wait in error.
+     */
+    @Override
+    protected void failover( final RemoteCacheNoWait<K, V> rcnw )
+    {
+        log.info( "Partition server [{0}] is in error, routing its keys to the next server",
+                () -> getServerName( rcnw ) );
+        logApplicationEvent( "PartitionedRemoteCacheNoWaitFacade", CacheEventType.INITIATEDFAILOVER_EVENT,
+                rcnw + " was in error." );
+    }
+
+    /**
+     * Synchronously reads from the server owning the key.
+     *
+     * @param key
+     * @return Either an ICacheElement&lt;K, V&gt; or null if it is not found.
+     */
+    @Override
+    public ICacheElement<K, V> get( final K key ) throws IOException
+    {
+        final RemoteCacheNoWait<K, V> nw = getServer( key );
+        return nw == null ? null : nw.get( key );
+    }
+
+    /**
+     * Synchronously reads from all servers and combines the results.
+     *
+     * @param pattern
+     * @return map
+     * @throws IOException
+     */
+    @Override
+    public Map<K, ICacheElement<K, V>> getMatching( final String pattern )
+        throws IOException
+    {
+        final Map<K, ICacheElement<K, V>> result = new HashMap<>();
+        for (final RemoteCacheNoWait<K, V> nw : noWaits)
+        {
+            result.putAll( nw.getMatching( pattern ) );
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets multiple items from the cache. The keys are grouped by owning server and the groups
+     * are requested in parallel.
+     *
+     * @param keys
+     * @return A map of K key to ICacheElement&lt;K, V&gt; element, or an empty map if there is no
+     *         data in cache for any of these keys
+     */
+    @Override
+    public Map<K, ICacheElement<K, V>> getMultiple( final Set<K> keys ) throws IOException
+    {
+        final Map<K, ICacheElement<K, V>> result = new HashMap<>();
+        if ( keys == null || keys.isEmpty() )
+        {
+            return result;
+        }
+
+        final Map<RemoteCacheNoWait<K, V>, Set<K>> partitions = partition( keys );
+        if ( partitions.size() == 1 )
+        {
+            final Map.Entry<RemoteCacheNoWait<K, V>, Set<K>> entry = partitions.entrySet().iterator().next();
+            return entry.getKey().getMultiple( entry.getValue() );
+        }
+
+        final List<Future<Map<K, ICacheElement<K, V>>>> futures = new ArrayList<>( partitions.size() );
+        partitions.forEach( ( nw, partKeys ) -> futures.add( pool.submit( () -> nw.getMultiple( partKeys ) ) ) );
+
+        for (final Future<Map<K, ICacheElement<K, V>>> future : futures)
+        {
+            try
+            {
+                result.putAll( future.get() );
+            }
+            catch ( final InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new IOException( "Interrupted while getting multiple elements from " + getCacheName(), e );
+            }
+            catch ( final ExecutionException e )
+            {
+                if ( e.getCause() instanceof IOException ioe )
+                {
+                    throw ioe;
+                }
+                throw new IOException( "Failed to get multiple elements from " + getCacheName(), e.getCause() );
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets the server currently owning the key.
+     *
+     * @param key
+     * @return the live server owning the key, the nominal owner if no server is alive, or null
+     *         if there are no servers
+     */
+    protected RemoteCacheNoWait<K, V> getServer( final K key )
+    {
+        final RemoteCacheNoWait<K, V> nw = ring.getNode( key, n -> n.getStatus() == CacheStatus.ALIVE );
+
+        // let the zombie queue the event if no server is alive
+        return nw != null ? nw : ring.getNode( key );
+    }
+
+    /**
+     * @return statistics about the cache region
+     */
+    @Override
+    public IStats getStatistics()
+    {
+        final IStats stats = super.getStatistics();
+        stats.setTypeName( "Partitioned Remote Cache No Wait Facade" );
+        stats.addStatElement( "Virtual Nodes", Integer.valueOf( ring.getVirtualNodes() ) );
+
+        return stats;
+    }
+
+    /**
+     * Groups the keys by owning server.
+     *
+     * @param keys
+     * @return server to keys
+     */
+    protected Map<RemoteCacheNoWait<K, V>, Set<K>> partition( final Set<K> keys )
+    {
+        final Map<RemoteCacheNoWait<K, V>, Set<K>> partitions = new HashMap<>();
+        for (final K key : keys)
+        {
+            final RemoteCacheNoWait<K, V> nw = getServer( key );
+            if ( nw != null )
+            {
+                partitions.computeIfAbsent( nw, k -> new HashSet<>() ).add( key );
+            }
+        }
+
+        return partitions;
+    }
+
+    /**
+     * Adds a remove request to the server owning the key, or to all servers if the key stands for
+     * a hierarchy of keys or a group.
+     *
+     * @param key
+     * @return whether or not it was removed, right now it return false.
+     */
+    @Override
+    public boolean remove( final K key ) throws IOException
+    {
+        if ( isMultiKeyRemove( key ) )
+        {
+            for ( final RemoteCacheNoWait<K, V> nw : noWaits )
+            {
+                nw.remove( key );
+            }
+            return false;
+        }
+
+        final RemoteCacheNoWait<K, V> nw = getServer( key );
+        if ( nw != null )
+        {
+            nw.remove( key );
+        }
+
+        return false;
+    }
+
+    /**
+     * Removes a server from the ring. Its keys are routed to the neighbouring servers.
+     * <p>
+     * This is not called by the cache itself. The application calls it when a server leaves the
+     * partition for good.
+     *
+     * @param rcnw The no wait of the server to remove
+     * @return true if the server was part of the ring
+     */
+    public boolean removeServer( final RemoteCacheNoWait<K, V> rcnw )
+    {
+        noWaits.remove( rcnw );
+        final boolean removed = ring.removeNode( rcnw );
+        log.info( "Removed partition server [{0}] from [{1}]", () -> getServerName( rcnw ), this::getCacheName );
+
+        return removed;
+    }
+
+    /**
+     * Partitioned facades do not have a primary server.
+     *
+     * @param rcnw ignored
+     */
+    @Override
+    public void restorePrimaryServer( final RemoteCacheNoWait<K, V> rcnw )
+    {
+        log.warn( "Partitioned remote caches have no primary server" );
+    }
+
+    /**
+     * String form of some of the configuration information for the remote cache.
+     *
+     * @return Some info for logging.
+     */
+    @Override
+    public String toString()
+    {
+        return "PartitionedRemoteCacheNoWaitFacade: " + getCacheName() +
+                ", servers = " + ring.size() +
+                ", rca = " + getAuxiliaryCacheAttributes();
+    }
+
+    /**
+     * Put an element on the server owning its key.
+     *
+     * @param ce
+     * @throws IOException
+     */
+    @Override
+    public void update( final ICacheElement<K, V> ce )
+        throws IOException
+    {
+        final RemoteCacheNoWait<K, V> nw = getServer( ce.key() );
+        if ( nw != null )
+        {
+            nw.update( ce );
+        }
+    }
+
+    /**
+     * @param key the key of a remove
+     * @return true if the key ends with the name component delimiter or is a group without an
+     *         attribute name, so that it removes keys owned by several servers
+     */
+    private static boolean isMultiKeyRemove( final Object key )
+    {
+        return key instanceof String s && s.endsWith( ICache.NAME_COMPONENT_DELIMITER )
+            || key instanceof GroupAttrName<?> gan && gan.attrName() == null;
+    }
+
+    /**
+     * @param nw the no wait
+     * @return the host:port of the server, used to place it on the ring
+     */
+    private static String getServerName( final RemoteCacheNoWait<?, ?> nw )
+    {
+        final IRemoteCacheAttributes rca = (IRemoteCacheAttributes) nw.getRemoteCache().getAuxiliaryCacheAttributes();
+        return String.valueOf( rca.getRemoteLocation() );
+    }
+}
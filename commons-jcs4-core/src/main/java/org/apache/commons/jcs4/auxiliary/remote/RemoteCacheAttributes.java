@@ -42,6 +42,15 @@ public class RemoteCacheAttributes
      */
     private String failoverServers = "";
 
+    /** Servers the keys are spread over if the remote type is PARTITIONED. */
+    private String partitionServers = "";
+
+    /** Ring positions per partition server */
+    private int virtualNodes = DEFAULT_VIRTUAL_NODES;
+
+    /** Maximum number of queued events sent in one request */
+    private int eventQueueBatchSize = DEFAULT_EVENT_QUEUE_BATCH_SIZE;
+
     /** Callback */
     private int localPort;
 
@@ -71,6 +80,15 @@ public class RemoteCacheAttributes
     {
     }
 
+    /**
+     * @return The maximum number of queued events sent in one request
+     */
+    @Override
+    public int getEventQueueBatchSize()
+    {
+        return eventQueueBatchSize;
+    }
+
     /**
      * Gets the failoverIndex attribute of the RemoteCacheAttributes object.
      *
@@ -104,6 +122,17 @@ public class RemoteCacheAttributes
         return this.failoverServers;
     }
 
+    /**
+     * Gets the partitionServers attribute of the RemoteCacheAttributes object.
+     *
+     * @return The partitionServers value
+     */
+    @Override
+    public String getPartitionServers()
+    {
+        return this.partitionServers;
+    }
+
     /**
      * @return getTimeout
      */
@@ -133,6 +162,15 @@ public class RemoteCacheAttributes
         return threadPoolName;
     }
 
+    /**
+     * @return The number of ring positions per partition server
+     */
+    @Override
+    public int getVirtualNodes()
+    {
+        return virtualNodes;
+    }
+
     /**
      * The number of elements the zombie queue will hold. This queue is used to store events if we
      * loose our connection with the server.
@@ -162,6 +200,17 @@ public class RemoteCacheAttributes
         return this.receive;
     }
 
+    /**
+     * Values greater than 1 let the client event queue combine waiting put or remove events into
+     * one request. The server must support batch requests.
+     *
+     * @param eventQueueBatchSize The maximum number of queued events sent in one request
+     */
+    public void setEventQueueBatchSize( final int eventQueueBatchSize )
+    {
+        this.eventQueueBatchSize = eventQueueBatchSize;
+    }
+
     /**
      * Sets the failoverIndex attribute of the RemoteCacheAttributes object.
      *
@@ -192,6 +241,16 @@ public class RemoteCacheAttributes
         this.failoverServers = s;
     }
 
+    /**
+     * Sets the partitionServers attribute of the RemoteCacheAttributes object.
+     *
+     * @param s The new partitionServers value
+     */
+    public void setPartitionServers( final String s )
+    {
+        this.partitionServers = s;
+    }
+
     /**
      * @param getTimeout
      */
@@ -228,6 +287,14 @@ public class RemoteCacheAttributes
         threadPoolName = name;
     }
 
+    /**
+     * @param virtualNodes The number of ring positions per partition server
+     */
+    public void setVirtualNodes( final int virtualNodes )
+    {
+        this.virtualNodes = virtualNodes;
+    }
+
     /**
      * The number of elements the zombie queue will hold. This queue is used to store events if we
      * loose our connection with the server.
@@ -251,6 +318,9 @@ public class RemoteCacheAttributes
         buf.append( "\n threadPoolName = [" + getThreadPoolName() + "]" );
         buf.append( "\n localClusterConsistency = [" + isLocalClusterConsistency() + "]" );
         buf.append( "\n zombieQueueMaxSize = [" + getZombieQueueMaxSize() + "]" );
+        buf.append( "\n partitionServers = [" + getPartitionServers() + "]" );
+        buf.append( "\n virtualNodes = [" + getVirtualNodes() + "]" );
+        buf.append( "\n eventQueueBatchSize = [" + getEventQueueBatchSize() + "]" );
         return buf.toString();
     }
 }
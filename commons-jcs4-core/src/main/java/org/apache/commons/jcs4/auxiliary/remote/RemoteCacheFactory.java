@@ -62,10 +62,10 @@ public class RemoteCacheFactory
      * @param cacheEventLogger The cache event logger
      * @param elementSerializer The serializer for cache elements
      * @param keyMatcher The key matcher for getMatching() calls
-     * @return RemoteCacheNoWaitFacade
+     * @return RemoteCacheNoWaitFacade, or PartitionedRemoteCacheNoWaitFacade for PARTITIONED
      */
     @Override
-    public <K, V> RemoteCacheNoWaitFacade<K, V> createCache(final AuxiliaryCacheAttributes iaca,
+    public <K, V> AbstractRemoteCacheNoWaitFacade<K, V> createCache(final AuxiliaryCacheAttributes iaca,
             final ICompositeCacheManager cacheMgr, final ICacheEventLogger cacheEventLogger,
             final IElementSerializer elementSerializer, final IKeyMatcher<K> keyMatcher)
     {
@@ -145,6 +145,34 @@ public class RemoteCacheFactory
                     }
                 }
                 break;
+
+            case PARTITIONED:
+                // REGISTER LISTENERS WITH EACH PARTITION SERVER, THE KEYS ARE SPREAD OVER ALL OF THEM
+                final String[] partitionServers = rca.getPartitionServers().split("\\s*,\\s*");
+                for (final String server: partitionServers)
+                {
+                    if (server.isEmpty())
+                    {
+                        continue;
+                    }
+
+                    final RemoteLocation location = RemoteLocation.parseServerAndPort(server);
+
+                    if (location != null)
+                    {
+                        final RemoteCacheAttributes prca = (RemoteCacheAttributes) rca.clone();
+                        prca.setRemoteLocation(location);
+                        final RemoteCacheManager rcm = getManager( prca, cacheMgr,
+                                cacheEventLogger, elementSerializer, keyMatcher);
+                        noWaits.add(rcm.getCache(prca));
+                    }
+                }
+
+                final PartitionedRemoteCacheNoWaitFacade<K, V> prcnwf =
+                        new PartitionedRemoteCacheNoWaitFacade<>(noWaits, rca, cacheEventLogger, elementSerializer);
+                prcnwf.setKeyMatcher(keyMatcher);
+
+                return prcnwf;
         }
 
         RemoteCacheNoWaitFacade<K, V> rcnwf = new RemoteCacheNoWaitFacade<>(noWaits, rca,
@@ -27,10 +27,13 @@ import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.jcs4.auxiliary.AbstractAuxiliaryCache;
+import org.apache.commons.jcs4.auxiliary.AuxiliaryCacheAttributes;
+import org.apache.commons.jcs4.auxiliary.remote.behavior.IRemoteCacheAttributes;
 import org.apache.commons.jcs4.auxiliary.remote.behavior.IRemoteCacheClient;
 import org.apache.commons.jcs4.engine.CacheAdaptor;
 import org.apache.commons.jcs4.engine.CacheEventQueueFactory;
 import org.apache.commons.jcs4.engine.CacheStatus;
+import org.apache.commons.jcs4.engine.EventQueueFullException;
 import org.apache.commons.jcs4.engine.behavior.ICacheElement;
 import org.apache.commons.jcs4.engine.behavior.ICacheEventQueue;
 import org.apache.commons.jcs4.engine.behavior.ICacheServiceNonLocal;
@@ -64,6 +67,17 @@ public class RemoteCacheNoWait<K, V>
     /** Log instance */
     private static final Log log = Log.getLog( RemoteCacheNoWait.class );
 
+    /** Adds an event to the event queue */
+    @FunctionalInterface
+    private interface EventQueueOperation
+    {
+        /**
+         * @throws IOException if the event could not be queued
+         */
+        void add()
+            throws IOException;
+    }
+
     /** The remote cache client */
     private final IRemoteCacheClient<K, V> remoteCacheClient;
 
@@ -108,12 +122,20 @@ public class RemoteCacheNoWait<K, V>
      */
     private ICacheEventQueue<K, V> createCacheEventQueue( final IRemoteCacheClient<K, V> client )
     {
+        final int batchSize = client.getAuxiliaryCacheAttributes() instanceof IRemoteCacheAttributes rca
+                ? rca.getEventQueueBatchSize() : IRemoteCacheAttributes.DEFAULT_EVENT_QUEUE_BATCH_SIZE;
+
+        final AuxiliaryCacheAttributes attributes = client.getAuxiliaryCacheAttributes();
         return CacheEventQueueFactory.createCacheEventQueue(
             new CacheAdaptor<>( client ),
             client.getListenerId(),
             client.getCacheName(),
-            client.getAuxiliaryCacheAttributes().getEventQueuePoolName(),
-            client.getAuxiliaryCacheAttributes().getEventQueueType() );
+            attributes.getEventQueuePoolName(),
+            attributes.getEventQueueType(),
+            batchSize,
+            attributes.getEventQueueMaxSize(),
+            attributes.getEventQueueOverflowPolicy(),
+            attributes.getEventQueueBlockTimeout() );
     }
 
     /** Adds a dispose request to the remote cache. */
@@ -215,6 +237,15 @@ public class RemoteCacheNoWait<K, V>
         return CacheType.REMOTE_CACHE;
     }
 
+    /**
+     * @return the number of events waiting to be sent to the remote server
+     */
+    @Override
+    public int getEventQueueSize()
+    {
+        return cacheEventQueue.size();
+    }
+
     /**
      * Return the keys in this cache.
      *
@@ -381,17 +412,36 @@ public class RemoteCacheNoWait<K, V>
         throws IOException
     {
         removeCount++;
+        addEvent( () -> cacheEventQueue.addRemoveEvent( key ), "RemoveEvent" );
+        return false;
+    }
+
+    /**
+     * Adds an event to the queue. If the queue is full only this event is lost and the queue keeps
+     * working, any other failure destroys the queue.
+     *
+     * @param operation adds the event
+     * @param eventName the kind of event, for the log
+     * @throws IOException if the event could not be queued
+     */
+    private void addEvent( final EventQueueOperation operation, final String eventName )
+        throws IOException
+    {
         try
         {
-            cacheEventQueue.addRemoveEvent( key );
+            operation.add();
+        }
+        catch ( final EventQueueFullException e )
+        {
+            log.warn( e.getMessage() );
+            throw e;
         }
         catch ( final IOException e )
         {
-            log.error( "Problem adding RemoveEvent to queue.", e );
+            log.error( "Problem adding {0} to queue.", eventName, e );
             cacheEventQueue.destroy();
             throw e;
         }
-        return false;
     }
 
     /**
@@ -403,16 +453,7 @@ public class RemoteCacheNoWait<K, V>
     public void removeAll()
         throws IOException
     {
-        try
-        {
-            cacheEventQueue.addRemoveAllEvent();
-        }
-        catch ( final IOException e )
-        {
-            log.error( "Problem adding RemoveAllEvent to queue.", e );
-            cacheEventQueue.destroy();
-            throw e;
-        }
+        addEvent( cacheEventQueue::addRemoveAllEvent, "RemoveAllEvent" );
     }
 
     /**
@@ -459,15 +500,6 @@ public class RemoteCacheNoWait<K, V>
         throws IOException
     {
         putCount++;
-        try
-        {
-            cacheEventQueue.addPutEvent( element );
-        }
-        catch ( final IOException e )
-        {
-            log.error( "Problem adding putEvent to queue.", e );
-            cacheEventQueue.destroy();
-            throw e;
-        }
+        addEvent( () -> cacheEventQueue.addPutEvent( element ), "PutEvent" );
     }
 }
@@ -66,6 +66,24 @@ public interface IRemoteCacheAttributes
      */
     int DEFAULT_ZOMBIE_QUEUE_MAX_SIZE = 1000;
 
+    /** The default number of ring positions per server for a partitioned remote cache. */
+    int DEFAULT_VIRTUAL_NODES = 160;
+
+    /**
+     * The default maximum number of queued events sent to the server in one request. 1 disables
+     * batching, which is required if the server does not support batch requests.
+     */
+    int DEFAULT_EVENT_QUEUE_BATCH_SIZE = 1;
+
+    /**
+     * The maximum number of consecutive put or remove events the client event queue sends to the
+     * server in one request. Events are only combined if they are already waiting in the queue, so
+     * this does not delay single updates.
+     *
+     * @return The eventQueueBatchSize value
+     */
+    int getEventQueueBatchSize();
+
     /**
      * Gets the failoverIndex attribute of the IRemoteCacheAttributes object.
      * <p>
@@ -90,6 +108,16 @@ public interface IRemoteCacheAttributes
      */
     String getFailoverServers();
 
+    /**
+     * Gets the partitionServers attribute of the IRemoteCacheAttributes object.
+     * <p>
+     * A comma separated list of host:port pairs. With a remote type of PARTITIONED the keys are
+     * spread over all these servers using consistent hashing.
+     *
+     * @return The partitionServers value
+     */
+    String getPartitionServers();
+
     /**
      * -1 and 0 mean no timeout, this is the default if the timeout is -1 or 0, no threadpool will
      * be used.
@@ -114,6 +142,14 @@ public interface IRemoteCacheAttributes
      */
     String getThreadPoolName();
 
+    /**
+     * The number of positions each partition server occupies on the consistent hash ring. More
+     * positions spread the keys more evenly.
+     *
+     * @return The virtualNodes value
+     */
+    int getVirtualNodes();
+
     /**
      * The number of elements the zombie queue will hold. This queue is used to store events if we
      * loose our connection with the server.
@@ -0,0 +1,214 @@
+package org.apache.commons.jcs4.auxiliary.remote.http.client;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.jcs4.auxiliary.remote.behavior.IRemoteCacheDispatcher;
+import org.apache.commons.jcs4.auxiliary.remote.util.RemoteCacheFraming;
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheRequest;
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheResponse;
+import org.apache.commons.jcs4.log.Log;
+import org.apache.commons.jcs4.utils.serialization.StandardSerializer;
+
+/**
+ * Calls the service using the HTTP client of the JDK. It is used if httpVersion is set to 2.
+ * <p>
+ * The JDK client multiplexes concurrent requests over one HTTP/2 connection per server if the
+ * servlet container supports HTTP/2, either negotiated over TLS or as cleartext h2c. Otherwise it
+ * falls back to HTTP/1.1 with persistent connections. It does not need Apache HttpClient.
+ * <p>
+ * All dispatchers of the same class for the same server and connection timeout share one client,
+ * so the regions of a cache manager share its connection instead of opening one each.
+ * <p>
+ * The serialized requests and responses are sent as length-prefixed frames, see
+ * {@link RemoteCacheFraming}. The servlet answers framed requests with framed responses.
+ */
+public class RemoteHttp2CacheDispatcher
+    implements IRemoteCacheDispatcher
+{
+    /** The value of httpVersion that selects this dispatcher */
+    public static final String HTTP_VERSION = "2";
+
+    /** The Logger. */
+    private static final Log log = Log.getLog( RemoteHttp2CacheDispatcher.class );
+
+    /** This needs to be standard, since the other side is standard */
+    private final StandardSerializer serializer = new StandardSerializer();
+
+    /** Configuration settings. */
+    private final RemoteHttpCacheAttributes remoteHttpCacheAttributes;
+
+    /** The clients by dispatcher class, server and connection timeout, see clientKey */
+    private static final ConcurrentMap<String, HttpClient> CLIENTS = new ConcurrentHashMap<>();
+
+    /** The client, shared by all requests and by the dispatchers for the same server */
+    private final HttpClient httpClient;
+
+    /**
+     * @param remoteHttpCacheAttributes
+     */
+    public RemoteHttp2CacheDispatcher( final RemoteHttpCacheAttributes remoteHttpCacheAttributes )
+    {
+        this.remoteHttpCacheAttributes = remoteHttpCacheAttributes;
+        this.httpClient = CLIENTS.computeIfAbsent( clientKey( remoteHttpCacheAttributes ),
+                key -> createHttpClient( remoteHttpCacheAttributes ) );
+    }
+
+    /**
+     * The dispatchers that get the same key share a client. The class is part of the key, since
+     * child classes may create their clients differently.
+     *
+     * @param attributes the configuration
+     * @return the dispatcher class, the scheme and authority of the URL and the connection timeout
+     */
+    private String clientKey( final RemoteHttpCacheAttributes attributes )
+    {
+        String origin = String.valueOf( attributes.getUrl() );
+        try
+        {
+            final URI uri = URI.create( origin );
+            origin = uri.getScheme() + "://" + uri.getRawAuthority();
+        }
+        catch ( final IllegalArgumentException e )
+        {
+            // not a URL, the requests will fail anyway
+        }
+        return getClass().getName() + ' ' + origin + ' ' + attributes.getConnectionTimeout();
+    }
+
+    /**
+     * @return the client used by this dispatcher, shared with the dispatchers for the same server
+     */
+    protected HttpClient getHttpClient()
+    {
+        return httpClient;
+    }
+
+    /**
+     * Creates the client. It is called once per server and connection timeout, and the client is
+     * shared by the dispatchers of the regions. Child classes can override this to add TLS
+     * settings, a proxy or an executor.
+     *
+     * @param attributes the configuration
+     * @return the client
+     */
+    protected HttpClient createHttpClient( final RemoteHttpCacheAttributes attributes )
+    {
+        return HttpClient.newBuilder()
+                .version( HttpClient.Version.HTTP_2 )
+                .connectTimeout( attributes.getConnectionTimeout() )
+                .followRedirects( HttpClient.Redirect.NEVER )
+                .build();
+    }
+
+    /**
+     * All requests will go through this method.
+     *
+     * @param remoteCacheRequest
+     * @return RemoteCacheResponse
+     * @throws IOException
+     */
+    @Override
+    public <K, V, T>
+        RemoteCacheResponse<T> dispatchRequest( final RemoteCacheRequest<K, V> remoteCacheRequest )
+        throws IOException
+    {
+        try
+        {
+            final byte[] requestAsByteArray = RemoteCacheFraming.frame( serializer.serialize( remoteCacheRequest ) );
+
+            final byte[] responseAsByteArray = processRequest( requestAsByteArray,
+                    remoteCacheRequest, getRemoteHttpCacheAttributes().getUrl() );
+
+            final byte[] payload = RemoteCacheFraming.readFrame( new ByteArrayInputStream( responseAsByteArray ) );
+            RemoteCacheResponse<T> remoteCacheResponse = null;
+            try
+            {
+                remoteCacheResponse = serializer.deSerialize( payload, null );
+            }
+            catch ( final ClassNotFoundException e )
+            {
+                log.error( "Couldn't deserialize the response.", e );
+            }
+            return remoteCacheResponse;
+        }
+        catch ( final InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException( "Interrupted while dispatching request.", e );
+        }
+        catch ( final Exception e )
+        {
+            throw new IOException( "Problem dispatching request.", e );
+        }
+    }
+
+    /**
+     * @return The remoteHttpCacheAttributes
+     */
+    protected RemoteHttpCacheAttributes getRemoteHttpCacheAttributes()
+    {
+        return remoteHttpCacheAttributes;
+    }
+
+    /**
+     * Process single request
+     *
+     * @param requestAsByteArray the framed request
+     * @param remoteCacheRequest The cache request
+     * @param url target url
+     * @return the framed response
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    protected <K, V> byte[] processRequest( final byte[] requestAsByteArray,
+            final RemoteCacheRequest<K, V> remoteCacheRequest, final String url )
+        throws IOException, InterruptedException
+    {
+        final Map<String, String> parameters =
+            RemoteHttpCacheRequestParameters.getParameters( getRemoteHttpCacheAttributes(), remoteCacheRequest );
+        final String target = parameters.isEmpty() ? url
+            : url + ( url.indexOf( '?' ) < 0 ? '?' : '&' ) + RemoteHttpCacheRequestParameters.toQueryString( parameters );
+
+        final HttpRequest request = HttpRequest.newBuilder( URI.create( target ) )
+                .timeout( getRemoteHttpCacheAttributes().getSocketTimeout() )
+                .header( "Content-Type", RemoteCacheFraming.CONTENT_TYPE )
+                .POST( HttpRequest.BodyPublishers.ofByteArray( requestAsByteArray ) )
+                .build();
+
+        final HttpResponse<byte[]> response = httpClient.send( request, HttpResponse.BodyHandlers.ofByteArray() );
+        log.debug( "Response {0} over {1}", response::statusCode, response::version );
+        if ( response.statusCode() != 200 )
+        {
+            throw new IOException( "Unexpected HTTP status " + response.statusCode() + " from " + url );
+        }
+
+        return response.body();
+    }
+}
@@ -20,16 +20,28 @@ package org.apache.commons.jcs4.auxiliary.remote.http.client;
  */
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.jcs4.auxiliary.remote.AbstractRemoteAuxiliaryCache;
 import org.apache.commons.jcs4.auxiliary.remote.behavior.IRemoteCacheListener;
+import org.apache.commons.jcs4.auxiliary.remote.http.client.behavior.IRemoteHttpCacheClient;
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheInvalidations;
 import org.apache.commons.jcs4.engine.ZombieCacheServiceNonLocal;
+import org.apache.commons.jcs4.engine.behavior.ICacheElement;
 import org.apache.commons.jcs4.engine.behavior.ICacheServiceNonLocal;
 import org.apache.commons.jcs4.engine.logging.behavior.ICacheEventLogger.CacheEventType;
+import org.apache.commons.jcs4.engine.stats.behavior.IStats;
 import org.apache.commons.jcs4.log.Log;
 
 /**
  * This uses an http client as the service.
+ * <p>
+ * If nearCacheMaxObjects is set, the elements read from the server are kept in a
+ * {@link RemoteHttpNearCache}, which polls the server for changes.
  */
 public class RemoteHttpCache<K, V>
     extends AbstractRemoteAuxiliaryCache<K, V>
@@ -40,6 +52,9 @@ public class RemoteHttpCache<K, V>
     /** For error notifications */
     private final RemoteHttpCacheMonitor monitor;
 
+    /** Elements read from the server, null if disabled */
+    private final RemoteHttpNearCache<K, V> nearCache;
+
     /**
      * Constructor for the RemoteCache object. This object communicates with a remote cache server.
      * One of these exists for each region. This also holds a reference to a listener. The same
@@ -56,6 +71,42 @@ public class RemoteHttpCache<K, V>
     {
         super( remoteHttpCacheAttributes, remote, listener );
         this.monitor = monitor;
+
+        if ( remoteHttpCacheAttributes.getNearCacheMaxObjects() > 0 )
+        {
+            this.nearCache = new RemoteHttpNearCache<>( getCacheName(),
+                    remoteHttpCacheAttributes.getNearCacheMaxObjects(), this::getInvalidations );
+            this.nearCache.start();
+        }
+        else
+        {
+            this.nearCache = null;
+        }
+    }
+
+    /**
+     * Polls the current remote service for changes. Used by the near cache.
+     *
+     * @param since the last sequence number seen, or -1 to get the current one
+     * @return the changes
+     * @throws IOException if the service is not connected or does not support invalidations
+     */
+    private RemoteCacheInvalidations<K> getInvalidations( final long since )
+        throws IOException
+    {
+        if ( getRemoteCacheService() instanceof IRemoteHttpCacheClient<K, V> client )
+        {
+            return client.getInvalidations( getCacheName(), since );
+        }
+        throw new IOException( "Remote service for [" + getCacheName() + "] is not connected" );
+    }
+
+    /**
+     * @return the near cache, or null if it is disabled
+     */
+    protected RemoteHttpNearCache<K, V> getNearCache()
+    {
+        return nearCache;
     }
 
     /**
@@ -67,6 +118,198 @@ public class RemoteHttpCache<K, V>
         return null;
     }
 
+    /**
+     * Serves the get from the near cache if possible.
+     *
+     * @param key
+     * @return ICacheElement, a wrapper around the key, value, and attributes
+     * @throws IOException
+     */
+    @Override
+    protected ICacheElement<K, V> processGet( final K key )
+        throws IOException
+    {
+        if ( nearCache == null )
+        {
+            return super.processGet( key );
+        }
+
+        final ICacheElement<K, V> cached = nearCache.get( key );
+        if ( cached != null )
+        {
+            return cached;
+        }
+
+        final long generation = nearCache.getGeneration();
+        final ICacheElement<K, V> element = super.processGet( key );
+        if ( element != null )
+        {
+            nearCache.put( element, generation );
+        }
+        return element;
+    }
+
+    /**
+     * Serves as many keys as possible from the near cache and gets the rest in one request.
+     *
+     * @param keys
+     * @return Map
+     * @throws IOException
+     */
+    @Override
+    protected Map<K, ICacheElement<K, V>> processGetMultiple( final Set<K> keys )
+        throws IOException
+    {
+        if ( nearCache == null )
+        {
+            return super.processGetMultiple( keys );
+        }
+
+        final Map<K, ICacheElement<K, V>> results = new HashMap<>();
+        final Set<K> missing = new HashSet<>();
+        for (final K key : keys)
+        {
+            final ICacheElement<K, V> cached = nearCache.get( key );
+            if ( cached != null )
+            {
+                results.put( key, cached );
+            }
+            else
+            {
+                missing.add( key );
+            }
+        }
+
+        if ( !missing.isEmpty() )
+        {
+            final long generation = nearCache.getGeneration();
+            final Map<K, ICacheElement<K, V>> remote = super.processGetMultiple( missing );
+            remote.values().forEach( element -> nearCache.put( element, generation ) );
+            results.putAll( remote );
+        }
+        return results;
+    }
+
+    /**
+     * Drops the key from the near cache once the server has it.
+     *
+     * @param ce
+     * @throws IOException
+     */
+    @Override
+    protected void processUpdate( final ICacheElement<K, V> ce )
+        throws IOException
+    {
+        super.processUpdate( ce );
+        if ( nearCache != null )
+        {
+            nearCache.invalidate( ce.key() );
+        }
+    }
+
+    /**
+     * Drops the keys from the near cache once the server has them.
+     *
+     * @param elements
+     * @throws IOException
+     */
+    @Override
+    public void updateMultiple( final List<ICacheElement<K, V>> elements )
+        throws IOException
+    {
+        super.updateMultiple( elements );
+        if ( nearCache != null )
+        {
+            elements.forEach( ce -> nearCache.invalidate( ce.key() ) );
+        }
+    }
+
+    /**
+     * Drops the key from the near cache.
+     *
+     * @param key
+     * @return boolean, whether or not the item was removed
+     * @throws IOException
+     */
+    @Override
+    protected boolean processRemove( final K key )
+        throws IOException
+    {
+        final boolean removed = super.processRemove( key );
+        if ( nearCache != null )
+        {
+            nearCache.invalidate( key );
+        }
+        return removed;
+    }
+
+    /**
+     * Drops the keys from the near cache.
+     *
+     * @param keys
+     * @throws IOException
+     */
+    @Override
+    public void removeMultiple( final Set<K> keys )
+        throws IOException
+    {
+        super.removeMultiple( keys );
+        if ( nearCache != null )
+        {
+            keys.forEach( nearCache::invalidate );
+        }
+    }
+
+    /**
+     * Empties the near cache.
+     *
+     * @throws IOException
+     */
+    @Override
+    protected void processRemoveAll()
+        throws IOException
+    {
+        super.processRemoveAll();
+        if ( nearCache != null )
+        {
+            nearCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Stops the near cache poller.
+     *
+     * @throws IOException
+     */
+    @Override
+    protected void processDispose()
+        throws IOException
+    {
+        if ( nearCache != null )
+        {
+            nearCache.stop();
+        }
+        super.processDispose();
+    }
+
+    /**
+     * @return IStats object
+     */
+    @Override
+    public IStats getStatistics()
+    {
+        final IStats stats = super.getStatistics();
+        if ( nearCache != null )
+        {
+            stats.addStatElement( "Near Cache Enabled", Boolean.valueOf( nearCache.isEnabled() ) );
+            stats.addStatElement( "Near Cache Size", Integer.valueOf( nearCache.getSize() ) );
+            stats.addStatElement( "Near Cache Hits", Long.valueOf( nearCache.getHitCount() ) );
+            stats.addStatElement( "Near Cache Misses", Long.valueOf( nearCache.getMissCount() ) );
+            stats.addStatElement( "Near Cache Invalidations", Long.valueOf( nearCache.getInvalidationCount() ) );
+        }
+        return stats;
+    }
+
     /**
      * Nothing right now. This should setup a zombie and initiate recovery.
      *
@@ -91,6 +334,12 @@ public class RemoteHttpCache<K, V>
             monitor.notifyError( this );
         }
 
+        if ( nearCache != null )
+        {
+            // changes may be missed while the server is unreachable
+            nearCache.invalidateAll();
+        }
+
         if (ex instanceof IOException ioe)
         {
             throw ioe;
@@ -36,6 +36,9 @@ public class RemoteHttpCacheAttributes
     /** The default class name for the client.  */
     public static final String DEFAULT_REMOTE_HTTP_CLIENT_CLASS_NAME = RemoteHttpCacheClient.class.getName();
 
+    /** The default maximum number of elements in the near cache. 0 disables the near cache. */
+    public static final int DEFAULT_NEAR_CACHE_MAX_OBJECTS = 0;
+
     /** The max connections allowed per host */
     private int maxConnectionsPerHost = 100;
 
@@ -63,6 +66,9 @@ public class RemoteHttpCacheAttributes
     /** This allows users to inject their own client implementation. */
     private String remoteHttpClientClassName = DEFAULT_REMOTE_HTTP_CLIENT_CLASS_NAME;
 
+    /** The maximum number of elements in the near cache. */
+    private int nearCacheMaxObjects = DEFAULT_NEAR_CACHE_MAX_OBJECTS;
+
     /**
      * @return The connectionTimeout
      */
@@ -87,6 +93,17 @@ public class RemoteHttpCacheAttributes
         return maxConnectionsPerHost;
     }
 
+    /**
+     * The near cache keeps recently read elements on the client and drops them when the server
+     * reports a change. 0 disables it.
+     *
+     * @return The maximum number of elements in the near cache
+     */
+    public int getNearCacheMaxObjects()
+    {
+        return nearCacheMaxObjects;
+    }
+
     /**
      * @return The remoteHttpClientClassName
      */
@@ -183,6 +200,14 @@ public class RemoteHttpCacheAttributes
         this.maxConnectionsPerHost = maxConnectionsPerHost;
     }
 
+    /**
+     * @param nearCacheMaxObjects The maximum number of elements in the near cache, 0 to disable it
+     */
+    public void setNearCacheMaxObjects( final int nearCacheMaxObjects )
+    {
+        this.nearCacheMaxObjects = nearCacheMaxObjects;
+    }
+
     /**
      * @param remoteHttpClientClassName The remoteHttpClientClassName to set
      */
@@ -224,6 +249,7 @@ public class RemoteHttpCacheAttributes
         buf.append( "\n includeRequestTypeasAsParameter = [" + isIncludeRequestTypeasAsParameter() + "]" );
         buf.append( "\n url = [" + getUrl() + "]" );
         buf.append( "\n remoteHttpClientClassName = [" + getRemoteHttpClientClassName() + "]" );
+        buf.append( "\n nearCacheMaxObjects = [" + getNearCacheMaxObjects() + "]" );
         buf.append( super.toString() );
         return buf.toString();
     }
@@ -22,12 +22,14 @@ package org.apache.commons.jcs4.auxiliary.remote.http.client;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.jcs4.auxiliary.remote.behavior.IRemoteCacheDispatcher;
 import org.apache.commons.jcs4.auxiliary.remote.http.client.behavior.IRemoteHttpCacheClient;
 import org.apache.commons.jcs4.auxiliary.remote.util.RemoteCacheRequestFactory;
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheInvalidations;
 import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheRequest;
 import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheResponse;
 import org.apache.commons.jcs4.engine.behavior.ICacheElement;
@@ -139,6 +141,41 @@ public class RemoteHttpCacheClient<K, V>
         return null;
     }
 
+    /**
+     * Create a getInvalidations request, process, extract the payload.
+     *
+     * @param cacheName
+     * @param since the last sequence number seen, or -1 to get the current one
+     * @return the changes, or null if the server does not support invalidations
+     * @throws IOException
+     */
+    @Override
+    public RemoteCacheInvalidations<K> getInvalidations( final String cacheName, final long since )
+        throws IOException
+    {
+        if ( !isInitialized() )
+        {
+            final String message = "The Remote Http Client is not initialized. Cannot process request.";
+            log.warn( message );
+            throw new IOException( message );
+        }
+
+        final RemoteCacheRequest<K, V> remoteHttpCacheRequest =
+            RemoteCacheRequestFactory.createGetInvalidationsRequest( cacheName, since, 0 );
+
+        final RemoteCacheResponse<RemoteCacheInvalidations<K>> remoteHttpCacheResponse =
+            getRemoteDispatcher().dispatchRequest( remoteHttpCacheRequest );
+
+        log.debug( "GetInvalidations [{0}] = {1}", since, remoteHttpCacheResponse );
+
+        if ( remoteHttpCacheResponse != null )
+        {
+            return remoteHttpCacheResponse.payload();
+        }
+
+        return null;
+    }
+
     /**
      * Return the keys in this cache.
      *
@@ -283,13 +320,22 @@ public class RemoteHttpCacheClient<K, V>
     /**
      * The provides an extension point. If you want to extend this and use a special dispatcher,
      * here is the place to do it.
+     * <p>
+     * An httpVersion of 2 selects the dispatcher based on the HTTP client of the JDK.
      *
      * @param attributes
      */
     @Override
     public void initialize( final RemoteHttpCacheAttributes attributes )
     {
-        setRemoteDispatcher( new RemoteHttpCacheDispatcher( attributes ) );
+        if ( RemoteHttp2CacheDispatcher.HTTP_VERSION.equals( attributes.getHttpVersion() ) )
+        {
+            setRemoteDispatcher( new RemoteHttp2CacheDispatcher( attributes ) );
+        }
+        else
+        {
+            setRemoteDispatcher( new RemoteHttpCacheDispatcher( attributes ) );
+        }
 
         log.info( "Created remote Dispatcher. {0}", this::getRemoteDispatcher);
         setInitialized( true );
@@ -383,6 +429,31 @@ public class RemoteHttpCacheClient<K, V>
         getRemoteDispatcher().dispatchRequest( remoteHttpCacheRequest );
     }
 
+    /**
+     * Removes the given keys from the specified cache in a single request.
+     *
+     * @param cacheName
+     * @param keys
+     * @param requesterId
+     * @throws IOException
+     */
+    @Override
+    public void removeMultiple( final String cacheName, final Set<K> keys, final long requesterId )
+        throws IOException
+    {
+        if ( !isInitialized() )
+        {
+            final String message = "The Remote Http Client is not initialized.  Cannot process request.";
+            log.warn( message );
+            throw new IOException( message );
+        }
+
+        final RemoteCacheRequest<K, V> remoteHttpCacheRequest =
+            RemoteCacheRequestFactory.createRemoveMultipleRequest( cacheName, keys, requesterId );
+
+        getRemoteDispatcher().dispatchRequest( remoteHttpCacheRequest );
+    }
+
     /**
      * Remove all keys from the specified cache.
      *
@@ -480,4 +551,28 @@ public class RemoteHttpCacheClient<K, V>
 
         getRemoteDispatcher().dispatchRequest( remoteHttpCacheRequest );
     }
+
+    /**
+     * Puts several cache items to the cache in a single request.
+     *
+     * @param cacheElements
+     * @param requesterId
+     * @throws IOException
+     */
+    @Override
+    public void updateMultiple( final List<ICacheElement<K, V>> cacheElements, final long requesterId )
+        throws IOException
+    {
+        if ( !isInitialized() )
+        {
+            final String message = "The Remote Http Client is not initialized.  Cannot process request.";
+            log.warn( message );
+            throw new IOException( message );
+        }
+
+        final RemoteCacheRequest<K, V> remoteHttpCacheRequest =
+            RemoteCacheRequestFactory.createUpdateMultipleRequest( cacheElements, requesterId );
+
+        getRemoteDispatcher().dispatchRequest( remoteHttpCacheRequest );
+    }
 }
@@ -21,7 +21,6 @@ package org.apache.commons.jcs4.auxiliary.remote.http.client;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
 
 import org.apache.commons.jcs4.auxiliary.remote.behavior.IRemoteCacheDispatcher;
 import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheRequest;
@@ -41,16 +40,7 @@ public class RemoteHttpCacheDispatcher
     implements IRemoteCacheDispatcher
 {
     /** Parameter encoding */
-    private static final Charset DEFAULT_ENCODING = StandardCharsets.UTF_8;
-
-    /** Named of the parameter */
-    private static final String PARAMETER_REQUEST_TYPE = "RequestType";
-
-    /** Named of the parameter */
-    private static final String PARAMETER_KEY = "Key";
-
-    /** Named of the parameter */
-    private static final String PARAMETER_CACHE_NAME = "CacheName";
+    private static final Charset DEFAULT_ENCODING = RemoteHttpCacheRequestParameters.DEFAULT_ENCODING;
 
     /** The Logger. */
     private static final Log log = Log.getLog( RemoteHttpCacheDispatcher.class );
@@ -148,42 +138,8 @@ public class RemoteHttpCacheDispatcher
     {
         final RequestBuilder builder = RequestBuilder.post( url ).setCharset( DEFAULT_ENCODING );
 
-        if ( getRemoteHttpCacheAttributes().isIncludeCacheNameAsParameter()
-            && remoteCacheRequest.cacheName() != null )
-        {
-            builder.addParameter( PARAMETER_CACHE_NAME, remoteCacheRequest.cacheName() );
-        }
-        if ( getRemoteHttpCacheAttributes().isIncludeKeysAndPatternsAsParameter() )
-        {
-            String keyValue = "";
-            switch ( remoteCacheRequest.requestType() )
-            {
-                case GET:
-                case REMOVE:
-                    keyValue = remoteCacheRequest.key().toString();
-                    break;
-                case GET_KEYSET:
-                    keyValue = remoteCacheRequest.cacheName();
-                    break;
-                case GET_MATCHING:
-                    keyValue = remoteCacheRequest.pattern();
-                    break;
-                case GET_MULTIPLE:
-                    keyValue = remoteCacheRequest.keySet().toString();
-                    break;
-                case UPDATE:
-                    keyValue = remoteCacheRequest.cacheElement().key().toString();
-                    break;
-                default:
-                    break;
-            }
-            builder.addParameter( PARAMETER_KEY, keyValue );
-        }
-        if ( getRemoteHttpCacheAttributes().isIncludeRequestTypeasAsParameter() )
-        {
-            builder.addParameter( PARAMETER_REQUEST_TYPE,
-                remoteCacheRequest.requestType().toString() );
-        }
+        RemoteHttpCacheRequestParameters.getParameters( getRemoteHttpCacheAttributes(), remoteCacheRequest )
+            .forEach( builder::addParameter );
 
         builder.setEntity(new ByteArrayEntity( requestAsByteArray ));
         final HttpResponse httpResponse = doWebserviceCall( builder );
@@ -0,0 +1,119 @@
+package org.apache.commons.jcs4.auxiliary.remote.http.client;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheRequest;
+
+/**
+ * The URL parameters sent along with a request. They are not needed by the servlet, but they make
+ * the requests readable in access logs and allow routing by region.
+ */
+final class RemoteHttpCacheRequestParameters
+{
+    /** Parameter encoding */
+    static final Charset DEFAULT_ENCODING = StandardCharsets.UTF_8;
+
+    /** Named of the parameter */
+    static final String PARAMETER_REQUEST_TYPE = "RequestType";
+
+    /** Named of the parameter */
+    static final String PARAMETER_KEY = "Key";
+
+    /** Named of the parameter */
+    static final String PARAMETER_CACHE_NAME = "CacheName";
+
+    /**
+     * Collects the parameters enabled in the configuration.
+     *
+     * @param attributes the configuration
+     * @param remoteCacheRequest the request
+     * @return parameter name to value, in a stable order
+     */
+    static Map<String, String> getParameters( final RemoteHttpCacheAttributes attributes,
+            final RemoteCacheRequest<?, ?> remoteCacheRequest )
+    {
+        final Map<String, String> parameters = new LinkedHashMap<>();
+        if ( attributes.isIncludeCacheNameAsParameter() && remoteCacheRequest.cacheName() != null )
+        {
+            parameters.put( PARAMETER_CACHE_NAME, remoteCacheRequest.cacheName() );
+        }
+        if ( attributes.isIncludeKeysAndPatternsAsParameter() )
+        {
+            parameters.put( PARAMETER_KEY, Objects.toString( getKeyValue( remoteCacheRequest ), "" ) );
+        }
+        if ( attributes.isIncludeRequestTypeasAsParameter() )
+        {
+            parameters.put( PARAMETER_REQUEST_TYPE, remoteCacheRequest.requestType().toString() );
+        }
+        return parameters;
+    }
+
+    /**
+     * @param parameters parameter name to value
+     * @return the URL encoded query string, without the leading question mark
+     */
+    static String toQueryString( final Map<String, String> parameters )
+    {
+        return parameters.entrySet().stream()
+                .map( e -> URLEncoder.encode( e.getKey(), DEFAULT_ENCODING ) + "="
+                        + URLEncoder.encode( e.getValue(), DEFAULT_ENCODING ) )
+                .collect( Collectors.joining( "&" ) );
+    }
+
+    /**
+     * @param remoteCacheRequest the request
+     * @return the key, keys or pattern of the request as a string
+     */
+    private static String getKeyValue( final RemoteCacheRequest<?, ?> remoteCacheRequest )
+    {
+        switch ( remoteCacheRequest.requestType() )
+        {
+            case GET:
+            case REMOVE:
+                return remoteCacheRequest.key().toString();
+            case GET_KEYSET:
+                return remoteCacheRequest.cacheName();
+            case GET_MATCHING:
+                return remoteCacheRequest.pattern();
+            case GET_INVALIDATIONS:
+                return String.valueOf( remoteCacheRequest.sequence() );
+            case GET_MULTIPLE:
+            case REMOVE_MULTIPLE:
+                return remoteCacheRequest.keySet().toString();
+            case UPDATE:
+                return remoteCacheRequest.cacheElement().key().toString();
+            default:
+                return "";
+        }
+    }
+
+    /** No instances */
+    private RemoteHttpCacheRequestParameters()
+    {
+    }
+}
@@ -0,0 +1,392 @@
+package org.apache.commons.jcs4.auxiliary.remote.http.client;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheInvalidations;
+import org.apache.commons.jcs4.engine.behavior.ICache;
+import org.apache.commons.jcs4.engine.behavior.ICacheElement;
+import org.apache.commons.jcs4.engine.control.group.GroupAttrName;
+import org.apache.commons.jcs4.log.Log;
+import org.apache.commons.jcs4.utils.struct.LRUMap;
+import org.apache.commons.jcs4.utils.threadpool.DaemonThreadFactory;
+
+/**
+ * A small LRU cache of elements read from an HTTP remote cache server. It saves the round trip for
+ * repeated gets of the same keys.
+ * <p>
+ * The HTTP server cannot call back to its clients, so a daemon thread long-polls the server for
+ * the keys changed since the last poll and drops them. Until the first poll succeeds, and after
+ * every failed poll, the near cache is empty and disabled.
+ * <p>
+ * Every invalidation increments a generation counter. Callers read the generation before they go
+ * to the server and hand it back with the result. The result is only kept if nothing was
+ * invalidated in the meantime, so a slow get cannot put back a value that was just invalidated.
+ */
+public class RemoteHttpNearCache<K, V>
+{
+    /** Polls the server for changes. */
+    @FunctionalInterface
+    public interface InvalidationSource<K>
+    {
+        /**
+         * @param since the last sequence number seen, or -1 to get the current one
+         * @return the changes after the sequence number
+         * @throws IOException if the server cannot be reached
+         */
+        RemoteCacheInvalidations<K> getInvalidations( long since )
+            throws IOException;
+    }
+
+    /** The logger. */
+    private static final Log log = Log.getLog( RemoteHttpNearCache.class );
+
+    /** The first pause after a failed poll. */
+    private static final Duration MIN_RETRY_DELAY = Duration.ofMillis( 100 );
+
+    /** The longest pause after repeated failed polls. */
+    private static final Duration MAX_RETRY_DELAY = Duration.ofSeconds( 30 );
+
+    /** The region name */
+    private final String cacheName;
+
+    /** The cached elements */
+    private final LRUMap<K, ICacheElement<K, V>> elements;
+
+    /** Used for the poll requests */
+    private final InvalidationSource<K> source;
+
+    /** Guards the generation, the enabled flag and the consistency of both with the elements */
+    private final Object lock = new Object();
+
+    /** Incremented with every invalidation */
+    private long generation;
+
+    /** False until the first successful poll and after each failed poll */
+    private boolean enabled;
+
+    /** The poller thread */
+    private Thread poller;
+
+    /** Set to false to stop the poller */
+    private volatile boolean running;
+
+    /** Number of gets served by the near cache */
+    private final AtomicLong hitCount = new AtomicLong();
+
+    /** Number of gets passed on to the server */
+    private final AtomicLong missCount = new AtomicLong();
+
+    /** Number of keys dropped because of server changes */
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    /**
+     * Constructor
+     *
+     * @param cacheName the region name
+     * @param maxObjects the maximum number of elements
+     * @param source used to poll the server
+     */
+    public RemoteHttpNearCache( final String cacheName, final int maxObjects, final InvalidationSource<K> source )
+    {
+        this.cacheName = cacheName;
+        this.elements = new LRUMap<>( maxObjects );
+        this.source = source;
+    }
+
+    /**
+     * Gets an element if it is cached.
+     *
+     * @param key
+     * @return the element or null
+     */
+    public ICacheElement<K, V> get( final K key )
+    {
+        final ICacheElement<K, V> element = elements.get( key );
+        if ( element != null )
+        {
+            hitCount.incrementAndGet();
+        }
+        else
+        {
+            missCount.incrementAndGet();
+        }
+        return element;
+    }
+
+    /**
+     * @return the generation to hand back to {@link #put(ICacheElement, long)}
+     */
+    public long getGeneration()
+    {
+        synchronized ( lock )
+        {
+            return generation;
+        }
+    }
+
+    /**
+     * Stores an element read from the server, unless something was invalidated since the
+     * generation was read or the near cache is disabled.
+     *
+     * @param element the element read from the server
+     * @param readGeneration the generation read before the request was sent
+     * @return true if stored
+     */
+    public boolean put( final ICacheElement<K, V> element, final long readGeneration )
+    {
+        synchronized ( lock )
+        {
+            if ( !enabled || readGeneration != generation )
+            {
+                return false;
+            }
+            elements.put( element.key(), element );
+            return true;
+        }
+    }
+
+    /**
+     * Drops a key. Like a remove in the memory cache, a key ending with the name component
+     * delimiter drops all keys starting with it, and a group key without an attribute name drops
+     * all attributes of the group.
+     *
+     * @param key
+     */
+    public void invalidate( final K key )
+    {
+        synchronized ( lock )
+        {
+            generation++;
+            remove( key );
+        }
+    }
+
+    /** Drops all elements. */
+    public void invalidateAll()
+    {
+        synchronized ( lock )
+        {
+            generation++;
+            elements.clear();
+        }
+    }
+
+    /**
+     * Applies the result of a poll.
+     *
+     * @param invalidations the changes on the server
+     */
+    protected void apply( final RemoteCacheInvalidations<K> invalidations )
+    {
+        if ( invalidations.removeAll() )
+        {
+            invalidateAll();
+            invalidationCount.incrementAndGet();
+            return;
+        }
+
+        synchronized ( lock )
+        {
+            generation++;
+            for ( final K key : invalidations.keys() )
+            {
+                remove( key );
+            }
+        }
+        invalidationCount.addAndGet( invalidations.keys().size() );
+    }
+
+    /**
+     * Drops a key, or the keys of a hierarchy or a group. Called while holding the lock.
+     *
+     * @param key the removed key
+     */
+    private void remove( final K key )
+    {
+        if ( key instanceof String name && name.endsWith( ICache.NAME_COMPONENT_DELIMITER ) )
+        {
+            elements.keySet().stream()
+                .filter( k -> k instanceof String s && s.startsWith( name ) )
+                .forEach( elements::remove );
+        }
+        else if ( key instanceof GroupAttrName<?> group && group.attrName() == null )
+        {
+            elements.keySet().stream()
+                .filter( k -> k instanceof GroupAttrName<?> member && member.groupId().equals( group.groupId() ) )
+                .forEach( elements::remove );
+        }
+        else
+        {
+            elements.remove( key );
+        }
+    }
+
+    /**
+     * Enables or disables the near cache. Both drop all elements.
+     *
+     * @param enabled
+     */
+    protected void setEnabled( final boolean enabled )
+    {
+        synchronized ( lock )
+        {
+            generation++;
+            elements.clear();
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * @return true if the near cache is in sync with the server
+     */
+    public boolean isEnabled()
+    {
+        synchronized ( lock )
+        {
+            return enabled;
+        }
+    }
+
+    /**
+     * @return the number of cached elements
+     */
+    public int getSize()
+    {
+        return elements.size();
+    }
+
+    /**
+     * @return the number of gets served by the near cache
+     */
+    public long getHitCount()
+    {
+        return hitCount.get();
+    }
+
+    /**
+     * @return the number of gets passed on to the server
+     */
+    public long getMissCount()
+    {
+        return missCount.get();
+    }
+
+    /**
+     * @return the number of keys dropped because of server changes
+     */
+    public long getInvalidationCount()
+    {
+        return invalidationCount.get();
+    }
+
+    /**
+     * Polls the server once and applies the result. Disables the near cache on failure.
+     *
+     * @param since the last sequence number seen, or -1 if not in sync
+     * @return the sequence number for the next poll, -1 if the poll failed
+     */
+    protected long pollOnce( final long since )
+    {
+        try
+        {
+            final RemoteCacheInvalidations<K> invalidations = source.getInvalidations( since );
+            if ( invalidations == null )
+            {
+                throw new IOException( "No invalidations returned" );
+            }
+            if ( since < 0 )
+            {
+                // in sync from here on
+                setEnabled( true );
+                log.info( "Near cache for [{0}] is in sync at sequence {1}", cacheName, invalidations.sequence() );
+            }
+            else
+            {
+                apply( invalidations );
+            }
+            return invalidations.sequence();
+        }
+        catch ( final IOException e )
+        {
+            if ( isEnabled() )
+            {
+                log.warn( "Invalidation poll for [{0}] failed, disabling near cache: {1}", cacheName, e.getMessage() );
+            }
+            setEnabled( false );
+            return -1;
+        }
+    }
+
+    /** Starts the poller thread. */
+    public synchronized void start()
+    {
+        if ( poller != null )
+        {
+            return;
+        }
+
+        running = true;
+        poller = new DaemonThreadFactory( "JCS-RemoteHttpNearCache-" + cacheName + "-" ).newThread( this::run );
+        poller.start();
+    }
+
+    /** Stops the poller thread and drops all elements. */
+    public synchronized void stop()
+    {
+        running = false;
+        if ( poller != null )
+        {
+            poller.interrupt();
+            poller = null;
+        }
+        setEnabled( false );
+    }
+
+    /** The poll loop. Backs off after failures. */
+    private void run()
+    {
+        long since = -1;
+        long retryDelay = MIN_RETRY_DELAY.toMillis();
+        while ( running )
+        {
+            since = pollOnce( since );
+            if ( since >= 0 )
+            {
+                retryDelay = MIN_RETRY_DELAY.toMillis();
+                continue;
+            }
+
+            try
+            {
+                Thread.sleep( retryDelay );
+            }
+            catch ( final InterruptedException e )
+            {
+                break;
+            }
+            retryDelay = Math.min( retryDelay * 2, MAX_RETRY_DELAY.toMillis() );
+        }
+        log.debug( "Near cache poller for [{0}] stopped", cacheName );
+    }
+}
@@ -22,6 +22,7 @@ package org.apache.commons.jcs4.auxiliary.remote.http.client.behavior;
 import java.io.IOException;
 
 import org.apache.commons.jcs4.auxiliary.remote.http.client.RemoteHttpCacheAttributes;
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheInvalidations;
 import org.apache.commons.jcs4.engine.behavior.ICacheServiceNonLocal;
 
 /**
@@ -31,6 +32,18 @@ import org.apache.commons.jcs4.engine.behavior.ICacheServiceNonLocal;
 public interface IRemoteHttpCacheClient<K, V>
     extends ICacheServiceNonLocal<K, V>
 {
+    /**
+     * Gets the keys changed on the server after the given sequence number. The server holds the
+     * request for a while if there are no changes yet.
+     *
+     * @param cacheName
+     * @param since the last sequence number seen, or -1 to get the current one
+     * @return the changes, or null if the server does not support invalidations
+     * @throws IOException
+     */
+    RemoteCacheInvalidations<K> getInvalidations( String cacheName, long since )
+        throws IOException;
+
     /**
      * The provides an extension point. If you want to extend this and use a special dispatcher,
      * here is the place to do it.
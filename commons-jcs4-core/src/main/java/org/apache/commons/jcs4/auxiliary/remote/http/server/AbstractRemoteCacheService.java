@@ -21,6 +21,7 @@ package org.apache.commons.jcs4.auxiliary.remote.http.server;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -515,4 +516,38 @@ public abstract class AbstractRemoteCacheService<K, V>
             logICacheEvent( cacheEvent );
         }
     }
+
+    /**
+     * Puts several items to the cache. The whole batch is logged as one event.
+     *
+     * @param items
+     * @param requesterId
+     * @throws IOException
+     */
+    @Override
+    public void updateMultiple( final List<ICacheElement<K, V>> items, final long requesterId )
+        throws IOException
+    {
+        if ( items.isEmpty() )
+        {
+            return;
+        }
+
+        final ICacheEvent<Integer> cacheEvent = createICacheEvent( items.get( 0 ).cacheName(),
+                Integer.valueOf( items.size() ), CacheEventType.UPDATEMULTIPLE_EVENT,
+                () -> getExtraInfoForRequesterId( requesterId ));
+        try
+        {
+            for (final ICacheElement<K, V> item : items)
+            {
+                logUpdateInfo( item );
+
+                processUpdate( item, requesterId );
+            }
+        }
+        finally
+        {
+            logICacheEvent( cacheEvent );
+        }
+    }
 }
@@ -0,0 +1,191 @@
+package org.apache.commons.jcs4.auxiliary.remote.http.server;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheInvalidations;
+
+/**
+ * Remembers the most recent changes of each region so that HTTP clients can keep a near cache
+ * consistent. Clients long-poll for the changes after the last sequence number they have seen.
+ * <p>
+ * Each region keeps a ring buffer of the last changes. If a client falls behind by more than the
+ * size of the buffer, it is told to drop its near cache.
+ */
+public class RemoteHttpCacheInvalidationLog<K>
+{
+    /** Marks a removeAll in the ring buffer */
+    private static final Object REMOVE_ALL = new Object();
+
+    /** The changes of one region */
+    private static final class RegionLog
+    {
+        /** The changed keys, or REMOVE_ALL */
+        final Object[] entries;
+
+        /** The sequence number of the last change */
+        long sequence;
+
+        /**
+         * @param size capacity of the ring buffer
+         */
+        RegionLog( final int size )
+        {
+            this.entries = new Object[size];
+        }
+    }
+
+    /** The logs by region name */
+    private final ConcurrentMap<String, RegionLog> regions = new ConcurrentHashMap<>();
+
+    /** Capacity of the ring buffer of each region */
+    private final int size;
+
+    /**
+     * Constructor
+     *
+     * @param size the number of changes to remember per region
+     */
+    public RemoteHttpCacheInvalidationLog( final int size )
+    {
+        if ( size < 1 )
+        {
+            throw new IllegalArgumentException( "size must be greater than 0" );
+        }
+        this.size = size;
+    }
+
+    /**
+     * Records a change of a key.
+     *
+     * @param cacheName the region
+     * @param key the changed key
+     */
+    public void add( final String cacheName, final K key )
+    {
+        append( cacheName, key );
+    }
+
+    /**
+     * Records that the region was cleared.
+     *
+     * @param cacheName the region
+     */
+    public void addRemoveAll( final String cacheName )
+    {
+        append( cacheName, REMOVE_ALL );
+    }
+
+    /**
+     * @param cacheName the region
+     * @return the sequence number of the last change of the region
+     */
+    public long getSequence( final String cacheName )
+    {
+        final RegionLog log = getRegionLog( cacheName );
+        synchronized ( log )
+        {
+            return log.sequence;
+        }
+    }
+
+    /**
+     * Returns the changes after the given sequence number. If there are none, waits up to the
+     * given time for a change.
+     *
+     * @param cacheName the region
+     * @param since the last sequence number the caller has seen, or a negative value to only get
+     *        the current sequence number
+     * @param maxWait how long to wait for a change
+     * @return the changes
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @SuppressWarnings("unchecked") // only keys of type K and the marker are stored
+    public RemoteCacheInvalidations<K> poll( final String cacheName, final long since, final Duration maxWait )
+        throws InterruptedException
+    {
+        final RegionLog log = getRegionLog( cacheName );
+        synchronized ( log )
+        {
+            if ( since < 0 || since > log.sequence )
+            {
+                // new client, or the server was restarted
+                return new RemoteCacheInvalidations<>( log.sequence, List.of(), since >= 0 );
+            }
+
+            final long deadline = System.nanoTime() + maxWait.toNanos();
+            long remaining = maxWait.toNanos();
+            while ( log.sequence == since && remaining > 0 )
+            {
+                log.wait( Math.max( 1, remaining / 1_000_000 ) );
+                remaining = deadline - System.nanoTime();
+            }
+
+            if ( log.sequence - since > size )
+            {
+                return new RemoteCacheInvalidations<>( log.sequence, List.of(), true );
+            }
+
+            final List<K> keys = new ArrayList<>( (int) ( log.sequence - since ) );
+            for ( long s = since + 1; s <= log.sequence; s++ )
+            {
+                final Object entry = log.entries[(int) ( s % size )];
+                if ( entry == REMOVE_ALL )
+                {
+                    return new RemoteCacheInvalidations<>( log.sequence, List.of(), true );
+                }
+                keys.add( (K) entry );
+            }
+
+            return new RemoteCacheInvalidations<>( log.sequence, keys, false );
+        }
+    }
+
+    /**
+     * Appends an entry to the ring buffer of the region and wakes up waiting polls.
+     *
+     * @param cacheName the region
+     * @param entry the key or the removeAll marker
+     */
+    private void append( final String cacheName, final Object entry )
+    {
+        final RegionLog log = getRegionLog( cacheName );
+        synchronized ( log )
+        {
+            log.sequence++;
+            log.entries[(int) ( log.sequence % size )] = entry;
+            log.notifyAll();
+        }
+    }
+
+    /**
+     * @param cacheName the region
+     * @return the log of the region, created on demand
+     */
+    private RegionLog getRegionLog( final String cacheName )
+    {
+        return regions.computeIfAbsent( cacheName, name -> new RegionLog( size ) );
+    }
+}
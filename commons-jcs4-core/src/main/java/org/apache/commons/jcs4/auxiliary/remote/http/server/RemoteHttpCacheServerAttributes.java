@@ -19,6 +19,8 @@ package org.apache.commons.jcs4.auxiliary.remote.http.server;
  * under the License.
  */
 
+import java.time.Duration;
+
 import org.apache.commons.jcs4.auxiliary.AbstractAuxiliaryCacheAttributes;
 
 /**
@@ -31,12 +33,24 @@ public class RemoteHttpCacheServerAttributes
     /** Don't change. */
     private static final long serialVersionUID = -3987239306108780496L;
 
+    /** The default number of changes remembered per region for invalidation polls */
+    public static final int DEFAULT_INVALIDATION_LOG_SIZE = 1000;
+
+    /** The default time an invalidation poll waits for a change. Must be less than the client socket timeout. */
+    public static final Duration DEFAULT_INVALIDATION_POLL_TIMEOUT = Duration.ofSeconds( 2 );
+
     /** Can a cluster remote put to other remotes */
     private boolean localClusterConsistency = true;
 
     /** Can a cluster remote get from other remotes */
     private boolean allowClusterGet = true;
 
+    /** The number of changes remembered per region for invalidation polls */
+    private int invalidationLogSize = DEFAULT_INVALIDATION_LOG_SIZE;
+
+    /** How long an invalidation poll waits for a change */
+    private Duration invalidationPollTimeout = DEFAULT_INVALIDATION_POLL_TIMEOUT;
+
     /**
      * Should gets from non-cluster clients be allowed to get from other remote auxiliaries.
      *
@@ -47,6 +61,27 @@ public class RemoteHttpCacheServerAttributes
         return allowClusterGet;
     }
 
+    /**
+     * The number of changes remembered per region. Clients of a near cache that fall further behind
+     * have to drop their near cache.
+     *
+     * @return the number of changes
+     */
+    public int getInvalidationLogSize()
+    {
+        return invalidationLogSize;
+    }
+
+    /**
+     * How long an invalidation poll waits for a change before it returns empty.
+     *
+     * @return the poll timeout
+     */
+    public Duration getInvalidationPollTimeout()
+    {
+        return invalidationPollTimeout;
+    }
+
     /**
      * Should cluster updates be propagated to the locals
      *
@@ -67,6 +102,22 @@ public class RemoteHttpCacheServerAttributes
         allowClusterGet = r;
     }
 
+    /**
+     * @param invalidationLogSize the number of changes remembered per region
+     */
+    public void setInvalidationLogSize( final int invalidationLogSize )
+    {
+        this.invalidationLogSize = invalidationLogSize;
+    }
+
+    /**
+     * @param invalidationPollTimeout how long an invalidation poll waits for a change
+     */
+    public void setInvalidationPollTimeout( final Duration invalidationPollTimeout )
+    {
+        this.invalidationPollTimeout = invalidationPollTimeout;
+    }
+
     /**
      * Should cluster updates be propagated to the locals
      *
@@ -88,6 +139,8 @@ public class RemoteHttpCacheServerAttributes
         buf.append( "\n cacheName = [" + getCacheName() + "]" );
         buf.append( "\n allowClusterGet = [" + isAllowClusterGet() + "]" );
         buf.append( "\n localClusterConsistency = [" + isLocalClusterConsistency() + "]" );
+        buf.append( "\n invalidationLogSize = [" + getInvalidationLogSize() + "]" );
+        buf.append( "\n invalidationPollTimeout = [" + getInvalidationPollTimeout() + "]" );
         buf.append( "\n eventQueueType = [" + getEventQueueType() + "]" );
         buf.append( "\n eventQueuePoolName = [" + getEventQueuePoolName() + "]" );
         return buf.toString();
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheInvalidations;
 import org.apache.commons.jcs4.engine.behavior.ICacheElement;
 import org.apache.commons.jcs4.engine.behavior.ICompositeCacheManager;
 import org.apache.commons.jcs4.engine.control.CompositeCache;
@@ -33,7 +34,8 @@ import org.apache.commons.jcs4.engine.logging.behavior.ICacheEventLogger;
  * event logs, if an event logger is present.
  * <p>
  * For now we assume that all clients are non-cluster clients. And listener notification is not
- * supported.
+ * supported. Instead, the changes are recorded in an invalidation log, which clients with a near
+ * cache poll.
  */
 public class RemoteHttpCacheService<K, V>
     extends AbstractRemoteCacheService<K, V>
@@ -44,6 +46,9 @@ public class RemoteHttpCacheService<K, V>
     /** The configuration */
     private final RemoteHttpCacheServerAttributes remoteHttpCacheServerAttributes;
 
+    /** The recent changes, polled by clients with a near cache */
+    private final RemoteHttpCacheInvalidationLog<K> invalidationLog;
+
     /**
      * Create a process with a cache manager.
      *
@@ -58,6 +63,33 @@ public class RemoteHttpCacheService<K, V>
         super( cacheManager, cacheEventLogger );
         setEventLogSourceName( EVENT_LOG_SOURCE_NAME );
         this.remoteHttpCacheServerAttributes = remoteHttpCacheServerAttributes;
+        this.invalidationLog = new RemoteHttpCacheInvalidationLog<>(
+                remoteHttpCacheServerAttributes.getInvalidationLogSize() );
+    }
+
+    /**
+     * Gets the changes of a region after the given sequence number. Waits up to the configured
+     * poll timeout if there are none yet.
+     *
+     * @param cacheName
+     * @param since the last sequence number seen by the client, or a negative value to get the
+     *        current sequence number
+     * @return the changes
+     * @throws IOException if interrupted while waiting
+     */
+    public RemoteCacheInvalidations<K> getInvalidations( final String cacheName, final long since )
+        throws IOException
+    {
+        try
+        {
+            return invalidationLog.poll( cacheName, since,
+                    remoteHttpCacheServerAttributes.getInvalidationPollTimeout() );
+        }
+        catch ( final InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException( "Interrupted while waiting for invalidations of " + cacheName, e );
+        }
     }
 
     /**
@@ -190,6 +222,7 @@ public class RemoteHttpCacheService<K, V>
         {
             cache.remove( key );
         }
+        invalidationLog.add( cacheName, key );
     }
 
     /**
@@ -217,6 +250,7 @@ public class RemoteHttpCacheService<K, V>
         {
             cache.removeAll();
         }
+        invalidationLog.addRemoveAll( cacheName );
     }
 
     /**
@@ -244,6 +278,7 @@ public class RemoteHttpCacheService<K, V>
         {
             cache.update( item );
         }
+        invalidationLog.add( item.cacheName(), item.key() );
     }
 
     /**
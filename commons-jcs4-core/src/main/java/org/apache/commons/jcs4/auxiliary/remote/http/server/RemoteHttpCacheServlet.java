@@ -19,6 +19,7 @@ package org.apache.commons.jcs4.auxiliary.remote.http.server;
  * under the License.
  */
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -30,6 +31,8 @@ import java.util.Set;
 import org.apache.commons.jcs4.access.exception.CacheException;
 import org.apache.commons.jcs4.auxiliary.AuxiliaryCacheConfigurator;
 import org.apache.commons.jcs4.auxiliary.remote.http.behavior.IRemoteHttpCacheConstants;
+import org.apache.commons.jcs4.auxiliary.remote.util.RemoteCacheFraming;
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheInvalidations;
 import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheRequest;
 import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheResponse;
 import org.apache.commons.jcs4.engine.behavior.ICacheElement;
@@ -222,6 +225,10 @@ public class RemoteHttpCacheServlet
                         remoteCacheService.remove( request.cacheName(), request.key(), request.requesterId() );
                         response = new RemoteCacheResponse<>(true, "OK");
                         break;
+                    case REMOVE_MULTIPLE:
+                        remoteCacheService.removeMultiple( request.cacheName(), request.keySet(), request.requesterId() );
+                        response = new RemoteCacheResponse<>(true, "OK");
+                        break;
                     case REMOVE_ALL:
                         remoteCacheService.removeAll( request.cacheName(), request.requesterId() );
                         response = new RemoteCacheResponse<>(true, "OK");
@@ -230,6 +237,10 @@ public class RemoteHttpCacheServlet
                         remoteCacheService.update( request.cacheElement(), request.requesterId() );
                         response = new RemoteCacheResponse<>(true, "OK");
                         break;
+                    case UPDATE_MULTIPLE:
+                        remoteCacheService.updateMultiple( request.cacheElements(), request.requesterId() );
+                        response = new RemoteCacheResponse<>(true, "OK");
+                        break;
                     case ALIVE_CHECK:
                     case DISPOSE:
                         response = new RemoteCacheResponse<>(true, "OK");
@@ -239,6 +250,18 @@ public class RemoteHttpCacheServlet
                         final Set<Serializable> keys = remoteCacheService.getKeySet( request.cacheName() );
                         response = new RemoteCacheResponse<>(keys);
                         break;
+                    case GET_INVALIDATIONS:
+                        if ( remoteCacheService instanceof RemoteHttpCacheService<Serializable, Serializable> httpService )
+                        {
+                            final RemoteCacheInvalidations<Serializable> invalidations =
+                                httpService.getInvalidations( request.cacheName(), request.sequence() );
+                            response = new RemoteCacheResponse<>(invalidations);
+                        }
+                        else
+                        {
+                            response = new RemoteCacheResponse<>(false, "Invalidations are not supported by " + remoteCacheService);
+                        }
+                        break;
                     default:
                         final String message = "Unknown event type.  Cannot process " + request;
                         log.warn( message );
@@ -246,7 +269,7 @@ public class RemoteHttpCacheServlet
                         break;
                 }
             }
-            catch ( final IOException e )
+            catch ( final IOException | NumberFormatException e )
             {
                 final String message = "Problem processing request. " + request + " Error: " + e.getMessage();
                 log.error( message, e );
@@ -270,7 +293,15 @@ public class RemoteHttpCacheServlet
         try (InputStream inputStream = request.getInputStream())
         {
             log.debug( "After getting input stream and before reading it" );
-            remoteRequest = readRequestFromStream( inputStream );
+            if ( isFramed( request ) )
+            {
+                remoteRequest = readRequestFromStream(
+                        new ByteArrayInputStream( RemoteCacheFraming.readFrame( inputStream ) ) );
+            }
+            else
+            {
+                remoteRequest = readRequestFromStream( inputStream );
+            }
         }
         catch ( final IOException | ClassNotFoundException e )
         {
@@ -291,7 +322,7 @@ public class RemoteHttpCacheServlet
     protected RemoteCacheRequest<Serializable, Serializable> readRequestFromStream( final InputStream inputStream )
         throws IOException, ClassNotFoundException
     {
-        return serializer.deSerializeFrom(inputStream, null);
+        return serializer.deSerializeStream(inputStream, null);
     }
 
     /**
@@ -312,7 +343,26 @@ public class RemoteHttpCacheServlet
         final RemoteCacheRequest<Serializable, Serializable> remoteRequest = readRequest( request );
         final RemoteCacheResponse<Object> cacheResponse = processRequest( remoteRequest );
 
-        writeResponse( response, cacheResponse );
+        if ( isFramed( request ) )
+        {
+            writeFramedResponse( response, cacheResponse );
+        }
+        else
+        {
+            writeResponse( response, cacheResponse );
+        }
+    }
+
+    /**
+     * Framed requests are sent by the HTTP/2 dispatcher and get framed responses.
+     *
+     * @param request
+     * @return true if the body of the request is a frame
+     */
+    protected boolean isFramed( final HttpServletRequest request )
+    {
+        final String contentType = request.getContentType();
+        return contentType != null && contentType.startsWith( RemoteCacheFraming.CONTENT_TYPE );
     }
 
     /**
@@ -323,6 +373,25 @@ public class RemoteHttpCacheServlet
         remoteCacheService = rcs;
     }
 
+    /**
+     * Writes the response to the output stream as a frame.
+     *
+     * @param response
+     * @param cacheResponse
+     */
+    protected void writeFramedResponse( final HttpServletResponse response, final RemoteCacheResponse<Object> cacheResponse )
+    {
+        try (OutputStream outputStream = response.getOutputStream())
+        {
+            response.setContentType( RemoteCacheFraming.CONTENT_TYPE );
+            RemoteCacheFraming.writeFrame( outputStream, serializer.serialize( cacheResponse ) );
+        }
+        catch ( final IOException e )
+        {
+            log.error( "Problem writing response. {0}", cacheResponse, e );
+        }
+    }
+
     /**
      * Writes the response to the output stream.
      *
@@ -334,7 +403,7 @@ public class RemoteHttpCacheServlet
         try (OutputStream outputStream = response.getOutputStream())
         {
             response.setContentType( "application/octet-stream" );
-            serializer.serializeTo(cacheResponse, outputStream);
+            serializer.serializeInto(cacheResponse, outputStream);
         }
         catch ( final IOException e )
         {
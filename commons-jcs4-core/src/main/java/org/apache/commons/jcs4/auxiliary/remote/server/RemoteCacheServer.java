@@ -1223,6 +1223,34 @@ public class RemoteCacheServer<K, V>
         cacheManager.release();
     }
 
+    /**
+     * Removes the given keys from the specified remote cache. The keys are removed one after the
+     * other, but the whole batch is a single remote call and a single logged event.
+     *
+     * @param cacheName
+     * @param keys
+     * @param requesterId
+     * @throws IOException
+     */
+    @Override
+    public void removeMultiple( final String cacheName, final Set<K> keys, final long requesterId )
+        throws IOException
+    {
+        final ICacheEvent<Serializable> cacheEvent = createICacheEvent( cacheName,
+                (Serializable) keys, requesterId, CacheEventType.REMOVEMULTIPLE_EVENT );
+        try
+        {
+            for (final K key : keys)
+            {
+                processRemove( cacheName, key, requesterId );
+            }
+        }
+        finally
+        {
+            logICacheEvent( cacheEvent );
+        }
+    }
+
     /**
      * Removes the given key from the specified remote cache. Defaults the listener id to 0.
      *
@@ -1482,4 +1510,37 @@ public class RemoteCacheServer<K, V>
             logICacheEvent( cacheEvent );
         }
     }
+
+    /**
+     * Puts several cache beans to the remote cache. The items are processed one after the other,
+     * as if they were sent by separate update calls, but the whole batch is a single remote call
+     * and a single logged event.
+     *
+     * @param items
+     * @param requesterId
+     * @throws IOException
+     */
+    @Override
+    public void updateMultiple( final List<ICacheElement<K, V>> items, final long requesterId )
+        throws IOException
+    {
+        if ( items.isEmpty() )
+        {
+            return;
+        }
+
+        final ICacheEvent<Serializable> cacheEvent = createICacheEvent( items.get( 0 ).cacheName(),
+                Integer.valueOf( items.size() ), requesterId, CacheEventType.UPDATEMULTIPLE_EVENT );
+        try
+        {
+            for (final ICacheElement<K, V> item : items)
+            {
+                processUpdate( item, requesterId );
+            }
+        }
+        finally
+        {
+            logICacheEvent( cacheEvent );
+        }
+    }
 }
@@ -28,5 +28,8 @@ public enum RemoteType
     LOCAL,
 
     /** A remote cache is either a local cache or a cluster cache */
-    CLUSTER
+    CLUSTER,
+
+    /** A local cache that spreads its keys over several remote servers */
+    PARTITIONED
 }
@@ -0,0 +1,133 @@
+package org.apache.commons.jcs4.auxiliary.remote.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+
+/**
+ * Length-prefixed binary frames for serialized requests and responses.
+ * <p>
+ * A frame is a two byte magic number, a one byte version, a four byte payload length and the
+ * payload. The header lets the receiver reject foreign data before anything is deserialized, and
+ * the length lets it read exactly one payload from a stream that stays open for further frames.
+ * The payload itself is the standard Java serialization of the request or response, the frame
+ * adds no encoding of its own.
+ */
+public final class RemoteCacheFraming
+{
+    /** The content type of framed HTTP bodies */
+    public static final String CONTENT_TYPE = "application/x-jcs-frame";
+
+    /** "JC" */
+    private static final short MAGIC = 0x4A43;
+
+    /** The current frame version */
+    private static final byte VERSION = 1;
+
+    /** Bytes before the payload */
+    public static final int HEADER_LENGTH = 7;
+
+    /**
+     * Frames the payload.
+     *
+     * @param payload the serialized request or response
+     * @return the frame
+     */
+    public static byte[] frame( final byte[] payload )
+    {
+        final byte[] frame = new byte[HEADER_LENGTH + payload.length];
+        frame[0] = (byte) ( MAGIC >>> 8 );
+        frame[1] = (byte) MAGIC;
+        frame[2] = VERSION;
+        frame[3] = (byte) ( payload.length >>> 24 );
+        frame[4] = (byte) ( payload.length >>> 16 );
+        frame[5] = (byte) ( payload.length >>> 8 );
+        frame[6] = (byte) payload.length;
+        System.arraycopy( payload, 0, frame, HEADER_LENGTH, payload.length );
+        return frame;
+    }
+
+    /**
+     * Reads one frame from the stream.
+     *
+     * @param in the stream, positioned at the start of a frame
+     * @return the payload
+     * @throws StreamCorruptedException if the data is not a frame of a known version
+     * @throws EOFException if the stream ends before the end of the frame
+     * @throws IOException on read errors
+     */
+    public static byte[] readFrame( final InputStream in )
+        throws IOException
+    {
+        final DataInputStream dis = new DataInputStream( in );
+        final short magic = dis.readShort();
+        if ( magic != MAGIC )
+        {
+            throw new StreamCorruptedException( "Not a JCS frame, magic = " + Integer.toHexString( magic & 0xFFFF ) );
+        }
+        final byte version = dis.readByte();
+        if ( version != VERSION )
+        {
+            throw new StreamCorruptedException( "Unsupported frame version " + version );
+        }
+        final int length = dis.readInt();
+        if ( length < 0 )
+        {
+            throw new StreamCorruptedException( "Negative frame length " + length );
+        }
+
+        // readNBytes grows its buffer as data arrives, so a bogus length cannot exhaust the heap
+        final byte[] payload = in.readNBytes( length );
+        if ( payload.length != length )
+        {
+            throw new EOFException( "Frame truncated after " + payload.length + " of " + length + " bytes" );
+        }
+        return payload;
+    }
+
+    /**
+     * Writes one frame to the stream.
+     *
+     * @param out the stream
+     * @param payload the serialized request or response
+     * @throws IOException on write errors
+     */
+    public static void writeFrame( final OutputStream out, final byte[] payload )
+        throws IOException
+    {
+        final DataOutputStream dos = new DataOutputStream( out );
+        dos.writeShort( MAGIC );
+        dos.writeByte( VERSION );
+        dos.writeInt( payload.length );
+        dos.write( payload );
+        dos.flush();
+    }
+
+    /** No instances */
+    private RemoteCacheFraming()
+    {
+    }
+}
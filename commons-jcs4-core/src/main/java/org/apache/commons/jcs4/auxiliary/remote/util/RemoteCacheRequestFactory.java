@@ -19,6 +19,7 @@ package org.apache.commons.jcs4.auxiliary.remote.util;
  * under the License.
  */
 
+import java.util.List;
 import java.util.Set;
 
 import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheRequest;
@@ -75,6 +76,20 @@ public class RemoteCacheRequestFactory
         return request;
     }
 
+    /**
+     * Creates a getInvalidations Request.
+     *
+     * @param cacheName
+     * @param since the last sequence number seen by the client, or -1 to get the current one
+     * @param requesterId
+     * @return RemoteHttpCacheRequest
+     */
+    public static <K, V> RemoteCacheRequest<K, V> createGetInvalidationsRequest( final String cacheName, final long since, final long requesterId )
+    {
+        return new RemoteCacheRequest<>(cacheName, RemoteRequestType.GET_INVALIDATIONS, requesterId,
+                null, null, null, null, null, since);
+    }
+
     /**
      * Creates a getMatching Request.
      *
@@ -135,6 +150,22 @@ public class RemoteCacheRequestFactory
         return new RemoteCacheRequest<>(cacheName, RemoteRequestType.REMOVE_ALL, requesterId);
     }
 
+    /**
+     * Creates a removeMultiple Request.
+     *
+     * @param cacheName
+     * @param keys
+     * @param requesterId
+     * @return RemoteHttpCacheRequest
+     */
+    public static <K, V> RemoteCacheRequest<K, V> createRemoveMultipleRequest( final String cacheName, final Set<K> keys, final long requesterId )
+    {
+        final RemoteCacheRequest<K, V> request = new RemoteCacheRequest<>(cacheName,
+                RemoteRequestType.REMOVE_MULTIPLE, requesterId, keys);
+
+        return request;
+    }
+
     /**
      * Creates a remove Request.
      *
@@ -174,4 +205,28 @@ public class RemoteCacheRequestFactory
 
         return request;
     }
+
+    /**
+     * Creates an UpdateMultiple Request. The cache name is taken from the first element.
+     *
+     * @param cacheElements
+     * @param requesterId
+     * @return RemoteHttpCacheRequest
+     */
+    public static <K, V> RemoteCacheRequest<K, V> createUpdateMultipleRequest( final List<ICacheElement<K, V>> cacheElements, final long requesterId )
+    {
+        final RemoteCacheRequest<K, V> request;
+        if ( cacheElements != null && !cacheElements.isEmpty() )
+        {
+            request = new RemoteCacheRequest<>(cacheElements.get( 0 ).cacheName(),
+                    RemoteRequestType.UPDATE_MULTIPLE, requesterId, cacheElements);
+        }
+        else
+        {
+            request = new RemoteCacheRequest<>(null, RemoteRequestType.UPDATE_MULTIPLE, requesterId);
+            log.error( "Can't create a proper update multiple request for an empty list of cache elements." );
+        }
+
+        return request;
+    }
 }
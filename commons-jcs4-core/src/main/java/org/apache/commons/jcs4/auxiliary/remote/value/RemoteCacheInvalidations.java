@@ -0,0 +1,64 @@
+package org.apache.commons.jcs4.auxiliary.remote.value;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The answer to an invalidation poll. It lists the keys of a region that were changed on the
+ * server after the sequence number the client asked for.
+ */
+public record RemoteCacheInvalidations<K>(
+        /** The sequence number of the last change included. The client asks for changes after this next time. */
+        long sequence,
+
+        /** The changed keys, in the order of the changes. */
+        List<K> keys,
+
+        /**
+         * True if the client must drop everything, either because the region was cleared or because
+         * the server no longer knows all changes since the requested sequence number.
+         */
+        boolean removeAll
+) implements Serializable
+{
+    /** Don't change. */
+    private static final long serialVersionUID = 4139402749813395043L;
+
+    /**
+     * Construct an answer without changes.
+     *
+     * @param sequence the current sequence number
+     */
+    public RemoteCacheInvalidations(final long sequence)
+    {
+        this(sequence, Collections.emptyList(), false);
+    }
+
+    /** @return string */
+    @Override
+    public String toString()
+    {
+        return "RemoteCacheInvalidations [sequence=" + sequence() + ", keys=" + keys().size()
+                + ", removeAll=" + removeAll() + "]";
+    }
+}
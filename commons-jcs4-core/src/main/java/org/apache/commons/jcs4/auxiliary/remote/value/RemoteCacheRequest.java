@@ -20,6 +20,7 @@ package org.apache.commons.jcs4.auxiliary.remote.value;
  */
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.commons.jcs4.engine.behavior.ICacheElement;
@@ -43,14 +44,20 @@ public record RemoteCacheRequest<K, V>(
         /** The key, if this request has a key. */
         K key,
 
-        /** The keySet, if this request has a keySet. Only getMultiple requests. */
+        /** The keySet, if this request has a keySet. Only getMultiple and removeMultiple requests. */
         Set<K> keySet,
 
         /** The pattern, if this request uses a pattern. Only getMatching requests. */
         String pattern,
 
         /** The ICacheEleemnt, if this request contains a value. Only update requests will have this. */
-        ICacheElement<K, V> cacheElement
+        ICacheElement<K, V> cacheElement,
+
+        /** The ICacheElements, if this request contains several values. Only updateMultiple requests. */
+        List<ICacheElement<K, V>> cacheElements,
+
+        /** The last sequence number seen by the client. Only getInvalidations requests. */
+        long sequence
 ) implements Serializable
 {
     /** Don't change. */
@@ -67,7 +74,7 @@ public record RemoteCacheRequest<K, V>(
     public RemoteCacheRequest(final String cacheName, final RemoteRequestType requestType,
             final long requesterId)
     {
-        this(cacheName, requestType, requesterId, null, null, null, null);
+        this(cacheName, requestType, requesterId, null, null, null, null, null, 0);
     }
 
     /**
@@ -81,7 +88,7 @@ public record RemoteCacheRequest<K, V>(
     public RemoteCacheRequest(final String cacheName, final RemoteRequestType requestType,
             final long requesterId, final K key)
     {
-        this(cacheName, requestType, requesterId, key, null, null, null);
+        this(cacheName, requestType, requesterId, key, null, null, null, null, 0);
     }
 
     /**
@@ -95,7 +102,7 @@ public record RemoteCacheRequest<K, V>(
     public RemoteCacheRequest(final String cacheName, final RemoteRequestType requestType,
             final long requesterId, final Set<K> keySet)
     {
-        this(cacheName, requestType, requesterId, null, keySet, null, null);
+        this(cacheName, requestType, requesterId, null, keySet, null, null, null, 0);
     }
 
     /**
@@ -109,7 +116,7 @@ public record RemoteCacheRequest<K, V>(
     public RemoteCacheRequest(final String cacheName, final RemoteRequestType requestType,
             final long requesterId, final String pattern)
     {
-        this(cacheName, requestType, requesterId, null, null, pattern, null);
+        this(cacheName, requestType, requesterId, null, null, pattern, null, null, 0);
     }
 
     /**
@@ -123,7 +130,21 @@ public record RemoteCacheRequest<K, V>(
     public RemoteCacheRequest(final String cacheName, final RemoteRequestType requestType,
             final long requesterId, final ICacheElement<K, V> cacheElement)
     {
-        this(cacheName, requestType, requesterId, cacheElement.key(), null, null, cacheElement);
+        this(cacheName, requestType, requesterId, cacheElement.key(), null, null, cacheElement, null, 0);
+    }
+
+    /**
+     * Construct a RemoteCacheRequest with a list of CacheElements
+     *
+     * @param cacheName The name of the region
+     * @param requestType The request type specifies the type of request: get, put, remove, ...
+     * @param requesterId used to identify the source. Same as listener id on the client side.
+     * @param cacheElements The CacheElements
+     */
+    public RemoteCacheRequest(final String cacheName, final RemoteRequestType requestType,
+            final long requesterId, final List<ICacheElement<K, V>> cacheElements)
+    {
+        this(cacheName, requestType, requesterId, null, null, null, null, cacheElements, 0);
     }
 
     /** @return string */
@@ -139,6 +160,8 @@ public record RemoteCacheRequest<K, V>(
         buf.append( "\n keySet [" + keySet() + "]" );
         buf.append( "\n pattern [" + pattern() + "]" );
         buf.append( "\n cacheElement [" + cacheElement() + "]" );
+        buf.append( "\n cacheElements [" + ( cacheElements() == null ? null : cacheElements().size() ) + "]" );
+        buf.append( "\n sequence [" + sequence() + "]" );
         return buf.toString();
     }
 }
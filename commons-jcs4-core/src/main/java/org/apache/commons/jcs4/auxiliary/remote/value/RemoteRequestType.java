@@ -50,4 +50,13 @@ public enum RemoteRequestType
 
     /** Dispose request type. */
     DISPOSE,
+
+    /** Update Multiple request type. */
+    UPDATE_MULTIPLE,
+
+    /** Remove Multiple request type. */
+    REMOVE_MULTIPLE,
+
+    /** Gets the invalidations after a sequence number. */
+    GET_INVALIDATIONS,
 }
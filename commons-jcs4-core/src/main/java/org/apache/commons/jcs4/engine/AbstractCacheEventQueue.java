@@ -21,6 +21,11 @@ package org.apache.commons.jcs4.engine;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.jcs4.engine.behavior.ICacheElement;
@@ -63,19 +68,53 @@ public abstract class AbstractCacheEventQueue<K, V>
          */
         @Override
         public void run()
+        {
+            taken( this );
+            batch().process();
+        }
+
+        /**
+         * Combines this event with the events of the same kind waiting behind it, if batching is
+         * enabled. The default does not batch.
+         *
+         * @return the event to hand to the listener
+         */
+        protected AbstractCacheEvent<?> batch()
+        {
+            return this;
+        }
+
+        /**
+         * Hands the event to the listener once.
+         *
+         * @return false if the listener failed
+         */
+        protected boolean attempt()
+        {
+            try
+            {
+                eventRun.accept(eventData);
+                return true;
+            }
+            catch (final Exception e)
+            {
+                log.warn("Error while running event from Queue: {0}. "
+                        + "Retrying...", this, e);
+                return false;
+            }
+        }
+
+        /**
+         * Hands the event to the listener, retrying on failure.
+         */
+        protected void process()
         {
             for (int failures = 0; failures < maxFailure; failures++)
             {
-                try
+                if (attempt())
                 {
-                    eventRun.accept(eventData);
                     return;
                 }
-                catch (final Exception e)
-                {
-                    log.warn("Error while running event from Queue: {0}. "
-                            + "Retrying...", this, e);
-                }
 
                 try
                 {
@@ -92,6 +131,30 @@ public abstract class AbstractCacheEventQueue<K, V>
             log.warn("Dropping Event {0}.", this);
         }
 
+        /**
+         * @return the data of the event
+         */
+        protected T getEventData()
+        {
+            return eventData;
+        }
+
+        /**
+         * @return the key the event is about, null if it is not about a single key
+         */
+        protected Object getKey()
+        {
+            return null;
+        }
+
+        /**
+         * @return the queue that created the event
+         */
+        protected AbstractCacheEventQueue<K, V> getQueue()
+        {
+            return AbstractCacheEventQueue.this;
+        }
+
         /**
          * For debugging.
          *
@@ -134,6 +197,63 @@ public abstract class AbstractCacheEventQueue<K, V>
         {
             super("PutEvent", ice, listener::handlePut);
         }
+
+        /**
+         * @return the key of the element
+         */
+        @Override
+        protected Object getKey()
+        {
+            return getEventData().key();
+        }
+
+        /**
+         * Combines the element with the put events waiting behind it if batching is enabled.
+         *
+         * @return this event or a PutMultipleEvent
+         */
+        @Override
+        @SuppressWarnings("unchecked") // events of the same class from this queue
+        protected AbstractCacheEvent<?> batch()
+        {
+            final List<AbstractCacheEvent<?>> following = pollFollowing( this );
+            if ( following.isEmpty() )
+            {
+                return this;
+            }
+
+            final List<ICacheElement<K, V>> items = new ArrayList<>( following.size() + 1 );
+            items.add( getEventData() );
+            following.forEach( event -> items.add( (ICacheElement<K, V>) event.getEventData() ) );
+            return new PutMultipleEvent( items );
+        }
+    }
+
+    /**
+     * Several elements should be put in the cache.
+     */
+    protected class PutMultipleEvent extends AbstractCacheEvent<List<ICacheElement<K, V>>>
+    {
+        /**
+         * Constructor for the PutMultipleEvent object.
+         *
+         * @param items the cache elements
+         */
+        PutMultipleEvent( final List<ICacheElement<K, V>> items )
+        {
+            super("PutMultipleEvent", items, listener::handlePutMultiple);
+        }
+
+        /**
+         * For debugging.
+         *
+         * @return Info on the number of elements.
+         */
+        @Override
+        public String toString()
+        {
+            return "PutMultipleEvent: " + getEventData().size() + " elements";
+        }
     }
 
     /**
@@ -164,6 +284,63 @@ public abstract class AbstractCacheEventQueue<K, V>
         {
             super("RemoveEvent", key, AbstractCacheEventQueue.this::remove);
         }
+
+        /**
+         * @return the key to remove
+         */
+        @Override
+        protected Object getKey()
+        {
+            return getEventData();
+        }
+
+        /**
+         * Combines the key with the remove events waiting behind it if batching is enabled.
+         *
+         * @return this event or a RemoveMultipleEvent
+         */
+        @Override
+        @SuppressWarnings("unchecked") // events of the same class from this queue
+        protected AbstractCacheEvent<?> batch()
+        {
+            final List<AbstractCacheEvent<?>> following = pollFollowing( this );
+            if ( following.isEmpty() )
+            {
+                return this;
+            }
+
+            final Set<K> keys = new LinkedHashSet<>();
+            keys.add( getEventData() );
+            following.forEach( event -> keys.add( (K) event.getEventData() ) );
+            return new RemoveMultipleEvent( keys );
+        }
+    }
+
+    /**
+     * Several elements should be removed from the cache.
+     */
+    protected class RemoveMultipleEvent extends AbstractCacheEvent<Set<K>>
+    {
+        /**
+         * Constructor for the RemoveMultipleEvent object
+         *
+         * @param keys
+         */
+        RemoveMultipleEvent( final Set<K> keys )
+        {
+            super("RemoveMultipleEvent", keys, AbstractCacheEventQueue.this::removeMultiple);
+        }
+
+        /**
+         * For debugging.
+         *
+         * @return Info on the number of keys.
+         */
+        @Override
+        public String toString()
+        {
+            return "RemoveMultipleEvent: " + getEventData().size() + " keys";
+        }
     }
 
     /** The logger. */
@@ -196,6 +373,9 @@ public abstract class AbstractCacheEventQueue<K, V>
     /** Wait time before retry */
     private Duration waitBeforeRetry;
 
+    /** Maximum number of consecutive events handed to the listener at once. */
+    private int maxBatchSize = 1;
+
     /**
      * This means that the queue is functional. If we reached the max number of failures, the queue
      * is marked as non functional and will never work again.
@@ -204,9 +384,12 @@ public abstract class AbstractCacheEventQueue<K, V>
 
     /**
      * This adds a dispose event to the queue. When it is processed, the cache is shut down
+     *
+     * @throws IOException
      */
     @Override
     public void addDisposeEvent()
+        throws IOException
     {
         put( new DisposeEvent() );
     }
@@ -220,6 +403,7 @@ public abstract class AbstractCacheEventQueue<K, V>
      */
     @Override
     public void addPutEvent( final ICacheElement<K, V> ce )
+        throws IOException
     {
         put( new PutEvent( ce ) );
     }
@@ -227,9 +411,12 @@ public abstract class AbstractCacheEventQueue<K, V>
     /**
      * This adds a remove all event to the queue. When it is processed, all elements will be removed
      * from the cache.
+     *
+     * @throws IOException
      */
     @Override
     public void addRemoveAllEvent()
+        throws IOException
     {
         put( new RemoveAllEvent() );
     }
@@ -243,6 +430,7 @@ public abstract class AbstractCacheEventQueue<K, V>
      */
     @Override
     public void addRemoveEvent( final K key )
+        throws IOException
     {
         put( new RemoveEvent( key ) );
     }
@@ -264,6 +452,31 @@ public abstract class AbstractCacheEventQueue<K, V>
         return listenerId;
     }
 
+    /**
+     * @return the number of attempts before an event is dropped
+     */
+    protected int getMaxFailure()
+    {
+        return maxFailure;
+    }
+
+    /**
+     * @return the time to wait between two attempts of an event
+     */
+    protected Duration getWaitBeforeRetry()
+    {
+        return waitBeforeRetry;
+    }
+
+    /**
+     * @return the maximum number of consecutive put or remove events handed to the listener at
+     *         once
+     */
+    public int getMaxBatchSize()
+    {
+        return maxBatchSize;
+    }
+
     /**
      * Returns the time to wait for events before killing the background thread.
      *
@@ -313,8 +526,34 @@ public abstract class AbstractCacheEventQueue<K, V>
      * Adds an event to the queue.
      *
      * @param event
+     * @throws IOException if the queue rejects the event
+     */
+    protected abstract void put( AbstractCacheEvent<?> event )
+        throws IOException;
+
+    /**
+     * Takes the events of the same class as the given event that wait directly behind it in the
+     * queue, up to the maximum batch size. Implementations that cannot inspect their queue return
+     * an empty list, which disables batching.
+     *
+     * @param first the event that is currently processed
+     * @return the events that were taken off the queue, in queue order
+     */
+    protected List<AbstractCacheEvent<?>> pollFollowing( final AbstractCacheEvent<?> first )
+    {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Called when an event leaves the queue, either because it starts running or because it was
+     * taken into a batch. The default does nothing.
+     *
+     * @param event the event
      */
-    protected abstract void put( AbstractCacheEvent<?> event );
+    protected void taken( final AbstractCacheEvent<?> event )
+    {
+        // empty
+    }
 
     /**
      * Call remove on the listener.
@@ -327,6 +566,28 @@ public abstract class AbstractCacheEventQueue<K, V>
         listener.handleRemove( cacheName, key );
     }
 
+    /**
+     * Call removeMultiple on the listener.
+     * Helper method to allow method reference in RemoveMultipleEvent
+     *
+     * @throws IOException
+     */
+    private void removeMultiple(final Set<K> keys) throws IOException
+    {
+        listener.handleRemoveMultiple( cacheName, keys );
+    }
+
+    /**
+     * Sets the maximum number of consecutive put or remove events handed to the listener at once.
+     * Values less than 2 disable batching.
+     *
+     * @param maxBatchSize
+     */
+    public void setMaxBatchSize( final int maxBatchSize )
+    {
+        this.maxBatchSize = Math.max( 1, maxBatchSize );
+    }
+
     /**
      * Sets the time to wait for events before killing the background thread.
      *
@@ -20,6 +20,8 @@ package org.apache.commons.jcs4.engine;
  */
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.jcs4.engine.behavior.ICache;
 import org.apache.commons.jcs4.engine.behavior.ICacheElement;
@@ -94,6 +96,26 @@ public class CacheAdaptor<K, V>
         }
     }
 
+    /**
+     * Puts several items into the cache in one call.
+     *
+     * @param items
+     * @throws IOException
+     */
+    @Override
+    public void handlePutMultiple( final List<ICacheElement<K, V>> items )
+        throws IOException
+    {
+        try
+        {
+            cache.updateMultiple( items );
+        }
+        catch ( final IOException e )
+        {
+            // swallow
+        }
+    }
+
     /**
      * Removes an item.
      *
@@ -108,6 +130,20 @@ public class CacheAdaptor<K, V>
         cache.remove( key );
     }
 
+    /**
+     * Removes several items in one call.
+     *
+     * @param cacheName
+     * @param keys
+     * @throws IOException
+     */
+    @Override
+    public void handleRemoveMultiple( final String cacheName, final Set<K> keys )
+        throws IOException
+    {
+        cache.removeMultiple( keys );
+    }
+
     /**
      * Clears the region.
      *
@@ -19,6 +19,8 @@ package org.apache.commons.jcs4.engine;
  * under the License.
  */
 
+import java.time.Duration;
+
 import org.apache.commons.jcs4.engine.behavior.ICacheEventQueue;
 import org.apache.commons.jcs4.engine.behavior.ICacheListener;
 import org.apache.commons.jcs4.log.Log;
@@ -39,14 +41,37 @@ public class CacheEventQueueFactory
      * @param cacheName
      * @param maxFailure
      * @param waitBeforeRetry
-     * @param threadPoolName null is OK, if not a pooled event queue this is ignored
-     * @param poolType single or pooled
+     * @param threadPoolName null is OK, if not a pooled or ring event queue this is ignored
+     * @param poolType single, pooled or ring
      * @return ICacheEventQueue
      */
     public static <K, V> ICacheEventQueue<K, V> createCacheEventQueue(
             final ICacheListener<K, V> listener, final long listenerId, final String cacheName,
             final int maxFailure, final int waitBeforeRetry, final String threadPoolName,
             ICacheEventQueue.QueueType poolType )
+    {
+        return createCacheEventQueue( listener, listenerId, cacheName, maxFailure, waitBeforeRetry,
+                threadPoolName, poolType, 1 );
+    }
+
+    /**
+     * Fully configured event queue that may combine waiting events into batches.
+     *
+     * @param listener
+     * @param listenerId
+     * @param cacheName
+     * @param maxFailure
+     * @param waitBeforeRetry
+     * @param threadPoolName null is OK, if not a pooled or ring event queue this is ignored
+     * @param poolType single, pooled or ring
+     * @param maxBatchSize maximum number of consecutive put or remove events handed to the
+     *        listener at once, 1 disables batching
+     * @return ICacheEventQueue
+     */
+    public static <K, V> ICacheEventQueue<K, V> createCacheEventQueue(
+            final ICacheListener<K, V> listener, final long listenerId, final String cacheName,
+            final int maxFailure, final int waitBeforeRetry, final String threadPoolName,
+            ICacheEventQueue.QueueType poolType, final int maxBatchSize )
     {
         log.debug( "threadPoolName = [{0}] poolType = {1}", threadPoolName, poolType );
 
@@ -55,15 +80,25 @@ public class CacheEventQueueFactory
             poolType = ICacheEventQueue.QueueType.SINGLE;
         }
 
+        final AbstractCacheEventQueue<K, V> queue;
         switch (poolType)
         {
-            case POOLED: return new PooledCacheEventQueue<>(listener, listenerId, cacheName,
+            case POOLED: queue = new PooledCacheEventQueue<>(listener, listenerId, cacheName,
                     maxFailure, waitBeforeRetry, threadPoolName);
+                break;
+
+            case RING:   queue = new RingBufferCacheEventQueue<>(listener, listenerId, cacheName,
+                    maxFailure, waitBeforeRetry, threadPoolName);
+                break;
 
             case SINGLE:
-            default:     return new CacheEventQueue<>(listener, listenerId, cacheName,
+            default:     queue = new CacheEventQueue<>(listener, listenerId, cacheName,
                     maxFailure, waitBeforeRetry);
+                break;
         }
+
+        queue.setMaxBatchSize( maxBatchSize );
+        return queue;
     }
 
     /**
@@ -73,7 +108,7 @@ public class CacheEventQueueFactory
      * @param listenerId
      * @param cacheName
      * @param threadPoolName
-     * @param poolType   SINGLE, POOLED
+     * @param poolType   SINGLE, POOLED, RING
      * @return ICacheEventQueue
      */
     public static <K, V> ICacheEventQueue<K, V> createCacheEventQueue(
@@ -82,4 +117,63 @@ public class CacheEventQueueFactory
     {
         return createCacheEventQueue( listener, listenerId, cacheName, 10, 500, threadPoolName, poolType );
     }
+
+    /**
+     * Factory method for event queues that may combine waiting events into batches.
+     *
+     * @param listener
+     * @param listenerId
+     * @param cacheName
+     * @param threadPoolName
+     * @param poolType   SINGLE, POOLED, RING
+     * @param maxBatchSize maximum number of consecutive put or remove events handed to the
+     *        listener at once, 1 disables batching
+     * @return ICacheEventQueue
+     */
+    public static <K, V> ICacheEventQueue<K, V> createCacheEventQueue(
+            final ICacheListener<K, V> listener, final long listenerId, final String cacheName,
+            final String threadPoolName, final ICacheEventQueue.QueueType poolType, final int maxBatchSize )
+    {
+        return createCacheEventQueue( listener, listenerId, cacheName, 10, 500, threadPoolName, poolType,
+                maxBatchSize );
+    }
+
+    /**
+     * Factory method for bounded event queues. If the listener cannot keep up, the overflow policy
+     * decides what happens with further events.
+     *
+     * @param listener
+     * @param listenerId
+     * @param cacheName
+     * @param threadPoolName
+     * @param poolType   SINGLE, POOLED, RING
+     * @param maxBatchSize maximum number of consecutive put or remove events handed to the
+     *        listener at once, 1 disables batching
+     * @param maxQueueSize maximum number of waiting events, 0 means unbounded
+     * @param overflowPolicy what to do when the queue is full
+     * @param blockTimeout how long the BLOCK policy waits for room
+     * @return ICacheEventQueue
+     */
+    public static <K, V> ICacheEventQueue<K, V> createCacheEventQueue(
+            final ICacheListener<K, V> listener, final long listenerId, final String cacheName,
+            final String threadPoolName, final ICacheEventQueue.QueueType poolType, final int maxBatchSize,
+            final int maxQueueSize, final ICacheEventQueue.OverflowPolicy overflowPolicy, final Duration blockTimeout )
+    {
+        final ICacheEventQueue<K, V> queue = createCacheEventQueue( listener, listenerId, cacheName,
+                threadPoolName, poolType, maxBatchSize );
+
+        if ( queue instanceof PooledCacheEventQueue<K, V> pooled )
+        {
+            pooled.setMaxQueueSize( maxQueueSize );
+            pooled.setOverflowPolicy( overflowPolicy );
+            pooled.setBlockTimeout( blockTimeout );
+        }
+        else if ( queue instanceof RingBufferCacheEventQueue<K, V> ring )
+        {
+            ring.setMaxQueueSize( maxQueueSize );
+            ring.setOverflowPolicy( overflowPolicy );
+            ring.setBlockTimeout( blockTimeout );
+        }
+        return queue;
+    }
 }
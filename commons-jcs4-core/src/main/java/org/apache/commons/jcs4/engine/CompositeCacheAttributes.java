@@ -23,6 +23,7 @@ import java.time.Duration;
 
 import org.apache.commons.jcs4.engine.behavior.ICompositeCacheAttributes;
 import org.apache.commons.jcs4.engine.memory.lru.LRUMemoryCache;
+import org.apache.commons.jcs4.engine.stats.HotKeys;
 
 /**
  * The CompositeCacheAttributes defines the general cache region settings. If a region is not
@@ -57,7 +58,13 @@ public record CompositeCacheAttributes(
         DiskUsagePatternEnum DiskUsagePattern,
 
         /** How many to spool to disk at a time. */
-        int SpoolChunkSize
+        int SpoolChunkSize,
+
+        /** Whether getMatching uses an ordered index of the memory keys. */
+        boolean UseKeyIndex,
+
+        /** How many keys the hot key tracker keeps, 0 to turn it off. */
+        int HotKeysCapacity
 ) implements ICompositeCacheAttributes
 {
     /** Don't change */
@@ -84,6 +91,12 @@ public record CompositeCacheAttributes(
     /** Default number to send to disk at a time when memory fills. */
     private static final int DEFAULT_CHUNK_SIZE = 2;
 
+    /** Default key index setting */
+    private static final boolean DEFAULT_USE_KEY_INDEX = false;
+
+    /** Default number of keys tracked by the hot key tracker */
+    private static final int DEFAULT_HOT_KEYS_CAPACITY = HotKeys.DEFAULT_CAPACITY;
+
     /** Record with all defaults set */
     private static final CompositeCacheAttributes DEFAULT = new CompositeCacheAttributes(
             null,
@@ -94,7 +107,9 @@ public record CompositeCacheAttributes(
             DEFAULT_MAX_MEMORY_IDLE_TIME,
             DEFAULT_MEMORY_CACHE_NAME,
             DiskUsagePatternEnum.SWAP,
-            DEFAULT_CHUNK_SIZE
+            DEFAULT_CHUNK_SIZE,
+            DEFAULT_USE_KEY_INDEX,
+            DEFAULT_HOT_KEYS_CAPACITY
           );
 
     /**
@@ -121,7 +136,9 @@ public record CompositeCacheAttributes(
                 MaxMemoryIdleTime(),
                 MemoryCacheName(),
                 DiskUsagePattern(),
-                SpoolChunkSize());
+                SpoolChunkSize(),
+                UseKeyIndex(),
+                HotKeysCapacity());
     }
 
     /**
@@ -138,6 +155,8 @@ public record CompositeCacheAttributes(
         dump.append( ", MaxSpoolPerRun = " ).append( MaxSpoolPerRun() );
         dump.append( ", DiskUsagePattern = " ).append( DiskUsagePattern() );
         dump.append( ", SpoolChunkSize = " ).append( SpoolChunkSize() );
+        dump.append( ", UseKeyIndex = " ).append( UseKeyIndex() );
+        dump.append( ", HotKeysCapacity = " ).append( HotKeysCapacity() );
         dump.append( " ]" );
 
         return dump.toString();
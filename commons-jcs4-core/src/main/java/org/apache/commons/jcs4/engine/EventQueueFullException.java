@@ -0,0 +1,41 @@
+package org.apache.commons.jcs4.engine;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+
+/**
+ * Thrown by a bounded event queue with the FAIL overflow policy when it is full. The queue itself
+ * keeps working, so callers should not destroy it.
+ */
+public class EventQueueFullException
+    extends IOException
+{
+    /** Don't change */
+    private static final long serialVersionUID = 4427262541373826524L;
+
+    /**
+     * @param message
+     */
+    public EventQueueFullException( final String message )
+    {
+        super( message );
+    }
+}
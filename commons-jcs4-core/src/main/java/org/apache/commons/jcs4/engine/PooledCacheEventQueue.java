@@ -1,7 +1,5 @@
 package org.apache.commons.jcs4.engine;
 
-import java.time.Duration;
-
 /*
  * Licensed to the Apache Software Foundation (ASF) under one
  * or more contributor license agreements.  See the NOTICE file
@@ -21,16 +19,30 @@ import java.time.Duration;
  * under the License.
  */
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.jcs4.engine.behavior.ICacheListener;
 import org.apache.commons.jcs4.engine.stats.Stats;
 import org.apache.commons.jcs4.engine.stats.behavior.IStats;
 import org.apache.commons.jcs4.log.Log;
 import org.apache.commons.jcs4.utils.threadpool.ThreadPoolManager;
+import org.apache.commons.jcs4.utils.threadpool.VirtualThreadExecutor;
 
 /**
  * An event queue is used to propagate ordered cache events to one and only one target listener.
@@ -41,6 +53,10 @@ import org.apache.commons.jcs4.utils.threadpool.ThreadPoolManager;
  * The PooledExecutor is static, because presumably these processes will be IO bound, so throwing
  * more than a few threads at them will serve no purpose other than to saturate the IO interface. In
  * light of this, having one thread per region seems unnecessary. This may prove to be false.
+ * <p>
+ * If a maximum queue size is set, the queue keeps track of its own waiting events, since the pool
+ * may be shared with other queues, and applies its overflow policy when the limit is reached. This
+ * keeps a slow or unreachable listener from filling the heap with events.
  */
 public class PooledCacheEventQueue<K, V>
     extends AbstractCacheEventQueue<K, V>
@@ -54,6 +70,33 @@ public class PooledCacheEventQueue<K, V>
     /** The Thread Pool queue */
     protected BlockingQueue<Runnable> queue;
 
+    /** Maximum number of waiting events of this queue, 0 means unbounded */
+    private int maxQueueSize;
+
+    /** What to do when the queue is full */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+    /** How long the BLOCK policy waits for room */
+    private Duration blockTimeout = Duration.ofSeconds( 1 );
+
+    /** Guards the waiting events */
+    private final ReentrantLock pendingLock = new ReentrantLock();
+
+    /** Signalled when a waiting event leaves the queue */
+    private final Condition notFull = pendingLock.newCondition();
+
+    /** The waiting events of this queue in order, only tracked if bounded */
+    private final Set<AbstractCacheEvent<?>> pending = new LinkedHashSet<>();
+
+    /** The waiting put or remove event by key, only tracked for the COALESCE policy */
+    private final Map<Object, AbstractCacheEvent<?>> pendingByKey = new HashMap<>();
+
+    /** Number of events replaced by a later event for the same key */
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    /** Number of events dropped or rejected because the queue was full */
+    private final AtomicLong droppedCount = new AtomicLong();
+
     /**
      * Constructor for the CacheEventQueue object
      *
@@ -134,6 +177,7 @@ public class PooledCacheEventQueue<K, V>
         final IStats stats = new Stats("Pooled Cache Event Queue");
 
         stats.addStatElement("Working", Boolean.valueOf(isWorking()) );
+        stats.addStatElement("Max Batch Size", Integer.valueOf(getMaxBatchSize()) );
         stats.addStatElement("Empty", Boolean.valueOf(this.isEmpty()) );
 
         if ( queue != null )
@@ -142,6 +186,15 @@ public class PooledCacheEventQueue<K, V>
             stats.addStatElement("Queue Capacity", Integer.valueOf(queue.remainingCapacity()) );
         }
 
+        if ( isBounded() )
+        {
+            stats.addStatElement("Pending Events", Integer.valueOf(getPendingCount()) );
+            stats.addStatElement("Max Queue Size", Integer.valueOf(maxQueueSize) );
+            stats.addStatElement("Overflow Policy", overflowPolicy );
+            stats.addStatElement("Coalesced Events", Long.valueOf(getCoalescedCount()) );
+            stats.addStatElement("Dropped Events", Long.valueOf(getDroppedCount()) );
+        }
+
         return stats;
     }
 
@@ -166,6 +219,10 @@ public class PooledCacheEventQueue<K, V>
         {
         	queue = tpe.getQueue();
         }
+        else if (pool instanceof VirtualThreadExecutor vte)
+        {
+            queue = vte.getQueue();
+        }
     }
 
     /**
@@ -181,16 +238,326 @@ public class PooledCacheEventQueue<K, V>
     }
 
     /**
-     * Adds an event to the queue.
+     * Takes the events of the same class and queue as the given event off the head of the pool
+     * queue. The pool may be shared with other event queues, so collecting stops at the first
+     * event of another type or queue, which keeps the events in order.
+     *
+     * @param first the event that is currently processed
+     * @return the events that were taken off the queue, in queue order
+     */
+    @Override
+    @SuppressWarnings("unchecked") // same class as the event of this queue
+    protected List<AbstractCacheEvent<?>> pollFollowing( final AbstractCacheEvent<?> first )
+    {
+        if ( queue == null || getMaxBatchSize() <= 1 )
+        {
+            return Collections.emptyList();
+        }
+
+        final List<AbstractCacheEvent<?>> events = new ArrayList<>();
+        while ( events.size() < getMaxBatchSize() - 1 )
+        {
+            final Runnable next = queue.peek();
+            if ( next == null || next.getClass() != first.getClass() )
+            {
+                break;
+            }
+
+            final AbstractCacheEvent<?> event = (AbstractCacheEvent<?>) next;
+            if ( event.getQueue() != this || !queue.remove( next ) )
+            {
+                break;
+            }
+            taken( event );
+            events.add( event );
+        }
+
+        return events;
+    }
+
+    /**
+     * Adds an event to the queue. If the queue is bounded and full, the overflow policy decides
+     * what happens.
      *
      * @param event
+     * @throws EventQueueFullException if the policy is FAIL and the queue is full
      */
     @Override
     protected void put( final AbstractCacheEvent<?> event )
+        throws IOException
     {
+        if ( isBounded() && !reserve( event ) )
+        {
+            return;
+        }
+
         pool.execute( event );
     }
 
+    /**
+     * Makes room for the event according to the overflow policy and records it as waiting.
+     *
+     * @param event the new event
+     * @return false if the event was dropped
+     * @throws EventQueueFullException if the policy is FAIL and the queue is full
+     */
+    private boolean reserve( final AbstractCacheEvent<?> event )
+        throws EventQueueFullException
+    {
+        pendingLock.lock();
+        try
+        {
+            long nanos = blockTimeout.toNanos();
+            room: while ( pending.size() >= maxQueueSize )
+            {
+                switch ( overflowPolicy )
+                {
+                    case FAIL:
+                        droppedCount.incrementAndGet();
+                        throw new EventQueueFullException( "Event queue is full (" + maxQueueSize
+                                + " events), rejecting " + event + " for " + this );
+
+                    case BLOCK:
+                        if ( nanos <= 0 )
+                        {
+                            droppedCount.incrementAndGet();
+                            log.warn( "Timed out waiting for room, dropping {0}", event );
+                            return false;
+                        }
+                        try
+                        {
+                            nanos = notFull.awaitNanos( nanos );
+                        }
+                        catch ( final InterruptedException e )
+                        {
+                            Thread.currentThread().interrupt();
+                            droppedCount.incrementAndGet();
+                            log.warn( "Interrupted while waiting for room, dropping {0}", event );
+                            return false;
+                        }
+                        break;
+
+                    case DROP_OLDEST:
+                    case COALESCE:
+                    default:
+                        if ( overflowPolicy == OverflowPolicy.COALESCE && coalesce( event ) )
+                        {
+                            break;
+                        }
+                        if ( !dropOldest() )
+                        {
+                            // only control events are waiting, let the new one exceed the limit
+                            log.debug( "No droppable event waiting in {0}", this );
+                            break room;
+                        }
+                        break;
+                }
+            }
+
+            pending.add( event );
+            final Object key = event.getKey();
+            if ( overflowPolicy == OverflowPolicy.COALESCE && key != null )
+            {
+                pendingByKey.put( key, event );
+            }
+            return true;
+        }
+        finally
+        {
+            pendingLock.unlock();
+        }
+    }
+
+    /**
+     * Takes the waiting events that the new event makes obsolete off the queue. A put or remove
+     * replaces the waiting put or remove for the same key, a remove all replaces all waiting puts
+     * and removes. This is only done when the queue is full, since taking an event off the pool
+     * queue scans it while holding its locks.
+     *
+     * @param event the new event
+     * @return true if a waiting event was taken off the queue
+     */
+    private boolean coalesce( final AbstractCacheEvent<?> event )
+    {
+        boolean coalesced = false;
+        if ( event instanceof AbstractCacheEventQueue<?, ?>.RemoveAllEvent )
+        {
+            for ( final Iterator<AbstractCacheEvent<?>> it = pendingByKey.values().iterator(); it.hasNext(); )
+            {
+                final AbstractCacheEvent<?> waiting = it.next();
+                if ( queue.remove( waiting ) )
+                {
+                    pending.remove( waiting );
+                    coalescedCount.incrementAndGet();
+                    coalesced = true;
+                }
+                it.remove();
+            }
+            return coalesced;
+        }
+
+        final Object key = event.getKey();
+        if ( key != null )
+        {
+            final AbstractCacheEvent<?> waiting = pendingByKey.remove( key );
+            if ( waiting != null && queue.remove( waiting ) )
+            {
+                pending.remove( waiting );
+                coalescedCount.incrementAndGet();
+                coalesced = true;
+            }
+        }
+        return coalesced;
+    }
+
+    /**
+     * Drops the oldest waiting put or remove event. Control events like remove all and dispose
+     * are never dropped.
+     *
+     * @return false if there was no event to drop
+     */
+    private boolean dropOldest()
+    {
+        for ( final Iterator<AbstractCacheEvent<?>> it = pending.iterator(); it.hasNext(); )
+        {
+            final AbstractCacheEvent<?> waiting = it.next();
+            final Object key = waiting.getKey();
+            // the remove fails if a worker just took the event
+            if ( key != null && queue.remove( waiting ) )
+            {
+                it.remove();
+                pendingByKey.remove( key, waiting );
+                droppedCount.incrementAndGet();
+                log.debug( "Queue full, dropped {0}", waiting );
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Forgets a waiting event once it leaves the queue and wakes up a blocked producer.
+     *
+     * @param event the event
+     */
+    @Override
+    protected void taken( final AbstractCacheEvent<?> event )
+    {
+        if ( !isBounded() )
+        {
+            return;
+        }
+
+        pendingLock.lock();
+        try
+        {
+            if ( pending.remove( event ) )
+            {
+                final Object key = event.getKey();
+                if ( key != null )
+                {
+                    pendingByKey.remove( key, event );
+                }
+                notFull.signal();
+            }
+        }
+        finally
+        {
+            pendingLock.unlock();
+        }
+    }
+
+    /**
+     * @return whether a maximum queue size is set
+     */
+    protected boolean isBounded()
+    {
+        return maxQueueSize > 0;
+    }
+
+    /**
+     * @return the maximum number of waiting events, 0 means unbounded
+     */
+    public int getMaxQueueSize()
+    {
+        return maxQueueSize;
+    }
+
+    /**
+     * Sets the maximum number of waiting events of this queue. It should be set before events are
+     * added.
+     *
+     * @param maxQueueSize 0 or less means unbounded
+     */
+    public void setMaxQueueSize( final int maxQueueSize )
+    {
+        this.maxQueueSize = Math.max( 0, maxQueueSize );
+    }
+
+    /**
+     * @return what to do when the queue is full
+     */
+    public OverflowPolicy getOverflowPolicy()
+    {
+        return overflowPolicy;
+    }
+
+    /**
+     * @param overflowPolicy what to do when the queue is full, null means DROP_OLDEST
+     */
+    public void setOverflowPolicy( final OverflowPolicy overflowPolicy )
+    {
+        this.overflowPolicy = overflowPolicy == null ? OverflowPolicy.DROP_OLDEST : overflowPolicy;
+    }
+
+    /**
+     * @return how long the BLOCK policy waits for room
+     */
+    public Duration getBlockTimeout()
+    {
+        return blockTimeout;
+    }
+
+    /**
+     * @param blockTimeout how long the BLOCK policy waits for room before dropping the new event
+     */
+    public void setBlockTimeout( final Duration blockTimeout )
+    {
+        this.blockTimeout = blockTimeout == null ? Duration.ZERO : blockTimeout;
+    }
+
+    /**
+     * @return the number of waiting events of this queue if it is bounded
+     */
+    public int getPendingCount()
+    {
+        pendingLock.lock();
+        try
+        {
+            return pending.size();
+        }
+        finally
+        {
+            pendingLock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of events replaced by a later event for the same key
+     */
+    public long getCoalescedCount()
+    {
+        return coalescedCount.get();
+    }
+
+    /**
+     * @return the number of events dropped or rejected because the queue was full
+     */
+    public long getDroppedCount()
+    {
+        return droppedCount.get();
+    }
+
     /**
      * Returns the number of elements in the queue. If the queue cannot determine the size
      * accurately it will return 0.
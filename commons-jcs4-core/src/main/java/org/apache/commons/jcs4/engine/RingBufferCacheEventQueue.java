@@ -0,0 +1,476 @@
+package org.apache.commons.jcs4.engine;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.jcs4.engine.behavior.ICacheListener;
+import org.apache.commons.jcs4.engine.stats.Stats;
+import org.apache.commons.jcs4.engine.stats.behavior.IStats;
+import org.apache.commons.jcs4.log.Log;
+import org.apache.commons.jcs4.utils.struct.MpscRingBuffer;
+import org.apache.commons.jcs4.utils.threadpool.ThreadPoolManager;
+
+/**
+ * An event queue is used to propagate ordered cache events to one and only one target listener.
+ * <p>
+ * The events wait in a lock free ring buffer. Threads of a pool that is shared by all queues of
+ * this type drain it, at most one at a time per queue, so the events reach the listener in order
+ * without a thread per listener. A drainer hands over to the pool after a number of events to let
+ * other queues run. If the listener fails, the drainer stops and the event is retried after the
+ * wait before retry on a scheduler, so an unreachable listener never holds a thread of the shared
+ * pool while it waits.
+ * <p>
+ * If the ring of a bounded queue is full, producers fail at once with the FAIL policy. Otherwise
+ * producers of puts wait up to the block timeout for room and then drop the new event. Removes are
+ * never dropped, since a lost remove leaves a stale element at the listener, and producers of an
+ * unbounded queue wait as long as it takes. The ring cannot drop or replace waiting events, so DROP_OLDEST and
+ * COALESCE behave like BLOCK.
+ */
+public class RingBufferCacheEventQueue<K, V>
+    extends AbstractCacheEventQueue<K, V>
+{
+    /** The logger. */
+    private static final Log log = Log.getLog( RingBufferCacheEventQueue.class );
+
+    /** Name of the shared pool if none is given */
+    public static final String DEFAULT_THREAD_POOL_NAME = "cache_event_ring";
+
+    /** Name of the scheduler that delays the retries of failed events */
+    public static final String RETRY_SCHEDULER_NAME = "cache_event_ring_retry";
+
+    /** Ring size if no maximum queue size is set */
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /** Number of events a drainer processes before it hands over to the pool */
+    private static final int DRAIN_BATCH = 256;
+
+    /** How long a producer parks while it waits for room */
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos( 50 );
+
+    /** The shared pool of drainers */
+    private ExecutorService pool;
+
+    /** Hands the drainer back to the pool after the wait before retry */
+    private ScheduledExecutorService retryScheduler;
+
+    /** The event that failed and waits for its next attempt, only set by the drainer */
+    private volatile AbstractCacheEvent<?> retryEvent;
+
+    /** Failed attempts of the retry event */
+    private int retryFailures;
+
+    /** The waiting events */
+    private volatile MpscRingBuffer<AbstractCacheEvent<?>> ring = new MpscRingBuffer<>( DEFAULT_CAPACITY );
+
+    /** Set while a drainer is scheduled or running */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /** Maximum number of waiting events of this queue, 0 means unbounded */
+    private int maxQueueSize;
+
+    /** What to do when the queue is full */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    /** How long producers wait for room */
+    private Duration blockTimeout = Duration.ofSeconds( 1 );
+
+    /** Number of events dropped or rejected because the queue was full */
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * Constructor for the RingBufferCacheEventQueue object
+     *
+     * @param listener
+     * @param listenerId
+     * @param cacheName
+     * @param maxFailure
+     * @param waitBeforeRetry
+     * @param threadPoolName the shared pool of drainers, null for the default
+     */
+    public RingBufferCacheEventQueue( final ICacheListener<K, V> listener, final long listenerId, final String cacheName,
+                                      final int maxFailure, final int waitBeforeRetry, final String threadPoolName )
+    {
+        initialize( listener, listenerId, cacheName, maxFailure, waitBeforeRetry );
+        pool = ThreadPoolManager.getInstance().getExecutorService(
+                threadPoolName == null ? DEFAULT_THREAD_POOL_NAME : threadPoolName );
+        retryScheduler = ThreadPoolManager.getInstance().getSchedulerPool( RETRY_SCHEDULER_NAME );
+    }
+
+    /**
+     * Waits for the waiting events to be processed, then stops the queue. The shared pool keeps
+     * running.
+     *
+     * @param wait time to wait for the queue to drain
+     */
+    @Override
+    public synchronized void destroy( final Duration wait )
+    {
+        if ( isWorking() )
+        {
+            final long deadline = System.nanoTime() + wait.toNanos();
+            while ( !isEmpty() && deadline - System.nanoTime() > 0 )
+            {
+                LockSupport.parkNanos( TimeUnit.MILLISECONDS.toNanos( 10 ) );
+            }
+            if ( !isEmpty() )
+            {
+                log.info( "No longer waiting for event queue to finish: {0}", this::getStatistics );
+            }
+
+            setWorking( false );
+            log.info( "Cache event queue destroyed: {0}", this );
+        }
+    }
+
+    /**
+     * @return The queue type
+     */
+    @Override
+    public QueueType getQueueType()
+    {
+        return QueueType.RING;
+    }
+
+    /**
+     * @return IStats
+     */
+    @Override
+    public IStats getStatistics()
+    {
+        final IStats stats = new Stats( "Ring Buffer Cache Event Queue" );
+
+        stats.addStatElement( "Working", Boolean.valueOf( isWorking() ) );
+        stats.addStatElement( "Max Batch Size", Integer.valueOf( getMaxBatchSize() ) );
+        stats.addStatElement( "Empty", Boolean.valueOf( isEmpty() ) );
+        stats.addStatElement( "Queue Size", Integer.valueOf( size() ) );
+        stats.addStatElement( "Queue Capacity", Integer.valueOf( ring.capacity() - size() ) );
+        stats.addStatElement( "Dropped Events", Long.valueOf( getDroppedCount() ) );
+
+        return stats;
+    }
+
+    /**
+     * @return whether there are no waiting events
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return ring.isEmpty() && retryEvent == null;
+    }
+
+    /**
+     * @return the number of waiting events, including one waiting for its retry
+     */
+    @Override
+    public int size()
+    {
+        return ring.size() + ( retryEvent == null ? 0 : 1 );
+    }
+
+    /**
+     * Adds an event to the ring and makes sure a drainer is scheduled.
+     *
+     * @param event
+     * @throws EventQueueFullException if the policy is FAIL and the queue is full
+     */
+    @Override
+    protected void put( final AbstractCacheEvent<?> event )
+        throws IOException
+    {
+        if ( !isWorking() )
+        {
+            log.debug( "Queue is not working, dropping {0}", event );
+            return;
+        }
+
+        final MpscRingBuffer<AbstractCacheEvent<?>> r = ring;
+        if ( !r.offer( event ) && !waitForRoom( r, event ) )
+        {
+            return;
+        }
+
+        schedule();
+    }
+
+    /**
+     * Waits until the event fits in the ring. Only puts to a bounded queue give up after the block
+     * timeout, everything else waits until the queue stops working.
+     *
+     * @param r the ring
+     * @param event the new event
+     * @return false if the event was dropped
+     * @throws EventQueueFullException if the policy is FAIL and the queue is bounded
+     */
+    private boolean waitForRoom( final MpscRingBuffer<AbstractCacheEvent<?>> r, final AbstractCacheEvent<?> event )
+        throws EventQueueFullException
+    {
+        if ( maxQueueSize > 0 && overflowPolicy == OverflowPolicy.FAIL )
+        {
+            droppedCount.incrementAndGet();
+            throw new EventQueueFullException( "Event queue is full (" + r.capacity()
+                    + " events), rejecting " + event + " for " + this );
+        }
+
+        final boolean timed = maxQueueSize > 0 && !isRemove( event );
+        final long deadline = System.nanoTime() + blockTimeout.toNanos();
+        do
+        {
+            // the drainer may have stopped between two offers
+            schedule();
+
+            if ( !isWorking() || timed && deadline - System.nanoTime() <= 0 || Thread.currentThread().isInterrupted() )
+            {
+                droppedCount.incrementAndGet();
+                log.warn( "No room in the event queue, dropping {0}", event );
+                return false;
+            }
+            LockSupport.parkNanos( PARK_NANOS );
+        }
+        while ( !r.offer( event ) );
+
+        return true;
+    }
+
+    /**
+     * @param event the event
+     * @return true for the events that remove elements at the listener
+     */
+    private boolean isRemove( final AbstractCacheEvent<?> event )
+    {
+        return event instanceof AbstractCacheEventQueue<?, ?>.RemoveEvent
+            || event instanceof AbstractCacheEventQueue<?, ?>.RemoveMultipleEvent
+            || event instanceof AbstractCacheEventQueue<?, ?>.RemoveAllEvent;
+    }
+
+    /**
+     * Hands a drainer to the pool unless one is scheduled already.
+     */
+    private void schedule()
+    {
+        if ( scheduled.compareAndSet( false, true ) )
+        {
+            try
+            {
+                pool.execute( this::drain );
+            }
+            catch ( final RejectedExecutionException e )
+            {
+                scheduled.set( false );
+                log.error( "Drainer rejected for {0}", this, e );
+            }
+        }
+    }
+
+    /**
+     * Processes waiting events in order. Only one drainer runs at a time for this queue. If an
+     * event fails, the drainer stops and schedules its retry instead of waiting.
+     */
+    private void drain()
+    {
+        final MpscRingBuffer<AbstractCacheEvent<?>> r = ring;
+        try
+        {
+            for ( int i = 0; i < DRAIN_BATCH; i++ )
+            {
+                AbstractCacheEvent<?> event = retryEvent;
+                retryEvent = null;
+                if ( event == null )
+                {
+                    final AbstractCacheEvent<?> next = r.poll();
+                    if ( next == null )
+                    {
+                        break;
+                    }
+                    taken( next );
+                    event = next.batch();
+                    retryFailures = 0;
+                }
+
+                if ( !isWorking() || event.attempt() )
+                {
+                    continue;
+                }
+
+                if ( ++retryFailures < getMaxFailure() )
+                {
+                    retryEvent = event;
+                    scheduleRetry();
+                    return;
+                }
+                log.warn( "Dropping Event {0}.", event );
+            }
+        }
+        catch ( final RuntimeException e )
+        {
+            log.error( "Error while draining {0}", this, e );
+        }
+        finally
+        {
+            if ( retryEvent == null )
+            {
+                scheduled.set( false );
+            }
+        }
+
+        // an event may have come in after the last poll, or the batch was used up
+        if ( !r.isEmpty() )
+        {
+            schedule();
+        }
+    }
+
+    /**
+     * Hands the drainer back to the pool after the wait before retry. The queue stays scheduled
+     * meanwhile, so no other drainer starts.
+     */
+    private void scheduleRetry()
+    {
+        try
+        {
+            retryScheduler.schedule( this::resume, getWaitBeforeRetry().toMillis(), TimeUnit.MILLISECONDS );
+        }
+        catch ( final RejectedExecutionException e )
+        {
+            // the next event schedules a drainer, which picks up the retry event
+            scheduled.set( false );
+            log.error( "Retry rejected for {0}", this, e );
+        }
+    }
+
+    /**
+     * Continues draining after a retry delay.
+     */
+    private void resume()
+    {
+        try
+        {
+            pool.execute( this::drain );
+        }
+        catch ( final RejectedExecutionException e )
+        {
+            scheduled.set( false );
+            log.error( "Drainer rejected for {0}", this, e );
+        }
+    }
+
+    /**
+     * Takes the events of the same class that wait directly behind the given event. Only the
+     * drainer calls this, so it is the single consumer of the ring.
+     *
+     * @param first the event that is currently processed
+     * @return the events that were taken off the queue, in queue order
+     */
+    @Override
+    protected List<AbstractCacheEvent<?>> pollFollowing( final AbstractCacheEvent<?> first )
+    {
+        if ( getMaxBatchSize() <= 1 )
+        {
+            return Collections.emptyList();
+        }
+
+        final MpscRingBuffer<AbstractCacheEvent<?>> r = ring;
+        final List<AbstractCacheEvent<?>> events = new ArrayList<>();
+        while ( events.size() < getMaxBatchSize() - 1 )
+        {
+            final AbstractCacheEvent<?> next = r.peek();
+            if ( next == null || next.getClass() != first.getClass() )
+            {
+                break;
+            }
+            events.add( r.poll() );
+        }
+
+        return events;
+    }
+
+    /**
+     * @return the maximum number of waiting events, 0 means unbounded
+     */
+    public int getMaxQueueSize()
+    {
+        return maxQueueSize;
+    }
+
+    /**
+     * Sets the maximum number of waiting events. The ring is sized to the next power of two. It
+     * must be set before events are added.
+     *
+     * @param maxQueueSize 0 or less uses a ring of 1024 events
+     */
+    public void setMaxQueueSize( final int maxQueueSize )
+    {
+        this.maxQueueSize = Math.max( 0, maxQueueSize );
+        this.ring = new MpscRingBuffer<>( this.maxQueueSize > 0 ? this.maxQueueSize : DEFAULT_CAPACITY );
+    }
+
+    /**
+     * @return what to do when the queue is full
+     */
+    public OverflowPolicy getOverflowPolicy()
+    {
+        return overflowPolicy;
+    }
+
+    /**
+     * @param overflowPolicy FAIL rejects new events at once if a bounded queue is full, anything
+     *        else waits for room
+     */
+    public void setOverflowPolicy( final OverflowPolicy overflowPolicy )
+    {
+        this.overflowPolicy = overflowPolicy == null ? OverflowPolicy.BLOCK : overflowPolicy;
+    }
+
+    /**
+     * @return how long producers wait for room
+     */
+    public Duration getBlockTimeout()
+    {
+        return blockTimeout;
+    }
+
+    /**
+     * @param blockTimeout how long producers of puts to a bounded queue wait for room before
+     *        dropping the new event
+     */
+    public void setBlockTimeout( final Duration blockTimeout )
+    {
+        this.blockTimeout = blockTimeout == null ? Duration.ZERO : blockTimeout;
+    }
+
+    /**
+     * @return the number of events dropped or rejected because the queue was full
+     */
+    public long getDroppedCount()
+    {
+        return droppedCount.get();
+    }
+}
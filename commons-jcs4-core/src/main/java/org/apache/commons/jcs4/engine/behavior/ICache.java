@@ -20,6 +20,7 @@ package org.apache.commons.jcs4.engine.behavior;
  */
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -119,6 +120,23 @@ public interface ICache<K, V>
     boolean remove( K key )
         throws IOException;
 
+    /**
+     * Removes several items from the cache. The default implementation removes them one by one.
+     * Caches that can remove the items in one operation, e.g. in one network round trip, should
+     * override this.
+     *
+     * @param keys
+     * @throws IOException
+     */
+    default void removeMultiple( final Set<K> keys )
+        throws IOException
+    {
+        for (final K key : keys)
+        {
+            remove( key );
+        }
+    }
+
     /**
      * Removes all cached items from the cache.
      *
@@ -142,4 +160,21 @@ public interface ICache<K, V>
      */
     void update( ICacheElement<K, V> element )
         throws IOException;
+
+    /**
+     * Puts several items to the cache. The default implementation puts them one by one. Caches
+     * that can store the items in one operation, e.g. in one network round trip, should override
+     * this.
+     *
+     * @param elements
+     * @throws IOException
+     */
+    default void updateMultiple( final List<ICacheElement<K, V>> elements )
+        throws IOException
+    {
+        for (final ICacheElement<K, V> element : elements)
+        {
+            update( element );
+        }
+    }
 }
@@ -36,7 +36,29 @@ public interface ICacheEventQueue<K, V>
         SINGLE,
 
         /** Uses a thread pool. */
-        POOLED
+        POOLED,
+
+        /** Uses a lock free ring buffer, drained by a thread pool shared by all queues. */
+        RING
+    }
+
+    /** What a bounded queue does with a new event when it is full */
+    enum OverflowPolicy
+    {
+        /** Drop the oldest waiting put or remove event to make room. */
+        DROP_OLDEST,
+
+        /**
+         * When the queue is full, replace a waiting put or remove event for the same key, or drop
+         * the oldest one if there is none.
+         */
+        COALESCE,
+
+        /** Wait for room up to the block timeout, then drop the new event. */
+        BLOCK,
+
+        /** Reject the new event with an {@link java.io.IOException}. */
+        FAIL
     }
 
     /**
@@ -20,6 +20,8 @@ package org.apache.commons.jcs4.engine.behavior;
  */
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Used to receive a cache event notification.
@@ -56,6 +58,22 @@ public interface ICacheListener<K, V>
     void handlePut( ICacheElement<K, V> item )
         throws IOException;
 
+    /**
+     * Notifies the subscribers for several cache entry updates. Used by event queues that
+     * coalesce pending put events. The default implementation calls handlePut for each item.
+     *
+     * @param items
+     * @throws IOException
+     */
+    default void handlePutMultiple( final List<ICacheElement<K, V>> items )
+        throws IOException
+    {
+        for (final ICacheElement<K, V> item : items)
+        {
+            handlePut( item );
+        }
+    }
+
     /**
      * Notifies the subscribers for a cache entry removal.
      *
@@ -66,6 +84,23 @@ public interface ICacheListener<K, V>
     void handleRemove( String cacheName, K key )
         throws IOException;
 
+    /**
+     * Notifies the subscribers for several cache entry removals. Used by event queues that
+     * coalesce pending remove events. The default implementation calls handleRemove for each key.
+     *
+     * @param cacheName
+     * @param keys
+     * @throws IOException
+     */
+    default void handleRemoveMultiple( final String cacheName, final Set<K> keys )
+        throws IOException
+    {
+        for (final K key : keys)
+        {
+            handleRemove( cacheName, key );
+        }
+    }
+
     /**
      * Notifies the subscribers for a cache remove-all.
      *
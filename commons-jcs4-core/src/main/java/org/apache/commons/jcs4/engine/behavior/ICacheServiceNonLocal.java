@@ -21,6 +21,7 @@ package org.apache.commons.jcs4.engine.behavior;
 
 import java.io.IOException;
 import java.rmi.Remote;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -96,6 +97,26 @@ public interface ICacheServiceNonLocal<K, V>
     void remove( String cacheName, K key, long requesterId )
         throws IOException;
 
+    /**
+     * Removes the given keys from the specified cache in one call.
+     * <p>
+     * The default implementation removes the keys one by one. Implementations that talk to
+     * another process should override this to send all keys in a single request.
+     *
+     * @param cacheName
+     * @param keys
+     * @param requesterId
+     * @throws IOException
+     */
+    default void removeMultiple( final String cacheName, final Set<K> keys, final long requesterId )
+        throws IOException
+    {
+        for (final K key : keys)
+        {
+            remove( cacheName, key, requesterId );
+        }
+    }
+
     /**
      * Remove all keys from the specified cache.
      *
@@ -115,4 +136,23 @@ public interface ICacheServiceNonLocal<K, V>
      */
     void update( ICacheElement<K, V> item, long requesterId )
         throws IOException;
+
+    /**
+     * Puts several cache items to the cache in one call. All items must belong to the same region.
+     * <p>
+     * The default implementation puts the items one by one. Implementations that talk to another
+     * process should override this to send all items in a single request.
+     *
+     * @param items
+     * @param requesterId
+     * @throws IOException
+     */
+    default void updateMultiple( final List<ICacheElement<K, V>> items, final long requesterId )
+        throws IOException
+    {
+        for (final ICacheElement<K, V> item : items)
+        {
+            update( item, requesterId );
+        }
+    }
 }
@@ -98,6 +98,21 @@ public interface ICompositeCacheAttributes
      */
     int SpoolChunkSize();
 
+    /**
+     * Tests whether getMatching should use an ordered index of the memory keys instead of
+     * matching every key.
+     *
+     * @return The UseKeyIndex value
+     */
+    boolean UseKeyIndex();
+
+    /**
+     * Gets the number of keys the hot key tracker of the region keeps. 0 turns the tracker off.
+     *
+     * @return The HotKeysCapacity value
+     */
+    int HotKeysCapacity();
+
     /**
      * Tests whether the memory cache should perform background memory shrinkage.
      *
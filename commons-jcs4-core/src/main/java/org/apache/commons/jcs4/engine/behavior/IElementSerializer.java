@@ -33,12 +33,93 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import org.apache.commons.jcs4.engine.stats.Stats;
+import org.apache.commons.jcs4.engine.stats.behavior.IStats;
+import org.apache.commons.jcs4.io.BoundedChannelInputStream;
+import org.apache.commons.jcs4.io.PooledByteBufferOutputStream;
+
 /**
  * Defines the behavior for cache element serializers. This layer of abstraction allows us to plug
  * in different serialization mechanisms, such as a compressing standard serializer.
+ * <p>
+ * The channel and stream methods serialize into pooled chunks with {@link #serializeInto(Object,
+ * OutputStream)} and deserialize incrementally with {@link #deSerializeStream(InputStream,
+ * ClassLoader)}. Serializers that can encode to and decode from a stream override these two
+ * methods, so that large values never need a contiguous array.
  */
 public interface IElementSerializer
 {
+    /**
+     * Wraps an asynchronous channel so that each read waits at most the timeout.
+     *
+     * @param ic the asynchronous channel
+     * @param readTimeoutMs the read timeout in milliseconds
+     * @return a blocking channel, closing it does nothing
+     */
+    private static ReadableByteChannel blocking( final AsynchronousByteChannel ic, final long readTimeoutMs )
+    {
+        return new ReadableByteChannel()
+        {
+            @Override
+            public void close()
+            {
+                // the caller owns the channel
+            }
+
+            @Override
+            public boolean isOpen()
+            {
+                return ic.isOpen();
+            }
+
+            @Override
+            public int read( final ByteBuffer dst )
+                throws IOException
+            {
+                try
+                {
+                    return ic.read( dst ).get( readTimeoutMs, TimeUnit.MILLISECONDS );
+                }
+                catch ( final InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    throw new IOException( "Interrupted while reading", e );
+                }
+                catch ( final ExecutionException | TimeoutException e )
+                {
+                    throw new IOException( "Read timeout exceeded " + readTimeoutMs, e );
+                }
+            }
+        };
+    }
+
+    /**
+     * Reads the four-byte length prefix.
+     *
+     * @param ic the channel
+     * @return the length of the serialized object
+     * @throws IOException if the channel ends or the length is negative
+     */
+    private static int readLength( final ReadableByteChannel ic )
+        throws IOException
+    {
+        final ByteBuffer length = ByteBuffer.allocate( 4 );
+        while ( length.hasRemaining() )
+        {
+            if ( ic.read( length ) < 0 )
+            {
+                throw new EOFException( "End of stream reached (length)" );
+            }
+        }
+        length.flip();
+        final int value = length.getInt();
+        if ( value < 0 )
+        {
+            throw new IOException( "Unexpected data size (length) " + value );
+        }
+        return value;
+    }
+
     /**
      * Turns a byte array into an object.
      *
@@ -68,56 +149,7 @@ public interface IElementSerializer
     default <T> T deSerializeFrom(final AsynchronousByteChannel ic, final long readTimeoutMs, final ClassLoader loader)
         throws IOException, ClassNotFoundException
     {
-        final ByteBuffer bufferSize = ByteBuffer.allocate(4);
-        Future<Integer> readFuture = ic.read(bufferSize);
-
-        try
-        {
-            final int read = readFuture.get(readTimeoutMs, TimeUnit.MILLISECONDS);
-            if (read < 0)
-            {
-                throw new EOFException("End of stream reached (length)");
-            }
-            if (read != bufferSize.capacity())
-            {
-                throw new IOException("Unexpected data size (length) " + read);
-            }
-        }
-        catch (InterruptedException | ExecutionException | TimeoutException e)
-        {
-            throw new IOException("Read timeout exceeded (length) " + readTimeoutMs, e);
-        }
-
-        bufferSize.flip();
-
-        final ByteBuffer serialized = ByteBuffer.allocate(bufferSize.getInt());
-        int totalRead = 0;
-        while (serialized.remaining() > 0)
-        {
-            readFuture = ic.read(serialized);
-            try
-            {
-                final int read = readFuture.get(readTimeoutMs, TimeUnit.MILLISECONDS);
-                if (read < 0)
-                {
-                    throw new EOFException("End of stream reached (object)");
-                }
-                totalRead += read;
-            }
-            catch (InterruptedException | ExecutionException | TimeoutException e)
-            {
-                throw new IOException("Read timeout exceeded (object) " + readTimeoutMs, e);
-            }
-        }
-
-        if (totalRead != serialized.capacity())
-        {
-            throw new IOException("Unexpected data size (object) " + totalRead);
-        }
-
-        serialized.flip();
-
-        return deSerialize(serialized.array(), loader);
+        return deSerializeFrom(blocking(ic, readTimeoutMs), loader);
     }
 
     /**
@@ -141,7 +173,8 @@ public interface IElementSerializer
     /**
      * Convenience method to read serialized object from a channel.
      * The method expects to find a four-byte length prefix in the
-     * stream data.
+     * stream data. The object is decoded while it is read, and the
+     * channel is left positioned after it.
      *
      * @param <T> The type of the object
      * @param ic The input channel
@@ -153,34 +186,48 @@ public interface IElementSerializer
     default <T> T deSerializeFrom(final ReadableByteChannel ic, final ClassLoader loader)
         throws IOException, ClassNotFoundException
     {
-        final ByteBuffer bufferSize = ByteBuffer.allocate(4);
-        int read = ic.read(bufferSize);
-        if (read < 0)
+        final int length = readLength(ic);
+        try (BoundedChannelInputStream is = new BoundedChannelInputStream(ic, length))
         {
-            throw new EOFException("End of stream reached (length)");
+            final T obj = deSerializeStream(is, loader);
+            is.skipRemaining();
+            return obj;
         }
-        if (read != bufferSize.capacity())
-        {
-            throw new IOException("Unexpected data size (length) " + read);
-        }
-        bufferSize.flip();
+    }
 
-        final ByteBuffer serialized = ByteBuffer.allocate(bufferSize.getInt());
-        while (serialized.remaining() > 0)
-        {
-            read = ic.read(serialized);
-            if (read < 0)
-            {
-                throw new EOFException("End of stream reached (object)");
-            }
-            if (read != serialized.capacity())
-            {
-                throw new IOException("Unexpected data size (object) " + read);
-            }
-        }
-        serialized.flip();
+    /**
+     * Reads an object from a stream that contains exactly the data of
+     * one serialized object, without a length prefix.
+     * <p>
+     * The default implementation reads the whole stream into an array.
+     * The stream is not closed.
+     *
+     * @param <T> The type of the object
+     * @param is The input stream
+     * @param loader class loader to use
+     * @return the object
+     * @throws IOException Thrown if de-serialization fails
+     * @throws ClassNotFoundException thrown if we don't know the object.
+     * @since 4.0
+     */
+    default <T> T deSerializeStream(final InputStream is, final ClassLoader loader)
+        throws IOException, ClassNotFoundException
+    {
+        return deSerialize(is.readAllBytes(), loader);
+    }
 
-        return deSerialize(serialized.array(), loader);
+    /**
+     * Returns statistics about the work of the serializer, for the
+     * statistics of the caches that use it.
+     * <p>
+     * The default implementation returns no statistics.
+     *
+     * @return the statistics
+     * @since 4.0
+     */
+    default IStats getStatistics()
+    {
+        return new Stats(getClass().getSimpleName());
     }
 
     /**
@@ -194,6 +241,26 @@ public interface IElementSerializer
     <T> byte[] serialize( T obj )
         throws IOException;
 
+    /**
+     * Writes the serialized object to a stream, without a length
+     * prefix. The result can be read with
+     * {@link #deSerializeStream(InputStream, ClassLoader)}.
+     * <p>
+     * The default implementation writes the result of
+     * {@link #serialize(Object)}. The stream is not closed.
+     *
+     * @param <T> The type of the object
+     * @param obj The object to serialize
+     * @param os The output stream
+     * @throws IOException Thrown if serialization or writing fails
+     * @since 4.0
+     */
+    default <T> void serializeInto(final T obj, final OutputStream os)
+        throws IOException
+    {
+        os.write(serialize(obj));
+    }
+
     /**
      * Convenience method to write serialized object into an
      * asynchronous channel.
@@ -210,27 +277,39 @@ public interface IElementSerializer
     default <T> int serializeTo(final T obj, final AsynchronousByteChannel oc, final long writeTimeoutMs)
         throws IOException
     {
-        final byte[] serialized = serialize(obj);
-        final ByteBuffer buffer = ByteBuffer.allocate(4 + serialized.length);
-        buffer.putInt(serialized.length);
-        buffer.put(serialized);
-        buffer.flip();
-
-        int count = 0;
-        while (buffer.hasRemaining())
+        final PooledByteBufferOutputStream out = new PooledByteBufferOutputStream();
+        try
         {
-            final Future<Integer> bytesWritten = oc.write(buffer);
-            try
-            {
-                count += bytesWritten.get(writeTimeoutMs, TimeUnit.MILLISECONDS);
-            }
-            catch (InterruptedException | ExecutionException | TimeoutException e)
+            serializeInto(obj, out);
+
+            final ByteBuffer[] data = out.getBuffers();
+            final ByteBuffer[] buffers = new ByteBuffer[data.length + 1];
+            buffers[0] = ByteBuffer.allocate(4).putInt(out.size()).flip();
+            System.arraycopy(data, 0, buffers, 1, data.length);
+
+            int count = 0;
+            for (final ByteBuffer buffer : buffers)
             {
-                throw new IOException("Write timeout exceeded " + writeTimeoutMs, e);
+                while (buffer.hasRemaining())
+                {
+                    final Future<Integer> bytesWritten = oc.write(buffer);
+                    try
+                    {
+                        count += bytesWritten.get(writeTimeoutMs, TimeUnit.MILLISECONDS);
+                    }
+                    catch (InterruptedException | ExecutionException | TimeoutException e)
+                    {
+                        throw new IOException("Write timeout exceeded " + writeTimeoutMs, e);
+                    }
+                }
             }
-        }
 
-        return count;
+            return count;
+        }
+        finally
+        {
+            out.release();
+        }
     }
 
     /**
@@ -247,19 +326,14 @@ public interface IElementSerializer
     default <T> int serializeTo(final T obj, final OutputStream os)
         throws IOException
     {
-        final byte[] serialized = serialize(obj);
-        final ByteBuffer buffer = ByteBuffer.allocate(4 + serialized.length);
-        buffer.putInt(serialized.length);
-        buffer.put(serialized);
-        buffer.flip();
-
-        os.write(buffer.array());
-        return buffer.capacity();
+        return serializeTo(obj, Channels.newChannel(os));
     }
 
     /**
      * Convenience method to write serialized object into a channel.
      * The stream data will be prepended with a four-byte length prefix.
+     * The object is serialized into pooled chunks which are written
+     * with a gathering write where the channel supports it.
      *
      * @param <T> The type of the object
      * @param obj The object to serialize
@@ -271,17 +345,15 @@ public interface IElementSerializer
     default <T> int serializeTo(final T obj, final WritableByteChannel oc)
         throws IOException
     {
-        final byte[] serialized = serialize(obj);
-        final ByteBuffer buffer = ByteBuffer.allocate(4 + serialized.length);
-        buffer.putInt(serialized.length);
-        buffer.put(serialized);
-        buffer.flip();
-
-        int count = 0;
-        while (buffer.hasRemaining())
+        final PooledByteBufferOutputStream out = new PooledByteBufferOutputStream();
+        try
+        {
+            serializeInto(obj, out);
+            return (int) out.writeTo(oc, ByteBuffer.allocate(4).putInt(out.size()).flip());
+        }
+        finally
         {
-            count += oc.write(buffer);
+            out.release();
         }
-        return count;
     }
 }
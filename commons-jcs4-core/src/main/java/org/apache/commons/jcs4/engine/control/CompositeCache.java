@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -42,6 +43,7 @@ import java.util.stream.Stream;
 
 import org.apache.commons.jcs4.access.exception.CacheException;
 import org.apache.commons.jcs4.auxiliary.AuxiliaryCache;
+import org.apache.commons.jcs4.auxiliary.AuxiliaryCacheAttributes;
 import org.apache.commons.jcs4.engine.CacheStatus;
 import org.apache.commons.jcs4.engine.behavior.ICache;
 import org.apache.commons.jcs4.engine.behavior.ICacheElement;
@@ -54,14 +56,24 @@ import org.apache.commons.jcs4.engine.control.event.behavior.ElementEventType;
 import org.apache.commons.jcs4.engine.control.event.behavior.IElementEvent;
 import org.apache.commons.jcs4.engine.control.event.behavior.IElementEventHandler;
 import org.apache.commons.jcs4.engine.control.event.behavior.IElementEventQueue;
+import org.apache.commons.jcs4.engine.control.group.GroupAttrName;
 import org.apache.commons.jcs4.engine.control.group.GroupId;
+import org.apache.commons.jcs4.engine.control.group.GroupIndex;
+import org.apache.commons.jcs4.engine.match.KeyIndex;
 import org.apache.commons.jcs4.engine.match.KeyMatcherPatternImpl;
 import org.apache.commons.jcs4.engine.match.behavior.IKeyMatcher;
+import org.apache.commons.jcs4.engine.memory.behavior.IElementSizer;
 import org.apache.commons.jcs4.engine.memory.behavior.IMemoryCache;
 import org.apache.commons.jcs4.engine.memory.lru.LRUMemoryCache;
 import org.apache.commons.jcs4.engine.memory.shrinking.ShrinkerThread;
+import org.apache.commons.jcs4.engine.memory.util.SerializedElementSizer;
+import org.apache.commons.jcs4.engine.stats.CacheMetrics;
+import org.apache.commons.jcs4.engine.stats.CacheMetrics.Operation;
 import org.apache.commons.jcs4.engine.stats.CacheStats;
+import org.apache.commons.jcs4.engine.stats.HotKeys;
 import org.apache.commons.jcs4.engine.stats.behavior.ICacheStats;
+import org.apache.commons.jcs4.engine.trace.CacheTraceOperation;
+import org.apache.commons.jcs4.engine.trace.behavior.ICacheTraceRecorder;
 import org.apache.commons.jcs4.log.Log;
 
 /**
@@ -124,6 +136,24 @@ public class CompositeCache<K, V>
     /** Key matcher used by the getMatching API */
     private IKeyMatcher<K> keyMatcher = new KeyMatcherPatternImpl<>();
 
+    /** Estimates the size of the elements in the memory cache */
+    private IElementSizer elementSizer = new SerializedElementSizer();
+
+    /** Ordered index of the memory keys for getMatching, null if UseKeyIndex is off */
+    private final KeyIndex<K> keyIndex;
+
+    /** Members of each group held locally, null until the region is used for groups */
+    private volatile GroupIndex<K> groupIndex;
+
+    /** Latencies and counters, null unless metrics are enabled; replaced on reconfiguration */
+    private volatile CacheMetrics metrics;
+
+    /** Sampled most requested and largest keys, null if HotKeysCapacity is 0 */
+    private final HotKeys<K> hotKeys;
+
+    /** Records the operations for a later replay, null unless configured */
+    private ICacheTraceRecorder traceRecorder;
+
     private ScheduledFuture<?> future;
 
     /**
@@ -143,6 +173,9 @@ public class CompositeCache<K, V>
         this.hitCountAux = new AtomicLong();
         this.missCountNotFound = new AtomicLong();
         this.missCountExpired = new AtomicLong();
+        this.keyIndex = cattr.UseKeyIndex() ? new KeyIndex<>() : null;
+        this.hotKeys = cattr.HotKeysCapacity() > 0
+                ? new HotKeys<>(cattr.HotKeysCapacity(), HotKeys.DEFAULT_SAMPLE_RATE) : null;
 
         createMemoryCache(cattr);
 
@@ -163,6 +196,7 @@ public class CompositeCache<K, V>
         if (memCache.getCacheAttributes().MaxObjects() > 0)
         {
             memCache.update(element);
+            index(element.key());
         }
         else
         {
@@ -310,6 +344,18 @@ public class CompositeCache<K, V>
         {
             log.error("Failure disposing of memCache", ex);
         }
+
+        if (traceRecorder != null)
+        {
+            try
+            {
+                traceRecorder.close();
+            }
+            catch (final IOException ex)
+            {
+                log.error("Failure closing the trace recorder", ex);
+            }
+        }
     }
 
     protected void doExpires(final ICacheElement<K, V> element)
@@ -344,6 +390,11 @@ public class CompositeCache<K, V>
      */
     protected ICacheElement<K, V> get(final K key, final boolean localOnly)
     {
+        final long start = startTimer();
+        if (hotKeys != null)
+        {
+            hotKeys.recordRequest(key);
+        }
         ICacheElement<K, V> element = null;
 
         boolean found = false;
@@ -391,7 +442,7 @@ public class CompositeCache<K, V>
 
                         try
                         {
-                            element = aux.get(key);
+                            element = getFromAuxiliary(aux, key);
                         }
                         catch (final IOException e)
                         {
@@ -443,6 +494,9 @@ public class CompositeCache<K, V>
             missCountNotFound.incrementAndGet();
 
             log.debug("{0} - Miss", this.cacheAttr::cacheName);
+
+            // an auxiliary may have dropped it on its own
+            ungroup(key);
         }
 
         if (element != null)
@@ -450,6 +504,25 @@ public class CompositeCache<K, V>
             element.elementAttributes().setLastAccessTimeNow();
         }
 
+        recordTrace(element != null ? CacheTraceOperation.GET_HIT : CacheTraceOperation.GET_MISS, key, -1);
+        recordLatency(Operation.GET, start);
+        return element;
+    }
+
+    /**
+     * Gets an item from an auxiliary, timing it if metrics are enabled.
+     *
+     * @param aux the auxiliary
+     * @param key the key
+     * @return the element or null
+     * @throws IOException
+     */
+    private ICacheElement<K, V> getFromAuxiliary(final AuxiliaryCache<K, V> aux, final K key)
+        throws IOException
+    {
+        final long start = startTimer();
+        final ICacheElement<K, V> element = aux.get(key);
+        recordLatency(aux, Operation.GET, start);
         return element;
     }
 
@@ -525,6 +598,60 @@ public class CompositeCache<K, V>
         return ce.elementAttributes();
     }
 
+    /**
+     * Gets the groups of the region. With a group index, only the remote and lateral auxiliaries
+     * are asked for their keys.
+     *
+     * @return the groups that have members
+     * @since 4.0
+     */
+    public Set<GroupId> getGroupIds()
+    {
+        final GroupIndex<K> index = groupIndex;
+        final Stream<K> keys = index == null ? getKeySet().stream() : getKeysOfRemoteAuxiliaries();
+        final Set<GroupId> groupIds = keys
+                .filter(key -> key instanceof GroupAttrName)
+                .map(key -> ((GroupAttrName<?>) key).groupId())
+                .collect(Collectors.toSet());
+        if (index != null)
+        {
+            groupIds.addAll(index.getGroupIds());
+        }
+        return groupIds;
+    }
+
+    /**
+     * Gets the members of a group. With a group index, only the remote and lateral auxiliaries are
+     * asked for their keys.
+     *
+     * @param groupId the group
+     * @return the keys of the group members
+     * @since 4.0
+     */
+    public Set<K> getGroupMembers(final GroupId groupId)
+    {
+        final GroupIndex<K> index = groupIndex;
+        final Stream<K> keys = index == null ? getKeySet().stream() : getKeysOfRemoteAuxiliaries();
+        final Set<K> members = keys
+                .filter(key -> key instanceof GroupAttrName<?> gan && gan.groupId().equals(groupId))
+                .collect(Collectors.toSet());
+        if (index != null)
+        {
+            members.addAll(index.getMembers(groupId));
+        }
+        return members;
+    }
+
+    /**
+     * @return the sampled most requested and largest keys of the region, null if HotKeysCapacity
+     *         is 0
+     * @since 4.0
+     */
+    public HotKeys<K> getHotKeys()
+    {
+        return hotKeys;
+    }
+
     /**
      * Number of times a requested item was found in and auxiliary cache.
      * @return number of auxiliary hits.
@@ -544,6 +671,24 @@ public class CompositeCache<K, V>
         return hitCountRam.get();
     }
 
+    /**
+     * @return the sizer used by the memory cache for the byte count
+     * @since 4.0
+     */
+    public IElementSizer getElementSizer()
+    {
+        return elementSizer;
+    }
+
+    /**
+     * @return the recorder of the operations on this region, null if none
+     * @since 4.0
+     */
+    public ICacheTraceRecorder getTraceRecorder()
+    {
+        return traceRecorder;
+    }
+
     /**
      * Returns the key matcher used by get matching.
      *
@@ -554,6 +699,14 @@ public class CompositeCache<K, V>
         return this.keyMatcher;
     }
 
+    /**
+     * @return the number of keys in the key index, 0 if UseKeyIndex is off
+     */
+    int getKeyIndexSize()
+    {
+        return keyIndex == null ? 0 : keyIndex.size();
+    }
+
     /**
      * Gets a set of the keys for all elements in the cache
      *
@@ -587,6 +740,25 @@ public class CompositeCache<K, V>
             .collect(Collectors.toSet());
     }
 
+    /**
+     * @return the keys of the remote and lateral auxiliaries, which the group index does not track
+     */
+    private Stream<K> getKeysOfRemoteAuxiliaries()
+    {
+        return auxCaches.stream()
+            .filter(aux -> aux.getCacheType() != CacheType.DISK_CACHE)
+            .flatMap(aux -> {
+                try
+                {
+                    return aux.getKeySet().stream();
+                }
+                catch (final IOException e)
+                {
+                    return Stream.of();
+                }
+            });
+    }
+
     /**
      * Build a map of all the matching elements in all of the auxiliaries and memory.
      *
@@ -698,13 +870,79 @@ public class CompositeCache<K, V>
     protected Map<K, ICacheElement<K, V>> getMatchingFromMemory(final String pattern)
         throws IOException
     {
-        // find matches in key array
-        // this avoids locking the memory cache, but it uses more memory
-        final Set<K> keyArray = memCache.getKeySet();
-        final Set<K> matchingKeys = getKeyMatcher().getMatchingKeysFromArray(pattern, keyArray);
+        final Set<K> matchingKeys;
+        if (keyIndex != null && getKeyMatcher().getClass() == KeyMatcherPatternImpl.class)
+        {
+            // only visits the keys under the literal prefix of the pattern
+            matchingKeys = keyIndex.getMatchingKeys(pattern);
+        }
+        else
+        {
+            // find matches in key array
+            // this avoids locking the memory cache, but it uses more memory
+            final Set<K> keyArray = memCache.getKeySet();
+            matchingKeys = getKeyMatcher().getMatchingKeysFromArray(pattern, keyArray);
+        }
 
         // call get multiple
-        return getMultipleFromMemory(matchingKeys);
+        final Map<K, ICacheElement<K, V>> elements = getMultipleFromMemory(matchingKeys);
+
+        if (keyIndex != null && elements.size() < matchingKeys.size())
+        {
+            // the shrinker removes expired elements behind our back
+            matchingKeys.stream()
+                .filter(key -> !elements.containsKey(key))
+                .forEach(this::unindex);
+        }
+
+        return elements;
+    }
+
+    /**
+     * @return the latencies and counters of the region, null unless metrics are enabled
+     * @since 4.0
+     */
+    public CacheMetrics getCacheMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * Gets the metrics of the region by name: the latencies and counters of the CacheMetrics, the
+     * number of items in memory and the queue depth of each auxiliary.
+     *
+     * @return the metrics, empty unless metrics are enabled
+     * @since 4.0
+     */
+    public Map<String, Long> getMetrics()
+    {
+        final CacheMetrics current = metrics;
+        if (current == null)
+        {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, Long> result = current.toMap();
+        result.put("size", Long.valueOf(getSize()));
+        for (final AuxiliaryCache<K, V> aux : auxCaches)
+        {
+            result.put("aux." + getAuxiliaryName(aux) + ".queueDepth", Long.valueOf(aux.getEventQueueSize()));
+        }
+        return result;
+    }
+
+    /**
+     * @param aux an auxiliary
+     * @return the name of the auxiliary in the configuration, or its type
+     */
+    private static String getAuxiliaryName(final AuxiliaryCache<?, ?> aux)
+    {
+        final AuxiliaryCacheAttributes attributes = aux.getAuxiliaryCacheAttributes();
+        if (attributes == null || attributes.getName() == null)
+        {
+            return aux.getCacheType().name();
+        }
+        return attributes.getName();
     }
 
     /**
@@ -792,6 +1030,12 @@ public class CompositeCache<K, V>
                     () -> keys.size() - elements.size());
         }
 
+        if (traceRecorder != null)
+        {
+            keys.forEach(key -> recordTrace(elements.containsKey(key)
+                    ? CacheTraceOperation.GET_HIT : CacheTraceOperation.GET_MISS, key, -1));
+        }
+
         return elements;
     }
 
@@ -967,6 +1211,23 @@ public class CompositeCache<K, V>
         }
     }
 
+    /**
+     * Adds a key to the key and group indexes after it was put into the memory cache.
+     *
+     * @param key
+     */
+    private void index(final K key)
+    {
+        if (keyIndex != null)
+        {
+            keyIndex.add(key);
+        }
+        if (groupIndex != null)
+        {
+            groupIndex.add(key);
+        }
+    }
+
     /**
      * Determine if the element is expired based on the values of the element attributes
      *
@@ -1093,6 +1354,60 @@ public class CompositeCache<K, V>
         removeAll(true);
     }
 
+    /**
+     * Removes a key from the group index after it left the region. The key is added back if another
+     * thread has put it in the meantime.
+     *
+     * @param key
+     */
+    private void ungroup(final K key)
+    {
+        if (groupIndex == null)
+        {
+            return;
+        }
+
+        groupIndex.remove(key);
+        try
+        {
+            if (memCache.getQuiet(key) != null)
+            {
+                groupIndex.add(key);
+            }
+        }
+        catch (final IOException e)
+        {
+            log.error("Problem checking the memory cache for key [{0}]", key, e);
+        }
+    }
+
+    /**
+     * Removes a key from the key index after it left the memory cache. The key is added back if
+     * another thread has put it in the meantime, so the index never misses a key in memory.
+     *
+     * @param key
+     */
+    private void unindex(final K key)
+    {
+        if (keyIndex == null)
+        {
+            return;
+        }
+
+        keyIndex.remove(key);
+        try
+        {
+            if (memCache.getQuiet(key) != null)
+            {
+                keyIndex.add(key);
+            }
+        }
+        catch (final IOException e)
+        {
+            log.error("Problem checking the memory cache for key [{0}]", key, e);
+        }
+    }
+
     /**
      * Standard update method.
      *
@@ -1169,6 +1484,52 @@ public class CompositeCache<K, V>
         return remainingKeys;
     }
 
+    /**
+     * Records the latency of an operation on the region.
+     *
+     * @param operation the operation
+     * @param start the value of startTimer() before the operation
+     */
+    private void recordLatency(final Operation operation, final long start)
+    {
+        final CacheMetrics current = metrics;
+        if (current != null)
+        {
+            current.getLatency(operation).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Passes an operation to the trace recorder, if there is one.
+     *
+     * @param operation the operation
+     * @param key the key, null for a removeAll
+     * @param size the size of the element of a put, -1 if unknown or not a put
+     */
+    private void recordTrace(final CacheTraceOperation operation, final K key, final long size)
+    {
+        if (traceRecorder != null)
+        {
+            traceRecorder.record(operation, key, size);
+        }
+    }
+
+    /**
+     * Records the latency of an operation on an auxiliary.
+     *
+     * @param aux the auxiliary
+     * @param operation the operation
+     * @param start the value of startTimer() before the operation
+     */
+    private void recordLatency(final AuxiliaryCache<K, V> aux, final Operation operation, final long start)
+    {
+        final CacheMetrics current = metrics;
+        if (current != null)
+        {
+            current.getAuxiliaryLatency(getAuxiliaryName(aux), operation).record(System.nanoTime() - start);
+        }
+    }
+
     /**
      * Removes an item from the cache.
      *
@@ -1201,6 +1562,12 @@ public class CompositeCache<K, V>
      */
     protected boolean remove(final K key, final boolean localOnly)
     {
+        if (groupIndex != null && key instanceof GroupAttrName<?> gan && gan.attrName() == null)
+        {
+            return removeGroup(gan.groupId(), key, localOnly);
+        }
+
+        final long start = startTimer();
         removeCount.incrementAndGet();
 
         boolean removed = false;
@@ -1214,8 +1581,23 @@ public class CompositeCache<K, V>
             log.error(e);
         }
 
+        if (keyIndex != null && key instanceof String s && s.endsWith(NAME_COMPONENT_DELIMITER))
+        {
+            keyIndex.getKeysWithPrefix(s).forEach(this::unindex);
+        }
+        else
+        {
+            unindex(key);
+        }
+
+        ungroup(key);
+        if (hotKeys != null)
+        {
+            hotKeys.remove(key);
+        }
+
         // Removes from all auxiliary caches.
-        for (final ICache<K, V> aux : auxCaches)
+        for (final AuxiliaryCache<K, V> aux : auxCaches)
         {
             if (aux == null)
             {
@@ -1233,7 +1615,7 @@ public class CompositeCache<K, V>
             {
                 log.debug("Removing {0} from cacheType {1}", key, cacheType);
 
-                final boolean b = aux.remove(key);
+                final boolean b = removeFromAuxiliary(aux, key);
 
                 // Don't take the remote removal into account.
                 if (!removed && cacheType != CacheType.REMOTE_CACHE)
@@ -1247,9 +1629,89 @@ public class CompositeCache<K, V>
             }
         }
 
+        recordTrace(CacheTraceOperation.REMOVE, key, -1);
+        recordLatency(Operation.REMOVE, start);
+        return removed;
+    }
+
+    /**
+     * Removes an item from an auxiliary, timing it if metrics are enabled.
+     *
+     * @param aux the auxiliary
+     * @param key the key
+     * @return true if the item was removed
+     * @throws IOException
+     */
+    private boolean removeFromAuxiliary(final AuxiliaryCache<K, V> aux, final K key)
+        throws IOException
+    {
+        final long start = startTimer();
+        final boolean removed = aux.remove(key);
+        recordLatency(aux, Operation.REMOVE, start);
         return removed;
     }
 
+    /**
+     * Removes the members of a group one by one from memory and disk, using the group index. The
+     * remote and lateral auxiliaries get the group key, that is one command for the whole group.
+     *
+     * @param groupId the group
+     * @param groupKey the key standing for the whole group
+     * @param localOnly
+     * @return true if the group had members
+     */
+    private boolean removeGroup(final GroupId groupId, final K groupKey, final boolean localOnly)
+    {
+        final long start = startTimer();
+        removeCount.incrementAndGet();
+
+        final Set<K> members = groupIndex.removeGroup(groupId);
+        log.debug("Removing {0} members of group {1}", members::size, () -> groupId);
+
+        for (final K member : members)
+        {
+            try
+            {
+                memCache.remove(member);
+            }
+            catch (final IOException e)
+            {
+                log.error(e);
+            }
+            unindex(member);
+            if (hotKeys != null)
+            {
+                hotKeys.remove(member);
+            }
+        }
+
+        for (final AuxiliaryCache<K, V> aux : auxCaches)
+        {
+            final CacheType cacheType = aux.getCacheType();
+            try
+            {
+                if (cacheType == CacheType.DISK_CACHE)
+                {
+                    for (final K member : members)
+                    {
+                        removeFromAuxiliary(aux, member);
+                    }
+                }
+                else if (!localOnly)
+                {
+                    removeFromAuxiliary(aux, groupKey);
+                }
+            }
+            catch (final IOException ex)
+            {
+                log.error("Failure removing group from aux", ex);
+            }
+        }
+
+        recordLatency(Operation.REMOVE, start);
+        return !members.isEmpty();
+    }
+
     /**
      * Clears the region. This command will be sent to all auxiliaries. Some auxiliaries, such as
      * the JDBC disk cache, can be configured to not honor removeAll requests.
@@ -1273,10 +1735,31 @@ public class CompositeCache<K, V>
     protected void removeAll(final boolean localOnly)
         throws IOException
     {
+        // the sizes would be stale
+        if (hotKeys != null)
+        {
+            hotKeys.clear();
+        }
+        recordTrace(CacheTraceOperation.REMOVE_ALL, null, -1);
+
         try
         {
             memCache.removeAll();
 
+            if (keyIndex != null || groupIndex != null)
+            {
+                if (keyIndex != null)
+                {
+                    keyIndex.clear();
+                }
+                if (groupIndex != null)
+                {
+                    groupIndex.clear();
+                }
+                // keys put while clearing
+                memCache.getKeySet().forEach(this::index);
+            }
+
             log.debug("Removed All keys from the memory cache.");
         }
         catch (final IOException ex)
@@ -1349,6 +1832,18 @@ public class CompositeCache<K, V>
                 .collect(Collectors.toCollection(CopyOnWriteArrayList::new));
     }
 
+    /**
+     * Enables the metrics of the region. The cache manager does this when jcs.metrics.enabled is
+     * true, before the region is used.
+     *
+     * @param metrics the latencies and counters, null to disable
+     * @since 4.0
+     */
+    public void setCacheMetrics(final CacheMetrics metrics)
+    {
+        this.metrics = metrics;
+    }
+
     /**
      * Sets the ICompositeCacheAttributes attribute of the Cache object.
      *
@@ -1391,6 +1886,29 @@ public class CompositeCache<K, V>
         this.elementEventQ = queue;
     }
 
+    /**
+     * Sets the sizer used by the memory cache for the byte count. Elements already in the memory
+     * cache keep their size.
+     *
+     * @param elementSizer the sizer, null disables the byte count
+     * @since 4.0
+     */
+    public void setElementSizer(final IElementSizer elementSizer)
+    {
+        this.elementSizer = elementSizer;
+    }
+
+    /**
+     * Sets the recorder of the operations on this region. It is not closed when replaced.
+     *
+     * @param traceRecorder the recorder, null to stop recording
+     * @since 4.0
+     */
+    public void setTraceRecorder(final ICacheTraceRecorder traceRecorder)
+    {
+        this.traceRecorder = traceRecorder;
+    }
+
     /**
      * Sets the key matcher used by get matching.
      *
@@ -1424,6 +1942,32 @@ public class CompositeCache<K, V>
         }
     }
 
+    /**
+     * @return the current time for a latency, 0 if metrics are disabled
+     */
+    private long startTimer()
+    {
+        return metrics == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Removes an expired element from the memory cache only, keeping the key and group indexes in
+     * step. Used by the background shrinker.
+     *
+     * @param key the key of the expired element
+     * @return true if the element was in memory
+     * @throws IOException
+     * @since 4.0
+     */
+    public boolean removeExpired(final K key)
+        throws IOException
+    {
+        final boolean removed = memCache.remove(key);
+        unindex(key);
+        ungroup(key);
+        return removed;
+    }
+
     /**
      * Writes the specified element to any disk auxiliaries. Might want to rename this "overflow" in
      * case the hub wants to do something else.
@@ -1435,18 +1979,27 @@ public class CompositeCache<K, V>
      */
     public void spoolToDisk(final ICacheElement<K, V> ce)
     {
+        // the memory cache has evicted the element
+        unindex(ce.key());
+        final CacheMetrics current = metrics;
+        if (current != null)
+        {
+            current.recordEviction();
+        }
+
         // if the item is not spoolable, return
         if (!ce.elementAttributes().IsSpool())
         {
             // there is an event defined for this.
             handleElementEvent(ce, ElementEventType.SPOOLED_NOT_ALLOWED);
+            ungroup(ce.key());
             return;
         }
 
         boolean diskAvailable = false;
 
         // SPOOL TO DISK.
-        for (final ICache<K, V> aux : auxCaches)
+        for (final AuxiliaryCache<K, V> aux : auxCaches)
         {
             if (aux.getCacheType() == CacheType.DISK_CACHE)
             {
@@ -1458,7 +2011,11 @@ public class CompositeCache<K, V>
                     try
                     {
                         handleElementEvent(ce, ElementEventType.SPOOLED_DISK_AVAILABLE);
-                        aux.update(ce);
+                        updateAuxiliary(aux, ce);
+                        if (current != null)
+                        {
+                            current.recordSpool();
+                        }
                     }
                     catch (final IOException ex)
                     {
@@ -1481,6 +2038,7 @@ public class CompositeCache<K, V>
         if (!diskAvailable)
         {
             handleElementEvent(ce, ElementEventType.SPOOLED_DISK_NOT_AVAILABLE);
+            ungroup(ce.key());
         }
     }
 
@@ -1532,11 +2090,57 @@ public class CompositeCache<K, V>
 
         log.debug("Updating memory cache {0}", cacheElement::key);
 
+        final long start = startTimer();
         updateCount.incrementAndGet();
         memCache.update(cacheElement);
+        if (hotKeys != null)
+        {
+            final K key = cacheElement.key();
+            hotKeys.recordUpdate(key, () -> memCache.getElementSize(key));
+        }
+        index(cacheElement.key());
         updateAuxiliaries(cacheElement, localOnly);
 
         cacheElement.elementAttributes().setLastAccessTimeNow();
+        if (traceRecorder != null && traceRecorder.isRecorded(cacheElement.key()))
+        {
+            // the size measured by the memory cache, so the value is not measured twice
+            recordTrace(CacheTraceOperation.PUT, cacheElement.key(), memCache.getElementSize(cacheElement.key()));
+        }
+        recordLatency(Operation.PUT, start);
+    }
+
+    /**
+     * Starts to maintain the members of each group, for GroupCacheAccess. The index is filled from
+     * the keys in memory and on disk the first time, then kept up to date on update, remove,
+     * expiration and eviction.
+     *
+     * @since 4.0
+     */
+    public synchronized void useGroupIndex()
+    {
+        if (groupIndex == null)
+        {
+            final GroupIndex<K> index = new GroupIndex<>();
+            // track changes before reading the keys, so none falls in between
+            groupIndex = index;
+            getKeySet(true).forEach(index::add);
+        }
+    }
+
+    /**
+     * Puts an item into an auxiliary, timing it if metrics are enabled.
+     *
+     * @param aux the auxiliary
+     * @param cacheElement the element
+     * @throws IOException
+     */
+    private void updateAuxiliary(final AuxiliaryCache<K, V> aux, final ICacheElement<K, V> cacheElement)
+        throws IOException
+    {
+        final long start = startTimer();
+        aux.update(cacheElement);
+        recordLatency(aux, Operation.PUT, start);
     }
 
     /**
@@ -1573,7 +2177,7 @@ public class CompositeCache<K, V>
             log.debug("No auxiliary cache to update");
         }
 
-        for (final ICache<K, V> aux : auxCaches)
+        for (final AuxiliaryCache<K, V> aux : auxCaches)
         {
             if (aux == null)
             {
@@ -1595,7 +2199,7 @@ public class CompositeCache<K, V>
                         {
                             // need to make sure the group cache understands that
                             // the key is a group attribute on update
-                            aux.update(cacheElement);
+                            updateAuxiliary(aux, cacheElement);
                             log.debug("Updated remote store for {0} {1}",
                                     cacheElement.key(), cacheElement);
                         }
@@ -1615,7 +2219,7 @@ public class CompositeCache<K, V>
                         // DISTRIBUTE LATERALLY
                         // Currently always multicast even if the value is
                         // unchanged, to cause the cache item to move to the front.
-                        aux.update(cacheElement);
+                        updateAuxiliary(aux, cacheElement);
                         log.debug("updated lateral cache for {0}", cacheElement::key);
                     }
                     break;
@@ -1625,7 +2229,7 @@ public class CompositeCache<K, V>
                     if (cacheAttr.DiskUsagePattern() == DiskUsagePatternEnum.UPDATE
                         && cacheElement.elementAttributes().IsSpool())
                     {
-                        aux.update(cacheElement);
+                        updateAuxiliary(aux, cacheElement);
                         log.debug("updated disk cache for {0}", cacheElement::key);
                     }
                     break;
@@ -19,6 +19,7 @@ package org.apache.commons.jcs4.engine.control;
  * under the License.
  */
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
@@ -37,6 +38,9 @@ import org.apache.commons.jcs4.engine.behavior.IRequireScheduler;
 import org.apache.commons.jcs4.engine.logging.behavior.ICacheEventLogger;
 import org.apache.commons.jcs4.engine.match.KeyMatcherPatternImpl;
 import org.apache.commons.jcs4.engine.match.behavior.IKeyMatcher;
+import org.apache.commons.jcs4.engine.memory.behavior.IElementSizer;
+import org.apache.commons.jcs4.engine.stats.CacheMetrics;
+import org.apache.commons.jcs4.engine.trace.behavior.ICacheTraceRecorder;
 import org.apache.commons.jcs4.log.Log;
 import org.apache.commons.jcs4.utils.config.ConfigurationBuilder;
 import org.apache.commons.jcs4.utils.config.OptionConverter;
@@ -82,6 +86,27 @@ public class CompositeCacheConfigurator
      */
     public static final String KEY_MATCHER_PREFIX = ".keymatcher";
 
+    /**
+     * jcs.region.NAME.elementsizer=CLASSNAME
+     * <p>
+     * jcs.region.NAME.elementsizer.attributes.CUSTOMPROPERTY=VALUE
+     * <p>
+     * If a region doesn't define one, jcs.default.elementsizer is used.
+     */
+    public static final String ELEMENT_SIZER_PREFIX = ".elementsizer";
+
+    /**
+     * jcs.region.NAME.tracerecorder=CLASSNAME
+     * <p>
+     * jcs.region.NAME.tracerecorder.attributes.CUSTOMPROPERTY=VALUE
+     * <p>
+     * If a region doesn't define one, jcs.default.tracerecorder is used.
+     */
+    public static final String TRACE_RECORDER_PREFIX = ".tracerecorder";
+
+    /** Default region prefix */
+    protected static final String DEFAULT_REGION = "jcs.default";
+
     /**
      * Any property values will be replaced with system property values that match the key.
      *
@@ -323,6 +348,66 @@ public class CompositeCacheConfigurator
         return eAttr;
     }
 
+    /**
+     * Creates a custom element sizer if one is defined for the region or the default region.
+     *
+     * @param props Configuration properties
+     * @param regName The region name
+     * @param regionPrefix The region prefix
+     * @return IElementSizer, or null to keep the standard one
+     */
+    protected IElementSizer parseElementSizer( final Properties props, final String regName, final String regionPrefix )
+    {
+        String prefix = regionPrefix + regName + ELEMENT_SIZER_PREFIX;
+        if ( props.getProperty( prefix ) == null )
+        {
+            prefix = DEFAULT_REGION + ELEMENT_SIZER_PREFIX;
+        }
+
+        final IElementSizer elementSizer = OptionConverter.instantiateByKey( props, prefix, null );
+        if ( elementSizer != null )
+        {
+            PropertySetter.setProperties( elementSizer, props, prefix + ATTRIBUTE_PREFIX + "." );
+            log.info( "Using custom element sizer [{0}] for region [{1}]", elementSizer, regName );
+        }
+        return elementSizer;
+    }
+
+    /**
+     * Creates and opens a trace recorder if one is defined for the region or the default region.
+     *
+     * @param props Configuration properties
+     * @param regName The region name
+     * @param regionPrefix The region prefix
+     * @return ICacheTraceRecorder, or null if none is defined or it could not be opened
+     */
+    protected ICacheTraceRecorder parseTraceRecorder( final Properties props, final String regName, final String regionPrefix )
+    {
+        String prefix = regionPrefix + regName + TRACE_RECORDER_PREFIX;
+        if ( props.getProperty( prefix ) == null )
+        {
+            prefix = DEFAULT_REGION + TRACE_RECORDER_PREFIX;
+        }
+
+        final ICacheTraceRecorder traceRecorder = OptionConverter.instantiateByKey( props, prefix, null );
+        if ( traceRecorder == null )
+        {
+            return null;
+        }
+
+        PropertySetter.setProperties( traceRecorder, props, prefix + ATTRIBUTE_PREFIX + "." );
+        try
+        {
+            traceRecorder.open( regName );
+        }
+        catch ( final IOException e )
+        {
+            log.error( "Could not open trace recorder [{0}] for region [{1}]", traceRecorder, regName, e );
+            return null;
+        }
+        return traceRecorder;
+    }
+
     /**
      * Creates a custom key matcher if one is defined.  Else, it uses the default.
      *
@@ -402,6 +487,23 @@ public class CompositeCacheConfigurator
         // Inject element event queue
         cache.setElementEventQueue(ccm.getElementEventQueue());
 
+        if (ccm.isMetricsEnabled())
+        {
+            cache.setCacheMetrics(new CacheMetrics());
+        }
+
+        final IElementSizer elementSizer = parseElementSizer(props, regName, regionPrefix);
+        if (elementSizer != null)
+        {
+            cache.setElementSizer(elementSizer);
+        }
+
+        final ICacheTraceRecorder traceRecorder = parseTraceRecorder(props, regName, regionPrefix);
+        if (traceRecorder != null)
+        {
+            cache.setTraceRecorder(traceRecorder);
+        }
+
         if (auxiliaries != null)
         {
             // Next, create the auxiliaries for the new cache
@@ -22,15 +22,22 @@ package org.apache.commons.jcs4.engine.control;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -53,6 +60,7 @@ import org.apache.commons.jcs4.engine.behavior.IShutdownObserver;
 import org.apache.commons.jcs4.engine.control.event.ElementEventQueue;
 import org.apache.commons.jcs4.engine.control.event.behavior.IElementEventQueue;
 import org.apache.commons.jcs4.engine.stats.CacheStats;
+import org.apache.commons.jcs4.engine.stats.behavior.ICacheMetricsReporter;
 import org.apache.commons.jcs4.engine.stats.behavior.ICacheStats;
 import org.apache.commons.jcs4.log.Log;
 import org.apache.commons.jcs4.utils.config.OptionConverter;
@@ -90,6 +98,15 @@ public class CompositeCacheManager
     /** Once configured, you can force a reconfiguration of sorts. */
     private static final boolean DEFAULT_FORCE_RECONFIGURATION = false;
 
+    /** Property to time the operations of all regions */
+    private static final String METRICS_ENABLED = "jcs.metrics.enabled";
+
+    /** Property for the interval of the metrics reporters, in seconds */
+    private static final String METRICS_REPORT_INTERVAL = "jcs.metrics.reportInterval";
+
+    /** Report the metrics every minute by default */
+    private static final long DEFAULT_METRICS_REPORT_INTERVAL = 60;
+
     /** The Singleton Instance */
     private static CompositeCacheManager instance;
 
@@ -220,6 +237,18 @@ public class CompositeCacheManager
 
     private String jmxName = JMX_OBJECT_NAME;
 
+    /** Whether the regions record latencies and counters */
+    private boolean metricsEnabled;
+
+    /** The reporters the metrics are sent to */
+    private final List<ICacheMetricsReporter> metricsReporters = new CopyOnWriteArrayList<>();
+
+    /** The reporters found by the ServiceLoader on the last configuration, also in metricsReporters */
+    private final List<ICacheMetricsReporter> loadedMetricsReporters = new ArrayList<>();
+
+    /** The scheduled reporting, null unless metrics are enabled */
+    private ScheduledFuture<?> metricsReporting;
+
     /**
      * Default constructor
      */
@@ -241,6 +270,17 @@ public class CompositeCacheManager
         auxiliaryCaches.put(key, cache);
     }
 
+    /**
+     * Adds a reporter for the metrics, in addition to the ones found by the ServiceLoader.
+     *
+     * @param reporter the reporter
+     * @since 4.0
+     */
+    public void addMetricsReporter(final ICacheMetricsReporter reporter)
+    {
+        metricsReporters.add(reporter);
+    }
+
     /**
      * Add a cache to the map of registered caches
      *
@@ -358,6 +398,61 @@ public class CompositeCacheManager
         configure( props );
     }
 
+    /**
+     * Enables the metrics if jcs.metrics.enabled is true, loads the reporters and schedules the
+     * reporting.
+     *
+     * @param properties assumed not null
+     */
+    private void configureMetrics( final Properties properties )
+    {
+        this.metricsEnabled = Boolean.parseBoolean( OptionConverter.findAndSubst( METRICS_ENABLED, properties ) );
+        if ( metricsReporting != null )
+        {
+            metricsReporting.cancel( false );
+            metricsReporting = null;
+        }
+        // replaced by the ones loaded now, so a reconfiguration does not report twice
+        metricsReporters.removeAll( loadedMetricsReporters );
+        loadedMetricsReporters.clear();
+        if ( !metricsEnabled )
+        {
+            return;
+        }
+
+        long interval = DEFAULT_METRICS_REPORT_INTERVAL;
+        final String value = OptionConverter.findAndSubst( METRICS_REPORT_INTERVAL, properties );
+        if ( value != null && !value.isEmpty() )
+        {
+            try
+            {
+                interval = Long.parseLong( value );
+            }
+            catch ( final NumberFormatException e )
+            {
+                log.warn( "Invalid {0} [{1}], using {2}", METRICS_REPORT_INTERVAL, value,
+                        DEFAULT_METRICS_REPORT_INTERVAL );
+            }
+        }
+
+        try
+        {
+            ServiceLoader.load( ICacheMetricsReporter.class ).forEach( loadedMetricsReporters::add );
+            metricsReporters.addAll( loadedMetricsReporters );
+        }
+        catch ( final ServiceConfigurationError e )
+        {
+            log.error( "Could not load the metrics reporters", e );
+        }
+
+        if ( interval > 0 )
+        {
+            metricsReporting = scheduledExecutor.scheduleAtFixedRate( this::reportMetrics,
+                    interval, interval, TimeUnit.SECONDS );
+        }
+        log.info( "Metrics enabled with {0} reporter(s) every {1} s", metricsReporters.size(), interval );
+    }
+
     /**
      * @param observer
      */
@@ -407,6 +502,9 @@ public class CompositeCacheManager
 
         log.info( "setting defaultElementAttributes to {0}", this.defaultElementAttr );
 
+        // must be known before the regions are created
+        configureMetrics( properties );
+
         // set up system caches to be used by non system caches
         // need to make sure there is no circularity of reference
         configurator.parseSystemRegions( properties, this );
@@ -706,6 +804,15 @@ public class CompositeCacheManager
         return isInitialized;
     }
 
+    /**
+     * @return true if the regions record latencies and counters
+     * @since 4.0
+     */
+    public boolean isMetricsEnabled()
+    {
+        return metricsEnabled;
+    }
+
     protected CompositeCacheConfigurator newConfigurator() {
         return new CompositeCacheConfigurator();
     }
@@ -750,6 +857,39 @@ public class CompositeCacheManager
         auxiliaryFactoryRegistry.put(auxFac.getName(), auxFac);
     }
 
+    /**
+     * Sends the metrics of every region to the reporters. This runs at the configured interval. A
+     * failing reporter does not keep the others from being called.
+     *
+     * @since 4.0
+     */
+    public void reportMetrics()
+    {
+        if (metricsReporters.isEmpty())
+        {
+            return;
+        }
+
+        for (final ICache<?, ?> cache : caches.values())
+        {
+            if (cache instanceof CompositeCache<?, ?> cc)
+            {
+                final Map<String, Long> metrics = cc.getMetrics();
+                for (final ICacheMetricsReporter reporter : metricsReporters)
+                {
+                    try
+                    {
+                        reporter.report(cc.getCacheName(), metrics);
+                    }
+                    catch (final RuntimeException e)
+                    {
+                        log.warn("Metrics reporter {0} failed", reporter, e);
+                    }
+                }
+            }
+        }
+    }
+
     /** */
     public void release()
     {
@@ -845,6 +985,9 @@ public class CompositeCacheManager
 
         // shutdown all scheduled jobs
         this.scheduledExecutor.shutdownNow();
+        this.metricsReporting = null;
+        this.metricsReporters.clear();
+        this.loadedMetricsReporters.clear();
 
         // shutdown all thread pools
         ThreadPoolManager.dispose();
@@ -55,7 +55,7 @@ public class ElementEventQueue
     public ElementEventQueue()
     {
         queueProcessor = ThreadPoolManager.getInstance().createPool(
-        		new PoolConfiguration(false, 0, 1, 1, Duration.ZERO, WhenBlockedPolicy.RUN, 1), THREAD_PREFIX);
+        		new PoolConfiguration(false, 0, 1, 1, Duration.ZERO, WhenBlockedPolicy.RUN, 1, false), THREAD_PREFIX);
 
         log.debug( "Constructed: {0}", this );
     }
@@ -0,0 +1,123 @@
+package org.apache.commons.jcs4.engine.control.group;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The members of each group of a region, so group operations cost time proportional to the size of
+ * the group instead of the number of keys in the region.
+ * <p>
+ * Keys that are not a {@link GroupAttrName} with an attribute name are ignored. Members are added
+ * and removed under the lock of their group, so a member added while its group is removed ends up
+ * either in the removed set or in the new group, never lost.
+ */
+public class GroupIndex<K>
+{
+    /** Members by group */
+    private final ConcurrentMap<GroupId, Set<K>> groups = new ConcurrentHashMap<>();
+
+    /**
+     * @param key a key of the region
+     * @return the group of the key, or null if the key is not a group member
+     */
+    private static GroupId groupOf( final Object key )
+    {
+        if ( key instanceof GroupAttrName<?> gan && gan.attrName() != null )
+        {
+            return gan.groupId();
+        }
+        return null;
+    }
+
+    /**
+     * Adds a member to its group.
+     *
+     * @param key a key of the region
+     */
+    public void add( final K key )
+    {
+        final GroupId groupId = groupOf( key );
+        if ( groupId != null )
+        {
+            groups.compute( groupId, ( id, members ) -> {
+                final Set<K> set = members == null ? ConcurrentHashMap.newKeySet() : members;
+                set.add( key );
+                return set;
+            } );
+        }
+    }
+
+    /** Removes all groups. */
+    public void clear()
+    {
+        groups.clear();
+    }
+
+    /**
+     * @return the groups with at least one member
+     */
+    public Set<GroupId> getGroupIds()
+    {
+        return new HashSet<>( groups.keySet() );
+    }
+
+    /**
+     * @param groupId the group
+     * @return a copy of the members of the group
+     */
+    public Set<K> getMembers( final GroupId groupId )
+    {
+        final Set<K> members = groups.get( groupId );
+        return members == null ? new HashSet<>() : new HashSet<>( members );
+    }
+
+    /**
+     * Removes a member from its group. The group goes away with its last member.
+     *
+     * @param key a key of the region
+     */
+    public void remove( final K key )
+    {
+        final GroupId groupId = groupOf( key );
+        if ( groupId != null )
+        {
+            groups.computeIfPresent( groupId, ( id, members ) -> {
+                members.remove( key );
+                return members.isEmpty() ? null : members;
+            } );
+        }
+    }
+
+    /**
+     * Removes a group.
+     *
+     * @param groupId the group
+     * @return the members the group had
+     */
+    public Set<K> removeGroup( final GroupId groupId )
+    {
+        final Set<K> members = groups.remove( groupId );
+        return members == null ? new HashSet<>() : members;
+    }
+}
@@ -47,6 +47,12 @@ public interface ICacheEventLogger
         /** ICache remove */
         REMOVE_EVENT("remove"),
 
+        /** ICacheServiceNonLocal updateMultiple */
+        UPDATEMULTIPLE_EVENT("updateMultiple"),
+
+        /** ICacheServiceNonLocal removeMultiple */
+        REMOVEMULTIPLE_EVENT("removeMultiple"),
+
         /** ICache removeAll */
         REMOVEALL_EVENT("removeAll"),
 
@@ -0,0 +1,192 @@
+package org.apache.commons.jcs4.engine.match;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * An ordered index over the string form of keys, for getMatching.
+ * <p>
+ * Only the keys starting with the literal prefix of a pattern are matched, so a pattern like
+ * "user:42:.*" costs time proportional to the number of keys under "user:42:" instead of the number
+ * of keys in the cache. A pattern without any literal prefix is matched against every key.
+ * <p>
+ * The index is maintained incrementally. It may briefly contain keys that are gone from the indexed
+ * store, so callers look the matches up before using them.
+ */
+public class KeyIndex<K>
+{
+    /** Characters that end the literal prefix of a pattern */
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    /** String form of the keys to the keys with that string form */
+    private final ConcurrentSkipListMap<String, Set<K>> index = new ConcurrentSkipListMap<>();
+
+    /**
+     * Gets the literal prefix of a regular expression, that is the part every match starts with.
+     *
+     * @param pattern the regular expression
+     * @return the literal prefix, the whole pattern if it has no metacharacters, or an empty string
+     */
+    static String literalPrefix( final String pattern )
+    {
+        // an alternation may start anywhere
+        if ( pattern.indexOf( '|' ) >= 0 )
+        {
+            return "";
+        }
+
+        for ( int i = 0; i < pattern.length(); i++ )
+        {
+            final char c = pattern.charAt( i );
+            if ( METACHARACTERS.indexOf( c ) >= 0 )
+            {
+                // these quantifiers make the previous character optional
+                if ( i > 0 && ( c == '?' || c == '*' || c == '{' ) )
+                {
+                    return pattern.substring( 0, i - 1 );
+                }
+                return pattern.substring( 0, i );
+            }
+        }
+
+        return pattern;
+    }
+
+    /**
+     * Adds a key.
+     *
+     * @param key the key
+     */
+    public void add( final K key )
+    {
+        index.merge( key.toString(), Set.of( key ), ( keys, added ) -> {
+            if ( keys.contains( key ) )
+            {
+                return keys;
+            }
+            final Set<K> union = new HashSet<>( keys );
+            union.add( key );
+            return Set.copyOf( union );
+        } );
+    }
+
+    /** Removes all keys. */
+    public void clear()
+    {
+        index.clear();
+    }
+
+    /**
+     * Gets the keys whose string form starts with the prefix.
+     *
+     * @param prefix the prefix
+     * @return the keys
+     */
+    public Set<K> getKeysWithPrefix( final String prefix )
+    {
+        final Set<K> keys = new HashSet<>();
+        range( prefix ).values().forEach( keys::addAll );
+        return keys;
+    }
+
+    /**
+     * Gets the keys whose string form matches the regular expression.
+     *
+     * @param pattern the regular expression
+     * @return the matching keys
+     */
+    public Set<K> getMatchingKeys( final String pattern )
+    {
+        final String prefix = literalPrefix( pattern );
+        if ( prefix.equals( pattern ) )
+        {
+            final Set<K> keys = index.get( pattern );
+            return keys == null ? new HashSet<>() : new HashSet<>( keys );
+        }
+
+        final Pattern compiledPattern = KeyMatcherPatternImpl.compile( pattern );
+        final Set<K> matches = new HashSet<>();
+        for ( final Map.Entry<String, Set<K>> entry : range( prefix ).entrySet() )
+        {
+            if ( compiledPattern.matcher( entry.getKey() ).matches() )
+            {
+                matches.addAll( entry.getValue() );
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @param prefix the prefix
+     * @return the part of the index starting with the prefix
+     */
+    private ConcurrentNavigableMap<String, Set<K>> range( final String prefix )
+    {
+        if ( prefix.isEmpty() )
+        {
+            return index;
+        }
+
+        // the smallest string greater than all strings starting with the prefix
+        final int last = prefix.length() - 1;
+        if ( prefix.charAt( last ) == Character.MAX_VALUE )
+        {
+            return index.tailMap( prefix, true );
+        }
+        final String end = prefix.substring( 0, last ) + (char) ( prefix.charAt( last ) + 1 );
+        return index.subMap( prefix, true, end, false );
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key the key
+     */
+    public void remove( final K key )
+    {
+        index.computeIfPresent( key.toString(), ( s, keys ) -> {
+            if ( !keys.contains( key ) )
+            {
+                return keys;
+            }
+            if ( keys.size() == 1 )
+            {
+                return null;
+            }
+            final Set<K> rest = new HashSet<>( keys );
+            rest.remove( key );
+            return Set.copyOf( rest );
+        } );
+    }
+
+    /**
+     * @return the number of distinct string forms in the index
+     */
+    public int size()
+    {
+        return index.size();
+    }
+}
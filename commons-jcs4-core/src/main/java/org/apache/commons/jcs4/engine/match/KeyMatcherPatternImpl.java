@@ -20,6 +20,8 @@ package org.apache.commons.jcs4.engine.match;
  */
 
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -32,6 +34,34 @@ public class KeyMatcherPatternImpl<K>
     /** Serial version */
     private static final long serialVersionUID = 6667352064144381264L;
 
+    /** Number of compiled patterns kept */
+    private static final int MAX_CACHED_PATTERNS = 256;
+
+    /** Compiled patterns, applications tend to use a small set of patterns over and over */
+    private static final ConcurrentMap<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the compiled pattern from the cache, or compiles it.
+     *
+     * @param pattern the regular expression
+     * @return the compiled pattern
+     */
+    static Pattern compile( final String pattern )
+    {
+        final Pattern compiledPattern = PATTERNS.get( pattern );
+        if ( compiledPattern != null )
+        {
+            return compiledPattern;
+        }
+
+        if ( PATTERNS.size() >= MAX_CACHED_PATTERNS )
+        {
+            // the patterns are not a small set after all
+            PATTERNS.clear();
+        }
+        return PATTERNS.computeIfAbsent( pattern, Pattern::compile );
+    }
+
     /**
      * Creates a pattern and find matches on the array.
      *
@@ -42,7 +72,7 @@ public class KeyMatcherPatternImpl<K>
     @Override
     public Set<K> getMatchingKeysFromArray( final String pattern, final Set<K> keyArray )
     {
-        final Pattern compiledPattern = Pattern.compile( pattern );
+        final Pattern compiledPattern = compile( pattern );
 
         return keyArray.stream()
                 .filter(key -> compiledPattern.matcher(key.toString()).matches())
@@ -336,7 +336,9 @@ public abstract class AbstractDoubleLinkedListMemoryCache<K, V> extends Abstract
                 throw new Error("update: last.ce is null!");
             }
             getCompositeCache().spoolToDisk(toSpool);
-            if (map.remove(toSpool.key()) == null)
+            final MemoryElementDescriptor<K, V> removed = map.remove(toSpool.key());
+            elementRemoved(removed);
+            if (removed == null)
             {
                 log.warn("update: remove failed for key: {0}", toSpool.key());
 
@@ -366,15 +368,18 @@ public abstract class AbstractDoubleLinkedListMemoryCache<K, V> extends Abstract
     public final void update(final ICacheElement<K, V> ce) throws IOException
     {
         putCnt.incrementAndGet();
+        final long size = sizeOf(ce);
 
         lock.lock();
         try
         {
             final MemoryElementDescriptor<K, V> newNode = adjustListForUpdate(ce);
+            elementAdded(newNode, size);
 
             // this should be synchronized if we were not using a ConcurrentHashMap
             final K key = newNode.getCacheElement().key();
             final MemoryElementDescriptor<K, V> oldNode = map.put(key, newNode);
+            elementRemoved(oldNode);
 
             // If the node was the same as an existing node, remove it.
             if (oldNode != null && key.equals(oldNode.getCacheElement().key()))
@@ -36,6 +36,7 @@ import org.apache.commons.jcs4.engine.behavior.ICompositeCacheAttributes;
 import org.apache.commons.jcs4.engine.control.CompositeCache;
 import org.apache.commons.jcs4.engine.control.group.GroupAttrName;
 import org.apache.commons.jcs4.engine.control.group.GroupId;
+import org.apache.commons.jcs4.engine.memory.behavior.IElementSizer;
 import org.apache.commons.jcs4.engine.memory.behavior.IMemoryCache;
 import org.apache.commons.jcs4.engine.memory.util.MemoryElementDescriptor;
 import org.apache.commons.jcs4.engine.stats.Stats;
@@ -74,6 +75,9 @@ public abstract class AbstractMemoryCache<K, V>
     /** Number of puts */
     protected AtomicLong putCnt;
 
+    /** Estimated size of the elements in bytes */
+    private final AtomicLong byteCount = new AtomicLong();
+
     /**
      * Children must implement this method. A FIFO implementation may use a tree map. An LRU might
      * use a hashtable. The map returned should be threadsafe.
@@ -95,6 +99,7 @@ public abstract class AbstractMemoryCache<K, V>
         hitCnt.set(0);
         missCnt.set(0);
         putCnt.set(0);
+        byteCount.set(0);
         log.info( "Memory Cache dispose called." );
     }
     /**
@@ -110,6 +115,56 @@ public abstract class AbstractMemoryCache<K, V>
         }
     }
 
+    /**
+     * Measures an element with the sizer of the region.
+     *
+     * @param ce the element, may be null
+     * @return the estimated size in bytes, 0 if there is no sizer
+     */
+    protected long sizeOf(final ICacheElement<K, V> ce)
+    {
+        final IElementSizer sizer = cache.getElementSizer();
+        return sizer != null && ce != null ? sizer.sizeOf(ce) : 0;
+    }
+
+    /**
+     * Measures a new element and adds its size to the byte count. Children call this for each
+     * descriptor they put to the map.
+     *
+     * @param me The memory element descriptor
+     */
+    protected void elementAdded(final MemoryElementDescriptor<K, V> me)
+    {
+        elementAdded(me, sizeOf(me.getCacheElement()));
+    }
+
+    /**
+     * Adds an element measured beforehand to the byte count, so that the measuring can happen
+     * outside of a lock.
+     *
+     * @param me The memory element descriptor
+     * @param size the result of sizeOf for its element
+     */
+    protected void elementAdded(final MemoryElementDescriptor<K, V> me, final long size)
+    {
+        me.setSize(size);
+        byteCount.addAndGet(size);
+    }
+
+    /**
+     * Subtracts the size of an element from the byte count. Children call this for each
+     * descriptor they remove from the map.
+     *
+     * @param me The memory element descriptor, may be null
+     */
+    protected void elementRemoved(final MemoryElementDescriptor<K, V> me)
+    {
+        if (me != null)
+        {
+            byteCount.addAndGet(-me.getSize());
+        }
+    }
+
     /**
      * Gets an item from the cache.
      * <p>
@@ -157,6 +212,31 @@ public abstract class AbstractMemoryCache<K, V>
         return ce;
     }
 
+    /**
+     * Returns the estimated size of the elements in bytes. The count is kept up to date on each
+     * put and removal, so this is cheap.
+     *
+     * @return the size in bytes
+     */
+    @Override
+    public long getByteCount()
+    {
+        return byteCount.get();
+    }
+
+    /**
+     * Gets the size accounted for an element when it was added.
+     *
+     * @param key the key of the element
+     * @return the size in bytes, or -1 if the element is not in memory
+     */
+    @Override
+    public long getElementSize(final K key)
+    {
+        final MemoryElementDescriptor<K, V> me = map.get(key);
+        return me == null ? -1 : me.getSize();
+    }
+
     /**
      * Returns the CacheAttributes.
      *
@@ -293,6 +373,7 @@ public abstract class AbstractMemoryCache<K, V>
         stats.addStatElement("Hit Count", hitCnt);
         stats.addStatElement("Miss Count", missCnt);
         stats.addStatElement("Map Size", Integer.valueOf(getSize()));
+        stats.addStatElement("Byte Count", Long.valueOf(getByteCount()));
 
         return stats;
     }
@@ -374,6 +455,7 @@ public abstract class AbstractMemoryCache<K, V>
                 if (me != null)
                 {
                     lockedRemoveElement(me);
+                    elementRemoved(me);
                     removed = true;
                 }
             }
@@ -399,6 +481,7 @@ public abstract class AbstractMemoryCache<K, V>
         {
             lockedRemoveAll();
             map.clear();
+            byteCount.set(0);
         }
         finally
         {
@@ -425,6 +508,7 @@ public abstract class AbstractMemoryCache<K, V>
                 try
                 {
                     lockedRemoveElement(entry.getValue());
+                    elementRemoved(entry.getValue());
                     return true;
                 }
                 finally
@@ -457,6 +541,7 @@ public abstract class AbstractMemoryCache<K, V>
                 try
                 {
                     lockedRemoveElement(entry.getValue());
+                    elementRemoved(entry.getValue());
                     return true;
                 }
                 finally
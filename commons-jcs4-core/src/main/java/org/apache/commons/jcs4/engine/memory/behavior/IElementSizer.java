@@ -0,0 +1,35 @@
+package org.apache.commons.jcs4.engine.memory.behavior;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.commons.jcs4.engine.behavior.ICacheElement;
+
+/**
+ * Estimates the size of an element. The memory caches call it once for each put and keep a
+ * running total, so it should be cheap.
+ */
+public interface IElementSizer
+{
+    /**
+     * @param element the element to measure
+     * @return the estimated size in bytes, 0 if unknown
+     */
+    long sizeOf( ICacheElement<?, ?> element );
+}
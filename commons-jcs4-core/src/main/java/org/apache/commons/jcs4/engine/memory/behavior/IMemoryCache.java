@@ -120,6 +120,26 @@ public interface IMemoryCache<K, V>
      */
     int getSize();
 
+    /**
+     * Gets the estimated size of the elements contained in the memory store.
+     *
+     * @return the size in bytes
+     */
+    long getByteCount();
+
+    /**
+     * Gets the estimated size the memory store accounted for an element. The default
+     * implementation does not know it.
+     *
+     * @param key the key of the element
+     * @return the size in bytes, or -1 if the element is not in memory or its size is unknown
+     * @since 4.0
+     */
+    default long getElementSize( final K key )
+    {
+        return -1;
+    }
+
     /**
      * Returns the historical and statistical data for a region's memory cache.
      *
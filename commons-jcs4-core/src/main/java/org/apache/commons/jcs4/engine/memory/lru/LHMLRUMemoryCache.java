@@ -74,6 +74,7 @@ public class LHMLRUMemoryCache<K, V>
                     () -> getCacheAttributes().MaxObjects(), element::key);
 
             waterfall( element );
+            elementRemoved( eldest.getValue() );
 
             log.debug( "LHMLRU size: {0}", map::size );
             return true;
@@ -189,6 +190,8 @@ public class LHMLRUMemoryCache<K, V>
         throws IOException
     {
         putCnt.incrementAndGet();
-        map.put( ce.key(), new MemoryElementDescriptor<>(ce) );
+        final MemoryElementDescriptor<K, V> me = new MemoryElementDescriptor<>(ce);
+        elementAdded( me );
+        elementRemoved( map.put( ce.key(), me ) );
     }
 }
@@ -131,7 +131,7 @@ public class ShrinkerThread<K, V>
 
                     if ( remove )
                     {
-                        memCache.remove( key );
+                        cache.removeExpired( key );
                     }
                 }
 
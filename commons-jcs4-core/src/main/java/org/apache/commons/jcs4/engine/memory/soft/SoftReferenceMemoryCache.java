@@ -217,12 +217,15 @@ public class SoftReferenceMemoryCache<K, V> extends AbstractMemoryCache<K, V>
     {
         putCnt.incrementAndGet();
         ce.elementAttributes().setLastAccessTimeNow();
+        final long size = sizeOf(ce);
 
         lock.lock();
 
         try
         {
-            map.put(ce.key(), new SoftReferenceElementDescriptor<>(ce));
+            final MemoryElementDescriptor<K, V> me = new SoftReferenceElementDescriptor<>(ce);
+            elementAdded(me, size);
+            elementRemoved(map.put(ce.key(), me));
             strongReferences.add(ce);
             trimStrongReferences();
         }
@@ -0,0 +1,65 @@
+package org.apache.commons.jcs4.engine.memory.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.commons.jcs4.engine.behavior.ICacheElement;
+import org.apache.commons.jcs4.engine.behavior.ICacheElementSerialized;
+import org.apache.commons.jcs4.engine.memory.behavior.IElementSizer;
+
+/**
+ * A sizer that never serializes. It uses the length of the serialized value if the element is
+ * already serialized, as elements received from remote and lateral caches are, else a fixed
+ * estimate, 0 by default. The default {@link SerializedElementSizer} measures every value.
+ */
+public class EstimatedElementSizer
+    implements IElementSizer
+{
+    /** The size counted for an element that is not serialized */
+    private long estimate;
+
+    /**
+     * @return the size counted for an element that is not serialized
+     */
+    public long getEstimate()
+    {
+        return estimate;
+    }
+
+    /**
+     * @param estimate the size counted for an element that is not serialized
+     */
+    public void setEstimate( final long estimate )
+    {
+        this.estimate = Math.max( 0, estimate );
+    }
+
+    /**
+     * @see org.apache.commons.jcs4.engine.memory.behavior.IElementSizer#sizeOf(org.apache.commons.jcs4.engine.behavior.ICacheElement)
+     */
+    @Override
+    public long sizeOf( final ICacheElement<?, ?> element )
+    {
+        if ( element instanceof ICacheElementSerialized<?, ?> serialized )
+        {
+            return serialized.serializedValue().length;
+        }
+        return estimate;
+    }
+}
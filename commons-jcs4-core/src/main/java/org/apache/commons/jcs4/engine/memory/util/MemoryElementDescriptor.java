@@ -31,6 +31,9 @@ public class MemoryElementDescriptor<K, V>
     /** Don't change */
     private static final long serialVersionUID = -1905161209035522460L;
 
+    /** Estimated size of the element in bytes, kept because the element may be gone by removal */
+    private long size;
+
     /**
      * Constructs a usable MemoryElementDescriptor.
      *
@@ -50,4 +53,20 @@ public class MemoryElementDescriptor<K, V>
     {
         return getPayload();
     }
+
+    /**
+     * @return the estimated size of the element in bytes
+     */
+    public long getSize()
+    {
+        return size;
+    }
+
+    /**
+     * @param size the estimated size of the element in bytes
+     */
+    public void setSize( final long size )
+    {
+        this.size = size;
+    }
 }
@@ -0,0 +1,52 @@
+package org.apache.commons.jcs4.engine.memory.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.Serializable;
+
+import org.apache.commons.jcs4.engine.behavior.ICacheElement;
+import org.apache.commons.jcs4.engine.behavior.ICacheElementSerialized;
+import org.apache.commons.jcs4.engine.memory.behavior.IElementSizer;
+import org.apache.commons.jcs4.utils.serialization.SerializationConversionUtil;
+
+/**
+ * The default sizer. It measures the length of the serialized value if the element is already
+ * serialized, else counts the bytes written by standard serialization. Values that are not
+ * Serializable count as 0 without an attempt to serialize them.
+ * <p>
+ * The memory caches call it once per put, before they take their locks. Use
+ * {@link EstimatedElementSizer} if even that is too expensive.
+ */
+public class SerializedElementSizer
+    implements IElementSizer
+{
+    /**
+     * @see org.apache.commons.jcs4.engine.memory.behavior.IElementSizer#sizeOf(org.apache.commons.jcs4.engine.behavior.ICacheElement)
+     */
+    @Override
+    public long sizeOf( final ICacheElement<?, ?> element )
+    {
+        if ( !( element instanceof ICacheElementSerialized<?, ?> ) && !( element.value() instanceof Serializable ) )
+        {
+            return 0;
+        }
+        return Math.max( 0, SerializationConversionUtil.getSerializedSize( element ) );
+    }
+}
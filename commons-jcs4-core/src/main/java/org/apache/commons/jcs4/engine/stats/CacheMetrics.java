@@ -0,0 +1,171 @@
+package org.apache.commons.jcs4.engine.stats;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and counters of a region and of each of its auxiliaries. A region only has
+ * one if jcs.metrics.enabled is true.
+ * <p>
+ * {@link #toMap()} flattens everything into names such as {@code get.p99} or
+ * {@code aux.DC.put.count}, with latencies in nanoseconds, for JMX and the reporters.
+ */
+public class CacheMetrics
+{
+    /** The timed operations */
+    public enum Operation
+    {
+        /** get */
+        GET,
+
+        /** put, that is update */
+        PUT,
+
+        /** remove */
+        REMOVE
+    }
+
+    /** The percentiles in the flat map */
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    /** The names of the percentiles in the flat map */
+    private static final String[] PERCENTILE_NAMES = { "p50", "p90", "p99", "p999" };
+
+    /**
+     * @return one histogram per operation
+     */
+    private static LatencyHistogram[] newHistograms()
+    {
+        final LatencyHistogram[] histograms = new LatencyHistogram[Operation.values().length];
+        for ( int i = 0; i < histograms.length; i++ )
+        {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+
+    /**
+     * Adds the summary of the histograms to the map.
+     *
+     * @param metrics the flat map
+     * @param prefix prefix of the names
+     * @param histograms one histogram per operation
+     */
+    private static void putHistograms( final Map<String, Long> metrics, final String prefix,
+            final LatencyHistogram[] histograms )
+    {
+        for ( final Operation operation : Operation.values() )
+        {
+            final LatencyHistogram histogram = histograms[operation.ordinal()];
+            final String name = prefix + operation.name().toLowerCase( Locale.ROOT ) + ".";
+            metrics.put( name + "count", histogram.getCount() );
+            metrics.put( name + "mean", histogram.getMean() );
+            for ( int i = 0; i < PERCENTILES.length; i++ )
+            {
+                metrics.put( name + PERCENTILE_NAMES[i], histogram.getValueAtPercentile( PERCENTILES[i] ) );
+            }
+            metrics.put( name + "max", histogram.getMax() );
+        }
+    }
+
+    /** Latencies of the region, memory and auxiliaries included */
+    private final LatencyHistogram[] latencies = newHistograms();
+
+    /** Latencies by auxiliary name */
+    private final ConcurrentMap<String, LatencyHistogram[]> auxiliaryLatencies = new ConcurrentHashMap<>();
+
+    /** Items evicted from memory */
+    private final LongAdder evictions = new LongAdder();
+
+    /** Evicted items written to disk */
+    private final LongAdder spools = new LongAdder();
+
+    /**
+     * @param auxName the name of the auxiliary, such as DC
+     * @param operation the operation
+     * @return the latencies of the operation on the auxiliary
+     */
+    public LatencyHistogram getAuxiliaryLatency( final String auxName, final Operation operation )
+    {
+        LatencyHistogram[] histograms = auxiliaryLatencies.get( auxName );
+        if ( histograms == null )
+        {
+            histograms = auxiliaryLatencies.computeIfAbsent( auxName, name -> newHistograms() );
+        }
+        return histograms[operation.ordinal()];
+    }
+
+    /**
+     * @return the number of items evicted from memory
+     */
+    public long getEvictionCount()
+    {
+        return evictions.sum();
+    }
+
+    /**
+     * @param operation the operation
+     * @return the latencies of the operation on the region
+     */
+    public LatencyHistogram getLatency( final Operation operation )
+    {
+        return latencies[operation.ordinal()];
+    }
+
+    /**
+     * @return the number of evicted items written to disk
+     */
+    public long getSpoolCount()
+    {
+        return spools.sum();
+    }
+
+    /** Counts an item evicted from memory. */
+    public void recordEviction()
+    {
+        evictions.increment();
+    }
+
+    /** Counts an evicted item written to disk. */
+    public void recordSpool()
+    {
+        spools.increment();
+    }
+
+    /**
+     * @return all metrics by name, sorted
+     */
+    public Map<String, Long> toMap()
+    {
+        final Map<String, Long> metrics = new TreeMap<>();
+        putHistograms( metrics, "", latencies );
+        auxiliaryLatencies.forEach( ( auxName, histograms ) ->
+            putHistograms( metrics, "aux." + auxName + ".", histograms ) );
+        metrics.put( "evictions", getEvictionCount() );
+        metrics.put( "spools", getSpoolCount() );
+        return metrics;
+    }
+}
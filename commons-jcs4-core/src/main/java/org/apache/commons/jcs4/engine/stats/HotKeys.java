@@ -0,0 +1,296 @@
+package org.apache.commons.jcs4.engine.stats;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks the most requested and the largest keys of a region in bounded memory.
+ * <p>
+ * Only one in sampleRate operations is looked at, the others cost a random number. Requests are
+ * counted with the Space-Saving algorithm: when all counters are taken, the key with the smallest
+ * count is replaced and the new key inherits its count as the error bound. Counting a tracked key
+ * is lock free. Only one thread at a time adds or replaces a key, the others wait for it so that
+ * no sample is lost. Sizes are taken from the memory cache on the sampled updates, and only the
+ * largest are kept.
+ */
+public class HotKeys<K>
+{
+    /** A key with its estimated requests or size */
+    public record Entry<K>(
+        /** The key */
+        K key,
+
+        /** Estimated requests, scaled by the sample rate, or the size in bytes */
+        long value,
+
+        /** How much the requests may be overestimated, 0 for sizes */
+        long error
+    )
+    {
+    }
+
+    /** A Space-Saving counter */
+    private static final class Counter
+    {
+        /** Sampled requests, error included */
+        final AtomicLong count;
+
+        /** Count inherited from the replaced key */
+        final long error;
+
+        Counter( final long count, final long error )
+        {
+            this.count = new AtomicLong( count );
+            this.error = error;
+        }
+    }
+
+    /** Keys tracked by default */
+    public static final int DEFAULT_CAPACITY = 100;
+
+    /** Look at one in that many operations by default */
+    public static final int DEFAULT_SAMPLE_RATE = 16;
+
+    /** Maximum number of keys tracked */
+    private final int capacity;
+
+    /** One in that many operations is sampled */
+    private final int sampleRate;
+
+    /** Request counters, additions and replacements guarded by countersLock */
+    private final ConcurrentHashMap<K, Counter> counters = new ConcurrentHashMap<>();
+
+    /** Guards additions and replacements in counters */
+    private final Lock countersLock = new ReentrantLock();
+
+    /** Largest sizes seen, changes guarded by sizesLock */
+    private final ConcurrentHashMap<K, Long> sizes = new ConcurrentHashMap<>();
+
+    /** Guards replacements in sizes */
+    private final Object sizesLock = new Object();
+
+    /** Start of the counting, for the rates */
+    private volatile Instant since = Instant.now();
+
+    /**
+     * Constructs a tracker with the default capacity and sample rate.
+     */
+    public HotKeys()
+    {
+        this( DEFAULT_CAPACITY, DEFAULT_SAMPLE_RATE );
+    }
+
+    /**
+     * @param capacity the number of keys tracked
+     * @param sampleRate one in that many operations is sampled, 1 to look at all
+     */
+    public HotKeys( final int capacity, final int sampleRate )
+    {
+        if ( capacity < 1 || sampleRate < 1 )
+        {
+            throw new IllegalArgumentException( "capacity and sampleRate must be positive" );
+        }
+        this.capacity = capacity;
+        this.sampleRate = sampleRate;
+    }
+
+    /** Forgets everything and restarts the rates. */
+    public void clear()
+    {
+        counters.clear();
+        sizes.clear();
+        since = Instant.now();
+    }
+
+    /**
+     * @return the time since the counting started, for the rates
+     */
+    public Duration getElapsed()
+    {
+        return Duration.between( since, Instant.now() );
+    }
+
+    /**
+     * @param count the number of keys
+     * @return the largest keys, largest first
+     */
+    public List<Entry<K>> getLargest( final int count )
+    {
+        return sizes.entrySet().stream()
+                .sorted( Map.Entry.<K, Long>comparingByValue().reversed() )
+                .limit( count )
+                .map( e -> new Entry<>( e.getKey(), e.getValue().longValue(), 0 ) )
+                .toList();
+    }
+
+    /**
+     * @param count the number of keys
+     * @return the most requested keys, most requested first, with the counts scaled by the sample
+     *         rate
+     */
+    public List<Entry<K>> getMostRequested( final int count )
+    {
+        final List<Entry<K>> entries = new ArrayList<>();
+        counters.forEach( ( key, counter ) -> entries.add(
+                new Entry<>( key, counter.count.get() * sampleRate, counter.error * sampleRate ) ) );
+        entries.sort( Comparator.comparingLong( Entry<K>::value ).reversed() );
+        return entries.size() > count ? entries.subList( 0, count ) : entries;
+    }
+
+    /**
+     * Counts a request for a key, if it is sampled.
+     *
+     * @param key the key
+     */
+    public void recordRequest( final K key )
+    {
+        if ( sampled() )
+        {
+            count( key );
+        }
+    }
+
+    /**
+     * Counts an update as a request and records the size of the element, if it is sampled.
+     *
+     * @param key the key
+     * @param size gets the size of the element in bytes, only called if the update is sampled,
+     *        negative if unknown
+     */
+    public void recordUpdate( final K key, final LongSupplier size )
+    {
+        if ( sampled() )
+        {
+            count( key );
+            final long bytes = size.getAsLong();
+            if ( bytes >= 0 )
+            {
+                recordSize( key, bytes );
+            }
+        }
+    }
+
+    /**
+     * Forgets the size of a removed key. Its requests still count.
+     *
+     * @param key the key
+     */
+    public void remove( final K key )
+    {
+        sizes.remove( key );
+    }
+
+    /**
+     * @return true for one in sampleRate calls
+     */
+    private boolean sampled()
+    {
+        return sampleRate == 1 || ThreadLocalRandom.current().nextInt( sampleRate ) == 0;
+    }
+
+    /**
+     * Space-Saving step. A tracked key is counted without locking. For a new key the smallest
+     * counter is found by a scan, which is fine for a capacity of a few hundred since only sampled
+     * operations get here. Threads adding keys at the same time wait for each other, dropping their
+     * samples would undercount the keys that are contended the most.
+     *
+     * @param key the key
+     */
+    private void count( final K key )
+    {
+        final Counter counter = counters.get( key );
+        if ( counter != null )
+        {
+            counter.count.incrementAndGet();
+            return;
+        }
+
+        countersLock.lock();
+        try
+        {
+            final Counter added = counters.get( key );
+            if ( added != null )
+            {
+                added.count.incrementAndGet();
+            }
+            else if ( counters.size() < capacity )
+            {
+                counters.put( key, new Counter( 1, 0 ) );
+            }
+            else
+            {
+                Map.Entry<K, Counter> min = null;
+                for ( final Map.Entry<K, Counter> e : counters.entrySet() )
+                {
+                    if ( min == null || e.getValue().count.get() < min.getValue().count.get() )
+                    {
+                        min = e;
+                    }
+                }
+                final long minCount = min.getValue().count.get();
+                counters.remove( min.getKey() );
+                counters.put( key, new Counter( minCount + 1, minCount ) );
+            }
+        }
+        finally
+        {
+            countersLock.unlock();
+        }
+    }
+
+    /**
+     * Keeps the size if it is among the largest.
+     *
+     * @param key the key
+     * @param size the size in bytes
+     */
+    private void recordSize( final K key, final long size )
+    {
+        synchronized ( sizesLock )
+        {
+            if ( sizes.size() < capacity || sizes.containsKey( key ) )
+            {
+                sizes.put( key, Long.valueOf( size ) );
+                return;
+            }
+
+            final Map.Entry<K, Long> min = sizes.entrySet().stream()
+                    .min( Map.Entry.comparingByValue() )
+                    .orElse( null );
+            if ( min != null && min.getValue().longValue() < size )
+            {
+                sizes.remove( min.getKey() );
+                sizes.put( key, Long.valueOf( size ) );
+            }
+        }
+    }
+}
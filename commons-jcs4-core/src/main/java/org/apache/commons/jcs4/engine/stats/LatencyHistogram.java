@@ -0,0 +1,177 @@
+package org.apache.commons.jcs4.engine.stats;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies in nanoseconds.
+ * <p>
+ * The buckets are log-linear like in HdrHistogram: every power of two is split into 16 buckets
+ * of equal width, so a reported value is at most 1/16 above the recorded one. Recording is a
+ * bucket computation and an atomic increment, with no allocation. The counts only grow; readers
+ * compute rates from the difference between two reads.
+ */
+public class LatencyHistogram
+{
+    /** Bits of the value kept below the leading one */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /** Buckets per power of two */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Enough buckets for any positive long */
+    private static final int BUCKETS = ( Long.SIZE - SUB_BUCKET_BITS ) * SUB_BUCKETS;
+
+    /** Counts per bucket */
+    private final AtomicLongArray counts = new AtomicLongArray( BUCKETS );
+
+    /** Sum of all values, for the mean */
+    private final LongAdder total = new LongAdder();
+
+    /** Largest value */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param value a non-negative value
+     * @return the bucket of the value
+     */
+    static int bucketOf( final long value )
+    {
+        if ( value < SUB_BUCKETS )
+        {
+            return (int) value;
+        }
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros( value );
+        final int shift = exponent - SUB_BUCKET_BITS;
+        return ( shift + 1 ) * SUB_BUCKETS + (int) ( value >>> shift & SUB_BUCKETS - 1 );
+    }
+
+    /**
+     * @param bucket a bucket
+     * @return the largest value that falls into the bucket
+     */
+    static long highestValueIn( final int bucket )
+    {
+        if ( bucket == BUCKETS - 1 )
+        {
+            return Long.MAX_VALUE;
+        }
+        return lowestValueIn( bucket + 1 ) - 1;
+    }
+
+    /**
+     * @param bucket a bucket
+     * @return the smallest value that falls into the bucket
+     */
+    static long lowestValueIn( final int bucket )
+    {
+        if ( bucket < SUB_BUCKETS )
+        {
+            return bucket;
+        }
+        final int shift = bucket / SUB_BUCKETS - 1;
+        return (long) ( SUB_BUCKETS + bucket % SUB_BUCKETS ) << shift;
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    public long getCount()
+    {
+        long count = 0;
+        for ( int i = 0; i < BUCKETS; i++ )
+        {
+            count += counts.get( i );
+        }
+        return count;
+    }
+
+    /**
+     * @return the largest recorded value
+     */
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /**
+     * @return the mean of the recorded values, 0 if there are none
+     */
+    public long getMean()
+    {
+        final long count = getCount();
+        return count == 0 ? 0 : total.sum() / count;
+    }
+
+    /**
+     * Gets the value below which the given percentage of the recorded values fall. The result is
+     * the upper bound of the bucket, capped by the largest recorded value.
+     *
+     * @param percentile between 0 and 100
+     * @return the value at the percentile, 0 if nothing was recorded
+     */
+    public long getValueAtPercentile( final double percentile )
+    {
+        final long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for ( int i = 0; i < BUCKETS; i++ )
+        {
+            snapshot[i] = counts.get( i );
+            count += snapshot[i];
+        }
+        if ( count == 0 )
+        {
+            return 0;
+        }
+
+        final long target = Math.max( 1, (long) Math.ceil( Math.min( percentile, 100.0 ) / 100.0 * count ) );
+        long seen = 0;
+        for ( int i = 0; i < BUCKETS; i++ )
+        {
+            seen += snapshot[i];
+            if ( seen >= target )
+            {
+                return Math.min( highestValueIn( i ), getMax() );
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param nanos the latency, negative values count as 0
+     */
+    public void record( final long nanos )
+    {
+        final long value = Math.max( nanos, 0 );
+        counts.incrementAndGet( bucketOf( value ) );
+        total.add( value );
+        // read first, a write is only needed for a new maximum
+        long current = max.get();
+        while ( value > current && !max.compareAndSet( current, value ) )
+        {
+            current = max.get();
+        }
+    }
+}
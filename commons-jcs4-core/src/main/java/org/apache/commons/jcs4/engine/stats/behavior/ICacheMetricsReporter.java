@@ -0,0 +1,42 @@
+package org.apache.commons.jcs4.engine.stats.behavior;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Map;
+
+/**
+ * Receives the metrics of every region at a fixed interval, to forward them to a monitoring
+ * system. Implementations are found with {@link java.util.ServiceLoader}, so they are listed in
+ * META-INF/services/org.apache.commons.jcs4.engine.stats.behavior.ICacheMetricsReporter.
+ * <p>
+ * Reporters are only loaded if jcs.metrics.enabled is true. The interval is set with
+ * jcs.metrics.reportInterval in seconds.
+ */
+public interface ICacheMetricsReporter
+{
+    /**
+     * Reports the metrics of a region. This is called on the scheduler thread of the cache manager,
+     * so it should not block for long.
+     *
+     * @param cacheName the region
+     * @param metrics the metrics by name, see CacheMetrics
+     */
+    void report( String cacheName, Map<String, Long> metrics );
+}
@@ -0,0 +1,36 @@
+package org.apache.commons.jcs4.engine.trace;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * One operation of a cache trace.
+ *
+ * @param operation the operation
+ * @param keyHash the hash of the key, 0 for a removeAll
+ * @param size the size of the element of a put in bytes, -1 if unknown or not a put
+ * @param time the time of the operation in microseconds since the start of the trace
+ */
+public record CacheTraceEvent(
+        CacheTraceOperation operation,
+        int keyHash,
+        long size,
+        long time)
+{
+}
@@ -0,0 +1,78 @@
+package org.apache.commons.jcs4.engine.trace;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * The operations in a cache trace. The code is written to the trace, so existing codes must not
+ * change.
+ */
+public enum CacheTraceOperation
+{
+    /** A get that found the element */
+    GET_HIT( 0 ),
+
+    /** A get that didn't find the element */
+    GET_MISS( 1 ),
+
+    /** A put, with the size of the element */
+    PUT( 2 ),
+
+    /** A remove */
+    REMOVE( 3 ),
+
+    /** A removeAll, without a key */
+    REMOVE_ALL( 4 );
+
+    /** The operations by code */
+    private static final CacheTraceOperation[] BY_CODE = values();
+
+    /**
+     * @param code the code read from a trace
+     * @return the operation
+     * @throws IllegalArgumentException if the code is unknown
+     */
+    public static CacheTraceOperation fromCode( final int code )
+    {
+        if ( code < 0 || code >= BY_CODE.length || BY_CODE[code].code != code )
+        {
+            throw new IllegalArgumentException( "Unknown trace operation " + code );
+        }
+        return BY_CODE[code];
+    }
+
+    /** The code in the trace */
+    private final int code;
+
+    /**
+     * @param code the code in the trace
+     */
+    CacheTraceOperation( final int code )
+    {
+        this.code = code;
+    }
+
+    /**
+     * @return the code in the trace
+     */
+    public int getCode()
+    {
+        return code;
+    }
+}
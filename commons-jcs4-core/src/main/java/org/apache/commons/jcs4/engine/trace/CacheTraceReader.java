@@ -0,0 +1,193 @@
+package org.apache.commons.jcs4.engine.trace;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+
+/**
+ * Reads a trace written by {@link CacheTraceWriter}.
+ * <p>
+ * This class is not thread safe.
+ */
+public class CacheTraceReader
+    implements Closeable
+{
+    /** The trace */
+    private final DataInputStream in;
+
+    /** The start of the trace in milliseconds since the epoch */
+    private final long startTime;
+
+    /** The current block */
+    private byte[] block = new byte[0];
+
+    /** The read position in the block */
+    private int position;
+
+    /** The used length of the block */
+    private int limit;
+
+    /** The time of the previous event */
+    private long previousTime;
+
+    /**
+     * Reads the header.
+     *
+     * @param in the stream, closed by {@link #close()}
+     * @throws IOException if the header cannot be read or the stream is not a trace
+     */
+    public CacheTraceReader( final InputStream in )
+        throws IOException
+    {
+        this.in = new DataInputStream( in );
+        if ( this.in.readInt() != CacheTraceWriter.MAGIC )
+        {
+            throw new StreamCorruptedException( "Not a cache trace" );
+        }
+        final int version = this.in.readUnsignedByte();
+        if ( version != CacheTraceWriter.VERSION )
+        {
+            throw new StreamCorruptedException( "Unsupported trace version " + version );
+        }
+        this.startTime = this.in.readLong();
+    }
+
+    /**
+     * @return the start of the trace in milliseconds since the epoch
+     */
+    public long getStartTime()
+    {
+        return startTime;
+    }
+
+    /**
+     * Reads the next event.
+     *
+     * @return the event, null at the end of the trace
+     * @throws IOException if the trace cannot be read or is corrupted
+     */
+    public CacheTraceEvent next()
+        throws IOException
+    {
+        if ( position >= limit && !readBlock() )
+        {
+            return null;
+        }
+
+        try
+        {
+            final CacheTraceOperation operation = CacheTraceOperation.fromCode( block[position++] );
+            int keyHash = 0;
+            if ( operation != CacheTraceOperation.REMOVE_ALL )
+            {
+                keyHash = ( block[position] & 0xFF ) << 24 | ( block[position + 1] & 0xFF ) << 16
+                    | ( block[position + 2] & 0xFF ) << 8 | block[position + 3] & 0xFF;
+                position += 4;
+            }
+
+            final long zigzag = readVarLong();
+            previousTime += zigzag >>> 1 ^ -( zigzag & 1 );
+
+            long size = -1;
+            if ( operation == CacheTraceOperation.PUT )
+            {
+                size = readVarLong() - 1;
+            }
+
+            if ( position > limit )
+            {
+                throw new StreamCorruptedException( "Event crosses a block boundary" );
+            }
+            return new CacheTraceEvent( operation, keyHash, size, previousTime );
+        }
+        catch ( final IllegalArgumentException | ArrayIndexOutOfBoundsException e )
+        {
+            throw new StreamCorruptedException( "Corrupted trace: " + e.getMessage() );
+        }
+    }
+
+    /**
+     * @return false at the end of the trace
+     * @throws IOException if the block cannot be read
+     */
+    private boolean readBlock()
+        throws IOException
+    {
+        final int length;
+        try
+        {
+            length = in.readInt();
+        }
+        catch ( final EOFException e )
+        {
+            return false;
+        }
+
+        if ( length <= 0 || length > CacheTraceWriter.BLOCK_SIZE * 2 )
+        {
+            throw new StreamCorruptedException( "Invalid block length " + length );
+        }
+        if ( block.length < length )
+        {
+            block = new byte[length];
+        }
+        in.readFully( block, 0, length );
+        position = 0;
+        limit = length;
+        return true;
+    }
+
+    /**
+     * @return the decoded value
+     * @throws StreamCorruptedException if the value is too long
+     */
+    private long readVarLong()
+        throws StreamCorruptedException
+    {
+        long value = 0;
+        for ( int shift = 0; shift < 64; shift += 7 )
+        {
+            final byte b = block[position++];
+            value |= (long) ( b & 0x7F ) << shift;
+            if ( b >= 0 )
+            {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException( "Variable length value too long" );
+    }
+
+    /**
+     * Closes the stream.
+     *
+     * @throws IOException if the stream cannot be closed
+     */
+    @Override
+    public void close()
+        throws IOException
+    {
+        in.close();
+    }
+}
@@ -0,0 +1,258 @@
+package org.apache.commons.jcs4.engine.trace;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.jcs4.engine.CacheElement;
+import org.apache.commons.jcs4.engine.control.CompositeCache;
+import org.apache.commons.jcs4.engine.control.CompositeCacheConfigurator;
+import org.apache.commons.jcs4.engine.control.CompositeCacheManager;
+import org.apache.commons.jcs4.engine.stats.LatencyHistogram;
+
+/**
+ * Replays a recorded trace against a region, to compare configurations offline. The keys are the
+ * recorded key hashes and the values are byte arrays of the recorded size, so the memory and disk
+ * caches see the same key distribution and element sizes as the recorded region.
+ * <p>
+ * The trace is replayed as fast as possible. The recorded times are not simulated, so elements do
+ * not expire during a replay unless the configuration uses very short lifetimes. Puts of unknown
+ * size store an empty array. The disk I/O is reported as the reads from and writes to the
+ * auxiliaries. Trace recorders of the configuration are ignored.
+ * <p>
+ * Usage: {@code java org.apache.commons.jcs4.engine.trace.CacheTraceReplay <trace> <cache.ccf> [region]}
+ */
+public final class CacheTraceReplay
+{
+    /**
+     * The outcome of a replay.
+     *
+     * @param events the number of replayed events
+     * @param gets the number of gets
+     * @param hits the number of gets that found the element during the replay
+     * @param recordedHits the number of gets that found the element when the trace was recorded
+     * @param puts the number of puts
+     * @param removes the number of removes, including removeAll
+     * @param memoryHits the hits in memory
+     * @param auxiliaryHits the hits in an auxiliary, such as the disk cache
+     * @param auxiliaryGets the reads from the auxiliaries, that is the disk reads for a disk cache,
+     *        0 unless metrics are enabled
+     * @param auxiliaryPuts the writes to the auxiliaries, spooled evictions included, 0 unless
+     *        metrics are enabled
+     * @param getLatency the latencies of the gets in nanoseconds
+     * @param putLatency the latencies of the puts in nanoseconds
+     * @param metrics the metrics of the region, including the latencies of the auxiliaries, empty
+     *        unless metrics are enabled
+     */
+    public record Result(long events, long gets, long hits, long recordedHits, long puts, long removes,
+            long memoryHits, long auxiliaryHits, long auxiliaryGets, long auxiliaryPuts,
+            LatencyHistogram getLatency, LatencyHistogram putLatency, Map<String, Long> metrics)
+    {
+        /**
+         * @return the hit ratio of the replay
+         */
+        public double hitRatio()
+        {
+            return gets == 0 ? 0 : (double) hits / gets;
+        }
+
+        /**
+         * @return the hit ratio when the trace was recorded
+         */
+        public double recordedHitRatio()
+        {
+            return gets == 0 ? 0 : (double) recordedHits / gets;
+        }
+    }
+
+    /**
+     * Replays all events of the trace.
+     *
+     * @param reader the trace
+     * @param cache the region to replay against
+     * @return the outcome
+     * @throws IOException if the trace cannot be read or the region fails
+     */
+    public static Result replay( final CacheTraceReader reader, final CompositeCache<Integer, byte[]> cache )
+        throws IOException
+    {
+        final LatencyHistogram getLatency = new LatencyHistogram();
+        final LatencyHistogram putLatency = new LatencyHistogram();
+        final long memoryHitsBefore = cache.getHitCountRam();
+        final long auxiliaryHitsBefore = cache.getHitCountAux();
+        final Map<String, Long> metricsBefore = cache.getMetrics();
+        long events = 0;
+        long gets = 0;
+        long hits = 0;
+        long recordedHits = 0;
+        long puts = 0;
+        long removes = 0;
+
+        CacheTraceEvent event;
+        while ( ( event = reader.next() ) != null )
+        {
+            events++;
+            final Integer key = Integer.valueOf( event.keyHash() );
+            final long start = System.nanoTime();
+            switch ( event.operation() )
+            {
+                case GET_HIT:
+                case GET_MISS:
+                    gets++;
+                    if ( event.operation() == CacheTraceOperation.GET_HIT )
+                    {
+                        recordedHits++;
+                    }
+                    if ( cache.get( key ) != null )
+                    {
+                        hits++;
+                    }
+                    getLatency.record( System.nanoTime() - start );
+                    break;
+                case PUT:
+                    puts++;
+                    final byte[] value = new byte[(int) Math.min( Math.max( 0, event.size() ), Integer.MAX_VALUE - 8 )];
+                    cache.update( new CacheElement<>( cache.getCacheName(), key, value, cache.getElementAttributes() ) );
+                    putLatency.record( System.nanoTime() - start );
+                    break;
+                case REMOVE:
+                    removes++;
+                    cache.remove( key );
+                    break;
+                case REMOVE_ALL:
+                    removes++;
+                    cache.removeAll();
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        final Map<String, Long> metrics = cache.getMetrics();
+        return new Result( events, gets, hits, recordedHits, puts, removes,
+                cache.getHitCountRam() - memoryHitsBefore, cache.getHitCountAux() - auxiliaryHitsBefore,
+                auxiliaryCount( metrics, "get" ) - auxiliaryCount( metricsBefore, "get" ),
+                auxiliaryCount( metrics, "put" ) - auxiliaryCount( metricsBefore, "put" ),
+                getLatency, putLatency, metrics );
+    }
+
+    /**
+     * @param metrics the metrics of a region
+     * @param operation get or put
+     * @return the number of operations over all auxiliaries
+     */
+    private static long auxiliaryCount( final Map<String, Long> metrics, final String operation )
+    {
+        final String suffix = "." + operation + ".count";
+        return metrics.entrySet().stream()
+                .filter( e -> e.getKey().startsWith( "aux." ) && e.getKey().endsWith( suffix ) )
+                .mapToLong( e -> e.getValue().longValue() )
+                .sum();
+    }
+
+    /**
+     * Replays a trace against a region of a configuration and prints the outcome.
+     *
+     * @param args the trace file, the configuration file and optionally the region, by default the
+     *        region the trace was recorded from
+     * @throws Exception if the replay fails
+     */
+    public static void main( final String[] args )
+        throws Exception
+    {
+        if ( args.length < 2 )
+        {
+            System.out.println( "Usage: java " + CacheTraceReplay.class.getName() + " <trace> <cache.ccf> [region]" );
+            System.exit( 1 );
+        }
+
+        final String region = args.length > 2 ? args[2] : regionOf( args[0] );
+        final Properties props = new Properties();
+        try ( InputStream in = new FileInputStream( args[1] ) )
+        {
+            props.load( in );
+        }
+        props.setProperty( "jcs.metrics.enabled", "true" );
+        // don't trace the replay itself, which would also truncate the recorded trace
+        props.stringPropertyNames().stream()
+                .filter( name -> name.contains( CompositeCacheConfigurator.TRACE_RECORDER_PREFIX ) )
+                .forEach( props::remove );
+
+        final CompositeCacheManager ccm = CompositeCacheManager.getUnconfiguredInstance();
+        ccm.configure( props );
+        try ( CacheTraceReader reader = new CacheTraceReader( new BufferedInputStream( new FileInputStream( args[0] ) ) ) )
+        {
+            final CompositeCache<Integer, byte[]> cache = ccm.getCache( region );
+            final Result result = replay( reader, cache );
+
+            System.out.println( "Region:             " + region );
+            System.out.println( "Events:             " + result.events() );
+            System.out.println( "Gets:               " + result.gets() );
+            System.out.println( "Puts:               " + result.puts() );
+            System.out.println( "Removes:            " + result.removes() );
+            System.out.printf( "Hit ratio:          %.4f (recorded %.4f)%n", result.hitRatio(), result.recordedHitRatio() );
+            System.out.println( "Memory hits:        " + result.memoryHits() );
+            System.out.println( "Auxiliary hits:     " + result.auxiliaryHits() );
+            System.out.println( "Auxiliary reads:    " + result.auxiliaryGets() );
+            System.out.println( "Auxiliary writes:   " + result.auxiliaryPuts() );
+            printLatency( "Get latency (ns):   ", result.getLatency() );
+            printLatency( "Put latency (ns):   ", result.putLatency() );
+            result.metrics().forEach( ( name, value ) -> System.out.println( "  " + name + " = " + value ) );
+        }
+        finally
+        {
+            ccm.shutDown();
+        }
+    }
+
+    /**
+     * @param label the label
+     * @param histogram the latencies
+     */
+    private static void printLatency( final String label, final LatencyHistogram histogram )
+    {
+        System.out.println( label + "mean " + histogram.getMean()
+            + ", p50 " + histogram.getValueAtPercentile( 50 )
+            + ", p99 " + histogram.getValueAtPercentile( 99 )
+            + ", max " + histogram.getMax() );
+    }
+
+    /**
+     * @param traceFile the name of a file written by {@link FileCacheTraceRecorder}
+     * @return the region name in the file name
+     */
+    private static String regionOf( final String traceFile )
+    {
+        final String name = new File( traceFile ).getName();
+        final int dash = name.lastIndexOf( '-' );
+        return dash > 0 ? name.substring( 0, dash ) : name;
+    }
+
+    /** No instances */
+    private CacheTraceReplay()
+    {
+    }
+}
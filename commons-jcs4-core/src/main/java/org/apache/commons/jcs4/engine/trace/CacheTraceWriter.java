@@ -0,0 +1,179 @@
+package org.apache.commons.jcs4.engine.trace;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a cache trace. The trace starts with a header: the magic bytes {@code JCST}, a format
+ * version byte and the start time in milliseconds since the epoch. The events follow in blocks,
+ * each one an int length and the encoded events.
+ * <p>
+ * An event is the operation code in one byte, the key hash in four bytes unless the operation is
+ * a removeAll, the time since the previous event in microseconds as a signed variable length
+ * integer and, for a put, the size plus one as a variable length integer. A typical event takes
+ * seven to ten bytes.
+ * <p>
+ * This class is not thread safe.
+ */
+public class CacheTraceWriter
+    implements Closeable
+{
+    /** The first bytes of a trace */
+    static final int MAGIC = 0x4A435354;
+
+    /** The version of the format */
+    static final int VERSION = 1;
+
+    /** The size at which a block is written */
+    static final int BLOCK_SIZE = 64 * 1024;
+
+    /** The longest encoded event */
+    private static final int MAX_EVENT_SIZE = 1 + 4 + 10 + 10;
+
+    /** The trace */
+    private final DataOutputStream out;
+
+    /** The block being filled */
+    private final byte[] block = new byte[BLOCK_SIZE + MAX_EVENT_SIZE];
+
+    /** The used length of the block */
+    private int position;
+
+    /** The time of the previous event */
+    private long previousTime;
+
+    /**
+     * Writes the header.
+     *
+     * @param out the stream, closed by {@link #close()}
+     * @param startTime the start of the trace in milliseconds since the epoch
+     * @throws IOException if the header cannot be written
+     */
+    public CacheTraceWriter( final OutputStream out, final long startTime )
+        throws IOException
+    {
+        this.out = new DataOutputStream( out );
+        this.out.writeInt( MAGIC );
+        this.out.writeByte( VERSION );
+        this.out.writeLong( startTime );
+    }
+
+    /**
+     * Writes an event.
+     *
+     * @param event the event
+     * @throws IOException if a full block cannot be written
+     */
+    public void write( final CacheTraceEvent event )
+        throws IOException
+    {
+        write( event.operation(), event.keyHash(), event.size(), event.time() );
+    }
+
+    /**
+     * Writes an event.
+     *
+     * @param operation the operation
+     * @param keyHash the hash of the key, ignored for a removeAll
+     * @param size the size of the element of a put, -1 if unknown, ignored for other operations
+     * @param time the time in microseconds since the start of the trace
+     * @throws IOException if a full block cannot be written
+     */
+    public void write( final CacheTraceOperation operation, final int keyHash, final long size, final long time )
+        throws IOException
+    {
+        block[position++] = (byte) operation.getCode();
+        if ( operation != CacheTraceOperation.REMOVE_ALL )
+        {
+            block[position++] = (byte) ( keyHash >>> 24 );
+            block[position++] = (byte) ( keyHash >>> 16 );
+            block[position++] = (byte) ( keyHash >>> 8 );
+            block[position++] = (byte) keyHash;
+        }
+
+        // events of different threads may arrive slightly out of order
+        final long delta = time - previousTime;
+        previousTime = time;
+        writeVarLong( delta << 1 ^ delta >> 63 );
+
+        if ( operation == CacheTraceOperation.PUT )
+        {
+            writeVarLong( Math.max( -1, size ) + 1 );
+        }
+
+        if ( position >= BLOCK_SIZE )
+        {
+            flush();
+        }
+    }
+
+    /**
+     * @param value a non-negative value, or a zigzag encoded one
+     */
+    private void writeVarLong( long value )
+    {
+        while ( ( value & ~0x7FL ) != 0 )
+        {
+            block[position++] = (byte) ( value & 0x7F | 0x80 );
+            value >>>= 7;
+        }
+        block[position++] = (byte) value;
+    }
+
+    /**
+     * Writes the current block.
+     *
+     * @throws IOException if the block cannot be written
+     */
+    public void flush()
+        throws IOException
+    {
+        if ( position > 0 )
+        {
+            out.writeInt( position );
+            out.write( block, 0, position );
+            position = 0;
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes the current block and closes the stream.
+     *
+     * @throws IOException if the block cannot be written
+     */
+    @Override
+    public void close()
+        throws IOException
+    {
+        try
+        {
+            flush();
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+}
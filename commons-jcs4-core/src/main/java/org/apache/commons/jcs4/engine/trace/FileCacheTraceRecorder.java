@@ -0,0 +1,319 @@
+package org.apache.commons.jcs4.engine.trace;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.jcs4.engine.trace.behavior.ICacheTraceRecorder;
+import org.apache.commons.jcs4.log.Log;
+import org.apache.commons.jcs4.utils.struct.MpscRingBuffer;
+import org.apache.commons.jcs4.utils.threadpool.DaemonThreadFactory;
+
+/**
+ * Records the operations of a region to a file in the format of {@link CacheTraceWriter}. The
+ * file is named after the region and the start time and ends with {@code .jcstrace}.
+ * <p>
+ * The calling threads only put an event into a lock free ring buffer, and wake the writer if it
+ * is parked on an empty buffer. A daemon thread encodes the events and writes them. If the ring buffer is full, the event is dropped and counted, so a slow
+ * disk never slows down the cache.
+ * <p>
+ * With a sample rate of N, only the operations on about one in N keys are recorded. All operations
+ * on a recorded key are kept, so the hit ratio of a replay stays close to the real one.
+ * <p>
+ * Configuration:
+ * <pre>
+ * jcs.region.NAME.tracerecorder=org.apache.commons.jcs4.engine.trace.FileCacheTraceRecorder
+ * jcs.region.NAME.tracerecorder.attributes.Directory=/var/tmp/traces
+ * jcs.region.NAME.tracerecorder.attributes.SampleRate=1
+ * jcs.region.NAME.tracerecorder.attributes.BufferSize=65536
+ * </pre>
+ */
+public class FileCacheTraceRecorder
+    implements ICacheTraceRecorder
+{
+    /** The file extension */
+    public static final String FILE_EXTENSION = ".jcstrace";
+
+    /** The logger */
+    private static final Log log = Log.getLog( FileCacheTraceRecorder.class );
+
+    /** The directory of the trace files */
+    private String directory = System.getProperty( "java.io.tmpdir" );
+
+    /** Record one in this many keys */
+    private int sampleRate = 1;
+
+    /** The capacity of the ring buffer */
+    private int bufferSize = 65536;
+
+    /** The trace file */
+    private File file;
+
+    /** The events not yet written */
+    private MpscRingBuffer<CacheTraceEvent> events;
+
+    /** System.nanoTime() at the start of the trace */
+    private long startNanos;
+
+    /** The writer thread */
+    private volatile Thread writerThread;
+
+    /** Set by the writer thread before it parks on an empty ring buffer */
+    private volatile boolean writerParked;
+
+    /** Set to false to stop the writer thread */
+    private volatile boolean recording;
+
+    /** The number of events written */
+    private final AtomicLong recordedCount = new AtomicLong();
+
+    /** The number of events dropped because the ring buffer was full */
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * @return the directory of the trace files
+     */
+    public String getDirectory()
+    {
+        return directory;
+    }
+
+    /**
+     * @param directory the directory of the trace files, created if missing
+     */
+    public void setDirectory( final String directory )
+    {
+        this.directory = directory;
+    }
+
+    /**
+     * @return record one in this many keys
+     */
+    public int getSampleRate()
+    {
+        return sampleRate;
+    }
+
+    /**
+     * @param sampleRate record one in this many keys, 1 records all
+     */
+    public void setSampleRate( final int sampleRate )
+    {
+        this.sampleRate = Math.max( 1, sampleRate );
+    }
+
+    /**
+     * @return the number of events that can wait for the writer
+     */
+    public int getBufferSize()
+    {
+        return bufferSize;
+    }
+
+    /**
+     * @param bufferSize the number of events that can wait for the writer
+     */
+    public void setBufferSize( final int bufferSize )
+    {
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * @return the trace file, null before open
+     */
+    public File getFile()
+    {
+        return file;
+    }
+
+    /**
+     * @return the number of events written
+     */
+    public long getRecordedCount()
+    {
+        return recordedCount.get();
+    }
+
+    /**
+     * @return the number of events dropped because the writer fell behind
+     */
+    public long getDroppedCount()
+    {
+        return droppedCount.get();
+    }
+
+    /**
+     * Creates the file and starts the writer thread.
+     *
+     * @param cacheName the name of the region
+     * @throws IOException if the file cannot be created
+     */
+    @Override
+    public synchronized void open( final String cacheName )
+        throws IOException
+    {
+        if ( recording )
+        {
+            throw new IllegalStateException( "Trace of " + cacheName + " is already open" );
+        }
+
+        final File dir = new File( directory );
+        if ( !dir.isDirectory() && !dir.mkdirs() )
+        {
+            throw new IOException( "Could not create trace directory " + dir );
+        }
+
+        final long startTime = System.currentTimeMillis();
+        final String safeName = cacheName.replaceAll( "[^A-Za-z0-9._-]", "_" );
+        file = new File( dir, safeName + "-" + startTime + FILE_EXTENSION );
+
+        final CacheTraceWriter writer = new CacheTraceWriter(
+                new BufferedOutputStream( new FileOutputStream( file ) ), startTime );
+        events = new MpscRingBuffer<>( bufferSize );
+        startNanos = System.nanoTime();
+        writerThread = new DaemonThreadFactory( "JCS-CacheTraceRecorder-" ).newThread( () -> write( writer ) );
+        recording = true;
+        writerThread.start();
+        log.info( "Recording trace of region [{0}] to [{1}], sample rate {2}", cacheName, file, sampleRate );
+    }
+
+    /**
+     * Writes events until the recording stops and the ring buffer is empty.
+     *
+     * @param writer the encoder
+     */
+    private void write( final CacheTraceWriter writer )
+    {
+        try ( writer )
+        {
+            while ( true )
+            {
+                final CacheTraceEvent event = events.poll();
+                if ( event != null )
+                {
+                    writer.write( event );
+                    recordedCount.incrementAndGet();
+                }
+                else if ( !recording )
+                {
+                    break;
+                }
+                else if ( events.isEmpty() )
+                {
+                    // isEmpty reads the tail a producer advances before it reads writerParked,
+                    // so either the producer sees the flag or the writer sees the event
+                    writerParked = true;
+                    if ( recording && events.isEmpty() )
+                    {
+                        LockSupport.park( this );
+                    }
+                    writerParked = false;
+                }
+                else
+                {
+                    // a producer claimed a slot but has not published the event yet
+                    Thread.onSpinWait();
+                }
+            }
+        }
+        catch ( final IOException e )
+        {
+            recording = false;
+            log.error( "Failure writing trace [{0}], recording stopped", file, e );
+        }
+    }
+
+    /**
+     * Selects keys by a mix of their hash, so that every operation of a selected key is recorded.
+     *
+     * @param key the key
+     * @return true if operations on the key are recorded
+     */
+    @Override
+    public boolean isRecorded( final Object key )
+    {
+        if ( !recording )
+        {
+            return false;
+        }
+        return sampleRate == 1 || key == null
+            || Integer.remainderUnsigned( key.hashCode() * 0x9E3779B9, sampleRate ) == 0;
+    }
+
+    /**
+     * Queues the event for the writer thread.
+     *
+     * @param operation the operation
+     * @param key the key, null for a removeAll
+     * @param size the size of the element of a put, -1 if unknown or not a put
+     */
+    @Override
+    public void record( final CacheTraceOperation operation, final Object key, final long size )
+    {
+        if ( !isRecorded( key ) )
+        {
+            return;
+        }
+
+        final long time = ( System.nanoTime() - startNanos ) / 1000;
+        final int keyHash = key == null ? 0 : key.hashCode();
+        if ( !events.offer( new CacheTraceEvent( operation, keyHash, size, time ) ) )
+        {
+            droppedCount.incrementAndGet();
+        }
+        else if ( writerParked )
+        {
+            LockSupport.unpark( writerThread );
+        }
+    }
+
+    /**
+     * Stops the writer thread after it wrote the queued events.
+     *
+     * @throws IOException never, failures are logged by the writer thread
+     */
+    @Override
+    public synchronized void close()
+        throws IOException
+    {
+        if ( writerThread == null )
+        {
+            return;
+        }
+
+        recording = false;
+        LockSupport.unpark( writerThread );
+        try
+        {
+            writerThread.join();
+        }
+        catch ( final InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+        log.info( "Trace [{0}] closed, {1} events recorded, {2} dropped", file, recordedCount, droppedCount );
+    }
+}
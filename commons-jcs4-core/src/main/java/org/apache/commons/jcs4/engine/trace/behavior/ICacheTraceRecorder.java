@@ -0,0 +1,65 @@
+package org.apache.commons.jcs4.engine.trace.behavior;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+
+import org.apache.commons.jcs4.engine.trace.CacheTraceOperation;
+
+/**
+ * Records the operations of a region. The region calls it on every get, put and remove, so
+ * recording must be cheap and must not block.
+ */
+public interface ICacheTraceRecorder
+{
+    /**
+     * Starts the trace. Called once by the configurator before the region is used.
+     *
+     * @param cacheName the name of the region
+     * @throws IOException if the trace cannot be created
+     */
+    void open( String cacheName )
+        throws IOException;
+
+    /**
+     * Lets the region skip measuring the size of elements that are not recorded.
+     *
+     * @param key the key
+     * @return true if operations on the key are recorded
+     */
+    boolean isRecorded( Object key );
+
+    /**
+     * Records an operation.
+     *
+     * @param operation the operation
+     * @param key the key, null for a removeAll
+     * @param size the size of the element of a put, -1 if unknown or not a put
+     */
+    void record( CacheTraceOperation operation, Object key, long size );
+
+    /**
+     * Writes the remaining operations and ends the trace.
+     *
+     * @throws IOException if the trace cannot be written
+     */
+    void close()
+        throws IOException;
+}
@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.jcs4.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+/**
+ * An input stream over a fixed number of bytes of a channel. The bytes are read through a chunk
+ * taken from a {@link ByteBufferPool}, so a deserializer can decode a large value incrementally
+ * instead of reading it into one array first. Values smaller than a chunk are read into a heap
+ * buffer of their size.
+ * <p>
+ * A non-blocking channel is waited on with a selector when it has no data. For a socket channel
+ * the wait is limited by the SO_TIMEOUT of its socket, like a blocking read.
+ * <p>
+ * The stream never reads past its end, so the channel is positioned at the next record when the
+ * stream has been consumed, see {@link #skipRemaining()}. Closing the stream returns the chunk to
+ * the pool but does not close the channel.
+ */
+public class BoundedChannelInputStream
+    extends InputStream
+{
+    /** The channel */
+    private final ReadableByteChannel channel;
+
+    /** The position in the file for positional reads, -1 for sequential reads */
+    private long filePosition;
+
+    /** The number of bytes not yet read from the channel */
+    private long unread;
+
+    /** Where the chunk comes from */
+    private final ByteBufferPool pool;
+
+    /** The chunk, null before the first read and after close */
+    private ByteBuffer buffer;
+
+    /**
+     * Reads sequentially from the current position of the channel.
+     *
+     * @param channel the channel
+     * @param length the number of bytes to read
+     */
+    public BoundedChannelInputStream( final ReadableByteChannel channel, final long length )
+    {
+        this( channel, -1, length );
+    }
+
+    /**
+     * Reads from a position of the file without changing the position of the channel, so several
+     * threads can read the same file.
+     *
+     * @param fc the file
+     * @param position the position of the first byte
+     * @param length the number of bytes to read
+     */
+    public BoundedChannelInputStream( final FileChannel fc, final long position, final long length )
+    {
+        this( (ReadableByteChannel) fc, position, length );
+    }
+
+    /**
+     * @param channel the channel
+     * @param position the file position or -1
+     * @param length the number of bytes to read
+     */
+    private BoundedChannelInputStream( final ReadableByteChannel channel, final long position, final long length )
+    {
+        this.channel = channel;
+        this.filePosition = position;
+        this.unread = length;
+        this.pool = ByteBufferPool.getInstance();
+    }
+
+    /**
+     * @return the number of bytes left in the chunk and the channel
+     */
+    @Override
+    public int available()
+    {
+        return (int) Math.min( Integer.MAX_VALUE, remaining() );
+    }
+
+    /**
+     * Returns the chunk to the pool. The channel stays open.
+     */
+    @Override
+    public void close()
+    {
+        if ( buffer != null )
+        {
+            pool.release( buffer );
+            buffer = null;
+        }
+        unread = 0;
+    }
+
+    /**
+     * Makes sure the chunk has data.
+     *
+     * @return false at the end of the stream
+     * @throws IOException if the channel ends early
+     */
+    private boolean fill()
+        throws IOException
+    {
+        if ( buffer != null && buffer.hasRemaining() )
+        {
+            return true;
+        }
+        if ( unread == 0 )
+        {
+            return false;
+        }
+        if ( buffer == null )
+        {
+            buffer = unread < pool.getChunkSize() ? ByteBuffer.allocate( (int) unread ) : pool.acquire();
+        }
+
+        buffer.clear();
+        buffer.limit( (int) Math.min( buffer.capacity(), unread ) );
+        while ( buffer.position() == 0 )
+        {
+            final int read = filePosition < 0 ? channel.read( buffer )
+                : ( (FileChannel) channel ).read( buffer, filePosition );
+            if ( read < 0 )
+            {
+                throw new EOFException( "Channel ended " + unread + " bytes early" );
+            }
+            if ( read == 0 )
+            {
+                awaitData();
+            }
+            else if ( filePosition >= 0 )
+            {
+                filePosition += read;
+            }
+        }
+        unread -= buffer.position();
+        buffer.flip();
+        return true;
+    }
+
+    /**
+     * Waits until a non-blocking channel has data, instead of spinning on empty reads.
+     *
+     * @throws SocketTimeoutException if a socket channel has no data within its SO_TIMEOUT
+     * @throws IOException if the selector fails
+     */
+    private void awaitData()
+        throws IOException
+    {
+        if ( channel instanceof SelectableChannel && !( (SelectableChannel) channel ).isBlocking() )
+        {
+            // 0 waits forever, as for a blocking socket
+            final int timeout = channel instanceof SocketChannel ? ( (SocketChannel) channel ).socket().getSoTimeout() : 0;
+            try ( Selector selector = Selector.open() )
+            {
+                ( (SelectableChannel) channel ).register( selector, SelectionKey.OP_READ );
+                if ( selector.select( timeout ) == 0 && timeout > 0 )
+                {
+                    throw new SocketTimeoutException( "No data within " + timeout + " ms, " + unread
+                            + " bytes missing" );
+                }
+            }
+        }
+        else
+        {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * @return the byte or -1 at the end
+     * @throws IOException if the channel ends early
+     */
+    @Override
+    public int read()
+        throws IOException
+    {
+        return fill() ? buffer.get() & 0xFF : -1;
+    }
+
+    /**
+     * @param b the target
+     * @param off the start offset
+     * @param len the maximum number of bytes
+     * @return the number of bytes read or -1 at the end
+     * @throws IOException if the channel ends early
+     */
+    @Override
+    public int read( final byte[] b, final int off, final int len )
+        throws IOException
+    {
+        if ( len == 0 )
+        {
+            return 0;
+        }
+        if ( !fill() )
+        {
+            return -1;
+        }
+        final int count = Math.min( len, buffer.remaining() );
+        buffer.get( b, off, count );
+        return count;
+    }
+
+    /**
+     * @return the number of bytes left in the chunk and the channel
+     */
+    private long remaining()
+    {
+        return unread + ( buffer == null ? 0 : buffer.remaining() );
+    }
+
+    /**
+     * Reads and discards the rest, so that a sequential channel is positioned at the next record.
+     *
+     * @throws IOException if the channel ends early
+     */
+    public void skipRemaining()
+        throws IOException
+    {
+        while ( fill() )
+        {
+            buffer.position( buffer.limit() );
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.jcs4.io;
+
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.jcs4.utils.threadpool.DaemonThreadFactory;
+
+/**
+ * A pool of direct byte buffers of one size. Serializers write into these chunks and the chunks
+ * are handed to channels as they are, so large values are neither copied into one contiguous
+ * array nor copied again by the JDK into a temporary direct buffer.
+ * <p>
+ * At most <code>maxPooled</code> direct buffers exist at a time, and all of them are kept.
+ * When they are all in use, heap buffers are handed out instead, which the garbage collector
+ * reclaims like any other array. A direct buffer that is never released, for example because
+ * the caller failed, frees its place when the garbage collector reclaims it.
+ */
+public final class ByteBufferPool
+{
+    /** Size of the shared chunks */
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024;
+
+    /** Number of shared chunks kept, 4 MB */
+    public static final int DEFAULT_MAX_POOLED = 256;
+
+    /** Notices direct buffers that were lost instead of released */
+    private static final Cleaner CLEANER = Cleaner.create( new DaemonThreadFactory( "JCS-ByteBufferPool-" ) );
+
+    /** The shared pool */
+    private static final ByteBufferPool INSTANCE = new ByteBufferPool( DEFAULT_CHUNK_SIZE, DEFAULT_MAX_POOLED );
+
+    /**
+     * @return the pool shared by all serializers
+     */
+    public static ByteBufferPool getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /** The size of each buffer */
+    private final int chunkSize;
+
+    /** The maximum number of idle buffers */
+    private final int maxPooled;
+
+    /** The idle buffers */
+    private final Queue<ByteBuffer> pool = new ConcurrentLinkedQueue<>();
+
+    /** The number of idle buffers, the queue has no constant time size */
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    /** The number of direct buffers not yet reclaimed, at most maxPooled */
+    private final AtomicInteger allocated = new AtomicInteger();
+
+    /**
+     * @param chunkSize the size of each buffer
+     * @param maxPooled the maximum number of idle buffers
+     */
+    public ByteBufferPool( final int chunkSize, final int maxPooled )
+    {
+        this.chunkSize = chunkSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * Takes a cleared buffer from the pool, or allocates a new one. The new buffer is a heap
+     * buffer once <code>maxPooled</code> direct buffers exist.
+     *
+     * @return a buffer of {@link #getChunkSize()} bytes
+     */
+    public ByteBuffer acquire()
+    {
+        final ByteBuffer buffer = pool.poll();
+        if ( buffer == null )
+        {
+            if ( allocated.incrementAndGet() <= maxPooled )
+            {
+                final ByteBuffer direct = ByteBuffer.allocateDirect( chunkSize );
+                CLEANER.register( direct, allocated::decrementAndGet );
+                return direct;
+            }
+            allocated.decrementAndGet();
+            return ByteBuffer.allocate( chunkSize );
+        }
+        pooled.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * @return the size of each buffer
+     */
+    public int getChunkSize()
+    {
+        return chunkSize;
+    }
+
+    /**
+     * @return the number of idle buffers
+     */
+    public int getPooledCount()
+    {
+        return pooled.get();
+    }
+
+    /**
+     * Returns a buffer to the pool. The buffer must not be used by the caller afterwards. Heap
+     * buffers are left to the garbage collector.
+     *
+     * @param buffer a buffer taken from this pool
+     */
+    public void release( final ByteBuffer buffer )
+    {
+        if ( !buffer.isDirect() || buffer.capacity() != chunkSize )
+        {
+            return;
+        }
+        if ( pooled.incrementAndGet() <= maxPooled )
+        {
+            pool.offer( buffer );
+        }
+        else
+        {
+            pooled.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.jcs4.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An output stream that collects the data in chunks taken from a {@link ByteBufferPool}. The
+ * chunks are written to channels without being copied into one array, with gathering writes
+ * where the channel supports them.
+ * <p>
+ * The first chunk is a small heap buffer that grows up to the chunk size of the pool, so small
+ * values never take a pooled chunk.
+ * <p>
+ * Closing the stream does nothing, so that wrapping streams can be closed safely. The chunks go
+ * back to the pool with {@link #release()}, after which the stream must not be used.
+ */
+public class PooledByteBufferOutputStream
+    extends OutputStream
+{
+    /** Initial size of the first chunk */
+    private static final int FIRST_CHUNK_SIZE = 256;
+
+    /** Where the chunks come from */
+    private final ByteBufferPool pool;
+
+    /** The chunks, the last one is being written */
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+
+    /** The chunk being written */
+    private ByteBuffer current;
+
+    /** The number of bytes written */
+    private int size;
+
+    /**
+     * Uses the shared pool.
+     */
+    public PooledByteBufferOutputStream()
+    {
+        this( ByteBufferPool.getInstance() );
+    }
+
+    /**
+     * @param pool where the chunks come from
+     */
+    public PooledByteBufferOutputStream( final ByteBufferPool pool )
+    {
+        this.pool = pool;
+    }
+
+    /**
+     * @return the chunk being written, with room for at least one byte
+     */
+    private ByteBuffer current()
+    {
+        if ( current == null )
+        {
+            current = ByteBuffer.allocate( Math.min( FIRST_CHUNK_SIZE, pool.getChunkSize() ) );
+            chunks.add( current );
+        }
+        else if ( !current.hasRemaining() )
+        {
+            if ( chunks.size() == 1 && current.capacity() < pool.getChunkSize() )
+            {
+                // grow the first chunk, all chunks but the last have the chunk size of the pool
+                final ByteBuffer grown = ByteBuffer.allocate(
+                        (int) Math.min( 2L * current.capacity(), pool.getChunkSize() ) );
+                grown.put( current.flip() );
+                current = grown;
+                chunks.set( 0, current );
+            }
+            else
+            {
+                current = pool.acquire();
+                chunks.add( current );
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Returns views of the data. The views are valid until the next write or release.
+     *
+     * @return one buffer per chunk, positioned at the start of the data
+     */
+    public ByteBuffer[] getBuffers()
+    {
+        return getBuffers( 0, size );
+    }
+
+    /**
+     * Returns views of a part of the data. The views are valid until the next write or release.
+     *
+     * @param offset the first byte
+     * @param length the number of bytes
+     * @return the buffers covering the range, positioned at its start
+     */
+    public ByteBuffer[] getBuffers( final int offset, final int length )
+    {
+        if ( offset < 0 || length < 0 || offset + length > size )
+        {
+            throw new IndexOutOfBoundsException( "Range " + offset + "+" + length + " exceeds " + size );
+        }
+
+        final List<ByteBuffer> views = new ArrayList<>();
+        final int chunkSize = pool.getChunkSize();
+        int position = offset;
+        final int end = offset + length;
+        while ( position < end )
+        {
+            final int start = position % chunkSize;
+            final int count = Math.min( chunkSize - start, end - position );
+            final ByteBuffer view = chunks.get( position / chunkSize ).duplicate();
+            view.limit( start + count ).position( start );
+            views.add( view );
+            position += count;
+        }
+        return views.toArray( new ByteBuffer[0] );
+    }
+
+    /**
+     * Copies the start of the data into an array.
+     *
+     * @param length the number of bytes, at most {@link #size()}
+     * @return the first length bytes
+     */
+    public byte[] toByteArray( final int length )
+    {
+        final byte[] data = new byte[length];
+        int offset = 0;
+        for ( final ByteBuffer buffer : getBuffers( 0, length ) )
+        {
+            final int count = buffer.remaining();
+            buffer.get( data, offset, count );
+            offset += count;
+        }
+        return data;
+    }
+
+    /**
+     * Returns the chunks to the pool and forgets the data.
+     */
+    public void release()
+    {
+        chunks.forEach( pool::release );
+        chunks.clear();
+        current = null;
+        size = 0;
+    }
+
+    /**
+     * @return the number of bytes written
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Makes sure that the size cannot overflow.
+     *
+     * @param length the number of bytes about to be written
+     * @throws IOException if the data would exceed 2 GB
+     */
+    private void checkSize( final int length )
+        throws IOException
+    {
+        if ( length > Integer.MAX_VALUE - size )
+        {
+            throw new IOException( "Serialized data exceeds " + Integer.MAX_VALUE + " bytes" );
+        }
+    }
+
+    /**
+     * @param b the bytes
+     * @param off the start offset
+     * @param len the number of bytes
+     * @throws IOException if the data would exceed 2 GB
+     */
+    @Override
+    public void write( final byte[] b, final int off, final int len )
+        throws IOException
+    {
+        checkSize( len );
+        int offset = off;
+        int remaining = len;
+        while ( remaining > 0 )
+        {
+            final ByteBuffer chunk = current();
+            final int count = Math.min( chunk.remaining(), remaining );
+            chunk.put( b, offset, count );
+            offset += count;
+            remaining -= count;
+        }
+        size += len;
+    }
+
+    /**
+     * @param b the byte
+     * @throws IOException if the data would exceed 2 GB
+     */
+    @Override
+    public void write( final int b )
+        throws IOException
+    {
+        checkSize( 1 );
+        current().put( (byte) b );
+        size++;
+    }
+
+    /**
+     * Writes the data to a file at the given position.
+     *
+     * @param fc the file
+     * @param position the position in the file
+     * @return the number of bytes written
+     * @throws IOException on write errors
+     */
+    public int writeTo( final FileChannel fc, final long position )
+        throws IOException
+    {
+        long filePosition = position;
+        for ( final ByteBuffer buffer : getBuffers() )
+        {
+            while ( buffer.hasRemaining() )
+            {
+                filePosition += fc.write( buffer, filePosition );
+            }
+        }
+        return (int) ( filePosition - position );
+    }
+
+    /**
+     * Writes the header buffers and the data to the channel, with one gathering write where
+     * possible.
+     *
+     * @param channel the channel
+     * @param headers buffers to write in front of the data, usually a length prefix
+     * @return the number of bytes written
+     * @throws IOException on write errors
+     */
+    public long writeTo( final WritableByteChannel channel, final ByteBuffer... headers )
+        throws IOException
+    {
+        final ByteBuffer[] data = getBuffers();
+        final ByteBuffer[] buffers = new ByteBuffer[headers.length + data.length];
+        System.arraycopy( headers, 0, buffers, 0, headers.length );
+        System.arraycopy( data, 0, buffers, headers.length, data.length );
+
+        long count = 0;
+        if ( channel instanceof final GatheringByteChannel gathering )
+        {
+            int first = 0;
+            while ( first < buffers.length )
+            {
+                count += gathering.write( buffers, first, buffers.length - first );
+                while ( first < buffers.length && !buffers[first].hasRemaining() )
+                {
+                    first++;
+                }
+            }
+        }
+        else
+        {
+            for ( final ByteBuffer buffer : buffers )
+            {
+                while ( buffer.hasRemaining() )
+                {
+                    count += channel.write( buffer );
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the data to a stream. The stream is not closed.
+     *
+     * @param out the stream
+     * @throws IOException on write errors
+     */
+    public void writeTo( final OutputStream out )
+        throws IOException
+    {
+        final byte[] transfer = new byte[Math.min( size, pool.getChunkSize() )];
+        for ( final ByteBuffer buffer : getBuffers() )
+        {
+            while ( buffer.hasRemaining() )
+            {
+                final int count = Math.min( buffer.remaining(), transfer.length );
+                buffer.get( transfer, 0, count );
+                out.write( transfer, 0, count );
+            }
+        }
+    }
+}
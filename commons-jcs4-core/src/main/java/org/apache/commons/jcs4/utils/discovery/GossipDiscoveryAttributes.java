@@ -0,0 +1,165 @@
+package org.apache.commons.jcs4.utils.discovery;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.jcs4.auxiliary.lateral.socket.tcp.behavior.ILateralTCPCacheAttributes;
+
+/**
+ * Configuration properties for the gossip discovery service.
+ * <p>
+ * Each member probes one other member per protocol period. Failure detection takes about one
+ * protocol period plus the suspect timeout once the failed member is probed.
+ * </p>
+ */
+public record GossipDiscoveryAttributes(
+        /** Service address */
+        String serviceAddress,
+
+        /** Service port */
+        int servicePort,
+
+        /** Host the gossip socket binds to and announces, null for the service address */
+        String gossipHost,
+
+        /** Port of the gossip socket, 0 for any free port */
+        int gossipPort,
+
+        /** Addresses of the gossip sockets to join, as host:port */
+        List<String> seeds,
+
+        /** Time between two probes */
+        Duration protocolPeriod,
+
+        /** Time to wait for an ACK before asking other members to probe */
+        Duration pingTimeout,
+
+        /** Number of members asked to probe a member that did not answer */
+        int indirectPingCount,
+
+        /** Time a suspected member has to refute the suspicion */
+        Duration suspectTimeout
+)
+{
+    /** Default time between two probes */
+    private static final Duration DEFAULT_PROTOCOL_PERIOD = Duration.ofMillis( 200 );
+
+    /** Default time to wait for an ACK */
+    private static final Duration DEFAULT_PING_TIMEOUT = Duration.ofMillis( 80 );
+
+    /** Default number of indirect probes */
+    private static final int DEFAULT_INDIRECT_PING_COUNT = 3;
+
+    /** Default time a suspected member has to refute the suspicion */
+    private static final Duration DEFAULT_SUSPECT_TIMEOUT = Duration.ofMillis( 400 );
+
+    /** Record with all defaults set */
+    private static final GossipDiscoveryAttributes DEFAULT = new GossipDiscoveryAttributes(
+            null,
+            -1,
+            null,
+            0,
+            List.of(),
+            DEFAULT_PROTOCOL_PERIOD,
+            DEFAULT_PING_TIMEOUT,
+            DEFAULT_INDIRECT_PING_COUNT,
+            DEFAULT_SUSPECT_TIMEOUT
+            );
+
+    /**
+     * @return An object containing the default settings
+     */
+    public static GossipDiscoveryAttributes defaults()
+    {
+        return DEFAULT;
+    }
+
+    /**
+     * Constructor from ILateralTCPCacheAttributes
+     *
+     * @param lac lateral cache configuration object
+     */
+    public GossipDiscoveryAttributes(final ILateralTCPCacheAttributes lac)
+    {
+        this(lac.getTcpListenerHost(), lac.getTcpListenerPort(), null, lac.getGossipDiscoveryPort(),
+            parseSeeds(lac.getGossipDiscoverySeeds()));
+    }
+
+    /**
+     * Constructor with necessary fields only
+     *
+     * @param serviceAddress
+     * @param servicePort
+     * @param gossipHost
+     * @param gossipPort
+     * @param seeds
+     */
+    public GossipDiscoveryAttributes(final String serviceAddress, final int servicePort,
+        final String gossipHost, final int gossipPort, final List<String> seeds)
+    {
+        this(serviceAddress,
+            servicePort,
+            gossipHost,
+            gossipPort,
+            seeds,
+            defaults().protocolPeriod(),
+            defaults().pingTimeout(),
+            defaults().indirectPingCount(),
+            defaults().suspectTimeout()
+            );
+    }
+
+    /**
+     * @param seeds comma separated list of host:port, may be null
+     * @return the seeds
+     */
+    public static List<String> parseSeeds(final String seeds)
+    {
+        if (seeds == null || seeds.isBlank())
+        {
+            return List.of();
+        }
+        return Arrays.stream(seeds.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+    }
+
+    /**
+     * @return string for debugging purposes.
+     */
+    @Override
+    public String toString()
+    {
+        final StringBuilder buf = new StringBuilder();
+        buf.append("\n GossipDiscoveryAttributes");
+        buf.append("\n ServiceAddress = [").append(serviceAddress()).append("]");
+        buf.append("\n ServicePort = [").append(servicePort()).append("]");
+        buf.append("\n GossipHost = [").append(gossipHost()).append("]");
+        buf.append("\n GossipPort = [").append(gossipPort()).append("]");
+        buf.append("\n Seeds = [").append(seeds()).append("]");
+        buf.append("\n ProtocolPeriod = [").append(protocolPeriod()).append("]");
+        buf.append("\n SuspectTimeout = [").append(suspectTimeout()).append("]");
+        return buf.toString();
+    }
+}
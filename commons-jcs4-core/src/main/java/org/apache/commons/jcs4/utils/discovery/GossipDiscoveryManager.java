@@ -0,0 +1,106 @@
+package org.apache.commons.jcs4.utils.discovery;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.jcs4.engine.behavior.ICompositeCacheManager;
+import org.apache.commons.jcs4.engine.behavior.IElementSerializer;
+import org.apache.commons.jcs4.engine.behavior.IProvideScheduler;
+import org.apache.commons.jcs4.log.Log;
+
+/**
+ * This manages gossip discovery services. One service per gossip port works for multiple regions.
+ */
+public class GossipDiscoveryManager
+{
+    /** The logger */
+    private static final Log log = Log.getLog( GossipDiscoveryManager.class );
+
+    /** Singleton instance */
+    private static final GossipDiscoveryManager INSTANCE = new GossipDiscoveryManager();
+
+    /**
+     * Singleton
+     *
+     * @return GossipDiscoveryManager
+     */
+    public static GossipDiscoveryManager getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /** Known services */
+    private final ConcurrentMap<String, GossipDiscoveryService> services = new ConcurrentHashMap<>();
+
+    /** Private for singleton */
+    private GossipDiscoveryManager()
+    {
+        // noopt
+    }
+
+    /**
+     * Creates a service for the gossip port if one doesn't exist already.
+     *
+     * @param attributes configuration object
+     * @param cacheMgr The Cache Hub
+     * @param serializer The Serializer for UDP packets
+     * @return GossipDiscoveryService
+     * @throws UncheckedIOException if the gossip socket cannot be opened
+     */
+    public GossipDiscoveryService getService(final GossipDiscoveryAttributes attributes,
+            final ICompositeCacheManager cacheMgr, final IElementSerializer serializer )
+    {
+        final String key = String.join(":", String.valueOf(attributes.gossipPort()),
+                String.valueOf(attributes.servicePort()));
+
+        final GossipDiscoveryService service = services.computeIfAbsent(key, k -> {
+            log.info( "Creating service for gossipPort:servicePort [{0}]", key );
+
+            final GossipDiscoveryService newService = new GossipDiscoveryService(attributes, serializer);
+
+            // register for shutdown notification
+            cacheMgr.registerShutdownObserver( newService );
+
+            // inject scheduler
+            if (cacheMgr instanceof IProvideScheduler ips)
+            {
+                newService.setScheduledExecutorService(ips.getScheduledExecutorService());
+            }
+
+            try
+            {
+                newService.startup();
+            }
+            catch (final IOException e)
+            {
+                throw new UncheckedIOException("Could not open gossip socket on port " + attributes.gossipPort(), e);
+            }
+            return newService;
+        });
+
+        log.debug( "Returning service [{0}] for key [{1}]", service, key );
+
+        return service;
+    }
+}
@@ -0,0 +1,809 @@
+package org.apache.commons.jcs4.utils.discovery;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.apache.commons.jcs4.engine.behavior.IElementSerializer;
+import org.apache.commons.jcs4.engine.behavior.IRequireScheduler;
+import org.apache.commons.jcs4.engine.behavior.IShutdownObserver;
+import org.apache.commons.jcs4.log.Log;
+import org.apache.commons.jcs4.utils.discovery.GossipMember.State;
+import org.apache.commons.jcs4.utils.discovery.GossipMessage.Type;
+import org.apache.commons.jcs4.utils.discovery.behavior.IDiscoveryListener;
+import org.apache.commons.jcs4.utils.discovery.behavior.IDiscoveryService;
+import org.apache.commons.jcs4.utils.net.HostNameUtil;
+import org.apache.commons.jcs4.utils.threadpool.DaemonThreadFactory;
+
+/**
+ * Discovery based on SWIM style gossip over unicast UDP. It works where multicast is not
+ * available, all it needs is the address of at least one other member.
+ * <p>
+ * Each protocol period a member pings one other member, in random round robin order. If there is
+ * no ACK within the ping timeout, it asks a few other members to ping the target on its behalf. If
+ * there is still no ACK at the end of the period, the target becomes SUSPECT. A suspected member
+ * that learns about the suspicion refutes it with a new incarnation. Otherwise it is declared DEAD
+ * after the suspect timeout and the listeners are told to remove it.
+ * </p>
+ * <p>
+ * Membership changes are piggybacked on the pings and ACKs, so there is no separate broadcast. A
+ * joining member pings the seeds until it knows another member.
+ * </p>
+ */
+public class GossipDiscoveryService
+    implements IDiscoveryService, IShutdownObserver, IRequireScheduler
+{
+    /** A probe that waits for its ACK */
+    private record PendingProbe(
+            /** Id of the probed member */
+            String target,
+
+            /** Who asked for the probe, null for own probes */
+            InetSocketAddress requester,
+
+            /** Sequence number of the PING_REQ */
+            long requesterSequence,
+
+            /** When the probe is given up */
+            Instant deadline)
+    {
+    }
+
+    /** The logger */
+    private static final Log log = Log.getLog( GossipDiscoveryService.class );
+
+    /** Largest UDP payload */
+    private static final int MAX_DATAGRAM_SIZE = 65507;
+
+    /** Maximum number of membership changes piggybacked on one message */
+    private static final int MAX_PIGGYBACK = 8;
+
+    /** Maximum number of members sent in answer to a seed ping */
+    private static final int MAX_VIEW = 64;
+
+    /** How long dead members are remembered, so that old gossip cannot bring them back */
+    private static final Duration DEAD_MEMBER_RETENTION = Duration.ofSeconds( 60 );
+
+    /** Sequence number for messages that do not expect an ACK */
+    private static final long NO_SEQUENCE = -1;
+
+    /** Attributes */
+    private GossipDiscoveryAttributes attributes;
+
+    /** Used to serialize messages */
+    private final IElementSerializer serializer;
+
+    /** Is this shut down? */
+    private final AtomicBoolean shutdown = new AtomicBoolean();
+
+    /** Thread that reads from the socket */
+    private final ExecutorService receiverExecutor;
+
+    /** Thread that calls the listeners, so that slow listeners do not delay ACKs */
+    private final ExecutorService notifierExecutor;
+
+    /** This a list of regions that are configured to use discovery. */
+    private final Set<String> cacheNames = new CopyOnWriteArraySet<>();
+
+    /** Set of listeners. */
+    private final Set<IDiscoveryListener> discoveryListeners = new CopyOnWriteArraySet<>();
+
+    /** Source of sequence numbers */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /** The socket, null until startup */
+    private volatile DatagramSocket socket;
+
+    /** Used to schedule the probes */
+    private ScheduledExecutorService scheduler;
+
+    /** Handle to cancel the scheduled probe task */
+    private ScheduledFuture<?> probeTaskFuture;
+
+    /** This member, guarded by this */
+    private GossipMember self;
+
+    /** The other members by id, guarded by this */
+    private final Map<String, GossipMember> members = new HashMap<>();
+
+    /** When the state of a member last changed, guarded by this */
+    private final Map<String, Instant> stateChanges = new HashMap<>();
+
+    /** Remaining transmissions of membership changes by member id, guarded by this */
+    private final Map<String, Integer> broadcasts = new LinkedHashMap<>();
+
+    /** Probes that wait for an ACK by sequence number, guarded by this */
+    private final Map<Long, PendingProbe> pending = new HashMap<>();
+
+    /** Members in probe order, guarded by this */
+    private final List<String> probeOrder = new ArrayList<>();
+
+    /** Position in the probe order, guarded by this */
+    private int probeIndex;
+
+    /** Sequence number of the probe of the current protocol period, guarded by this */
+    private long currentProbe = NO_SEQUENCE;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param attributes settings of service
+     * @param serializer The serializer to use to send and receive messages
+     */
+    public GossipDiscoveryService(final GossipDiscoveryAttributes attributes, final IElementSerializer serializer)
+    {
+        this.attributes = attributes;
+        this.serializer = serializer;
+        this.receiverExecutor = Executors.newSingleThreadExecutor(new DaemonThreadFactory("JCS-GossipReceiver-"));
+        this.notifierExecutor = Executors.newSingleThreadExecutor(new DaemonThreadFactory("JCS-GossipNotifier-"));
+    }
+
+    /**
+     * Adds a listener.
+     *
+     * @param listener
+     * @return true if it wasn't already in the set
+     */
+    @Override
+    public boolean addDiscoveryListener( final IDiscoveryListener listener )
+    {
+        return discoveryListeners.add( listener );
+    }
+
+    /**
+     * Adds a region to the list that is participating in discovery. The other members learn about
+     * it with the next messages.
+     *
+     * @param cacheName
+     */
+    @Override
+    public synchronized void addParticipatingCacheName( final String cacheName )
+    {
+        if ( cacheNames.add( cacheName ) && self != null )
+        {
+            self = new GossipMember( self.host(), self.port(), self.serviceAddress(), self.servicePort(),
+                    new ArrayList<>( cacheNames ), self.incarnation() + 1, State.ALIVE );
+            broadcast( self.id() );
+        }
+    }
+
+    /**
+     * @return The services of the members that are not dead.
+     */
+    @Override
+    public synchronized Set<DiscoveredService> getDiscoveredServices()
+    {
+        return members.values().stream()
+                .filter( m -> m.state() != State.DEAD )
+                .map( GossipMember::toDiscoveredService )
+                .collect( Collectors.toSet() );
+    }
+
+    /**
+     * @return the address of the gossip socket of this member, null before startup
+     */
+    public synchronized String getLocalId()
+    {
+        return self == null ? null : self.id();
+    }
+
+    /**
+     * @param id id of a member
+     * @return the state of the member, null if it is unknown
+     */
+    public synchronized State getMemberState( final String id )
+    {
+        final GossipMember member = members.get( id );
+        return member == null ? null : member.state();
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener
+     * @return true if it was in the set
+     */
+    @Override
+    public boolean removeDiscoveryListener( final IDiscoveryListener listener )
+    {
+        return discoveryListeners.remove( listener );
+    }
+
+    /**
+     * Schedules the probes.
+     *
+     * @see org.apache.commons.jcs4.engine.behavior.IRequireScheduler#setScheduledExecutorService(java.util.concurrent.ScheduledExecutorService)
+     */
+    @Override
+    public void setScheduledExecutorService(final ScheduledExecutorService scheduledExecutor)
+    {
+        this.scheduler = scheduledExecutor;
+        final long period = attributes.protocolPeriod().toMillis();
+        this.probeTaskFuture = scheduledExecutor.scheduleAtFixedRate(
+                this::probe, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens the socket, starts the receiver thread and pings the seeds.
+     *
+     * @throws IOException if the socket cannot be opened
+     */
+    public void startup()
+        throws IOException
+    {
+        String serviceAddress = attributes.serviceAddress();
+        if ( serviceAddress == null || serviceAddress.isEmpty() )
+        {
+            serviceAddress = HostNameUtil.getLocalHostLANAddress().getHostAddress();
+            log.debug( "Using service address {0}", serviceAddress );
+        }
+        final String host = attributes.gossipHost() == null || attributes.gossipHost().isEmpty()
+                ? serviceAddress : attributes.gossipHost();
+
+        final DatagramSocket newSocket = new DatagramSocket( attributes.gossipPort() );
+        synchronized ( this )
+        {
+            // a restarted member must win over the tombstone of its previous run
+            self = new GossipMember( host, newSocket.getLocalPort(), serviceAddress, attributes.servicePort(),
+                    new ArrayList<>( cacheNames ), System.currentTimeMillis(), State.ALIVE );
+            socket = newSocket;
+        }
+        log.info( "Gossip discovery started at {0}", this::getLocalId );
+
+        receiverExecutor.execute( this::receive );
+        pingSeeds();
+    }
+
+    /**
+     * Leaves the group and closes the socket.
+     */
+    @Override
+    public void shutdown()
+    {
+        if ( shutdown.get() )
+        {
+            log.debug( "Shutdown already called." );
+            return;
+        }
+
+        if ( socket != null )
+        {
+            // tell the others, so they don't have to wait for the failure detection
+            final List<InetSocketAddress> targets;
+            final GossipMessage leave;
+            synchronized ( this )
+            {
+                self = self.with( State.DEAD, self.incarnation() );
+                leave = new GossipMessage( Type.PING, NO_SEQUENCE, self, null, List.of( self ) );
+                targets = members.values().stream()
+                        .filter( m -> m.state() != State.DEAD )
+                        .map( m -> new InetSocketAddress( m.host(), m.port() ) )
+                        .toList();
+            }
+            targets.forEach( target -> send( target, leave ) );
+            log.info( "Shutting down gossip discovery service {0}.", self::id );
+        }
+
+        close();
+    }
+
+    /**
+     * Stops without telling the other members, like a failed member.
+     */
+    void close()
+    {
+        shutdown.set( true );
+        if ( probeTaskFuture != null )
+        {
+            probeTaskFuture.cancel( false );
+        }
+        if ( socket != null )
+        {
+            socket.close();
+        }
+        receiverExecutor.shutdown();
+        notifierExecutor.shutdown();
+    }
+
+    /**
+     * Runs one protocol period: judges the previous probe, expires suspects and probes the next
+     * member.
+     */
+    protected void probe()
+    {
+        if ( socket == null || shutdown.get() )
+        {
+            return;
+        }
+
+        final GossipMember target;
+        final long probeSequence;
+        final GossipMessage ping;
+        synchronized ( this )
+        {
+            final PendingProbe missed = pending.remove( currentProbe );
+            if ( missed != null )
+            {
+                suspect( missed.target() );
+            }
+            currentProbe = NO_SEQUENCE;
+            expire( Instant.now() );
+
+            target = nextTarget();
+            if ( target == null )
+            {
+                probeSequence = NO_SEQUENCE;
+                ping = null;
+            }
+            else
+            {
+                probeSequence = sequence.incrementAndGet();
+                pending.put( probeSequence, new PendingProbe( target.id(), null, NO_SEQUENCE,
+                        Instant.now().plus( attributes.protocolPeriod() ) ) );
+                currentProbe = probeSequence;
+                ping = message( Type.PING, probeSequence, null );
+            }
+        }
+
+        if ( target == null )
+        {
+            // alone, try to join
+            pingSeeds();
+            return;
+        }
+
+        send( new InetSocketAddress( target.host(), target.port() ), ping );
+        if ( scheduler != null )
+        {
+            scheduler.schedule( () -> probeIndirectly( probeSequence ),
+                    attributes.pingTimeout().toMillis(), TimeUnit.MILLISECONDS );
+        }
+    }
+
+    /**
+     * Asks other members to ping the target of a probe that did not get an ACK yet.
+     *
+     * @param probeSequence sequence number of the probe
+     */
+    private void probeIndirectly( final long probeSequence )
+    {
+        final List<GossipMember> helpers;
+        final GossipMessage request;
+        synchronized ( this )
+        {
+            final PendingProbe probe = pending.get( probeSequence );
+            if ( probe == null || shutdown.get() )
+            {
+                return;
+            }
+
+            final List<GossipMember> candidates = members.values().stream()
+                    .filter( m -> m.state() == State.ALIVE && !m.id().equals( probe.target() ) )
+                    .collect( Collectors.toCollection( ArrayList::new ) );
+            Collections.shuffle( candidates, ThreadLocalRandom.current() );
+            helpers = candidates.subList( 0, Math.min( attributes.indirectPingCount(), candidates.size() ) );
+            request = message( Type.PING_REQ, probeSequence, probe.target() );
+        }
+
+        log.debug( "No ACK from {0}, asking {1} other members", request::target, helpers::size );
+        helpers.forEach( helper -> send( new InetSocketAddress( helper.host(), helper.port() ), request ) );
+    }
+
+    /**
+     * Handles a message from another member.
+     *
+     * @param message the message
+     * @param sender the address it came from
+     */
+    protected void processMessage( final GossipMessage message, final InetSocketAddress sender )
+    {
+        final InetSocketAddress replyTo;
+        final GossipMessage reply;
+        synchronized ( this )
+        {
+            merge( message.from() );
+            message.updates().forEach( this::merge );
+
+            switch ( message.type() )
+            {
+                case PING:
+                    if ( message.sequence() != NO_SEQUENCE )
+                    {
+                        replyTo = sender;
+                        reply = message( Type.ACK, message.sequence(), null );
+                    }
+                    else if ( message.from().state() != State.DEAD )
+                    {
+                        // a seed ping, answer with the view so the new member knows the group at once
+                        replyTo = sender;
+                        reply = viewMessage();
+                    }
+                    else
+                    {
+                        // a member leaving, nobody listens for the answer
+                        replyTo = null;
+                        reply = null;
+                    }
+                    break;
+
+                case PING_REQ:
+                    final long relaySequence = sequence.incrementAndGet();
+                    pending.put( relaySequence, new PendingProbe( message.target(), sender, message.sequence(),
+                            Instant.now().plus( attributes.protocolPeriod() ) ) );
+                    replyTo = toAddress( message.target() );
+                    reply = message( Type.PING, relaySequence, null );
+                    break;
+
+                case ACK:
+                default:
+                    final PendingProbe probe = pending.remove( message.sequence() );
+                    if ( probe != null && probe.requester() != null )
+                    {
+                        // relay the ACK to the member that asked for the probe
+                        replyTo = probe.requester();
+                        reply = message( Type.ACK, probe.requesterSequence(), null );
+                    }
+                    else
+                    {
+                        replyTo = null;
+                        reply = null;
+                    }
+                    break;
+            }
+        }
+
+        if ( replyTo != null )
+        {
+            send( replyTo, reply );
+        }
+    }
+
+    /**
+     * Reads messages until the socket is closed.
+     */
+    private void receive()
+    {
+        final byte[] buffer = new byte[MAX_DATAGRAM_SIZE];
+        while ( !shutdown.get() )
+        {
+            final DatagramPacket packet = new DatagramPacket( buffer, buffer.length );
+            try
+            {
+                socket.receive( packet );
+                final Object obj = serializer.deSerialize(
+                        Arrays.copyOfRange( buffer, packet.getOffset(), packet.getOffset() + packet.getLength() ), null );
+                if ( obj instanceof GossipMessage message )
+                {
+                    processMessage( message, (InetSocketAddress) packet.getSocketAddress() );
+                }
+            }
+            catch ( final SocketException e )
+            {
+                if ( !shutdown.get() )
+                {
+                    log.error( "Gossip socket failed, stopping receiver", e );
+                }
+                break;
+            }
+            catch ( final IOException | ClassNotFoundException | RuntimeException e )
+            {
+                log.warn( "Ignoring bad gossip message from {0}", packet.getSocketAddress(), e );
+            }
+        }
+    }
+
+    /**
+     * Applies information about a member if it is newer than what we know.
+     *
+     * @param update the information
+     */
+    private void merge( final GossipMember update )
+    {
+        if ( update.id().equals( self.id() ) )
+        {
+            if ( update.state() != State.ALIVE && update.incarnation() >= self.incarnation()
+                    && self.state() == State.ALIVE )
+            {
+                log.info( "Refuting {0} from the other members", update.state() );
+                self = self.with( State.ALIVE, update.incarnation() + 1 );
+                broadcast( self.id() );
+            }
+            return;
+        }
+
+        final GossipMember existing = members.get( update.id() );
+        if ( existing != null && !update.overrides( existing ) )
+        {
+            if ( existing.state() == State.DEAD && update.state() == State.ALIVE )
+            {
+                // it still talks, spread the news again so that it can refute
+                broadcast( existing.id() );
+            }
+            return;
+        }
+        if ( existing == null && update.state() == State.DEAD )
+        {
+            return;
+        }
+
+        members.put( update.id(), update );
+        broadcast( update.id() );
+        if ( existing == null || existing.state() != update.state() )
+        {
+            stateChanges.put( update.id(), Instant.now() );
+        }
+
+        final boolean wasAvailable = existing != null && existing.state() != State.DEAD;
+        if ( update.state() == State.DEAD )
+        {
+            log.info( "Member {0} left or failed", update::id );
+            notifyListeners( update, false );
+        }
+        else if ( !wasAvailable || !existing.cacheNames().equals( update.cacheNames() ) )
+        {
+            log.info( "Member {0} joined with caches {1}", update::id, update::cacheNames );
+            notifyListeners( update, true );
+        }
+    }
+
+    /**
+     * Marks a member as suspect if it is alive.
+     *
+     * @param id id of the member
+     */
+    private void suspect( final String id )
+    {
+        final GossipMember member = members.get( id );
+        if ( member != null && member.state() == State.ALIVE )
+        {
+            log.info( "No ACK from {0}, suspecting it", id );
+            members.put( id, member.with( State.SUSPECT, member.incarnation() ) );
+            stateChanges.put( id, Instant.now() );
+            broadcast( id );
+        }
+    }
+
+    /**
+     * Declares suspects dead after the suspect timeout, forgets old dead members and gives up
+     * relayed probes.
+     *
+     * @param now the current time
+     */
+    private void expire( final Instant now )
+    {
+        for ( final Iterator<GossipMember> it = members.values().iterator(); it.hasNext(); )
+        {
+            final GossipMember member = it.next();
+            final Instant changed = stateChanges.getOrDefault( member.id(), now );
+            if ( member.state() == State.SUSPECT && now.isAfter( changed.plus( attributes.suspectTimeout() ) ) )
+            {
+                log.info( "Suspect {0} did not refute, declaring it dead", member::id );
+                final GossipMember dead = member.with( State.DEAD, member.incarnation() );
+                members.put( member.id(), dead );
+                stateChanges.put( member.id(), now );
+                broadcast( member.id() );
+                notifyListeners( dead, false );
+            }
+            else if ( member.state() == State.DEAD && now.isAfter( changed.plus( DEAD_MEMBER_RETENTION ) ) )
+            {
+                it.remove();
+                stateChanges.remove( member.id() );
+                broadcasts.remove( member.id() );
+            }
+        }
+
+        pending.values().removeIf( probe -> probe.requester() != null && now.isAfter( probe.deadline() ) );
+    }
+
+    /**
+     * @return the next member to probe, null if there is none
+     */
+    private GossipMember nextTarget()
+    {
+        for ( int attempts = 0; attempts < 2; attempts++ )
+        {
+            while ( probeIndex < probeOrder.size() )
+            {
+                final GossipMember member = members.get( probeOrder.get( probeIndex++ ) );
+                if ( member != null && member.state() != State.DEAD )
+                {
+                    return member;
+                }
+            }
+
+            // start a new round in a new random order
+            probeOrder.clear();
+            probeOrder.addAll( members.keySet() );
+            Collections.shuffle( probeOrder, ThreadLocalRandom.current() );
+            probeIndex = 0;
+        }
+        return null;
+    }
+
+    /**
+     * Queues a membership change for dissemination. Changes are sent a few times more than the
+     * logarithm of the group size, which reaches every member with high probability.
+     *
+     * @param id id of the changed member
+     */
+    private void broadcast( final String id )
+    {
+        final int transmissions = 3 * ( 32 - Integer.numberOfLeadingZeros( members.size() + 1 ) );
+        broadcasts.put( id, Integer.valueOf( transmissions ) );
+    }
+
+    /**
+     * @param type message type
+     * @param messageSequence the sequence number
+     * @param target the target of a PING_REQ
+     * @return the message with the most urgent changes piggybacked
+     */
+    private GossipMessage message( final Type type, final long messageSequence, final String target )
+    {
+        final List<String> ids = broadcasts.entrySet().stream()
+                .sorted( Map.Entry.<String, Integer>comparingByValue( Comparator.reverseOrder() ) )
+                .limit( MAX_PIGGYBACK )
+                .map( Map.Entry::getKey )
+                .toList();
+
+        final List<GossipMember> updates = new ArrayList<>( ids.size() );
+        for ( final String id : ids )
+        {
+            final GossipMember member = id.equals( self.id() ) ? self : members.get( id );
+            if ( member != null )
+            {
+                updates.add( member );
+            }
+            broadcasts.computeIfPresent( id, ( k, remaining ) -> remaining.intValue() <= 1 ? null
+                    : Integer.valueOf( remaining.intValue() - 1 ) );
+        }
+
+        return new GossipMessage( type, messageSequence, self, target, updates );
+    }
+
+    /**
+     * Creates the answer to a seed ping, which carries this member and the other live members
+     * instead of the pending membership changes. The caller must hold the lock.
+     *
+     * @return the message
+     */
+    private GossipMessage viewMessage()
+    {
+        final List<GossipMember> view = new ArrayList<>();
+        view.add( self );
+        members.values().stream()
+                .filter( m -> m.state() != State.DEAD )
+                .limit( MAX_VIEW - 1 )
+                .forEach( view::add );
+
+        return new GossipMessage( Type.ACK, NO_SEQUENCE, self, null, view );
+    }
+
+    /**
+     * Calls the listeners on the notifier thread.
+     *
+     * @param member the member
+     * @param added true if it was added, false if it was removed
+     */
+    private void notifyListeners( final GossipMember member, final boolean added )
+    {
+        final DiscoveredService service = member.toDiscoveredService();
+        try
+        {
+            notifierExecutor.execute( () -> discoveryListeners.forEach( listener -> {
+                if ( added )
+                {
+                    listener.addDiscoveredService( service );
+                }
+                else
+                {
+                    listener.removeDiscoveredService( service );
+                }
+            } ) );
+        }
+        catch ( final RejectedExecutionException e )
+        {
+            log.debug( "Shut down, not notifying about {0}", member::id );
+        }
+    }
+
+    /**
+     * Pings the seeds, so that they learn about this member and answer with their view.
+     */
+    private void pingSeeds()
+    {
+        final GossipMessage ping;
+        final String localId;
+        synchronized ( this )
+        {
+            ping = message( Type.PING, NO_SEQUENCE, null );
+            localId = self.id();
+        }
+
+        attributes.seeds().stream()
+                .filter( seed -> !seed.equals( localId ) )
+                .map( this::toAddress )
+                .forEach( seed -> send( seed, ping ) );
+    }
+
+    /**
+     * @param id a member id or seed, as host:port
+     * @return the socket address
+     */
+    private InetSocketAddress toAddress( final String id )
+    {
+        final int colon = id.lastIndexOf( ':' );
+        return new InetSocketAddress( id.substring( 0, colon ), Integer.parseInt( id.substring( colon + 1 ) ) );
+    }
+
+    /**
+     * Sends a message. Failures are logged only, the protocol copes with lost messages.
+     *
+     * @param target the address
+     * @param message the message
+     */
+    private void send( final InetSocketAddress target, final GossipMessage message )
+    {
+        try
+        {
+            final byte[] bytes = serializer.serialize( message );
+            if ( bytes.length > MAX_DATAGRAM_SIZE )
+            {
+                log.warn( "Gossip message of {0} bytes is too large, not sent", bytes.length );
+                return;
+            }
+            socket.send( new DatagramPacket( bytes, bytes.length, target ) );
+        }
+        catch ( final IOException e )
+        {
+            if ( !shutdown.get() )
+            {
+                log.debug( "Could not send gossip message to {0}: {1}", target, e.getMessage() );
+            }
+        }
+    }
+}
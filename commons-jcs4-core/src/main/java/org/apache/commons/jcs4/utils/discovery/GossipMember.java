@@ -0,0 +1,112 @@
+package org.apache.commons.jcs4.utils.discovery;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+
+/**
+ * What a gossip discovery member knows about another member.
+ * <p>
+ * The incarnation is only ever increased by the member itself, to refute a suspicion or to announce
+ * new cache names. A newer incarnation always wins. With the same incarnation, SUSPECT wins over
+ * ALIVE and DEAD wins over both.
+ */
+public record GossipMember(
+        /** Host of the gossip socket */
+        String host,
+
+        /** Port of the gossip socket */
+        int port,
+
+        /** Service address */
+        String serviceAddress,
+
+        /** Service port */
+        int servicePort,
+
+        /** Region names */
+        ArrayList<String> cacheNames,
+
+        /** Incarnation of the information */
+        long incarnation,
+
+        /** The state */
+        State state
+) implements Serializable
+{
+    /** The state of a member */
+    public enum State
+    {
+        /** The member answers pings */
+        ALIVE,
+
+        /** The member did not answer a ping, it has some time to refute this */
+        SUSPECT,
+
+        /** The member failed or left */
+        DEAD
+    }
+
+    /**
+     * @return the id of the member, the address of its gossip socket
+     */
+    public String id()
+    {
+        return host + ":" + port;
+    }
+
+    /**
+     * @param newState the new state
+     * @param newIncarnation the new incarnation
+     * @return a copy with the given state and incarnation
+     */
+    public GossipMember with( final State newState, final long newIncarnation )
+    {
+        return new GossipMember( host, port, serviceAddress, servicePort, cacheNames, newIncarnation, newState );
+    }
+
+    /**
+     * @param other information about the same member
+     * @return true if this information replaces the other
+     */
+    public boolean overrides( final GossipMember other )
+    {
+        if ( incarnation != other.incarnation() )
+        {
+            return incarnation > other.incarnation();
+        }
+        return state.compareTo( other.state() ) > 0;
+    }
+
+    /**
+     * @return the member as discovered service
+     */
+    public DiscoveredService toDiscoveredService()
+    {
+        final DiscoveredService service = new DiscoveredService();
+        service.setServiceAddress( serviceAddress );
+        service.setServicePort( servicePort );
+        service.setCacheNames( cacheNames );
+        service.setLastHearFromTime( Instant.now() );
+        return service;
+    }
+}
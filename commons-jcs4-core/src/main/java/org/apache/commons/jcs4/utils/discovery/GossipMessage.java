@@ -0,0 +1,58 @@
+package org.apache.commons.jcs4.utils.discovery;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A message of the gossip discovery protocol. Every message carries the sender and a few recent
+ * membership changes, so changes spread without extra traffic.
+ */
+public record GossipMessage(
+        /** The message type */
+        Type type,
+
+        /** Sequence number that matches an ACK to its PING */
+        long sequence,
+
+        /** The sender */
+        GossipMember from,
+
+        /** The member to probe for a PING_REQ, null otherwise */
+        String target,
+
+        /** Piggybacked membership changes */
+        List<GossipMember> updates
+) implements Serializable
+{
+    /** The message types */
+    public enum Type
+    {
+        /** Asks the receiver for an ACK */
+        PING,
+
+        /** Asks the receiver to ping the target on behalf of the sender */
+        PING_REQ,
+
+        /** Answers a PING */
+        ACK
+    }
+}
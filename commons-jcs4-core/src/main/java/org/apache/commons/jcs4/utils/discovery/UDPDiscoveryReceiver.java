@@ -107,7 +107,7 @@ public class UDPDiscoveryReceiver
         // create a small thread pool to handle a barrage
         this.pooledExecutor = ThreadPoolManager.getInstance().createPool(
                 new PoolConfiguration(false, 0, maxPoolSize, maxPoolSize, Duration.ZERO,
-                        WhenBlockedPolicy.DISCARDOLDEST, maxPoolSize),
+                        WhenBlockedPolicy.DISCARDOLDEST, maxPoolSize, false),
                 "JCS-UDPDiscoveryReceiver-", Thread.MIN_PRIORITY);
 
         log.info( "Constructing listener, [{0}:{1}]", multicastAddress, multicastPort );
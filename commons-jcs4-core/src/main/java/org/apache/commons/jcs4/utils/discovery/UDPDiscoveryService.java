@@ -45,6 +45,7 @@ import org.apache.commons.jcs4.engine.behavior.IRequireScheduler;
 import org.apache.commons.jcs4.engine.behavior.IShutdownObserver;
 import org.apache.commons.jcs4.log.Log;
 import org.apache.commons.jcs4.utils.discovery.behavior.IDiscoveryListener;
+import org.apache.commons.jcs4.utils.discovery.behavior.IDiscoveryService;
 import org.apache.commons.jcs4.utils.net.HostNameUtil;
 import org.apache.commons.jcs4.utils.threadpool.DaemonThreadFactory;
 
@@ -58,7 +59,7 @@ import org.apache.commons.jcs4.utils.threadpool.DaemonThreadFactory;
  * </p>
  */
 public class UDPDiscoveryService
-    implements IShutdownObserver, IRequireScheduler
+    implements IDiscoveryService, IShutdownObserver, IRequireScheduler
 {
     /** The logger */
     private static final Log log = Log.getLog( UDPDiscoveryService.class );
@@ -194,6 +195,7 @@ public class UDPDiscoveryService
      * @param listener
      * @return true if it wasn't already in the set
      */
+    @Override
     public boolean addDiscoveryListener( final IDiscoveryListener listener )
     {
         return discoveryListeners.add( listener );
@@ -242,6 +244,7 @@ public class UDPDiscoveryService
      *
      * @param cacheName
      */
+    @Override
     public void addParticipatingCacheName( final String cacheName )
     {
         cacheNames.add( cacheName );
@@ -288,6 +291,7 @@ public class UDPDiscoveryService
     /**
      * @return The discoveredServices.
      */
+    @Override
     public Set<DiscoveredService> getDiscoveredServices()
     {
         return new HashSet<>(discoveredServices.values());
@@ -352,6 +356,7 @@ public class UDPDiscoveryService
      * @param listener
      * @return true if it was in the set
      */
+    @Override
     public boolean removeDiscoveryListener( final IDiscoveryListener listener )
     {
         return discoveryListeners.remove( listener );
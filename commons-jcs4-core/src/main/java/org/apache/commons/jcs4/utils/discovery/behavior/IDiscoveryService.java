@@ -0,0 +1,58 @@
+package org.apache.commons.jcs4.utils.discovery.behavior;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Set;
+
+import org.apache.commons.jcs4.utils.discovery.DiscoveredService;
+
+/**
+ * Interface for services that find other cache instances and tell their listeners about them.
+ */
+public interface IDiscoveryService
+{
+    /**
+     * Adds a listener.
+     *
+     * @param listener
+     * @return true if it wasn't already in the set
+     */
+    boolean addDiscoveryListener( IDiscoveryListener listener );
+
+    /**
+     * Adds a region to the list that is participating in discovery.
+     *
+     * @param cacheName
+     */
+    void addParticipatingCacheName( String cacheName );
+
+    /**
+     * @return The services that are currently known.
+     */
+    Set<DiscoveredService> getDiscoveredServices();
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener
+     * @return true if it was in the set
+     */
+    boolean removeDiscoveryListener( IDiscoveryListener listener );
+}
@@ -0,0 +1,312 @@
+package org.apache.commons.jcs4.utils.serialization;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import org.apache.commons.jcs4.engine.behavior.IElementSerializer;
+
+/**
+ * Performs compact binary serialization with a registry of {@link TypeCodec}s.
+ * <p>
+ * Cache elements, element attributes, lateral and remote requests, strings, boxed primitives and
+ * common collections are written field by field by the standard codecs, without class names and
+ * without reflection. Objects of other classes are written with Java serialization unless a codec
+ * for them is registered, either with {@link #register(TypeCodec)} or with the
+ * <code>codecs</code> property.
+ * <p>
+ * Each thread writes into its own buffer, which is kept between calls, so serializing an element
+ * allocates little more than the resulting byte array.
+ */
+public class BinarySerializer
+    implements IElementSerializer
+{
+    /** The first byte of the data, changes when the format changes */
+    private static final byte FORMAT_VERSION = 1;
+
+    /** Initial size of the per-thread buffer */
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    /** Larger buffers are not kept after use */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    /** The codecs */
+    private final TypeCodecRegistry registry;
+
+    /** Reusable buffer per thread, null while in use */
+    private final ThreadLocal<CodecOutput> buffers = new ThreadLocal<>();
+
+    /**
+     * Constructor with the standard codecs
+     */
+    public BinarySerializer()
+    {
+        this( new TypeCodecRegistry() );
+    }
+
+    /**
+     * @param registry the codecs to use
+     */
+    public BinarySerializer( final TypeCodecRegistry registry )
+    {
+        this.registry = registry;
+    }
+
+    /**
+     * @return a reset buffer for the current thread
+     */
+    private CodecOutput acquire()
+    {
+        final CodecOutput out = buffers.get();
+        if ( out == null )
+        {
+            return new CodecOutput( registry, INITIAL_BUFFER_SIZE );
+        }
+
+        // Nested calls on the same thread get a fresh buffer
+        buffers.set( null );
+        out.reset();
+        return out;
+    }
+
+    /**
+     * Turns a byte array into an object.
+     *
+     * @param data data bytes
+     * @param loader class loader to use for objects written with Java serialization
+     * @return Object
+     * @throws IOException if the data is corrupt
+     * @throws ClassNotFoundException if the class of an object is unknown
+     */
+    @Override
+    public <T> T deSerialize( final byte[] data, final ClassLoader loader )
+        throws IOException, ClassNotFoundException
+    {
+        if ( data == null || data.length == 0 )
+        {
+            return null;
+        }
+        if ( data[0] != FORMAT_VERSION )
+        {
+            throw new StreamCorruptedException( "Unsupported binary format version " + data[0] );
+        }
+
+        final CodecInput in = new CodecInput( registry, data, 1, loader );
+        final T value = in.readObject();
+        if ( in.available() != 0 )
+        {
+            throw new StreamCorruptedException( in.available() + " bytes left after the object" );
+        }
+        return value;
+    }
+
+    /**
+     * @return the codecs
+     */
+    public TypeCodecRegistry getRegistry()
+    {
+        return registry;
+    }
+
+    /**
+     * Adds a codec.
+     *
+     * @param codec the codec
+     * @see TypeCodecRegistry#register(TypeCodec)
+     */
+    public void register( final TypeCodec<?> codec )
+    {
+        registry.register( codec );
+    }
+
+    /**
+     * Keeps the buffer for the next call unless it grew too large.
+     *
+     * @param out the buffer
+     */
+    private void release( final CodecOutput out )
+    {
+        if ( out.capacity() <= MAX_RETAINED_BUFFER_SIZE )
+        {
+            buffers.set( out );
+        }
+    }
+
+    /**
+     * Turns an object into a byte array.
+     *
+     * @param obj the object, may be null
+     * @return byte[]
+     * @throws IOException if an object cannot be serialized
+     */
+    @Override
+    public <T> byte[] serialize( final T obj )
+        throws IOException
+    {
+        final CodecOutput out = write( obj );
+        try
+        {
+            return out.toByteArray();
+        }
+        finally
+        {
+            release( out );
+        }
+    }
+
+    /**
+     * Writes the object straight from the buffer, without a length prefix.
+     *
+     * @param obj the object
+     * @param os the output stream
+     * @throws IOException if serialization or writing fails
+     */
+    @Override
+    public <T> void serializeInto( final T obj, final OutputStream os )
+        throws IOException
+    {
+        final CodecOutput out = write( obj );
+        try
+        {
+            out.writeTo( os );
+        }
+        finally
+        {
+            release( out );
+        }
+    }
+
+    /**
+     * Writes the object with a length prefix straight from the buffer.
+     *
+     * @param obj the object
+     * @param os the output stream
+     * @return the number of bytes written
+     * @throws IOException if serialization or writing fails
+     */
+    @Override
+    public <T> int serializeTo( final T obj, final OutputStream os )
+        throws IOException
+    {
+        final CodecOutput out = write( obj );
+        try
+        {
+            final int size = out.size();
+            os.write( new byte[] { (byte) ( size >>> 24 ), (byte) ( size >>> 16 ), (byte) ( size >>> 8 ), (byte) size } );
+            out.writeTo( os );
+            return 4 + size;
+        }
+        finally
+        {
+            release( out );
+        }
+    }
+
+    /**
+     * Writes the object with a length prefix straight from the buffer.
+     *
+     * @param obj the object
+     * @param oc the output channel
+     * @return the number of bytes written
+     * @throws IOException if serialization or writing fails
+     */
+    @Override
+    public <T> int serializeTo( final T obj, final WritableByteChannel oc )
+        throws IOException
+    {
+        final CodecOutput out = write( obj );
+        try
+        {
+            final ByteBuffer length = ByteBuffer.allocate( 4 ).putInt( out.size() ).flip();
+            final ByteBuffer data = out.asByteBuffer();
+            int count = 0;
+            while ( length.hasRemaining() )
+            {
+                count += oc.write( length );
+            }
+            while ( data.hasRemaining() )
+            {
+                count += oc.write( data );
+            }
+            return count;
+        }
+        finally
+        {
+            release( out );
+        }
+    }
+
+    /**
+     * Registers codecs by class name. Each class needs a public no-argument constructor.
+     *
+     * @param codecs comma separated class names of {@link TypeCodec} implementations
+     * @throws IllegalArgumentException if a codec cannot be created or registered
+     */
+    public void setCodecs( final String codecs )
+    {
+        for ( final String className : codecs.split( "," ) )
+        {
+            final String name = className.trim();
+            if ( name.isEmpty() )
+            {
+                continue;
+            }
+            try
+            {
+                final Class<?> codecClass = Class.forName( name, true, getClass().getClassLoader() );
+                register( (TypeCodec<?>) codecClass.getConstructor().newInstance() );
+            }
+            catch ( final ClassNotFoundException | ClassCastException | NoSuchMethodException
+                    | InstantiationException | IllegalAccessException | InvocationTargetException e )
+            {
+                throw new IllegalArgumentException( "Could not create codec " + name, e );
+            }
+        }
+    }
+
+    /**
+     * Writes the format version and the object into the buffer of the current thread.
+     *
+     * @param obj the object
+     * @return the buffer, to be released by the caller
+     * @throws IOException if an object cannot be serialized
+     */
+    private CodecOutput write( final Object obj )
+        throws IOException
+    {
+        final CodecOutput out = acquire();
+        try
+        {
+            out.writeByte( FORMAT_VERSION );
+            out.writeObject( obj );
+            return out;
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            release( out );
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package org.apache.commons.jcs4.utils.serialization;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+import org.apache.commons.jcs4.io.ObjectInputStreamClassLoaderAware;
+
+/**
+ * Reads the data written by a {@link CodecOutput}.
+ */
+public final class CodecInput
+{
+    /** The codecs */
+    private final TypeCodecRegistry registry;
+
+    /** The data */
+    private final byte[] data;
+
+    /** The class loader for nested objects */
+    private final ClassLoader loader;
+
+    /** The read position */
+    private int position;
+
+    /** The end of the data */
+    private final int limit;
+
+    /**
+     * @param registry the codecs to use for nested objects
+     * @param data the data
+     * @param offset the position of the first byte to read
+     * @param loader the class loader for objects written with Java serialization, may be null
+     */
+    public CodecInput( final TypeCodecRegistry registry, final byte[] data, final int offset, final ClassLoader loader )
+    {
+        this.registry = registry;
+        this.data = data;
+        this.position = offset;
+        this.limit = data.length;
+        this.loader = loader;
+    }
+
+    /**
+     * @return the number of bytes not read yet
+     */
+    public int available()
+    {
+        return limit - position;
+    }
+
+    /**
+     * @param length the number of bytes about to be read
+     * @throws EOFException if there are not as many bytes left
+     */
+    private void require( final int length )
+        throws EOFException
+    {
+        if ( length < 0 || length > limit - position )
+        {
+            throw new EOFException( "Need " + length + " bytes at position " + position + ", have " + available() );
+        }
+    }
+
+    /**
+     * @return the boolean
+     * @throws IOException if the data ends
+     */
+    public boolean readBoolean()
+        throws IOException
+    {
+        return readByte() != 0;
+    }
+
+    /**
+     * @return the byte
+     * @throws IOException if the data ends
+     */
+    public byte readByte()
+        throws IOException
+    {
+        require( 1 );
+        return data[position++];
+    }
+
+    /**
+     * @return the bytes written by {@link CodecOutput#writeBytes(byte[])}, may be null
+     * @throws IOException if the data ends
+     */
+    public byte[] readBytes()
+        throws IOException
+    {
+        final int length = readVarInt() - 1;
+        if ( length < 0 )
+        {
+            return null;
+        }
+        require( length );
+        final byte[] value = Arrays.copyOfRange( data, position, position + length );
+        position += length;
+        return value;
+    }
+
+    /**
+     * @return the double
+     * @throws IOException if the data ends
+     */
+    public double readDouble()
+        throws IOException
+    {
+        return Double.longBitsToDouble( readFixedLong() );
+    }
+
+    /**
+     * @return the duration
+     * @throws IOException if the data ends
+     */
+    public Duration readDuration()
+        throws IOException
+    {
+        final long seconds = readVarLong();
+        return Duration.ofSeconds( seconds, readVarInt() );
+    }
+
+    /**
+     * @return the long
+     * @throws IOException if the data ends
+     */
+    public long readFixedLong()
+        throws IOException
+    {
+        require( 8 );
+        long value = 0;
+        for ( int i = 0; i < 8; i++ )
+        {
+            value = value << 8 | data[position++] & 0xFF;
+        }
+        return value;
+    }
+
+    /**
+     * @return the instant
+     * @throws IOException if the data ends
+     */
+    public Instant readInstant()
+        throws IOException
+    {
+        final long seconds = readVarLong();
+        return Instant.ofEpochSecond( seconds, readVarInt() );
+    }
+
+    /**
+     * Reads an object written by {@link CodecOutput#writeObject(Object)}.
+     *
+     * @param <T> the expected type
+     * @return the object, may be null
+     * @throws IOException if the data is corrupt
+     * @throws ClassNotFoundException if the class of the object is unknown
+     */
+    @SuppressWarnings("unchecked") // Need to cast from Object
+    public <T> T readObject()
+        throws IOException, ClassNotFoundException
+    {
+        final int typeId = readVarInt();
+        switch ( typeId )
+        {
+            case TypeCodecRegistry.NULL_TYPE_ID:
+                return null;
+
+            case TypeCodecRegistry.JAVA_TYPE_ID:
+                return (T) readSerializable();
+
+            default:
+                final TypeCodec<?> codec = registry.getCodec( typeId );
+                if ( codec == null )
+                {
+                    throw new StreamCorruptedException( "No codec for type id " + typeId );
+                }
+                return (T) codec.read( this );
+        }
+    }
+
+    /**
+     * Reads an object written with standard Java serialization.
+     *
+     * @return the object
+     * @throws IOException if the data is corrupt
+     * @throws ClassNotFoundException if the class of the object is unknown
+     */
+    private Object readSerializable()
+        throws IOException, ClassNotFoundException
+    {
+        require( 4 );
+        final int length = ( data[position] & 0xFF ) << 24 | ( data[position + 1] & 0xFF ) << 16
+            | ( data[position + 2] & 0xFF ) << 8 | data[position + 3] & 0xFF;
+        position += 4;
+        require( length );
+
+        try ( ObjectInputStream ois = new ObjectInputStreamClassLoaderAware(
+                new ByteArrayInputStream( data, position, length ), loader ) )
+        {
+            final Object value = ois.readObject();
+            position += length;
+            return value;
+        }
+    }
+
+    /**
+     * @return the string written by {@link CodecOutput#writeString(String)}, may be null
+     * @throws IOException if the data ends
+     */
+    public String readString()
+        throws IOException
+    {
+        final int length = readVarInt() - 1;
+        if ( length < 0 )
+        {
+            return null;
+        }
+        require( length );
+        final String value = new String( data, position, length, StandardCharsets.UTF_8 );
+        position += length;
+        return value;
+    }
+
+    /**
+     * @return the int written by {@link CodecOutput#writeVarInt(int)}
+     * @throws IOException if the data ends or the value is too long
+     */
+    public int readVarInt()
+        throws IOException
+    {
+        int value = 0;
+        for ( int shift = 0; shift < 35; shift += 7 )
+        {
+            final byte b = readByte();
+            value |= ( b & 0x7F ) << shift;
+            if ( b >= 0 )
+            {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException( "Variable length int too long at position " + position );
+    }
+
+    /**
+     * @return the long written by {@link CodecOutput#writeVarLong(long)}
+     * @throws IOException if the data ends or the value is too long
+     */
+    public long readVarLong()
+        throws IOException
+    {
+        long value = 0;
+        for ( int shift = 0; shift < 70; shift += 7 )
+        {
+            final byte b = readByte();
+            value |= (long) ( b & 0x7F ) << shift;
+            if ( b >= 0 )
+            {
+                return value >>> 1 ^ -( value & 1 );
+            }
+        }
+        throw new StreamCorruptedException( "Variable length long too long at position " + position );
+    }
+
+    /**
+     * @return the int written by {@link CodecOutput#writeVarSignedInt(int)}
+     * @throws IOException if the data ends or the value is too long
+     */
+    public int readVarSignedInt()
+        throws IOException
+    {
+        final int value = readVarInt();
+        return value >>> 1 ^ -( value & 1 );
+    }
+}
@@ -0,0 +1,352 @@
+package org.apache.commons.jcs4.utils.serialization;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * A growable byte buffer that the {@link TypeCodec}s write into. The buffer is kept between
+ * calls, so serializing an element does not allocate more than the resulting byte array.
+ * <p>
+ * Integers are written as variable length quantities, signed ones zig-zag encoded. Strings are
+ * written as UTF-8 with their length in front, plain ASCII without an intermediate array.
+ */
+public final class CodecOutput
+{
+    /** The codecs */
+    private final TypeCodecRegistry registry;
+
+    /** The data */
+    private byte[] buffer;
+
+    /** The number of bytes written */
+    private int size;
+
+    /**
+     * @param registry the codecs to use for nested objects
+     * @param initialCapacity the initial size of the buffer
+     */
+    public CodecOutput( final TypeCodecRegistry registry, final int initialCapacity )
+    {
+        this.registry = registry;
+        this.buffer = new byte[initialCapacity];
+    }
+
+    /**
+     * @return the capacity of the buffer
+     */
+    int capacity()
+    {
+        return buffer.length;
+    }
+
+    /**
+     * Makes sure that the buffer has room for more bytes.
+     *
+     * @param length the number of bytes about to be written
+     */
+    private void ensureCapacity( final int length )
+    {
+        final int required = size + length;
+        if ( required > buffer.length )
+        {
+            buffer = Arrays.copyOf( buffer, Math.max( required, buffer.length << 1 ) );
+        }
+    }
+
+    /**
+     * Forgets the data written so far, keeping the buffer.
+     */
+    public void reset()
+    {
+        size = 0;
+    }
+
+    /**
+     * @return the number of bytes written
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return a copy of the data written
+     */
+    public byte[] toByteArray()
+    {
+        return Arrays.copyOf( buffer, size );
+    }
+
+    /**
+     * Writes a boolean as one byte.
+     *
+     * @param value the value
+     */
+    public void writeBoolean( final boolean value )
+    {
+        writeByte( value ? 1 : 0 );
+    }
+
+    /**
+     * @param value the lower eight bits are written
+     */
+    public void writeByte( final int value )
+    {
+        ensureCapacity( 1 );
+        buffer[size++] = (byte) value;
+    }
+
+    /**
+     * Writes the bytes with their length in front. Null is allowed.
+     *
+     * @param value the bytes
+     */
+    public void writeBytes( final byte[] value )
+    {
+        if ( value == null )
+        {
+            writeVarInt( 0 );
+            return;
+        }
+        writeVarInt( value.length + 1 );
+        ensureCapacity( value.length );
+        System.arraycopy( value, 0, buffer, size, value.length );
+        size += value.length;
+    }
+
+    /**
+     * Writes eight bytes, used for doubles where a variable length does not pay off.
+     *
+     * @param value the value
+     */
+    public void writeDouble( final double value )
+    {
+        writeFixedLong( Double.doubleToRawLongBits( value ) );
+    }
+
+    /**
+     * Writes a duration as seconds and nanoseconds. Null is not allowed.
+     *
+     * @param value the duration
+     */
+    public void writeDuration( final Duration value )
+    {
+        writeVarLong( value.getSeconds() );
+        writeVarInt( value.getNano() );
+    }
+
+    /**
+     * @param value the value, big-endian
+     */
+    public void writeFixedLong( final long value )
+    {
+        ensureCapacity( 8 );
+        for ( int shift = 56; shift >= 0; shift -= 8 )
+        {
+            buffer[size++] = (byte) ( value >>> shift );
+        }
+    }
+
+    /**
+     * Writes an instant as seconds and nanoseconds since the epoch. Null is not allowed.
+     *
+     * @param value the instant
+     */
+    public void writeInstant( final Instant value )
+    {
+        writeVarLong( value.getEpochSecond() );
+        writeVarInt( value.getNano() );
+    }
+
+    /**
+     * Writes any object. Objects with a registered codec are written by the codec, other objects
+     * with standard Java serialization.
+     *
+     * @param value the object, may be null
+     * @throws IOException if the object cannot be serialized
+     */
+    public void writeObject( final Object value )
+        throws IOException
+    {
+        if ( value == null )
+        {
+            writeVarInt( TypeCodecRegistry.NULL_TYPE_ID );
+            return;
+        }
+
+        @SuppressWarnings("unchecked") // The registry maps each class to its own codec
+        final TypeCodec<Object> codec = (TypeCodec<Object>) registry.getCodec( value.getClass() );
+        if ( codec == null )
+        {
+            writeVarInt( TypeCodecRegistry.JAVA_TYPE_ID );
+            writeSerializable( value );
+            return;
+        }
+
+        writeVarInt( codec.typeId() );
+        codec.write( this, value );
+    }
+
+    /**
+     * Writes an object with standard Java serialization, with the length in front.
+     *
+     * @param value the object
+     * @throws IOException if the object cannot be serialized
+     */
+    private void writeSerializable( final Object value )
+        throws IOException
+    {
+        // Reserve four bytes for the length and let the object stream write straight into the buffer
+        ensureCapacity( 4 );
+        final int lengthPosition = size;
+        size += 4;
+        try ( ObjectOutputStream oos = new ObjectOutputStream( new OutputStream()
+        {
+            @Override
+            public void write( final byte[] b, final int off, final int len )
+            {
+                ensureCapacity( len );
+                System.arraycopy( b, off, buffer, size, len );
+                size += len;
+            }
+
+            @Override
+            public void write( final int b )
+            {
+                writeByte( b );
+            }
+        } ) )
+        {
+            oos.writeUnshared( value );
+        }
+
+        final int length = size - lengthPosition - 4;
+        buffer[lengthPosition] = (byte) ( length >>> 24 );
+        buffer[lengthPosition + 1] = (byte) ( length >>> 16 );
+        buffer[lengthPosition + 2] = (byte) ( length >>> 8 );
+        buffer[lengthPosition + 3] = (byte) length;
+    }
+
+    /**
+     * Writes a string as UTF-8 with its length in front. Null is allowed.
+     *
+     * @param value the string
+     */
+    public void writeString( final String value )
+    {
+        if ( value == null )
+        {
+            writeVarInt( 0 );
+            return;
+        }
+
+        final int length = value.length();
+        int i = 0;
+        while ( i < length && value.charAt( i ) < 0x80 )
+        {
+            i++;
+        }
+        if ( i == length )
+        {
+            writeVarInt( length + 1 );
+            ensureCapacity( length );
+            for ( i = 0; i < length; i++ )
+            {
+                buffer[size++] = (byte) value.charAt( i );
+            }
+            return;
+        }
+
+        writeBytes( value.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    /**
+     * Writes a non-negative int in one to five bytes. Use {@link #writeVarSignedInt(int)} for values that
+     * may be negative.
+     *
+     * @param value the value
+     */
+    public void writeVarInt( final int value )
+    {
+        ensureCapacity( 5 );
+        int v = value;
+        while ( ( v & ~0x7F ) != 0 )
+        {
+            buffer[size++] = (byte) ( v & 0x7F | 0x80 );
+            v >>>= 7;
+        }
+        buffer[size++] = (byte) v;
+    }
+
+    /**
+     * Writes a long in one to ten bytes, zig-zag encoded so that small negative numbers stay small.
+     *
+     * @param value the value
+     */
+    public void writeVarLong( final long value )
+    {
+        ensureCapacity( 10 );
+        long v = value << 1 ^ value >> 63;
+        while ( ( v & ~0x7FL ) != 0 )
+        {
+            buffer[size++] = (byte) ( v & 0x7F | 0x80 );
+            v >>>= 7;
+        }
+        buffer[size++] = (byte) v;
+    }
+
+    /**
+     * Writes an int in one to five bytes, zig-zag encoded so that small negative numbers stay small.
+     *
+     * @param value the value
+     */
+    public void writeVarSignedInt( final int value )
+    {
+        writeVarInt( value << 1 ^ value >> 31 );
+    }
+
+    /**
+     * Writes the data written so far to the stream.
+     *
+     * @param os the stream
+     * @throws IOException on write errors
+     */
+    public void writeTo( final OutputStream os )
+        throws IOException
+    {
+        os.write( buffer, 0, size );
+    }
+
+    /**
+     * @return a view of the data written so far, valid until the next write
+     */
+    ByteBuffer asByteBuffer()
+    {
+        return ByteBuffer.wrap( buffer, 0, size );
+    }
+}
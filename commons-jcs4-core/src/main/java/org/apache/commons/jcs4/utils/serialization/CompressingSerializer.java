@@ -19,19 +19,147 @@ package org.apache.commons.jcs4.utils.serialization;
  * under the License.
  */
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
 
 import org.apache.commons.jcs4.engine.behavior.IElementSerializer;
-import org.apache.commons.jcs4.utils.zip.CompressionUtil;
+import org.apache.commons.jcs4.engine.stats.Stats;
+import org.apache.commons.jcs4.engine.stats.behavior.IStats;
+import org.apache.commons.jcs4.io.PooledByteBufferOutputStream;
+import org.apache.commons.jcs4.log.Log;
+import org.apache.commons.jcs4.utils.zip.CompressionCodec;
+import org.apache.commons.jcs4.utils.zip.DeflateCodec;
+import org.apache.commons.jcs4.utils.zip.DeflateDictionaries;
+import org.apache.commons.jcs4.utils.zip.DictionaryTrainer;
+import org.apache.commons.jcs4.utils.threadpool.DaemonThreadFactory;
+import org.apache.commons.jcs4.utils.zip.LZFCodec;
 
 /**
- * Performs default serialization and de-serialization. It gzips the value.
+ * Performs default serialization and de-serialization. It compresses the value.
+ * <p>
+ * Each value starts with a marker byte and the id of the {@link CompressionCodec} that compressed
+ * it, or 0 if it is stored as is. Values smaller than minSize, and values that do not get smaller,
+ * are stored. Values written by earlier versions, which are plain zlib data, are still read.
+ * <p>
+ * The codec is <code>deflate</code> (the default), <code>lzf</code> (faster, but compresses
+ * less) or the class name of a custom codec. If dictionarySampleCount and a dictionaryFile are
+ * set, the first values of the region are collected and a deflate dictionary is trained from them
+ * on a background thread. This helps a lot with small values that look alike. Readers need the
+ * dictionary, so it is stored in the dictionaryFile before it is used, and nothing is trained
+ * without one: data written to disk or sent to another process could not be read after a restart.
  */
 public class CompressingSerializer extends StandardSerializer
 {
+    /** The logger */
+    private static final Log log = Log.getLog( CompressingSerializer.class );
+
+    /** Marks the current format. zlib data never starts with it, its low nibble would be 8. */
+    static final int MAGIC = 0x4A;
+
+    /** The codec id of stored values */
+    static final int STORED = 0;
+
+    /** Default for minSize */
+    public static final int DEFAULT_MIN_SIZE = 256;
+
     /** Wrapped serializer */
     private final IElementSerializer serializer;
 
+    /** The known codecs by id */
+    private final Map<Integer, CompressionCodec> codecs = new ConcurrentHashMap<>();
+
+    /** The deflate dictionaries */
+    private final DeflateDictionaries dictionaries = new DeflateDictionaries();
+
+    /** The codec for new values */
+    private volatile CompressionCodec codec;
+
+    /** Values smaller than this are stored */
+    private int minSize = DEFAULT_MIN_SIZE;
+
+    /** The deflate level */
+    private int compressionLevel = Deflater.BEST_COMPRESSION;
+
+    /** The number of values to train a dictionary from, 0 for none */
+    private int dictionarySampleCount;
+
+    /** The maximum size of a trained dictionary */
+    private int dictionarySize = DeflateDictionaries.MAX_DICTIONARY_SIZE;
+
+    /** Where dictionaries are kept, no dictionary is trained without it */
+    private volatile File dictionaryFile;
+
+    /** Values collected for training, null once the dictionary is trained */
+    private List<byte[]> samples = new ArrayList<>();
+
+    /** Statistics */
+    private final LongAdder compressedCount = new LongAdder();
+    private final LongAdder storedCount = new LongAdder();
+    private final LongAdder uncompressedBytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder compressNanos = new LongAdder();
+    private final LongAdder decompressNanos = new LongAdder();
+
+    /**
+     * Adds the time spent in reads to the decompression time.
+     */
+    private final class TimedInputStream
+        extends FilterInputStream
+    {
+        /**
+         * @param in the decompressing stream
+         */
+        TimedInputStream( final InputStream in )
+        {
+            super( in );
+        }
+
+        @Override
+        public int read()
+            throws IOException
+        {
+            final long start = System.nanoTime();
+            try
+            {
+                return super.read();
+            }
+            finally
+            {
+                decompressNanos.add( System.nanoTime() - start );
+            }
+        }
+
+        @Override
+        public int read( final byte[] b, final int off, final int len )
+            throws IOException
+        {
+            final long start = System.nanoTime();
+            try
+            {
+                return super.read( b, off, len );
+            }
+            finally
+            {
+                decompressNanos.add( System.nanoTime() - start );
+            }
+        }
+    }
+
     /**
      * Default constructor
      */
@@ -49,6 +177,9 @@ public class CompressingSerializer extends StandardSerializer
     public CompressingSerializer(final IElementSerializer serializer)
     {
         this.serializer = serializer;
+        this.codec = new DeflateCodec( compressionLevel, dictionaries );
+        register( codec );
+        register( new LZFCodec() );
     }
 
     /**
@@ -70,8 +201,54 @@ public class CompressingSerializer extends StandardSerializer
             return null;
         }
 
-        final byte[] decompressedByteArray = CompressionUtil.decompressByteArray( data );
-        return serializer.deSerialize(decompressedByteArray, loader);
+        return deSerializeStream( new ByteArrayInputStream( data ), loader );
+    }
+
+    /**
+     * Decompresses the stream while the wrapped serializer reads from it.
+     *
+     * @param is the stream with the data of one object
+     * @param loader class loader to use
+     * @return Object
+     * @throws IOException on i/o problem
+     * @throws ClassNotFoundException if class is not found during deserialization
+     */
+    @Override
+    public <T> T deSerializeStream( final InputStream is, final ClassLoader loader )
+        throws IOException, ClassNotFoundException
+    {
+        final int first = is.read();
+        final CompressionCodec decoder;
+        final InputStream compressed;
+        if ( first == MAGIC )
+        {
+            final int id = is.read();
+            if ( id == STORED )
+            {
+                return serializer.deSerializeStream( is, loader );
+            }
+            decoder = codecs.get( Integer.valueOf( id ) );
+            if ( decoder == null )
+            {
+                throw new StreamCorruptedException( "Unknown compression codec id " + id );
+            }
+            compressed = is;
+        }
+        else if ( first < 0 )
+        {
+            throw new StreamCorruptedException( "No data" );
+        }
+        else
+        {
+            // plain zlib data from earlier versions
+            decoder = codecs.get( Integer.valueOf( DeflateCodec.ID ) );
+            compressed = new SequenceInputStream( new ByteArrayInputStream( new byte[] { (byte) first } ), is );
+        }
+
+        try ( InputStream in = decoder.decompress( compressed ) )
+        {
+            return serializer.deSerializeStream( new TimedInputStream( in ), loader );
+        }
     }
 
     /**
@@ -85,7 +262,288 @@ public class CompressingSerializer extends StandardSerializer
     public <T> byte[] serialize( final T obj )
         throws IOException
     {
-        final byte[] uncompressed = serializer.serialize(obj);
-        return CompressionUtil.compressByteArray( uncompressed );
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializeInto( obj, out );
+        return out.toByteArray();
+    }
+
+    /**
+     * Serializes with the wrapped serializer into pooled chunks, then stores or compresses the
+     * result.
+     *
+     * @param obj object
+     * @param os the stream
+     * @throws IOException on i/o problem
+     */
+    @Override
+    public <T> void serializeInto( final T obj, final OutputStream os )
+        throws IOException
+    {
+        final PooledByteBufferOutputStream raw = new PooledByteBufferOutputStream();
+        final PooledByteBufferOutputStream packed = new PooledByteBufferOutputStream();
+        try
+        {
+            serializer.serializeInto( obj, raw );
+            final int size = raw.size();
+            uncompressedBytes.add( size );
+
+            if ( size >= minSize )
+            {
+                sample( raw );
+
+                final CompressionCodec current = codec;
+                final long start = System.nanoTime();
+                packed.write( MAGIC );
+                packed.write( current.getId() );
+                try ( OutputStream cos = current.compress( packed ) )
+                {
+                    raw.writeTo( cos );
+                }
+                compressNanos.add( System.nanoTime() - start );
+
+                if ( packed.size() < size + 2 )
+                {
+                    compressedCount.increment();
+                    compressedBytes.add( packed.size() );
+                    packed.writeTo( os );
+                    return;
+                }
+            }
+
+            storedCount.increment();
+            compressedBytes.add( size + 2 );
+            os.write( MAGIC );
+            os.write( STORED );
+            raw.writeTo( os );
+        }
+        finally
+        {
+            raw.release();
+            packed.release();
+        }
+    }
+
+    /**
+     * Collects a sample and starts the training once there are enough. Values keep being
+     * compressed without the new dictionary until it is trained and stored.
+     *
+     * @param raw the serialized value
+     */
+    private void sample( final PooledByteBufferOutputStream raw )
+    {
+        if ( dictionarySampleCount <= 0 )
+        {
+            return;
+        }
+
+        final List<byte[]> trainingSet;
+        synchronized ( this )
+        {
+            if ( samples == null )
+            {
+                return;
+            }
+            if ( dictionaryFile == null )
+            {
+                samples = null;
+                log.warn( "dictionarySampleCount is set without a dictionaryFile, no compression dictionary "
+                        + "is trained since the values could not be read after a restart or by other processes" );
+                return;
+            }
+            samples.add( raw.toByteArray( Math.min( raw.size(), dictionarySize ) ) );
+            if ( samples.size() < dictionarySampleCount )
+            {
+                return;
+            }
+            trainingSet = samples;
+            samples = null;
+        }
+
+        new DaemonThreadFactory( "JCS-CompressingSerializer-" ).newThread( () -> train( trainingSet ) ).start();
+    }
+
+    /**
+     * Trains a dictionary, stores it in the dictionary file and then uses it for new values.
+     *
+     * @param trainingSet the samples
+     */
+    private void train( final List<byte[]> trainingSet )
+    {
+        final byte[] dictionary = DictionaryTrainer.train( trainingSet, dictionarySize );
+        if ( dictionary.length == 0 )
+        {
+            log.info( "The samples have nothing in common, no compression dictionary trained" );
+            return;
+        }
+        try
+        {
+            synchronized ( CompressingSerializer.class )
+            {
+                DeflateDictionaries.append( dictionaryFile, dictionary );
+            }
+        }
+        catch ( final IOException e )
+        {
+            log.error( "Could not store the compression dictionary in {0}, it is not used", dictionaryFile, e );
+            return;
+        }
+        final int id = dictionaries.add( dictionary );
+        log.info( "Trained compression dictionary {0} of {1} bytes from {2} values",
+                () -> Integer.toHexString( id ), () -> dictionary.length, trainingSet::size );
+    }
+
+    /**
+     * Makes a codec known, for reading and for {@link #setCodec(String)}.
+     *
+     * @param codec the codec
+     */
+    public void register( final CompressionCodec codec )
+    {
+        codecs.put( Integer.valueOf( codec.getId() ), codec );
+    }
+
+    /**
+     * @return the codec for new values
+     */
+    public CompressionCodec getCodec()
+    {
+        return codec;
+    }
+
+    /**
+     * Selects the codec for new values.
+     *
+     * @param name <code>deflate</code>, <code>lzf</code>, the name of a registered codec or the
+     *             class name of a codec with a public default constructor
+     */
+    public void setCodec( final String name )
+    {
+        for ( final CompressionCodec known : codecs.values() )
+        {
+            if ( known.getName().equals( name ) )
+            {
+                this.codec = known;
+                return;
+            }
+        }
+
+        final CompressionCodec custom;
+        try
+        {
+            custom = (CompressionCodec) Class.forName( name ).getDeclaredConstructor().newInstance();
+        }
+        catch ( final ClassNotFoundException | NoSuchMethodException | InstantiationException
+                | IllegalAccessException | InvocationTargetException | ClassCastException e )
+        {
+            throw new IllegalArgumentException( "Could not create compression codec " + name, e );
+        }
+        if ( custom.getId() < CompressionCodec.FIRST_USER_CODEC_ID || custom.getId() > 255 )
+        {
+            throw new IllegalArgumentException( "Codec " + name + " needs an id between "
+                    + CompressionCodec.FIRST_USER_CODEC_ID + " and 255: " + custom.getId() );
+        }
+        register( custom );
+        this.codec = custom;
+    }
+
+    /**
+     * Sets the deflate level.
+     *
+     * @param compressionLevel 0 to 9, see {@link Deflater}
+     */
+    public void setCompressionLevel( final int compressionLevel )
+    {
+        this.compressionLevel = compressionLevel;
+        final DeflateCodec deflate = new DeflateCodec( compressionLevel, dictionaries );
+        final boolean selected = codec.getId() == DeflateCodec.ID;
+        register( deflate );
+        if ( selected )
+        {
+            this.codec = deflate;
+        }
+    }
+
+    /**
+     * @return the deflate dictionaries
+     */
+    public DeflateDictionaries getDictionaries()
+    {
+        return dictionaries;
+    }
+
+    /**
+     * Keeps the dictionaries in a file and loads those already in it. The last one is used for new
+     * values and no new dictionary is trained.
+     *
+     * @param dictionaryFile the file
+     * @throws IOException if the file cannot be read
+     */
+    public void setDictionaryFile( final File dictionaryFile )
+        throws IOException
+    {
+        this.dictionaryFile = dictionaryFile;
+        if ( dictionaries.load( dictionaryFile ) > 0 )
+        {
+            synchronized ( this )
+            {
+                samples = null;
+            }
+        }
+    }
+
+    /**
+     * Sets the number of values collected before a deflate dictionary is trained. It needs a
+     * dictionaryFile.
+     *
+     * @param dictionarySampleCount the number of values, 0 to not train a dictionary
+     */
+    public void setDictionarySampleCount( final int dictionarySampleCount )
+    {
+        this.dictionarySampleCount = dictionarySampleCount;
+    }
+
+    /**
+     * @param dictionarySize the maximum size of a trained dictionary, at most 32 KiB
+     */
+    public void setDictionarySize( final int dictionarySize )
+    {
+        this.dictionarySize = Math.min( dictionarySize, DeflateDictionaries.MAX_DICTIONARY_SIZE );
+    }
+
+    /**
+     * @param minSize values smaller than this are stored without compression
+     */
+    public void setMinSize( final int minSize )
+    {
+        this.minSize = minSize;
+    }
+
+    /**
+     * @return the compression statistics and those of the wrapped serializer
+     */
+    @Override
+    public IStats getStatistics()
+    {
+        final IStats stats = new Stats( "Compressing Serializer" );
+
+        final long uncompressed = uncompressedBytes.sum();
+        final long compressed = compressedBytes.sum();
+        stats.addStatElement( "Codec", codec.getName() );
+        stats.addStatElement( "Min Size", Integer.valueOf( minSize ) );
+        stats.addStatElement( "Compressed Count", Long.valueOf( compressedCount.sum() ) );
+        stats.addStatElement( "Stored Count", Long.valueOf( storedCount.sum() ) );
+        stats.addStatElement( "Uncompressed Bytes", Long.valueOf( uncompressed ) );
+        stats.addStatElement( "Compressed Bytes", Long.valueOf( compressed ) );
+        stats.addStatElement( "Compression Ratio",
+                Double.valueOf( compressed == 0 ? 1.0 : (double) uncompressed / compressed ) );
+        stats.addStatElement( "Compress Time (ms)",
+                Long.valueOf( TimeUnit.NANOSECONDS.toMillis( compressNanos.sum() ) ) );
+        stats.addStatElement( "Decompress Time (ms)",
+                Long.valueOf( TimeUnit.NANOSECONDS.toMillis( decompressNanos.sum() ) ) );
+        stats.addStatElement( "Dictionary Count", Integer.valueOf( dictionaries.size() ) );
+        stats.addStatElement( "Current Dictionary", Integer.toHexString( dictionaries.getCurrentId() ) );
+
+        stats.addStatElements( serializer.getStatistics().getStatElements() );
+        return stats;
     }
 }
@@ -20,6 +20,8 @@ package org.apache.commons.jcs4.utils.serialization;
  */
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
@@ -169,6 +171,22 @@ public class EncryptingSerializer extends StandardSerializer
         return serializer.deSerialize(deccrypted, loader);
     }
 
+    /**
+     * Decrypts the whole value first, the cipher needs all of it.
+     *
+     * @param is the stream with the data of one object
+     * @param loader class loader to use
+     * @return Object
+     * @throws IOException on i/o problem
+     * @throws ClassNotFoundException if class is not found during deserialization
+     */
+    @Override
+    public <T> T deSerializeStream( final InputStream is, final ClassLoader loader )
+        throws IOException, ClassNotFoundException
+    {
+        return deSerialize( is.readAllBytes(), loader );
+    }
+
     private byte[] encrypt(final byte[] source) throws IOException
     {
         try
@@ -227,6 +245,20 @@ public class EncryptingSerializer extends StandardSerializer
         return encrypt(unencrypted);
     }
 
+    /**
+     * Encrypts the whole value, the cipher needs all of it.
+     *
+     * @param obj object
+     * @param os the stream
+     * @throws IOException on i/o problem
+     */
+    @Override
+    public <T> void serializeInto( final T obj, final OutputStream os )
+        throws IOException
+    {
+        os.write( serialize( obj ) );
+    }
+
     /**
      * Sets the cipher transformation for encryption and decryption
      * Default is AES/ECB/PKCS5Padding
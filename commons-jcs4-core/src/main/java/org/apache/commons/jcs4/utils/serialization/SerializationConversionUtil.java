@@ -20,7 +20,9 @@ package org.apache.commons.jcs4.utils.serialization;
  */
 
 import java.io.IOException;
+import java.io.ObjectOutputStream;
 
+import org.apache.commons.jcs4.admin.CountingOnlyOutputStream;
 import org.apache.commons.jcs4.engine.CacheElement;
 import org.apache.commons.jcs4.engine.CacheElementSerialized;
 import org.apache.commons.jcs4.engine.behavior.ICacheElement;
@@ -124,4 +126,34 @@ public class SerializationConversionUtil
         return new CacheElementSerialized<>(
                 element.cacheName(), element.key(), serializedValue, element.elementAttributes() );
     }
+
+    /**
+     * Estimates the size of the value of an element: the length of the serialized value if the
+     * element is already serialized, else the length of its standard Java serialization.
+     *
+     * @param element the element
+     * @return the size in bytes, or -1 if the value cannot be serialized
+     */
+    public static long getSerializedSize( final ICacheElement<?, ?> element )
+    {
+        if ( element instanceof ICacheElementSerialized<?, ?> serialized )
+        {
+            return serialized.serializedValue().length;
+        }
+
+        try (CountingOnlyOutputStream counter = new CountingOnlyOutputStream();
+             ObjectOutputStream out = new ObjectOutputStream( counter ))
+        {
+            out.writeObject( element.value() );
+            out.flush();
+
+            // 4 bytes lost for the serialization header
+            return counter.getCount() - 4;
+        }
+        catch ( final IOException e )
+        {
+            log.debug( "Could not measure the size of {0}", element.key(), e );
+            return -1;
+        }
+    }
 }
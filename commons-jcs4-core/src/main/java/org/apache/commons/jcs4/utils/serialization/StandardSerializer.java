@@ -22,8 +22,10 @@ package org.apache.commons.jcs4.utils.serialization;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 
 import org.apache.commons.jcs4.engine.behavior.IElementSerializer;
 import org.apache.commons.jcs4.io.ObjectInputStreamClassLoaderAware;
@@ -58,6 +60,28 @@ public class StandardSerializer
         }
     }
 
+    /**
+     * Uses default de-serialization to read an object from the stream as it arrives. The stream
+     * is not closed.
+     *
+     * @param is the stream with the data of one object
+     * @param loader class loader to use
+     * @return Object
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    @Override
+    public <T> T deSerializeStream(final InputStream is, final ClassLoader loader)
+        throws IOException, ClassNotFoundException
+    {
+        // Not closed, the stream belongs to the caller
+        final ObjectInputStream ois = new ObjectInputStreamClassLoaderAware(is, loader);
+        @SuppressWarnings("unchecked") // Need to cast from Object
+        final
+        T readObject = (T) ois.readObject();
+        return readObject;
+    }
+
     /**
      * Serializes an object using default serialization.
      *
@@ -78,4 +102,21 @@ public class StandardSerializer
 
         return baos.toByteArray();
     }
+
+    /**
+     * Serializes an object using default serialization straight into the stream. The stream is
+     * flushed but not closed.
+     *
+     * @param obj
+     * @param os
+     * @throws IOException
+     */
+    @Override
+    public <T> void serializeInto(final T obj, final OutputStream os)
+        throws IOException
+    {
+        final ObjectOutputStream oos = new ObjectOutputStream(os);
+        oos.writeUnshared(obj);
+        oos.flush();
+    }
 }
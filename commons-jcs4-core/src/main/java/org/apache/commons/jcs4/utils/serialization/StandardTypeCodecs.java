@@ -0,0 +1,430 @@
+package org.apache.commons.jcs4.utils.serialization;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+import org.apache.commons.jcs4.auxiliary.lateral.LateralCommand;
+import org.apache.commons.jcs4.auxiliary.lateral.LateralElementDescriptor;
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheRequest;
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteRequestType;
+import org.apache.commons.jcs4.engine.CacheElement;
+import org.apache.commons.jcs4.engine.CacheElementSerialized;
+import org.apache.commons.jcs4.engine.ElementAttributes;
+import org.apache.commons.jcs4.engine.behavior.ICacheElement;
+
+/**
+ * The codecs every {@link TypeCodecRegistry} starts with. The ids are part of the data format and
+ * must not change.
+ * <p>
+ * Element event handlers of {@link ElementAttributes} are not written, like with Java
+ * serialization they are not meant to leave the local cache.
+ */
+final class StandardTypeCodecs
+{
+    /** Writes the fields of a value */
+    @FunctionalInterface
+    private interface Writer<T>
+    {
+        void write( CodecOutput out, T value )
+            throws IOException;
+    }
+
+    /** Reads the fields of a value */
+    @FunctionalInterface
+    private interface Reader<T>
+    {
+        T read( CodecInput in )
+            throws IOException, ClassNotFoundException;
+    }
+
+    /** A codec made of a writer and a reader */
+    private record SimpleCodec<T>(int typeId, Class<T> type, Writer<T> writer, Reader<T> reader)
+        implements TypeCodec<T>
+    {
+        @Override
+        public void write( final CodecOutput out, final T value )
+            throws IOException
+        {
+            writer.write( out, value );
+        }
+
+        @Override
+        public T read( final CodecInput in )
+            throws IOException, ClassNotFoundException
+        {
+            return reader.read( in );
+        }
+    }
+
+    // Type ids 0 and 1 are null and Java serialization, see TypeCodecRegistry
+    static final int STRING = 2;
+    static final int INTEGER = 3;
+    static final int LONG = 4;
+    static final int BOOLEAN = 5;
+    static final int DOUBLE = 6;
+    static final int FLOAT = 7;
+    static final int SHORT = 8;
+    static final int BYTE = 9;
+    static final int CHARACTER = 10;
+    static final int BYTE_ARRAY = 11;
+    static final int INSTANT = 12;
+    static final int DURATION = 13;
+    static final int DATE = 14;
+    static final int ARRAY_LIST = 16;
+    static final int HASH_SET = 17;
+    static final int LINKED_HASH_SET = 18;
+    static final int HASH_MAP = 19;
+    static final int LINKED_HASH_MAP = 20;
+    static final int CACHE_ELEMENT = 32;
+    static final int CACHE_ELEMENT_SERIALIZED = 33;
+    static final int ELEMENT_ATTRIBUTES = 34;
+    static final int LATERAL_ELEMENT_DESCRIPTOR = 35;
+    static final int REMOTE_CACHE_REQUEST = 36;
+
+    /** Flags of the element attributes */
+    private static final int SPOOL = 1;
+    private static final int LATERAL = 2;
+    private static final int REMOTE = 4;
+    private static final int ETERNAL = 8;
+
+    /** Cached enum values */
+    private static final LateralCommand[] LATERAL_COMMANDS = LateralCommand.values();
+    private static final RemoteRequestType[] REMOTE_REQUEST_TYPES = RemoteRequestType.values();
+
+    /**
+     * Adds a codec to the registry.
+     */
+    private static <T> void add( final TypeCodecRegistry registry, final int typeId, final Class<T> type,
+            final Writer<T> writer, final Reader<T> reader )
+    {
+        registry.add( new SimpleCodec<>( typeId, type, writer, reader ) );
+    }
+
+    /**
+     * @param count the number of entries about to be read
+     * @return a hash capacity that avoids rehashing
+     */
+    private static int hashCapacity( final int count )
+    {
+        return (int) ( count / 0.75f ) + 1;
+    }
+
+    /**
+     * @param in the input
+     * @return the number of entries of a collection, or -1 for null
+     * @throws IOException if the count cannot be right
+     */
+    private static int readCount( final CodecInput in )
+        throws IOException
+    {
+        final int count = in.readVarInt() - 1;
+        // Every entry takes at least one byte, this keeps corrupt data from allocating huge arrays
+        if ( count > in.available() )
+        {
+            throw new StreamCorruptedException( "Collection of " + count + " entries exceeds the data" );
+        }
+        return count;
+    }
+
+    /**
+     * Reads a collection written by {@link #writeCollection(CodecOutput, Collection)}.
+     */
+    private static <E, C extends Collection<E>> C readCollection( final CodecInput in,
+            final IntFunction<C> factory )
+        throws IOException, ClassNotFoundException
+    {
+        final int count = readCount( in );
+        if ( count < 0 )
+        {
+            return null;
+        }
+        final C collection = factory.apply( count );
+        for ( int i = 0; i < count; i++ )
+        {
+            collection.add( in.readObject() );
+        }
+        return collection;
+    }
+
+    /**
+     * Reads a map written by {@link #writeMap(CodecOutput, Map)}.
+     */
+    private static <K, V, M extends Map<K, V>> M readMap( final CodecInput in,
+            final IntFunction<M> factory )
+        throws IOException, ClassNotFoundException
+    {
+        final int count = readCount( in );
+        if ( count < 0 )
+        {
+            throw new StreamCorruptedException( "Map without size" );
+        }
+        final M map = factory.apply( count );
+        for ( int i = 0; i < count; i++ )
+        {
+            final K key = in.readObject();
+            map.put( key, in.readObject() );
+        }
+        return map;
+    }
+
+    /**
+     * Writes the size and the entries. Null is allowed.
+     */
+    private static void writeCollection( final CodecOutput out, final Collection<?> collection )
+        throws IOException
+    {
+        if ( collection == null )
+        {
+            out.writeVarInt( 0 );
+            return;
+        }
+        out.writeVarInt( collection.size() + 1 );
+        for ( final Object element : collection )
+        {
+            out.writeObject( element );
+        }
+    }
+
+    /**
+     * Writes the size and the keys and values.
+     */
+    private static void writeMap( final CodecOutput out, final Map<?, ?> map )
+        throws IOException
+    {
+        out.writeVarInt( map.size() + 1 );
+        for ( final Map.Entry<?, ?> entry : map.entrySet() )
+        {
+            out.writeObject( entry.getKey() );
+            out.writeObject( entry.getValue() );
+        }
+    }
+
+    /**
+     * Writes an enum constant as its ordinal plus one, zero for null.
+     */
+    private static void writeEnum( final CodecOutput out, final Enum<?> value )
+    {
+        out.writeVarInt( value == null ? 0 : value.ordinal() + 1 );
+    }
+
+    /**
+     * Reads an enum constant written by {@link #writeEnum(CodecOutput, Enum)}.
+     */
+    private static <E extends Enum<E>> E readEnum( final CodecInput in, final E[] values )
+        throws IOException
+    {
+        final int ordinal = in.readVarInt() - 1;
+        if ( ordinal < 0 )
+        {
+            return null;
+        }
+        if ( ordinal >= values.length )
+        {
+            throw new StreamCorruptedException( "Unknown constant " + ordinal + " of "
+                    + values[0].getDeclaringClass().getName() );
+        }
+        return values[ordinal];
+    }
+
+    private static void writeCacheElement( final CodecOutput out, final CacheElement<?, ?> value )
+        throws IOException
+    {
+        out.writeString( value.cacheName() );
+        out.writeObject( value.key() );
+        out.writeObject( value.value() );
+        out.writeObject( value.elementAttributes() );
+    }
+
+    private static CacheElement<Object, Object> readCacheElement( final CodecInput in )
+        throws IOException, ClassNotFoundException
+    {
+        final String cacheName = in.readString();
+        final Object key = in.readObject();
+        final Object value = in.readObject();
+        return new CacheElement<>( cacheName, key, value, in.readObject() );
+    }
+
+    private static void writeCacheElementSerialized( final CodecOutput out, final CacheElementSerialized<?, ?> value )
+        throws IOException
+    {
+        out.writeString( value.cacheName() );
+        out.writeObject( value.key() );
+        out.writeBytes( value.serializedValue() );
+        out.writeObject( value.elementAttributes() );
+    }
+
+    private static CacheElementSerialized<Object, Object> readCacheElementSerialized( final CodecInput in )
+        throws IOException, ClassNotFoundException
+    {
+        final String cacheName = in.readString();
+        final Object key = in.readObject();
+        final byte[] serializedValue = in.readBytes();
+        return new CacheElementSerialized<>( cacheName, key, serializedValue, in.readObject() );
+    }
+
+    private static void writeElementAttributes( final CodecOutput out, final ElementAttributes value )
+    {
+        out.writeByte( ( value.IsSpool() ? SPOOL : 0 ) | ( value.IsLateral() ? LATERAL : 0 )
+                | ( value.IsRemote() ? REMOTE : 0 ) | ( value.IsEternal() ? ETERNAL : 0 ) );
+        out.writeDuration( value.MaxLife() );
+        out.writeDuration( value.MaxIdleTime() );
+        out.writeInstant( value.createTime() );
+        out.writeInstant( value.lastAccessTime() );
+    }
+
+    private static ElementAttributes readElementAttributes( final CodecInput in )
+        throws IOException
+    {
+        final int flags = in.readByte();
+        final Duration maxLife = in.readDuration();
+        final Duration maxIdleTime = in.readDuration();
+        final Instant createTime = in.readInstant();
+        final Instant lastAccessTime = in.readInstant();
+        return new ElementAttributes( ( flags & SPOOL ) != 0, ( flags & LATERAL ) != 0,
+                ( flags & REMOTE ) != 0, ( flags & ETERNAL ) != 0, maxLife, maxIdleTime, createTime,
+                new ElementAttributes.LastAccessHolder( lastAccessTime ), new ArrayList<>() );
+    }
+
+    private static void writeLateralElementDescriptor( final CodecOutput out,
+            final LateralElementDescriptor<?, ?> value )
+        throws IOException
+    {
+        out.writeObject( value.payload() );
+        writeEnum( out, value.command() );
+        out.writeVarLong( value.requesterId() );
+        out.writeVarSignedInt( value.valHashCode() );
+    }
+
+    private static LateralElementDescriptor<Object, Object> readLateralElementDescriptor( final CodecInput in )
+        throws IOException, ClassNotFoundException
+    {
+        final ICacheElement<Object, Object> payload = in.readObject();
+        final LateralCommand command = readEnum( in, LATERAL_COMMANDS );
+        final long requesterId = in.readVarLong();
+        return new LateralElementDescriptor<>( payload, command, requesterId, in.readVarSignedInt() );
+    }
+
+    private static void writeRemoteCacheRequest( final CodecOutput out, final RemoteCacheRequest<?, ?> value )
+        throws IOException
+    {
+        out.writeString( value.cacheName() );
+        writeEnum( out, value.requestType() );
+        out.writeVarLong( value.requesterId() );
+        out.writeObject( value.key() );
+        writeCollection( out, value.keySet() );
+        out.writeString( value.pattern() );
+        out.writeObject( value.cacheElement() );
+        writeCollection( out, value.cacheElements() );
+        out.writeVarLong( value.sequence() );
+    }
+
+    private static RemoteCacheRequest<Object, Object> readRemoteCacheRequest( final CodecInput in )
+        throws IOException, ClassNotFoundException
+    {
+        final String cacheName = in.readString();
+        final RemoteRequestType requestType = readEnum( in, REMOTE_REQUEST_TYPES );
+        final long requesterId = in.readVarLong();
+        final Object key = in.readObject();
+        final Set<Object> keySet = readCollection( in, count -> new HashSet<>( hashCapacity( count ) ) );
+        final String pattern = in.readString();
+        final ICacheElement<Object, Object> cacheElement = in.readObject();
+        final List<ICacheElement<Object, Object>> cacheElements = readCollection( in, ArrayList::new );
+        return new RemoteCacheRequest<>( cacheName, requestType, requesterId, key, keySet, pattern,
+                cacheElement, cacheElements, in.readVarLong() );
+    }
+
+    /**
+     * Adds the standard codecs.
+     *
+     * @param registry the registry
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" }) // Class literals of generic types are raw
+    static void registerAll( final TypeCodecRegistry registry )
+    {
+        add( registry, STRING, String.class, CodecOutput::writeString, CodecInput::readString );
+        add( registry, INTEGER, Integer.class, ( out, v ) -> out.writeVarSignedInt( v.intValue() ),
+                in -> Integer.valueOf( in.readVarSignedInt() ) );
+        add( registry, LONG, Long.class, ( out, v ) -> out.writeVarLong( v.longValue() ),
+                in -> Long.valueOf( in.readVarLong() ) );
+        add( registry, BOOLEAN, Boolean.class, ( out, v ) -> out.writeBoolean( v.booleanValue() ),
+                in -> Boolean.valueOf( in.readBoolean() ) );
+        add( registry, DOUBLE, Double.class, ( out, v ) -> out.writeDouble( v.doubleValue() ),
+                in -> Double.valueOf( in.readDouble() ) );
+        add( registry, FLOAT, Float.class, ( out, v ) -> out.writeVarSignedInt( Float.floatToRawIntBits( v.floatValue() ) ),
+                in -> Float.valueOf( Float.intBitsToFloat( in.readVarSignedInt() ) ) );
+        add( registry, SHORT, Short.class, ( out, v ) -> out.writeVarSignedInt( v.shortValue() ),
+                in -> Short.valueOf( (short) in.readVarSignedInt() ) );
+        add( registry, BYTE, Byte.class, ( out, v ) -> out.writeByte( v.byteValue() ),
+                in -> Byte.valueOf( in.readByte() ) );
+        add( registry, CHARACTER, Character.class, ( out, v ) -> out.writeVarInt( v.charValue() ),
+                in -> Character.valueOf( (char) in.readVarInt() ) );
+        add( registry, BYTE_ARRAY, byte[].class, CodecOutput::writeBytes, CodecInput::readBytes );
+        add( registry, INSTANT, Instant.class, CodecOutput::writeInstant, CodecInput::readInstant );
+        add( registry, DURATION, Duration.class, CodecOutput::writeDuration, CodecInput::readDuration );
+        add( registry, DATE, Date.class, ( out, v ) -> out.writeVarLong( v.getTime() ),
+                in -> new Date( in.readVarLong() ) );
+
+        add( registry, ARRAY_LIST, (Class) ArrayList.class, StandardTypeCodecs::writeCollection,
+                in -> readCollection( in, ArrayList::new ) );
+        add( registry, HASH_SET, (Class) HashSet.class, StandardTypeCodecs::writeCollection,
+                in -> readCollection( in, count -> new HashSet<>( hashCapacity( count ) ) ) );
+        add( registry, LINKED_HASH_SET, (Class) LinkedHashSet.class, StandardTypeCodecs::writeCollection,
+                in -> readCollection( in, count -> new LinkedHashSet<>( hashCapacity( count ) ) ) );
+        add( registry, HASH_MAP, (Class) HashMap.class, StandardTypeCodecs::writeMap,
+                in -> readMap( in, count -> new HashMap<>( hashCapacity( count ) ) ) );
+        add( registry, LINKED_HASH_MAP, (Class) LinkedHashMap.class, StandardTypeCodecs::writeMap,
+                in -> readMap( in, count -> new LinkedHashMap<>( hashCapacity( count ) ) ) );
+
+        add( registry, CACHE_ELEMENT, (Class) CacheElement.class,
+                (Writer) (Writer<CacheElement<?, ?>>) StandardTypeCodecs::writeCacheElement,
+                StandardTypeCodecs::readCacheElement );
+        add( registry, CACHE_ELEMENT_SERIALIZED, (Class) CacheElementSerialized.class,
+                (Writer) (Writer<CacheElementSerialized<?, ?>>) StandardTypeCodecs::writeCacheElementSerialized,
+                StandardTypeCodecs::readCacheElementSerialized );
+        add( registry, ELEMENT_ATTRIBUTES, ElementAttributes.class, StandardTypeCodecs::writeElementAttributes,
+                StandardTypeCodecs::readElementAttributes );
+        add( registry, LATERAL_ELEMENT_DESCRIPTOR, (Class) LateralElementDescriptor.class,
+                (Writer) (Writer<LateralElementDescriptor<?, ?>>) StandardTypeCodecs::writeLateralElementDescriptor,
+                StandardTypeCodecs::readLateralElementDescriptor );
+        add( registry, REMOTE_CACHE_REQUEST, (Class) RemoteCacheRequest.class,
+                (Writer) (Writer<RemoteCacheRequest<?, ?>>) StandardTypeCodecs::writeRemoteCacheRequest,
+                StandardTypeCodecs::readRemoteCacheRequest );
+    }
+
+    /** No instances */
+    private StandardTypeCodecs()
+    {
+    }
+}
@@ -0,0 +1,67 @@
+package org.apache.commons.jcs4.utils.serialization;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+
+/**
+ * Writes and reads the instances of one class without reflection. Codecs are registered with a
+ * {@link TypeCodecRegistry} and used by the {@link BinarySerializer}.
+ * <p>
+ * The type id is written in front of every instance, so it must never change once data has been
+ * written with it. Ids below {@link TypeCodecRegistry#FIRST_USER_TYPE_ID} are reserved for the
+ * codecs that come with JCS.
+ *
+ * @param <T> the type handled by the codec
+ */
+public interface TypeCodec<T>
+{
+    /**
+     * @return the id written in front of every instance
+     */
+    int typeId();
+
+    /**
+     * @return the exact class handled by the codec. Subclasses are not handled.
+     */
+    Class<T> type();
+
+    /**
+     * Writes the fields of the value. Nested objects are written with
+     * {@link CodecOutput#writeObject(Object)}.
+     *
+     * @param out the output
+     * @param value the value, never null
+     * @throws IOException if a nested object cannot be written
+     */
+    void write( CodecOutput out, T value )
+        throws IOException;
+
+    /**
+     * Reads the fields in the order they were written.
+     *
+     * @param in the input
+     * @return the value
+     * @throws IOException if the data is corrupt
+     * @throws ClassNotFoundException if a nested object has an unknown class
+     */
+    T read( CodecInput in )
+        throws IOException, ClassNotFoundException;
+}
@@ -0,0 +1,111 @@
+package org.apache.commons.jcs4.utils.serialization;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps classes to the {@link TypeCodec}s that write them and type ids to the codecs that read
+ * them. A new registry knows the codecs for boxed primitives, strings, byte arrays, common
+ * collections and the JCS value classes, see {@link StandardTypeCodecs}.
+ * <p>
+ * Reader and writer must have registered the same codecs under the same ids.
+ */
+public class TypeCodecRegistry
+{
+    /** Type id of null */
+    public static final int NULL_TYPE_ID = 0;
+
+    /** Type id of objects without a codec, they are written with Java serialization */
+    public static final int JAVA_TYPE_ID = 1;
+
+    /** The ids below this are reserved for JCS */
+    public static final int FIRST_USER_TYPE_ID = 64;
+
+    /** Codecs by the class they write */
+    private final Map<Class<?>, TypeCodec<?>> codecsByType = new ConcurrentHashMap<>();
+
+    /** Codecs by the id they read */
+    private final Map<Integer, TypeCodec<?>> codecsById = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a registry with the standard codecs.
+     */
+    public TypeCodecRegistry()
+    {
+        StandardTypeCodecs.registerAll( this );
+    }
+
+    /**
+     * Adds a codec. The codec is used for instances of exactly its class.
+     *
+     * @param codec the codec
+     * @throws IllegalArgumentException if the id is reserved or the id or class already has a codec
+     */
+    public void register( final TypeCodec<?> codec )
+    {
+        if ( codec.typeId() < FIRST_USER_TYPE_ID )
+        {
+            throw new IllegalArgumentException( "Type id " + codec.typeId() + " of " + codec.type().getName()
+                    + " is reserved, use ids from " + FIRST_USER_TYPE_ID );
+        }
+        add( codec );
+    }
+
+    /**
+     * Adds a codec without checking the reserved range.
+     *
+     * @param codec the codec
+     * @throws IllegalArgumentException if the id or class already has a codec
+     */
+    final void add( final TypeCodec<?> codec )
+    {
+        final TypeCodec<?> byId = codecsById.putIfAbsent( Integer.valueOf( codec.typeId() ), codec );
+        if ( byId != null )
+        {
+            throw new IllegalArgumentException( "Type id " + codec.typeId() + " is already used by "
+                    + byId.type().getName() );
+        }
+        if ( codecsByType.putIfAbsent( codec.type(), codec ) != null )
+        {
+            codecsById.remove( Integer.valueOf( codec.typeId() ) );
+            throw new IllegalArgumentException( "There already is a codec for " + codec.type().getName() );
+        }
+    }
+
+    /**
+     * @param type the exact class of an object
+     * @return the codec or null if objects of the class are written with Java serialization
+     */
+    public TypeCodec<?> getCodec( final Class<?> type )
+    {
+        return codecsByType.get( type );
+    }
+
+    /**
+     * @param typeId the id read from the data
+     * @return the codec or null if the id is unknown
+     */
+    public TypeCodec<?> getCodec( final int typeId )
+    {
+        return codecsById.get( Integer.valueOf( typeId ) );
+    }
+}
@@ -0,0 +1,225 @@
+package org.apache.commons.jcs4.utils.struct;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+/**
+ * A consistent hash ring that maps keys onto a set of nodes.
+ * <p>
+ * Each node is placed on the ring at a number of virtual positions derived from the MD5 digest of
+ * its name. A key belongs to the first node found clockwise from the position of the key. Adding
+ * or removing a node therefore only moves the keys of the ring segments owned by that node.
+ * </p>
+ * <p>
+ * Key positions are computed from the hash code of the string form of the key, which the
+ * language specification defines, so all clients sharing a ring agree on the placement even for
+ * keys whose own {@code hashCode()} differs between JVMs, like enums. Keys must have a
+ * {@code toString()} that is stable across JVMs and distinct for distinct keys.
+ * </p>
+ */
+public class ConsistentHashRing<N>
+{
+    /** The number of positions each node occupies on the ring */
+    private final int virtualNodes;
+
+    /** Ring position to node */
+    private final ConcurrentSkipListMap<Integer, N> ring = new ConcurrentSkipListMap<>();
+
+    /** Node to the name used to compute its positions */
+    private final Map<N, String> nodes = new ConcurrentHashMap<>();
+
+    /**
+     * Mixes the hash code of the string form of the key so that keys with sequential hash codes
+     * are spread over the whole ring (MurmurHash3 finalizer).
+     *
+     * @param key the key
+     * @return the ring position of the key
+     */
+    public static int hash( final Object key )
+    {
+        int h = key.toString().hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param virtualNodes the number of positions each node occupies on the ring
+     */
+    public ConsistentHashRing( final int virtualNodes )
+    {
+        if ( virtualNodes < 1 )
+        {
+            throw new IllegalArgumentException( "virtualNodes must be greater than 0" );
+        }
+        this.virtualNodes = virtualNodes;
+    }
+
+    /**
+     * Adds a node to the ring. The name must be unique and identical on all clients sharing the
+     * ring, e.g. "host:port".
+     *
+     * @param node the node
+     * @param name the name used to compute the positions of the node
+     */
+    public void addNode( final N node, final String name )
+    {
+        if ( nodes.putIfAbsent( node, name ) != null )
+        {
+            return;
+        }
+
+        final MessageDigest md5 = md5();
+        for ( int i = 0; i < virtualNodes; i++ )
+        {
+            final byte[] digest = md5.digest( ( name + "#" + i ).getBytes( StandardCharsets.UTF_8 ) );
+            final int position = ( digest[0] & 0xFF ) << 24
+                | ( digest[1] & 0xFF ) << 16
+                | ( digest[2] & 0xFF ) << 8
+                | digest[3] & 0xFF;
+
+            // on collision the first node keeps the position
+            ring.putIfAbsent( Integer.valueOf( position ), node );
+        }
+    }
+
+    /**
+     * Removes a node and all its positions from the ring.
+     *
+     * @param node the node
+     * @return true if the node was part of the ring
+     */
+    public boolean removeNode( final N node )
+    {
+        if ( nodes.remove( node ) == null )
+        {
+            return false;
+        }
+
+        ring.values().removeIf( n -> n.equals( node ) );
+        return true;
+    }
+
+    /**
+     * Finds the node owning the given key.
+     *
+     * @param key the key
+     * @return the node, or null if the ring is empty
+     */
+    public N getNode( final Object key )
+    {
+        if ( ring.isEmpty() )
+        {
+            return null;
+        }
+
+        Map.Entry<Integer, N> entry = ring.ceilingEntry( Integer.valueOf( hash( key ) ) );
+        if ( entry == null )
+        {
+            entry = ring.firstEntry();
+        }
+
+        return entry == null ? null : entry.getValue();
+    }
+
+    /**
+     * Finds the first node clockwise from the position of the key that is accepted by the filter.
+     * This lets the caller skip unavailable nodes without changing the ring, so that the keys of a
+     * node that comes back are routed to it again.
+     *
+     * @param key the key
+     * @param filter decides if a node may be used
+     * @return the node, or null if no node is accepted by the filter
+     */
+    public N getNode( final Object key, final Predicate<? super N> filter )
+    {
+        final Integer position = Integer.valueOf( hash( key ) );
+
+        for ( final N node : ring.tailMap( position, true ).values() )
+        {
+            if ( filter.test( node ) )
+            {
+                return node;
+            }
+        }
+        for ( final N node : ring.headMap( position, false ).values() )
+        {
+            if ( filter.test( node ) )
+            {
+                return node;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return the nodes of the ring
+     */
+    public Set<N> getNodes()
+    {
+        return nodes.keySet();
+    }
+
+    /**
+     * @return the number of virtual positions per node
+     */
+    public int getVirtualNodes()
+    {
+        return virtualNodes;
+    }
+
+    /**
+     * @return the number of nodes in the ring
+     */
+    public int size()
+    {
+        return nodes.size();
+    }
+
+    /**
+     * @return a new MD5 digest instance
+     */
+    private static MessageDigest md5()
+    {
+        try
+        {
+            return MessageDigest.getInstance( "MD5" );
+        }
+        catch ( final NoSuchAlgorithmException e )
+        {
+            // every JVM is required to support MD5
+            throw new IllegalStateException( e );
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.apache.commons.jcs4.utils.struct;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded ring buffer for many producers and one consumer. Producers claim a slot with a compare
+ * and set on the tail and then publish the element into it, so offering never takes a lock. Only
+ * one thread at a time may poll or peek.
+ *
+ * @param <E> the element type
+ */
+public final class MpscRingBuffer<E>
+{
+    /** The slots, null if empty or claimed but not yet published */
+    private final AtomicReferenceArray<E> buffer;
+
+    /** capacity - 1, the capacity is a power of two */
+    private final int mask;
+
+    /** Next slot to claim by a producer */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** Next slot to read by the consumer, only written by the consumer */
+    private volatile long head;
+
+    /**
+     * @param capacity the minimum capacity, it is rounded up to a power of two
+     */
+    public MpscRingBuffer( final int capacity )
+    {
+        if ( capacity < 1 || capacity > 1 << 30 )
+        {
+            throw new IllegalArgumentException( "Capacity out of range: " + capacity );
+        }
+        final int size = capacity == 1 ? 1 : Integer.highestOneBit( capacity - 1 ) << 1;
+        this.buffer = new AtomicReferenceArray<>( size );
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds an element at the tail. Safe for any number of threads.
+     *
+     * @param element the element, not null
+     * @return false if the buffer is full
+     */
+    public boolean offer( final E element )
+    {
+        if ( element == null )
+        {
+            throw new NullPointerException( "element" );
+        }
+
+        long t;
+        do
+        {
+            t = tail.get();
+            if ( t - head > mask )
+            {
+                return false;
+            }
+        }
+        while ( !tail.compareAndSet( t, t + 1 ) );
+
+        buffer.setRelease( (int) t & mask, element );
+        return true;
+    }
+
+    /**
+     * Takes the element at the head. Must only be called by the consumer.
+     *
+     * @return the element, or null if the buffer is empty or the head element is not published yet
+     */
+    public E poll()
+    {
+        final long h = head;
+        final int index = (int) h & mask;
+        final E element = buffer.getAcquire( index );
+        if ( element != null )
+        {
+            buffer.setRelease( index, null );
+            head = h + 1;
+        }
+        return element;
+    }
+
+    /**
+     * Looks at the element at the head without taking it. Must only be called by the consumer.
+     *
+     * @return the element, or null if the buffer is empty or the head element is not published yet
+     */
+    public E peek()
+    {
+        return buffer.getAcquire( (int) head & mask );
+    }
+
+    /**
+     * @return the number of claimed slots, including the ones not published yet
+     */
+    public int size()
+    {
+        final long h = head;
+        final long size = tail.get() - h;
+        return (int) Math.max( 0, Math.min( size, capacity() ) );
+    }
+
+    /**
+     * @return whether no slot is claimed
+     */
+    public boolean isEmpty()
+    {
+        return size() == 0;
+    }
+
+    /**
+     * @return the number of slots
+     */
+    public int capacity()
+    {
+        return mask + 1;
+    }
+}
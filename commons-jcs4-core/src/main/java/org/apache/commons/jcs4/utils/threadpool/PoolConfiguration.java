@@ -31,7 +31,10 @@ public record PoolConfiguration(
         /** If the queue is bounded, how big can it get */
         int boundarySize,
 
-        /** Only has meaning if a boundary is used */
+        /**
+         * Only has meaning if a boundary is used. With virtual threads it is the number of tasks
+         * that can run at once.
+         */
         int maximumPoolSize,
 
         /**
@@ -47,7 +50,13 @@ public record PoolConfiguration(
         WhenBlockedPolicy whenBlockedPolicy,
 
         /** The number of threads to create on startup */
-        int startUpSize
+        int startUpSize,
+
+        /**
+         * Run the tasks on virtual threads, if the JVM supports them. The minimum pool size,
+         * keep alive time and startup size are not used then.
+         */
+        boolean useVirtualThreads
 ) implements Cloneable
 {
     public enum WhenBlockedPolicy
@@ -88,12 +97,16 @@ public record PoolConfiguration(
     /** Default startup size */
     private static final int DEFAULT_STARTUP_SIZE = DEFAULT_MINIMUM_POOL_SIZE;
 
+    /** Default use of virtual threads */
+    private static final boolean DEFAULT_USE_VIRTUAL_THREADS = false;
+
     /**
      * Default
      */
     private static PoolConfiguration DEFAULT = new PoolConfiguration(DEFAULT_USE_BOUNDARY,
             DEFAULT_BOUNDARY_SIZE, DEFAULT_MAXIMUM_POOL_SIZE, DEFAULT_MINIMUM_POOL_SIZE,
-            DEFAULT_KEEPALIVE_TIME, DEFAULT_WHEN_BLOCKED_POLICY, DEFAULT_STARTUP_SIZE);
+            DEFAULT_KEEPALIVE_TIME, DEFAULT_WHEN_BLOCKED_POLICY, DEFAULT_STARTUP_SIZE,
+            DEFAULT_USE_VIRTUAL_THREADS);
 
     /**
      * @return An object containing the default settings
@@ -118,7 +131,8 @@ public record PoolConfiguration(
         buf.append("minimumPoolSize = [").append(minimumPoolSize()).append("] ");
         buf.append("keepAliveTime = [").append(keepAliveTime()).append("] ");
         buf.append("whenBlockedPolicy = [").append(whenBlockedPolicy()).append("] ");
-        buf.append("startUpSize = [").append(startUpSize()).append("]" );
+        buf.append("startUpSize = [").append(startUpSize()).append("] ");
+        buf.append("useVirtualThreads = [").append(useVirtualThreads()).append("]" );
         return buf.toString();
     }
 }
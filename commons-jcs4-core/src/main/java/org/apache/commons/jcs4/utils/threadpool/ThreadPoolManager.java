@@ -29,6 +29,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -54,6 +55,10 @@ import org.apache.commons.jcs4.utils.config.ConfigurationBuilder;
  * If a value is not set for a particular pool, the hard coded defaults in {@code PoolConfiguration} will be used.
  * You can configure default settings by specifying {@code thread_pool.default} in the properties, ie "cache.ccf"
  * </p>
+ * <p>
+ * A pool with {@code thread_pool.NAME.useVirtualThreads=true} runs its tasks on virtual threads if the JVM
+ * supports them, with at most {@code maximumPoolSize} of them at once.
+ * </p>
  */
 public class ThreadPoolManager
 {
@@ -225,6 +230,19 @@ public static void dispose()
      */
     public ExecutorService createPool( final PoolConfiguration config, final String threadNamePrefix, final int threadPriority )
     {
+        if ( config.useVirtualThreads() )
+        {
+            final ThreadFactory virtualThreadFactory = createVirtualThreadFactory( threadNamePrefix );
+            if ( virtualThreadFactory != null )
+            {
+                log.debug( "Creating a virtual thread executor running at most {0} tasks",
+                        config::maximumPoolSize );
+                return new VirtualThreadExecutor( config, virtualThreadFactory );
+            }
+            log.warn( "Virtual threads are not available in this JVM, using platform threads for {0}",
+                    threadNamePrefix );
+        }
+
         BlockingQueue<Runnable> queue = null;
         if ( config.useBoundary() )
         {
@@ -270,6 +288,30 @@ public static void dispose()
         return pool;
     }
 
+    /**
+     * Gets a factory for virtual threads. It is looked up by reflection, since they are not
+     * available in all supported JVMs.
+     *
+     * @param threadNamePrefix prefix for the thread names
+     * @return the factory, or null if the JVM has no virtual threads
+     */
+    static ThreadFactory createVirtualThreadFactory( final String threadNamePrefix )
+    {
+        try
+        {
+            final Class<?> builderClass = Class.forName( "java.lang.Thread$Builder" );
+            Object builder = Thread.class.getMethod( "ofVirtual" ).invoke( null );
+            builder = builderClass.getMethod( "name", String.class, long.class )
+                    .invoke( builder, threadNamePrefix, Long.valueOf( 0 ) );
+            return (ThreadFactory) builderClass.getMethod( "factory" ).invoke( builder );
+        }
+        catch ( final ReflectiveOperationException | RuntimeException e )
+        {
+            log.debug( "No virtual threads", e );
+            return null;
+        }
+    }
+
     /**
      * Creates a scheduler pool based on the configuration info.
      *
@@ -0,0 +1,270 @@
+package org.apache.commons.jcs4.utils.threadpool;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jcs4.log.Log;
+
+/**
+ * Runs tasks on threads that are started per burst of work instead of kept in a pool. With a
+ * factory for virtual threads, blocking tasks don't tie up platform threads.
+ * <p>
+ * A semaphore takes the place of the maximum pool size. It limits how many tasks run at once,
+ * the others wait in the queue in order. With a limit of 1 the tasks run one after another like in
+ * a single thread executor. If the queue is bounded and full, the when blocked policy applies.
+ * </p>
+ * <p>
+ * Shutting down works like for a ThreadPoolExecutor: after shutdown new tasks are rejected and the
+ * queued ones still run, after shutdownNow the workers stop taking tasks from the queue and the
+ * queued tasks are returned.
+ * </p>
+ */
+public class VirtualThreadExecutor
+    extends AbstractExecutorService
+{
+    /** The logger */
+    private static final Log log = Log.getLog( VirtualThreadExecutor.class );
+
+    /** Tasks waiting for a permit */
+    private final BlockingQueue<Runnable> queue;
+
+    /** One permit per running worker */
+    private final Semaphore permits;
+
+    /** What to do if the queue is full */
+    private final PoolConfiguration.WhenBlockedPolicy whenBlockedPolicy;
+
+    /** Creates the worker threads */
+    private final ThreadFactory threadFactory;
+
+    /** The running workers */
+    private final Set<Thread> workers = ConcurrentHashMap.newKeySet();
+
+    /** Set by shutdown and shutdownNow, no new tasks are accepted */
+    private volatile boolean shutdown;
+
+    /** Set by shutdownNow, the workers stop taking queued tasks */
+    private volatile boolean stopped;
+
+    /** Signalled when a worker ends */
+    private final Object termination = new Object();
+
+    /**
+     * @param config the pool configuration, maximumPoolSize is the concurrency limit
+     * @param threadFactory creates the worker threads
+     */
+    public VirtualThreadExecutor( final PoolConfiguration config, final ThreadFactory threadFactory )
+    {
+        this.queue = config.useBoundary() ? new LinkedBlockingQueue<>( config.boundarySize() )
+            : new LinkedBlockingQueue<>();
+        this.permits = new Semaphore( Math.max( 1, config.maximumPoolSize() ) );
+        this.whenBlockedPolicy = config.whenBlockedPolicy();
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * @see java.util.concurrent.Executor#execute(java.lang.Runnable)
+     */
+    @Override
+    public void execute( final Runnable command )
+    {
+        if ( shutdown )
+        {
+            throw new RejectedExecutionException( "Executor has been shut down" );
+        }
+
+        if ( !queue.offer( command ) )
+        {
+            switch ( whenBlockedPolicy )
+            {
+                case ABORT:
+                    throw new RejectedExecutionException( "Queue is full" );
+
+                case RUN:
+                    command.run();
+                    return;
+
+                case DISCARDOLDEST:
+                    queue.poll();
+                    if ( !queue.offer( command ) )
+                    {
+                        log.debug( "Discarding task, queue is still full" );
+                    }
+                    break;
+
+                case DISCARD:
+                    return;
+            }
+        }
+
+        // shut down while the task was queued, take it back like ThreadPoolExecutor does
+        if ( shutdown && queue.remove( command ) )
+        {
+            throw new RejectedExecutionException( "Executor has been shut down" );
+        }
+
+        startWorkers();
+    }
+
+    /**
+     * Starts a worker for each waiting task as long as there are permits.
+     */
+    private void startWorkers()
+    {
+        while ( !stopped && !queue.isEmpty() && permits.tryAcquire() )
+        {
+            final Thread worker = threadFactory.newThread( this::work );
+            workers.add( worker );
+            worker.start();
+        }
+    }
+
+    /**
+     * Runs waiting tasks until the queue is empty or the executor is stopped, then returns the
+     * permit.
+     */
+    private void work()
+    {
+        try
+        {
+            Runnable task;
+            while ( !stopped && ( task = queue.poll() ) != null )
+            {
+                try
+                {
+                    task.run();
+                }
+                catch ( final RuntimeException e )
+                {
+                    log.warn( "Task failed", e );
+                }
+            }
+        }
+        finally
+        {
+            workers.remove( Thread.currentThread() );
+            permits.release();
+
+            // a task may have been queued after the last poll but before the release
+            startWorkers();
+
+            synchronized ( termination )
+            {
+                termination.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * @return the waiting tasks
+     */
+    public BlockingQueue<Runnable> getQueue()
+    {
+        return queue;
+    }
+
+    /**
+     * @return the number of running workers
+     */
+    public int getActiveCount()
+    {
+        return workers.size();
+    }
+
+    /**
+     * Rejects new tasks. The queued tasks still run.
+     *
+     * @see java.util.concurrent.ExecutorService#shutdown()
+     */
+    @Override
+    public void shutdown()
+    {
+        shutdown = true;
+    }
+
+    /**
+     * Rejects new tasks, stops the workers from taking queued tasks and interrupts the running
+     * ones.
+     *
+     * @see java.util.concurrent.ExecutorService#shutdownNow()
+     */
+    @Override
+    public List<Runnable> shutdownNow()
+    {
+        shutdown = true;
+        stopped = true;
+        final List<Runnable> pending = new ArrayList<>();
+        queue.drainTo( pending );
+        workers.forEach( Thread::interrupt );
+        return pending;
+    }
+
+    /**
+     * @see java.util.concurrent.ExecutorService#isShutdown()
+     */
+    @Override
+    public boolean isShutdown()
+    {
+        return shutdown;
+    }
+
+    /**
+     * @see java.util.concurrent.ExecutorService#isTerminated()
+     */
+    @Override
+    public boolean isTerminated()
+    {
+        return shutdown && workers.isEmpty() && ( stopped || queue.isEmpty() );
+    }
+
+    /**
+     * @see java.util.concurrent.ExecutorService#awaitTermination(long, java.util.concurrent.TimeUnit)
+     */
+    @Override
+    public boolean awaitTermination( final long timeout, final TimeUnit unit )
+        throws InterruptedException
+    {
+        final long deadline = System.nanoTime() + unit.toNanos( timeout );
+        synchronized ( termination )
+        {
+            while ( !isTerminated() )
+            {
+                final long remaining = deadline - System.nanoTime();
+                if ( remaining <= 0 )
+                {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait( termination, remaining );
+            }
+        }
+        return true;
+    }
+}
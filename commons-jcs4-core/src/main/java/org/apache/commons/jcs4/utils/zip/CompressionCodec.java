@@ -0,0 +1,70 @@
+package org.apache.commons.jcs4.utils.zip;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A compression algorithm for the {@link org.apache.commons.jcs4.utils.serialization.CompressingSerializer}.
+ * <p>
+ * The id is written in front of every compressed value and selects the codec for decompression,
+ * so it must never change once data has been written with it. Ids below
+ * {@link #FIRST_USER_CODEC_ID} are reserved for JCS.
+ */
+public interface CompressionCodec
+{
+    /** The ids below this are reserved for JCS */
+    int FIRST_USER_CODEC_ID = 16;
+
+    /**
+     * Wraps a stream so that the data written to it arrives compressed. Closing the returned
+     * stream finishes the compressed data and frees the resources of the codec, but does not close
+     * the target.
+     *
+     * @param out the target
+     * @return the compressing stream
+     * @throws IOException if the stream cannot be set up
+     */
+    OutputStream compress( OutputStream out )
+        throws IOException;
+
+    /**
+     * Wraps a stream of compressed data. Closing the returned stream frees the resources of the
+     * codec, but does not close the source.
+     *
+     * @param in the source, positioned at the start of the compressed data
+     * @return the decompressing stream
+     * @throws IOException if the stream cannot be set up
+     */
+    InputStream decompress( InputStream in )
+        throws IOException;
+
+    /**
+     * @return the id written in front of compressed values, 0 to 255
+     */
+    int getId();
+
+    /**
+     * @return the name used in configuration and statistics
+     */
+    String getName();
+}
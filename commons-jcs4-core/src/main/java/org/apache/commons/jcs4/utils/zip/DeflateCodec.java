@@ -0,0 +1,245 @@
+package org.apache.commons.jcs4.utils.zip;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Compresses with <code>java.util.zip</code> deflate in zlib format, the format that
+ * {@link CompressionUtil} has always used.
+ * <p>
+ * If the codec has a {@link DeflateDictionaries} with a current dictionary, the compressor is
+ * primed with it. The zlib header records the checksum of the dictionary, so decompression picks
+ * the matching one, even after newer dictionaries have been added.
+ */
+public class DeflateCodec
+    implements CompressionCodec
+{
+    /** The id of this codec */
+    public static final int ID = 1;
+
+    /** The name of this codec */
+    public static final String NAME = "deflate";
+
+    /** Buffer size of the streams */
+    private static final int BUFFER_SIZE = 4096;
+
+    /** The compression level */
+    private final int level;
+
+    /** The dictionaries, may be null */
+    private final DeflateDictionaries dictionaries;
+
+    /**
+     * Decompresses and looks up dictionaries on demand.
+     */
+    private static final class InflatingInputStream
+        extends InputStream
+    {
+        /** The compressed data */
+        private final InputStream in;
+
+        /** The decompressor */
+        private final Inflater inflater = new Inflater();
+
+        /** The dictionaries, may be null */
+        private final DeflateDictionaries dictionaries;
+
+        /** Compressed input */
+        private final byte[] input = new byte[BUFFER_SIZE];
+
+        /** For single byte reads */
+        private final byte[] single = new byte[1];
+
+        /**
+         * @param in the compressed data
+         * @param dictionaries the dictionaries, may be null
+         */
+        InflatingInputStream( final InputStream in, final DeflateDictionaries dictionaries )
+        {
+            this.in = in;
+            this.dictionaries = dictionaries;
+        }
+
+        @Override
+        public void close()
+        {
+            inflater.end();
+        }
+
+        @Override
+        public int read()
+            throws IOException
+        {
+            return read( single, 0, 1 ) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read( final byte[] b, final int off, final int len )
+            throws IOException
+        {
+            if ( len == 0 )
+            {
+                return 0;
+            }
+            try
+            {
+                while ( true )
+                {
+                    final int count = inflater.inflate( b, off, len );
+                    if ( count > 0 )
+                    {
+                        return count;
+                    }
+                    if ( inflater.finished() )
+                    {
+                        return -1;
+                    }
+                    if ( inflater.needsDictionary() )
+                    {
+                        final byte[] dictionary = dictionaries == null ? null : dictionaries.get( inflater.getAdler() );
+                        if ( dictionary == null )
+                        {
+                            throw new ZipException( "Unknown compression dictionary "
+                                    + Integer.toHexString( inflater.getAdler() ) );
+                        }
+                        inflater.setDictionary( dictionary );
+                    }
+                    else if ( inflater.needsInput() )
+                    {
+                        final int read = in.read( input );
+                        if ( read < 0 )
+                        {
+                            throw new EOFException( "Compressed data ends early" );
+                        }
+                        inflater.setInput( input, 0, read );
+                    }
+                }
+            }
+            catch ( final DataFormatException e )
+            {
+                throw new ZipException( "Corrupt compressed data: " + e.getMessage() );
+            }
+        }
+    }
+
+    /**
+     * Deflate without dictionaries.
+     *
+     * @param level the compression level, see {@link Deflater}
+     */
+    public DeflateCodec( final int level )
+    {
+        this( level, null );
+    }
+
+    /**
+     * @param level the compression level, see {@link Deflater}
+     * @param dictionaries the dictionaries, may be null
+     */
+    public DeflateCodec( final int level, final DeflateDictionaries dictionaries )
+    {
+        this.level = level;
+        this.dictionaries = dictionaries;
+    }
+
+    /**
+     * @param out the target
+     * @return a deflating stream, primed with the current dictionary if there is one
+     */
+    @Override
+    public OutputStream compress( final OutputStream out )
+    {
+        final Deflater deflater = new Deflater( level );
+        final byte[] dictionary = dictionaries == null ? null : dictionaries.getCurrent();
+        if ( dictionary != null )
+        {
+            deflater.setDictionary( dictionary );
+        }
+
+        return new DeflaterOutputStream( out, deflater, BUFFER_SIZE )
+        {
+            /** Whether close was called */
+            private boolean closed;
+
+            @Override
+            public void close()
+                throws IOException
+            {
+                if ( !closed )
+                {
+                    closed = true;
+                    try
+                    {
+                        finish();
+                    }
+                    finally
+                    {
+                        def.end();
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * @param in the compressed data
+     * @return an inflating stream
+     */
+    @Override
+    public InputStream decompress( final InputStream in )
+    {
+        return new InflatingInputStream( in, dictionaries );
+    }
+
+    /**
+     * @return {@link #ID}
+     */
+    @Override
+    public int getId()
+    {
+        return ID;
+    }
+
+    /**
+     * @return the compression level
+     */
+    public int getLevel()
+    {
+        return level;
+    }
+
+    /**
+     * @return {@link #NAME}
+     */
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+}
@@ -0,0 +1,185 @@
+package org.apache.commons.jcs4.utils.zip;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Adler32;
+
+/**
+ * The deflate dictionaries known to a {@link DeflateCodec}, by their Adler-32 checksum.
+ * <p>
+ * New data is compressed with the current dictionary, the last one added. Older dictionaries are
+ * kept, so that data compressed with them can still be read. Everything that reads the data has to
+ * know the dictionary that was used, so if the data outlives the process or is read by other
+ * processes, the dictionaries have to be stored in a file shared by all of them.
+ * <p>
+ * This class is thread safe.
+ */
+public class DeflateDictionaries
+{
+    /** Largest dictionary that deflate can use */
+    public static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+    /** The dictionaries by their checksum */
+    private final Map<Integer, byte[]> dictionaries = new ConcurrentHashMap<>();
+
+    /** The dictionary for new data, null if there is none */
+    private volatile byte[] current;
+
+    /**
+     * @param dictionary the dictionary
+     * @return its Adler-32 checksum, as stored in the zlib header
+     */
+    public static int id( final byte[] dictionary )
+    {
+        final Adler32 adler = new Adler32();
+        adler.update( dictionary );
+        return (int) adler.getValue();
+    }
+
+    /**
+     * Adds a dictionary and makes it the current one.
+     *
+     * @param dictionary the dictionary, at most {@link #MAX_DICTIONARY_SIZE} bytes
+     * @return its id
+     */
+    public int add( final byte[] dictionary )
+    {
+        if ( dictionary.length == 0 || dictionary.length > MAX_DICTIONARY_SIZE )
+        {
+            throw new IllegalArgumentException( "Dictionary size must be between 1 and "
+                    + MAX_DICTIONARY_SIZE + ": " + dictionary.length );
+        }
+        final int id = id( dictionary );
+        dictionaries.put( Integer.valueOf( id ), dictionary.clone() );
+        current = dictionaries.get( Integer.valueOf( id ) );
+        return id;
+    }
+
+    /**
+     * @param id the checksum
+     * @return the dictionary, or null if it is unknown
+     */
+    public byte[] get( final int id )
+    {
+        return dictionaries.get( Integer.valueOf( id ) );
+    }
+
+    /**
+     * @return the dictionary for new data, or null if there is none. Do not modify it.
+     */
+    public byte[] getCurrent()
+    {
+        return current;
+    }
+
+    /**
+     * @return the id of the current dictionary, 0 if there is none
+     */
+    public int getCurrentId()
+    {
+        final byte[] dictionary = current;
+        return dictionary == null ? 0 : id( dictionary );
+    }
+
+    /**
+     * Adds the dictionaries stored in the file. The last one becomes the current one.
+     *
+     * @param file a file written by {@link #append(File, byte[])}
+     * @return the number of dictionaries read, 0 if the file does not exist
+     * @throws IOException
+     */
+    public int load( final File file )
+        throws IOException
+    {
+        if ( !file.exists() )
+        {
+            return 0;
+        }
+
+        int count = 0;
+        try ( DataInputStream in = new DataInputStream( new BufferedInputStream( Files.newInputStream( file.toPath() ) ) ) )
+        {
+            while ( true )
+            {
+                final int length;
+                try
+                {
+                    length = in.readInt();
+                }
+                catch ( final EOFException e )
+                {
+                    break;
+                }
+                if ( length <= 0 || length > MAX_DICTIONARY_SIZE )
+                {
+                    throw new StreamCorruptedException( "Invalid dictionary length " + length + " in " + file );
+                }
+                final byte[] dictionary = new byte[length];
+                in.readFully( dictionary );
+                add( dictionary );
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Appends a dictionary to the file.
+     *
+     * @param file the file, created if it does not exist
+     * @param dictionary the dictionary
+     * @throws IOException
+     */
+    public static void append( final File file, final byte[] dictionary )
+        throws IOException
+    {
+        final File parent = file.getAbsoluteFile().getParentFile();
+        if ( parent != null )
+        {
+            Files.createDirectories( parent.toPath() );
+        }
+        try ( DataOutputStream out = new DataOutputStream( new BufferedOutputStream( Files.newOutputStream( file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE ) ) ) )
+        {
+            out.writeInt( dictionary.length );
+            out.write( dictionary );
+        }
+    }
+
+    /**
+     * @return the number of dictionaries
+     */
+    public int size()
+    {
+        return dictionaries.size();
+    }
+}
@@ -0,0 +1,176 @@
+package org.apache.commons.jcs4.utils.zip;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds a deflate dictionary from sample values.
+ * <p>
+ * Deflate can refer back into the dictionary, so a good dictionary holds the byte sequences that
+ * recur across many values. The trainer counts in how many samples each 8 byte sequence occurs,
+ * scores segments of the samples by the sequences they share with other samples and picks the best
+ * segments, ignoring sequences already covered by a picked segment. Deflate encodes near
+ * references with fewer bits, so the best segments go to the end of the dictionary.
+ */
+public final class DictionaryTrainer
+{
+    /** Length of the sequences that are counted */
+    private static final int GRAM = 8;
+
+    /** Length of the segments that are picked */
+    private static final int SEGMENT = 64;
+
+    /** Distance between candidate segments */
+    private static final int STEP = SEGMENT / 4;
+
+    /** A candidate segment */
+    private record Segment( byte[] sample, int offset, int length, long score )
+    {
+    }
+
+    /**
+     * @param samples the sample values
+     * @param size the maximum size of the dictionary
+     * @return the dictionary, empty if the samples have nothing in common
+     */
+    public static byte[] train( final Collection<byte[]> samples, final int size )
+    {
+        // in how many samples does each sequence occur
+        final Map<Long, Integer> frequencies = new HashMap<>();
+        for ( final byte[] sample : samples )
+        {
+            final Set<Long> seen = new HashSet<>();
+            for ( int i = 0; i + GRAM <= sample.length; i++ )
+            {
+                final Long gram = Long.valueOf( gram( sample, i ) );
+                if ( seen.add( gram ) )
+                {
+                    frequencies.merge( gram, Integer.valueOf( 1 ), Integer::sum );
+                }
+            }
+        }
+
+        final List<Segment> candidates = new ArrayList<>();
+        for ( final byte[] sample : samples )
+        {
+            for ( int offset = 0; offset < sample.length; offset += STEP )
+            {
+                final int length = Math.min( SEGMENT, sample.length - offset );
+                final long score = score( sample, offset, length, frequencies, null );
+                if ( score > 0 )
+                {
+                    candidates.add( new Segment( sample, offset, length, score ) );
+                }
+                if ( offset + length == sample.length )
+                {
+                    break;
+                }
+            }
+        }
+        candidates.sort( ( a, b ) -> Long.compare( b.score(), a.score() ) );
+
+        // pick greedily, later picks only count what is not covered yet
+        final List<Segment> picked = new ArrayList<>();
+        final Set<Long> covered = new HashSet<>();
+        int total = 0;
+        for ( final Segment candidate : candidates )
+        {
+            if ( total + candidate.length() > size )
+            {
+                if ( size - total < GRAM )
+                {
+                    break;
+                }
+                continue;
+            }
+            if ( score( candidate.sample(), candidate.offset(), candidate.length(), frequencies, covered ) * 2
+                    < candidate.score() )
+            {
+                continue;
+            }
+            for ( int i = candidate.offset(); i + GRAM <= candidate.offset() + candidate.length(); i++ )
+            {
+                covered.add( Long.valueOf( gram( candidate.sample(), i ) ) );
+            }
+            picked.add( candidate );
+            total += candidate.length();
+        }
+
+        // the best segment goes last, closest to the data
+        final byte[] dictionary = new byte[total];
+        int position = total;
+        for ( final Segment segment : picked )
+        {
+            position -= segment.length();
+            System.arraycopy( segment.sample(), segment.offset(), dictionary, position, segment.length() );
+        }
+        return dictionary;
+    }
+
+    /**
+     * @param sample the sample
+     * @param offset start of the sequence
+     * @return the 8 bytes as a long
+     */
+    private static long gram( final byte[] sample, final int offset )
+    {
+        long gram = 0;
+        for ( int i = 0; i < GRAM; i++ )
+        {
+            gram = gram << 8 | sample[offset + i] & 0xFF;
+        }
+        return gram;
+    }
+
+    /**
+     * @param sample the sample
+     * @param offset start of the segment
+     * @param length length of the segment
+     * @param frequencies the number of samples containing each sequence
+     * @param covered sequences that do not count, may be null
+     * @return the number of other samples that share the sequences of the segment
+     */
+    private static long score( final byte[] sample, final int offset, final int length,
+            final Map<Long, Integer> frequencies, final Set<Long> covered )
+    {
+        long score = 0;
+        for ( int i = offset; i + GRAM <= offset + length; i++ )
+        {
+            final Long gram = Long.valueOf( gram( sample, i ) );
+            if ( covered == null || !covered.contains( gram ) )
+            {
+                score += frequencies.get( gram ).intValue() - 1;
+            }
+        }
+        return score;
+    }
+
+    /** No instances */
+    private DictionaryTrainer()
+    {
+    }
+}
@@ -0,0 +1,522 @@
+package org.apache.commons.jcs4.utils.zip;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.util.Arrays;
+
+/**
+ * A fast codec in the style of LZF. It trades compression ratio for speed: it only finds repeated
+ * sequences of three or more bytes within the last 8 KiB and does no entropy coding.
+ * <p>
+ * The data is split into blocks of at most {@link #BLOCK_SIZE} bytes. Each block starts with a type
+ * byte and the uncompressed length. Compressed blocks add the compressed length. Blocks that do not
+ * get smaller are stored. An end marker terminates the stream, so the decompressor never reads past
+ * the compressed data.
+ */
+public class LZFCodec
+    implements CompressionCodec
+{
+    /** The id of this codec */
+    public static final int ID = 2;
+
+    /** The name of this codec */
+    public static final String NAME = "lzf";
+
+    /** Maximum uncompressed size of a block */
+    public static final int BLOCK_SIZE = 32 * 1024;
+
+    /** Block types */
+    private static final int BLOCK_STORED = 0;
+    private static final int BLOCK_COMPRESSED = 1;
+    private static final int BLOCK_END = 2;
+
+    /** Bits of the hash table index */
+    private static final int HASH_BITS = 14;
+
+    /** Longest literal run */
+    private static final int MAX_LITERAL = 32;
+
+    /** Furthest back reference */
+    private static final int MAX_OFFSET = 1 << 13;
+
+    /** Longest back reference */
+    private static final int MAX_MATCH = 2 + 7 + 255;
+
+    /**
+     * Collects a block and writes it compressed or stored.
+     */
+    private static final class LZFOutputStream
+        extends OutputStream
+    {
+        /** The target */
+        private final OutputStream out;
+
+        /** The pending block */
+        private final byte[] block = new byte[BLOCK_SIZE];
+
+        /** The compressed block */
+        private final byte[] compressed = new byte[maxCompressedLength( BLOCK_SIZE )];
+
+        /** The hash table, reused for each block */
+        private final int[] table = new int[1 << HASH_BITS];
+
+        /** Bytes in the pending block */
+        private int count;
+
+        /** Whether close was called */
+        private boolean closed;
+
+        /**
+         * @param out the target
+         */
+        LZFOutputStream( final OutputStream out )
+        {
+            this.out = out;
+        }
+
+        @Override
+        public void close()
+            throws IOException
+        {
+            if ( !closed )
+            {
+                closed = true;
+                writeBlock();
+                out.write( BLOCK_END );
+            }
+        }
+
+        @Override
+        public void write( final byte[] b, int off, int len )
+            throws IOException
+        {
+            while ( len > 0 )
+            {
+                final int n = Math.min( len, BLOCK_SIZE - count );
+                System.arraycopy( b, off, block, count, n );
+                count += n;
+                off += n;
+                len -= n;
+                if ( count == BLOCK_SIZE )
+                {
+                    writeBlock();
+                }
+            }
+        }
+
+        @Override
+        public void write( final int b )
+            throws IOException
+        {
+            block[count++] = (byte) b;
+            if ( count == BLOCK_SIZE )
+            {
+                writeBlock();
+            }
+        }
+
+        /**
+         * Writes the pending block, if any.
+         *
+         * @throws IOException
+         */
+        private void writeBlock()
+            throws IOException
+        {
+            if ( count == 0 )
+            {
+                return;
+            }
+            final int length = compress( block, count, compressed, table );
+            if ( length < count )
+            {
+                out.write( BLOCK_COMPRESSED );
+                writeShort( out, count );
+                writeShort( out, length );
+                out.write( compressed, 0, length );
+            }
+            else
+            {
+                out.write( BLOCK_STORED );
+                writeShort( out, count );
+                out.write( block, 0, count );
+            }
+            count = 0;
+        }
+    }
+
+    /**
+     * Reads and expands one block at a time.
+     */
+    private static final class LZFInputStream
+        extends InputStream
+    {
+        /** The compressed data */
+        private final InputStream in;
+
+        /** The current block */
+        private final byte[] block = new byte[BLOCK_SIZE];
+
+        /** The compressed block */
+        private final byte[] compressed = new byte[BLOCK_SIZE];
+
+        /** Bytes in the current block */
+        private int count;
+
+        /** Read position in the current block */
+        private int position;
+
+        /** Whether the end marker was read */
+        private boolean finished;
+
+        /**
+         * @param in the compressed data
+         */
+        LZFInputStream( final InputStream in )
+        {
+            this.in = in;
+        }
+
+        @Override
+        public int available()
+        {
+            return count - position;
+        }
+
+        /**
+         * Reads the next block.
+         *
+         * @return false at the end of the data
+         * @throws IOException
+         */
+        private boolean fill()
+            throws IOException
+        {
+            while ( position == count )
+            {
+                if ( finished )
+                {
+                    return false;
+                }
+                final int type = in.read();
+                switch ( type )
+                {
+                    case BLOCK_END:
+                        finished = true;
+                        return false;
+                    case BLOCK_STORED:
+                        count = readLength( in );
+                        readFully( in, block, count );
+                        break;
+                    case BLOCK_COMPRESSED:
+                        final int length = readLength( in );
+                        final int compressedLength = readLength( in );
+                        readFully( in, compressed, compressedLength );
+                        if ( decompress( compressed, compressedLength, block, length ) != length )
+                        {
+                            throw new StreamCorruptedException( "Corrupt LZF block" );
+                        }
+                        count = length;
+                        break;
+                    case -1:
+                        throw new EOFException( "Compressed data ends early" );
+                    default:
+                        throw new StreamCorruptedException( "Unknown LZF block type " + type );
+                }
+                position = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public int read()
+            throws IOException
+        {
+            return fill() ? block[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read( final byte[] b, final int off, final int len )
+            throws IOException
+        {
+            if ( len == 0 )
+            {
+                return 0;
+            }
+            if ( !fill() )
+            {
+                return -1;
+            }
+            final int n = Math.min( len, count - position );
+            System.arraycopy( block, position, b, off, n );
+            position += n;
+            return n;
+        }
+    }
+
+    /**
+     * Compresses a block.
+     *
+     * @param in the data
+     * @param length the number of bytes to compress
+     * @param out the target, at least {@link #maxCompressedLength(int)} long
+     * @param table the hash table, is overwritten
+     * @return the compressed length
+     */
+    static int compress( final byte[] in, final int length, final byte[] out, final int[] table )
+    {
+        Arrays.fill( table, -1 );
+        int ip = 0;
+        int op = 0;
+        int anchor = 0;
+        while ( ip + 2 < length )
+        {
+            final int hash = hash( in, ip );
+            final int ref = table[hash];
+            table[hash] = ip;
+            final int offset = ip - ref - 1;
+            if ( ref >= 0 && offset < MAX_OFFSET
+                    && in[ref] == in[ip] && in[ref + 1] == in[ip + 1] && in[ref + 2] == in[ip + 2] )
+            {
+                final int maxMatch = Math.min( length - ip, MAX_MATCH );
+                int match = 3;
+                while ( match < maxMatch && in[ref + match] == in[ip + match] )
+                {
+                    match++;
+                }
+
+                op = writeLiterals( in, anchor, ip - anchor, out, op );
+                final int encoded = match - 2;
+                if ( encoded < 7 )
+                {
+                    out[op++] = (byte) ( encoded << 5 | offset >>> 8 );
+                }
+                else
+                {
+                    out[op++] = (byte) ( 7 << 5 | offset >>> 8 );
+                    out[op++] = (byte) ( encoded - 7 );
+                }
+                out[op++] = (byte) offset;
+
+                ip += match;
+                anchor = ip;
+            }
+            else
+            {
+                ip++;
+            }
+        }
+        return writeLiterals( in, anchor, length - anchor, out, op );
+    }
+
+    /**
+     * Expands a block.
+     *
+     * @param in the compressed data
+     * @param length the compressed length
+     * @param out the target
+     * @param maxLength the capacity of the target
+     * @return the expanded length
+     * @throws StreamCorruptedException if the data is not valid
+     */
+    static int decompress( final byte[] in, final int length, final byte[] out, final int maxLength )
+        throws StreamCorruptedException
+    {
+        int ip = 0;
+        int op = 0;
+        while ( ip < length )
+        {
+            final int control = in[ip++] & 0xFF;
+            if ( control < MAX_LITERAL )
+            {
+                final int run = control + 1;
+                if ( ip + run > length || op + run > maxLength )
+                {
+                    throw new StreamCorruptedException( "Corrupt LZF literal run" );
+                }
+                System.arraycopy( in, ip, out, op, run );
+                ip += run;
+                op += run;
+            }
+            else
+            {
+                int match = control >>> 5;
+                if ( match == 7 )
+                {
+                    if ( ip >= length )
+                    {
+                        throw new StreamCorruptedException( "Corrupt LZF back reference" );
+                    }
+                    match += in[ip++] & 0xFF;
+                }
+                match += 2;
+                if ( ip >= length )
+                {
+                    throw new StreamCorruptedException( "Corrupt LZF back reference" );
+                }
+                final int ref = op - ( ( control & 0x1F ) << 8 | in[ip++] & 0xFF ) - 1;
+                if ( ref < 0 || op + match > maxLength )
+                {
+                    throw new StreamCorruptedException( "Corrupt LZF back reference" );
+                }
+                // the regions may overlap, which repeats the referenced bytes
+                for ( int i = 0; i < match; i++ )
+                {
+                    out[op++] = out[ref + i];
+                }
+            }
+        }
+        return op;
+    }
+
+    /**
+     * @param length uncompressed length
+     * @return the worst case compressed length
+     */
+    static int maxCompressedLength( final int length )
+    {
+        return length + ( length + MAX_LITERAL - 1 ) / MAX_LITERAL;
+    }
+
+    /**
+     * @param in the data
+     * @param position start of three bytes
+     * @return index in the hash table
+     */
+    private static int hash( final byte[] in, final int position )
+    {
+        final int value = ( in[position] & 0xFF ) << 16 | ( in[position + 1] & 0xFF ) << 8 | in[position + 2] & 0xFF;
+        return value * 0x9E3779B1 >>> 32 - HASH_BITS;
+    }
+
+    /**
+     * @param in the data
+     * @param start first literal
+     * @param count number of literals
+     * @param out the target
+     * @param op position in the target
+     * @return the new position in the target
+     */
+    private static int writeLiterals( final byte[] in, int start, int count, final byte[] out, int op )
+    {
+        while ( count > 0 )
+        {
+            final int run = Math.min( count, MAX_LITERAL );
+            out[op++] = (byte) ( run - 1 );
+            System.arraycopy( in, start, out, op, run );
+            op += run;
+            start += run;
+            count -= run;
+        }
+        return op;
+    }
+
+    /**
+     * @param in the stream
+     * @param b the target
+     * @param length bytes to read
+     * @throws IOException
+     */
+    private static void readFully( final InputStream in, final byte[] b, final int length )
+        throws IOException
+    {
+        if ( in.readNBytes( b, 0, length ) != length )
+        {
+            throw new EOFException( "Compressed data ends early" );
+        }
+    }
+
+    /**
+     * @param in the stream
+     * @return a block length
+     * @throws IOException
+     */
+    private static int readLength( final InputStream in )
+        throws IOException
+    {
+        final int high = in.read();
+        final int low = in.read();
+        if ( ( high | low ) < 0 )
+        {
+            throw new EOFException( "Compressed data ends early" );
+        }
+        final int length = high << 8 | low;
+        if ( length == 0 || length > BLOCK_SIZE )
+        {
+            throw new StreamCorruptedException( "Invalid LZF block length " + length );
+        }
+        return length;
+    }
+
+    /**
+     * @param out the stream
+     * @param value the length
+     * @throws IOException
+     */
+    private static void writeShort( final OutputStream out, final int value )
+        throws IOException
+    {
+        out.write( value >>> 8 );
+        out.write( value );
+    }
+
+    /**
+     * @param out the target
+     * @return a compressing stream
+     */
+    @Override
+    public OutputStream compress( final OutputStream out )
+    {
+        return new LZFOutputStream( out );
+    }
+
+    /**
+     * @param in the compressed data
+     * @return a decompressing stream
+     */
+    @Override
+    public InputStream decompress( final InputStream in )
+    {
+        return new LZFInputStream( in );
+    }
+
+    /**
+     * @return {@link #ID}
+     */
+    @Override
+    public int getId()
+    {
+        return ID;
+    }
+
+    /**
+     * @return {@link #NAME}
+     */
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+}
@@ -135,6 +135,33 @@ class GroupCacheAccessUnitTest
         }
     }
 
+    /**
+     * Verify that the group names and keys follow removals and invalidations.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testGroupNames_afterRemoveAndInvalidate()
+        throws Exception
+    {
+        // SETUP
+        final GroupCacheAccess<String, String> access = JCS.getGroupCacheInstance( "testGroupNames" );
+        access.putInGroup( "a", "group1", "value" );
+        access.putInGroup( "b", "group1", "value" );
+        access.putInGroup( "a", "group2", "value" );
+        access.putInGroup( "a", "group3", "value" );
+
+        // DO WORK
+        access.removeFromGroup( "a", "group2" );
+        access.invalidateGroup( "group3" );
+
+        // VERIFY
+        assertEquals( Set.of( "group1" ), access.getGroupNames(), "Wrong group names" );
+        assertEquals( Set.of( "a", "b" ), access.getGroupKeys( "group1" ), "Wrong group keys" );
+        assertTrue( access.getGroupKeys( "group3" ).isEmpty(), "Invalidated group should be empty" );
+        assertNull( access.getFromGroup( "a", "group3" ), "Should not be in cache" );
+    }
+
     /**
      * Verify that we can put and get an object
      * @throws Exception
@@ -85,6 +85,34 @@ class AdminBeanUnitTest
         assertEquals( key, elementInfo.key(), "Wrong key." + elementInfo );
     }
 
+    /**
+     * Request one key much more than the others and verify that it is reported first.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testGetHotKeys()
+        throws Exception
+    {
+        final String regionName = "hotKeysRegion";
+        final CacheAccess<String, String> cache = JCS.getInstance( regionName );
+        cache.put( "hot", "value" );
+        cache.put( "cold", "value" );
+
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            cache.get( "hot" );
+        }
+        cache.get( "cold" );
+
+        final JCSAdminBean admin = new JCSAdminBean();
+
+        final List<HotKeyInfo> hotKeys = admin.getHotKeys( regionName, 1 );
+        assertEquals( 1, hotKeys.size(), "Wrong number of hot keys." );
+        assertEquals( "hot", hotKeys.get( 0 ).key(), "Wrong hot key." + hotKeys );
+        assertTrue( hotKeys.get( 0 ).requests() > 1000, "Too few requests." + hotKeys );
+    }
+
     /**
      * Create a test region and then verify that we get it from the list.
      *
@@ -0,0 +1,187 @@
+package org.apache.commons.jcs4.auxiliary.disk.jdbc;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.Executors;
+
+import org.apache.commons.jcs4.auxiliary.disk.jdbc.hsql.HSQLDiskCacheFactory;
+import org.apache.commons.jcs4.engine.CacheElement;
+import org.apache.commons.jcs4.engine.control.MockCompositeCacheManager;
+import org.apache.commons.jcs4.engine.control.MockKeyMatcher;
+import org.apache.commons.jcs4.utils.serialization.StandardSerializer;
+import org.apache.commons.jcs4.utils.threadpool.DaemonThreadFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the batched writes of the JDBC disk cache. */
+class JDBCDiskCacheBatchUnitTest
+{
+    /** The region */
+    private static final String REGION = "testBatch";
+
+    /** The cache under test */
+    private JDBCDiskCache<String, String> diskCache;
+
+    /**
+     * Creates a cache writing batches of 10 to a hsql table.
+     *
+     * @param upsertDialect the configured dialect
+     * @return the cache, empty
+     * @throws Exception
+     */
+    private static JDBCDiskCache<String, String> createCache( final UpsertDialect upsertDialect )
+        throws Exception
+    {
+        final JDBCDiskCacheAttributes cattr = new JDBCDiskCacheAttributes();
+        cattr.setCacheName( REGION );
+        cattr.setTableName( "JCS_STORE_BATCH" );
+        cattr.setUrl( "jdbc:hsqldb:target/JDBCDiskCacheBatchUnitTest" );
+        cattr.setDriverClassName( "org.hsqldb.jdbcDriver" );
+        cattr.setUserName( "sa" );
+        cattr.setPassword( "" );
+        cattr.setBatchSize( 10 );
+        cattr.setUpsertDialect( upsertDialect );
+
+        final HSQLDiskCacheFactory dcFactory = new HSQLDiskCacheFactory();
+        dcFactory.initialize();
+        dcFactory.setScheduledExecutorService( Executors.newScheduledThreadPool( 1,
+            new DaemonThreadFactory( "JCS-JDBCDiskCacheBatch-", Thread.MIN_PRIORITY ) ) );
+
+        final JDBCDiskCache<String, String> cache = dcFactory.createCache( cattr, new MockCompositeCacheManager(), null,
+                new StandardSerializer(), new MockKeyMatcher<>() );
+        cache.processRemoveAll();
+        return cache;
+    }
+
+    /**
+     * Test setup
+     *
+     * @throws Exception
+     */
+    @BeforeEach
+    void setUp()
+        throws Exception
+    {
+        diskCache = createCache( UpsertDialect.AUTO );
+    }
+
+    /** Test teardown */
+    @AfterEach
+    void tearDown()
+    {
+        diskCache.processDispose();
+    }
+
+    /**
+     * Verify that pending updates are visible before they are written, and that a flush writes
+     * all of them.
+     */
+    @Test
+    void testFlushPendingWrites()
+    {
+        // DO WORK
+        for ( int i = 0; i < 25; i++ )
+        {
+            diskCache.processUpdate( new CacheElement<>( REGION, "key" + i, "v1" ) );
+        }
+
+        // VERIFY
+        assertEquals( "v1", diskCache.processGet( "key24" ).value(), "Pending update should be visible" );
+
+        diskCache.flushPendingWrites();
+        assertEquals( 25, diskCache.getSize(), "Wrong number of rows" );
+    }
+
+    /** Verify that a batch replaces the rows of existing keys. */
+    @Test
+    void testFlushPendingWrites_upsert()
+    {
+        // SETUP
+        for ( int i = 0; i < 25; i++ )
+        {
+            diskCache.processUpdate( new CacheElement<>( REGION, "key" + i, "v1" ) );
+        }
+        diskCache.flushPendingWrites();
+
+        // DO WORK
+        for ( int i = 0; i < 25; i++ )
+        {
+            diskCache.processUpdate( new CacheElement<>( REGION, "key" + i, "v2" ) );
+        }
+        diskCache.flushPendingWrites();
+
+        // VERIFY
+        assertEquals( 25, diskCache.getSize(), "Wrong number of rows" );
+        assertEquals( "v2", diskCache.processGet( "key7" ).value(), "Wrong value" );
+    }
+
+    /** Verify that the rows of a failed batch are written one by one. */
+    @Test
+    void testFlushPendingWrites_failedBatch()
+        throws Exception
+    {
+        // SETUP
+        diskCache.processDispose();
+        // HSQLDB 1.8 has no MERGE
+        diskCache = createCache( UpsertDialect.MERGE );
+
+        // DO WORK
+        for ( int i = 0; i < 25; i++ )
+        {
+            diskCache.processUpdate( new CacheElement<>( REGION, "key" + i, "v1" ) );
+        }
+        diskCache.flushPendingWrites();
+
+        // VERIFY
+        assertEquals( 25, diskCache.getSize(), "Wrong number of rows" );
+        assertEquals( "v1", diskCache.processGet( "key7" ).value(), "Wrong value" );
+    }
+
+    /** Verify that MERGE is only chosen for databases that support it. */
+    @Test
+    void testForDatabase()
+    {
+        assertEquals( UpsertDialect.NONE, UpsertDialect.forDatabase( "HSQL Database Engine", 1 ), "HSQLDB 1.8" );
+        assertEquals( UpsertDialect.MERGE, UpsertDialect.forDatabase( "HSQL Database Engine", 2 ), "HSQLDB 2" );
+        assertEquals( UpsertDialect.MERGE, UpsertDialect.forDatabase( "H2", 2 ), "H2" );
+        assertEquals( UpsertDialect.ON_CONFLICT, UpsertDialect.forDatabase( "PostgreSQL", 16 ), "PostgreSQL" );
+        assertEquals( UpsertDialect.ON_DUPLICATE_KEY, UpsertDialect.forDatabase( "MySQL", 8 ), "MySQL" );
+        assertEquals( UpsertDialect.NONE, UpsertDialect.forDatabase( "Oracle", 19 ), "Unknown database" );
+    }
+
+    /** Verify that a removal drops the pending update of the key. */
+    @Test
+    void testRemove_pendingWrite()
+    {
+        // SETUP
+        diskCache.processUpdate( new CacheElement<>( REGION, "key", "v1" ) );
+
+        // DO WORK
+        diskCache.processRemove( "key" );
+        diskCache.flushPendingWrites();
+
+        // VERIFY
+        assertNull( diskCache.processGet( "key" ), "Removed key should be null" );
+    }
+}
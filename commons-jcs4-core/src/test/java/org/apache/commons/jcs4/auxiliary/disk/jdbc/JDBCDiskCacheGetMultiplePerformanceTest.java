@@ -0,0 +1,105 @@
+package org.apache.commons.jcs4.auxiliary.disk.jdbc;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.jcs4.auxiliary.disk.jdbc.hsql.HSQLDiskCacheFactory;
+import org.apache.commons.jcs4.engine.CacheElement;
+import org.apache.commons.jcs4.engine.control.MockCompositeCacheManager;
+import org.apache.commons.jcs4.engine.control.MockKeyMatcher;
+import org.apache.commons.jcs4.utils.serialization.StandardSerializer;
+import org.apache.commons.jcs4.utils.threadpool.DaemonThreadFactory;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares getMultiple against one get per key on a hsql table. The timings are printed, not
+ * asserted.
+ */
+class JDBCDiskCacheGetMultiplePerformanceTest
+{
+    /** The region */
+    private static final String REGION = "testGetMultiplePerformance";
+
+    /** Keys per getMultiple */
+    private static final int KEYS = 500;
+
+    /** Rounds to measure */
+    private static final int ROUNDS = 20;
+
+    /**
+     * @throws Exception
+     */
+    @Test
+    void testGetMultipleVersusGet()
+        throws Exception
+    {
+        final JDBCDiskCacheAttributes cattr = new JDBCDiskCacheAttributes();
+        cattr.setCacheName( REGION );
+        cattr.setTableName( "JCS_STORE_GET_MULTIPLE_PERF" );
+        cattr.setUrl( "jdbc:hsqldb:target/JDBCDiskCacheGetMultiplePerformanceTest" );
+        cattr.setDriverClassName( "org.hsqldb.jdbcDriver" );
+        cattr.setUserName( "sa" );
+        cattr.setPassword( "" );
+        cattr.setDeserializationThreadPoolName( "jdbc_deserialization" );
+
+        final HSQLDiskCacheFactory dcFactory = new HSQLDiskCacheFactory();
+        dcFactory.initialize();
+        dcFactory.setScheduledExecutorService( Executors.newScheduledThreadPool( 1,
+            new DaemonThreadFactory( "JCS-JDBCDiskCacheGetMultiplePerf-", Thread.MIN_PRIORITY ) ) );
+
+        final JDBCDiskCache<String, String> diskCache = dcFactory.createCache( cattr,
+                new MockCompositeCacheManager(), null, new StandardSerializer(), new MockKeyMatcher<>() );
+        diskCache.processRemoveAll();
+
+        final Set<String> keys = new HashSet<>();
+        for ( int i = 0; i < KEYS; i++ )
+        {
+            diskCache.processUpdate( new CacheElement<>( REGION, "key" + i, "data" + i ) );
+            keys.add( "key" + i );
+        }
+
+        long getTime = 0;
+        long getMultipleTime = 0;
+        for ( int round = 0; round < ROUNDS; round++ )
+        {
+            long start = System.nanoTime();
+            for ( final String key : keys )
+            {
+                diskCache.processGet( key );
+            }
+            getTime += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            assertEquals( KEYS, diskCache.processGetMultiple( keys ).size(), "Wrong number of elements" );
+            getMultipleTime += System.nanoTime() - start;
+        }
+
+        System.out.println( KEYS + " keys, " + ROUNDS + " rounds" );
+        System.out.println( "get per key: " + getTime / ROUNDS / 1000 + " us per round" );
+        System.out.println( "getMultiple: " + getMultipleTime / ROUNDS / 1000 + " us per round" );
+
+        diskCache.processDispose();
+    }
+}
@@ -0,0 +1,146 @@
+package org.apache.commons.jcs4.auxiliary.disk.jdbc;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.jcs4.auxiliary.disk.jdbc.hsql.HSQLDiskCacheFactory;
+import org.apache.commons.jcs4.engine.CacheElement;
+import org.apache.commons.jcs4.engine.behavior.ICacheElement;
+import org.apache.commons.jcs4.engine.control.MockCompositeCacheManager;
+import org.apache.commons.jcs4.engine.control.MockKeyMatcher;
+import org.apache.commons.jcs4.utils.serialization.StandardSerializer;
+import org.apache.commons.jcs4.utils.threadpool.DaemonThreadFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the chunked queries of getMultiple. */
+class JDBCDiskCacheGetMultipleUnitTest
+{
+    /** The region */
+    private static final String REGION = "testGetMultiple";
+
+    /** The cache under test */
+    private JDBCDiskCache<String, String> diskCache;
+
+    /**
+     * Creates a cache on a hsql table and puts some items.
+     *
+     * @param chunkSize keys per query
+     * @param poolName the deserialization thread pool, or null
+     * @param items number of items to put
+     * @throws Exception
+     */
+    private void setUp( final int chunkSize, final String poolName, final int items )
+        throws Exception
+    {
+        final JDBCDiskCacheAttributes cattr = new JDBCDiskCacheAttributes();
+        cattr.setCacheName( REGION );
+        cattr.setTableName( "JCS_STORE_GET_MULTIPLE" );
+        cattr.setUrl( "jdbc:hsqldb:target/JDBCDiskCacheGetMultipleUnitTest" );
+        cattr.setDriverClassName( "org.hsqldb.jdbcDriver" );
+        cattr.setUserName( "sa" );
+        cattr.setPassword( "" );
+        cattr.setGetMultipleChunkSize( chunkSize );
+        cattr.setDeserializationThreadPoolName( poolName );
+
+        final HSQLDiskCacheFactory dcFactory = new HSQLDiskCacheFactory();
+        dcFactory.initialize();
+        dcFactory.setScheduledExecutorService( Executors.newScheduledThreadPool( 1,
+            new DaemonThreadFactory( "JCS-JDBCDiskCacheGetMultiple-", Thread.MIN_PRIORITY ) ) );
+
+        diskCache = dcFactory.createCache( cattr, new MockCompositeCacheManager(), null,
+                new StandardSerializer(), new MockKeyMatcher<>() );
+        diskCache.processRemoveAll();
+
+        for ( int i = 0; i < items; i++ )
+        {
+            diskCache.processUpdate( new CacheElement<>( REGION, "key" + i, "data" + i ) );
+        }
+    }
+
+    /** Test teardown */
+    @AfterEach
+    void tearDown()
+    {
+        diskCache.processDispose();
+    }
+
+    /**
+     * Verify that keys spread over several chunks, including a partial one, are all found and
+     * that missing keys are left out.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testGetMultiple_chunks()
+        throws Exception
+    {
+        // SETUP
+        setUp( 7, null, 50 );
+        final Set<String> keys = new HashSet<>();
+        for ( int i = 0; i < 55; i++ )
+        {
+            keys.add( "key" + i );
+        }
+
+        // DO WORK
+        final Map<String, ICacheElement<String, String>> result = diskCache.processGetMultiple( keys );
+
+        // VERIFY
+        assertEquals( 50, result.size(), "Wrong number of elements" );
+        for ( int i = 0; i < 50; i++ )
+        {
+            assertEquals( "data" + i, result.get( "key" + i ).value(), "Wrong value for key" + i );
+        }
+        assertNull( result.get( "key50" ), "Missing key should not be in the result" );
+    }
+
+    /**
+     * Verify that rows deserialized in the thread pool are all returned.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testGetMultiple_deserializationPool()
+        throws Exception
+    {
+        // SETUP
+        setUp( 100, "jdbc_deserialization", 300 );
+        final Set<String> keys = new HashSet<>();
+        for ( int i = 0; i < 300; i++ )
+        {
+            keys.add( "key" + i );
+        }
+
+        // DO WORK
+        final Map<String, ICacheElement<String, String>> result = diskCache.processGetMultiple( keys );
+
+        // VERIFY
+        assertEquals( 300, result.size(), "Wrong number of elements" );
+        assertEquals( "data299", result.get( "key299" ).value(), "Wrong value" );
+    }
+}
@@ -55,7 +55,13 @@ public class MockRemoteCacheService<K, V>
     public List<Long> updateRequestIdList = new ArrayList<>();
 
     /** The key that was last passed to remove. */
-    public K lastRemoveKey;
+    public volatile K lastRemoveKey;
+
+    /** Number of calls to updateMultiple. */
+    public int updateMultipleCalls;
+
+    /** The keys last passed to removeMultiple. */
+    public Set<K> lastRemoveMultipleKeys;
 
     /** The cache name that was last passed to removeAll. */
     public String lastRemoveAllCacheName;
@@ -191,6 +197,19 @@ public class MockRemoteCacheService<K, V>
         lastRemoveKey = key;
     }
 
+    /**
+     * Sets the last removeMultiple keys.
+     *
+     * @param cacheName
+     * @param keys
+     * @param requesterId
+     */
+    @Override
+    public void removeMultiple( final String cacheName, final Set<K> keys, final long requesterId )
+    {
+        lastRemoveMultipleKeys = keys;
+    }
+
     /**
      * Sets the last remove all cache name.
      *
@@ -236,4 +255,17 @@ public class MockRemoteCacheService<K, V>
         updateRequestList.add( item );
         updateRequestIdList.add( Long.valueOf( requesterId ) );
     }
+
+    /**
+     * Counts the call and records the items like single updates.
+     *
+     * @param items
+     * @param requesterId
+     */
+    @Override
+    public void updateMultiple( final List<ICacheElement<K, V>> items, final long requesterId )
+    {
+        updateMultipleCalls++;
+        items.forEach( item -> update( item, requesterId ) );
+    }
 }
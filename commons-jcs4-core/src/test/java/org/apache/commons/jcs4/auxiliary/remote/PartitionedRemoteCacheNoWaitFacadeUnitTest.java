@@ -0,0 +1,279 @@
+package org.apache.commons.jcs4.auxiliary.remote;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.jcs4.auxiliary.AuxiliaryCache;
+import org.apache.commons.jcs4.auxiliary.remote.server.behavior.RemoteType;
+import org.apache.commons.jcs4.engine.CacheElement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for PartitionedRemoteCacheNoWaitFacade.
+ */
+class PartitionedRemoteCacheNoWaitFacadeUnitTest
+{
+    private final List<MockRemoteCacheService<String, String>> services = new ArrayList<>();
+
+    private PartitionedRemoteCacheNoWaitFacade<String, String> facade;
+
+    @BeforeEach
+    void setUp()
+    {
+        final RemoteCacheAttributes rca = new RemoteCacheAttributes();
+        rca.setCacheName( "testCache1" );
+        rca.setRemoteType( RemoteType.PARTITIONED );
+        rca.setVirtualNodes( 100 );
+
+        final List<RemoteCacheNoWait<String, String>> noWaits = new ArrayList<>();
+        for ( int i = 0; i < 3; i++ )
+        {
+            final RemoteCacheAttributes prca = (RemoteCacheAttributes) rca.clone();
+            prca.setRemoteLocation( "localhost", 1101 + i );
+
+            final MockRemoteCacheService<String, String> service = new MockRemoteCacheService<>();
+            services.add( service );
+            noWaits.add( new RemoteCacheNoWait<>( new RemoteCache<>( prca, service, null, new RemoteCacheMonitor() ) ) );
+        }
+
+        facade = new PartitionedRemoteCacheNoWaitFacade<>( noWaits, rca, null, null );
+    }
+
+    /**
+     * Waits until the remove queued by the no wait reached the server.
+     *
+     * @param service the server
+     * @return the removed key, null if none arrived within 10 seconds
+     * @throws InterruptedException
+     */
+    private static String awaitRemove( final MockRemoteCacheService<String, String> service )
+        throws InterruptedException
+    {
+        final long deadline = System.currentTimeMillis() + 10000;
+        while ( service.lastRemoveKey == null && System.currentTimeMillis() < deadline )
+        {
+            Thread.sleep( 10 );
+        }
+        return service.lastRemoveKey;
+    }
+
+    /**
+     * @param key the key
+     * @return the number of servers whose last remove was the key
+     */
+    private int countRemoves( final String key )
+    {
+        int calls = 0;
+        for ( final MockRemoteCacheService<String, String> service : services )
+        {
+            if ( key.equals( service.lastRemoveKey ) )
+            {
+                calls++;
+            }
+        }
+        return calls;
+    }
+
+    /**
+     * Verify that a get goes to exactly one server.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testGet_SingleServer()
+        throws Exception
+    {
+        // DO WORK
+        facade.get( "key1" );
+
+        // VERIFY
+        int calls = 0;
+        for ( final MockRemoteCacheService<String, String> service : services )
+        {
+            if ( "key1".equals( service.lastGetKey ) )
+            {
+                calls++;
+            }
+        }
+        assertEquals( 1, calls, "Only one server should have been asked" );
+    }
+
+    /**
+     * Verify that getMultiple splits the keys over the servers without overlap.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testGetMultiple_Split()
+        throws Exception
+    {
+        // SETUP
+        final Set<String> keys = new HashSet<>();
+        for ( int i = 0; i < 300; i++ )
+        {
+            keys.add( "key" + i );
+        }
+
+        // DO WORK
+        facade.getMultiple( keys );
+
+        // VERIFY
+        final Set<String> requested = new HashSet<>();
+        int total = 0;
+        for ( final MockRemoteCacheService<String, String> service : services )
+        {
+            assertNotNull( service.lastGetMultipleKeys, "Each server should own some keys" );
+            requested.addAll( service.lastGetMultipleKeys );
+            total += service.lastGetMultipleKeys.size();
+        }
+        assertEquals( keys, requested, "All keys should have been requested" );
+        assertEquals( keys.size(), total, "No key should be requested twice" );
+    }
+
+    /**
+     * Verify that an update goes to the server owning the key and a get finds the same server.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testUpdate_SameServerAsGet()
+        throws Exception
+    {
+        // SETUP
+        final MockRemoteCacheService<String, String> owner = services.get( 0 );
+        String key = null;
+        for ( int i = 0; key == null; i++ )
+        {
+            facade.get( "key" + i );
+            if ( ( "key" + i ).equals( owner.lastGetKey ) )
+            {
+                key = "key" + i;
+            }
+        }
+
+        // DO WORK
+        facade.update( new CacheElement<>( "testCache1", key, "value" ) );
+        final RemoteCacheNoWait<String, String> nw = facade.getServer( key );
+
+        // VERIFY
+        assertEquals( facade.getPrimaryServer(), nw, "First server should own the key" );
+    }
+
+    /**
+     * Verify that removing a server routes its keys elsewhere.
+     */
+    @Test
+    void testRemoveServer()
+    {
+        // SETUP
+        final RemoteCacheNoWait<String, String> removed = facade.getPrimaryServer();
+
+        // DO WORK
+        facade.removeServer( removed );
+
+        // VERIFY
+        for ( int i = 0; i < 100; i++ )
+        {
+            final RemoteCacheNoWait<String, String> nw = facade.getServer( "key" + i );
+            assertNotNull( nw, "Should have an owner" );
+            assertEquals( false, nw == removed, "Removed server should not own keys" );
+        }
+        assertEquals( 2, facade.noWaits.size(), "Should have two servers left" );
+    }
+
+    /**
+     * Verify that a hierarchical remove is sent to all servers, since the keys below the prefix
+     * are spread over all of them.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testRemove_HierarchicalToAllServers()
+        throws Exception
+    {
+        // DO WORK
+        facade.remove( "a:b:" );
+
+        // VERIFY
+        for ( final MockRemoteCacheService<String, String> service : services )
+        {
+            assertEquals( "a:b:", awaitRemove( service ), "Every server should get the remove" );
+        }
+    }
+
+    /**
+     * Verify that a plain remove is sent to one server only.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testRemove_SingleServer()
+        throws Exception
+    {
+        // DO WORK
+        facade.remove( "a:b" );
+
+        // VERIFY
+        final long deadline = System.currentTimeMillis() + 10000;
+        while ( countRemoves( "a:b" ) == 0 && System.currentTimeMillis() < deadline )
+        {
+            Thread.sleep( 10 );
+        }
+        assertEquals( 1, countRemoves( "a:b" ), "Only one server should get the remove" );
+    }
+
+    /**
+     * Verify that the factory creates a partitioned facade for a PARTITIONED remote type.
+     */
+    @Test
+    void testFactory_Partitioned()
+    {
+        // SETUP
+        final RemoteCacheAttributes cattr = new RemoteCacheAttributes();
+        cattr.setCacheName( "testCache1" );
+        cattr.setRemoteType( RemoteType.PARTITIONED );
+        cattr.setPartitionServers( "localhost:1101,localhost:1102,localhost:1103" );
+        cattr.setReceive( false );
+
+        final TestRemoteCacheFactory factory = new TestRemoteCacheFactory();
+        factory.initialize();
+
+        // DO WORK
+        final AuxiliaryCache<String, String> cache = factory.createCache( cattr, null, null, null, null );
+
+        // VERIFY
+        assertInstanceOf( PartitionedRemoteCacheNoWaitFacade.class, cache, "Wrong facade" );
+        final PartitionedRemoteCacheNoWaitFacade<String, String> result =
+                (PartitionedRemoteCacheNoWaitFacade<String, String>) cache;
+        assertEquals( 3, result.noWaits.size(), "Should have three servers" );
+        assertEquals( 3, factory.managers.size(), "Should have three managers" );
+        assertNull( cattr.getFailovers(), "Partitioned caches have no failovers" );
+    }
+}
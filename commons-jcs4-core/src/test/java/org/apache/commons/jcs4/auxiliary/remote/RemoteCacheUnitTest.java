@@ -22,9 +22,12 @@ package org.apache.commons.jcs4.auxiliary.remote;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.jcs4.auxiliary.MockCacheEventLogger;
 import org.apache.commons.jcs4.auxiliary.remote.behavior.IRemoteCacheAttributes;
@@ -247,6 +250,62 @@ class RemoteCacheUnitTest
         assertEquals( Long.valueOf( listenerId ), service.updateRequestIdList.get( 0 ), "Wrong listener id." );
     }
 
+    /**
+     * Verify that removeMultiple sends all keys in one call.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testRemoveMultiple_oneRequest()
+        throws Exception
+    {
+        // SETUP
+        final RemoteCache<String, String> remoteCache = new RemoteCache<>( cattr, service, listener, monitor );
+        final Set<String> keys = Set.of( "key1", "key2", "key3" );
+
+        // DO WORK
+        remoteCache.removeMultiple( keys );
+
+        // VERIFY
+        assertEquals( keys, service.lastRemoveMultipleKeys, "Wrong keys removed." );
+        assertNull( service.lastRemoveKey, "Keys should not be removed one by one." );
+    }
+
+    /**
+     * Verify that updateMultiple serializes the elements and sends them in one call.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testUpdateMultiple_oneRequest()
+        throws Exception
+    {
+        // SETUP
+        final long listenerId = 123;
+        listener.setListenerId( listenerId );
+
+        final RemoteCache<String, String> remoteCache = new RemoteCache<>( cattr, service, listener, monitor );
+
+        final String cacheName = "testUpdateMultiple";
+        final List<ICacheElement<String, String>> elements = List.of(
+                new CacheElement<>( cacheName, "key1", "value1" ),
+                new CacheElement<>( cacheName, "key2", "value2" ) );
+
+        // DO WORK
+        remoteCache.updateMultiple( elements );
+
+        // VERIFY
+        assertEquals( 1, service.updateMultipleCalls, "Should have sent one request." );
+        assertEquals( 2, service.updateRequestList.size(), "Wrong number of elements." );
+        assertInstanceOf( ICacheElementSerialized.class, service.updateRequestList.get( 1 ),
+                          "The element should be in the serialized wrapper." );
+        final ICacheElement<String, String> result = SerializationConversionUtil
+            .getDeSerializedCacheElement( (ICacheElementSerialized<String, String>) service.updateRequestList.get( 1 ),
+                remoteCache.getElementSerializer() );
+        assertEquals( "value2", result.value(), "Wrong element updated." );
+        assertEquals( Long.valueOf( listenerId ), service.updateRequestIdList.get( 0 ), "Wrong listener id." );
+    }
+
     /**
      * Verify event log calls.
      *
@@ -0,0 +1,151 @@
+package org.apache.commons.jcs4.auxiliary.remote.http.client;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import org.apache.commons.jcs4.auxiliary.remote.util.RemoteCacheFraming;
+import org.apache.commons.jcs4.auxiliary.remote.util.RemoteCacheRequestFactory;
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheRequest;
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheResponse;
+import org.apache.commons.jcs4.utils.serialization.StandardSerializer;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the dispatcher using the HTTP client of the JDK. */
+class RemoteHttp2CacheDispatcherUnitTest
+{
+    /** Answers every request with its own request type instead of going over the network. */
+    private static final class EchoDispatcher
+        extends RemoteHttp2CacheDispatcher
+    {
+        String lastUrl;
+
+        EchoDispatcher( final RemoteHttpCacheAttributes attributes )
+        {
+            super( attributes );
+        }
+
+        @Override
+        protected <K, V> byte[] processRequest( final byte[] requestAsByteArray,
+                final RemoteCacheRequest<K, V> remoteCacheRequest, final String url )
+            throws IOException
+        {
+            lastUrl = url;
+            final StandardSerializer serializer = new StandardSerializer();
+            try
+            {
+                final RemoteCacheRequest<K, V> received = serializer.deSerialize(
+                        RemoteCacheFraming.readFrame( new ByteArrayInputStream( requestAsByteArray ) ), null );
+                return RemoteCacheFraming.frame( serializer.serialize(
+                        new RemoteCacheResponse<>( received.requestType().name() ) ) );
+            }
+            catch ( final ClassNotFoundException e )
+            {
+                throw new IOException( e );
+            }
+        }
+    }
+
+    /**
+     * Verify that requests and responses survive the framing.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testDispatchRequest_roundTrip()
+        throws Exception
+    {
+        // SETUP
+        final RemoteHttpCacheAttributes attributes = new RemoteHttpCacheAttributes();
+        attributes.setUrl( "http://localhost:8080/cache" );
+        final EchoDispatcher dispatcher = new EchoDispatcher( attributes );
+
+        // DO WORK
+        final RemoteCacheResponse<String> response = dispatcher.dispatchRequest(
+                RemoteCacheRequestFactory.createGetRequest( "test", "key", 0 ) );
+
+        // VERIFY
+        assertTrue( response.success(), "Should succeed" );
+        assertEquals( "GET", response.payload(), "Wrong payload" );
+        assertEquals( "http://localhost:8080/cache", dispatcher.lastUrl, "Wrong url" );
+    }
+
+    /** Verify that the dispatchers for the same server share one client. */
+    @Test
+    void testSharedClient()
+    {
+        // SETUP
+        final RemoteHttpCacheAttributes first = new RemoteHttpCacheAttributes();
+        first.setUrl( "http://localhost:8080/cache?region=a" );
+        final RemoteHttpCacheAttributes second = new RemoteHttpCacheAttributes();
+        second.setUrl( "http://localhost:8080/cache?region=b" );
+        final RemoteHttpCacheAttributes other = new RemoteHttpCacheAttributes();
+        other.setUrl( "http://localhost:8081/cache" );
+
+        // DO WORK
+        final RemoteHttp2CacheDispatcher dispatcher = new RemoteHttp2CacheDispatcher( first );
+
+        // VERIFY
+        assertSame( dispatcher.getHttpClient(), new RemoteHttp2CacheDispatcher( second ).getHttpClient(),
+                "Same server should share the client" );
+        assertNotSame( dispatcher.getHttpClient(), new RemoteHttp2CacheDispatcher( other ).getHttpClient(),
+                "Other server should get its own client" );
+    }
+
+    /** Verify that the URL parameters are encoded. */
+    @Test
+    void testRequestParameters()
+    {
+        // SETUP
+        final RemoteHttpCacheAttributes attributes = new RemoteHttpCacheAttributes();
+        final RemoteCacheRequest<String, String> request =
+            RemoteCacheRequestFactory.createGetRequest( "my region", "a&b", 0 );
+
+        // DO WORK
+        final Map<String, String> parameters = RemoteHttpCacheRequestParameters.getParameters( attributes, request );
+
+        // VERIFY
+        assertEquals( "CacheName=my+region&Key=a%26b&RequestType=GET",
+                RemoteHttpCacheRequestParameters.toQueryString( parameters ), "Wrong query string" );
+    }
+
+    /** Verify that an httpVersion of 2 selects this dispatcher. */
+    @Test
+    void testClientSelectsDispatcher()
+    {
+        // SETUP
+        final RemoteHttpCacheAttributes attributes = new RemoteHttpCacheAttributes();
+        attributes.setHttpVersion( RemoteHttp2CacheDispatcher.HTTP_VERSION );
+
+        // DO WORK
+        final RemoteHttpCacheClient<String, String> client = new RemoteHttpCacheClient<>( attributes );
+
+        // VERIFY
+        assertInstanceOf( RemoteHttp2CacheDispatcher.class, client.getRemoteDispatcher(), "Wrong dispatcher" );
+    }
+}
@@ -0,0 +1,187 @@
+package org.apache.commons.jcs4.auxiliary.remote.http.client;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheInvalidations;
+import org.apache.commons.jcs4.engine.CacheElement;
+import org.apache.commons.jcs4.engine.control.group.GroupAttrName;
+import org.apache.commons.jcs4.engine.control.group.GroupId;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the near cache of the HTTP client. */
+class RemoteHttpNearCacheUnitTest
+{
+    /** Returns the queued answers, fails if there are none. */
+    private static final class QueuedSource<K>
+        implements RemoteHttpNearCache.InvalidationSource<K>
+    {
+        final Deque<RemoteCacheInvalidations<K>> answers = new ArrayDeque<>();
+
+        @Override
+        public RemoteCacheInvalidations<K> getInvalidations( final long since )
+            throws IOException
+        {
+            if ( answers.isEmpty() )
+            {
+                throw new IOException( "Server down" );
+            }
+            return answers.poll();
+        }
+    }
+
+    /**
+     * Verify that nothing is stored before the first successful poll.
+     */
+    @Test
+    void testPut_disabledUntilSynced()
+    {
+        // SETUP
+        final QueuedSource<String> source = new QueuedSource<>();
+        final RemoteHttpNearCache<String, String> nearCache = new RemoteHttpNearCache<>( "test", 10, source );
+        source.answers.add( new RemoteCacheInvalidations<>( 5 ) );
+
+        // DO WORK
+        final boolean before = nearCache.put( new CacheElement<>( "test", "key", "value" ), nearCache.getGeneration() );
+        final long sequence = nearCache.pollOnce( -1 );
+        final boolean after = nearCache.put( new CacheElement<>( "test", "key", "value" ), nearCache.getGeneration() );
+
+        // VERIFY
+        assertFalse( before, "Should not store before the first poll" );
+        assertEquals( 5, sequence, "Wrong sequence" );
+        assertTrue( after, "Should store after the first poll" );
+        assertNotNull( nearCache.get( "key" ), "Should be cached" );
+    }
+
+    /**
+     * Verify that a value read before an invalidation is not stored.
+     */
+    @Test
+    void testPut_staleGeneration()
+    {
+        // SETUP
+        final QueuedSource<String> source = new QueuedSource<>();
+        final RemoteHttpNearCache<String, String> nearCache = new RemoteHttpNearCache<>( "test", 10, source );
+        source.answers.add( new RemoteCacheInvalidations<>( 0 ) );
+        nearCache.pollOnce( -1 );
+
+        // DO WORK
+        final long generation = nearCache.getGeneration();
+        nearCache.invalidate( "key" );
+        final boolean stored = nearCache.put( new CacheElement<>( "test", "key", "value" ), generation );
+
+        // VERIFY
+        assertFalse( stored, "Should not store a value read before an invalidation" );
+        assertNull( nearCache.get( "key" ), "Should not be cached" );
+    }
+
+    /**
+     * Verify that polled keys are dropped and that a failed poll disables the near cache.
+     */
+    @Test
+    void testPollOnce_invalidatesAndDisables()
+    {
+        // SETUP
+        final QueuedSource<String> source = new QueuedSource<>();
+        final RemoteHttpNearCache<String, String> nearCache = new RemoteHttpNearCache<>( "test", 10, source );
+        source.answers.add( new RemoteCacheInvalidations<>( 0 ) );
+        source.answers.add( new RemoteCacheInvalidations<>( 1, List.of( "key1" ), false ) );
+        long sequence = nearCache.pollOnce( -1 );
+        nearCache.put( new CacheElement<>( "test", "key1", "value" ), nearCache.getGeneration() );
+        nearCache.put( new CacheElement<>( "test", "key2", "value" ), nearCache.getGeneration() );
+
+        // DO WORK
+        sequence = nearCache.pollOnce( sequence );
+
+        // VERIFY
+        assertEquals( 1, sequence, "Wrong sequence" );
+        assertNull( nearCache.get( "key1" ), "key1 should have been invalidated" );
+        assertNotNull( nearCache.get( "key2" ), "key2 should still be cached" );
+        assertEquals( 1, nearCache.getInvalidationCount(), "Wrong invalidation count" );
+
+        // DO WORK
+        sequence = nearCache.pollOnce( sequence );
+
+        // VERIFY
+        assertEquals( -1, sequence, "Failed poll should reset the sequence" );
+        assertFalse( nearCache.isEnabled(), "Should be disabled" );
+        assertEquals( 0, nearCache.getSize(), "Should be empty" );
+    }
+
+    /**
+     * Verify that a polled hierarchical remove drops all keys below it.
+     */
+    @Test
+    void testPollOnce_hierarchicalRemove()
+    {
+        // SETUP
+        final QueuedSource<String> source = new QueuedSource<>();
+        final RemoteHttpNearCache<String, String> nearCache = new RemoteHttpNearCache<>( "test", 10, source );
+        source.answers.add( new RemoteCacheInvalidations<>( 0 ) );
+        source.answers.add( new RemoteCacheInvalidations<>( 1, List.of( "a:" ), false ) );
+        final long sequence = nearCache.pollOnce( -1 );
+        nearCache.put( new CacheElement<>( "test", "a:1", "value" ), nearCache.getGeneration() );
+        nearCache.put( new CacheElement<>( "test", "a:2", "value" ), nearCache.getGeneration() );
+        nearCache.put( new CacheElement<>( "test", "b:1", "value" ), nearCache.getGeneration() );
+
+        // DO WORK
+        nearCache.pollOnce( sequence );
+
+        // VERIFY
+        assertNull( nearCache.get( "a:1" ), "a:1 should have been invalidated" );
+        assertNull( nearCache.get( "a:2" ), "a:2 should have been invalidated" );
+        assertNotNull( nearCache.get( "b:1" ), "b:1 should still be cached" );
+    }
+
+    /**
+     * Verify that invalidating a group drops all its attributes.
+     */
+    @Test
+    void testInvalidate_group()
+    {
+        // SETUP
+        final QueuedSource<GroupAttrName<String>> source = new QueuedSource<>();
+        final RemoteHttpNearCache<GroupAttrName<String>, String> nearCache = new RemoteHttpNearCache<>( "test", 10, source );
+        source.answers.add( new RemoteCacheInvalidations<>( 0 ) );
+        nearCache.pollOnce( -1 );
+        final GroupId group = new GroupId( "test", "group" );
+        final GroupId other = new GroupId( "test", "other" );
+        nearCache.put( new CacheElement<>( "test", new GroupAttrName<>( group, "a" ), "value" ), nearCache.getGeneration() );
+        nearCache.put( new CacheElement<>( "test", new GroupAttrName<>( group, "b" ), "value" ), nearCache.getGeneration() );
+        nearCache.put( new CacheElement<>( "test", new GroupAttrName<>( other, "a" ), "value" ), nearCache.getGeneration() );
+
+        // DO WORK
+        nearCache.invalidate( new GroupAttrName<>( group, null ) );
+
+        // VERIFY
+        assertEquals( 1, nearCache.getSize(), "Only the other group should be cached" );
+        assertNotNull( nearCache.get( new GroupAttrName<>( other, "a" ) ), "Other group should still be cached" );
+    }
+}
@@ -0,0 +1,146 @@
+package org.apache.commons.jcs4.auxiliary.remote.http.server;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheInvalidations;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the invalidation log. */
+class RemoteHttpCacheInvalidationLogUnitTest
+{
+    /** Short wait for polls that are expected to return at once */
+    private static final Duration NO_WAIT = Duration.ofMillis( 1 );
+
+    /**
+     * Verify that a new client gets the current sequence number and no keys.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testPoll_newClient()
+        throws Exception
+    {
+        // SETUP
+        final RemoteHttpCacheInvalidationLog<String> log = new RemoteHttpCacheInvalidationLog<>( 10 );
+        log.add( "region", "key1" );
+        log.add( "region", "key2" );
+
+        // DO WORK
+        final RemoteCacheInvalidations<String> result = log.poll( "region", -1, NO_WAIT );
+
+        // VERIFY
+        assertEquals( 2, result.sequence(), "Wrong sequence" );
+        assertTrue( result.keys().isEmpty(), "Should have no keys" );
+        assertFalse( result.removeAll(), "Should not be a removeAll" );
+    }
+
+    /**
+     * Verify that the keys changed after the sequence number are returned in order.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testPoll_keysSince()
+        throws Exception
+    {
+        // SETUP
+        final RemoteHttpCacheInvalidationLog<String> log = new RemoteHttpCacheInvalidationLog<>( 10 );
+        log.add( "region", "key1" );
+        log.add( "region", "key2" );
+        log.add( "region", "key3" );
+        log.add( "other", "key4" );
+
+        // DO WORK
+        final RemoteCacheInvalidations<String> result = log.poll( "region", 1, NO_WAIT );
+
+        // VERIFY
+        assertEquals( 3, result.sequence(), "Wrong sequence" );
+        assertEquals( List.of( "key2", "key3" ), result.keys(), "Wrong keys" );
+        assertFalse( result.removeAll(), "Should not be a removeAll" );
+    }
+
+    /**
+     * Verify that a removeAll and a client falling behind both result in a removeAll.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testPoll_removeAll()
+        throws Exception
+    {
+        // SETUP
+        final RemoteHttpCacheInvalidationLog<String> log = new RemoteHttpCacheInvalidationLog<>( 3 );
+        log.add( "region", "key1" );
+        log.addRemoveAll( "region" );
+        log.add( "region", "key2" );
+
+        // DO WORK
+        final RemoteCacheInvalidations<String> cleared = log.poll( "region", 0, NO_WAIT );
+        log.add( "region", "key3" );
+        log.add( "region", "key4" );
+        final RemoteCacheInvalidations<String> behind = log.poll( "region", 1, NO_WAIT );
+        final RemoteCacheInvalidations<String> inTime = log.poll( "region", 3, NO_WAIT );
+
+        // VERIFY
+        assertTrue( cleared.removeAll(), "Region was cleared" );
+        assertTrue( behind.removeAll(), "Client fell behind" );
+        assertEquals( List.of( "key3", "key4" ), inTime.keys(), "Wrong keys" );
+    }
+
+    /**
+     * Verify that a waiting poll returns as soon as a key changes.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testPoll_wakesUpOnChange()
+        throws Exception
+    {
+        // SETUP
+        final RemoteHttpCacheInvalidationLog<String> log = new RemoteHttpCacheInvalidationLog<>( 10 );
+        final CompletableFuture<RemoteCacheInvalidations<String>> poll = CompletableFuture.supplyAsync( () -> {
+            try
+            {
+                return log.poll( "region", 0, Duration.ofSeconds( 30 ) );
+            }
+            catch ( final InterruptedException e )
+            {
+                throw new IllegalStateException( e );
+            }
+        } );
+
+        // DO WORK
+        Thread.sleep( 50 );
+        log.add( "region", "key1" );
+
+        // VERIFY
+        final RemoteCacheInvalidations<String> result = poll.get( 10, TimeUnit.SECONDS );
+        assertEquals( List.of( "key1" ), result.keys(), "Wrong keys" );
+    }
+}
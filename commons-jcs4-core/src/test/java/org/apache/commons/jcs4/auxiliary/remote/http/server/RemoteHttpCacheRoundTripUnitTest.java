@@ -0,0 +1,276 @@
+package org.apache.commons.jcs4.auxiliary.remote.http.server;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+import org.apache.commons.jcs4.auxiliary.MockCacheEventLogger;
+import org.apache.commons.jcs4.auxiliary.remote.http.client.RemoteHttp2CacheDispatcher;
+import org.apache.commons.jcs4.auxiliary.remote.http.client.RemoteHttpCacheAttributes;
+import org.apache.commons.jcs4.auxiliary.remote.http.client.RemoteHttpCacheClient;
+import org.apache.commons.jcs4.auxiliary.remote.http.client.RemoteHttpCacheDispatcher;
+import org.apache.commons.jcs4.auxiliary.remote.util.RemoteCacheFraming;
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheInvalidations;
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheRequest;
+import org.apache.commons.jcs4.engine.CacheElement;
+import org.apache.commons.jcs4.engine.behavior.ICacheElement;
+import org.apache.commons.jcs4.engine.control.MockCompositeCacheManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sends the requests of the real client dispatchers through the servlet and back, so the wire
+ * format of both ends is checked against each other. Only the HTTP transport is left out.
+ */
+class RemoteHttpCacheRoundTripUnitTest
+{
+    /** Dispatcher for HTTP/1.1 that hands the request body to the servlet. */
+    private static final class ServletDispatcher
+        extends RemoteHttpCacheDispatcher
+    {
+        private final RemoteHttpCacheServlet servlet;
+
+        ServletDispatcher( final RemoteHttpCacheAttributes attributes, final RemoteHttpCacheServlet servlet )
+        {
+            super( attributes );
+            this.servlet = servlet;
+        }
+
+        @Override
+        protected <K, V> byte[] processRequest( final byte[] requestAsByteArray,
+                final RemoteCacheRequest<K, V> remoteCacheRequest, final String url )
+            throws IOException
+        {
+            return service( servlet, null, requestAsByteArray );
+        }
+    }
+
+    /** Dispatcher for HTTP/2 that hands the framed request body to the servlet. */
+    private static final class ServletHttp2Dispatcher
+        extends RemoteHttp2CacheDispatcher
+    {
+        private final RemoteHttpCacheServlet servlet;
+
+        ServletHttp2Dispatcher( final RemoteHttpCacheAttributes attributes, final RemoteHttpCacheServlet servlet )
+        {
+            super( attributes );
+            this.servlet = servlet;
+        }
+
+        @Override
+        protected <K, V> byte[] processRequest( final byte[] requestAsByteArray,
+                final RemoteCacheRequest<K, V> remoteCacheRequest, final String url )
+            throws IOException
+        {
+            return service( servlet, RemoteCacheFraming.CONTENT_TYPE, requestAsByteArray );
+        }
+    }
+
+    private RemoteHttpCacheServlet servlet;
+
+    /**
+     * Calls the servlet like a container would.
+     *
+     * @param servlet the servlet
+     * @param contentType the content type of the request
+     * @param body the request body
+     * @return the response body
+     * @throws IOException
+     */
+    private static byte[] service( final RemoteHttpCacheServlet servlet, final String contentType, final byte[] body )
+        throws IOException
+    {
+        final ByteArrayInputStream in = new ByteArrayInputStream( body );
+        final ServletInputStream input = new ServletInputStream()
+        {
+            @Override
+            public boolean isFinished()
+            {
+                return in.available() == 0;
+            }
+
+            @Override
+            public boolean isReady()
+            {
+                return true;
+            }
+
+            @Override
+            public int read()
+            {
+                return in.read();
+            }
+
+            @Override
+            public void setReadListener( final ReadListener readListener )
+            {
+                // blocking only
+            }
+        };
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ServletOutputStream output = new ServletOutputStream()
+        {
+            @Override
+            public boolean isReady()
+            {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener( final WriteListener writeListener )
+            {
+                // blocking only
+            }
+
+            @Override
+            public void write( final int b )
+            {
+                out.write( b );
+            }
+        };
+
+        final HttpServletRequest request = stub( HttpServletRequest.class,
+                Map.of( "getInputStream", input, "getContentType", contentType == null ? "" : contentType ) );
+        final HttpServletResponse response = stub( HttpServletResponse.class, Map.of( "getOutputStream", output ) );
+        try
+        {
+            servlet.service( request, response );
+        }
+        catch ( final ServletException e )
+        {
+            throw new IOException( e );
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @param type the interface
+     * @param results the results of the methods by name, the others return null, false or 0
+     * @return a stub of the interface
+     */
+    private static <T> T stub( final Class<T> type, final Map<String, Object> results )
+    {
+        return type.cast( Proxy.newProxyInstance( type.getClassLoader(), new Class<?>[] { type },
+                ( proxy, method, args ) -> {
+                    final Object result = results.get( method.getName() );
+                    if ( result != null || !method.getReturnType().isPrimitive() )
+                    {
+                        return result;
+                    }
+                    if ( method.getReturnType() == boolean.class )
+                    {
+                        return Boolean.FALSE;
+                    }
+                    return method.getReturnType() == long.class ? Long.valueOf( 0 ) : Integer.valueOf( 0 );
+                } ) );
+    }
+
+    @BeforeEach
+    void setUp()
+    {
+        servlet = new RemoteHttpCacheServlet();
+        final RemoteHttpCacheServerAttributes attributes = new RemoteHttpCacheServerAttributes();
+        servlet.setRemoteCacheService( new RemoteHttpCacheService<Serializable, Serializable>(
+                new MockCompositeCacheManager(), attributes, new MockCacheEventLogger() ) );
+    }
+
+    /**
+     * Puts, gets and removes through the client and the servlet.
+     *
+     * @param client the client
+     * @throws IOException
+     */
+    private static void roundTrip( final RemoteHttpCacheClient<String, String> client )
+        throws IOException
+    {
+        // DO WORK
+        client.update( new CacheElement<>( "region", "key", "value" ) );
+        final ICacheElement<String, String> element = client.get( "region", "key" );
+        final Map<String, ICacheElement<String, String>> matching = client.getMatching( "region", "k.*" );
+
+        // VERIFY
+        assertNotNull( element, "Should get the element back" );
+        assertEquals( "value", element.value(), "Wrong value" );
+        assertEquals( 1, matching.size(), "Wrong number of matching elements" );
+
+        // DO WORK
+        client.remove( "region", "key" );
+        final RemoteCacheInvalidations<String> invalidations = client.getInvalidations( "region", 0 );
+
+        // VERIFY
+        assertNull( client.get( "region", "key" ), "Element should be removed" );
+        assertTrue( invalidations.sequence() > 0, "Should have a sequence number" );
+        assertTrue( invalidations.keys().contains( "key" ), "Changed key should be listed " + invalidations );
+    }
+
+    /**
+     * Verify that the servlet reads the requests and writes the responses the way the HTTP/1.1
+     * dispatcher expects.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testRoundTrip_http11()
+        throws Exception
+    {
+        // SETUP
+        final RemoteHttpCacheAttributes attributes = new RemoteHttpCacheAttributes();
+        final RemoteHttpCacheClient<String, String> client = new RemoteHttpCacheClient<>( attributes );
+        client.setRemoteDispatcher( new ServletDispatcher( attributes, servlet ) );
+
+        roundTrip( client );
+    }
+
+    /**
+     * Verify that the servlet answers the framed requests of the HTTP/2 dispatcher with frames.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testRoundTrip_http2()
+        throws Exception
+    {
+        // SETUP
+        final RemoteHttpCacheAttributes attributes = new RemoteHttpCacheAttributes();
+        attributes.setHttpVersion( RemoteHttp2CacheDispatcher.HTTP_VERSION );
+        final RemoteHttpCacheClient<String, String> client = new RemoteHttpCacheClient<>( attributes );
+        client.setRemoteDispatcher( new ServletHttp2Dispatcher( attributes, servlet ) );
+
+        roundTrip( client );
+    }
+}
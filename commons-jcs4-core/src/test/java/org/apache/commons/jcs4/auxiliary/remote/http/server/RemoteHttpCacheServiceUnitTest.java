@@ -20,10 +20,14 @@ package org.apache.commons.jcs4.auxiliary.remote.http.server;
  */
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
+import java.time.Duration;
 import java.util.HashSet;
+import java.util.List;
 
 import org.apache.commons.jcs4.auxiliary.MockCacheEventLogger;
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheInvalidations;
 import org.apache.commons.jcs4.engine.CacheElement;
 import org.apache.commons.jcs4.engine.control.MockCompositeCacheManager;
 import org.junit.jupiter.api.Test;
@@ -185,4 +189,34 @@ class RemoteHttpCacheServiceUnitTest
         assertEquals( 1, cacheEventLogger.startICacheEventCalls, "Start should have been called." );
         assertEquals( 1, cacheEventLogger.endICacheEventCalls, "End should have been called." );
     }
+
+    /**
+     * Verify that updates and removes show up in the invalidations.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testGetInvalidations_afterUpdateAndRemove()
+        throws Exception
+    {
+        // SETUP
+        final MockCompositeCacheManager manager = new MockCompositeCacheManager();
+        final MockCacheEventLogger cacheEventLogger = new MockCacheEventLogger();
+
+        final RemoteHttpCacheServerAttributes rcsa = new RemoteHttpCacheServerAttributes();
+        rcsa.setInvalidationPollTimeout( Duration.ofMillis( 10 ) );
+        final RemoteHttpCacheService<String, String> server =
+            new RemoteHttpCacheService<>( manager, rcsa, cacheEventLogger );
+        final long since = server.getInvalidations( "test", -1 ).sequence();
+
+        // DO WORK
+        server.update( new CacheElement<>( "test", "key1", "value" ), 2 );
+        server.remove( "test", "key2", 2 );
+        final RemoteCacheInvalidations<String> result = server.getInvalidations( "test", since );
+
+        // VERIFY
+        assertEquals( List.of( "key1", "key2" ), result.keys(), "Wrong keys" );
+        assertEquals( since + 2, result.sequence(), "Wrong sequence" );
+        assertFalse( result.removeAll(), "Should not be a removeAll" );
+    }
 }
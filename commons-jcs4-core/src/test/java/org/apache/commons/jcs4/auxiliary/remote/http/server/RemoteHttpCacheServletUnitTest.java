@@ -23,6 +23,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.Set;
@@ -32,6 +33,7 @@ import org.apache.commons.jcs4.auxiliary.remote.util.RemoteCacheRequestFactory;
 import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheRequest;
 import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheResponse;
 import org.apache.commons.jcs4.engine.CacheElement;
+import org.apache.commons.jcs4.utils.serialization.StandardSerializer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -60,6 +62,29 @@ class RemoteHttpCacheServletUnitTest
         servlet.destroy();
     }
 
+    /**
+     * Verify that a request serialized by the client can be read.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testReadRequestFromStream()
+        throws Exception
+    {
+        // SETUP
+        final RemoteCacheRequest<Serializable, Serializable> request =
+            RemoteCacheRequestFactory.createGetRequest( "test", "key", 2 );
+        final byte[] data = new StandardSerializer().serialize( request );
+
+        // DO WORK
+        final RemoteCacheRequest<Serializable, Serializable> result =
+            servlet.readRequestFromStream( new ByteArrayInputStream( data ) );
+
+        // VERIFY
+        assertEquals( request.requestType(), result.requestType(), "Wrong request type." );
+        assertEquals( "key", result.key(), "Wrong key." );
+    }
+
     /** Verify that the service is called. */
     @Test
     void testProcessRequest_Get()
@@ -0,0 +1,91 @@
+package org.apache.commons.jcs4.auxiliary.remote.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests for the frame format. */
+class RemoteCacheFramingUnitTest
+{
+    /**
+     * Verify that consecutive frames on one stream are read back one by one.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testWriteAndReadFrames()
+        throws Exception
+    {
+        // SETUP
+        final byte[] first = "first".getBytes( StandardCharsets.UTF_8 );
+        final byte[] second = new byte[0];
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // DO WORK
+        RemoteCacheFraming.writeFrame( out, first );
+        RemoteCacheFraming.writeFrame( out, second );
+        final InputStream in = new ByteArrayInputStream( out.toByteArray() );
+
+        // VERIFY
+        assertArrayEquals( first, RemoteCacheFraming.readFrame( in ), "Wrong first payload" );
+        assertArrayEquals( second, RemoteCacheFraming.readFrame( in ), "Wrong second payload" );
+        assertArrayEquals( RemoteCacheFraming.frame( first ),
+                Arrays.copyOf( out.toByteArray(), RemoteCacheFraming.HEADER_LENGTH + first.length ),
+                "frame and writeFrame should produce the same bytes" );
+    }
+
+    /** Verify that data that is not a frame is rejected. */
+    @Test
+    void testReadFrame_notAFrame()
+    {
+        // SETUP
+        final byte[] data = "GET / HTTP/1.1".getBytes( StandardCharsets.UTF_8 );
+
+        // DO WORK and VERIFY
+        assertThrows( StreamCorruptedException.class,
+                () -> RemoteCacheFraming.readFrame( new ByteArrayInputStream( data ) ),
+                "Should reject foreign data" );
+    }
+
+    /** Verify that a frame that ends early is rejected. */
+    @Test
+    void testReadFrame_truncated()
+    {
+        // SETUP
+        final byte[] frame = RemoteCacheFraming.frame( new byte[100] );
+        final byte[] truncated = Arrays.copyOf( frame, frame.length - 10 );
+
+        // DO WORK and VERIFY
+        assertThrows( EOFException.class,
+                () -> RemoteCacheFraming.readFrame( new ByteArrayInputStream( truncated ) ),
+                "Should reject a truncated frame" );
+    }
+}
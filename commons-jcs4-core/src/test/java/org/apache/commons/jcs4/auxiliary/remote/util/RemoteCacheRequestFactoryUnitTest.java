@@ -24,11 +24,13 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 import java.io.Serializable;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheRequest;
 import org.apache.commons.jcs4.auxiliary.remote.value.RemoteRequestType;
 import org.apache.commons.jcs4.engine.CacheElement;
+import org.apache.commons.jcs4.engine.behavior.ICacheElement;
 import org.junit.jupiter.api.Test;
 
 /** Tests for the request creator. */
@@ -109,6 +111,26 @@ class RemoteCacheRequestFactoryUnitTest
         assertEquals( RemoteRequestType.REMOVE_ALL, result.requestType(), "Wrong type" );
     }
 
+    /** Simple test */
+    @Test
+    void testCreateRemoveMultipleRequest_Normal()
+    {
+        // SETUP
+        final String cacheName = "test";
+        final Set<Serializable> keys = Set.of( "key1", "key2" );
+        final long requesterId = 2;
+
+        // DO WORK
+        final RemoteCacheRequest<Serializable, Serializable> result =
+            RemoteCacheRequestFactory.createRemoveMultipleRequest( cacheName, keys, requesterId );
+
+        // VERIFY
+        assertNotNull( result, "Should have a result" );
+        assertEquals( cacheName, result.cacheName(), "Wrong cacheName" );
+        assertEquals( RemoteRequestType.REMOVE_MULTIPLE, result.requestType(), "Wrong type" );
+        assertEquals( keys, result.keySet(), "Wrong keys" );
+    }
+
     /** Simple test */
     @Test
     void testCreateRemoveRequest_Normal()
@@ -149,4 +171,26 @@ class RemoteCacheRequestFactoryUnitTest
         assertEquals( cacheName, result.cacheName(), "Wrong cacheName" );
         assertEquals( RemoteRequestType.UPDATE, result.requestType(), "Wrong type" );
     }
+
+    /** Simple test */
+    @Test
+    void testCreateUpdateMultipleRequest_Normal()
+    {
+        // SETUP
+        final String cacheName = "test";
+        final List<ICacheElement<Serializable, Serializable>> elements = List.of(
+                new CacheElement<>( cacheName, "key1", "value1" ),
+                new CacheElement<>( cacheName, "key2", "value2" ) );
+        final long requesterId = 2;
+
+        // DO WORK
+        final RemoteCacheRequest<Serializable, Serializable> result =
+            RemoteCacheRequestFactory.createUpdateMultipleRequest( elements, requesterId );
+
+        // VERIFY
+        assertNotNull( result, "Should have a result" );
+        assertEquals( cacheName, result.cacheName(), "Wrong cacheName" );
+        assertEquals( RemoteRequestType.UPDATE_MULTIPLE, result.requestType(), "Wrong type" );
+        assertEquals( elements, result.cacheElements(), "Wrong elements" );
+    }
 }
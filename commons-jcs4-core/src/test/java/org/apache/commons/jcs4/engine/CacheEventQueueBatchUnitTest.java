@@ -0,0 +1,205 @@
+package org.apache.commons.jcs4.engine;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jcs4.engine.behavior.ICacheElement;
+import org.apache.commons.jcs4.engine.behavior.ICacheEventQueue;
+import org.apache.commons.jcs4.engine.behavior.ICacheEventQueue.QueueType;
+import org.apache.commons.jcs4.engine.behavior.ICacheListener;
+import org.junit.jupiter.api.Test;
+
+/** Tests for combining waiting events into batches. */
+class CacheEventQueueBatchUnitTest
+{
+    /** Listener that blocks on the first put and records the calls. */
+    private static final class BlockingListener
+        implements ICacheListener<String, String>
+    {
+        final CountDownLatch started = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+        final CountDownLatch done = new CountDownLatch( 1 );
+        final List<String> calls = new CopyOnWriteArrayList<>();
+
+        @Override
+        public long getListenerId()
+        {
+            return 1;
+        }
+
+        @Override
+        public void handleDispose( final String cacheName )
+        {
+            // nothing
+        }
+
+        @Override
+        public void handlePut( final ICacheElement<String, String> item )
+            throws IOException
+        {
+            calls.add( "put:" + item.key() );
+            if ( "first".equals( item.key() ) )
+            {
+                started.countDown();
+                try
+                {
+                    release.await( 10, TimeUnit.SECONDS );
+                }
+                catch ( final InterruptedException e )
+                {
+                    throw new IOException( e );
+                }
+            }
+            if ( "last".equals( item.key() ) )
+            {
+                done.countDown();
+            }
+        }
+
+        @Override
+        public void handlePutMultiple( final List<ICacheElement<String, String>> items )
+        {
+            calls.add( "putMultiple:" + items.size() );
+            if ( "last".equals( items.get( items.size() - 1 ).key() ) )
+            {
+                done.countDown();
+            }
+        }
+
+        @Override
+        public void handleRemove( final String cacheName, final String key )
+        {
+            calls.add( "remove:" + key );
+        }
+
+        @Override
+        public void handleRemoveMultiple( final String cacheName, final Set<String> keys )
+        {
+            calls.add( "removeMultiple:" + keys.size() );
+        }
+
+        @Override
+        public void handleRemoveAll( final String cacheName )
+        {
+            // nothing
+        }
+
+        @Override
+        public void setListenerId( final long id )
+        {
+            // nothing
+        }
+    }
+
+    /**
+     * Verify that consecutive waiting events of the same type are handed over together and that
+     * the order of the event types is kept.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testWaitingEventsAreCombined()
+        throws Exception
+    {
+        verifyWaitingEventsAreCombined( QueueType.SINGLE );
+    }
+
+    /**
+     * Verify that the ring buffer queue combines waiting events the same way.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testWaitingEventsAreCombined_Ring()
+        throws Exception
+    {
+        verifyWaitingEventsAreCombined( QueueType.RING );
+    }
+
+    /**
+     * @param queueType the type of queue to test
+     * @throws Exception
+     */
+    private void verifyWaitingEventsAreCombined( final QueueType queueType )
+        throws Exception
+    {
+        // SETUP
+        final BlockingListener listener = new BlockingListener();
+        final ICacheEventQueue<String, String> queue = CacheEventQueueFactory.createCacheEventQueue(
+                listener, 1, "testBatch", null, queueType, 10 );
+
+        // DO WORK
+        queue.addPutEvent( new CacheElement<>( "testBatch", "first", "value" ) );
+        assertTrue( listener.started.await( 10, TimeUnit.SECONDS ), "First event should be running." );
+        for ( int i = 0; i < 5; i++ )
+        {
+            queue.addPutEvent( new CacheElement<>( "testBatch", "key" + i, "value" ) );
+        }
+        queue.addRemoveEvent( "key1" );
+        queue.addRemoveEvent( "key2" );
+        queue.addPutEvent( new CacheElement<>( "testBatch", "last", "value" ) );
+        listener.release.countDown();
+
+        // VERIFY
+        assertTrue( listener.done.await( 10, TimeUnit.SECONDS ), "Events should have been processed." );
+        assertEquals( List.of( "put:first", "putMultiple:5", "removeMultiple:2", "put:last" ), listener.calls,
+                "Wrong calls" );
+        queue.destroy();
+    }
+
+    /**
+     * Verify that the batch size limits the number of events handed over at once.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testBatchSizeIsLimited()
+        throws Exception
+    {
+        // SETUP
+        final BlockingListener listener = new BlockingListener();
+        final ICacheEventQueue<String, String> queue = CacheEventQueueFactory.createCacheEventQueue(
+                listener, 1, "testBatchLimit", null, QueueType.SINGLE, 3 );
+
+        // DO WORK
+        queue.addPutEvent( new CacheElement<>( "testBatchLimit", "first", "value" ) );
+        assertTrue( listener.started.await( 10, TimeUnit.SECONDS ), "First event should be running." );
+        for ( int i = 0; i < 5; i++ )
+        {
+            queue.addPutEvent( new CacheElement<>( "testBatchLimit", "key" + i, "value" ) );
+        }
+        queue.addPutEvent( new CacheElement<>( "testBatchLimit", "last", "value" ) );
+        listener.release.countDown();
+
+        // VERIFY
+        assertTrue( listener.done.await( 10, TimeUnit.SECONDS ), "Events should have been processed." );
+        assertEquals( List.of( "put:first", "putMultiple:3", "putMultiple:3" ), listener.calls, "Wrong calls" );
+        queue.destroy();
+    }
+}
@@ -50,6 +50,24 @@ class CacheEventQueueFactoryUnitTest
         assertTrue( result.getQueueType() == QueueType.POOLED, "Wrong type" );
     }
 
+    /** Test create */
+    @Test
+    void testCreateCacheEventQueue_Ring()
+    {
+        // SETUP
+        final QueueType eventQueueType = QueueType.RING;
+        final ICacheListener<String, String> listener = new MockRemoteCacheListener<>();
+        final long listenerId = 1;
+
+        // DO WORK
+        final ICacheEventQueue<String, String> result = CacheEventQueueFactory.createCacheEventQueue(
+                listener, listenerId, "cacheName", "threadPoolName", eventQueueType );
+
+        // VERIFY
+        assertNotNull( result, "Should have a result" );
+        assertEquals( QueueType.RING, result.getQueueType(), "Wrong type" );
+    }
+
     /** Test create */
     @Test
     void testCreateCacheEventQueue_Single()
@@ -0,0 +1,274 @@
+package org.apache.commons.jcs4.engine;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jcs4.engine.behavior.ICacheElement;
+import org.apache.commons.jcs4.engine.behavior.ICacheEventQueue.OverflowPolicy;
+import org.apache.commons.jcs4.engine.behavior.ICacheEventQueue.QueueType;
+import org.apache.commons.jcs4.engine.behavior.ICacheListener;
+import org.apache.commons.jcs4.engine.stats.behavior.IStatElement;
+import org.junit.jupiter.api.Test;
+
+/** Tests for bounded event queues. */
+class CacheEventQueueOverflowUnitTest
+{
+    /** Listener that blocks on the first put and records the calls. */
+    private static final class BlockingListener
+        implements ICacheListener<String, String>
+    {
+        final CountDownLatch started = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+        final CountDownLatch done = new CountDownLatch( 1 );
+        final List<String> calls = new CopyOnWriteArrayList<>();
+
+        @Override
+        public long getListenerId()
+        {
+            return 1;
+        }
+
+        @Override
+        public void handleDispose( final String cacheName )
+        {
+            // nothing
+        }
+
+        @Override
+        public void handlePut( final ICacheElement<String, String> item )
+            throws IOException
+        {
+            calls.add( "put:" + item.key() );
+            if ( "first".equals( item.key() ) )
+            {
+                started.countDown();
+                try
+                {
+                    release.await( 10, TimeUnit.SECONDS );
+                }
+                catch ( final InterruptedException e )
+                {
+                    throw new IOException( e );
+                }
+            }
+            if ( "last".equals( item.key() ) )
+            {
+                done.countDown();
+            }
+        }
+
+        @Override
+        public void handlePutMultiple( final List<ICacheElement<String, String>> items )
+        {
+            calls.add( "putMultiple:" + items.size() );
+        }
+
+        @Override
+        public void handleRemove( final String cacheName, final String key )
+        {
+            calls.add( "remove:" + key );
+        }
+
+        @Override
+        public void handleRemoveMultiple( final String cacheName, final Set<String> keys )
+        {
+            calls.add( "removeMultiple:" + keys.size() );
+        }
+
+        @Override
+        public void handleRemoveAll( final String cacheName )
+        {
+            calls.add( "removeAll" );
+        }
+
+        @Override
+        public void setListenerId( final long id )
+        {
+            // nothing
+        }
+    }
+
+    /**
+     * Creates a bounded queue and blocks its worker on a first event.
+     *
+     * @param listener the listener
+     * @param maxQueueSize maximum number of waiting events
+     * @param policy the overflow policy
+     * @return the queue
+     * @throws Exception
+     */
+    private static PooledCacheEventQueue<String, String> createBlockedQueue( final BlockingListener listener,
+            final int maxQueueSize, final OverflowPolicy policy )
+        throws Exception
+    {
+        final PooledCacheEventQueue<String, String> queue = (PooledCacheEventQueue<String, String>)
+            CacheEventQueueFactory.createCacheEventQueue( listener, 1, "testOverflow", null, QueueType.SINGLE, 1,
+                    maxQueueSize, policy, Duration.ofMillis( 100 ) );
+        queue.addPutEvent( new CacheElement<>( "testOverflow", "first", "value" ) );
+        assertTrue( listener.started.await( 10, TimeUnit.SECONDS ), "First event should be running." );
+        return queue;
+    }
+
+    /**
+     * @param queue the queue
+     * @param name the name of a statistic
+     * @return its value
+     */
+    private static Object getStat( final PooledCacheEventQueue<?, ?> queue, final String name )
+    {
+        return queue.getStatistics().getStatElements().stream()
+                .filter( e -> name.equals( e.name() ) )
+                .map( IStatElement::data )
+                .findFirst().orElse( null );
+    }
+
+    /**
+     * Verify that the oldest waiting events make room for new ones.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testDropOldest()
+        throws Exception
+    {
+        // SETUP
+        final BlockingListener listener = new BlockingListener();
+        final PooledCacheEventQueue<String, String> queue = createBlockedQueue( listener, 3, OverflowPolicy.DROP_OLDEST );
+
+        // DO WORK
+        for ( int i = 0; i < 4; i++ )
+        {
+            queue.addPutEvent( new CacheElement<>( "testOverflow", "key" + i, "value" ) );
+        }
+        queue.addPutEvent( new CacheElement<>( "testOverflow", "last", "value" ) );
+        assertEquals( 3, getStat( queue, "Pending Events" ), "Wrong queue depth" );
+        listener.release.countDown();
+
+        // VERIFY
+        assertTrue( listener.done.await( 10, TimeUnit.SECONDS ), "Events should have been processed." );
+        assertEquals( List.of( "put:first", "put:key2", "put:key3", "put:last" ), listener.calls, "Wrong calls" );
+        assertEquals( 2L, queue.getDroppedCount(), "Wrong dropped count" );
+        queue.destroy();
+    }
+
+    /**
+     * Verify that a full queue replaces a waiting event by a later event for the same key, drops
+     * the oldest if there is none, and that a remove all replaces all waiting events. A queue with
+     * room keeps all events.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testCoalesce()
+        throws Exception
+    {
+        // SETUP
+        final BlockingListener listener = new BlockingListener();
+        final PooledCacheEventQueue<String, String> queue = createBlockedQueue( listener, 3, OverflowPolicy.COALESCE );
+
+        // DO WORK
+        queue.addPutEvent( new CacheElement<>( "testOverflow", "a", "value1" ) );
+        queue.addPutEvent( new CacheElement<>( "testOverflow", "b", "value1" ) );
+        queue.addRemoveEvent( "a" );
+        final Object coalescedWithRoom = getStat( queue, "Coalesced Events" );
+        // full from here on
+        queue.addPutEvent( new CacheElement<>( "testOverflow", "b", "value2" ) );
+        queue.addPutEvent( new CacheElement<>( "testOverflow", "c", "value1" ) );
+        queue.addRemoveAllEvent();
+        queue.addPutEvent( new CacheElement<>( "testOverflow", "last", "value" ) );
+        listener.release.countDown();
+
+        // VERIFY
+        assertTrue( listener.done.await( 10, TimeUnit.SECONDS ), "Events should have been processed." );
+        assertEquals( 0L, coalescedWithRoom, "Should not coalesce while there is room" );
+        assertEquals( List.of( "put:first", "removeAll", "put:last" ), listener.calls, "Wrong calls" );
+        assertEquals( 4L, getStat( queue, "Coalesced Events" ), "Wrong coalesced count" );
+        assertEquals( 1L, getStat( queue, "Dropped Events" ), "Wrong dropped count" );
+        queue.destroy();
+    }
+
+    /**
+     * Verify that a full queue rejects new events with the FAIL policy and keeps working.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testFail()
+        throws Exception
+    {
+        // SETUP
+        final BlockingListener listener = new BlockingListener();
+        final PooledCacheEventQueue<String, String> queue = createBlockedQueue( listener, 1, OverflowPolicy.FAIL );
+        queue.addPutEvent( new CacheElement<>( "testOverflow", "key0", "value" ) );
+
+        // DO WORK and VERIFY
+        assertThrows( EventQueueFullException.class,
+                () -> queue.addPutEvent( new CacheElement<>( "testOverflow", "key1", "value" ) ),
+                "Full queue should reject the event" );
+        assertTrue( queue.isWorking(), "Queue should keep working" );
+        assertEquals( 1L, queue.getDroppedCount(), "Wrong dropped count" );
+
+        listener.release.countDown();
+        queue.addPutEvent( new CacheElement<>( "testOverflow", "last", "value" ) );
+        assertTrue( listener.done.await( 10, TimeUnit.SECONDS ), "Events should have been processed." );
+        assertEquals( List.of( "put:first", "put:key0", "put:last" ), listener.calls, "Wrong calls" );
+        queue.destroy();
+    }
+
+    /**
+     * Verify that the BLOCK policy waits for room and drops the new event after the timeout.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testBlock()
+        throws Exception
+    {
+        // SETUP
+        final BlockingListener listener = new BlockingListener();
+        final PooledCacheEventQueue<String, String> queue = createBlockedQueue( listener, 1, OverflowPolicy.BLOCK );
+        queue.addPutEvent( new CacheElement<>( "testOverflow", "key0", "value" ) );
+
+        // DO WORK
+        final long start = System.nanoTime();
+        queue.addPutEvent( new CacheElement<>( "testOverflow", "key1", "value" ) );
+        final long waited = TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start );
+        listener.release.countDown();
+        queue.addPutEvent( new CacheElement<>( "testOverflow", "last", "value" ) );
+
+        // VERIFY
+        assertTrue( waited >= 90, "Should have waited for room, waited " + waited + " ms" );
+        assertTrue( listener.done.await( 10, TimeUnit.SECONDS ), "Events should have been processed." );
+        assertEquals( List.of( "put:first", "put:key0", "put:last" ), listener.calls, "Wrong calls" );
+        assertEquals( 1L, queue.getDroppedCount(), "Wrong dropped count" );
+        queue.destroy();
+    }
+}
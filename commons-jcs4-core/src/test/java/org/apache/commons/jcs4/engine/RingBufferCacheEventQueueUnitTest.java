@@ -0,0 +1,382 @@
+package org.apache.commons.jcs4.engine;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.jcs4.engine.behavior.ICacheElement;
+import org.apache.commons.jcs4.engine.behavior.ICacheEventQueue;
+import org.apache.commons.jcs4.engine.behavior.ICacheEventQueue.OverflowPolicy;
+import org.apache.commons.jcs4.engine.behavior.ICacheEventQueue.QueueType;
+import org.apache.commons.jcs4.engine.behavior.ICacheListener;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the event queue on a ring buffer. */
+class RingBufferCacheEventQueueUnitTest
+{
+    /** Listener that records the puts and can fail or block on demand. */
+    private static final class RecordingListener
+        implements ICacheListener<String, String>
+    {
+        final List<String> keys = new CopyOnWriteArrayList<>();
+        final AtomicInteger failures = new AtomicInteger();
+        volatile CountDownLatch release = new CountDownLatch( 0 );
+
+        @Override
+        public long getListenerId()
+        {
+            return 1;
+        }
+
+        @Override
+        public void handleDispose( final String cacheName )
+        {
+            // nothing
+        }
+
+        @Override
+        public void handlePut( final ICacheElement<String, String> item )
+            throws IOException
+        {
+            if ( failures.getAndDecrement() > 0 )
+            {
+                throw new IOException( "Failing on purpose" );
+            }
+            try
+            {
+                release.await( 10, TimeUnit.SECONDS );
+            }
+            catch ( final InterruptedException e )
+            {
+                throw new IOException( e );
+            }
+            keys.add( item.key() );
+        }
+
+        @Override
+        public void handlePutMultiple( final List<ICacheElement<String, String>> items )
+            throws IOException
+        {
+            for ( final ICacheElement<String, String> item : items )
+            {
+                handlePut( item );
+            }
+        }
+
+        @Override
+        public void handleRemove( final String cacheName, final String key )
+        {
+            // nothing
+        }
+
+        @Override
+        public void handleRemoveMultiple( final String cacheName, final Set<String> keys )
+        {
+            // nothing
+        }
+
+        @Override
+        public void handleRemoveAll( final String cacheName )
+        {
+            // nothing
+        }
+
+        @Override
+        public void setListenerId( final long id )
+        {
+            // nothing
+        }
+    }
+
+    /**
+     * Waits until the listener got the given number of keys.
+     *
+     * @param listener the listener
+     * @param count the expected number
+     * @throws InterruptedException
+     */
+    private static void awaitKeys( final RecordingListener listener, final int count )
+        throws InterruptedException
+    {
+        final long deadline = System.currentTimeMillis() + 10000;
+        while ( listener.keys.size() < count && System.currentTimeMillis() < deadline )
+        {
+            Thread.sleep( 10 );
+        }
+    }
+
+    /**
+     * Verify that the events of each producer reach the listener in order, with a ring smaller
+     * than the number of events.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testOrderWithConcurrentProducers()
+        throws Exception
+    {
+        // SETUP
+        final RecordingListener listener = new RecordingListener();
+        final RingBufferCacheEventQueue<String, String> queue = new RingBufferCacheEventQueue<>(
+                listener, 1, "testOrder", 10, 10, null );
+        final int producers = 4;
+        final int count = 2000;
+        final List<Thread> threads = new ArrayList<>();
+        for ( int p = 0; p < producers; p++ )
+        {
+            final String prefix = p + ":";
+            threads.add( new Thread( () -> {
+                for ( int i = 0; i < count; i++ )
+                {
+                    try
+                    {
+                        queue.addPutEvent( new CacheElement<>( "testOrder", prefix + i, "value" ) );
+                    }
+                    catch ( final IOException e )
+                    {
+                        throw new IllegalStateException( e );
+                    }
+                }
+            } ) );
+        }
+
+        // DO WORK
+        threads.forEach( Thread::start );
+        for ( final Thread thread : threads )
+        {
+            thread.join();
+        }
+        awaitKeys( listener, producers * count );
+
+        // VERIFY
+        assertEquals( producers * count, listener.keys.size(), "Wrong number of events" );
+        final int[] next = new int[producers];
+        for ( final String key : listener.keys )
+        {
+            final String[] parts = key.split( ":" );
+            final int producer = Integer.parseInt( parts[0] );
+            assertEquals( next[producer]++, Integer.parseInt( parts[1] ), "Out of order for producer " + producer );
+        }
+        assertEquals( 0, queue.getDroppedCount(), "Nothing should be dropped" );
+        queue.destroy();
+    }
+
+    /**
+     * Verify that failed events are retried.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testRetryOnFailure()
+        throws Exception
+    {
+        // SETUP
+        final RecordingListener listener = new RecordingListener();
+        listener.failures.set( 2 );
+        final ICacheEventQueue<String, String> queue = CacheEventQueueFactory.createCacheEventQueue(
+                listener, 1, "testRetry", 3, 10, null, QueueType.RING );
+
+        // DO WORK
+        queue.addPutEvent( new CacheElement<>( "testRetry", "key", "value" ) );
+        awaitKeys( listener, 1 );
+
+        // VERIFY
+        assertEquals( List.of( "key" ), listener.keys, "Event should have been retried" );
+        queue.destroy();
+    }
+
+    /**
+     * Verify that an event that keeps failing is dropped after the maximum number of attempts and
+     * the events behind it are still delivered.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testDropAfterMaxFailure()
+        throws Exception
+    {
+        // SETUP
+        final RecordingListener listener = new RecordingListener();
+        listener.failures.set( 3 );
+        final ICacheEventQueue<String, String> queue = CacheEventQueueFactory.createCacheEventQueue(
+                listener, 1, "testDrop", 3, 50, null, QueueType.RING );
+
+        // DO WORK
+        queue.addPutEvent( new CacheElement<>( "testDrop", "dropped", "value" ) );
+        queue.addPutEvent( new CacheElement<>( "testDrop", "kept", "value" ) );
+
+        // VERIFY
+        awaitKeys( listener, 1 );
+        assertEquals( List.of( "kept" ), listener.keys, "Only the second event should arrive" );
+        assertTrue( queue.isEmpty(), "Should be empty" );
+        queue.destroy();
+    }
+
+    /**
+     * Verify that producers of an unbounded queue wait beyond the block timeout instead of
+     * dropping events when the ring is full.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testUnboundedNeverDrops()
+        throws Exception
+    {
+        // SETUP
+        final RecordingListener listener = new RecordingListener();
+        listener.release = new CountDownLatch( 1 );
+        final RingBufferCacheEventQueue<String, String> queue = (RingBufferCacheEventQueue<String, String>)
+            CacheEventQueueFactory.<String, String>createCacheEventQueue( listener, 1, "testUnbounded", null,
+                    QueueType.RING, 1, 0, OverflowPolicy.BLOCK, Duration.ofMillis( 50 ) );
+
+        // the first event is taken by the drainer and blocks in the listener
+        queue.addPutEvent( new CacheElement<>( "testUnbounded", "first", "value" ) );
+        final long deadline = System.currentTimeMillis() + 10000;
+        while ( !queue.isEmpty() && System.currentTimeMillis() < deadline )
+        {
+            Thread.sleep( 10 );
+        }
+        for ( int i = 0; i < 1024; i++ )
+        {
+            queue.addPutEvent( new CacheElement<>( "testUnbounded", "key" + i, "value" ) );
+        }
+
+        // DO WORK
+        final Thread producer = new Thread( () -> {
+            try
+            {
+                queue.addPutEvent( new CacheElement<>( "testUnbounded", "last", "value" ) );
+            }
+            catch ( final IOException e )
+            {
+                throw new IllegalStateException( e );
+            }
+        } );
+        producer.start();
+        producer.join( 500 );
+
+        // VERIFY
+        assertTrue( producer.isAlive(), "Producer should still wait, well beyond the block timeout" );
+        assertEquals( 0, queue.getDroppedCount(), "Nothing should be dropped" );
+
+        listener.release.countDown();
+        producer.join( 10000 );
+        awaitKeys( listener, 1026 );
+        assertEquals( 1026, listener.keys.size(), "All events should be processed" );
+        assertEquals( "last", listener.keys.get( 1025 ), "The waiting event should come last" );
+        queue.destroy();
+    }
+
+    /**
+     * Verify that a put to a full bounded queue is dropped after the block timeout.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testBoundedDropsPutAfterBlockTimeout()
+        throws Exception
+    {
+        // SETUP
+        final RecordingListener listener = new RecordingListener();
+        listener.release = new CountDownLatch( 1 );
+        final RingBufferCacheEventQueue<String, String> queue = (RingBufferCacheEventQueue<String, String>)
+            CacheEventQueueFactory.<String, String>createCacheEventQueue( listener, 1, "testBounded", null,
+                    QueueType.RING, 1, 4, OverflowPolicy.BLOCK, Duration.ofMillis( 50 ) );
+
+        // the first event is taken by the drainer and blocks in the listener
+        queue.addPutEvent( new CacheElement<>( "testBounded", "first", "value" ) );
+        final long deadline = System.currentTimeMillis() + 10000;
+        while ( !queue.isEmpty() && System.currentTimeMillis() < deadline )
+        {
+            Thread.sleep( 10 );
+        }
+        for ( int i = 0; i < 4; i++ )
+        {
+            queue.addPutEvent( new CacheElement<>( "testBounded", "key" + i, "value" ) );
+        }
+
+        // DO WORK
+        final long start = System.nanoTime();
+        queue.addPutEvent( new CacheElement<>( "testBounded", "dropped", "value" ) );
+        final long waited = TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start );
+
+        // VERIFY
+        assertTrue( waited < 5000, "Should not wait beyond the block timeout, waited " + waited );
+        assertEquals( 1, queue.getDroppedCount(), "Wrong dropped count" );
+
+        listener.release.countDown();
+        awaitKeys( listener, 5 );
+        assertEquals( 5, listener.keys.size(), "Waiting events should be processed" );
+        queue.destroy();
+    }
+
+    /**
+     * Verify that a bounded queue with the FAIL policy rejects events when it is full.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testFailWhenFull()
+        throws Exception
+    {
+        // SETUP
+        final RecordingListener listener = new RecordingListener();
+        listener.release = new CountDownLatch( 1 );
+        final RingBufferCacheEventQueue<String, String> queue = (RingBufferCacheEventQueue<String, String>)
+            CacheEventQueueFactory.<String, String>createCacheEventQueue( listener, 1, "testFail", null,
+                    QueueType.RING, 1, 4, OverflowPolicy.FAIL, Duration.ZERO );
+
+        // the first event is taken by the drainer and blocks in the listener
+        queue.addPutEvent( new CacheElement<>( "testFail", "first", "value" ) );
+        final long deadline = System.currentTimeMillis() + 10000;
+        while ( !queue.isEmpty() && System.currentTimeMillis() < deadline )
+        {
+            Thread.sleep( 10 );
+        }
+        for ( int i = 0; i < 4; i++ )
+        {
+            queue.addPutEvent( new CacheElement<>( "testFail", "key" + i, "value" ) );
+        }
+
+        // DO WORK and VERIFY
+        assertThrows( EventQueueFullException.class,
+                () -> queue.addPutEvent( new CacheElement<>( "testFail", "rejected", "value" ) ),
+                "Should reject if the queue is full" );
+        assertEquals( 1, queue.getDroppedCount(), "Wrong dropped count" );
+
+        listener.release.countDown();
+        awaitKeys( listener, 5 );
+        assertEquals( 5, listener.keys.size(), "Waiting events should be processed" );
+        assertTrue( queue.isEmpty(), "Should be empty" );
+        queue.destroy();
+    }
+}
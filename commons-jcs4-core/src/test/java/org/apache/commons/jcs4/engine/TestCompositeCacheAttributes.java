@@ -48,7 +48,9 @@ public class TestCompositeCacheAttributes
                 CompositeCacheAttributes.defaults().MaxMemoryIdleTime(),
                 memoryCacheName,
                 CompositeCacheAttributes.defaults().DiskUsagePattern(),
-                CompositeCacheAttributes.defaults().SpoolChunkSize());
+                CompositeCacheAttributes.defaults().SpoolChunkSize(),
+                CompositeCacheAttributes.defaults().UseKeyIndex(),
+                CompositeCacheAttributes.defaults().HotKeysCapacity());
     }
 
     /**
@@ -69,7 +71,9 @@ public class TestCompositeCacheAttributes
                 maxMemoryIdleTime,
                 memoryCacheName,
                 CompositeCacheAttributes.defaults().DiskUsagePattern(),
-                CompositeCacheAttributes.defaults().SpoolChunkSize());
+                CompositeCacheAttributes.defaults().SpoolChunkSize(),
+                CompositeCacheAttributes.defaults().UseKeyIndex(),
+                CompositeCacheAttributes.defaults().HotKeysCapacity());
     }
 
     /**
@@ -88,7 +92,9 @@ public class TestCompositeCacheAttributes
                 CompositeCacheAttributes.defaults().MaxMemoryIdleTime(),
                 CompositeCacheAttributes.defaults().MemoryCacheName(),
                 CompositeCacheAttributes.defaults().DiskUsagePattern(),
-                spoolChunkSize);
+                spoolChunkSize,
+                CompositeCacheAttributes.defaults().UseKeyIndex(),
+                CompositeCacheAttributes.defaults().HotKeysCapacity());
     }
 
     /**
@@ -106,7 +112,9 @@ public class TestCompositeCacheAttributes
                 maxMemoryIdleTime,
                 CompositeCacheAttributes.defaults().MemoryCacheName(),
                 CompositeCacheAttributes.defaults().DiskUsagePattern(),
-                CompositeCacheAttributes.defaults().SpoolChunkSize());
+                CompositeCacheAttributes.defaults().SpoolChunkSize(),
+                CompositeCacheAttributes.defaults().UseKeyIndex(),
+                CompositeCacheAttributes.defaults().HotKeysCapacity());
     }
 
     /**
@@ -124,6 +132,48 @@ public class TestCompositeCacheAttributes
                 CompositeCacheAttributes.defaults().MaxMemoryIdleTime(),
                 CompositeCacheAttributes.defaults().MemoryCacheName(),
                 diskUsagePattern,
-                CompositeCacheAttributes.defaults().SpoolChunkSize());
+                CompositeCacheAttributes.defaults().SpoolChunkSize(),
+                CompositeCacheAttributes.defaults().UseKeyIndex(),
+                CompositeCacheAttributes.defaults().HotKeysCapacity());
+    }
+
+    /**
+     * Sets the key index setting of the cache.
+     *
+     * @param useKeyIndex The new useKeyIndex value
+     */
+    public static CompositeCacheAttributes withUseKeyIndex(boolean useKeyIndex)
+    {
+        return new CompositeCacheAttributes(CompositeCacheAttributes.defaults().cacheName(),
+                CompositeCacheAttributes.defaults().MaxObjects(),
+                CompositeCacheAttributes.defaults().UseMemoryShrinker(),
+                CompositeCacheAttributes.defaults().ShrinkerInterval(),
+                CompositeCacheAttributes.defaults().MaxSpoolPerRun(),
+                CompositeCacheAttributes.defaults().MaxMemoryIdleTime(),
+                CompositeCacheAttributes.defaults().MemoryCacheName(),
+                CompositeCacheAttributes.defaults().DiskUsagePattern(),
+                CompositeCacheAttributes.defaults().SpoolChunkSize(),
+                useKeyIndex,
+                CompositeCacheAttributes.defaults().HotKeysCapacity());
+    }
+
+    /**
+     * Sets the number of keys tracked by the hot key tracker of the cache.
+     *
+     * @param hotKeysCapacity The new hotKeysCapacity value
+     */
+    public static CompositeCacheAttributes withHotKeysCapacity(int hotKeysCapacity)
+    {
+        return new CompositeCacheAttributes(CompositeCacheAttributes.defaults().cacheName(),
+                CompositeCacheAttributes.defaults().MaxObjects(),
+                CompositeCacheAttributes.defaults().UseMemoryShrinker(),
+                CompositeCacheAttributes.defaults().ShrinkerInterval(),
+                CompositeCacheAttributes.defaults().MaxSpoolPerRun(),
+                CompositeCacheAttributes.defaults().MaxMemoryIdleTime(),
+                CompositeCacheAttributes.defaults().MemoryCacheName(),
+                CompositeCacheAttributes.defaults().DiskUsagePattern(),
+                CompositeCacheAttributes.defaults().SpoolChunkSize(),
+                CompositeCacheAttributes.defaults().UseKeyIndex(),
+                hotKeysCapacity);
     }
 }
@@ -20,7 +20,15 @@ package org.apache.commons.jcs4.engine.control;
  */
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.jcs4.engine.CacheElement;
 import org.apache.commons.jcs4.engine.CacheStatus;
 import org.apache.commons.jcs4.engine.CompositeCacheAttributes;
 import org.junit.jupiter.api.Test;
@@ -52,4 +60,92 @@ class CompositeCacheManagerTest
         assertEquals( CacheStatus.DISPOSED, cache.getStatus(), "The cache was NOT disposed during release!" );
     }
 
+    /**
+     * Verify that enabled metrics time the operations and reach the reporters.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testMetrics()
+        throws Exception
+    {
+        // SETUP
+        final CompositeCacheManager manager = new CompositeCacheManager();
+        manager.setJmxName(null);
+        manager.initialize();
+        final Properties props = new Properties();
+        props.put("jcs.default", "");
+        props.put("jcs.default.cacheattributes.MaxObjects", "1");
+        props.put("jcs.metrics.enabled", "true");
+        props.put("jcs.metrics.reportInterval", "0");
+        manager.configure(props);
+        final Map<String, Map<String, Long>> reported = new HashMap<>();
+        manager.addMetricsReporter(reported::put);
+
+        try
+        {
+            final CompositeCache<String, String> cache = manager.getCache("metrics");
+
+            // DO WORK
+            cache.update(new CacheElement<>("metrics", "a", "a"));
+            cache.update(new CacheElement<>("metrics", "b", "b"));
+            cache.get("b");
+            cache.get("c");
+            cache.remove("b");
+            manager.reportMetrics();
+
+            // VERIFY
+            assertNotNull(cache.getCacheMetrics(), "Metrics should be enabled");
+            final Map<String, Long> metrics = reported.get("metrics");
+            assertNotNull(metrics, "Should have been reported");
+            assertEquals(2, metrics.get("put.count").longValue(), "Wrong put count");
+            assertEquals(2, metrics.get("get.count").longValue(), "Wrong get count");
+            assertEquals(1, metrics.get("remove.count").longValue(), "Wrong remove count");
+            assertTrue(metrics.get("evictions") > 0, "Should have evicted from memory");
+            assertTrue(metrics.get("get.max") >= metrics.get("get.p50"), "Max should be the largest");
+        }
+        finally
+        {
+            manager.shutDown();
+        }
+    }
+
+    /**
+     * Verify that a reconfiguration keeps the added reporters and reports to each once.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testMetrics_Reconfigure()
+        throws Exception
+    {
+        // SETUP
+        final CompositeCacheManager manager = new CompositeCacheManager();
+        manager.setJmxName(null);
+        manager.initialize();
+        final Properties props = new Properties();
+        props.put("jcs.default", "");
+        props.put("jcs.metrics.enabled", "true");
+        props.put("jcs.metrics.reportInterval", "0");
+        manager.configure(props);
+        final AtomicInteger reports = new AtomicInteger();
+        manager.addMetricsReporter((cacheName, metrics) -> reports.incrementAndGet());
+
+        try
+        {
+            manager.getCache("metrics");
+
+            // DO WORK
+            manager.configure(props, false, true);
+            manager.configure(props, false, true);
+            manager.reportMetrics();
+
+            // VERIFY
+            assertEquals(1, reports.get(), "The reporter should be called once for the region");
+        }
+        finally
+        {
+            manager.shutDown();
+        }
+    }
 }
@@ -20,9 +20,13 @@ package org.apache.commons.jcs4.engine.control;
  */
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.jcs4.auxiliary.MockAuxiliaryCache;
@@ -30,10 +34,14 @@ import org.apache.commons.jcs4.engine.CacheElement;
 import org.apache.commons.jcs4.engine.CompositeCacheAttributes;
 import org.apache.commons.jcs4.engine.ElementAttributes;
 import org.apache.commons.jcs4.engine.TestCompositeCacheAttributes;
+import org.apache.commons.jcs4.engine.TestElementAttributes;
 import org.apache.commons.jcs4.engine.behavior.ICacheElement;
 import org.apache.commons.jcs4.engine.behavior.ICacheType.CacheType;
 import org.apache.commons.jcs4.engine.behavior.IElementAttributes;
 import org.apache.commons.jcs4.engine.memory.MockMemoryCache;
+import org.apache.commons.jcs4.engine.memory.shrinking.ShrinkerThread;
+import org.apache.commons.jcs4.engine.memory.util.EstimatedElementSizer;
+import org.apache.commons.jcs4.engine.stats.HotKeys;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -91,6 +99,142 @@ class CompositeCacheUnitTest
         assertEquals( numToInsertPrefix2, result2.size(), "Wrong number returned 2:" );
     }
 
+    /**
+     * Verify that the key index follows updates, removals and evictions.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testGetMatching_KeyIndex()
+        throws IOException
+    {
+        // SETUP
+        final String cacheName = "testGetMatching_KeyIndex";
+        final CompositeCacheAttributes cattr = TestCompositeCacheAttributes.withUseKeyIndex( true )
+                .withCacheName( cacheName );
+        final CompositeCache<String, Integer> cache = new CompositeCache<>( cattr, new ElementAttributes() );
+
+        // DO WORK
+        // more than the 100 items allowed in memory
+        for ( int i = 0; i < 150; i++ )
+        {
+            cache.update( new CacheElement<>( cacheName, "user:" + i, Integer.valueOf( i ) ), false );
+        }
+        cache.remove( "user:149" );
+        cache.update( new CacheElement<>( cacheName, "group:a:1", Integer.valueOf( 1 ) ), false );
+        cache.update( new CacheElement<>( cacheName, "group:a:2", Integer.valueOf( 2 ) ), false );
+        cache.update( new CacheElement<>( cacheName, "group:b:1", Integer.valueOf( 3 ) ), false );
+        cache.remove( "group:a:" );
+
+        // VERIFY
+        final Map<String, ICacheElement<String, Integer>> users = cache.getMatching( "user:\\d+" );
+        assertEquals( cache.getMemoryCache().getSize() - 1, users.size(), "Wrong number of users" );
+        assertTrue( users.keySet().stream().allMatch( key -> Integer.parseInt( key.substring( 5 ) ) < 149 ),
+                "Removed key should not match" );
+        assertEquals( 1, cache.getMatching( "group:.*" ).size(), "Wrong number after group removal" );
+    }
+
+    /**
+     * Verify that the hot key tracker takes the sizes accounted by the memory cache and can be
+     * turned off.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testHotKeys()
+        throws IOException
+    {
+        // SETUP
+        final String cacheName = "testHotKeys";
+        final CompositeCache<String, Integer> cache = new CompositeCache<>(
+                TestCompositeCacheAttributes.withHotKeysCapacity( 10 ).withCacheName( cacheName ),
+                new ElementAttributes() );
+        final EstimatedElementSizer sizer = new EstimatedElementSizer();
+        sizer.setEstimate( 500 );
+        cache.setElementSizer( sizer );
+
+        final CompositeCache<String, Integer> untracked = new CompositeCache<>(
+                TestCompositeCacheAttributes.withHotKeysCapacity( 0 ).withCacheName( cacheName ),
+                new ElementAttributes() );
+
+        // DO WORK
+        // enough puts that some are sampled
+        for ( int i = 0; i < 1000; i++ )
+        {
+            cache.update( new CacheElement<>( cacheName, "key", Integer.valueOf( i ) ), false );
+            untracked.update( new CacheElement<>( cacheName, "key", Integer.valueOf( i ) ), false );
+        }
+
+        // VERIFY
+        final List<HotKeys.Entry<String>> largest = cache.getHotKeys().getLargest( 1 );
+        assertEquals( 1, largest.size(), "Key should be tracked" );
+        assertEquals( 500, largest.get( 0 ).value(), "Size should come from the memory cache" );
+        assertNull( untracked.getHotKeys(), "Tracker should be off" );
+    }
+
+    /**
+     * Verify that the default sizer ranks the largest keys by their serialized size.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testHotKeys_defaultSizer()
+        throws IOException
+    {
+        // SETUP
+        final String cacheName = "testHotKeys_defaultSizer";
+        final CompositeCache<String, String> cache = new CompositeCache<>(
+                TestCompositeCacheAttributes.withHotKeysCapacity( 10 ).withCacheName( cacheName ),
+                new ElementAttributes() );
+
+        // DO WORK
+        // enough puts that some are sampled
+        for ( int i = 0; i < 1000; i++ )
+        {
+            cache.update( new CacheElement<>( cacheName, "small", "s" ), false );
+            cache.update( new CacheElement<>( cacheName, "large", "l".repeat( 1000 ) ), false );
+        }
+
+        // VERIFY
+        final List<HotKeys.Entry<String>> largest = cache.getHotKeys().getLargest( 2 );
+        assertEquals( 2, largest.size(), "Both keys should be tracked" );
+        assertEquals( "large", largest.get( 0 ).key(), "Wrong largest key" );
+        assertTrue( largest.get( 0 ).value() > 1000, "Size should be the serialized length" );
+        assertTrue( largest.get( 1 ).value() > 0, "Small values should have a size too" );
+    }
+
+    /**
+     * Verify that keys expired by the shrinker leave the key index.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testKeyIndex_ShrinkerExpiration()
+        throws Exception
+    {
+        // SETUP
+        final String cacheName = "testKeyIndex_ShrinkerExpiration";
+        final CompositeCacheAttributes cattr = TestCompositeCacheAttributes.withUseKeyIndex( true )
+                .withCacheName( cacheName );
+        final CompositeCache<String, Integer> cache = new CompositeCache<>( cattr, new ElementAttributes() );
+        for ( int i = 0; i < 10; i++ )
+        {
+            cache.update( new CacheElement<>( cacheName, "user:" + i, Integer.valueOf( i ),
+                    TestElementAttributes.withEternalFalseAndMaxLife( Duration.ofMillis( 1 ) ) ), false );
+        }
+        cache.update( new CacheElement<>( cacheName, "user:eternal", Integer.valueOf( -1 ) ), false );
+        assertEquals( 11, cache.getKeyIndexSize(), "All keys should be indexed" );
+
+        Thread.sleep( 50 );
+
+        // DO WORK
+        new ShrinkerThread<>( cache ).run();
+
+        // VERIFY
+        assertEquals( 1, cache.getMemoryCache().getSize(), "Expired keys should be gone" );
+        assertEquals( 1, cache.getKeyIndexSize(), "Expired keys should leave the index" );
+    }
+
     /**
      * Verify we try a disk aux on a getMatching call.
      *
@@ -0,0 +1,94 @@
+package org.apache.commons.jcs4.engine.control.group;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the group index.
+ */
+class GroupIndexUnitTest
+{
+    /** Verify that members are tracked by group and group keys are ignored. */
+    @Test
+    void testAddAndGetMembers()
+    {
+        // SETUP
+        final GroupIndex<GroupAttrName<String>> index = new GroupIndex<>();
+        final GroupId group1 = new GroupId( "region", "group1" );
+        final GroupId group2 = new GroupId( "region", "group2" );
+
+        // DO WORK
+        index.add( new GroupAttrName<>( group1, "a" ) );
+        index.add( new GroupAttrName<>( group1, "b" ) );
+        index.add( new GroupAttrName<>( group2, "c" ) );
+        index.add( new GroupAttrName<>( group2, null ) );
+
+        // VERIFY
+        assertEquals( Set.of( group1, group2 ), index.getGroupIds(), "Wrong groups" );
+        assertEquals( Set.of( new GroupAttrName<>( group1, "a" ), new GroupAttrName<>( group1, "b" ) ),
+                index.getMembers( group1 ), "Wrong members" );
+        assertEquals( 1, index.getMembers( group2 ).size(), "The group key should not be a member" );
+    }
+
+    /** Verify that a group goes away with its last member. */
+    @Test
+    void testRemove()
+    {
+        // SETUP
+        final GroupIndex<GroupAttrName<String>> index = new GroupIndex<>();
+        final GroupId group = new GroupId( "region", "group" );
+        index.add( new GroupAttrName<>( group, "a" ) );
+        index.add( new GroupAttrName<>( group, "b" ) );
+
+        // DO WORK
+        index.remove( new GroupAttrName<>( group, "a" ) );
+        index.remove( new GroupAttrName<>( group, "b" ) );
+
+        // VERIFY
+        assertTrue( index.getGroupIds().isEmpty(), "The empty group should be gone" );
+        assertTrue( index.getMembers( group ).isEmpty(), "Should have no members" );
+    }
+
+    /** Verify that removing a group returns its members. */
+    @Test
+    void testRemoveGroup()
+    {
+        // SETUP
+        final GroupIndex<GroupAttrName<String>> index = new GroupIndex<>();
+        final GroupId group1 = new GroupId( "region", "group1" );
+        final GroupId group2 = new GroupId( "region", "group2" );
+        index.add( new GroupAttrName<>( group1, "a" ) );
+        index.add( new GroupAttrName<>( group2, "b" ) );
+
+        // DO WORK
+        final Set<GroupAttrName<String>> removed = index.removeGroup( group1 );
+
+        // VERIFY
+        assertEquals( Set.of( new GroupAttrName<>( group1, "a" ) ), removed, "Wrong removed members" );
+        assertEquals( Set.of( group2 ), index.getGroupIds(), "Wrong remaining groups" );
+        assertTrue( index.removeGroup( group1 ).isEmpty(), "Should be removed already" );
+    }
+}
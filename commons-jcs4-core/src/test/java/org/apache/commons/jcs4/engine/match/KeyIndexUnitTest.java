@@ -0,0 +1,81 @@
+package org.apache.commons.jcs4.engine.match;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests for the ordered key index. */
+class KeyIndexUnitTest
+{
+    /** Verify that the literal prefix stops at the first metacharacter. */
+    @Test
+    void testLiteralPrefix()
+    {
+        assertEquals( "user:42:", KeyIndex.literalPrefix( "user:42:.*" ), "Wrong prefix" );
+        assertEquals( "user:", KeyIndex.literalPrefix( "user:[a-c].*" ), "Wrong prefix" );
+        assertEquals( "ab", KeyIndex.literalPrefix( "abc?d" ), "Optional character is not in the prefix" );
+        assertEquals( "abc", KeyIndex.literalPrefix( "abc+d" ), "Required character is in the prefix" );
+        assertEquals( "", KeyIndex.literalPrefix( "a.*|b.*" ), "Alternations have no prefix" );
+        assertEquals( "plain", KeyIndex.literalPrefix( "plain" ), "Literal pattern is its own prefix" );
+    }
+
+    /** Verify that matching agrees with the regular expression and stays inside the prefix. */
+    @Test
+    void testGetMatchingKeys()
+    {
+        // SETUP
+        final KeyIndex<String> index = new KeyIndex<>();
+        for ( int i = 0; i < 100; i++ )
+        {
+            index.add( "a:" + i );
+            index.add( "b:" + i );
+        }
+        index.add( "a;" );
+
+        // DO WORK and VERIFY
+        assertEquals( 100, index.getMatchingKeys( "a:.*" ).size(), "Wrong number of prefix matches" );
+        assertEquals( 11, index.getMatchingKeys( "b:1\\d?" ).size(), "Wrong number of matches" );
+        assertEquals( Set.of( "a:7" ), index.getMatchingKeys( "a:7" ), "Wrong literal match" );
+        assertEquals( 201, index.getMatchingKeys( ".*" ).size(), "Wrong number of matches without prefix" );
+    }
+
+    /** Verify that removed keys are not matched and that keys with the same string form are kept apart. */
+    @Test
+    void testRemove()
+    {
+        // SETUP
+        final KeyIndex<Object> index = new KeyIndex<>();
+        index.add( "1" );
+        index.add( Integer.valueOf( 1 ) );
+        index.add( "2" );
+
+        // DO WORK
+        index.remove( "1" );
+        index.remove( "2" );
+
+        // VERIFY
+        assertEquals( Set.of( Integer.valueOf( 1 ) ), index.getMatchingKeys( "\\d" ), "Wrong keys" );
+        assertEquals( 1, index.size(), "Wrong size" );
+    }
+}
@@ -172,6 +172,13 @@ public class MockMemoryCache<K, V>
         return map.size();
     }
 
+    /** @return 0 */
+    @Override
+    public long getByteCount()
+    {
+        return 0;
+    }
+
     /** @return stats */
     @Override
     public IStats getStatistics()
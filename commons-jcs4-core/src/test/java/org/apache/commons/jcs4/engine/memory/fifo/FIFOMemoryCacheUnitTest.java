@@ -20,20 +20,127 @@ package org.apache.commons.jcs4.engine.memory.fifo;
  */
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 
 import org.apache.commons.jcs4.engine.CacheElement;
+import org.apache.commons.jcs4.engine.CacheElementSerialized;
 import org.apache.commons.jcs4.engine.CompositeCacheAttributes;
 import org.apache.commons.jcs4.engine.ElementAttributes;
 import org.apache.commons.jcs4.engine.TestCompositeCacheAttributes;
 import org.apache.commons.jcs4.engine.control.CompositeCache;
+import org.apache.commons.jcs4.engine.memory.util.EstimatedElementSizer;
+import org.apache.commons.jcs4.engine.memory.util.SerializedElementSizer;
+import org.apache.commons.jcs4.utils.serialization.SerializationConversionUtil;
 import org.junit.jupiter.api.Test;
 
 /** Tests for the fifo implementation. */
 class FIFOMemoryCacheUnitTest
 {
+    /**
+     * Verify that the byte count follows puts, replacements, spools and removals.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testByteCount()
+        throws IOException
+    {
+        // SETUP
+        final int maxObjects = 10;
+        final String cacheName = "testByteCount";
+
+        final CompositeCacheAttributes attributes = TestCompositeCacheAttributes
+                .withMaxObjectsAndSpoolChunkSize(maxObjects, 1)
+                .withCacheName(cacheName);
+
+        final CompositeCache<String, String> hub = new CompositeCache<>( attributes, new ElementAttributes() );
+        hub.setElementSizer( element -> element.value().toString().length() );
+        final FIFOMemoryCache<String, String> cache = new FIFOMemoryCache<>();
+        cache.initialize( hub );
+
+        // DO WORK
+        for ( int i = 0; i < maxObjects * 2; i++ )
+        {
+            cache.update( new CacheElement<>( cacheName, "key" + i, "12345" ) );
+        }
+        cache.update( new CacheElement<>( cacheName, "key" + ( maxObjects * 2 - 1 ), "1234567890" ) );
+
+        // VERIFY
+        assertEquals( maxObjects * 5 + 5, cache.getByteCount(), "Spooled and replaced elements should not count" );
+        cache.remove( "key" + ( maxObjects * 2 - 1 ) );
+        assertEquals( maxObjects * 5 - 5, cache.getByteCount(), "Removed element should not count" );
+        cache.removeAll();
+        assertEquals( 0, cache.getByteCount(), "Should be empty" );
+    }
+
+    /**
+     * Verify that the default sizer counts the serialized length of each value, and 0 for values
+     * that are not serializable.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testByteCount_defaultSizer()
+        throws IOException
+    {
+        // SETUP
+        final String cacheName = "testByteCount_defaultSizer";
+        final CompositeCacheAttributes attributes = TestCompositeCacheAttributes
+                .withMaxObjectsAndSpoolChunkSize(10, 1)
+                .withCacheName(cacheName);
+
+        final CompositeCache<String, Object> hub = new CompositeCache<>( attributes, new ElementAttributes() );
+        assertInstanceOf( SerializedElementSizer.class, hub.getElementSizer(), "Wrong default sizer" );
+        final FIFOMemoryCache<String, Object> cache = new FIFOMemoryCache<>();
+        cache.initialize( hub );
+        final CacheElement<String, Object> value = new CacheElement<>( cacheName, "value", "value" );
+
+        // DO WORK
+        cache.update( new CacheElement<>( cacheName, "notSerializable", new Object() ) );
+        cache.update( value );
+        cache.update( new CacheElementSerialized<>( cacheName, "serialized", new byte[7], new ElementAttributes() ) );
+
+        // VERIFY
+        final long valueSize = SerializationConversionUtil.getSerializedSize( value );
+        assertTrue( valueSize > 0, "Value should have a size" );
+        assertEquals( valueSize + 7, cache.getByteCount(), "Wrong byte count" );
+    }
+
+    /**
+     * Verify that the estimated sizer counts serialized elements and the estimate for the others,
+     * without serializing.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testByteCount_estimatedSizer()
+        throws IOException
+    {
+        // SETUP
+        final String cacheName = "testByteCount_estimatedSizer";
+        final CompositeCacheAttributes attributes = TestCompositeCacheAttributes
+                .withMaxObjectsAndSpoolChunkSize(10, 1)
+                .withCacheName(cacheName);
+
+        final CompositeCache<String, Object> hub = new CompositeCache<>( attributes, new ElementAttributes() );
+        final EstimatedElementSizer sizer = new EstimatedElementSizer();
+        sizer.setEstimate( 100 );
+        hub.setElementSizer( sizer );
+        final FIFOMemoryCache<String, Object> cache = new FIFOMemoryCache<>();
+        cache.initialize( hub );
+
+        // DO WORK
+        cache.update( new CacheElement<>( cacheName, "estimated", "value" ) );
+        cache.update( new CacheElementSerialized<>( cacheName, "serialized", new byte[7], new ElementAttributes() ) );
+
+        // VERIFY
+        assertEquals( 107, cache.getByteCount(), "Wrong byte count" );
+    }
+
     /**
      * Verify that the oldest inserted item is removed
      *
@@ -281,6 +281,36 @@ class LHMLRUMemoryCacheUnitTest
         }
     }
 
+    /**
+     * Verify that the byte count drops when elements are spooled by the map.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testByteCountThroughHub()
+        throws Exception
+    {
+        // SETUP
+        final CacheAccess<String, String> cache = JCS.getInstance( "testByteCountThroughHub" );
+        final CompositeCache<String, String> hub = CompositeCacheManager.getInstance().getCache( "testByteCountThroughHub" );
+        hub.setElementSizer( element -> 1 );
+
+        final int max = cache.getCacheAttributes().MaxObjects();
+
+        // DO WORK
+        for ( int i = 0; i < max * 2; i++ )
+        {
+            cache.put( i + ":key", "myregion data " + i );
+        }
+
+        // VERIFY
+        assertEquals( max, hub.getMemoryCache().getByteCount(), "Spooled elements should not count" );
+        cache.remove( "1:" );
+        assertEquals( max, hub.getMemoryCache().getByteCount(), "Missing element should not change the count" );
+        cache.remove( ( max * 2 - 1 ) + ":" );
+        assertEquals( max - 1, hub.getMemoryCache().getByteCount(), "Removed element should not count" );
+    }
+
     /**
      * Add a few keys with the delimiter. Remove them.
      *
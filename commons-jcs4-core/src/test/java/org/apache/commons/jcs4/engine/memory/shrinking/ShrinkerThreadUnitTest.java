@@ -38,6 +38,8 @@ import org.apache.commons.jcs4.engine.behavior.ICacheElement;
 import org.apache.commons.jcs4.engine.control.CompositeCache;
 import org.apache.commons.jcs4.engine.control.event.ElementEventHandlerMockImpl;
 import org.apache.commons.jcs4.engine.control.event.behavior.ElementEventType;
+import org.apache.commons.jcs4.engine.control.group.GroupAttrName;
+import org.apache.commons.jcs4.engine.control.group.GroupId;
 import org.apache.commons.jcs4.engine.memory.MockMemoryCache;
 import org.junit.jupiter.api.Test;
 
@@ -188,6 +190,43 @@ class ShrinkerThreadUnitTest
         assertFalse( result, "Item should not have expired." );
     }
 
+    /**
+     * Verify that a group member expired by the shrinker leaves the group index.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testShrink_ExpiredGroupMember()
+        throws Exception
+    {
+        // SETUP
+        final CompositeCacheAttributes cacheAttr = TestCompositeCacheAttributes
+                .withMemoryCacheNameMaxMemoryIdleTimeAndMaxSpoolPerRun(
+                        CompositeCacheAttributes.defaults().MemoryCacheName(),
+                        Duration.ofSeconds(10), 10)
+                .withCacheName("testRegion");
+
+        final CompositeCache<GroupAttrName<String>, String> cache = new CompositeCache<>(cacheAttr, new ElementAttributes());
+        cache.useGroupIndex();
+
+        final GroupId groupId = new GroupId( "testRegion", "group" );
+        final GroupAttrName<String> key = new GroupAttrName<>( groupId, "attr" );
+        cache.update( new CacheElement<>( "testRegion", key, "value",
+                TestElementAttributes.withEternalFalseAndMaxLife(Duration.ofMillis(1))) );
+        assertEquals( 1, cache.getGroupMembers( groupId ).size(), "Member should be indexed" );
+
+        Thread.sleep( 50 );
+
+        // DO WORK
+        final ShrinkerThread<GroupAttrName<String>, String> shrinker = new ShrinkerThread<>( cache );
+        shrinker.run();
+
+        // VERIFY
+        assertNull( cache.getMemoryCache().getQuiet( key ), "Member should have expired" );
+        assertTrue( cache.getGroupMembers( groupId ).isEmpty(), "Expired member should leave the group" );
+        assertFalse( cache.getGroupIds().contains( groupId ), "Empty group should not be listed" );
+    }
+
     /**
      * Setup cache attributes in mock. Create the shrinker with the mock. Add some elements into the
      * mock memory cache see that they get spooled.
@@ -0,0 +1,133 @@
+package org.apache.commons.jcs4.engine.stats;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests for the hot key tracker */
+class HotKeysUnitTest
+{
+    /** Verify that the heavy hitters survive a stream of distinct keys. */
+    @Test
+    void testMostRequested()
+    {
+        // SETUP
+        final HotKeys<String> hotKeys = new HotKeys<>( 10, 1 );
+
+        // DO WORK
+        for ( int i = 0; i < 1000; i++ )
+        {
+            hotKeys.recordRequest( "hot1" );
+            if ( i % 2 == 0 )
+            {
+                hotKeys.recordRequest( "hot2" );
+            }
+            hotKeys.recordRequest( "cold" + i );
+        }
+
+        // VERIFY
+        final List<HotKeys.Entry<String>> top = hotKeys.getMostRequested( 2 );
+        assertEquals( "hot1", top.get( 0 ).key(), "Wrong first key" );
+        assertEquals( "hot2", top.get( 1 ).key(), "Wrong second key" );
+        assertTrue( top.get( 0 ).value() - top.get( 0 ).error() <= 1000, "The lower bound should hold" );
+        assertTrue( top.get( 0 ).value() >= 1000, "Space-Saving never underestimates" );
+    }
+
+    /**
+     * Verify that no sample is lost when many threads add new keys at the same time.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testMostRequested_concurrent()
+        throws Exception
+    {
+        // SETUP
+        final int threads = 8;
+        final int requests = 10_000;
+        final HotKeys<String> hotKeys = new HotKeys<>( threads * requests, 1 );
+        final CountDownLatch start = new CountDownLatch( 1 );
+        final ExecutorService executor = Executors.newFixedThreadPool( threads );
+
+        // DO WORK
+        for ( int t = 0; t < threads; t++ )
+        {
+            final int thread = t;
+            executor.execute( () -> {
+                try
+                {
+                    start.await();
+                }
+                catch ( final InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                }
+                for ( int i = 0; i < requests; i++ )
+                {
+                    hotKeys.recordRequest( thread + ":" + i );
+                }
+            } );
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue( executor.awaitTermination( 30, TimeUnit.SECONDS ), "Threads should finish" );
+
+        // VERIFY
+        final List<HotKeys.Entry<String>> all = hotKeys.getMostRequested( Integer.MAX_VALUE );
+        assertEquals( threads * requests, all.size(), "Every new key should be counted" );
+        assertEquals( threads * requests, all.stream().mapToLong( HotKeys.Entry::value ).sum(), "No sample should be lost" );
+    }
+
+    /** Verify that only the largest sizes are kept and removed keys are forgotten. */
+    @Test
+    void testLargest()
+    {
+        // SETUP
+        final HotKeys<String> hotKeys = new HotKeys<>( 2, 1 );
+
+        // DO WORK
+        hotKeys.recordUpdate( "small", () -> 10 );
+        hotKeys.recordUpdate( "large", () -> 1000 );
+        hotKeys.recordUpdate( "medium", () -> 100 );
+
+        // VERIFY
+        List<HotKeys.Entry<String>> largest = hotKeys.getLargest( 5 );
+        assertEquals( 2, largest.size(), "Should be bounded by the capacity" );
+        assertEquals( "large", largest.get( 0 ).key(), "Wrong largest key" );
+        assertEquals( "medium", largest.get( 1 ).key(), "The smallest should have been replaced" );
+        assertEquals( 1000, largest.get( 0 ).value(), "Wrong size" );
+
+        // DO WORK
+        hotKeys.remove( "large" );
+
+        // VERIFY
+        largest = hotKeys.getLargest( 5 );
+        assertEquals( 1, largest.size(), "Removed key should be forgotten" );
+    }
+}
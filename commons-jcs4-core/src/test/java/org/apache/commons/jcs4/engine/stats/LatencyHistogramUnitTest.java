@@ -0,0 +1,87 @@
+package org.apache.commons.jcs4.engine.stats;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests for the latency histogram */
+class LatencyHistogramUnitTest
+{
+    /** Verify that every value falls into a bucket whose bounds contain it. */
+    @Test
+    void testBucketBounds()
+    {
+        final long[] values = { 0, 1, 15, 16, 17, 31, 32, 1000, 123_456_789, Long.MAX_VALUE };
+        for ( final long value : values )
+        {
+            final int bucket = LatencyHistogram.bucketOf( value );
+            assertTrue( LatencyHistogram.lowestValueIn( bucket ) <= value, "Lower bound above " + value );
+            assertTrue( LatencyHistogram.highestValueIn( bucket ) >= value, "Upper bound below " + value );
+        }
+        assertEquals( LatencyHistogram.highestValueIn( 16 ) + 1, LatencyHistogram.lowestValueIn( 17 ),
+                "Buckets should be contiguous" );
+    }
+
+    /** Verify the percentiles against a uniform distribution. */
+    @Test
+    void testPercentiles()
+    {
+        // SETUP
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        // DO WORK
+        for ( int i = 1; i <= 10_000; i++ )
+        {
+            histogram.record( i * 1000L );
+        }
+
+        // VERIFY
+        assertEquals( 10_000, histogram.getCount(), "Wrong count" );
+        assertEquals( 10_000_000, histogram.getMax(), "Wrong max" );
+        assertEquals( 5_000_500, histogram.getMean(), "Wrong mean" );
+        final long p50 = histogram.getValueAtPercentile( 50 );
+        assertTrue( p50 >= 5_000_000 && p50 <= 5_000_000 * 17 / 16, "Wrong p50 " + p50 );
+        final long p99 = histogram.getValueAtPercentile( 99 );
+        assertTrue( p99 >= 9_900_000 && p99 <= 10_000_000, "Wrong p99 " + p99 );
+        assertEquals( 10_000_000, histogram.getValueAtPercentile( 100 ), "p100 should be the max" );
+    }
+
+    /** Verify that an empty histogram reports zeros and negative values count as zero. */
+    @Test
+    void testEmptyAndNegative()
+    {
+        // SETUP
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        // VERIFY
+        assertEquals( 0, histogram.getValueAtPercentile( 99 ), "Empty should be 0" );
+        assertEquals( 0, histogram.getMean(), "Empty mean should be 0" );
+
+        // DO WORK
+        histogram.record( -5 );
+
+        // VERIFY
+        assertEquals( 1, histogram.getCount(), "Wrong count" );
+        assertEquals( 0, histogram.getMax(), "Negative should count as 0" );
+    }
+}
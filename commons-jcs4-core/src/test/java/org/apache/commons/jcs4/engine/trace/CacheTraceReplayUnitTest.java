@@ -0,0 +1,139 @@
+package org.apache.commons.jcs4.engine.trace;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.commons.jcs4.auxiliary.MockAuxiliaryCache;
+import org.apache.commons.jcs4.engine.CompositeCacheAttributes;
+import org.apache.commons.jcs4.engine.ElementAttributes;
+import org.apache.commons.jcs4.engine.TestCompositeCacheAttributes;
+import org.apache.commons.jcs4.engine.control.CompositeCache;
+import org.apache.commons.jcs4.engine.stats.CacheMetrics;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the replay of traces. */
+class CacheTraceReplayUnitTest
+{
+    /**
+     * Writes a trace of 20 puts, then two rounds of gets of the same keys, one miss, one remove and
+     * a get of the removed key. All gets of the 20 keys were hits when recorded.
+     *
+     * @return the trace
+     * @throws IOException
+     */
+    private static byte[] createTrace()
+        throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try ( CacheTraceWriter writer = new CacheTraceWriter( out, 0 ) )
+        {
+            long time = 0;
+            for ( int i = 0; i < 20; i++ )
+            {
+                writer.write( CacheTraceOperation.PUT, i, 100, time++ );
+            }
+            for ( int round = 0; round < 2; round++ )
+            {
+                for ( int i = 0; i < 20; i++ )
+                {
+                    writer.write( CacheTraceOperation.GET_HIT, i, -1, time++ );
+                }
+            }
+            writer.write( CacheTraceOperation.GET_MISS, 99, -1, time++ );
+            writer.write( CacheTraceOperation.REMOVE, 0, -1, time++ );
+            writer.write( CacheTraceOperation.GET_MISS, 0, -1, time++ );
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @param maxObjects the size of the memory cache
+     * @return the outcome of a replay against a region of that size
+     * @throws IOException
+     */
+    private static CacheTraceReplay.Result replay( final int maxObjects )
+        throws IOException
+    {
+        final CompositeCacheAttributes attributes = TestCompositeCacheAttributes
+                .withMaxObjectsAndSpoolChunkSize( maxObjects, 1 )
+                .withCacheName( "replay" );
+        final CompositeCache<Integer, byte[]> cache = new CompositeCache<>( attributes, new ElementAttributes() );
+        cache.setCacheMetrics( new CacheMetrics() );
+        cache.setAuxCaches( Arrays.asList( new MockAuxiliaryCache<>() ) );
+
+        try ( CacheTraceReader reader = new CacheTraceReader( new ByteArrayInputStream( createTrace() ) ) )
+        {
+            return CacheTraceReplay.replay( reader, cache );
+        }
+    }
+
+    /**
+     * Verify that a region large enough for all keys reproduces the recorded hits.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testReplay_allKeysFit()
+        throws Exception
+    {
+        // DO WORK
+        final CacheTraceReplay.Result result = replay( 100 );
+
+        // VERIFY
+        assertEquals( 63, result.events(), "Wrong number of events" );
+        assertEquals( 42, result.gets(), "Wrong number of gets" );
+        assertEquals( 20, result.puts(), "Wrong number of puts" );
+        assertEquals( 1, result.removes(), "Wrong number of removes" );
+        assertEquals( 40, result.recordedHits(), "Wrong number of recorded hits" );
+        assertEquals( 40, result.hits(), "Wrong number of hits" );
+        assertEquals( 40, result.memoryHits(), "Wrong number of memory hits" );
+        assertEquals( result.recordedHitRatio(), result.hitRatio(), 0.0001, "Hit ratios should match" );
+        assertEquals( 42, result.getLatency().getCount(), "Should time every get" );
+        assertEquals( 20, result.putLatency().getCount(), "Should time every put" );
+        assertTrue( result.metrics().containsKey( "get.count" ), "Should have the metrics " + result.metrics() );
+    }
+
+    /**
+     * Verify that a region too small for the keys has a lower hit ratio than recorded.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testReplay_smallRegion()
+        throws Exception
+    {
+        // DO WORK
+        final CacheTraceReplay.Result result = replay( 5 );
+
+        // VERIFY
+        assertEquals( 42, result.gets(), "Wrong number of gets" );
+        assertTrue( result.hitRatio() < result.recordedHitRatio(),
+                "Should miss the evicted keys, hit ratio " + result.hitRatio() );
+        assertTrue( result.auxiliaryPuts() > 0, "Evicted keys should be written to disk" );
+        assertTrue( result.auxiliaryGets() > 0, "Memory misses should read the disk" );
+    }
+}
@@ -0,0 +1,117 @@
+package org.apache.commons.jcs4.engine.trace;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests for the trace format. */
+class CacheTraceWriterUnitTest
+{
+    /**
+     * Verify that events are read back as written, over several blocks.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testWriteAndRead()
+        throws Exception
+    {
+        // SETUP
+        final List<CacheTraceEvent> events = new ArrayList<>();
+        events.add( new CacheTraceEvent( CacheTraceOperation.PUT, -1, 0, 0 ) );
+        events.add( new CacheTraceEvent( CacheTraceOperation.PUT, Integer.MIN_VALUE, -1, 5 ) );
+        events.add( new CacheTraceEvent( CacheTraceOperation.GET_HIT, Integer.MAX_VALUE, -1, 3 ) );
+        events.add( new CacheTraceEvent( CacheTraceOperation.REMOVE_ALL, 0, -1, 1L << 40 ) );
+        for ( int i = 0; i < 50000; i++ )
+        {
+            final CacheTraceOperation operation = CacheTraceOperation.values()[i % 4];
+            events.add( new CacheTraceEvent( operation, i * 31, operation == CacheTraceOperation.PUT ? i : -1,
+                    ( 1L << 40 ) + i * 7L ) );
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // DO WORK
+        try ( CacheTraceWriter writer = new CacheTraceWriter( out, 1234 ) )
+        {
+            for ( final CacheTraceEvent event : events )
+            {
+                writer.write( event );
+            }
+        }
+
+        // VERIFY
+        assertTrue( out.size() < events.size() * 12, "Events should be compact, got " + out.size() );
+        try ( CacheTraceReader reader = new CacheTraceReader( new ByteArrayInputStream( out.toByteArray() ) ) )
+        {
+            assertEquals( 1234, reader.getStartTime(), "Wrong start time" );
+            for ( final CacheTraceEvent event : events )
+            {
+                assertEquals( event, reader.next(), "Wrong event" );
+            }
+            assertNull( reader.next(), "Should be at the end" );
+        }
+    }
+
+    /**
+     * Verify that a trace without events can be read.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testEmptyTrace()
+        throws Exception
+    {
+        // SETUP
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new CacheTraceWriter( out, 0 ).close();
+
+        // DO WORK
+        try ( CacheTraceReader reader = new CacheTraceReader( new ByteArrayInputStream( out.toByteArray() ) ) )
+        {
+            // VERIFY
+            assertNull( reader.next(), "Should have no events" );
+        }
+    }
+
+    /** Verify that data that is not a trace is rejected. */
+    @Test
+    void testRead_notATrace()
+    {
+        // SETUP
+        final byte[] data = "not a cache trace".getBytes( StandardCharsets.UTF_8 );
+
+        // DO WORK and VERIFY
+        assertThrows( StreamCorruptedException.class,
+                () -> new CacheTraceReader( new ByteArrayInputStream( data ) ),
+                "Should reject foreign data" );
+    }
+}
@@ -0,0 +1,184 @@
+package org.apache.commons.jcs4.engine.trace;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jcs4.engine.CacheElement;
+import org.apache.commons.jcs4.engine.control.CompositeCache;
+import org.apache.commons.jcs4.engine.control.CompositeCacheConfigurator;
+import org.apache.commons.jcs4.engine.control.CompositeCacheManager;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the file trace recorder. */
+class FileCacheTraceRecorderUnitTest
+{
+    /**
+     * Verify that a configured recorder writes the operations of the region.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testRecordRegion()
+        throws Exception
+    {
+        // SETUP
+        final String prefix = "jcs.region.traced" + CompositeCacheConfigurator.TRACE_RECORDER_PREFIX;
+        final Properties props = new Properties();
+        props.put( "jcs.default", "" );
+        props.put( "jcs.region.traced", "" );
+        props.put( prefix, FileCacheTraceRecorder.class.getName() );
+        props.put( prefix + ".attributes.Directory", "target/traces" );
+
+        final CompositeCacheManager manager = CompositeCacheManager.getUnconfiguredInstance();
+        final FileCacheTraceRecorder recorder;
+        try
+        {
+            manager.configure( props );
+            final CompositeCache<String, String> cache = manager.getCache( "traced" );
+            recorder = assertInstanceOf( FileCacheTraceRecorder.class, cache.getTraceRecorder(), "Should have a recorder" );
+
+            // DO WORK
+            cache.update( new CacheElement<>( "traced", "a", "value" ) );
+            cache.get( "a" );
+            cache.get( "b" );
+            cache.getMultiple( Set.of( "a" ) );
+            cache.remove( "a" );
+            cache.removeAll();
+        }
+        finally
+        {
+            // disposes the region, which closes the recorder
+            manager.shutDown();
+        }
+
+        // VERIFY
+        final List<CacheTraceEvent> events = new ArrayList<>();
+        try ( CacheTraceReader reader = new CacheTraceReader( new FileInputStream( recorder.getFile() ) ) )
+        {
+            CacheTraceEvent event;
+            while ( ( event = reader.next() ) != null )
+            {
+                events.add( event );
+            }
+        }
+        assertEquals( 6, events.size(), "Wrong number of events " + events );
+        assertEquals( 6, recorder.getRecordedCount(), "Wrong recorded count" );
+        assertEquals( CacheTraceOperation.PUT, events.get( 0 ).operation(), "Wrong operation" );
+        assertEquals( "a".hashCode(), events.get( 0 ).keyHash(), "Wrong key hash" );
+        assertTrue( events.get( 0 ).size() > 0, "Should have a size" );
+        assertEquals( CacheTraceOperation.GET_HIT, events.get( 1 ).operation(), "Wrong operation" );
+        assertEquals( CacheTraceOperation.GET_MISS, events.get( 2 ).operation(), "Wrong operation" );
+        assertEquals( "b".hashCode(), events.get( 2 ).keyHash(), "Wrong key hash" );
+        assertEquals( CacheTraceOperation.GET_HIT, events.get( 3 ).operation(), "Wrong operation" );
+        assertEquals( CacheTraceOperation.REMOVE, events.get( 4 ).operation(), "Wrong operation" );
+        assertEquals( CacheTraceOperation.REMOVE_ALL, events.get( 5 ).operation(), "Wrong operation" );
+        assertTrue( events.get( 5 ).time() >= events.get( 0 ).time(), "Time should not go backwards" );
+    }
+
+    /**
+     * Verify that sampling keeps all operations of a selected key.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testSampleRate()
+        throws Exception
+    {
+        // SETUP
+        final FileCacheTraceRecorder recorder = new FileCacheTraceRecorder();
+        recorder.setDirectory( "target/traces" );
+        recorder.setSampleRate( 8 );
+        recorder.open( "sampled" );
+
+        // DO WORK
+        int selected = 0;
+        for ( int i = 0; i < 10000; i++ )
+        {
+            final Integer key = Integer.valueOf( i );
+            if ( recorder.isRecorded( key ) )
+            {
+                selected++;
+            }
+            recorder.record( CacheTraceOperation.PUT, key, 10 );
+            recorder.record( CacheTraceOperation.GET_HIT, key, -1 );
+        }
+        recorder.close();
+
+        // VERIFY
+        assertTrue( selected > 1000 && selected < 1500, "Should select about one in eight keys, got " + selected );
+        assertEquals( 2L * selected, recorder.getRecordedCount() + recorder.getDroppedCount(),
+                "Both operations of each selected key should be recorded" );
+        try ( CacheTraceReader reader = new CacheTraceReader( new FileInputStream( recorder.getFile() ) ) )
+        {
+            long count = 0;
+            while ( reader.next() != null )
+            {
+                count++;
+            }
+            assertEquals( recorder.getRecordedCount(), count, "Wrong number of events in the file" );
+        }
+    }
+
+    /**
+     * Verify that an idle writer is woken up by new events, without a close.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testIdleWriterWakesUp()
+        throws Exception
+    {
+        // SETUP
+        final FileCacheTraceRecorder recorder = new FileCacheTraceRecorder();
+        recorder.setDirectory( "target/traces" );
+        recorder.open( "idle" );
+
+        try
+        {
+            for ( int i = 1; i <= 3; i++ )
+            {
+                // DO WORK
+                recorder.record( CacheTraceOperation.GET_MISS, Integer.valueOf( i ), -1 );
+
+                // VERIFY
+                final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos( 10 );
+                while ( recorder.getRecordedCount() < i && System.nanoTime() < deadline )
+                {
+                    Thread.yield();
+                }
+                assertEquals( i, recorder.getRecordedCount(), "Event should be written while recording" );
+            }
+        }
+        finally
+        {
+            recorder.close();
+        }
+    }
+}
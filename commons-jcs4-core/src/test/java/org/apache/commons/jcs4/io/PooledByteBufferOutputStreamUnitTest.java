@@ -0,0 +1,325 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.jcs4.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.commons.jcs4.utils.serialization.CompressingSerializer;
+import org.apache.commons.jcs4.utils.serialization.StandardSerializer;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the pooled chunk output and the bounded channel input.
+ */
+class PooledByteBufferOutputStreamUnitTest
+{
+    /**
+     * @param length the length
+     * @return random bytes
+     */
+    private static byte[] randomBytes( final int length )
+    {
+        final byte[] data = new byte[length];
+        new Random( 42 ).nextBytes( data );
+        return data;
+    }
+
+    /**
+     * Verify that data spanning several chunks is written in order and that ranges across chunk
+     * boundaries are correct.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testWriteAcrossChunks()
+        throws Exception
+    {
+        // SETUP
+        final ByteBufferPool pool = new ByteBufferPool( 16, 4 );
+        final PooledByteBufferOutputStream out = new PooledByteBufferOutputStream( pool );
+        final byte[] data = randomBytes( 100 );
+
+        // DO WORK
+        out.write( data[0] );
+        out.write( data, 1, data.length - 1 );
+        final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        out.writeTo( Channels.newChannel( written ), ByteBuffer.wrap( new byte[] { 7 } ) );
+        final ByteBuffer[] range = out.getBuffers( 10, 30 );
+
+        // VERIFY
+        assertEquals( 100, out.size(), "Wrong size" );
+        assertEquals( 101, written.size(), "Wrong number of bytes written" );
+        assertEquals( 7, written.toByteArray()[0], "Header should come first" );
+        assertArrayEquals( data, Arrays.copyOfRange( written.toByteArray(), 1, 101 ), "Wrong data" );
+        assertEquals( 3, range.length, "Range should span three chunks" );
+        final ByteBuffer joined = ByteBuffer.allocate( 30 );
+        Arrays.stream( range ).forEach( joined::put );
+        assertArrayEquals( Arrays.copyOfRange( data, 10, 40 ), joined.array(), "Wrong range" );
+
+        out.release();
+        assertEquals( 4, pool.getPooledCount(), "Pool should keep at most four chunks" );
+    }
+
+    /**
+     * Verify that the input stream stops at its length, so the next record can be read.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testBoundedRead()
+        throws Exception
+    {
+        // SETUP
+        final byte[] data = randomBytes( 40000 );
+        final ReadableByteChannel channel = Channels.newChannel( new ByteArrayInputStream( data ) );
+
+        // DO WORK
+        final byte[] first;
+        try ( BoundedChannelInputStream in = new BoundedChannelInputStream( channel, 30000 ) )
+        {
+            first = in.readAllBytes();
+        }
+        final int second;
+        try ( BoundedChannelInputStream in = new BoundedChannelInputStream( channel, 10000 ) )
+        {
+            second = in.read();
+            in.skipRemaining();
+        }
+
+        // VERIFY
+        assertArrayEquals( Arrays.copyOf( data, 30000 ), first, "Wrong first record" );
+        assertEquals( data[30000] & 0xFF, second, "Wrong start of the second record" );
+        assertEquals( -1, channel.read( ByteBuffer.allocate( 1 ) ), "Channel should be at the end" );
+    }
+
+    /**
+     * Verify that small values stay on the heap and that the pool hands out heap buffers once its
+     * direct buffers are all in use.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testHeapBuffers()
+        throws Exception
+    {
+        // SETUP
+        final ByteBufferPool pool = new ByteBufferPool( 1024, 1 );
+        final PooledByteBufferOutputStream out = new PooledByteBufferOutputStream( pool );
+
+        // DO WORK
+        out.write( randomBytes( 10 ) );
+        final ByteBuffer[] small = out.getBuffers();
+        final ByteBuffer first = pool.acquire();
+        final ByteBuffer second = pool.acquire();
+        pool.release( first );
+        pool.release( second );
+        out.release();
+
+        // VERIFY
+        assertEquals( 1, small.length, "Small value should fit the first chunk" );
+        assertFalse( small[0].isDirect(), "Small value should not take a pooled chunk" );
+        assertTrue( first.isDirect(), "First buffer should be direct" );
+        assertFalse( second.isDirect(), "Buffers beyond the pool size should be on the heap" );
+        assertEquals( 1, pool.getPooledCount(), "Only the direct buffer should be pooled" );
+    }
+
+    /**
+     * Verify that a direct buffer that is never released frees its place in the pool once it is
+     * garbage collected.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testLostBufferIsReclaimed()
+        throws Exception
+    {
+        // SETUP
+        final ByteBufferPool pool = new ByteBufferPool( 1024, 1 );
+        assertTrue( pool.acquire().isDirect(), "First buffer should be direct" );
+
+        // DO WORK
+        ByteBuffer buffer = pool.acquire();
+        final long deadline = System.currentTimeMillis() + 10000;
+        while ( !buffer.isDirect() && System.currentTimeMillis() < deadline )
+        {
+            System.gc();
+            Thread.sleep( 10 );
+            buffer = pool.acquire();
+        }
+
+        // VERIFY
+        assertTrue( buffer.isDirect(), "Lost buffer should free its place for a new direct buffer" );
+    }
+
+    /**
+     * Verify that a read from a non-blocking socket without data gives up after the socket timeout.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testSocketTimeout()
+        throws Exception
+    {
+        // SETUP
+        try ( ServerSocketChannel server = ServerSocketChannel.open();
+              SocketChannel client = SocketChannel.open() )
+        {
+            server.bind( new InetSocketAddress( InetAddress.getLoopbackAddress(), 0 ) );
+            client.connect( server.getLocalAddress() );
+            try ( SocketChannel silent = server.accept() )
+            {
+                silent.write( ByteBuffer.wrap( new byte[10] ) );
+                client.configureBlocking( false );
+                client.socket().setSoTimeout( 200 );
+
+                // DO WORK and VERIFY
+                final long start = System.currentTimeMillis();
+                assertThrows( SocketTimeoutException.class, () ->
+                {
+                    try ( InputStream in = new BoundedChannelInputStream( client, 20 ) )
+                    {
+                        in.readAllBytes();
+                    }
+                }, "Should time out on a silent peer" );
+                assertTrue( System.currentTimeMillis() - start < 5000, "Should not wait much longer than the timeout" );
+            }
+        }
+    }
+
+    /**
+     * Verify that empty reads of a channel without data yet are retried.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testEmptyReads()
+        throws Exception
+    {
+        // SETUP
+        final byte[] data = randomBytes( 100 );
+        final ReadableByteChannel source = Channels.newChannel( new ByteArrayInputStream( data ) );
+        final ReadableByteChannel channel = new ReadableByteChannel()
+        {
+            private boolean empty;
+
+            @Override
+            public int read( final ByteBuffer dst )
+                throws IOException
+            {
+                // every other read finds no data, the others get at most 7 bytes
+                empty = !empty;
+                if ( empty )
+                {
+                    return 0;
+                }
+                final ByteBuffer part = dst.slice();
+                part.limit( Math.min( part.limit(), 7 ) );
+                final int read = source.read( part );
+                if ( read > 0 )
+                {
+                    dst.position( dst.position() + read );
+                }
+                return read;
+            }
+
+            @Override
+            public boolean isOpen()
+            {
+                return true;
+            }
+
+            @Override
+            public void close()
+            {
+            }
+        };
+
+        // DO WORK
+        final byte[] read;
+        try ( BoundedChannelInputStream in = new BoundedChannelInputStream( channel, 100 ) )
+        {
+            read = in.readAllBytes();
+        }
+
+        // VERIFY
+        assertArrayEquals( data, read, "Wrong data" );
+    }
+
+    /** Verify that a channel that ends early is detected. */
+    @Test
+    void testTruncatedRead()
+    {
+        // SETUP
+        final ReadableByteChannel channel = Channels.newChannel( new ByteArrayInputStream( new byte[10] ) );
+
+        // DO WORK and VERIFY
+        assertThrows( EOFException.class, () ->
+        {
+            try ( InputStream in = new BoundedChannelInputStream( channel, 20 ) )
+            {
+                in.readAllBytes();
+            }
+        }, "Should fail on a short channel" );
+    }
+
+    /**
+     * Verify that large values go through the streaming channel methods of the serializers.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testSerializerChannelRoundTrip()
+        throws Exception
+    {
+        // SETUP
+        final byte[] before = randomBytes( 3 * 1024 * 1024 );
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // DO WORK
+        new StandardSerializer().serializeTo( before, Channels.newChannel( out ) );
+        new CompressingSerializer().serializeTo( "second", Channels.newChannel( out ) );
+        final ReadableByteChannel in = Channels.newChannel( new ByteArrayInputStream( out.toByteArray() ) );
+        final byte[] after = new StandardSerializer().deSerializeFrom( in, null );
+        final String second = new CompressingSerializer().deSerializeFrom( in, null );
+
+        // VERIFY
+        assertArrayEquals( before, after, "Before and after should be the same." );
+        assertEquals( "second", second, "Second record should follow the first." );
+    }
+}
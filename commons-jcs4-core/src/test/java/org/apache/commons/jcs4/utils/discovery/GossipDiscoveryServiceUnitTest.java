@@ -0,0 +1,252 @@
+package org.apache.commons.jcs4.utils.discovery;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import org.apache.commons.jcs4.utils.discovery.GossipMember.State;
+import org.apache.commons.jcs4.utils.discovery.GossipMessage.Type;
+import org.apache.commons.jcs4.utils.discovery.behavior.IDiscoveryListener;
+import org.apache.commons.jcs4.utils.serialization.StandardSerializer;
+import org.apache.commons.jcs4.utils.threadpool.DaemonThreadFactory;
+import org.apache.commons.jcs4.utils.timing.SleepUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the gossip discovery with several members on loopback. */
+class GossipDiscoveryServiceUnitTest
+{
+    /** Records the removed services. */
+    private static final class RemovalListener
+        implements IDiscoveryListener
+    {
+        final List<DiscoveredService> removed = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void addDiscoveredService( final DiscoveredService service )
+        {
+            // nothing
+        }
+
+        @Override
+        public void removeDiscoveredService( final DiscoveredService service )
+        {
+            removed.add( service );
+        }
+    }
+
+    private ScheduledExecutorService scheduler;
+    private final List<GossipDiscoveryService> services = new ArrayList<>();
+
+    @BeforeEach
+    void setUp()
+    {
+        scheduler = Executors.newScheduledThreadPool( 2, new DaemonThreadFactory( "GossipTest-" ) );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        services.forEach( GossipDiscoveryService::shutdown );
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Starts a member on loopback.
+     *
+     * @param servicePort the service port it announces
+     * @param seeds the members to join
+     * @return the started service
+     * @throws Exception
+     */
+    private GossipDiscoveryService startMember( final int servicePort, final String... seeds )
+        throws Exception
+    {
+        final GossipDiscoveryService service = new GossipDiscoveryService( new GossipDiscoveryAttributes(
+                "127.0.0.1", servicePort, "127.0.0.1", 0, List.of( seeds ) ), new StandardSerializer() );
+        service.addParticipatingCacheName( "testCache" + servicePort );
+        service.setScheduledExecutorService( scheduler );
+        service.startup();
+        services.add( service );
+        return service;
+    }
+
+    /**
+     * @param condition the condition
+     * @param timeoutMillis maximum wait
+     * @return whether the condition became true in time
+     */
+    private static boolean waitFor( final BooleanSupplier condition, final long timeoutMillis )
+    {
+        final long end = System.currentTimeMillis() + timeoutMillis;
+        while ( !condition.getAsBoolean() )
+        {
+            if ( System.currentTimeMillis() > end )
+            {
+                return false;
+            }
+            SleepUtil.sleepAtLeast( 10 );
+        }
+        return true;
+    }
+
+    /**
+     * Starts three members that know each other.
+     *
+     * @return the members
+     * @throws Exception
+     */
+    private List<GossipDiscoveryService> startGroup()
+        throws Exception
+    {
+        final GossipDiscoveryService a = startMember( 1001 );
+        final GossipDiscoveryService b = startMember( 1002, a.getLocalId() );
+        final GossipDiscoveryService c = startMember( 1003, a.getLocalId() );
+        final List<GossipDiscoveryService> group = List.of( a, b, c );
+
+        assertTrue( waitFor( () -> group.stream().allMatch( s -> s.getDiscoveredServices().size() == 2 ), 5000 ),
+                "All members should find each other" );
+        return group;
+    }
+
+    /**
+     * Verify that members joining through one seed find each other, with their cache names.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testJoinThroughSeed()
+        throws Exception
+    {
+        // DO WORK
+        final List<GossipDiscoveryService> group = startGroup();
+
+        // VERIFY
+        final Set<DiscoveredService> seenByB = group.get( 1 ).getDiscoveredServices();
+        final DiscoveredService c = seenByB.stream()
+                .filter( s -> s.getServicePort() == 1003 )
+                .findFirst().orElseThrow();
+        assertEquals( "127.0.0.1", c.getServiceAddress(), "Wrong service address" );
+        assertEquals( List.of( "testCache1003" ), c.getCacheNames(), "Wrong cache names" );
+    }
+
+    /**
+     * Verify that a failed member is detected and removed by the others.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testFailureDetection()
+        throws Exception
+    {
+        // SETUP
+        final List<GossipDiscoveryService> group = startGroup();
+        final RemovalListener listener = new RemovalListener();
+        group.get( 0 ).addDiscoveryListener( listener );
+        final String failedId = group.get( 2 ).getLocalId();
+
+        // DO WORK
+        final long start = System.currentTimeMillis();
+        group.get( 2 ).close();
+
+        // VERIFY
+        assertTrue( waitFor( () -> !listener.removed.isEmpty(), 5000 ), "Failed member should be removed" );
+        final long detection = System.currentTimeMillis() - start;
+        assertEquals( 1003, listener.removed.get( 0 ).getServicePort(), "Wrong member removed" );
+        assertEquals( State.DEAD, group.get( 0 ).getMemberState( failedId ), "Wrong state" );
+        assertTrue( waitFor( () -> group.get( 1 ).getMemberState( failedId ) == State.DEAD, 5000 ),
+                "The other member should learn about the failure" );
+        assertTrue( detection < 3000, "Detection took " + detection + " ms" );
+    }
+
+    /**
+     * Verify that a member that shuts down is removed without waiting for failure detection.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testLeave()
+        throws Exception
+    {
+        // SETUP
+        final List<GossipDiscoveryService> group = startGroup();
+
+        // DO WORK
+        group.get( 1 ).shutdown();
+
+        // VERIFY
+        assertTrue( waitFor( () -> group.get( 0 ).getDiscoveredServices().size() == 1
+                && group.get( 2 ).getDiscoveredServices().size() == 1, 1000 ),
+                "Leaving member should be removed" );
+    }
+
+    /**
+     * Verify that a seed answers the ping of a joining member with the members it knows.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testSeedAnswersJoinPing()
+        throws Exception
+    {
+        // SETUP
+        final List<GossipDiscoveryService> group = startGroup();
+        final String seedId = group.get( 0 ).getLocalId();
+        final StandardSerializer serializer = new StandardSerializer();
+
+        try ( DatagramSocket socket = new DatagramSocket( 0, InetAddress.getByName( "127.0.0.1" ) ) )
+        {
+            socket.setSoTimeout( 5000 );
+            final GossipMember joining = new GossipMember( "127.0.0.1", socket.getLocalPort(), "127.0.0.1", 1004,
+                    new ArrayList<>(), 0, State.ALIVE );
+            final byte[] ping = serializer.serialize(
+                    new GossipMessage( Type.PING, -1, joining, null, List.of( joining ) ) );
+
+            // DO WORK
+            socket.send( new DatagramPacket( ping, ping.length, InetAddress.getByName( "127.0.0.1" ),
+                    Integer.parseInt( seedId.substring( seedId.lastIndexOf( ':' ) + 1 ) ) ) );
+            final DatagramPacket packet = new DatagramPacket( new byte[65507], 65507 );
+            socket.receive( packet );
+
+            // VERIFY
+            final GossipMessage ack = serializer.deSerialize(
+                    Arrays.copyOf( packet.getData(), packet.getLength() ), null );
+            assertEquals( Type.ACK, ack.type(), "Wrong message type" );
+            final Set<String> view = ack.updates().stream().map( GossipMember::id ).collect( Collectors.toSet() );
+            assertTrue( view.containsAll( group.stream().map( GossipDiscoveryService::getLocalId ).toList() ),
+                    "Seed should send the whole group " + view );
+        }
+    }
+}
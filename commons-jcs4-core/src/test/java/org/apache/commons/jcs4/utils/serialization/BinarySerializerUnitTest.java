@@ -0,0 +1,311 @@
+package org.apache.commons.jcs4.utils.serialization;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.jcs4.auxiliary.lateral.LateralCommand;
+import org.apache.commons.jcs4.auxiliary.lateral.LateralElementDescriptor;
+import org.apache.commons.jcs4.auxiliary.remote.util.RemoteCacheRequestFactory;
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteCacheRequest;
+import org.apache.commons.jcs4.auxiliary.remote.value.RemoteRequestType;
+import org.apache.commons.jcs4.engine.CacheElement;
+import org.apache.commons.jcs4.engine.ElementAttributes;
+import org.apache.commons.jcs4.engine.behavior.ICacheElement;
+import org.apache.commons.jcs4.engine.behavior.IElementAttributes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the binary serializer.
+ */
+class BinarySerializerUnitTest
+{
+    /** A class without a standard codec */
+    public record Person(String name, int age) implements Serializable
+    {
+        private static final long serialVersionUID = 1L;
+    }
+
+    /** A hand-written codec */
+    public static class PersonCodec implements TypeCodec<Person>
+    {
+        @Override
+        public int typeId()
+        {
+            return TypeCodecRegistry.FIRST_USER_TYPE_ID;
+        }
+
+        @Override
+        public Class<Person> type()
+        {
+            return Person.class;
+        }
+
+        @Override
+        public void write( final CodecOutput out, final Person value )
+        {
+            out.writeString( value.name() );
+            out.writeVarSignedInt( value.age() );
+        }
+
+        @Override
+        public Person read( final CodecInput in )
+            throws IOException
+        {
+            final String name = in.readString();
+            return new Person( name, in.readVarSignedInt() );
+        }
+    }
+
+    private BinarySerializer serializer;
+
+    /**
+     * Test setup
+     */
+    @BeforeEach
+    void setUp()
+    {
+        this.serializer = new BinarySerializer();
+    }
+
+    /**
+     * @param attributes the expected attributes
+     * @param actual the attributes read back
+     */
+    private static void assertAttributesEqual( final IElementAttributes attributes, final IElementAttributes actual )
+    {
+        assertEquals( attributes.IsSpool(), actual.IsSpool(), "Wrong spool flag" );
+        assertEquals( attributes.IsLateral(), actual.IsLateral(), "Wrong lateral flag" );
+        assertEquals( attributes.IsRemote(), actual.IsRemote(), "Wrong remote flag" );
+        assertEquals( attributes.IsEternal(), actual.IsEternal(), "Wrong eternal flag" );
+        assertEquals( attributes.MaxLife(), actual.MaxLife(), "Wrong max life" );
+        assertEquals( attributes.MaxIdleTime(), actual.MaxIdleTime(), "Wrong max idle time" );
+        assertEquals( attributes.createTime(), actual.createTime(), "Wrong create time" );
+        assertEquals( attributes.lastAccessTime(), actual.lastAccessTime(), "Wrong last access time" );
+    }
+
+    /**
+     * Verify that a cache element with attributes survives and is smaller than with Java serialization.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testCacheElementBackAndForth()
+        throws Exception
+    {
+        // SETUP
+        final ElementAttributes attributes = new ElementAttributes( true, false, true, false,
+                Duration.ofSeconds( 30 ), Duration.ofMillis( -1 ) );
+        final CacheElement<String, Integer> before =
+            new CacheElement<>( "testRegion", "key", Integer.valueOf( -42 ), attributes );
+
+        // DO WORK
+        final byte[] serialized = serializer.serialize( before );
+        final CacheElement<String, Integer> after = serializer.deSerialize( serialized, null );
+
+        // VERIFY
+        assertEquals( before.cacheName(), after.cacheName(), "Wrong cache name" );
+        assertEquals( before.key(), after.key(), "Wrong key" );
+        assertEquals( before.value(), after.value(), "Wrong value" );
+        assertAttributesEqual( attributes, after.elementAttributes() );
+        assertTrue( serialized.length * 4 < new StandardSerializer().serialize( before ).length,
+                "Should be much smaller than standard serialization, was " + serialized.length );
+    }
+
+    /**
+     * Verify that a lateral element descriptor survives.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testLateralElementDescriptorBackAndForth()
+        throws Exception
+    {
+        // SETUP
+        final LateralElementDescriptor<String, String> before = new LateralElementDescriptor<>(
+                new CacheElement<>( "testRegion", "key", "value" ), LateralCommand.UPDATE, -7L, 12345 );
+
+        // DO WORK
+        final LateralElementDescriptor<String, String> after =
+            serializer.deSerialize( serializer.serialize( before ), null );
+
+        // VERIFY
+        assertEquals( LateralCommand.UPDATE, after.command(), "Wrong command" );
+        assertEquals( -7L, after.requesterId(), "Wrong requester id" );
+        assertEquals( 12345, after.valHashCode(), "Wrong hash code" );
+        assertEquals( "value", after.payload().value(), "Wrong value" );
+    }
+
+    /**
+     * Verify that remote requests with key sets and element lists survive.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testRemoteCacheRequestBackAndForth()
+        throws Exception
+    {
+        // SETUP
+        final Set<String> keys = new HashSet<>( Arrays.asList( "a", "b", "c" ) );
+        final RemoteCacheRequest<String, String> getMultiple =
+            new RemoteCacheRequest<>( "testRegion", RemoteRequestType.GET_MULTIPLE, 3L, keys );
+        final List<ICacheElement<String, String>> elements = List.of(
+                new CacheElement<>( "testRegion", "a", "1" ), new CacheElement<>( "testRegion", "b", "2" ) );
+        final RemoteCacheRequest<String, String> updateMultiple =
+            new RemoteCacheRequest<>( "testRegion", RemoteRequestType.UPDATE_MULTIPLE, 3L, elements );
+        final RemoteCacheRequest<String, String> getInvalidations =
+            RemoteCacheRequestFactory.createGetInvalidationsRequest( "testRegion", 42L, 3L );
+
+        // DO WORK
+        final RemoteCacheRequest<String, String> afterGet =
+            serializer.deSerialize( serializer.serialize( getMultiple ), null );
+        final RemoteCacheRequest<String, String> afterUpdate =
+            serializer.deSerialize( serializer.serialize( updateMultiple ), null );
+        final RemoteCacheRequest<String, String> afterInvalidations =
+            serializer.deSerialize( serializer.serialize( getInvalidations ), null );
+
+        // VERIFY
+        assertEquals( RemoteRequestType.GET_MULTIPLE, afterGet.requestType(), "Wrong request type" );
+        assertEquals( keys, afterGet.keySet(), "Wrong keys" );
+        assertNull( afterGet.cacheElements(), "Should have no elements" );
+        assertEquals( 2, afterUpdate.cacheElements().size(), "Wrong number of elements" );
+        assertEquals( "2", afterUpdate.cacheElements().get( 1 ).value(), "Wrong value" );
+        assertNull( afterUpdate.keySet(), "Should have no keys" );
+        assertEquals( 42L, afterInvalidations.sequence(), "Wrong sequence" );
+    }
+
+    /**
+     * Verify that classes without a codec fall back to Java serialization and that a registered codec
+     * takes over.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testCustomCodec()
+        throws Exception
+    {
+        // SETUP
+        final Person before = new Person( "joe", 21 );
+        final byte[] standard = serializer.serialize( before );
+
+        // DO WORK
+        serializer.setCodecs( PersonCodec.class.getName() );
+        final byte[] custom = serializer.serialize( before );
+
+        // VERIFY
+        assertEquals( before, new BinarySerializer().deSerialize( standard, null ), "Fallback should work" );
+        assertEquals( before, serializer.deSerialize( custom, null ), "Codec should work" );
+        assertTrue( custom.length < 10, "Codec should write only the fields, was " + custom.length );
+        assertThrows( IllegalArgumentException.class, () -> serializer.register( new PersonCodec() ),
+                "Should reject a second codec for the same id" );
+    }
+
+    /** Verify that JCS type ids cannot be taken. */
+    @Test
+    void testReservedTypeId()
+    {
+        // SETUP
+        final TypeCodec<Person> codec = new PersonCodec()
+        {
+            @Override
+            public int typeId()
+            {
+                return 5;
+            }
+        };
+
+        // DO WORK and VERIFY
+        assertThrows( IllegalArgumentException.class, () -> serializer.register( codec ),
+                "Should reject a reserved id" );
+    }
+
+    /**
+     * Verify that the stream methods write the same data with a length prefix.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testSerializeTo()
+        throws Exception
+    {
+        // SETUP
+        final String before = "This is my string äöü";
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // DO WORK
+        final int written = serializer.serializeTo( before, out );
+        final String after = serializer.deSerializeFrom( new ByteArrayInputStream( out.toByteArray() ), null );
+
+        // VERIFY
+        assertEquals( out.size(), written, "Wrong count" );
+        assertEquals( before, after, "Before and after should be the same." );
+        assertArrayEquals( serializer.serialize( before ), Arrays.copyOfRange( out.toByteArray(), 4, written ),
+                "Should write the same data" );
+    }
+
+    /**
+     * Verify that null survives.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testNullInput()
+        throws Exception
+    {
+        // DO WORK
+        final String after = serializer.deSerialize( serializer.serialize( null ), null );
+
+        // VERIFY
+        assertNull( after, "Should have nothing." );
+    }
+
+    /** Verify that foreign and truncated data is rejected. */
+    @Test
+    void testCorruptData()
+        throws Exception
+    {
+        // SETUP
+        final byte[] serialized = serializer.serialize( new CacheElement<>( "testRegion", "key", "value" ) );
+        final byte[] truncated = Arrays.copyOf( serialized, serialized.length - 3 );
+        final byte[] standard = new StandardSerializer().serialize( "value" );
+
+        // DO WORK and VERIFY
+        assertThrows( IOException.class, () -> serializer.deSerialize( truncated, null ),
+                "Should reject truncated data" );
+        assertThrows( StreamCorruptedException.class, () -> serializer.deSerialize( standard, null ),
+                "Should reject foreign data" );
+    }
+}
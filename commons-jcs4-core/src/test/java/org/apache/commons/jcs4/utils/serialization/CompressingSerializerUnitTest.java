@@ -21,9 +21,18 @@ package org.apache.commons.jcs4.utils.serialization;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.file.Files;
+
+import org.apache.commons.jcs4.engine.stats.behavior.IStatElement;
+import org.apache.commons.jcs4.engine.stats.behavior.IStats;
+import org.apache.commons.jcs4.utils.zip.CompressionUtil;
+import org.apache.commons.jcs4.utils.zip.LZFCodec;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -42,6 +51,184 @@ class CompressingSerializerUnitTest
         this.serializer = new CompressingSerializer();
     }
 
+    /**
+     * Creates a small value that resembles the others, like the entries of one region do.
+     *
+     * @param i the number of the value
+     * @return the value
+     */
+    private static String record( final int i )
+    {
+        return "{\"id\":" + i + ",\"type\":\"customer\",\"status\":\"active\",\"country\":\"DE\","
+            + "\"email\":\"user" + i + "@example.org\",\"created\":\"2024-01-" + ( 10 + i % 20 ) + "\"}";
+    }
+
+    /**
+     * @param stats the statistics
+     * @param name the name of an element
+     * @return its data
+     */
+    private static Object stat( final IStats stats, final String name )
+    {
+        return stats.getStatElements().stream()
+            .filter( e -> e.name().equals( name ) )
+            .map( IStatElement::data )
+            .findFirst().orElse( null );
+    }
+
+    /**
+     * Verify that data written by earlier versions, plain zlib, is still read.
+     *
+     * @throws Exception on error
+     */
+    @Test
+    void testDeserialize_LegacyFormat()
+        throws Exception
+    {
+        // SETUP
+        final String before = "adsfdsafdsafdsafdsafdsafdsafdsagfdsafdsafdsfdsafdsafsa333 31231";
+        final byte[] legacy = CompressionUtil.compressByteArray( new StandardSerializer().serialize( before ) );
+
+        // DO WORK
+        final String after = serializer.deSerialize( legacy, null );
+
+        // VERIFY
+        assertEquals( before, after, "Legacy data should be readable" );
+    }
+
+    /**
+     * Verify that an unknown codec id is rejected.
+     */
+    @Test
+    void testDeserialize_UnknownCodec()
+    {
+        // SETUP
+        final byte[] data = { CompressingSerializer.MAGIC, 99, 1, 2, 3 };
+
+        // DO WORK and VERIFY
+        assertThrows( StreamCorruptedException.class, () -> serializer.deSerialize( data, null ),
+                "Should reject an unknown codec" );
+    }
+
+    /**
+     * Verify that a dictionary trained from the first values makes small values smaller, and that
+     * a new serializer can read them after loading the dictionary file.
+     *
+     * @throws Exception on error
+     */
+    @Test
+    void testDictionary_SmallValues()
+        throws Exception
+    {
+        // SETUP
+        final File file = new File( "target/test-sandbox/CompressingSerializerUnitTest/region.dict" );
+        Files.deleteIfExists( file.toPath() );
+        serializer.setMinSize( 64 );
+        serializer.setDictionarySampleCount( 50 );
+        serializer.setDictionaryFile( file );
+        final int withoutDictionary = serializer.serialize( record( 1000 ) ).length;
+
+        // DO WORK
+        for ( int i = 0; i < 50; i++ )
+        {
+            serializer.serialize( record( i ) );
+        }
+        // the dictionary is trained in the background
+        final long deadline = System.currentTimeMillis() + 10000;
+        while ( serializer.getDictionaries().size() == 0 && System.currentTimeMillis() < deadline )
+        {
+            Thread.sleep( 10 );
+        }
+        final byte[] withDictionary = serializer.serialize( record( 1000 ) );
+
+        // VERIFY
+        assertEquals( 1, serializer.getDictionaries().size(), "Should have trained a dictionary" );
+        assertTrue( Files.size( file.toPath() ) > 0, "Dictionary should be stored" );
+        assertTrue( withDictionary.length < withoutDictionary,
+                "Dictionary should help. with = " + withDictionary.length + " without = " + withoutDictionary );
+
+        final CompressingSerializer reader = new CompressingSerializer();
+        reader.setDictionaryFile( file );
+        assertEquals( record( 1000 ), reader.deSerialize( withDictionary, null ), "Wrong value" );
+    }
+
+    /**
+     * Verify that no dictionary is trained without a file to keep it in.
+     *
+     * @throws Exception on error
+     */
+    @Test
+    void testDictionary_NoFile()
+        throws Exception
+    {
+        // SETUP
+        serializer.setMinSize( 64 );
+        serializer.setDictionarySampleCount( 50 );
+
+        // DO WORK
+        for ( int i = 0; i < 100; i++ )
+        {
+            serializer.serialize( record( i ) );
+        }
+
+        // VERIFY
+        assertEquals( 0, serializer.getDictionaries().size(), "Should not train a dictionary" );
+        final CompressingSerializer reader = new CompressingSerializer();
+        assertEquals( record( 1000 ), reader.deSerialize( serializer.serialize( record( 1000 ) ), null ),
+                "Another serializer should read the value" );
+    }
+
+    /**
+     * Verify the round trip with the fast codec.
+     *
+     * @throws Exception on error
+     */
+    @Test
+    void testLZFCodec()
+        throws Exception
+    {
+        // SETUP
+        serializer.setCodec( LZFCodec.NAME );
+        final String before = "abcdefghij".repeat( 500 );
+
+        // DO WORK
+        final byte[] serialized = serializer.serialize( before );
+        final String after = serializer.deSerialize( serialized, null );
+
+        // VERIFY
+        assertEquals( LZFCodec.ID, serialized[1], "Wrong codec" );
+        assertTrue( serialized.length < before.length() / 5, "Should be compressed" );
+        assertEquals( before, after, "Before and after should be the same." );
+    }
+
+    /**
+     * Verify that values below the minimum size are stored and counted.
+     *
+     * @throws Exception on error
+     */
+    @Test
+    void testMinSize()
+        throws Exception
+    {
+        // SETUP
+        final String small = "small";
+        final String large = "large".repeat( 200 );
+
+        // DO WORK
+        final byte[] storedValue = serializer.serialize( small );
+        final byte[] compressedValue = serializer.serialize( large );
+
+        // VERIFY
+        assertEquals( CompressingSerializer.STORED, storedValue[1], "Small values should be stored" );
+        assertEquals( small, serializer.deSerialize( storedValue, null ), "Wrong small value" );
+        assertEquals( large, serializer.deSerialize( compressedValue, null ), "Wrong large value" );
+
+        final IStats stats = serializer.getStatistics();
+        assertEquals( Long.valueOf( 1 ), stat( stats, "Stored Count" ), "Wrong stored count" );
+        assertEquals( Long.valueOf( 1 ), stat( stats, "Compressed Count" ), "Wrong compressed count" );
+        assertTrue( ( (Double) stat( stats, "Compression Ratio" ) ).doubleValue() > 1.0, "Wrong ratio" );
+    }
+
     /**
      * Verify that we don't get any erorrs for null input.
      *
@@ -51,6 +51,21 @@ class SerializerUnitTest
         JCS.shutdown();
     }
 
+    /**
+     * Verify that object reading and writing with BinarySerializer works
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testReadWriteBinarySerializer()
+        throws Exception
+    {
+        // BinarySerializer
+        final CacheAccess<String, String> jcs = JCS.getInstance( "blockRegion4" );
+
+        testReadWrite(jcs);
+    }
+
     /**
      * Verify that object reading and writing with CompressingSerializer works
      *
@@ -0,0 +1,154 @@
+package org.apache.commons.jcs4.utils.struct;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests for the consistent hash ring. */
+class ConsistentHashRingUnitTest
+{
+    /** Verify that an empty ring has no owner for a key. */
+    @Test
+    void testGetNode_Empty()
+    {
+        final ConsistentHashRing<String> ring = new ConsistentHashRing<>( 10 );
+
+        assertNull( ring.getNode( "key" ), "Should have no node" );
+        assertNull( ring.getNode( "key", n -> true ), "Should have no node" );
+    }
+
+    /** Key type whose hashCode differs between JVMs. */
+    private enum Region
+    {
+        EU
+    }
+
+    /** Verify that keys are placed by their string form, not by their identity hash code. */
+    @Test
+    void testHash_StringForm()
+    {
+        assertEquals( ConsistentHashRing.hash( "EU" ), ConsistentHashRing.hash( Region.EU ),
+                "Enum should hash like its name" );
+    }
+
+    /** Verify that keys are spread over all nodes. */
+    @Test
+    void testGetNode_Distribution()
+    {
+        // SETUP
+        final ConsistentHashRing<String> ring = new ConsistentHashRing<>( 160 );
+        ring.addNode( "a", "host1:1101" );
+        ring.addNode( "b", "host2:1101" );
+        ring.addNode( "c", "host3:1101" );
+
+        // DO WORK
+        final Map<String, Integer> counts = new HashMap<>();
+        for ( int i = 0; i < 30000; i++ )
+        {
+            counts.merge( ring.getNode( "key" + i ), Integer.valueOf( 1 ), Integer::sum );
+        }
+
+        // VERIFY
+        assertEquals( 3, counts.size(), "All nodes should own keys" );
+        counts.forEach( ( node, count ) ->
+            assertTrue( count.intValue() > 6000, "Node " + node + " owns too few keys: " + count ) );
+    }
+
+    /** Verify that adding a node only moves keys to the new node. */
+    @Test
+    void testAddNode_MovesOnlyToNewNode()
+    {
+        // SETUP
+        final ConsistentHashRing<String> ring = new ConsistentHashRing<>( 160 );
+        ring.addNode( "a", "host1:1101" );
+        ring.addNode( "b", "host2:1101" );
+        ring.addNode( "c", "host3:1101" );
+
+        final Map<String, String> before = new HashMap<>();
+        for ( int i = 0; i < 10000; i++ )
+        {
+            before.put( "key" + i, ring.getNode( "key" + i ) );
+        }
+
+        // DO WORK
+        ring.addNode( "d", "host4:1101" );
+
+        // VERIFY
+        int moved = 0;
+        for ( final Map.Entry<String, String> entry : before.entrySet() )
+        {
+            final String owner = ring.getNode( entry.getKey() );
+            if ( !owner.equals( entry.getValue() ) )
+            {
+                assertEquals( "d", owner, "Keys should only move to the new node" );
+                moved++;
+            }
+        }
+        assertTrue( moved > 1500 && moved < 3500, "About a quarter of the keys should move: " + moved );
+    }
+
+    /** Verify that removing a node gives its keys to the others and leaves the rest in place. */
+    @Test
+    void testRemoveNode()
+    {
+        // SETUP
+        final ConsistentHashRing<String> ring = new ConsistentHashRing<>( 100 );
+        ring.addNode( "a", "host1:1101" );
+        ring.addNode( "b", "host2:1101" );
+
+        final Map<String, String> before = new HashMap<>();
+        for ( int i = 0; i < 1000; i++ )
+        {
+            before.put( "key" + i, ring.getNode( "key" + i ) );
+        }
+
+        // DO WORK
+        assertTrue( ring.removeNode( "b" ), "Should have removed the node" );
+
+        // VERIFY
+        assertEquals( 1, ring.size(), "Wrong number of nodes" );
+        before.forEach( ( key, owner ) -> assertEquals( "a", ring.getNode( key ), "Wrong owner for " + key ) );
+    }
+
+    /** Verify that the filter skips nodes without changing the ring. */
+    @Test
+    void testGetNode_Filter()
+    {
+        // SETUP
+        final ConsistentHashRing<String> ring = new ConsistentHashRing<>( 50 );
+        ring.addNode( "a", "host1:1101" );
+        ring.addNode( "b", "host2:1101" );
+
+        // DO WORK & VERIFY
+        for ( int i = 0; i < 1000; i++ )
+        {
+            assertEquals( "a", ring.getNode( "key" + i, n -> !n.equals( "b" ) ), "Should skip the filtered node" );
+        }
+        assertNull( ring.getNode( "key", n -> false ), "Should find no node" );
+        assertEquals( 2, ring.size(), "Filter should not change the ring" );
+    }
+}
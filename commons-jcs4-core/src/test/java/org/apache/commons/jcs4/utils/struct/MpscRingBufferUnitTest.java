@@ -0,0 +1,114 @@
+package org.apache.commons.jcs4.utils.struct;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests for the ring buffer. */
+class MpscRingBufferUnitTest
+{
+    /** Verify offer and poll in order, around the end of the array. */
+    @Test
+    void testOfferPoll()
+    {
+        // SETUP
+        final MpscRingBuffer<Integer> ring = new MpscRingBuffer<>( 3 );
+
+        // DO WORK and VERIFY
+        assertEquals( 4, ring.capacity(), "Capacity should be rounded up" );
+        for ( int round = 0; round < 3; round++ )
+        {
+            for ( int i = 0; i < 4; i++ )
+            {
+                assertTrue( ring.offer( Integer.valueOf( i ) ), "Should have room" );
+            }
+            assertFalse( ring.offer( Integer.valueOf( 4 ) ), "Should be full" );
+            assertEquals( 4, ring.size(), "Wrong size" );
+            assertEquals( 0, ring.peek().intValue(), "Wrong head" );
+            for ( int i = 0; i < 4; i++ )
+            {
+                assertEquals( i, ring.poll().intValue(), "Wrong order" );
+            }
+            assertNull( ring.poll(), "Should be empty" );
+            assertTrue( ring.isEmpty(), "Should be empty" );
+        }
+    }
+
+    /**
+     * Verify that the elements of each producer arrive in order and none get lost.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testConcurrentProducers()
+        throws Exception
+    {
+        // SETUP
+        final int producers = 4;
+        final int count = 20000;
+        final MpscRingBuffer<long[]> ring = new MpscRingBuffer<>( 64 );
+        final List<Thread> threads = new ArrayList<>();
+        for ( int p = 0; p < producers; p++ )
+        {
+            final int producer = p;
+            threads.add( new Thread( () -> {
+                for ( int i = 0; i < count; i++ )
+                {
+                    final long[] element = { producer, i };
+                    while ( !ring.offer( element ) )
+                    {
+                        Thread.yield();
+                    }
+                }
+            } ) );
+        }
+
+        // DO WORK
+        threads.forEach( Thread::start );
+        final int[] next = new int[producers];
+        int received = 0;
+        while ( received < producers * count )
+        {
+            final long[] element = ring.poll();
+            if ( element == null )
+            {
+                Thread.yield();
+                continue;
+            }
+            assertEquals( next[(int) element[0]]++, element[1], "Out of order for producer " + element[0] );
+            received++;
+        }
+        for ( final Thread thread : threads )
+        {
+            thread.join();
+        }
+
+        // VERIFY
+        assertTrue( ring.isEmpty(), "Should be empty" );
+    }
+}
@@ -19,6 +19,7 @@ package org.apache.commons.jcs4.utils.threadpool;
  * under the License.
  */
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -85,4 +86,20 @@ class ThreadPoolManagerUnitTest
         final ExecutorService pool = mgr.getExecutorService( "aborttest" );
         assertNotNull( pool );
     }
+
+    /**
+     * Make sure a pool configured for virtual threads uses them if the JVM has them.
+     */
+    @Test
+    void testVirtualThreadConfig()
+    {
+        final Properties props = PropertyLoader.loadProperties( "thread_pool.properties" );
+        ThreadPoolManager.setProps( props );
+        final ThreadPoolManager mgr = ThreadPoolManager.getInstance();
+
+        final ExecutorService pool = mgr.getExecutorService( "virtualtest" );
+
+        final boolean supported = ThreadPoolManager.createVirtualThreadFactory( "test" ) != null;
+        assertEquals( supported, pool instanceof VirtualThreadExecutor, "Wrong executor type" );
+    }
 }
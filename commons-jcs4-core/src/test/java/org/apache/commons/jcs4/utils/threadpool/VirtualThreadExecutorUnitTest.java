@@ -0,0 +1,203 @@
+package org.apache.commons.jcs4.utils.threadpool;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.jcs4.utils.threadpool.PoolConfiguration.WhenBlockedPolicy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the executor that limits concurrency with a semaphore. It uses platform threads, so it
+ * runs on any JVM.
+ */
+class VirtualThreadExecutorUnitTest
+{
+    /**
+     * @param maximumPoolSize the concurrency limit
+     * @param boundarySize the queue size
+     * @return an executor with ABORT policy
+     */
+    private static VirtualThreadExecutor createExecutor( final int maximumPoolSize, final int boundarySize )
+    {
+        return new VirtualThreadExecutor(
+                new PoolConfiguration( true, boundarySize, maximumPoolSize, 0, Duration.ZERO,
+                        WhenBlockedPolicy.ABORT, 0, true ),
+                new DaemonThreadFactory( "VirtualThreadExecutorUnitTest-" ) );
+    }
+
+    /**
+     * Verify that no more tasks than the limit run at once.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testConcurrencyLimit()
+        throws Exception
+    {
+        // SETUP
+        final VirtualThreadExecutor executor = createExecutor( 3, 100 );
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        // DO WORK
+        for ( int i = 0; i < 50; i++ )
+        {
+            executor.execute( () -> {
+                maxRunning.accumulateAndGet( running.incrementAndGet(), Math::max );
+                try
+                {
+                    Thread.sleep( 2 );
+                }
+                catch ( final InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+            } );
+        }
+        executor.shutdown();
+
+        // VERIFY
+        assertTrue( executor.awaitTermination( 10, TimeUnit.SECONDS ), "Should terminate" );
+        assertTrue( maxRunning.get() <= 3, "Too many tasks at once: " + maxRunning.get() );
+    }
+
+    /**
+     * Verify that a limit of one runs the tasks in order.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testOrderWithLimitOfOne()
+        throws Exception
+    {
+        // SETUP
+        final VirtualThreadExecutor executor = createExecutor( 1, 1000 );
+        final List<Integer> order = new CopyOnWriteArrayList<>();
+
+        // DO WORK
+        for ( int i = 0; i < 500; i++ )
+        {
+            final Integer value = Integer.valueOf( i );
+            executor.execute( () -> order.add( value ) );
+        }
+        executor.shutdown();
+
+        // VERIFY
+        assertTrue( executor.awaitTermination( 10, TimeUnit.SECONDS ), "Should terminate" );
+        assertEquals( 500, order.size(), "Wrong number of tasks" );
+        for ( int i = 0; i < order.size(); i++ )
+        {
+            assertEquals( i, order.get( i ).intValue(), "Wrong order" );
+        }
+    }
+
+    /**
+     * Verify that the when blocked policy applies if the queue is full.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testAbortWhenQueueFull()
+        throws Exception
+    {
+        // SETUP
+        final VirtualThreadExecutor executor = createExecutor( 1, 1 );
+        final CountDownLatch started = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+        executor.execute( () -> {
+            started.countDown();
+            try
+            {
+                release.await();
+            }
+            catch ( final InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+        } );
+        started.await();
+        executor.execute( () -> {} );
+
+        // DO WORK and VERIFY
+        assertThrows( RejectedExecutionException.class, () -> executor.execute( () -> {} ),
+                "Should reject if the queue is full" );
+
+        release.countDown();
+        executor.shutdown();
+        assertTrue( executor.awaitTermination( 10, TimeUnit.SECONDS ), "Should terminate" );
+        assertThrows( RejectedExecutionException.class, () -> executor.execute( () -> {} ),
+                "Should reject after shutdown" );
+    }
+
+    /**
+     * Verify that shutdownNow returns the queued tasks and the workers stop taking tasks.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testShutdownNowStopsDrain()
+        throws Exception
+    {
+        // SETUP
+        final VirtualThreadExecutor executor = createExecutor( 1, 100 );
+        final CountDownLatch started = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+        final AtomicInteger ran = new AtomicInteger();
+        executor.execute( () -> {
+            started.countDown();
+            try
+            {
+                release.await();
+            }
+            catch ( final InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+        } );
+        started.await();
+        for ( int i = 0; i < 10; i++ )
+        {
+            executor.execute( ran::incrementAndGet );
+        }
+
+        // DO WORK
+        final List<Runnable> pending = executor.shutdownNow();
+        release.countDown();
+
+        // VERIFY
+        assertTrue( executor.awaitTermination( 10, TimeUnit.SECONDS ), "Should terminate" );
+        assertEquals( 10, pending.size(), "Queued tasks should be returned" );
+        assertEquals( 0, ran.get(), "Queued tasks should not run" );
+        assertThrows( RejectedExecutionException.class, () -> executor.execute( () -> {} ),
+                "Should reject after shutdownNow" );
+    }
+}
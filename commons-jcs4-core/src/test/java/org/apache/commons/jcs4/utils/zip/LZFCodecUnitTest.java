@@ -0,0 +1,133 @@
+package org.apache.commons.jcs4.utils.zip;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests for the fast codec */
+class LZFCodecUnitTest
+{
+    /**
+     * @param data the data
+     * @return the compressed data
+     * @throws IOException
+     */
+    private static byte[] compress( final byte[] data )
+        throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try ( OutputStream cos = new LZFCodec().compress( out ) )
+        {
+            cos.write( data );
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @param compressed the compressed data
+     * @return the data
+     * @throws IOException
+     */
+    private static byte[] decompress( final byte[] compressed )
+        throws IOException
+    {
+        try ( InputStream in = new LZFCodec().decompress( new ByteArrayInputStream( compressed ) ) )
+        {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Verify the round trip of data that spans several blocks, with repeated and random parts.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testRoundTrip_severalBlocks()
+        throws IOException
+    {
+        // SETUP
+        final byte[] data = new byte[3 * LZFCodec.BLOCK_SIZE + 123];
+        final Random random = new Random( 42 );
+        for ( int i = 0; i < data.length; i++ )
+        {
+            data[i] = i % 4096 < 2048 ? (byte) ( i % 13 ) : (byte) random.nextInt();
+        }
+
+        // DO WORK
+        final byte[] compressed = compress( data );
+
+        // VERIFY
+        assertTrue( compressed.length < data.length, "Should be compressed" );
+        assertArrayEquals( data, decompress( compressed ), "Wrong data" );
+    }
+
+    /**
+     * Verify that random data is stored and still comes back.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testRoundTrip_incompressible()
+        throws IOException
+    {
+        // SETUP
+        final byte[] data = new byte[1000];
+        new Random( 7 ).nextBytes( data );
+
+        // DO WORK
+        final byte[] compressed = compress( data );
+
+        // VERIFY
+        assertEquals( data.length + 4, compressed.length, "Block should be stored" );
+        assertArrayEquals( data, decompress( compressed ), "Wrong data" );
+    }
+
+    /**
+     * Verify that truncated data is rejected.
+     *
+     * @throws IOException
+     */
+    @Test
+    void testDecompress_truncated()
+        throws IOException
+    {
+        // SETUP
+        final byte[] compressed = compress( "abcabcabcabcabcabcabcabc".repeat( 10 ).getBytes() );
+        final byte[] truncated = Arrays.copyOf( compressed, compressed.length - 3 );
+
+        // DO WORK and VERIFY
+        assertThrows( EOFException.class, () -> decompress( truncated ), "Should reject truncated data" );
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.jcs4.jcache.extras.web;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// collects the bytes in fixed size chunks, unlike a ByteArrayOutputStream it never copies what was written
+class ChunkedOutputStream extends OutputStream
+{
+    private final int chunkSize;
+    private final List<byte[]> chunks = new ArrayList<>();
+    private byte[] current;
+    private int position;
+
+    ChunkedOutputStream(final int chunkSize)
+    {
+        this.chunkSize = chunkSize;
+    }
+
+    private void ensureCapacity()
+    {
+        if (current == null || position == current.length)
+        {
+            current = new byte[chunkSize];
+            chunks.add(current);
+            position = 0;
+        }
+    }
+
+    // only the last chunk is trimmed, the others are returned as they are
+    byte[][] toChunks()
+    {
+        final byte[][] result = chunks.toArray(new byte[chunks.size()][]);
+        if (result.length > 0 && position < chunkSize)
+        {
+            result[result.length - 1] = Arrays.copyOf(current, position);
+        }
+        return result;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len)
+    {
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0)
+        {
+            ensureCapacity();
+            final int length = Math.min(remaining, current.length - position);
+            System.arraycopy(b, offset, current, position, length);
+            position += length;
+            offset += length;
+            remaining -= length;
+        }
+    }
+
+    @Override
+    public void write(final int b)
+    {
+        ensureCapacity();
+        current[position++] = (byte) b;
+    }
+}
@@ -176,6 +176,12 @@ public class InMemoryResponse extends HttpServletResponseWrapper implements Seri
 
             }
 
+            @Override
+            public void write(final byte[] b, final int off, final int len) throws IOException
+            {
+                buffer.write(b, off, len);
+            }
+
             @Override
             public void write(final int b) throws IOException
             {
@@ -20,17 +20,21 @@ package org.apache.commons.jcs4.jcache.extras.web;
 
 import static java.util.Collections.list;
 
-import java.io.BufferedOutputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.net.URI;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
 import java.util.zip.GZIPOutputStream;
 
 import javax.cache.Cache;
@@ -44,6 +48,7 @@ import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.FilterConfig;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.Cookie;
@@ -52,26 +57,85 @@ import jakarta.servlet.http.HttpServletResponse;
 
 public class JCacheFilter implements Filter
 {
+    private static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    // the body is kept in chunks, a large page is never copied into one array
     protected static class Page implements Serializable {
-        private static final long serialVersionUID = 76822335849713095L;
+        private static final long serialVersionUID = -3260487145839512461L;
+
+        private static Serializable first(final Map<String, List<Serializable>> headers, final String name)
+        {
+            final List<Serializable> values = headers.get(name);
+            return values == null || values.isEmpty() ? null : values.get(0);
+        }
+
+        private static long lastModified(final Serializable header)
+        {
+            if (Long.class.isInstance(header))
+            {
+                return Long.class.cast(header);
+            }
+            if (String.class.isInstance(header))
+            {
+                try
+                {
+                    return ZonedDateTime.parse(String.class.cast(header), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+                }
+                catch (final DateTimeParseException e)
+                {
+                    // use the time the page was cached
+                }
+            }
+            return System.currentTimeMillis();
+        }
+
         private final int status;
         private final String contentType;
         private final int contentLength;
         private final Collection<Cookie> cookies;
         private final Map<String, List<Serializable>> headers;
-        private final byte[] out;
+        private final byte[][] chunks;
+        private final long length;
+        private final String etag;
+        private final long lastModified;
 
         public Page(final int status,
                     final String contentType, final int contentLength,
                     final Collection<Cookie> cookies, final Map<String, List<Serializable>> headers,
                     final byte[] out)
+        {
+            this(status, contentType, contentLength, cookies, headers, new byte[][] { out });
+        }
+
+        public Page(final int status,
+                    final String contentType, final int contentLength,
+                    final Collection<Cookie> cookies, final Map<String, List<Serializable>> headers,
+                    final byte[][] chunks)
         {
             this.status = status;
             this.contentType = contentType;
             this.contentLength = contentLength;
             this.cookies = cookies;
-            this.headers = headers;
-            this.out = out;
+            // header names are case insensitive, whatever map the caller used
+            this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            this.headers.putAll(headers);
+            this.chunks = chunks;
+
+            final CRC32 crc = new CRC32();
+            long total = 0;
+            for (final byte[] chunk : chunks)
+            {
+                crc.update(chunk);
+                total += chunk.length;
+            }
+            this.length = total;
+
+            // validators set by the application win over the computed ones
+            final Serializable etagHeader = first(headers, "ETag");
+            this.etag = etagHeader != null
+                    ? etagHeader.toString()
+                    : '"' + Long.toHexString(total) + '-' + Long.toHexString(crc.getValue()) + '"';
+            this.lastModified = lastModified(first(headers, "Last-Modified"));
         }
 
         @Override
@@ -92,7 +156,7 @@ public class JCacheFilter implements Filter
                     && !(contentType != null ? !contentType.equals(page.contentType) : page.contentType != null)
                     && cookies.equals(page.cookies)
                     && headers.equals(page.headers)
-                    && Arrays.equals(out, page.out);
+                    && Arrays.deepEquals(chunks, page.chunks);
 
         }
 
@@ -104,19 +168,26 @@ public class JCacheFilter implements Filter
             result = 31 * result + contentLength;
             result = 31 * result + cookies.hashCode();
             result = 31 * result + headers.hashCode();
-            result = 31 * result + Arrays.hashCode(out);
+            result = 31 * result + Arrays.deepHashCode(chunks);
             return result;
         }
     }
     protected static class PageKey implements Serializable {
-        private static final long serialVersionUID = 3401480765010789184L;
+        private static final long serialVersionUID = -6316284728592873145L;
         private final String uri;
         private boolean gzip;
+        private final String vary;
 
         public PageKey(final String uri, final boolean gzip)
+        {
+            this(uri, gzip, null);
+        }
+
+        public PageKey(final String uri, final boolean gzip, final String vary)
         {
             this.uri = uri;
             this.gzip = gzip;
+            this.vary = vary;
         }
 
         @Override
@@ -132,7 +203,7 @@ public class JCacheFilter implements Filter
             }
 
             final PageKey pageKey = PageKey.class.cast(o);
-            return gzip == pageKey.gzip && uri.equals(pageKey.uri);
+            return gzip == pageKey.gzip && uri.equals(pageKey.uri) && Objects.equals(vary, pageKey.vary);
 
         }
 
@@ -141,6 +212,7 @@ public class JCacheFilter implements Filter
         {
             int result = uri.hashCode();
             result = 31 * result + (gzip ? 1 : 0);
+            result = 31 * result + (vary != null ? vary.hashCode() : 0);
             return result;
         }
 
@@ -157,8 +229,22 @@ public class JCacheFilter implements Filter
         }
     }
 
+    // If-None-Match uses the weak comparison
+    private static String weak(final String etag)
+    {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
     private Cache<PageKey, Page> cache;
 
+    // request headers which are part of the page key, from the "vary" init parameter
+    private String[] varyHeaders = new String[0];
+
+    // the Vary response header matching the key composition
+    private String varyHeader = "Accept-Encoding";
+
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
     private CachingProvider provider;
 
     private CacheManager manager;
@@ -197,22 +283,19 @@ public class JCacheFilter implements Filter
         final HttpServletResponse httpServletResponse = HttpServletResponse.class.cast(servletResponse);
         checkResponse(httpServletResponse);
 
-        final PageKey key = new PageKey(key(servletRequest), gzip);
+        final PageKey key = new PageKey(key(servletRequest), gzip, vary(servletRequest));
         Page page = cache.get(key);
         if (page == null)
         {
-            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            final InMemoryResponse response;
-            if (gzip)
-            {
-                response = new InMemoryResponse(httpServletResponse, new GZIPOutputStream(baos));
-            }
-            else
-            {
-                response = new InMemoryResponse(httpServletResponse, baos);
-            }
+            final ChunkedOutputStream chunks = new ChunkedOutputStream(chunkSize);
+            final GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(chunks) : null;
+            final InMemoryResponse response = new InMemoryResponse(httpServletResponse, gzip ? gzipStream : chunks);
             filterChain.doFilter(servletRequest, response);
             response.flushBuffer();
+            if (gzipStream != null)
+            {
+                gzipStream.finish();
+            }
 
             page = new Page(
                     response.getStatus(),
@@ -220,13 +303,21 @@ public class JCacheFilter implements Filter
                     response.getContentLength(),
                     response.getCookies(),
                     response.getHeaders(),
-                    baos.toByteArray());
+                    chunks.toChunks());
             cache.put(key, page);
         }
 
         if (page.status == HttpServletResponse.SC_OK) {
             checkResponse(httpServletResponse);
 
+            if (HttpServletRequest.class.isInstance(servletRequest)
+                    && isNotModified(HttpServletRequest.class.cast(servletRequest), page))
+            {
+                httpServletResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                writeValidators(httpServletResponse, page);
+                return;
+            }
+
             if (gzip)
             {
                 httpServletResponse.setHeader("Content-Encoding", "gzip");
@@ -237,10 +328,6 @@ public class JCacheFilter implements Filter
             {
                 httpServletResponse.setContentType(page.contentType);
             }
-            if (page.contentLength > 0)
-            {
-                httpServletResponse.setContentLength(page.contentLength);
-            }
             for (final Cookie c : page.cookies)
             {
                 httpServletResponse.addCookie(c);
@@ -263,17 +350,16 @@ public class JCacheFilter implements Filter
                     }
                 }
             }
-            httpServletResponse.setContentLength(page.out.length);
-            final BufferedOutputStream bos = new BufferedOutputStream(httpServletResponse.getOutputStream());
-            if (page.out.length != 0)
-            {
-                bos.write(page.out);
-            }
-            else
+            writeValidators(httpServletResponse, page);
+            httpServletResponse.setContentLengthLong(page.length);
+
+            // chunks go straight to the container, there is no intermediate buffer
+            final ServletOutputStream out = httpServletResponse.getOutputStream();
+            for (final byte[] chunk : page.chunks)
             {
-                bos.write(new byte[0]);
+                out.write(chunk);
             }
-            bos.flush();
+            out.flush();
         }
     }
 
@@ -299,6 +385,24 @@ public class JCacheFilter implements Filter
         }
         manager = provider.getCacheManager(URI.create(uri), classLoader, properties);
 
+        final String chunkSizeParameter = filterConfig.getInitParameter("chunk-size");
+        if (chunkSizeParameter != null)
+        {
+            chunkSize = Integer.parseInt(chunkSizeParameter.trim());
+        }
+        final String vary = filterConfig.getInitParameter("vary");
+        if (vary != null)
+        {
+            varyHeaders = Arrays.stream(vary.split(","))
+                    .map(String::trim)
+                    .filter(h -> !h.isEmpty())
+                    .toArray(String[]::new);
+            if (varyHeaders.length > 0)
+            {
+                varyHeader = "Accept-Encoding, " + String.join(", ", varyHeaders);
+            }
+        }
+
         String cacheName = filterConfig.getInitParameter("cache-name");
         if (cacheName == null)
         {
@@ -330,6 +434,43 @@ public class JCacheFilter implements Filter
         }
     }
 
+    // If-None-Match takes precedence over If-Modified-Since (RFC 9110, 13.2.2)
+    protected boolean isNotModified(final HttpServletRequest request, final Page page)
+    {
+        final String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method))
+        {
+            return false;
+        }
+
+        final String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null)
+        {
+            final String etag = weak(page.etag);
+            for (final String candidate : ifNoneMatch.split(","))
+            {
+                final String tag = candidate.trim();
+                if ("*".equals(tag) || weak(tag).equals(etag))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        final long ifModifiedSince;
+        try
+        {
+            ifModifiedSince = request.getDateHeader("If-Modified-Since");
+        }
+        catch (final IllegalArgumentException e)
+        {
+            return false;
+        }
+        // HTTP dates have a one second precision
+        return ifModifiedSince >= 0 && page.lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
     protected String key(final ServletRequest servletRequest)
     {
         if (HttpServletRequest.class.isInstance(servletRequest))
@@ -339,4 +480,35 @@ public class JCacheFilter implements Filter
         }
         return servletRequest.toString();
     }
+
+    protected String vary(final ServletRequest servletRequest)
+    {
+        if (varyHeaders.length == 0 || !HttpServletRequest.class.isInstance(servletRequest))
+        {
+            return null;
+        }
+        final HttpServletRequest request = HttpServletRequest.class.cast(servletRequest);
+        final StringBuilder builder = new StringBuilder();
+        for (final String header : varyHeaders)
+        {
+            builder.append(header).append('=');
+            final Enumeration<String> values = request.getHeaders(header);
+            while (values != null && values.hasMoreElements())
+            {
+                builder.append(values.nextElement()).append(',');
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+    private void writeValidators(final HttpServletResponse response, final Page page)
+    {
+        response.setHeader("ETag", page.etag);
+        response.setDateHeader("Last-Modified", page.lastModified);
+        if (!page.headers.containsKey("Vary"))
+        {
+            response.setHeader("Vary", varyHeader);
+        }
+    }
 }
@@ -19,9 +19,11 @@
 package org.apache.commons.jcs4.jcache.extras.web;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -76,10 +78,13 @@ class JCacheFilterTest
         docBase.deleteOnExit();
     }
 
-    private void addJcsFilter(final Context ctx) {
+    private void addJcsFilter(final Context ctx, final String... initParameters) {
         final FilterDef filterDef = new FilterDef();
         filterDef.setFilterName("jcs");
         filterDef.setFilterClass(JCacheFilter.class.getName());
+        for (int i = 0; i < initParameters.length; i += 2) {
+            filterDef.addInitParameter(initParameters[i], initParameters[i + 1]);
+        }
         ctx.addFilterDef(filterDef);
 
         final FilterMap filterMap = new FilterMap();
@@ -95,6 +100,49 @@ class JCacheFilterTest
         }
     }
 
+    @Test
+    void testConditionalRequest()
+        throws Exception
+    {
+        Hello.COUNTER.set(0);
+        final Tomcat tomcat = new Tomcat();
+        tomcat.setPort(0);
+        try {
+            tomcat.getEngine();
+            tomcat.start();
+            final Context ctx = tomcat.addContext("/sample", docBase.getAbsolutePath());
+            Tomcat.addServlet(ctx, "hello", Hello.class.getName());
+            ctx.addServletMappingDecoded("/", "hello");
+            addJcsFilter(ctx);
+            StandardContext.class.cast(ctx).filterStart();
+
+            final URL url = new URL("http://localhost:" + tomcat.getConnector().getLocalPort() + "/sample/");
+            final HttpURLConnection first = HttpURLConnection.class.cast(url.openConnection());
+            assertEquals("hello", IOUtils.toString(first.getInputStream(), StandardCharsets.UTF_8));
+            final String etag = first.getHeaderField("ETag");
+            assertNotNull(etag);
+            assertNotNull(first.getHeaderField("Last-Modified"));
+
+            final HttpURLConnection matching = HttpURLConnection.class.cast(url.openConnection());
+            matching.setRequestProperty("If-None-Match", etag);
+            assertEquals(HttpURLConnection.HTTP_NOT_MODIFIED, matching.getResponseCode());
+            assertEquals(etag, matching.getHeaderField("ETag"));
+
+            final HttpURLConnection other = HttpURLConnection.class.cast(url.openConnection());
+            other.setRequestProperty("If-None-Match", "\"other\"");
+            assertEquals(HttpURLConnection.HTTP_OK, other.getResponseCode());
+            assertEquals("hello", IOUtils.toString(other.getInputStream(), StandardCharsets.UTF_8));
+
+            final HttpURLConnection modifiedSince = HttpURLConnection.class.cast(url.openConnection());
+            modifiedSince.setIfModifiedSince(System.currentTimeMillis() + 60_000);
+            assertEquals(HttpURLConnection.HTTP_NOT_MODIFIED, modifiedSince.getResponseCode());
+
+            assertEquals(1, Hello.COUNTER.get());
+        } finally {
+            stop(tomcat);
+        }
+    }
+
     @Test
     void testFilter()
         throws Exception
@@ -150,4 +198,33 @@ class JCacheFilterTest
             stop(tomcat);
         }
     }
+
+    @Test
+    void testVary()
+        throws Exception
+    {
+        Hello.COUNTER.set(0);
+        final Tomcat tomcat = new Tomcat();
+        tomcat.setPort(0);
+        try {
+            tomcat.getEngine();
+            tomcat.start();
+            final Context ctx = tomcat.addContext("/sample", docBase.getAbsolutePath());
+            Tomcat.addServlet(ctx, "hello", Hello.class.getName());
+            ctx.addServletMappingDecoded("/", "hello");
+            addJcsFilter(ctx, "vary", "Accept-Language");
+            StandardContext.class.cast(ctx).filterStart();
+
+            final URL url = new URL("http://localhost:" + tomcat.getConnector().getLocalPort() + "/sample/");
+            for (final String language : new String[] { "en", "en", "fr" }) {
+                final HttpURLConnection connection = HttpURLConnection.class.cast(url.openConnection());
+                connection.setRequestProperty("Accept-Language", language);
+                assertEquals("hello", IOUtils.toString(connection.getInputStream(), StandardCharsets.UTF_8));
+                assertEquals("Accept-Encoding, Accept-Language", connection.getHeaderField("Vary"));
+            }
+            assertEquals(2, Hello.COUNTER.get());
+        } finally {
+            stop(tomcat);
+        }
+    }
 }
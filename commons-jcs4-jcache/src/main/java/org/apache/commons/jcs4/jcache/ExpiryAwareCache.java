@@ -18,6 +18,7 @@
  */
 package org.apache.commons.jcs4.jcache;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.Map;
 
@@ -52,6 +53,12 @@ public class ExpiryAwareCache<A, B> extends CompositeCache<A, B>
         }
     }
 
+    // replaces the element in memory only, an access is no reason to write to the auxiliaries
+    void touch(final ICacheElement<A, B> element) throws IOException
+    {
+        getMemoryCache().update(element);
+    }
+
     void init(final Cache<A, B> cache, final Map<CacheEntryListenerConfiguration<A, B>, JCSListener<A, B>> listeners)
     {
         this.cacheRef = cache;
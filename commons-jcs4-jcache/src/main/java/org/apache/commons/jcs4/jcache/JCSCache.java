@@ -24,17 +24,24 @@ import static org.apache.commons.jcs4.jcache.serialization.Serializations.copy;
 import java.io.Closeable;
 import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.cache.Cache;
 import javax.cache.CacheException;
@@ -42,6 +49,7 @@ import javax.cache.CacheManager;
 import javax.cache.configuration.CacheEntryListenerConfiguration;
 import javax.cache.configuration.Configuration;
 import javax.cache.configuration.Factory;
+import javax.cache.event.CacheEntryEvent;
 import javax.cache.event.EventType;
 import javax.cache.expiry.Duration;
 import javax.cache.expiry.EternalExpiryPolicy;
@@ -94,6 +102,10 @@ public class JCSCache<K, V> implements Cache<K, V>
         }
         throw new EntryProcessorException(ex);
     }
+    // set while an entry processor runs, a nested invokeAll runs inline: the processor holds a
+    // stripe lock, and a pool thread needing that stripe would wait for it forever
+    private static final ThreadLocal<Boolean> IN_INVOKE = new ThreadLocal<>();
+
     private final ExpiryAwareCache<K, V> delegate;
     private final JCSCachingManager manager;
     private final JCSConfiguration<K, V> config;
@@ -111,6 +123,17 @@ public class JCSCache<K, V> implements Cache<K, V>
 
     private final ExecutorService pool;
 
+    // runs the partitions of invokeAll, shared by the caches of the manager, null to run them on the caller thread
+    private final ExecutorService invokePool;
+
+    // invoke() holds the lock of the stripe of its key while the processor runs
+    private final ReentrantLock[] invokeLocks;
+
+    // asynchronous listeners get a bounded queue and a dispatcher thread each
+    private final int listenerQueueSize;
+    private final int listenerBatchSize;
+    private final ThreadFactory listenerThreadFactory;
+
     private final IElementSerializer serializer; // using json/xml should work as well -> don't force Serializable
 
     @SuppressWarnings("unchecked")
@@ -135,6 +158,25 @@ public class JCSCache<K, V> implements Cache<K, V>
         final DaemonThreadFactory threadFactory = new DaemonThreadFactory("JCS-JCache-" + cacheName + "-");
         pool = poolSize > 0 ? Executors.newFixedThreadPool(poolSize, threadFactory) : Executors.newCachedThreadPool(threadFactory);
 
+        final int stripes = Math.max(1, Integer.parseInt(property(properties, cacheName, "invoke.lock.stripes", "64")));
+        int stripeCount = 1;
+        while (stripeCount < stripes)
+        {
+            stripeCount <<= 1;
+        }
+        invokeLocks = new ReentrantLock[stripeCount];
+        for (int i = 0; i < invokeLocks.length; i++)
+        {
+            invokeLocks[i] = new ReentrantLock();
+        }
+        invokePool = mgr.getInvokePool();
+
+        listenerQueueSize = Integer.parseInt(property(properties, cacheName, "listener.queue.size",
+                Integer.toString(JCSListener.DEFAULT_QUEUE_SIZE)));
+        listenerBatchSize = Integer.parseInt(property(properties, cacheName, "listener.batch.size",
+                Integer.toString(JCSListener.DEFAULT_BATCH_SIZE)));
+        listenerThreadFactory = new DaemonThreadFactory("JCS-JCache-listener-" + cacheName + "-");
+
         try
         {
             serializer = (IElementSerializer) classLoader.loadClass(property(properties, "serializer", cacheName, StandardSerializer.class.getName())).getDeclaredConstructor().newInstance();
@@ -178,7 +220,7 @@ public class JCSCache<K, V> implements Cache<K, V>
 
         for (final CacheEntryListenerConfiguration<K, V> listener : config.getCacheEntryListenerConfigurations())
         {
-            listeners.put(listener, new JCSListener<>(listener));
+            listeners.put(listener, newListener(listener));
         }
         delegate.init(this, listeners);
 
@@ -240,7 +282,6 @@ public class JCSCache<K, V> implements Cache<K, V>
         for (final Runnable task : pool.shutdownNow()) {
             task.run();
         }
-
         manager.release(getName());
         closed = true;
         close(loader);
@@ -248,7 +289,7 @@ public class JCSCache<K, V> implements Cache<K, V>
         close(expiryPolicy);
         for (final JCSListener<K, V> listener : listeners.values())
         {
-            close(listener);
+            listener.close();
         }
         listeners.clear();
         JMXs.unregister(cacheConfigObjectName);
@@ -275,7 +316,11 @@ public class JCSCache<K, V> implements Cache<K, V>
     public void deregisterCacheEntryListener(final CacheEntryListenerConfiguration<K, V> cacheEntryListenerConfiguration)
     {
         assertNotClosed();
-        listeners.remove(cacheEntryListenerConfiguration);
+        final JCSListener<K, V> listener = listeners.remove(cacheEntryListenerConfiguration);
+        if (listener != null)
+        {
+            listener.close();
+        }
         config.removeListener(cacheEntryListenerConfiguration);
     }
 
@@ -324,16 +369,9 @@ public class JCSCache<K, V> implements Cache<K, V>
             {
                 forceExpires(key);
             }
-            else if (expiryForAccess != null && (!elt.elementAttributes().IsEternal() || !expiryForAccess.isEternal()))
+            else if (expiryForAccess != null)
             {
-                try
-                {
-                    delegate.update(updateElement(key, elt.value(), expiryForAccess, elt.elementAttributes()));
-                }
-                catch (final IOException e)
-                {
-                    throw new CacheException(e);
-                }
+                touch(elt, expiryForAccess);
             }
         }
         if (statisticsEnabled && v != null)
@@ -386,41 +424,56 @@ public class JCSCache<K, V> implements Cache<K, V>
         }
         if (v != null)
         {
-            final Duration duration = update ? expiryPolicy.getExpiryForUpdate() : expiryPolicy.getExpiryForCreation();
-            if (isNotZero(duration))
+            storeLoaded(key, v, update);
+        }
+        return v;
+    }
+
+    // loads the keys with one call to the loader and stores the values found
+    private Map<K, V> doLoadAll(final Set<K> keys, final Set<K> existing, final boolean propagateLoadException)
+    {
+        Map<K, V> loaded = Collections.emptyMap();
+        try
+        {
+            loaded = loader.loadAll(keys);
+        }
+        catch (final CacheLoaderException e)
+        {
+            if (propagateLoadException)
             {
-                final IElementAttributes clone = new ElementAttributes(delegate.getElementAttributes());
-                final ICacheElement<K, V> element = updateElement(key, v, duration, clone);
-                try
-                {
-                    delegate.update(element);
-                }
-                catch (final IOException e)
-                {
-                    throw new CacheException(e);
-                }
+                throw e;
             }
         }
-        return v;
+
+        final Map<K, V> values = new HashMap<>();
+        if (loaded == null)
+        {
+            return values;
+        }
+        for (final Map.Entry<K, V> entry : loaded.entrySet())
+        {
+            if (entry.getKey() != null && entry.getValue() != null)
+            {
+                storeLoaded(entry.getKey(), entry.getValue(), existing.contains(entry.getKey()));
+                values.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return values;
     }
 
     private void doLoadAll(final Set<? extends K> keys, final boolean replaceExistingValues, final CompletionListener completionListener)
     {
         try
         {
-            final Instant now = Instant.now();
-            for (final K k : keys)
+            final Set<K> toLoad = new HashSet<>(keys);
+            final Set<K> existing = delegate.getMultiple(toLoad).keySet();
+            if (!replaceExistingValues)
             {
-                if (replaceExistingValues)
-                {
-                    doLoad(k, containsKey(k), completionListener != null);
-                    continue;
-                }
-                if (containsKey(k))
-                {
-                    continue;
-                }
-                doGetControllingExpiry(now, k, true, true, false, completionListener != null);
+                toLoad.removeAll(existing);
+            }
+            if (!toLoad.isEmpty())
+            {
+                doLoadAll(toLoad, existing, completionListener != null);
             }
         }
         catch (final RuntimeException e)
@@ -437,6 +490,24 @@ public class JCSCache<K, V> implements Cache<K, V>
         }
     }
 
+    private void storeLoaded(final K key, final V v, final boolean update)
+    {
+        final Duration duration = update ? expiryPolicy.getExpiryForUpdate() : expiryPolicy.getExpiryForCreation();
+        if (isNotZero(duration))
+        {
+            final IElementAttributes clone = new ElementAttributes(delegate.getElementAttributes());
+            final ICacheElement<K, V> element = updateElement(key, v, duration, clone);
+            try
+            {
+                delegate.update(element);
+            }
+            catch (final IOException e)
+            {
+                throw new CacheException(e);
+            }
+        }
+    }
+
     public void enableManagement()
     {
         config.managementEnabled();
@@ -479,34 +550,37 @@ public class JCSCache<K, V> implements Cache<K, V>
         }
 
         final Map<K, V> result = new HashMap<>();
+        final Map<K, ICacheElement<K, V>> elements = delegate.getMultiple(new HashSet<>(keys));
+        final Set<K> missing = new HashSet<>();
         for (final K key : keys)
         {
-            assertNotNull(key, "key");
+            final ICacheElement<K, V> elt = elements.get(key);
+            final V val = elt != null ? elt.value() : null;
+            if (val == null)
+            {
+                missing.add(key);
+                continue;
+            }
 
-            final ICacheElement<K, V> elt = delegate.get(key);
-            V val = elt != null ? elt.value() : null;
-            if (val == null && config.isReadThrough())
+            final Duration expiryForAccess = expiryPolicy.getExpiryForAccess();
+            if (isNotZero(expiryForAccess))
             {
-                val = doLoad(key, false, false);
-                if (val != null)
+                if (expiryForAccess != null)
                 {
-                    result.put(key, val);
+                    touch(elt, expiryForAccess);
                 }
+                result.put(key, val);
             }
-            else if (elt != null)
+            else
             {
-                final Duration expiryForAccess = expiryPolicy.getExpiryForAccess();
-                if (isNotZero(expiryForAccess))
-                {
-                    touch(key, elt);
-                    result.put(key, val);
-                }
-                else
-                {
-                    forceExpires(key);
-                }
+                forceExpires(key);
             }
         }
+
+        if (!missing.isEmpty() && config.isReadThrough())
+        {
+            result.putAll(doLoadAll(missing, Collections.emptySet(), false));
+        }
         return result;
     }
 
@@ -588,40 +662,135 @@ public class JCSCache<K, V> implements Cache<K, V>
         return statistics;
     }
 
+    /**
+     * Runs the processor while holding the lock of the stripe of the key, so that concurrent
+     * invocations for the same key are applied one after the other. Other operations on the key do
+     * not take the lock.
+     */
     @Override
     public <T> T invoke(final K key, final EntryProcessor<K, V, T> entryProcessor, final Object... arguments) throws EntryProcessorException
     {
-        final TempStateCacheView<K, V> view = new TempStateCacheView<>(this);
-        final T t = doInvoke(view, key, entryProcessor, arguments);
-        view.merge();
-        return t;
+        assertNotClosed();
+        assertNotNull(entryProcessor, "entryProcessor");
+        assertNotNull(key, "key");
+
+        final ReentrantLock lock = invokeLocks[stripe(key)];
+        final boolean nested = IN_INVOKE.get() != null;
+        lock.lock();
+        try
+        {
+            if (!nested)
+            {
+                IN_INVOKE.set(Boolean.TRUE);
+            }
+            final TempStateCacheView<K, V> view = new TempStateCacheView<>(this);
+            final T t = doInvoke(view, key, entryProcessor, arguments);
+            view.merge();
+            return t;
+        }
+        finally
+        {
+            if (!nested)
+            {
+                IN_INVOKE.remove();
+            }
+            lock.unlock();
+        }
     }
 
+    /**
+     * Splits the keys into partitions by lock stripe and runs the partitions in parallel on the
+     * invoke pool. Keys of the same stripe are processed by the same task, so the tasks do not
+     * wait for each other. An invokeAll called from an entry processor runs on the calling thread.
+     */
     @Override
     public <T> Map<K, EntryProcessorResult<T>> invokeAll(final Set<? extends K> keys, final EntryProcessor<K, V, T> entryProcessor,
             final Object... arguments)
     {
         assertNotClosed();
         assertNotNull(entryProcessor, "entryProcessor");
-        final Map<K, EntryProcessorResult<T>> results = new HashMap<>();
+        assertNotNull(keys, "keys");
+        for (final K k : keys)
+        {
+            assertNotNull(k, "key");
+        }
+
+        final Map<K, EntryProcessorResult<T>> results = new ConcurrentHashMap<>();
+        if (invokePool == null || keys.size() < 2 || IN_INVOKE.get() != null)
+        {
+            for (final K k : keys)
+            {
+                invokeInto(results, k, entryProcessor, arguments);
+            }
+            return results;
+        }
+
+        final int partitionCount = Math.min(keys.size(), invokeLocks.length);
+        final List<List<K>> partitions = new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++)
+        {
+            partitions.add(new ArrayList<>());
+        }
         for (final K k : keys)
+        {
+            partitions.get(stripe(k) % partitionCount).add(k);
+        }
+
+        final List<Future<?>> futures = new ArrayList<>(partitionCount);
+        for (final List<K> partition : partitions)
+        {
+            if (!partition.isEmpty())
+            {
+                futures.add(invokePool.submit(() -> {
+                    for (final K k : partition)
+                    {
+                        invokeInto(results, k, entryProcessor, arguments);
+                    }
+                }));
+            }
+        }
+        for (final Future<?> future : futures)
         {
             try
             {
-                final T invoke = invoke(k, entryProcessor, arguments);
-                if (invoke != null)
-                {
-                    results.put(k, () -> invoke);
-                }
+                future.get();
+            }
+            catch (final InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new CacheException(e);
             }
-            catch (final Exception e)
+            catch (final ExecutionException e)
             {
-                results.put(k, () -> throwEntryProcessorException(e));
+                throw new CacheException(e.getCause());
             }
         }
         return results;
     }
 
+    private <T> void invokeInto(final Map<K, EntryProcessorResult<T>> results, final K key,
+            final EntryProcessor<K, V, T> entryProcessor, final Object... arguments)
+    {
+        try
+        {
+            final T invoke = invoke(key, entryProcessor, arguments);
+            if (invoke != null)
+            {
+                results.put(key, () -> invoke);
+            }
+        }
+        catch (final Exception e)
+        {
+            results.put(key, () -> throwEntryProcessorException(e));
+        }
+    }
+
+    private int stripe(final K key)
+    {
+        final int h = key.hashCode();
+        return (h ^ h >>> 16) & invokeLocks.length - 1;
+    }
+
     @Override
     public boolean isClosed()
     {
@@ -681,7 +850,71 @@ public class JCSCache<K, V> implements Cache<K, V>
         assertNotNull(key, "key");
         assertNotNull(rawValue, "value");
 
-        final ICacheElement<K, V> oldElt = delegate.get(key);
+        final JCSCacheEntryEvent<K, V> event = doPut(key, rawValue, delegate.get(key), true);
+        if (event != null)
+        {
+            notifyPut(Collections.singletonList(event));
+        }
+    }
+
+    @Override
+    public void putAll(final Map<? extends K, ? extends V> map)
+    {
+        assertNotClosed();
+        assertNotNull(map, "map");
+        for (final Map.Entry<? extends K, ? extends V> e : map.entrySet())
+        {
+            assertNotNull(e.getKey(), "key");
+            assertNotNull(e.getValue(), "value");
+        }
+
+        // write through once, entries the writer failed on are not put
+        final Collection<Cache.Entry<? extends K, ? extends V>> unwritten = new ArrayList<>(map.size());
+        for (final Map.Entry<? extends K, ? extends V> e : map.entrySet())
+        {
+            unwritten.add(new JCSEntry<>(e.getKey(), e.getValue()));
+        }
+        CacheWriterException writeFailure = null;
+        try
+        {
+            @SuppressWarnings("unchecked")
+            final CacheWriter<K, V> entryWriter = (CacheWriter<K, V>) writer;
+            entryWriter.writeAll(unwritten);
+            unwritten.clear();
+        }
+        catch (final CacheWriterException e)
+        {
+            writeFailure = e;
+        }
+        final Set<K> failed = new HashSet<>();
+        for (final Cache.Entry<? extends K, ? extends V> e : unwritten)
+        {
+            failed.add(e.getKey());
+        }
+
+        final Set<K> keys = new HashSet<>(map.keySet());
+        keys.removeAll(failed);
+        final Map<K, ICacheElement<K, V>> oldElements = delegate.getMultiple(keys);
+        final List<JCSCacheEntryEvent<K, V>> events = new ArrayList<>(keys.size());
+        for (final K key : keys)
+        {
+            final JCSCacheEntryEvent<K, V> event = doPut(key, map.get(key), oldElements.get(key), false);
+            if (event != null)
+            {
+                events.add(event);
+            }
+        }
+        notifyPut(events);
+
+        if (writeFailure != null)
+        {
+            throw writeFailure;
+        }
+    }
+
+    // puts one entry and returns the event to send, writes through only if asked to
+    private JCSCacheEntryEvent<K, V> doPut(final K key, final V rawValue, final ICacheElement<K, V> oldElt, final boolean write)
+    {
         final V old = oldElt != null ? oldElt.value() : null;
 
         final boolean storeByValue = config.isStoreByValue();
@@ -723,7 +956,10 @@ public class JCSCache<K, V> implements Cache<K, V>
             final ICacheElement<K, V> element = updateElement(
                     jcsKey, value, created ? null : duration, attributes);
 
-            writer.write(new JCSEntry<>(jcsKey, value));
+            if (write)
+            {
+                writer.write(new JCSEntry<>(jcsKey, value));
+            }
             try
             {
                 delegate.update(element);
@@ -732,41 +968,49 @@ public class JCSCache<K, V> implements Cache<K, V>
             {
                 throw new CacheException(e);
             }
-            for (final JCSListener<K, V> listener : listeners.values())
-            {
-                if (created)
-                {
-                    listener.onCreated(Collections.singletonList(new JCSCacheEntryEvent<>(this,
-                            EventType.CREATED, null, key, value)));
-                }
-                else
-                {
-                    listener.onUpdated(Collections.singletonList(new JCSCacheEntryEvent<>(this,
-                            EventType.UPDATED, old, key, value)));
-                }
-            }
-
             if (statisticsEnabled)
             {
                 statistics.incrementPuts();
                 statistics.addPutTime(java.time.Duration.between(start, Instant.now()));
             }
-        } else if (!created)
+            return created ? new JCSCacheEntryEvent<>(this, EventType.CREATED, null, key, value)
+                : new JCSCacheEntryEvent<>(this, EventType.UPDATED, old, key, value);
+        }
+        if (!created)
         {
             forceExpires(key);
         }
+        return null;
     }
 
-    @Override
-    public void putAll(final Map<? extends K, ? extends V> map)
+    private JCSListener<K, V> newListener(final CacheEntryListenerConfiguration<K, V> listener)
     {
-        assertNotClosed();
-        final TempStateCacheView<K, V> view = new TempStateCacheView<>(this);
-        for (final Map.Entry<? extends K, ? extends V> e : map.entrySet())
+        return new JCSListener<>(listener, statistics, listenerQueueSize, listenerBatchSize, listenerThreadFactory);
+    }
+
+    private void notifyPut(final List<JCSCacheEntryEvent<K, V>> events)
+    {
+        if (events.isEmpty() || listeners.isEmpty())
         {
-            view.put(e.getKey(), e.getValue());
+            return;
+        }
+        final List<CacheEntryEvent<? extends K, ? extends V>> created = new ArrayList<>();
+        final List<CacheEntryEvent<? extends K, ? extends V>> updated = new ArrayList<>();
+        for (final JCSCacheEntryEvent<K, V> event : events)
+        {
+            (event.getEventType() == EventType.CREATED ? created : updated).add(event);
+        }
+        for (final JCSListener<K, V> listener : listeners.values())
+        {
+            if (!created.isEmpty())
+            {
+                listener.onCreated(created);
+            }
+            if (!updated.isEmpty())
+            {
+                listener.onUpdated(updated);
+            }
         }
-        view.merge();
     }
 
     @Override
@@ -788,7 +1032,7 @@ public class JCSCache<K, V> implements Cache<K, V>
         {
             throw new IllegalArgumentException(cacheEntryListenerConfiguration + " already registered");
         }
-        listeners.put(cacheEntryListenerConfiguration, new JCSListener<>(cacheEntryListenerConfiguration));
+        listeners.put(cacheEntryListenerConfiguration, newListener(cacheEntryListenerConfiguration));
         config.addListener(cacheEntryListenerConfiguration);
     }
 
@@ -845,10 +1089,7 @@ public class JCSCache<K, V> implements Cache<K, V>
     public void removeAll()
     {
         assertNotClosed();
-        for (final K k : delegate.getKeySet())
-        {
-            remove(k);
-        }
+        removeAll(new HashSet<>(delegate.getKeySet()));
     }
 
     @Override
@@ -858,7 +1099,55 @@ public class JCSCache<K, V> implements Cache<K, V>
         assertNotNull(keys, "keys");
         for (final K k : keys)
         {
-            remove(k);
+            assertNotNull(k, "key");
+        }
+
+        final boolean statisticsEnabled = config.isStatisticsEnabled();
+        final Instant start = Instant.now();
+
+        // delete through once, keys the writer failed on are kept
+        final Collection<K> undeleted = new HashSet<>(keys);
+        CacheWriterException writeFailure = null;
+        try
+        {
+            writer.deleteAll(undeleted);
+            undeleted.clear();
+        }
+        catch (final CacheWriterException e)
+        {
+            writeFailure = e;
+        }
+
+        final Set<K> toRemove = new HashSet<>(keys);
+        toRemove.removeAll(undeleted);
+        final Map<K, ICacheElement<K, V>> elements = delegate.getMultiple(toRemove);
+        final List<CacheEntryEvent<? extends K, ? extends V>> events = new ArrayList<>(toRemove.size());
+        for (final K key : toRemove)
+        {
+            delegate.remove(key);
+            final ICacheElement<K, V> v = elements.get(key);
+            events.add(new JCSCacheEntryEvent<>(this, EventType.REMOVED, null, key, v != null ? v.value() : null));
+        }
+        if (!events.isEmpty())
+        {
+            for (final JCSListener<K, V> listener : listeners.values())
+            {
+                listener.onRemoved(events);
+            }
+        }
+        if (statisticsEnabled && !elements.isEmpty())
+        {
+            final java.time.Duration time = java.time.Duration.between(start, Instant.now()).dividedBy(elements.size());
+            for (int i = 0; i < elements.size(); i++)
+            {
+                statistics.incrementRemovals();
+                statistics.addRemoveTime(time);
+            }
+        }
+
+        if (writeFailure != null)
+        {
+            throw writeFailure;
         }
     }
 
@@ -913,16 +1202,9 @@ public class JCSCache<K, V> implements Cache<K, V>
             if (value != null)
             {
                 final Duration expiryForAccess = expiryPolicy.getExpiryForAccess();
-                if (expiryForAccess != null && (!elt.elementAttributes().IsEternal() || !expiryForAccess.isEternal()))
+                if (expiryForAccess != null)
                 {
-                    try
-                    {
-                        delegate.update(updateElement(key, elt.value(), expiryForAccess, elt.elementAttributes()));
-                    }
-                    catch (final IOException e)
-                    {
-                        throw new CacheException(e);
-                    }
+                    touch(elt, expiryForAccess);
                 }
             }
         }
@@ -933,19 +1215,49 @@ public class JCSCache<K, V> implements Cache<K, V>
         return false;
     }
 
-    private void touch(final K key, final ICacheElement<K, V> element)
+    /**
+     * Applies the expiry for access to an entry that was read. From now on the entry expires when
+     * it is not accessed for the duration, which JCS calls the max idle time.
+     * <p>
+     * If the entry already expires that way, only its last access time is set, in place. Otherwise
+     * the attributes are replaced, but in memory only and with the stored key and value, so that
+     * reads neither copy nor write to the auxiliaries.
+     */
+    private void touch(final ICacheElement<K, V> element, final Duration expiryForAccess)
     {
-        if (config.isStoreByValue())
+        final IElementAttributes attributes = element.elementAttributes();
+        final boolean eternal = expiryForAccess.isEternal();
+        final java.time.Duration maxIdleTime = eternal ? attributes.MaxIdleTime()
+                : java.time.Duration.of(expiryForAccess.getDurationAmount(), expiryForAccess.getTimeUnit().toChronoUnit());
+        if (eternal && attributes.IsEternal())
         {
-            final K copy = copy(serializer, manager.getClassLoader(), key);
-            try
-            {
-                delegate.update(new CacheElement<>(name, copy, element.value(), element.elementAttributes()));
-            }
-            catch (final IOException e)
-            {
-                throw new CacheException(e);
-            }
+            return;
+        }
+        if (!eternal && !attributes.IsEternal() && attributes.MaxLife().isNegative()
+                && attributes.MaxIdleTime().equals(maxIdleTime))
+        {
+            attributes.setLastAccessTimeNow();
+            return;
+        }
+
+        final IElementAttributes newAttributes = new ElementAttributes(
+                attributes.IsSpool(),
+                attributes.IsLateral(),
+                attributes.IsRemote(),
+                eternal,
+                eternal ? attributes.MaxLife() : java.time.Duration.ofMillis(-1),
+                maxIdleTime);
+        if (attributes.elementEventHandlers() != null)
+        {
+            attributes.elementEventHandlers().forEach(newAttributes::addElementEventHandler);
+        }
+        try
+        {
+            delegate.touch(new CacheElement<>(name, element.key(), element.value(), newAttributes));
+        }
+        catch (final IOException e)
+        {
+            throw new CacheException(e);
         }
     }
 
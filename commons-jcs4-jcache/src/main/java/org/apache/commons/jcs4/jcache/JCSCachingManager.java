@@ -31,6 +31,8 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.cache.Cache;
 import javax.cache.CacheManager;
@@ -44,6 +46,7 @@ import org.apache.commons.jcs4.engine.control.CompositeCacheConfigurator;
 import org.apache.commons.jcs4.engine.control.CompositeCacheManager;
 import org.apache.commons.jcs4.jcache.lang.Substitutor;
 import org.apache.commons.jcs4.jcache.proxy.ClassLoaderAwareCache;
+import org.apache.commons.jcs4.jcache.thread.DaemonThreadFactory;
 
 public class JCSCachingManager implements CacheManager
 {
@@ -151,6 +154,9 @@ public class JCSCachingManager implements CacheManager
     private final ConcurrentMap<String, Cache<?, ?>> caches = new ConcurrentHashMap<>();
     private final Properties configProperties;
 
+    // runs the partitions of invokeAll for all caches, null to run them on the caller thread
+    private final ExecutorService invokePool;
+
     private volatile boolean closed;
 
     private final InternalManager delegate = InternalManager.create();
@@ -170,6 +176,12 @@ public class JCSCachingManager implements CacheManager
                 + ",properties=" + this.properties.hashCode());
         delegate.initialize();
         delegate.configure(this.properties);
+
+        final int invokePoolSize = Integer.parseInt(this.properties.getProperty("invoke.pool.size",
+                Integer.toString(Runtime.getRuntime().availableProcessors())));
+        invokePool = invokePoolSize > 1
+                ? Executors.newFixedThreadPool(invokePoolSize, new DaemonThreadFactory("JCS-JCache-invoke-"))
+                : null;
     }
 
     private void assertNotClosed()
@@ -195,6 +207,10 @@ public class JCSCachingManager implements CacheManager
         }
         caches.clear();
         closed = true;
+        if (invokePool != null)
+        {
+            invokePool.shutdownNow();
+        }
         if (JCSCachingProvider.class.isInstance(provider))
         {
             JCSCachingProvider.class.cast(provider).remove(this);
@@ -348,6 +364,11 @@ public class JCSCachingManager implements CacheManager
         return JCSCache.class.cast(ClassLoaderAwareCache.getDelegate(cache));
     }
 
+    ExecutorService getInvokePool()
+    {
+        return invokePool;
+    }
+
     @Override
     public Properties getProperties()
     {
@@ -19,7 +19,13 @@
 package org.apache.commons.jcs4.jcache;
 
 import java.io.Closeable;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.cache.configuration.CacheEntryListenerConfiguration;
 import javax.cache.configuration.Factory;
@@ -31,11 +37,23 @@ import javax.cache.event.CacheEntryListener;
 import javax.cache.event.CacheEntryListenerException;
 import javax.cache.event.CacheEntryRemovedListener;
 import javax.cache.event.CacheEntryUpdatedListener;
+import javax.cache.event.EventType;
+
+import org.apache.commons.jcs4.jcache.thread.DaemonThreadFactory;
 
 public class JCSListener<K, V> implements Closeable
 {
+    private static final Logger LOGGER = Logger.getLogger(JCSListener.class.getName());
+
+    public static final int DEFAULT_QUEUE_SIZE = 1024;
+    public static final int DEFAULT_BATCH_SIZE = 128;
+
+    // expired events are fired as REMOVED events so the callback is kept next to the event
+    private record PendingEvent<K, V>(EventType callback, CacheEntryEvent<? extends K, ? extends V> event)
+    {
+    }
+
 //    private final boolean oldValue;
-//    private final boolean synchronous;
     private final CacheEntryEventFilter<? super K, ? super V> filter;
     private final CacheEntryListener<? super K, ? super V> delegate;
     private final boolean remove;
@@ -43,10 +61,34 @@ public class JCSListener<K, V> implements Closeable
     private final boolean update;
     private final boolean create;
 
+    // null for synchronous listeners, they are called on the mutating thread
+    private final BlockingQueue<PendingEvent<K, V>> queue;
+    private final Thread dispatcher;
+    private final int batchSize;
+    private final Statistics statistics;
+    private volatile boolean closed;
+
     public JCSListener(final CacheEntryListenerConfiguration<K, V> cacheEntryListenerConfiguration)
     {
+        this(cacheEntryListenerConfiguration, new Statistics(), DEFAULT_QUEUE_SIZE, DEFAULT_BATCH_SIZE,
+                new DaemonThreadFactory("JCS-JCache-listener-"));
+    }
+
+    /**
+     * Asynchronous listeners get a bounded queue drained by a single thread, so the events of a key
+     * are delivered in the order of the mutations. Events are dropped when the queue is full.
+     *
+     * @param cacheEntryListenerConfiguration the listener configuration
+     * @param statistics receives the queue depth and the dropped events
+     * @param queueSize capacity of the queue, 0 or less delivers all events synchronously
+     * @param batchSize maximum number of events handed to the listener in one call
+     * @param threadFactory creates the dispatcher thread
+     */
+    public JCSListener(final CacheEntryListenerConfiguration<K, V> cacheEntryListenerConfiguration,
+                       final Statistics statistics, final int queueSize, final int batchSize,
+                       final ThreadFactory threadFactory)
+    {
 //        oldValue = cacheEntryListenerConfiguration.isOldValueRequired();
-//        synchronous = cacheEntryListenerConfiguration.isSynchronous();
 
         final Factory<CacheEntryEventFilter<? super K, ? super V>> filterFactory = cacheEntryListenerConfiguration
                 .getCacheEntryEventFilterFactory();
@@ -64,17 +106,92 @@ public class JCSListener<K, V> implements Closeable
         expire = CacheEntryExpiredListener.class.isInstance(delegate);
         update = CacheEntryUpdatedListener.class.isInstance(delegate);
         create = CacheEntryCreatedListener.class.isInstance(delegate);
+
+        this.statistics = statistics;
+        this.batchSize = Math.max(1, batchSize);
+        if (cacheEntryListenerConfiguration.isSynchronous() || queueSize <= 0)
+        {
+            queue = null;
+            dispatcher = null;
+        }
+        else
+        {
+            queue = new ArrayBlockingQueue<>(queueSize);
+            dispatcher = threadFactory.newThread(this::dispatch);
+            dispatcher.start();
+        }
     }
 
     @Override
     public void close()
     {
+        closed = true;
+        if (dispatcher != null)
+        {
+            // the dispatcher delivers what is still queued and stops
+            dispatcher.interrupt();
+        }
         if (Closeable.class.isInstance(delegate))
         {
             Closeable.class.cast(delegate);
         }
     }
 
+    private void dispatch()
+    {
+        final List<PendingEvent<K, V>> batch = new ArrayList<>(batchSize);
+        while (true)
+        {
+            batch.clear();
+            if (closed)
+            {
+                queue.drainTo(batch, batchSize);
+                if (batch.isEmpty())
+                {
+                    return;
+                }
+            }
+            else
+            {
+                try
+                {
+                    batch.add(queue.take());
+                }
+                catch (final InterruptedException e)
+                {
+                    continue; // close() was called, drain the queue
+                }
+                queue.drainTo(batch, batchSize - 1);
+            }
+            statistics.addListenerQueueDepth(-batch.size());
+
+            // consecutive events of the same type are delivered together
+            int start = 0;
+            for (int i = 1; i <= batch.size(); i++)
+            {
+                final EventType callback = batch.get(start).callback();
+                if (i < batch.size() && batch.get(i).callback() == callback)
+                {
+                    continue;
+                }
+                final List<CacheEntryEvent<? extends K, ? extends V>> events = new ArrayList<>(i - start);
+                for (int j = start; j < i; j++)
+                {
+                    events.add(batch.get(j).event());
+                }
+                try
+                {
+                    fire(callback, events);
+                }
+                catch (final RuntimeException e)
+                {
+                    LOGGER.log(Level.WARNING, "Asynchronous listener " + delegate + " failed", e);
+                }
+                start = i;
+            }
+        }
+    }
+
     private Iterable<CacheEntryEvent<? extends K, ? extends V>> filter(final List<CacheEntryEvent<? extends K, ? extends V>> events)
     {
         if (filter == NoFilter.INSTANCE)
@@ -86,38 +203,73 @@ public class JCSListener<K, V> implements Closeable
     }
 
     @SuppressWarnings("unchecked")
+    private void fire(final EventType callback, final List<CacheEntryEvent<? extends K, ? extends V>> events)
+    {
+        switch (callback)
+        {
+            case CREATED:
+                CacheEntryCreatedListener.class.cast(delegate).onCreated(filter(events));
+                break;
+            case UPDATED:
+                CacheEntryUpdatedListener.class.cast(delegate).onUpdated(filter(events));
+                break;
+            case REMOVED:
+                CacheEntryRemovedListener.class.cast(delegate).onRemoved(filter(events));
+                break;
+            default:
+                CacheEntryExpiredListener.class.cast(delegate).onExpired(filter(events));
+                break;
+        }
+    }
+
     public void onCreated(final List<CacheEntryEvent<? extends K, ? extends V>> events) throws CacheEntryListenerException
     {
         if (create)
         {
-            CacheEntryCreatedListener.class.cast(delegate).onCreated(filter(events));
+            publish(EventType.CREATED, events);
         }
     }
 
-    @SuppressWarnings("unchecked")
     public void onExpired(final List<CacheEntryEvent<? extends K, ? extends V>> events) throws CacheEntryListenerException
     {
         if (expire)
         {
-            CacheEntryExpiredListener.class.cast(delegate).onExpired(filter(events));
+            publish(EventType.EXPIRED, events);
         }
     }
 
-    @SuppressWarnings("unchecked")
     public void onRemoved(final List<CacheEntryEvent<? extends K, ? extends V>> events) throws CacheEntryListenerException
     {
         if (remove)
         {
-            CacheEntryRemovedListener.class.cast(delegate).onRemoved(filter(events));
+            publish(EventType.REMOVED, events);
         }
     }
 
-    @SuppressWarnings("unchecked")
     public void onUpdated(final List<CacheEntryEvent<? extends K, ? extends V>> events) throws CacheEntryListenerException
     {
         if (update)
         {
-            CacheEntryUpdatedListener.class.cast(delegate).onUpdated(filter(events));
+            publish(EventType.UPDATED, events);
+        }
+    }
+
+    private void publish(final EventType callback, final List<CacheEntryEvent<? extends K, ? extends V>> events)
+    {
+        if (queue == null)
+        {
+            fire(callback, events);
+            return;
+        }
+        for (final CacheEntryEvent<? extends K, ? extends V> event : events)
+        {
+            // counted before the offer so the dispatcher never makes the depth negative
+            statistics.addListenerQueueDepth(1);
+            if (closed || !queue.offer(new PendingEvent<>(callback, event)))
+            {
+                statistics.addListenerQueueDepth(-1);
+                statistics.incrementListenerEventsDropped();
+            }
         }
     }
 }
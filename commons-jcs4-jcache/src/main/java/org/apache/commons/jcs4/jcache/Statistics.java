@@ -35,6 +35,9 @@ public class Statistics
     private final AtomicLong hits = new AtomicLong();
     private final AtomicLong misses = new AtomicLong();
     private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong listenerEventsDropped = new AtomicLong();
+    // a gauge, tracked even when the statistics are disabled
+    private final AtomicLong listenerQueueDepth = new AtomicLong();
     private final AtomicReference<Duration> putTimeTaken = new AtomicReference<Duration>(Duration.ZERO);
     private final AtomicReference<Duration> getTimeTaken = new AtomicReference<Duration>(Duration.ZERO);
     private final AtomicReference<Duration> removeTimeTaken = new AtomicReference<Duration>(Duration.ZERO);
@@ -44,6 +47,11 @@ public class Statistics
         increment(duration, getTimeTaken);
     }
 
+    public void addListenerQueueDepth(final long delta)
+    {
+        listenerQueueDepth.addAndGet(delta);
+    }
+
     public void addPutTime(final Duration duration)
     {
         increment(duration, putTimeTaken);
@@ -64,6 +72,16 @@ public class Statistics
         return hits.get();
     }
 
+    public long getListenerEventsDropped()
+    {
+        return listenerEventsDropped.get();
+    }
+
+    public long getListenerQueueDepth()
+    {
+        return listenerQueueDepth.get();
+    }
+
     public long getMisses()
     {
         return misses.get();
@@ -109,6 +127,11 @@ public class Statistics
         increment(hits, -1L);
     }
 
+    public void incrementListenerEventsDropped()
+    {
+        increment(listenerEventsDropped, 1L);
+    }
+
     public void incrementMisses()
     {
         increment(misses, 1L);
@@ -176,6 +199,7 @@ public class Statistics
         expiries.set(0);
         hits.set(0);
         evictions.set(0);
+        listenerEventsDropped.set(0);
         getTimeTaken.set(Duration.ZERO);
         putTimeTaken.set(Duration.ZERO);
         removeTimeTaken.set(Duration.ZERO);
@@ -227,16 +227,16 @@ public class TempStateCacheView<K, V> implements Cache<K, V>
             cache.clear();
         }
 
-        for (final Map.Entry<K, V> entry : put.entrySet())
+        if (!put.isEmpty())
         {
-            cache.put(entry.getKey(), entry.getValue());
+            cache.putAll(put);
+            put.clear();
         }
-        put.clear();
-        for (final K entry : remove)
+        if (!remove.isEmpty())
         {
-            cache.remove(entry);
+            cache.removeAll(new HashSet<>(remove));
+            remove.clear();
         }
-        remove.clear();
     }
 
     @Override
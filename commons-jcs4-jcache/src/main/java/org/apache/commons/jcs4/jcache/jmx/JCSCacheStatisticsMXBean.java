@@ -20,11 +20,9 @@ package org.apache.commons.jcs4.jcache.jmx;
 
 import java.time.Duration;
 
-import javax.cache.management.CacheStatisticsMXBean;
-
 import org.apache.commons.jcs4.jcache.Statistics;
 
-public class JCSCacheStatisticsMXBean implements CacheStatisticsMXBean
+public class JCSCacheStatisticsMXBean implements JCSStatisticsMXBean
 {
     private final Statistics statistics;
 
@@ -96,6 +94,18 @@ public class JCSCacheStatisticsMXBean implements CacheStatisticsMXBean
         return statistics.getHits();
     }
 
+    @Override
+    public long getListenerEventsDropped()
+    {
+        return statistics.getListenerEventsDropped();
+    }
+
+    @Override
+    public long getListenerQueueDepth()
+    {
+        return statistics.getListenerQueueDepth();
+    }
+
     @Override
     public long getCacheMisses()
     {
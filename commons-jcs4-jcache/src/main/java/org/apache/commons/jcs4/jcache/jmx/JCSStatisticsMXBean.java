@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.jcs4.jcache.jmx;
+
+import javax.cache.management.CacheStatisticsMXBean;
+
+// the JSR-107 statistics plus the asynchronous listener queues, one interface so JMX finds a single MXBean
+public interface JCSStatisticsMXBean extends CacheStatisticsMXBean
+{
+    /**
+     * @return events dropped because the queue of an asynchronous listener was full
+     */
+    long getListenerEventsDropped();
+
+    /**
+     * @return events waiting in the queues of the asynchronous listeners
+     */
+    long getListenerQueueDepth();
+}
@@ -18,12 +18,69 @@
  */
 package org.apache.commons.jcs4.jcache.serialization;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.Period;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
 import org.apache.commons.jcs4.engine.behavior.IElementSerializer;
 
 public class Serializations
 {
+    // exact classes only, subclasses of BigInteger for instance may be mutable
+    private static final Set<Class<?>> IMMUTABLE_TYPES = Set.of(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, BigInteger.class, BigDecimal.class, UUID.class, URI.class, Locale.class,
+            Instant.class, Duration.class, Period.class, LocalDate.class, LocalTime.class, LocalDateTime.class,
+            OffsetDateTime.class, ZonedDateTime.class);
+
+    // computed once per class, the lookup is a field read afterwards
+    private static final ClassValue<Boolean> IMMUTABLE = new ClassValue<>()
+    {
+        @Override
+        protected Boolean computeValue(final Class<?> type)
+        {
+            return Boolean.valueOf(IMMUTABLE_TYPES.contains(type) || type.isEnum()
+                    || type.getSuperclass() != null && type.getSuperclass().isEnum());
+        }
+    };
+
+    /**
+     * Copies a key or value for store-by-value. Instances of immutable types are returned as they
+     * are, arrays of bytes and dates are cloned, everything else goes through the serializer.
+     *
+     * @param serializer the serializer used for the copy
+     * @param loader the class loader for the copy
+     * @param key the key or value, may be null
+     * @return an instance that does not share mutable state with the original
+     */
+    @SuppressWarnings("unchecked")
     public static <K> K copy(final IElementSerializer serializer, final ClassLoader loader, final K key)
     {
+        if (key == null || isImmutable(key.getClass()))
+        {
+            return key;
+        }
+        if (key instanceof final byte[] bytes)
+        {
+            return (K) bytes.clone();
+        }
+        if (key.getClass() == Date.class)
+        {
+            return (K) new Date(((Date) key).getTime());
+        }
+
         try
         {
             return serializer.deSerialize(serializer.serialize(key), loader);
@@ -33,4 +90,13 @@ public class Serializations
             throw new IllegalStateException(e);
         }
     }
+
+    /**
+     * @param type a class
+     * @return true if instances of exactly this class cannot change, so that copies can be shared
+     */
+    public static boolean isImmutable(final Class<?> type)
+    {
+        return IMMUTABLE.get(type).booleanValue();
+    }
 }
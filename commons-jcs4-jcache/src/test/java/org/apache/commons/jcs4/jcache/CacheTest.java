@@ -23,10 +23,21 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.cache.Cache;
 import javax.cache.CacheManager;
@@ -34,8 +45,11 @@ import javax.cache.Caching;
 import javax.cache.configuration.CacheEntryListenerConfiguration;
 import javax.cache.configuration.CompleteConfiguration;
 import javax.cache.configuration.Factory;
+import javax.cache.configuration.FactoryBuilder;
+import javax.cache.configuration.MutableCacheEntryListenerConfiguration;
 import javax.cache.configuration.MutableConfiguration;
 import javax.cache.event.CacheEntryCreatedListener;
+import javax.cache.event.CacheEntryEvent;
 import javax.cache.event.CacheEntryEventFilter;
 import javax.cache.event.CacheEntryListener;
 import javax.cache.event.CacheEntryRemovedListener;
@@ -46,12 +60,55 @@ import javax.cache.expiry.ExpiryPolicy;
 import javax.cache.integration.CacheLoader;
 import javax.cache.integration.CacheLoaderException;
 import javax.cache.integration.CacheWriter;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.EntryProcessorResult;
 import javax.cache.spi.CachingProvider;
 
 import org.junit.jupiter.api.Test;
 
 class CacheTest
 {
+    private static final class RecordingListener implements CacheEntryCreatedListener<String, Integer>,
+            CacheEntryUpdatedListener<String, Integer>, CacheEntryRemovedListener<String, Integer>
+    {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final Set<String> threads = ConcurrentHashMap.newKeySet();
+        private final CountDownLatch latch;
+
+        private RecordingListener(final int expected)
+        {
+            latch = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void onCreated(final Iterable<CacheEntryEvent<? extends String, ? extends Integer>> cacheEntryEvents)
+        {
+            record(cacheEntryEvents);
+        }
+
+        @Override
+        public void onRemoved(final Iterable<CacheEntryEvent<? extends String, ? extends Integer>> cacheEntryEvents)
+        {
+            record(cacheEntryEvents);
+        }
+
+        @Override
+        public void onUpdated(final Iterable<CacheEntryEvent<? extends String, ? extends Integer>> cacheEntryEvents)
+        {
+            record(cacheEntryEvents);
+        }
+
+        private void record(final Iterable<CacheEntryEvent<? extends String, ? extends Integer>> cacheEntryEvents)
+        {
+            threads.add(Thread.currentThread().getName());
+            for (final CacheEntryEvent<? extends String, ? extends Integer> event : cacheEntryEvents)
+            {
+                events.add(event.getEventType() + ":" + event.getKey());
+                latch.countDown();
+            }
+        }
+    }
+
     @Test
     void testAccessExpiry()
         throws InterruptedException
@@ -88,6 +145,120 @@ class CacheTest
         }
     }
 
+    @Test
+    void testAccessExpiryStoreByValue()
+        throws InterruptedException
+    {
+        final CachingProvider cachingProvider = Caching.getCachingProvider();
+        final CacheManager cacheManager = cachingProvider.getCacheManager(cachingProvider.getDefaultURI(),
+                Thread.currentThread().getContextClassLoader(),
+                cachingProvider.getDefaultProperties());
+        final Cache<String, StringBuilder> cache = cacheManager.createCache(
+                "test-by-value",
+                new MutableConfiguration<String, StringBuilder>()
+                        .setStoreByValue(true)
+                        .setTypes(String.class, StringBuilder.class)
+                        .setExpiryPolicyFactory(AccessedExpiryPolicy.factoryOf(new Duration(TimeUnit.MILLISECONDS, 500))));
+
+        try {
+            final StringBuilder value = new StringBuilder("v");
+            cache.put("k", value);
+            value.append("changed");
+            for (int i = 0; i < 3; i++) { // get() extends the expiry
+                Thread.sleep(250);
+                assertEquals("v", cache.get("k").toString(), "iteration: " + Integer.toString(i));
+            }
+            assertEquals(1, cache.getAll(Set.of("k")).size());
+            Thread.sleep(650);
+            assertFalse(cache.containsKey("k"));
+        } finally {
+            cacheManager.close();
+            cachingProvider.close();
+        }
+    }
+
+    @Test
+    void testAsynchronousListener()
+        throws InterruptedException
+    {
+        final CachingProvider cachingProvider = Caching.getCachingProvider();
+        final CacheManager cacheManager = cachingProvider.getCacheManager();
+        final Cache<String, Integer> cache = cacheManager.createCache("async-listener", new MutableConfiguration<String, Integer>());
+        final RecordingListener listener = new RecordingListener(102);
+        cache.registerCacheEntryListener(new MutableCacheEntryListenerConfiguration<String, Integer>(
+                () -> listener, null, false, false));
+
+        try
+        {
+            final List<String> expected = new ArrayList<>();
+            for (int i = 0; i < 100; i++)
+            {
+                cache.put("a", i);
+                expected.add((i == 0 ? "CREATED" : "UPDATED") + ":a");
+            }
+            cache.put("b", 0);
+            expected.add("CREATED:b");
+            cache.remove("a");
+            expected.add("REMOVED:a");
+
+            assertTrue(listener.latch.await(10, TimeUnit.SECONDS));
+            assertEquals(expected, listener.events);
+            assertFalse(listener.threads.contains(Thread.currentThread().getName()));
+        }
+        finally
+        {
+            cachingProvider.close();
+        }
+    }
+
+    @Test
+    void testBulkOperations()
+    {
+        final AtomicInteger loads = new AtomicInteger();
+        final AtomicInteger bulkLoads = new AtomicInteger();
+        final CacheLoader<String, String> loader = new CacheLoader<>()
+        {
+            @Override
+            public String load(final String key) throws CacheLoaderException
+            {
+                loads.incrementAndGet();
+                return "loaded-" + key;
+            }
+
+            @Override
+            public Map<String, String> loadAll(final Iterable<? extends String> keys) throws CacheLoaderException
+            {
+                bulkLoads.incrementAndGet();
+                final Map<String, String> values = new HashMap<>();
+                keys.forEach(k -> values.put(k, "loaded-" + k));
+                return values;
+            }
+        };
+        final CachingProvider cachingProvider = Caching.getCachingProvider();
+        final CacheManager cacheManager = cachingProvider.getCacheManager();
+        final Cache<String, String> cache = cacheManager.createCache("bulk", new MutableConfiguration<String, String>()
+                .setReadThrough(true)
+                .setCacheLoaderFactory(new FactoryBuilder.SingletonFactory<>(loader)));
+
+        final Map<String, String> values = new HashMap<>();
+        values.put("a", "1");
+        values.put("b", "2");
+        cache.putAll(values);
+
+        final Map<String, String> all = cache.getAll(new HashSet<>(Arrays.asList("a", "b", "c", "d")));
+        assertEquals(4, all.size());
+        assertEquals("1", all.get("a"));
+        assertEquals("loaded-c", all.get("c"));
+        assertEquals(0, loads.get());
+        assertEquals(1, bulkLoads.get());
+
+        cache.removeAll(new HashSet<>(Arrays.asList("a", "c")));
+        assertFalse(cache.containsKey("a"));
+        assertFalse(cache.containsKey("c"));
+        assertTrue(cache.containsKey("b"));
+        cachingProvider.close();
+    }
+
     @Test
     void testGetPut()
     {
@@ -103,6 +274,98 @@ class CacheTest
         cachingProvider.close();
     }
 
+    @Test
+    void testInvokeCounters()
+        throws Exception
+    {
+        final CachingProvider cachingProvider = Caching.getCachingProvider();
+        final CacheManager cacheManager = cachingProvider.getCacheManager();
+        final Cache<String, Integer> cache = cacheManager.createCache("counters", new MutableConfiguration<String, Integer>());
+        final EntryProcessor<String, Integer, Integer> increment = (entry, args) -> {
+            final int next = entry.exists() ? entry.getValue() + 1 : 1;
+            entry.setValue(next);
+            return next;
+        };
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++)
+            {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 250; i++)
+                    {
+                        cache.invoke("shared", increment);
+                    }
+                }));
+            }
+            for (final Future<?> future : futures)
+            {
+                future.get();
+            }
+            assertEquals(1000, cache.get("shared").intValue());
+
+            final Set<String> keys = new HashSet<>();
+            for (int i = 0; i < 100; i++)
+            {
+                keys.add("key" + i);
+            }
+            final Map<String, EntryProcessorResult<Integer>> results = cache.invokeAll(keys, increment);
+            assertEquals(100, results.size());
+            for (final String key : keys)
+            {
+                assertEquals(1, results.get(key).get().intValue());
+                assertEquals(1, cache.get(key).intValue());
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+            cachingProvider.close();
+        }
+    }
+
+    @Test
+    void testInvokeAllNested()
+        throws Exception
+    {
+        final CachingProvider cachingProvider = Caching.getCachingProvider();
+        final CacheManager cacheManager = cachingProvider.getCacheManager();
+        final Cache<String, Integer> cache = cacheManager.createCache("nested", new MutableConfiguration<String, Integer>());
+        final Set<String> keys = new HashSet<>();
+        for (int i = 0; i < 100; i++)
+        {
+            keys.add("key" + i);
+        }
+        final EntryProcessor<String, Integer, Integer> increment = (entry, args) -> {
+            final int next = entry.exists() ? entry.getValue() + 1 : 1;
+            entry.setValue(next);
+            return next;
+        };
+        // holds the stripe of "outer" while the nested invokeAll needs all stripes
+        final EntryProcessor<String, Integer, Integer> outer = (entry, args) -> {
+            entry.setValue(cache.invokeAll(keys, increment).size());
+            return entry.getValue();
+        };
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            final Future<Integer> result = executor.submit(() -> cache.invoke("outer", outer));
+            assertEquals(100, result.get(10, TimeUnit.SECONDS).intValue());
+            for (final String key : keys)
+            {
+                assertEquals(1, cache.get(key).intValue());
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+            cachingProvider.close();
+        }
+    }
+
     @Test
     void testListeners()
     {
@@ -138,7 +401,7 @@ class CacheTest
             @Override
             public boolean isSynchronous()
             {
-                return false;
+                return true;
             }
         });
         cache.registerCacheEntryListener(new CacheEntryListenerConfiguration<String, String>()
@@ -168,7 +431,7 @@ class CacheTest
             @Override
             public boolean isSynchronous()
             {
-                return false;
+                return true;
             }
         });
         cache.registerCacheEntryListener(new CacheEntryListenerConfiguration<String, String>()
@@ -198,7 +461,7 @@ class CacheTest
             @Override
             public boolean isSynchronous()
             {
-                return false;
+                return true;
             }
         });
 